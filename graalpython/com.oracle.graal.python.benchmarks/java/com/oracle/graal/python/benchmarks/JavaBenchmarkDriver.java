@@ -65,6 +65,7 @@ public class JavaBenchmarkDriver extends AbstractLanguageLauncher {
     public static class BenchmarkOptions {
         public boolean sharedEngine;
         public boolean multiContext;
+        public boolean startup;
         public int iterations = 10;
         public int warmupIterations = 10;
         public String benchmarksPath;
@@ -95,6 +96,10 @@ public class JavaBenchmarkDriver extends AbstractLanguageLauncher {
                 case "-multi-context":
                     options.multiContext = true;
                     break;
+                case "-startup":
+                    options.multiContext = true;
+                    options.startup = true;
+                    break;
                 case "-path":
                     if (i + 1 >= arguments.size()) {
                         System.err.println("Option -path is not followed by anything");
@@ -198,13 +203,23 @@ public class JavaBenchmarkDriver extends AbstractLanguageLauncher {
     private long[] repeatBenchmarkMultiContext(Builder contextBuilder, Source source, int iterations, boolean warmup) {
         long[] durations = new long[iterations];
         for (int i = 0; i < iterations; i++) {
-            Context context = contextBuilder.build();
-            Value benchmark = getBenchmark(source, context);
+            if (options.startup) {
+                // time to first result: creating and initializing the context, loading the
+                // benchmark and running it once all count
+                long start = System.nanoTime();
+                try (Context context = contextBuilder.build()) {
+                    getBenchmark(source, context).executeVoid((Object[]) options.benchmarkArgs);
+                    durations[i] = System.nanoTime() - start;
+                }
+            } else {
+                Context context = contextBuilder.build();
+                Value benchmark = getBenchmark(source, context);
 
-            long start = System.nanoTime();
-            benchmark.executeVoid((Object[]) options.benchmarkArgs);
-            long end = System.nanoTime();
-            durations[i] = end - start;
+                long start = System.nanoTime();
+                benchmark.executeVoid((Object[]) options.benchmarkArgs);
+                long end = System.nanoTime();
+                durations[i] = end - start;
+            }
             reportIteration(i, durations[i], warmup);
         }
         return durations;
@@ -269,6 +284,8 @@ public class JavaBenchmarkDriver extends AbstractLanguageLauncher {
         System.out.println("-interpreter      Turn off Truffle compilations to benchmark interpreter performance");
         System.out.println("-shared-engine    Use shared engine");
         System.out.println("-multi-context    Run each iteration in a new context");
+        System.out.println("-startup          Run each iteration in a new context and measure the time to its first result,");
+        System.out.println("                  including context creation and loading of the benchmark");
         System.out.println("-path /some/path  Where to look for the Python scripts with the benchmarks");
         System.out.println();
         System.out.printf("The Python benchmark script must define function named '%s'.%n", BENCHMARK_ENTRY_POINT);
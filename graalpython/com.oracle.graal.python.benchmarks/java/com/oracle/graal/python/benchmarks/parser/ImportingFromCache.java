@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.parser;
+
+import com.oracle.truffle.api.source.Source;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures what a module import costs when its code is taken from a {@code __pycache__/*.pyc}
+ * file written by importlib itself: the path finder's lookup of the module, the loader's lookup of
+ * the cache file, the validation of its header against the source stats and the unmarshalling of
+ * the serialized SST. The module bodies are not executed, because the library files depend on
+ * their packages for relative imports and some of them have side effects. Compare with
+ * {@link ParsingAndTranslating} on the same files to see the win over parsing from source.
+ */
+public class ImportingFromCache extends ParserBenchRunner {
+
+    private static final String SCRIPT = "import importlib.machinery, os, sys\n" +
+                    "sys.dont_write_bytecode = False\n" +
+                    "cached_names = []\n" +
+                    "def find(name, path):\n" +
+                    "    spec = importlib.machinery.PathFinder.find_spec(name, [path])\n" +
+                    "    if spec is None:\n" +
+                    "        raise ImportError(name)\n" +
+                    "    return spec\n" +
+                    // the first lookup parses the source and lets the loader write the cache file
+                    "def write_cache(name, path):\n" +
+                    "    spec = find(name, path)\n" +
+                    "    spec.loader.get_code(name)\n" +
+                    "    if os.path.exists(spec.cached):\n" +
+                    "        cached_names.append(name)\n" +
+                    "def import_cached(path):\n" +
+                    "    count = 0\n" +
+                    "    for name in cached_names:\n" +
+                    "        if find(name, path).loader.get_code(name) is not None:\n" +
+                    "            count += 1\n" +
+                    "    return count\n" +
+                    "def cache_count():\n" +
+                    "    return len(cached_names)\n";
+
+    private File moduleDir;
+    private Value importCached;
+
+    @Setup
+    public void setup() throws IOException {
+        System.out.println("### setup ...");
+        System.out.println("    Found " + getSources().size() + " Python sources");
+        moduleDir = Files.createTempDirectory("graalpython-importing").toFile();
+        Context context = Context.getCurrent();
+        context.eval("python", SCRIPT);
+        Value bindings = context.getBindings("python");
+        Value writeCache = bindings.getMember("write_cache");
+        int counter = 0;
+        for (Source source : getSources()) {
+            // copy the sources into one flat directory under names that are valid module names
+            String name = "m" + (counter++);
+            Files.copy(new File(source.getPath()).toPath(), new File(moduleDir, name + ".py").toPath(), StandardCopyOption.REPLACE_EXISTING);
+            try {
+                writeCache.execute(name, moduleDir.getPath());
+            } catch (PolyglotException e) {
+                // do nothing
+            }
+        }
+        importCached = bindings.getMember("import_cached");
+        System.out.println("    Written " + bindings.getMember("cache_count").execute().asInt() + " cache files");
+    }
+
+    @TearDown
+    public void tearDown() {
+        delete(moduleDir);
+    }
+
+    @Benchmark
+    public void execute(Blackhole bh) {
+        for (int n = 0; n < parsingCycles; n++) {
+            bh.consume(importCached.execute(moduleDir.getPath()).asInt());
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
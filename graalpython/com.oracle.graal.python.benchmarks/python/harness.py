@@ -212,6 +212,30 @@ def ccompile(name, code):
     invalidate_caches()
 
 
+def hpycompile(name, code):
+    """
+    Compiles an HPy extension module in universal mode and loads it. The module is not added to
+    'sys.modules'.
+    """
+    from distutils.core import Distribution, Extension
+    from hpy.devel import HPyDevel
+    import hpy.universal
+    __dir__ = __file__.rpartition("/")[0]
+    source_file = '%s/%s.c' % (__dir__, name)
+    with open(source_file, "w") as f:
+        f.write(code)
+    dist = Distribution({'name': name, 'version': '1.0', 'description': ''})
+    dist.hpy_abi = 'universal'
+    dist.hpy_ext_modules = [Extension(name, sources=[source_file])]
+    HPyDevel().fix_distribution(dist)
+    options_build_ext = dist.get_option_dict('build_ext')
+    options_build_ext['force'] = ('harness', True)
+    options_build_ext['build_lib'] = ('harness', __dir__)
+    dist.run_command('build_ext')
+    so_filename = [x for x in dist.get_command_obj('build_ext').get_outputs() if not x.endswith(".py")][0]
+    return hpy.universal.load(name, so_filename)
+
+
 def _as_int(value):
     if isinstance(value, (list, tuple)):
         value = value[0]
@@ -264,6 +288,7 @@ class BenchRunner(object):
             with _io.FileIO(bench_file, "r") as f:
                 bench_module.__file__ = bench_file
                 bench_module.ccompile = ccompile
+                bench_module.hpycompile = hpycompile
                 exec(compile(f.readall(), bench_file, "exec"), bench_module.__dict__)
                 return bench_module
 
@@ -0,0 +1,98 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# An asyncio echo server on the loopback interface with a number of clients
+# doing request/response round trips over streams. Every round trip suspends
+# tasks on futures in the server and in the client, so besides the socket I/O
+# this mostly measures futures, tasks and the event loop's callback scheduling.
+
+import asyncio
+
+CLIENTS = 20
+MESSAGE = b'x' * 64 + b'\n'
+
+
+async def handle_echo(reader, writer):
+    while True:
+        line = await reader.readline()
+        if not line:
+            break
+        writer.write(line)
+        await writer.drain()
+    writer.close()
+
+
+async def client(port, round_trips):
+    reader, writer = await asyncio.open_connection('127.0.0.1', port)
+    received = 0
+    for _ in range(round_trips):
+        writer.write(MESSAGE)
+        await writer.drain()
+        received += len(await reader.readline())
+    writer.close()
+    return received
+
+
+async def echo(round_trips):
+    server = await asyncio.start_server(handle_echo, '127.0.0.1', 0)
+    port = server.sockets[0].getsockname()[1]
+    try:
+        results = await asyncio.gather(*[client(port, round_trips) for _ in range(CLIENTS)])
+    finally:
+        server.close()
+        await server.wait_closed()
+    return sum(results)
+
+
+def main(round_trips):
+    loop = asyncio.new_event_loop()
+    try:
+        return loop.run_until_complete(echo(round_trips))
+    finally:
+        loop.close()
+
+
+def __benchmark__(num=500):
+    main(num)
+
+
+if __name__ == '__main__':
+    import sys
+    num = int(sys.argv[1]) if len(sys.argv) > 1 else 500
+    print(main(num))
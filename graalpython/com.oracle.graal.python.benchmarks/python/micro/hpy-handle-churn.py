@@ -0,0 +1,110 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+code = """
+#include <stdlib.h>
+#include "hpy.h"
+
+/*
+ * churn(obj, rounds, live): opens 'live' handles to 'obj', closes them again and repeats that
+ * 'rounds' times. Returns the number of handles that have been opened.
+ */
+HPyDef_METH(churn, "churn", churn_impl, HPyFunc_VARARGS)
+static HPy churn_impl(HPyContext *ctx, HPy self, HPy *args, HPy_ssize_t nargs)
+{
+    HPy obj;
+    long rounds, live, i, j;
+    HPy *handles;
+    if (!HPyArg_Parse(ctx, NULL, args, nargs, "Oll", &obj, &rounds, &live))
+        return HPy_NULL;
+    handles = (HPy *)malloc(live * sizeof(HPy));
+    if (handles == NULL)
+        return HPyErr_NoMemory(ctx);
+    for (i = 0; i < rounds; i++) {
+        for (j = 0; j < live; j++) {
+            handles[j] = HPy_Dup(ctx, obj);
+        }
+        for (j = 0; j < live; j++) {
+            HPy_Close(ctx, handles[j]);
+        }
+    }
+    free(handles);
+    return HPyLong_FromLong(ctx, rounds * live);
+}
+
+static HPyDef *module_defines[] = {
+    &churn,
+    NULL
+};
+
+static HPyModuleDef moduledef = {
+    HPyModuleDef_HEAD_INIT,
+    .m_name = "hpy_handle_churn",
+    .m_doc = "",
+    .m_size = -1,
+    .defines = module_defines
+};
+
+HPy_MODINIT(hpy_handle_churn)
+static HPy init_hpy_handle_churn_impl(HPyContext *ctx)
+{
+    return HPyModule_Create(ctx, &moduledef);
+}
+"""
+
+
+hpy_handle_churn = hpycompile("hpy_handle_churn", code)
+
+
+def count(num, live):
+    obj = object()
+    total = 0
+    for i in range(num):
+        total += hpy_handle_churn.churn(obj, 10, live)
+    return total
+
+
+def measure(num, live):
+    result = count(num, live)
+    print("result = " + str(result))
+
+
+def __benchmark__(num=20, live=100000):
+    measure(num, live)
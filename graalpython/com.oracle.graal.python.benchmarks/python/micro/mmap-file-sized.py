@@ -0,0 +1,97 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import mmap
+import os
+import re
+import struct
+import tempfile
+
+LINE = b"lorem ipsum dolor sit amet 0123456789\n"
+RECORD = struct.Struct("<II")
+PATTERN = re.compile(rb"dolor (\w+)")
+
+
+def create_file(size):
+    fd, path = tempfile.mkstemp()
+    with os.fdopen(fd, "wb") as f:
+        chunk = LINE * (1024 * 1024 // len(LINE))
+        written = 0
+        while written < size:
+            f.write(chunk)
+            written += len(chunk)
+    return path
+
+
+def scan(mm):
+    # find, buffer export and readline all operate on the mapping
+    count = 0
+    idx = mm.find(b"amet")
+    while idx != -1:
+        count += 1
+        idx = mm.find(b"amet", idx + 4, idx + 4 * len(LINE))
+    view = memoryview(mm)
+    checksum = 0
+    for offset in range(0, len(view) - RECORD.size, 4096):
+        a, b = RECORD.unpack_from(view, offset)
+        checksum ^= a ^ b
+    matches = sum(1 for _ in PATTERN.finditer(mm, 0, 1024 * 1024))
+    view.release()
+    mm.seek(0)
+    lines = 0
+    while mm.readline():
+        lines += 1
+    return count, checksum, matches, lines
+
+
+def measure(num, size_mb):
+    path = create_file(size_mb * 1024 * 1024)
+    try:
+        with open(path, "rb") as f:
+            mm = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+            for i in range(num):
+                result = scan(mm)
+            mm.close()
+        print(result)
+    finally:
+        os.unlink(path)
+
+
+def __benchmark__(num=5, size_mb=16):
+    measure(num, size_mb)
@@ -67,12 +67,18 @@
 #include <sys/socket.h>
 #include <sys/time.h>
 #include <sys/types.h>
+#include <sys/uio.h>
 #include <sys/utsname.h>
 #include <sys/wait.h>
 #include <sys/file.h>
 #include <sys/mman.h>
 #include <unistd.h>
 #include <pwd.h>
+#include <poll.h>
+#ifdef __linux__
+#include <sys/epoll.h>
+#include <sys/sendfile.h>
+#endif
 
 
 int64_t call_getpid() {
@@ -124,6 +130,74 @@ int64_t call_write(int32_t fd, void *buf, uint64_t count) {
     return write(fd, buf, count);
 }
 
+// Builds the iovec array for segments described by offsets into a single buffer, except for the segments with a non-zero
+// entry in addresses (which may be NULL), which are native memory at that address. The result must be freed by the caller.
+static struct iovec *make_iovec(int8_t *buf, int32_t *offsets, int32_t *lengths, int64_t *addresses, int32_t count) {
+    struct iovec *iov = malloc((count > 0 ? count : 1) * sizeof(struct iovec));
+    if (iov != NULL) {
+        for (int32_t i = 0; i < count; i++) {
+            if (addresses != NULL && addresses[i] != 0) {
+                iov[i].iov_base = (void *) (intptr_t) addresses[i];
+            } else {
+                iov[i].iov_base = buf + offsets[i];
+            }
+            iov[i].iov_len = lengths[i];
+        }
+    }
+    return iov;
+}
+
+static void free_iovec(struct iovec *iov) {
+    int saved_errno = errno;
+    free(iov);
+    errno = saved_errno;
+}
+
+int64_t call_readv(int32_t fd, int8_t *buf, int32_t *offsets, int32_t *lengths, int64_t *addresses, int32_t count) {
+    struct iovec *iov = make_iovec(buf, offsets, lengths, addresses, count);
+    if (iov == NULL) {
+        return -1;
+    }
+    int64_t res = readv(fd, iov, count);
+    free_iovec(iov);
+    return res;
+}
+
+int64_t call_writev(int32_t fd, int8_t *buf, int32_t *offsets, int32_t *lengths, int64_t *addresses, int32_t count) {
+    struct iovec *iov = make_iovec(buf, offsets, lengths, addresses, count);
+    if (iov == NULL) {
+        return -1;
+    }
+    int64_t res = writev(fd, iov, count);
+    free_iovec(iov);
+    return res;
+}
+
+// A negative offset means that the current file position of in_fd is used and updated
+int64_t call_sendfile(int32_t out_fd, int32_t in_fd, int64_t offset, int64_t count) {
+#ifdef __linux__
+    if (offset < 0) {
+        return sendfile(out_fd, in_fd, NULL, count);
+    }
+    off_t off = offset;
+    return sendfile(out_fd, in_fd, &off, count);
+#elif defined(__APPLE__)
+    if (offset < 0) {
+        errno = EINVAL;
+        return -1;
+    }
+    // note the different order of file descriptors; len is the number of bytes sent even on EAGAIN
+    off_t len = count;
+    if (sendfile(in_fd, out_fd, offset, &len, NULL, 0) == -1 && len == 0) {
+        return -1;
+    }
+    return len;
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int32_t call_dup(int32_t fd) {
     return fcntl(fd, F_DUPFD_CLOEXEC, 0);
 }
@@ -202,6 +276,80 @@ int32_t call_select(int32_t nfds, int32_t* readfds, int32_t readfdsLen,
     return (int32_t) result;
 }
 
+// revents is output parameter, it receives the returned events of the file
+// descriptor at the same index in fds
+int32_t call_poll(int32_t* fds, int32_t* events, int32_t* revents, int32_t nfds, int32_t timeout) {
+    struct pollfd *pfds = NULL;
+    if (nfds > 0) {
+        pfds = (struct pollfd *) malloc(nfds * sizeof(struct pollfd));
+        if (pfds == NULL) {
+            errno = ENOMEM;
+            return -1;
+        }
+    }
+    for (int32_t i = 0; i < nfds; ++i) {
+        pfds[i].fd = fds[i];
+        pfds[i].events = (short) events[i];
+        pfds[i].revents = 0;
+    }
+    int result = poll(pfds, (nfds_t) nfds, timeout);
+    if (result >= 0) {
+        for (int32_t i = 0; i < nfds; ++i) {
+            revents[i] = (uint16_t) pfds[i].revents;
+        }
+    }
+    int saved_errno = errno;
+    free(pfds);
+    errno = saved_errno;
+    return result;
+}
+
+int32_t call_epoll_create() {
+#ifdef __linux__
+    return epoll_create1(EPOLL_CLOEXEC);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+int32_t call_epoll_ctl(int32_t epfd, int32_t op, int32_t fd, int32_t events) {
+#ifdef __linux__
+    struct epoll_event ev;
+    memset(&ev, 0, sizeof(ev));
+    ev.events = (uint32_t) events;
+    ev.data.fd = fd;
+    // Linux < 2.6.9 requires a non-NULL event even for EPOLL_CTL_DEL
+    return epoll_ctl(epfd, op, fd, &ev);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+// fds and events are output parameters, maxevents is their length
+int32_t call_epoll_wait(int32_t epfd, int32_t* fds, int32_t* events, int32_t maxevents, int32_t timeout) {
+#ifdef __linux__
+    struct epoll_event *evs = (struct epoll_event *) malloc(maxevents * sizeof(struct epoll_event));
+    if (evs == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    int result = epoll_wait(epfd, evs, maxevents, timeout);
+    for (int32_t i = 0; i < result; ++i) {
+        fds[i] = evs[i].data.fd;
+        events[i] = (int32_t) evs[i].events;
+    }
+    int saved_errno = errno;
+    free(evs);
+    errno = saved_errno;
+    return result;
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int64_t call_lseek(int32_t fd, int64_t offset, int32_t whence) {
     return lseek(fd, offset, whence);
 }
@@ -641,6 +789,49 @@ int32_t call_recvfrom(int32_t sockfd, void *buf, int32_t offset, int32_t len, in
     return res;
 }
 
+int32_t call_sendmsg(int32_t sockfd, int8_t *buf, int32_t *offsets, int32_t *lengths, int64_t *addresses, int32_t count, int32_t flags, int8_t *addr, int32_t addr_len) {
+    struct sockaddr_storage sa;
+    struct msghdr msg;
+    memset(&msg, 0, sizeof(msg));
+    if (addr_len > 0) {
+        memcpy(&sa, addr, addr_len);
+        msg.msg_name = &sa;
+        msg.msg_namelen = addr_len;
+    }
+    msg.msg_iov = make_iovec(buf, offsets, lengths, addresses, count);
+    if (msg.msg_iov == NULL) {
+        return -1;
+    }
+    msg.msg_iovlen = count;
+    int32_t res = sendmsg(sockfd, &msg, flags);
+    free_iovec(msg.msg_iov);
+    return res;
+}
+
+int32_t call_recvmsg(int32_t sockfd, int8_t *buf, int32_t *offsets, int32_t *lengths, int64_t *addresses, int32_t count, int32_t flags, int8_t *src_addr, int32_t *len_and_family, int32_t *msg_flags) {
+    struct sockaddr_storage sa;
+    struct msghdr msg;
+    memset(&msg, 0, sizeof(msg));
+    msg.msg_name = &sa;
+    msg.msg_namelen = sizeof(sa);
+    msg.msg_iov = make_iovec(buf, offsets, lengths, addresses, count);
+    if (msg.msg_iov == NULL) {
+        return -1;
+    }
+    msg.msg_iovlen = count;
+    int32_t res = recvmsg(sockfd, &msg, flags);
+    free_iovec(msg.msg_iov);
+    if (res != -1) {
+        socklen_t l = msg.msg_namelen;
+        assert(l <= sizeof(sa));
+        len_and_family[0] = l;
+        len_and_family[1] = l < offsetof(struct sockaddr_storage, ss_family) + sizeof(sa.ss_family) ? AF_UNSPEC : sa.ss_family;
+        memcpy(src_addr, &sa, l);
+        msg_flags[0] = msg.msg_flags;
+    }
+    return res;
+}
+
 int32_t call_shutdown(int32_t sockfd, int32_t how) {
     return shutdown(sockfd, how);
 }
@@ -73,23 +73,13 @@ POLYGLOT_DECLARE_TYPE(PyDateTime_TZInfo);
 extern PyObject* set_PyDateTime_typeids(PyTypeObject* dtcapiType, PyTypeObject* dateType, PyTypeObject* dateTimeType, PyTypeObject* timeType, PyTypeObject* deltaType, PyTypeObject* tzinfoType) {
     polyglot_invoke(PY_TRUFFLE_CEXT, "PyTruffle_Set_SulongType", dtcapiType, polyglot_PyDateTime_CAPI_typeid());
 
-    /* safe native get/set descriptors */
-    PyGetSetDef* getsets_date= PyDateTime_DateType.tp_getset;
-    PyGetSetDef* getsets_time = PyDateTime_TimeType.tp_getset;
-    PyGetSetDef* getsets_datetime = PyDateTime_DateTimeType.tp_getset;
-    PyMemberDef* members_delta = PyDateTime_DeltaType.tp_members;
-
     initialize_type_structure(&PyDateTime_DateType, dateType, polyglot_PyDateTime_Date_typeid());
     initialize_type_structure(&PyDateTime_DateTimeType, dateTimeType, polyglot_PyDateTime_DateTime_typeid());
     initialize_type_structure(&PyDateTime_TimeType, timeType, polyglot_PyDateTime_Time_typeid());
     initialize_type_structure(&PyDateTime_DeltaType, deltaType, polyglot_PyDateTime_Delta_typeid());
     initialize_type_structure(&PyDateTime_TZInfoType, tzinfoType, polyglot_PyDateTime_TZInfo_typeid());
 
-    /* register native get/set descriptors to managed types */
-    register_native_slots(&PyDateTime_DateType, getsets_date, NULL);
-    register_native_slots(&PyDateTime_DateTimeType, getsets_datetime, NULL);
-    register_native_slots(&PyDateTime_TimeType, getsets_time, NULL);
-    register_native_slots(&PyDateTime_DeltaType, NULL, members_delta);
+    /* the managed types implement the member getters in Java, so no native get/set descriptors are registered */
 
     return Py_True;
 }
@@ -253,11 +253,16 @@ static int (*original_NumberCheck)(HPyContext *ctx, HPy h);
 static void (*original_Close)(HPyContext *ctx, HPy h);
 static HPy (*original_UnicodeFromWideChar)(HPyContext *ctx, const wchar_t *arr, HPy_ssize_t size);
 
+/* must be kept in sync with 'GraalHPyContext.HANDLE_TABLE_SEGMENT_SHIFT' */
+#define HANDLE_TABLE_SEGMENT_SHIFT 10
+#define HANDLE_TABLE_SEGMENT_MASK ((1llu << HANDLE_TABLE_SEGMENT_SHIFT) - 1)
+
 static void *augment_AsStruct(HPyContext *ctx, HPy h) {
     uint64_t bits = toBits(h);
     if (isBoxedHandle(bits)) {
-        void** space = (void**)ctx->_private;
-        return space[unboxHandle(bits)];
+        uint64_t handle = unboxHandle(bits);
+        void*** segments = (void***)ctx->_private;
+        return segments[handle >> HANDLE_TABLE_SEGMENT_SHIFT][handle & HANDLE_TABLE_SEGMENT_MASK];
     } else {
         return NULL;
     }
@@ -414,9 +419,9 @@ void initDirectFastPaths(HPyContext *context) {
     context->ctx_Unicode_FromWideChar = augment_UnicodeFromWideChar;
 }
 
-void setHPyContextNativeSpace(HPyContext *context, void** nativeSpace) {
-    LOG("%p %p", context, nativeSpace);
-    context->_private = nativeSpace;
+void setHPyContextNativeSpace(HPyContext *context, void*** nativeSpaceSegments) {
+    LOG("%p %p", context, nativeSpaceSegments);
+    context->_private = nativeSpaceSegments;
 }
 
 typedef void (*destroyfunc)(void *);
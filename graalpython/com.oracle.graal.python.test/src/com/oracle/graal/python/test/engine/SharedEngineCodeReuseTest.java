@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.engine;
+
+import org.graalvm.polyglot.Engine;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Code that is parsed or deserialized without the Truffle source cache is cached at the language
+ * level and reused by the next contexts of a shared engine. Make sure that the reused code still
+ * behaves as if it was created in the new context.
+ */
+public class SharedEngineCodeReuseTest extends SharedEngineMultithreadingTestBase {
+    private static final int CONTEXTS_COUNT = 3;
+
+    @Test
+    public void testCodeReusedInSequentialContexts() {
+        try (Engine engine = Engine.create()) {
+            for (int i = 0; i < CONTEXTS_COUNT; i++) {
+                try (InitializedContext ctx = initContext(engine, new String[0])) {
+                    ctx.context.eval("python", "x = " + i + "\n" +
+                                    "exec(compile('y = x * 2', '<single>', 'single'))\n" +
+                                    "def f(a): return a + x\n" +
+                                    "g = type(f)(f.__code__.replace(co_name='g'), globals())\n" +
+                                    "print(y, g(10), g.__code__.co_name)\n");
+                    StdStreams out = ctx.getStreamsOutput();
+                    Assert.assertEquals(String.format("%d %d g\n", i * 2, 10 + i), out.out);
+                    Assert.assertEquals("", out.err);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import asyncio
+
+
+def run(coro):
+    loop = asyncio.new_event_loop()
+    try:
+        return loop.run_until_complete(coro)
+    finally:
+        loop.close()
+
+
+def test_future_result():
+    async def main():
+        loop = asyncio.get_running_loop()
+        fut = loop.create_future()
+        assert not fut.done()
+        loop.call_soon(fut.set_result, 42)
+        return await fut
+    assert run(main()) == 42
+
+
+def test_future_exception():
+    async def main():
+        fut = asyncio.get_running_loop().create_future()
+        fut.set_exception(ValueError("boom"))
+        assert fut.done()
+        assert isinstance(fut.exception(), ValueError)
+        try:
+            await fut
+        except ValueError as e:
+            return str(e)
+    assert run(main()) == "boom"
+
+
+def test_future_state_errors():
+    loop = asyncio.new_event_loop()
+    try:
+        fut = loop.create_future()
+        try:
+            fut.result()
+        except asyncio.InvalidStateError:
+            pass
+        else:
+            assert False, "expected InvalidStateError"
+        fut.set_result(1)
+        try:
+            fut.set_result(2)
+        except asyncio.InvalidStateError:
+            pass
+        else:
+            assert False, "expected InvalidStateError"
+        try:
+            fut.set_exception(StopIteration)
+        except (TypeError, asyncio.InvalidStateError):
+            pass
+        else:
+            assert False, "expected an error"
+    finally:
+        loop.close()
+
+
+def test_future_callbacks():
+    loop = asyncio.new_event_loop()
+    try:
+        calls = []
+        fut = loop.create_future()
+        cb1 = lambda f: calls.append(1)
+        cb2 = lambda f: calls.append(2)
+        fut.add_done_callback(cb1)
+        fut.add_done_callback(cb2)
+        fut.add_done_callback(cb1)
+        assert fut.remove_done_callback(cb1) == 2
+        fut.set_result(None)
+        loop.run_until_complete(asyncio.sleep(0))
+        assert calls == [2], calls
+    finally:
+        loop.close()
+
+
+def test_future_cancel():
+    loop = asyncio.new_event_loop()
+    try:
+        fut = loop.create_future()
+        assert fut.cancel()
+        assert fut.cancelled()
+        assert not fut.cancel()
+        try:
+            fut.result()
+        except asyncio.CancelledError:
+            pass
+        else:
+            assert False, "expected CancelledError"
+    finally:
+        loop.close()
+
+
+def test_task_gather():
+    async def square(x):
+        await asyncio.sleep(0)
+        return x * x
+
+    async def main():
+        return await asyncio.gather(*[square(i) for i in range(10)])
+    assert run(main()) == [i * i for i in range(10)]
+
+
+def test_task_cancel():
+    async def sleeper():
+        await asyncio.sleep(10)
+
+    async def main():
+        task = asyncio.get_running_loop().create_task(sleeper())
+        await asyncio.sleep(0)
+        task.cancel()
+        try:
+            await task
+        except asyncio.CancelledError:
+            return task.cancelled()
+    assert run(main())
+
+
+def test_task_name_and_current_task():
+    async def child():
+        return asyncio.current_task().get_name()
+
+    async def main():
+        task = asyncio.get_running_loop().create_task(child(), name="worker")
+        assert task in asyncio.all_tasks()
+        name = await task
+        task.set_name(42)
+        return name, task.get_name()
+    assert run(main()) == ("worker", "42")
+
+
+def test_task_not_a_coroutine():
+    loop = asyncio.new_event_loop()
+    try:
+        try:
+            loop.create_task(42)
+        except TypeError:
+            pass
+        else:
+            assert False, "expected TypeError"
+
+        def gen():
+            yield
+        try:
+            loop.create_task(gen())
+        except TypeError:
+            pass
+        else:
+            assert False, "expected TypeError"
+    finally:
+        loop.close()
+
+
+def test_task_generator_based_coroutine():
+    import types
+
+    @types.coroutine
+    def coro():
+        yield
+        return 42
+    assert run(coro()) == 42
+
+
+def test_running_loop():
+    try:
+        asyncio.get_running_loop()
+    except RuntimeError:
+        pass
+    else:
+        assert False, "expected RuntimeError"
+
+    async def main():
+        return asyncio.get_running_loop()
+    loop = asyncio.new_event_loop()
+    try:
+        assert loop.run_until_complete(main()) is loop
+    finally:
+        loop.close()
+
+
+def test_enter_leave_task():
+    import _asyncio
+    loop = object()
+    task1 = object()
+    task2 = object()
+    _asyncio._enter_task(loop, task1)
+    try:
+        _asyncio._enter_task(loop, task2)
+    except RuntimeError:
+        pass
+    else:
+        assert False, "expected RuntimeError"
+    try:
+        _asyncio._leave_task(loop, task2)
+    except RuntimeError:
+        pass
+    else:
+        assert False, "expected RuntimeError"
+    _asyncio._leave_task(loop, task1)
+
+
+def test_all_tasks_created_on_first_use():
+    import _asyncio
+    import weakref
+    all_tasks = _asyncio._all_tasks
+    assert isinstance(all_tasks, weakref.WeakSet)
+    assert _asyncio._all_tasks is all_tasks
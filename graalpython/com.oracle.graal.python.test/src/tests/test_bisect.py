@@ -0,0 +1,101 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _bisect
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_bisect_typed_lists():
+    for data in ([1, 2, 2, 2, 5, 8], [1, 2, 2, 2, 5, 1 << 40], [1.0, 2.0, 2.0, 2.0, 5.5, 8.25], ['a', 'b', 'b', 'b', 'e', 'h']):
+        x = data[1]
+        assert _bisect.bisect_left(data, x) == 1
+        assert _bisect.bisect_right(data, x) == 4
+        assert _bisect.bisect_left(data, x, 2) == 2
+        assert _bisect.bisect_right(data, x, 0, 3) == 3
+        assert _bisect.bisect_right(data, x, hi=None) == 4
+        assert _bisect.bisect_left(data, data[0], lo=1) == 1
+        assert _bisect.bisect_right(data, data[-1]) == len(data)
+
+
+def test_bisect_mixed_types():
+    data = [1, 2.5, 3, 4.5]
+    assert _bisect.bisect_left(data, 3) == 2
+    assert _bisect.bisect_right([1, 2, 3], 2.0) == 2
+    assert _bisect.bisect_left([1, 2, 3], 2.5) == 2
+    assert _bisect.bisect_left([1.0, 2.0, 3.0], 2) == 1
+
+
+def test_bisect_sequences():
+    assert _bisect.bisect_right((1, 2, 3), 2) == 2
+    assert _bisect.bisect_left(range(0, 100, 2), 51) == 26
+    assert _bisect.bisect_right("abc", "b") == 2
+
+
+def test_bisect_errors():
+    assert_raises(ValueError, _bisect.bisect_left, [1, 2], 1, -1)
+    assert_raises(IndexError, _bisect.bisect_left, [1, 2], 3, 0, 10)
+
+
+def test_insort():
+    data = []
+    for x in [5, 1, 4, 1, 3, 9, 2, 6]:
+        _bisect.insort_right(data, x)
+    assert data == [1, 1, 2, 3, 4, 5, 6, 9]
+    _bisect.insort_left(data, 2.5)
+    assert data == [1, 1, 2, 2.5, 3, 4, 5, 6, 9]
+
+    class MyList(list):
+        inserted = None
+
+        def insert(self, index, item):
+            MyList.inserted = (index, item)
+            list.insert(self, index, item)
+
+    data = MyList([1, 3])
+    _bisect.insort_left(data, 2)
+    assert data == [1, 2, 3]
+    assert MyList.inserted == (1, 2)
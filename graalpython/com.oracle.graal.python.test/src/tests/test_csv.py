@@ -0,0 +1,221 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import csv
+import io
+import unittest
+
+
+def read(text, **kwargs):
+    return list(csv.reader(io.StringIO(text, newline=''), **kwargs))
+
+
+def write(rows, **kwargs):
+    out = io.StringIO(newline='')
+    csv.writer(out, **kwargs).writerows(rows)
+    return out.getvalue()
+
+
+class ReaderTests(unittest.TestCase):
+
+    def test_plain_lines(self):
+        self.assertEqual(read('a,b,c\r\n1,2,3\r\n'), [['a', 'b', 'c'], ['1', '2', '3']])
+        self.assertEqual(read('a,b\n,\nx,\n'), [['a', 'b'], ['', ''], ['x', '']])
+        self.assertEqual(read('a;b;c\n', delimiter=';'), [['a', 'b', 'c']])
+        self.assertEqual(read('€,\U0001f600\n'), [['€', '\U0001f600']])
+
+    def test_empty_lines(self):
+        self.assertEqual(read('a\n\nb\n'), [['a'], [], ['b']])
+        self.assertEqual(read('\r\n'), [[]])
+        self.assertEqual(read(''), [])
+
+    def test_list_input(self):
+        self.assertEqual(list(csv.reader(['a,b', 'c,d'])), [['a', 'b'], ['c', 'd']])
+
+    def test_quoted(self):
+        self.assertEqual(read('"a,b",c\n'), [['a,b', 'c']])
+        self.assertEqual(read('"a""b",c\n'), [['a"b', 'c']])
+        self.assertEqual(read('"a\nb",c\n'), [['a\nb', 'c']])
+        self.assertEqual(read('a,"b\r\n\r\nc"\r\nd\r\n'), [['a', 'b\r\n\r\nc'], ['d']])
+        self.assertEqual(read('\'a,b\',c\n', quotechar="'"), [['a,b', 'c']])
+        self.assertEqual(read('"a,b",c\n', quoting=csv.QUOTE_NONE), [['"a', 'b"', 'c']])
+        self.assertEqual(read('"a"b,c\n'), [['ab', 'c']])
+
+    def test_escape(self):
+        self.assertEqual(read('a\\,b,c\n', escapechar='\\'), [['a,b', 'c']])
+        self.assertEqual(read('"a\\"b",c\n', escapechar='\\', doublequote=False), [['a"b', 'c']])
+
+    def test_skipinitialspace(self):
+        self.assertEqual(read('a, b,  c\n', skipinitialspace=True), [['a', 'b', 'c']])
+        self.assertEqual(read('a, b\n'), [['a', ' b']])
+
+    def test_nonnumeric(self):
+        self.assertEqual(read('1,"a",2.5\n', quoting=csv.QUOTE_NONNUMERIC), [[1.0, 'a', 2.5]])
+        with self.assertRaises(ValueError):
+            read('x,1\n', quoting=csv.QUOTE_NONNUMERIC)
+
+    def test_line_num(self):
+        r = csv.reader(['a', '"b', 'c"', 'd'])
+        self.assertEqual(next(r), ['a'])
+        self.assertEqual(r.line_num, 1)
+        self.assertEqual(next(r), ['bc'])
+        self.assertEqual(r.line_num, 3)
+
+    def test_end_of_data(self):
+        self.assertEqual(list(csv.reader(['"abc'])), [['abc']])
+        with self.assertRaises(csv.Error):
+            list(csv.reader(['"abc'], strict=True))
+
+    def test_strict(self):
+        with self.assertRaises(csv.Error):
+            read('"a"b,c\n', strict=True)
+
+    def test_errors(self):
+        with self.assertRaises(csv.Error):
+            list(csv.reader([b'a,b']))
+        with self.assertRaises(csv.Error):
+            list(csv.reader(['a\rb']))
+        with self.assertRaises(TypeError):
+            csv.reader(1)
+
+    def test_field_size_limit(self):
+        old = csv.field_size_limit(5)
+        try:
+            self.assertEqual(csv.field_size_limit(), 5)
+            self.assertEqual(read('abcde,x\n'), [['abcde', 'x']])
+            with self.assertRaises(csv.Error):
+                read('abcdef,x\n')
+            with self.assertRaises(csv.Error):
+                read('"abcdef",x\n')
+            with self.assertRaises(TypeError):
+                csv.field_size_limit(5.0)
+        finally:
+            csv.field_size_limit(old)
+
+    def test_many_rows(self):
+        rows = [[str(i), 'x' * (i % 7), str(i * i)] for i in range(1000)]
+        self.assertEqual(read(write(rows)), rows)
+
+
+class WriterTests(unittest.TestCase):
+
+    def test_plain(self):
+        self.assertEqual(write([['a', 'b'], [1, 2.5, None]]), 'a,b\r\n1,2.5,\r\n')
+
+    def test_quoting(self):
+        self.assertEqual(write([['a,b', 'c"d', 'e\nf']]), '"a,b","c""d","e\nf"\r\n')
+        self.assertEqual(write([['a', 1]], quoting=csv.QUOTE_ALL), '"a","1"\r\n')
+        self.assertEqual(write([['a', 1, 2.5, None]], quoting=csv.QUOTE_NONNUMERIC), '"a",1,2.5,""\r\n')
+        self.assertEqual(write([['a,b']], quoting=csv.QUOTE_NONE, escapechar='\\'), 'a\\,b\r\n')
+        with self.assertRaises(csv.Error):
+            write([['a,b']], quoting=csv.QUOTE_NONE)
+        self.assertEqual(write([['a"b']], doublequote=False, escapechar='\\'), 'a\\"b\r\n')
+
+    def test_single_empty_field(self):
+        self.assertEqual(write([['']]), '""\r\n')
+        self.assertEqual(write([[None]]), '""\r\n')
+        self.assertEqual(write([[]]), '\r\n')
+        with self.assertRaises(csv.Error):
+            write([['']], quoting=csv.QUOTE_NONE)
+
+    def test_lineterminator(self):
+        self.assertEqual(write([['a', 'b']], lineterminator='\n'), 'a,b\n')
+
+    def test_writerow_result(self):
+        out = io.StringIO()
+        self.assertEqual(csv.writer(out).writerow(['ab', 'c']), 6)
+
+    def test_errors(self):
+        with self.assertRaises(TypeError):
+            csv.writer(object())
+        with self.assertRaises(csv.Error):
+            csv.writer(io.StringIO()).writerow(1)
+
+
+class DialectTests(unittest.TestCase):
+
+    def test_defaults(self):
+        d = csv.reader([]).dialect
+        self.assertEqual(d.delimiter, ',')
+        self.assertEqual(d.quotechar, '"')
+        self.assertIsNone(d.escapechar)
+        self.assertEqual(d.lineterminator, '\r\n')
+        self.assertTrue(d.doublequote)
+        self.assertEqual(d.quoting, csv.QUOTE_MINIMAL)
+        self.assertFalse(d.skipinitialspace)
+        self.assertFalse(d.strict)
+
+    def test_validation(self):
+        with self.assertRaises(TypeError):
+            csv.reader([], delimiter='ab')
+        with self.assertRaises(TypeError):
+            csv.reader([], delimiter=1)
+        with self.assertRaises(TypeError):
+            csv.reader([], quoting=7)
+        with self.assertRaises(TypeError):
+            csv.reader([], quoting='1')
+        with self.assertRaises(TypeError):
+            csv.reader([], lineterminator=None)
+        self.assertEqual(csv.reader([], quotechar=None).dialect.quoting, csv.QUOTE_NONE)
+
+    def test_registry(self):
+        csv.register_dialect('graalpython_test', delimiter='|')
+        try:
+            self.assertIn('graalpython_test', csv.list_dialects())
+            self.assertEqual(csv.get_dialect('graalpython_test').delimiter, '|')
+            self.assertEqual(read('a|b\n', dialect='graalpython_test'), [['a', 'b']])
+            self.assertEqual(read('a;b\n', dialect='graalpython_test', delimiter=';'), [['a', 'b']])
+        finally:
+            csv.unregister_dialect('graalpython_test')
+        with self.assertRaises(csv.Error):
+            csv.get_dialect('graalpython_test')
+        with self.assertRaises(csv.Error):
+            csv.unregister_dialect('graalpython_test')
+        with self.assertRaises(TypeError):
+            csv.register_dialect(1)
+
+    def test_dialect_class(self):
+        class Pipes(csv.Dialect):
+            delimiter = '|'
+            quotechar = '"'
+            lineterminator = '\n'
+            quoting = csv.QUOTE_MINIMAL
+        self.assertEqual(write([['a', 'b|c']], dialect=Pipes), 'a|"b|c"\n')
+        self.assertEqual(read('a|"b|c"\n', dialect=Pipes), [['a', 'b|c']])
+        self.assertEqual(list(csv.DictReader(io.StringIO('x,y\n1,2\n'))), [{'x': '1', 'y': '2'}])
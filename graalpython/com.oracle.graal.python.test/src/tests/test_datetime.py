@@ -0,0 +1,256 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import datetime
+import pickle
+import sys
+import _datetime
+from datetime import date, time, timedelta, timezone, tzinfo
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_types_are_native():
+    assert datetime.datetime is _datetime.datetime
+    assert datetime.timedelta is _datetime.timedelta
+    assert issubclass(_datetime.datetime, _datetime.date)
+    assert issubclass(_datetime.timezone, _datetime.tzinfo)
+
+
+def test_timedelta_normalization():
+    td = timedelta(days=1, seconds=-1, microseconds=-1)
+    assert (td.days, td.seconds, td.microseconds) == (0, 86398, 999999)
+    td = timedelta(hours=-1)
+    assert (td.days, td.seconds, td.microseconds) == (-1, 82800, 0)
+    assert timedelta(milliseconds=1.5) == timedelta(microseconds=1500)
+    assert timedelta(seconds=0.5e-6) == timedelta(0)
+    assert timedelta(seconds=1.5e-6) == timedelta(microseconds=2)
+    assert timedelta(weeks=1, days=-7) == timedelta(0)
+    assert_raises(OverflowError, timedelta, days=1000000000)
+    assert_raises(TypeError, timedelta, days="1")
+
+
+def test_timedelta_arithmetic():
+    a = timedelta(days=1, seconds=2, microseconds=3)
+    assert a + a == timedelta(days=2, seconds=4, microseconds=6)
+    assert a - a == timedelta(0)
+    assert -a == timedelta(days=-2, seconds=86397, microseconds=999997)
+    assert abs(-a) == a
+    assert a * 2 == 2 * a == a + a
+    assert timedelta(seconds=1) * 0.5 == timedelta(microseconds=500000)
+    assert timedelta(seconds=3) / 2 == timedelta(seconds=1.5)
+    assert timedelta(hours=1) / timedelta(minutes=1) == 60.0
+    assert timedelta(hours=1) // timedelta(minutes=7) == 8
+    assert timedelta(hours=1) % timedelta(minutes=7) == timedelta(minutes=4)
+    assert divmod(timedelta(hours=1), timedelta(minutes=7)) == (8, timedelta(minutes=4))
+    assert timedelta(days=1).total_seconds() == 86400.0
+    assert_raises(ZeroDivisionError, lambda: a / 0)
+
+
+def test_timedelta_str_repr():
+    assert str(timedelta(days=-1, seconds=1)) == "-1 day, 0:00:01"
+    assert str(timedelta(days=2, microseconds=5)) == "2 days, 0:00:00.000005"
+    assert repr(timedelta(0)) == "datetime.timedelta(0)"
+    assert repr(timedelta(days=1, microseconds=2)) == "datetime.timedelta(days=1, microseconds=2)"
+
+
+def test_timedelta_hash_and_bool():
+    assert hash(timedelta(hours=24)) == hash(timedelta(days=1))
+    assert not timedelta(0)
+    assert timedelta(microseconds=1)
+    d = {timedelta(seconds=60): 1}
+    assert d[timedelta(minutes=1)] == 1
+
+
+def test_date_basics():
+    d = date(2021, 3, 14)
+    assert (d.year, d.month, d.day) == (2021, 3, 14)
+    assert d.isoformat() == str(d) == "2021-03-14"
+    assert repr(d) == "datetime.date(2021, 3, 14)"
+    assert d.weekday() == 6 and d.isoweekday() == 7
+    assert tuple(d.isocalendar()) == (2021, 10, 7)
+    assert d.ctime() == "Sun Mar 14 00:00:00 2021"
+    assert d.strftime("%Y/%m/%d %a") == "2021/03/14 Sun"
+    assert format(d, "%d.%m.") == "14.03."
+    assert date.fromordinal(d.toordinal()) == d
+    assert date.fromisoformat("2021-03-14") == d
+    assert date.fromisocalendar(2021, 10, 7) == d
+    assert d.replace(day=1) == date(2021, 3, 1)
+    assert d + timedelta(days=20) == date(2021, 4, 3)
+    assert d - date(2021, 1, 1) == timedelta(days=72)
+    assert_raises(ValueError, date, 2021, 2, 29)
+    assert_raises(ValueError, date.fromisoformat, "2021-3-14")
+    assert_raises(OverflowError, lambda: date.max + timedelta(days=1))
+
+
+def test_datetime_basics():
+    dt = datetime.datetime(2021, 3, 14, 1, 59, 26, 535897)
+    assert dt.date() == date(2021, 3, 14)
+    assert dt.time() == time(1, 59, 26, 535897)
+    assert dt.isoformat() == "2021-03-14T01:59:26.535897"
+    assert dt.isoformat(" ", "seconds") == "2021-03-14 01:59:26"
+    assert dt.isoformat(timespec="milliseconds") == "2021-03-14T01:59:26.535"
+    assert str(dt) == "2021-03-14 01:59:26.535897"
+    assert repr(dt) == "datetime.datetime(2021, 3, 14, 1, 59, 26, 535897)"
+    assert dt.strftime("%H:%M:%S.%f") == "01:59:26.535897"
+    assert dt.timetuple()[:6] == (2021, 3, 14, 1, 59, 26)
+    assert dt + timedelta(hours=23) == datetime.datetime(2021, 3, 15, 0, 59, 26, 535897)
+    assert dt - datetime.datetime(2021, 3, 14) == timedelta(seconds=7166, microseconds=535897)
+    assert dt.replace(microsecond=0, fold=1).fold == 1
+    assert datetime.datetime.combine(dt.date(), dt.time()) == dt
+    assert_raises(ValueError, dt.isoformat, timespec="nanoseconds")
+    assert_raises(ValueError, datetime.datetime, 2021, 3, 14, 24)
+
+
+def test_date_and_datetime_hash():
+    dt = datetime.datetime(2021, 3, 14, 12, 30)
+    d = date(2021, 3, 14)
+    assert date.__hash__(dt) == hash(d)
+    if sys.implementation.name == "graalpython":
+        # CPython caches both hashes in the same slot and then returns the date hash here
+        assert hash(dt) == hash(datetime.datetime(2021, 3, 14, 12, 30))
+        assert date.__hash__(dt) == hash(d)
+
+
+def test_datetime_fromisoformat():
+    assert datetime.datetime.fromisoformat("2021-03-14") == datetime.datetime(2021, 3, 14)
+    assert datetime.datetime.fromisoformat("2021-03-14 01:59") == datetime.datetime(2021, 3, 14, 1, 59)
+    dt = datetime.datetime.fromisoformat("2021-03-14T01:59:26.535+01:30")
+    assert dt.microsecond == 535000
+    assert dt.utcoffset() == timedelta(hours=1, minutes=30)
+    assert datetime.datetime.fromisoformat("2021-03-14T01:59:26+00:00").tzinfo is timezone.utc
+    for s in ["2021-03-14T", "2021-03-14T1", "2021-03-14T01:59:26+1", "2021-03-14T01:5x"]:
+        assert_raises(ValueError, datetime.datetime.fromisoformat, s)
+    assert_raises(TypeError, datetime.datetime.fromisoformat, b"2021-03-14")
+
+
+def test_aware_datetime():
+    plus1 = timezone(timedelta(hours=1))
+    a = datetime.datetime(2021, 3, 14, 12, tzinfo=plus1)
+    b = datetime.datetime(2021, 3, 14, 11, tzinfo=timezone.utc)
+    assert a == b and hash(a) == hash(b)
+    assert a - b == timedelta(0)
+    assert a.isoformat() == "2021-03-14T12:00:00+01:00"
+    assert a.strftime("%z %Z") == "+0100 UTC+01:00"
+    assert a.astimezone(timezone.utc) == b
+    assert a.astimezone(timezone.utc).hour == 11
+    naive = datetime.datetime(2021, 3, 14, 11)
+    assert a != naive
+    assert_raises(TypeError, lambda: a < naive)
+    assert_raises(TypeError, lambda: a - naive)
+    assert a.timestamp() == b.timestamp() == 1615719600.0
+    assert datetime.datetime.fromtimestamp(1615719600, timezone.utc) == b
+
+
+def test_time_basics():
+    t = time(12, 30, 15, 500, tzinfo=timezone(timedelta(hours=-5), "EST"))
+    assert t.isoformat() == "12:30:15.000500-05:00"
+    assert t.isoformat("minutes") == "12:30-05:00"
+    assert t.tzname() == "EST"
+    assert t.strftime("%H:%M %Z") == "12:30 EST"
+    assert repr(time(1, 2)) == "datetime.time(1, 2)"
+    assert time.fromisoformat("12:30:15.000500-05:00") == t
+    assert time(17, 30, 15, 500, tzinfo=timezone.utc) == t
+    assert hash(time(17, 30, 15, 500, tzinfo=timezone.utc)) == hash(t)
+    assert time(1) < time(2)
+    assert_raises(TypeError, lambda: time(1) < t)
+
+
+def test_timezone():
+    assert timezone(timedelta(0)) is timezone.utc
+    assert repr(timezone.utc) == "datetime.timezone.utc"
+    assert repr(timezone(timedelta(hours=2), "X")) == "datetime.timezone(datetime.timedelta(seconds=7200), 'X')"
+    assert str(timezone(timedelta(hours=-3, minutes=-30))) == "UTC-03:30"
+    assert timezone(timedelta(hours=1), "A") == timezone(timedelta(hours=1), "B")
+    assert_raises(ValueError, timezone, timedelta(hours=24))
+    assert_raises(TypeError, timezone.utc.utcoffset, 1)
+
+
+class FixedTz(tzinfo):
+    def __init__(self, minutes=0):
+        self.minutes = minutes
+
+    def utcoffset(self, dt):
+        return timedelta(minutes=self.minutes)
+
+    def dst(self, dt):
+        return timedelta(0)
+
+    def tzname(self, dt):
+        return "Fixed%d" % self.minutes
+
+
+def test_tzinfo_subclass():
+    dt = datetime.datetime(2021, 1, 1, tzinfo=FixedTz(90))
+    assert dt.utcoffset() == timedelta(minutes=90)
+    assert dt.tzname() == "Fixed90"
+    assert dt.timetuple().tm_isdst == 0
+    assert dt == datetime.datetime(2020, 12, 31, 22, 30, tzinfo=timezone.utc)
+    assert_raises(NotImplementedError, tzinfo().utcoffset, None)
+
+
+class MyDateTime(datetime.datetime):
+    pass
+
+
+def test_subclass():
+    dt = MyDateTime(2021, 3, 14, 12)
+    assert type(dt + timedelta(days=1)) is MyDateTime
+    assert type(dt.replace(hour=1)) is MyDateTime
+    assert type(MyDateTime.fromisoformat("2021-03-14")) is MyDateTime
+    assert repr(dt) == "MyDateTime(2021, 3, 14, 12, 0)"
+
+
+def test_pickle():
+    values = [timedelta(days=-3, microseconds=7), date(2021, 3, 14), time(1, 2, 3, 4, fold=1),
+              datetime.datetime(2021, 3, 14, 1, 2, 3, 4, tzinfo=timezone(timedelta(hours=3), "x"), fold=1),
+              timezone.utc]
+    for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+        for value in values:
+            copy = pickle.loads(pickle.dumps(value, proto))
+            assert copy == value and type(copy) is type(value)
+            if proto > 3 and hasattr(value, "fold"):
+                assert copy.fold == value.fold
@@ -0,0 +1,247 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import decimal
+import pickle
+import unittest
+from decimal import Decimal, Context, localcontext
+
+
+class DecimalTests(unittest.TestCase):
+
+    def test_construction(self):
+        self.assertEqual(str(Decimal()), '0')
+        self.assertEqual(str(Decimal('1.50')), '1.50')
+        self.assertEqual(str(Decimal(' -1_000.5e-3 ')), '-1.0005')
+        self.assertEqual(str(Decimal(12345678901234567890123)), '12345678901234567890123')
+        self.assertEqual(str(Decimal(0.5)), '0.5')
+        self.assertEqual(str(Decimal((1, (1, 2, 3), -2))), '-1.23')
+        self.assertEqual(str(Decimal((0, (), 'F'))), 'Infinity')
+        self.assertEqual(str(Decimal('-sNaN12')), '-sNaN12')
+        self.assertEqual(str(Decimal('1e999999999')), '1E+999999999')
+        with self.assertRaises(decimal.InvalidOperation):
+            Decimal('abc')
+        with self.assertRaises(TypeError):
+            Decimal(object())
+        with self.assertRaises(ValueError):
+            Decimal([1, 2])
+        with self.assertRaises(ValueError):
+            Decimal((2, (1,), 0))
+
+    def test_arithmetic(self):
+        self.assertEqual(str(Decimal('1.1') + Decimal('2.2')), '3.3')
+        self.assertEqual(str(Decimal('1.10') - 1), '0.10')
+        self.assertEqual(str(3 * Decimal('1.25')), '3.75')
+        self.assertEqual(str(Decimal(1) / Decimal(3)), '0.3333333333333333333333333333')
+        self.assertEqual(str(Decimal(-7) // Decimal(2)), '-3')
+        self.assertEqual(str(Decimal(-7) % Decimal(2)), '-1')
+        self.assertEqual(divmod(Decimal(7), 2), (Decimal(3), Decimal(1)))
+        self.assertEqual(str(-Decimal('0.00')), '0.00')
+        self.assertEqual(str(abs(Decimal('-2.5'))), '2.5')
+        self.assertEqual(str(Decimal('9' * 30) + 1), '1.000000000000000000000000000E+30')
+        self.assertEqual(str(Decimal(2) ** 10), '1024')
+        with self.assertRaises(decimal.DivisionByZero):
+            Decimal(1) / 0
+        with self.assertRaises(decimal.InvalidOperation):
+            Decimal(0) / 0
+        self.assertIs(Decimal(1).__add__(1.5), NotImplemented)
+
+    def test_comparison(self):
+        self.assertTrue(Decimal('1.0') == Decimal(1) == 1)
+        self.assertTrue(Decimal('0.5') == 0.5)
+        self.assertTrue(Decimal(1) < 2)
+        self.assertFalse(Decimal('NaN') == Decimal('NaN'))
+        self.assertTrue(Decimal('NaN') != 1)
+        with self.assertRaises(decimal.InvalidOperation):
+            Decimal('NaN') < 1
+        from fractions import Fraction
+        self.assertTrue(Decimal('0.5') == Fraction(1, 2))
+        self.assertTrue(Decimal('0.3') < Fraction(1, 3))
+        self.assertTrue(Decimal(2) == complex(2, 0))
+        self.assertEqual(hash(Decimal('1.0')), hash(1))
+        self.assertEqual(hash(Decimal('0.5')), hash(0.5))
+        self.assertEqual(hash(Decimal('-1e30')), hash(-10 ** 30))
+        with self.assertRaises(TypeError):
+            hash(Decimal('sNaN'))
+
+    def test_conversions(self):
+        self.assertEqual(int(Decimal('-3.9')), -3)
+        self.assertEqual(round(Decimal('2.5')), 2)
+        self.assertEqual(str(round(Decimal('2.675'), 2)), '2.68')
+        self.assertEqual(float(Decimal('0.1')), 0.1)
+        self.assertEqual(Decimal('-2.5').__floor__(), -3)
+        self.assertEqual(Decimal('2.1').__ceil__(), 3)
+        self.assertEqual(Decimal('1.25').as_integer_ratio(), (5, 4))
+        self.assertEqual(Decimal('-1.50').as_tuple(), (1, (1, 5, 0), -2))
+        self.assertEqual(Decimal('1e3').to_eng_string(), '1E+3')
+        self.assertEqual(repr(Decimal('1.5')), "Decimal('1.5')")
+        self.assertEqual(format(Decimal('1234.5'), ',.2f'), '1,234.50')
+        self.assertEqual(str(Decimal.from_float(0.25)), '0.25')
+        with self.assertRaises(ValueError):
+            int(Decimal('NaN'))
+        with self.assertRaises(OverflowError):
+            int(Decimal('Inf'))
+
+    def test_format(self):
+        self.assertEqual(format(Decimal('12345.678'), ''), '12345.678')
+        self.assertEqual(format(Decimal('12345.678'), '.3'), '1.23E+4')
+        self.assertEqual(format(Decimal('12345.678'), '=+12.3e'), '+   1.235e+4')
+        self.assertEqual(format(Decimal('-0.00012'), '^12.3%'), '  -0.012%   ')
+        self.assertEqual(format(Decimal('-0.00012'), '.3f'), '-0.000')
+        self.assertEqual(format(Decimal('0E+3'), '010,'), '000,000E+3')
+        self.assertEqual(format(Decimal('0E+3'), '.2f'), '0.00')
+        self.assertEqual(format(Decimal('9.999'), '.2f'), '10.00')
+        self.assertEqual(format(Decimal('99.95'), '.3g'), '100')
+        self.assertEqual(format(Decimal('2.5'), '.0f'), '2')
+        self.assertEqual(format(Decimal('-Infinity'), '012'), '   -Infinity')
+        self.assertEqual(format(Decimal('NaN'), '%'), 'NaN%')
+        self.assertEqual(format(Decimal('1234567.5'), 'n'), '1234567.5')
+        with decimal.localcontext() as ctx:
+            ctx.rounding = decimal.ROUND_DOWN
+            ctx.capitals = 0
+            self.assertEqual(format(Decimal('9.999'), '.2f'), '9.99')
+            self.assertEqual(format(Decimal('1E+10'), ''), '1e+10')
+        with self.assertRaises(ValueError):
+            format(Decimal('1'), 'd')
+        with self.assertRaises(TypeError):
+            Decimal('1').__format__(1)
+
+    def test_quantize(self):
+        self.assertEqual(str(Decimal('7.325').quantize(Decimal('.01'), rounding=decimal.ROUND_DOWN)), '7.32')
+        self.assertEqual(str(Decimal('7.325').quantize(Decimal('1.'), rounding=decimal.ROUND_UP)), '8')
+        self.assertEqual(str(Decimal('1.41421356').quantize(Decimal('1.000'))), '1.414')
+        with self.assertRaises(decimal.InvalidOperation):
+            Decimal('1e30').quantize(Decimal('0.01'))
+        self.assertEqual(str(Decimal('123.456').to_integral_value()), '123')
+        self.assertEqual(str(Decimal('1.200').normalize()), '1.2')
+
+    def test_long_tail(self):
+        self.assertEqual(str(Decimal(2).sqrt()), '1.414213562373095048801688724')
+        self.assertEqual(str(Decimal(1).exp()), '2.718281828459045235360287471')
+        self.assertEqual(Decimal(1).compare_total(Decimal('1.0')), Decimal(1))
+        self.assertEqual(Decimal(-1).number_class(), '-Normal')
+
+    def test_pickle(self):
+        d = Decimal('-1.5e-7')
+        self.assertEqual(pickle.loads(pickle.dumps(d)), d)
+
+
+class ContextTests(unittest.TestCase):
+
+    def test_context(self):
+        c = Context(prec=5, rounding=decimal.ROUND_HALF_UP, traps=[])
+        self.assertEqual(c.prec, 5)
+        self.assertEqual(str(c.add(Decimal('1.00005'), 0)), '1.0001')
+        self.assertTrue(c.flags[decimal.Inexact])
+        self.assertTrue(c.flags[decimal.Rounded])
+        c.clear_flags()
+        self.assertFalse(c.flags[decimal.Inexact])
+        self.assertEqual(str(c.divide(1, 0)), 'Infinity')
+        self.assertTrue(c.flags[decimal.DivisionByZero])
+        self.assertEqual(str(c.power(2, 3)), '8')
+        with self.assertRaises(ValueError):
+            c.prec = 0
+        with self.assertRaises(TypeError):
+            c.rounding = 'ROUND_SIDEWAYS'
+        self.assertIn('prec=5', repr(c))
+        self.assertEqual(pickle.loads(pickle.dumps(c)).prec, 5)
+
+    def test_integer_division_fits_context(self):
+        c = Context(prec=19, Emax=9, traps=[])
+        self.assertEqual(str(c.divide_int(Decimal('5326997561121444.9'), Decimal('0.423'))), 'Infinity')
+        self.assertTrue(c.flags[decimal.Overflow])
+        self.assertTrue(c.flags[decimal.Inexact])
+        self.assertTrue(c.flags[decimal.Rounded])
+        c = Context(prec=19, Emax=9, traps=[])
+        q, r = c.divmod(Decimal('5326997561121444.9'), Decimal('0.423'))
+        self.assertEqual((str(q), str(r)), ('Infinity', '0.159'))
+        self.assertTrue(c.flags[decimal.Overflow])
+        c = Context(prec=28, Emax=20, clamp=1, traps=[])
+        self.assertEqual(str(c.divide_int(Decimal(-90), 37)), '-2.0000000')
+        self.assertTrue(c.flags[decimal.Clamped])
+        self.assertEqual(c.divmod(Decimal(-90), 37), (Decimal(-2), Decimal(-16)))
+        self.assertEqual(str(c.divmod(Decimal(-90), 37)[0]), '-2.0000000')
+
+    def test_nan_payload(self):
+        c = Context(prec=2, traps=[])
+        self.assertEqual(str(c.create_decimal('NaN12')), 'NaN12')
+        self.assertEqual(str(c.create_decimal('NaN0012')), 'NaN12')
+        self.assertFalse(c.flags[decimal.InvalidOperation])
+        self.assertEqual(str(c.create_decimal('NaN123')), 'NaN')
+        self.assertTrue(c.flags[decimal.InvalidOperation])
+        c = Context(prec=3, clamp=1)
+        with self.assertRaises(decimal.InvalidOperation):
+            c.create_decimal('sNaN123')
+        # exact conversions keep the payload, results cut it
+        self.assertEqual(str(Decimal('NaN123')), 'NaN123')
+        self.assertEqual(str(Context(prec=2).plus(Decimal('NaN123'))), 'NaN23')
+
+    def test_traps(self):
+        c = Context()
+        c.traps[decimal.Inexact] = True
+        with self.assertRaises(decimal.Inexact):
+            c.divide(1, 3)
+        c.traps = dict.fromkeys(c.traps, False)
+        self.assertFalse(c.traps[decimal.Inexact])
+        with self.assertRaises(TypeError):
+            c.traps = [decimal.DivisionByZero]
+        with self.assertRaises(KeyError):
+            Context(traps=['Q'])
+
+    def test_localcontext(self):
+        with localcontext() as ctx:
+            ctx.prec = 3
+            self.assertEqual(str(Decimal(1) / 3), '0.333')
+            ctx.rounding = decimal.ROUND_CEILING
+            self.assertEqual(str(Decimal(1) / 3), '0.334')
+        self.assertEqual(decimal.getcontext().prec, 28)
+        ext = decimal.ExtendedContext
+        self.assertEqual(ext.prec, 9)
+        self.assertEqual(str(ext.divide(0, 0)), 'NaN')
+
+    def test_signals(self):
+        self.assertTrue(issubclass(decimal.DivisionByZero, ZeroDivisionError))
+        self.assertTrue(issubclass(decimal.FloatOperation, TypeError))
+        c = Context(traps=[decimal.FloatOperation])
+        with localcontext(c):
+            with self.assertRaises(decimal.FloatOperation):
+                Decimal(0.5)
+            with self.assertRaises(decimal.FloatOperation):
+                Decimal(1) < 1.5
+            self.assertTrue(Decimal('0.5') == 0.5)
@@ -997,3 +997,90 @@ def test_module_dict():
     del foo.f 
     assert foo.__dict__ == {}
 
+
+
+def test_int_keys():
+    class sub_int(int):
+        pass
+
+    d = {x: x * 2 for x in range(1000)}
+    assert len(d) == 1000
+    assert d[999] == 1998
+    assert d.get(sub_int(5)) == 10
+    assert d.get(1000) is None
+    # keys equal to ints must be found, but must not replace the original key
+    assert d[True] == 2
+    assert d[2.0] == 4
+    d[True] = "one"
+    assert d[1] == "one"
+    assert type(list(d.keys())[1]) is int
+    assert 2 ** 100 not in d
+
+    d = {}
+    for i in range(-50, 50):
+        d[i] = i
+    for i in range(-50, 50, 2):
+        del d[i]
+    assert list(d) == list(range(-49, 50, 2))
+    d[-50] = "again"
+    assert list(d)[-1] == -50
+    assert list(reversed(d))[0] == -50
+    del d[sub_int(-49)]
+    assert -49 not in d
+    c = d.copy()
+    assert c == d
+    d.clear()
+    assert len(d) == 0 and len(c) == 50
+    d[-1] = -1
+    assert d == {-1: -1}
+
+
+def test_int_keys_generalize():
+    d = {1: 1, 2: 2}
+    d["a"] = "a"
+    assert d == {1: 1, 2: 2, "a": "a"}
+    assert list(d) == [1, 2, "a"]
+    d = {}
+    d[1] = 1
+    d[2 ** 100] = 2
+    assert d[2 ** 100] == 2 and d[1] == 1
+    d = {3: 3}
+    d[None] = 4
+    assert list(d.items()) == [(3, 3), (None, 4)]
+
+
+def test_str_keys():
+    class sub_str(str):
+        pass
+
+    d = {}
+    for i in range(200):
+        d["k%d" % i] = i
+    assert d["k199"] == 199
+    assert d[sub_str("k10")] == 10
+    assert d.get("missing") is None
+    for i in range(0, 200, 3):
+        del d["k%d" % i]
+    assert len(d) == 133
+    assert list(d)[:3] == ["k1", "k2", "k4"]
+    d[sub_str("k1")] = "sub"
+    assert d["k1"] == "sub"
+    assert type(list(d)[0]) is str
+    d[1] = "int"
+    assert d[1] == "int" and d["k2"] == 2 and list(d)[-1] == 1
+
+
+def test_key_eq_mutates_dict():
+    d = {x: x for x in range(8)}
+
+    class Evil:
+        def __hash__(self):
+            return 3
+
+        def __eq__(self, other):
+            for i in range(100, 200):
+                d[i] = i
+            return other == 3
+
+    assert d[Evil()] == 3
+    assert len(d) == 108
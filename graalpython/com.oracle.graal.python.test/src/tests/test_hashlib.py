@@ -0,0 +1,190 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _hashlib
+import hashlib
+import hmac
+import io
+import sys
+import unittest
+
+DATA = b"The quick brown fox jumps over the lazy dog"
+
+EXPECTED = {
+    'md5': '9e107d9d372bb6826bd81d3542a419d6',
+    'sha1': '2fd4e1c67a2d28fced849ee1bb76e7391b93eb12',
+    'sha224': '730e109bd7a8a32b1cb9d9a09aa2325d2430587ddbc0c38bad911525',
+    'sha256': 'd7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592',
+    'sha384': 'ca737f1014a48f4c0b6dd43cb177b0afd9e5169367544c494011e3317dbf9a509cb1e5dc1e85a941bbee3d7f2afbc9b1',
+    'sha512': '07e547d9586f6a73f73fbac0435ed76951218fb7d0c8d788a309d785436bbb642e93a252a954f23912547d1e8a3b5ed6e1bfd7097821233fa0538f3db854fee6',
+    'sha3_224': 'd15dadceaa4d5d7bb3b48f446421d542e08ad8887305e28d58335795',
+    'sha3_256': '69070dda01975c8c120c3aada1b282394e7f032fa9cf32f4cb2259a0897dfc04',
+    'sha3_384': '7063465e08a93bce31cd89d2e3ca8f602498696e253592ed26f07bf7e703cf328581e1471a7ba7ab119b1a9ebdf8be41',
+    'sha3_512': '01dedd5de4ef14642445ba5f5b97c15e47b9ad931326e4b0727cd94cefc44fff23f07bf543139939b49128caf436dc1bdee54fcb24023a08d9403f9b4bf0d450',
+    'blake2b': 'a8add4bdddfd93e4877d2746e62817b116364a1fa7bc148d95090bc7333b3673f82401cf7aa2e4cb1ecd90296e3f14cb5413f8ed77be73045b13914cdcd6a918',
+    'blake2s': '606beeec743ccbeff6cbcdf5d5302aa855c256c29b88c8ed331ea1a6bf3c8812',
+}
+
+
+class HashlibTest(unittest.TestCase):
+
+    @unittest.skipUnless(sys.implementation.name == 'graalpython', 'GraalPython specific')
+    def test_builtin_modules(self):
+        for name in ('_hashlib', '_md5', '_sha1', '_sha256', '_sha512', '_sha3', '_blake2'):
+            self.assertIn(name, sys.builtin_module_names)
+
+    def test_digests(self):
+        for name, expected in EXPECTED.items():
+            self.assertEqual(hashlib.new(name, DATA).hexdigest(), expected, name)
+            self.assertEqual(getattr(hashlib, name)(DATA).hexdigest(), expected, name)
+            self.assertEqual(getattr(hashlib, name)(DATA).digest(), bytes.fromhex(expected), name)
+
+    def test_attributes(self):
+        h = hashlib.sha256()
+        self.assertEqual(h.name, 'sha256')
+        self.assertEqual(h.digest_size, 32)
+        self.assertEqual(h.block_size, 64)
+        h = hashlib.new('SHA512')
+        self.assertEqual(h.name, 'sha512')
+        self.assertEqual(h.block_size, 128)
+        h = hashlib.sha3_256()
+        self.assertEqual(h.name, 'sha3_256')
+        self.assertEqual(h.block_size, 136)
+        self.assertEqual(h._rate_bits, 1088)
+        self.assertEqual(h._capacity_bits, 512)
+        self.assertEqual(h._suffix, b'\x06')
+        self.assertEqual(hashlib.blake2b.MAX_DIGEST_SIZE, 64)
+        self.assertEqual(hashlib.blake2s.SALT_SIZE, 8)
+
+    def test_update_buffers(self):
+        expected = EXPECTED['sha1']
+        for data in (DATA, bytearray(DATA), memoryview(DATA), memoryview(b'xx' + DATA)[2:]):
+            h = hashlib.sha1()
+            h.update(data)
+            self.assertEqual(h.hexdigest(), expected)
+        h = hashlib.md5()
+        for i in range(len(DATA)):
+            h.update(DATA[i:i + 1])
+        self.assertEqual(h.hexdigest(), EXPECTED['md5'])
+
+    def test_large_update(self):
+        data = b'x' * 100000
+        self.assertEqual(hashlib.sha256(data).hexdigest(), 'd69e68988157833272305aaf21f453c800346e8a3640db6578e260215542e5d4')
+
+    def test_str_rejected(self):
+        self.assertRaises(TypeError, hashlib.sha256, 'abc')
+        self.assertRaises(TypeError, hashlib.sha256().update, 'abc')
+        self.assertRaises(TypeError, hashlib.sha3_256().update, None)
+
+    def test_copy(self):
+        for name, expected in EXPECTED.items():
+            h = hashlib.new(name, DATA[:10])
+            c = h.copy()
+            self.assertIs(type(c), type(h))
+            c.update(DATA[10:])
+            h.update(b'garbage')
+            self.assertEqual(c.hexdigest(), expected, name)
+            self.assertNotEqual(h.hexdigest(), expected, name)
+
+    def test_digest_does_not_finalize(self):
+        h = hashlib.sha1(DATA[:10])
+        h.digest()
+        h.update(DATA[10:])
+        self.assertEqual(h.hexdigest(), EXPECTED['sha1'])
+        self.assertEqual(h.hexdigest(), EXPECTED['sha1'])
+
+    def test_shake(self):
+        self.assertEqual(hashlib.shake_128(DATA).hexdigest(16), 'f4202e3c5852f9182a0430fd8144f0a7')
+        self.assertEqual(hashlib.shake_256(DATA).hexdigest(20), '2f671343d9b2e1604dc9dcf0753e5fe15c7c64a0')
+        self.assertEqual(hashlib.shake_128(DATA).digest(0), b'')
+        self.assertRaises(TypeError, hashlib.shake_128(DATA).digest)
+        self.assertRaises(ValueError, hashlib.shake_128(DATA).digest, -1)
+        self.assertRaises(TypeError, hashlib.sha256(DATA).digest, 10)
+
+    def test_blake2_params(self):
+        h = hashlib.blake2b(DATA, digest_size=16, key=b'k', salt=b's', person=b'p')
+        self.assertEqual(h.hexdigest(), 'e10e3eb8db44803ce82a7f3c6792f6a8')
+        self.assertEqual(h.digest_size, 16)
+        h = hashlib.blake2s(DATA, digest_size=16, key=b'k', salt=b's', person=b'p', fanout=2, depth=3, leaf_size=7,
+                            node_offset=5, node_depth=1, inner_size=8, last_node=True)
+        self.assertEqual(h.hexdigest(), '01a11597e8d6a5d458bb184a18e8930d')
+        self.assertRaises(ValueError, hashlib.blake2b, digest_size=0)
+        self.assertRaises(ValueError, hashlib.blake2s, digest_size=33)
+        self.assertRaises(ValueError, hashlib.blake2s, key=b'k' * 33)
+        self.assertRaises(ValueError, hashlib.blake2b, salt=b's' * 17)
+        self.assertRaises(ValueError, hashlib.blake2b, depth=0)
+        self.assertRaises(OverflowError, hashlib.blake2s, node_offset=1 << 48)
+
+    def test_hmac(self):
+        expected = 'f7bc83f430538424b13298e6aa6fb143ef4d59a14946175997479dbc2d1a3cd8'
+        self.assertEqual(hmac.new(b'key', DATA, 'sha256').hexdigest(), expected)
+        self.assertEqual(hmac.digest(b'key', DATA, 'sha256').hex(), expected)
+        self.assertEqual(_hashlib.hmac_digest(b'key', memoryview(DATA), 'sha256').hex(), expected)
+        self.assertIn('sha256', _hashlib.openssl_md_meth_names)
+
+    def test_pbkdf2_hmac(self):
+        self.assertEqual(hashlib.pbkdf2_hmac('sha1', b'password', b'salt', 2, 20).hex(),
+                         'ea6c014dc72d6f8ccd1ed92ace1d41f0d8de8957')
+        self.assertEqual(hashlib.pbkdf2_hmac('sha256', b'password', b'salt', 4096).hex(),
+                         'c5e478d59288c841aa530db6845c4c8d962893a001ce4e11a4963873aa98134a')
+        self.assertRaises(ValueError, hashlib.pbkdf2_hmac, 'sha1', b'password', b'salt', 0)
+        self.assertRaises(ValueError, hashlib.pbkdf2_hmac, 'sha1', b'password', b'salt', 1, 0)
+        self.assertRaises(ValueError, hashlib.pbkdf2_hmac, 'unknown', b'password', b'salt', 1)
+
+    def test_file_digest(self):
+        self.assertEqual(hashlib.file_digest(io.BytesIO(DATA), 'md5').hexdigest(), EXPECTED['md5'])
+        data = DATA * 1000
+
+        class Reader(io.RawIOBase):
+            def __init__(self):
+                self.pos = 0
+
+            def readable(self):
+                return True
+
+            def readinto(self, b):
+                n = min(len(b), 1000, len(data) - self.pos)
+                b[:n] = data[self.pos:self.pos + n]
+                self.pos += n
+                return n
+
+        expected = hashlib.sha256(data).hexdigest()
+        self.assertEqual(hashlib.file_digest(Reader(), hashlib.sha256).hexdigest(), expected)
+        self.assertEqual(hashlib.file_digest(Reader(), 'sha256', _bufsize=7).hexdigest(), expected)
+        self.assertRaises(ValueError, hashlib.file_digest, io.StringIO('abc'), 'sha256')
@@ -0,0 +1,158 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _heapq
+import random
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def check_heap(heap, is_max=False):
+    for pos in range(1, len(heap)):
+        parent = (pos - 1) >> 1
+        if is_max:
+            assert heap[parent] >= heap[pos], (heap, pos)
+        else:
+            assert heap[parent] <= heap[pos], (heap, pos)
+
+
+def heapsort(data):
+    heap = []
+    for item in data:
+        _heapq.heappush(heap, item)
+        check_heap(heap)
+    return [_heapq.heappop(heap) for _ in range(len(heap))]
+
+
+def test_push_pop_int():
+    data = [random.randrange(1000) for _ in range(200)]
+    assert heapsort(data) == sorted(data)
+
+
+def test_push_pop_long():
+    data = [random.randrange(1 << 40) for _ in range(200)]
+    assert heapsort(data) == sorted(data)
+
+
+def test_push_pop_double():
+    data = [random.random() for _ in range(200)]
+    assert heapsort(data) == sorted(data)
+
+
+def test_push_pop_str():
+    data = [str(random.randrange(1000)) for _ in range(200)]
+    assert heapsort(data) == sorted(data)
+
+
+def test_push_pop_mixed():
+    data = [random.randrange(100) for _ in range(100)] + [random.random() * 100 for _ in range(100)]
+    random.shuffle(data)
+    assert heapsort(data) == sorted(data)
+
+
+def test_push_pop_tuples():
+    data = [(random.randrange(10), str(i)) for i in range(100)]
+    assert heapsort(data) == sorted(data)
+
+
+def test_heapify():
+    for factory in (lambda: random.randrange(1000), lambda: random.random(), lambda: str(random.random())):
+        for size in range(30):
+            heap = [factory() for _ in range(size)]
+            _heapq.heapify(heap)
+            check_heap(heap)
+            heap = [factory() for _ in range(size)]
+            _heapq._heapify_max(heap)
+            check_heap(heap, True)
+
+
+def test_replace_and_pushpop():
+    heap = [5, 7, 9]
+    _heapq.heapify(heap)
+    assert _heapq.heapreplace(heap, 10) == 5
+    check_heap(heap)
+    assert _heapq.heappushpop(heap, 1) == 1
+    assert _heapq.heappushpop(heap, 8) == 7
+    check_heap(heap)
+    assert _heapq.heappushpop([], 'x') == 'x'
+    assert_raises(IndexError, _heapq.heapreplace, [], 1)
+    assert_raises(IndexError, _heapq.heappop, [])
+
+
+def test_max_variants():
+    heap = [random.randrange(1000) for _ in range(50)]
+    _heapq._heapify_max(heap)
+    check_heap(heap, True)
+    top = max(heap)
+    assert _heapq._heapreplace_max(heap, -1) == top
+    check_heap(heap, True)
+    result = [_heapq._heappop_max(heap) for _ in range(len(heap))]
+    assert result == sorted(result, reverse=True)
+
+
+def test_storage_generalization():
+    heap = [3, 1, 2]
+    _heapq.heapify(heap)
+    _heapq.heappush(heap, 1.5)
+    _heapq.heappush(heap, 1 << 70)
+    assert _heapq.heapreplace(heap, 0.5) == 1
+    assert [_heapq.heappop(heap) for _ in range(len(heap))] == [0.5, 1.5, 2, 3, 1 << 70]
+
+
+def test_not_a_list():
+    assert_raises(TypeError, _heapq.heappush, (), 1)
+    assert_raises(TypeError, _heapq.heappop, None)
+    assert_raises(TypeError, _heapq.heapify, {})
+
+
+def test_mutation_during_compare():
+    class Evil:
+        def __lt__(self, other):
+            heap.clear()
+            return False
+
+    heap = [Evil() for _ in range(5)]
+    assert_raises(RuntimeError, _heapq.heapify, heap)
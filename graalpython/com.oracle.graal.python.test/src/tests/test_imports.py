@@ -169,3 +169,68 @@ def test_local_property_25274():
 
 
     
+
+
+def test_imp_source_hash():
+    import _imp
+    h1 = _imp.source_hash(42, b'print("hello")')
+    assert len(h1) == 8
+    assert h1 == _imp.source_hash(42, bytearray(b'print("hello")'))
+    assert h1 == _imp.source_hash(42, memoryview(b'print("hello")'))
+    assert h1 != _imp.source_hash(43, b'print("hello")')
+    assert h1 != _imp.source_hash(42, b'print("hello!")')
+    if sys.implementation.name == "graalpython":
+        # keyed SipHash-2-4, like _Py_KeyedHash in CPython 3.8
+        assert _imp.source_hash(3413, b'abc') == bytes.fromhex('0210e68e36e04f6f')
+
+
+def _import_from_cache_dir(modname, source, invalidation_mode=None):
+    import importlib
+    import importlib.util
+    import io
+    import os
+    import py_compile
+    import tempfile
+    tmpdir = tempfile.mkdtemp()
+    path = os.path.join(tmpdir, modname + ".py")
+    with io.open(path, "w") as f:
+        f.write(source)
+    if invalidation_mode is not None:
+        py_compile.compile(path, invalidation_mode=invalidation_mode, doraise=True)
+    old_dont_write = sys.dont_write_bytecode
+    sys.dont_write_bytecode = False
+    sys.path.insert(0, tmpdir)
+    try:
+        importlib.invalidate_caches()
+        mod = importlib.import_module(modname)
+        cached = importlib.util.cache_from_source(path)
+        # import again, now the code must come from the cache file
+        del sys.modules[modname]
+        mod2 = importlib.import_module(modname)
+        return mod, mod2, cached
+    finally:
+        sys.path.remove(tmpdir)
+        sys.dont_write_bytecode = old_dont_write
+        sys.modules.pop(modname, None)
+
+
+def test_pyc_roundtrip():
+    import os
+    mod, mod2, cached = _import_from_cache_dir("pyc_roundtrip_mod", "def f(x):\n    return x * 2\nVALUE = f(21)\n")
+    assert os.path.exists(cached)
+    assert mod.VALUE == 42
+    assert mod2.VALUE == 42
+    assert mod2.f(2) == 4
+
+
+def test_pyc_checked_hash():
+    import io
+    import os
+    import py_compile
+    mod, mod2, cached = _import_from_cache_dir("pyc_checked_hash_mod", "VALUE = 'hashed'\n", py_compile.PycInvalidationMode.CHECKED_HASH)
+    assert os.path.exists(cached)
+    with io.open(cached, "rb") as f:
+        flags = int.from_bytes(f.read(8)[4:8], "little")
+    assert flags == 0b11
+    assert mod.VALUE == 'hashed'
+    assert mod2.VALUE == 'hashed'
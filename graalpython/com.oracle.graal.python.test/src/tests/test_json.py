@@ -83,3 +83,51 @@ class JsonTest(unittest.TestCase):
             1521583201347000000,
             10,
         }
+
+    def test_load_bytes(self):
+        import json
+        doc = '{"a": [1, -2, 3.5, 1e3, 123456789012345678901234567890, true, false, null], ' \
+              '"é€\U0001f600": "x\\n\\u00e9\\ud83d\\ude00\\"", "b": {}, "c": []}'
+        expected = json.loads(doc)
+        self.assertEqual(json.loads(doc.encode('utf-8')), expected)
+        self.assertEqual(json.loads(bytearray(doc.encode('utf-8'))), expected)
+        self.assertEqual(json.loads(doc.encode('utf-16')), expected)
+        self.assertEqual(json.loads(b' [NaN, -Infinity] ')[1], float('-inf'))
+        data = json.loads(b'[{"key": 1}, {"key": 2}]')
+        self.assertIs(next(iter(data[0])), next(iter(data[1])))
+
+    def test_load_bytes_errors(self):
+        import json
+        for doc, pos in ((b'[1, 2', 5), (b'{"\xc3\xa9": 1,}', 8), (b'"\xc3\xa9" x', 4), (b'', 0)):
+            with self.assertRaises(json.JSONDecodeError) as cm:
+                json.loads(doc)
+            self.assertEqual(cm.exception.pos, pos)
+        with self.assertRaises(UnicodeDecodeError):
+            json.loads(b'["\xff"]')
+
+    def test_load_bytes_hooks(self):
+        import json
+        from decimal import Decimal
+        self.assertEqual(json.loads(b'[1.5, 2]', parse_float=Decimal), [Decimal('1.5'), 2])
+        self.assertEqual(json.loads(b'[1.5, 2]', parse_int=str), [1.5, '2'])
+        self.assertEqual(json.loads(b'{"a": 1}', object_pairs_hook=list), [('a', 1)])
+
+    def test_dump_sort_keys(self):
+        import json
+        d = {'b': 1, 'é': 2, 'a': [3, 2], 'B': {'z': 1, 'y': 2}, '\U0001f600': 0, '￿': 1}
+        self.assertEqual(json.dumps(d, sort_keys=True),
+                         '{"B": {"y": 2, "z": 1}, "a": [3, 2], "b": 1, "\\u00e9": 2, "\\uffff": 1, "\\ud83d\\ude00": 0}')
+        self.assertEqual(json.dumps({2: 'a', 1: 'b'}, sort_keys=True), '{"1": "b", "2": "a"}')
+        with self.assertRaises(TypeError):
+            json.dumps({1: 'a', 'b': 2}, sort_keys=True)
+
+    def test_dump_primitive_lists(self):
+        import json
+        self.assertEqual(json.dumps([1, 2, 3]), '[1, 2, 3]')
+        self.assertEqual(json.dumps([2 ** 40, -1]), '[1099511627776, -1]')
+        self.assertEqual(json.dumps([1.5, 0.1, 1e300]), '[1.5, 0.1, 1e+300]')
+        self.assertEqual(json.dumps([True, False]), '[true, false]')
+        self.assertEqual(json.dumps([1.0, float('inf'), float('nan')]), '[1.0, Infinity, NaN]')
+        with self.assertRaises(ValueError):
+            json.dumps([1.0, float('nan')], allow_nan=False)
+        self.assertEqual(json.dumps([1, 2], indent=1), '[\n 1,\n 2\n]')
@@ -0,0 +1,158 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import functools
+
+
+def test_bounded_cache():
+    calls = []
+
+    @functools.lru_cache(maxsize=2)
+    def square(x):
+        calls.append(x)
+        return x * x
+
+    assert square(2) == 4
+    assert square(2) == 4
+    assert square(3) == 9
+    assert square(2) == 4
+    # evicts 3, the least recently used entry
+    assert square(4) == 16
+    assert square(3) == 9
+    assert calls == [2, 3, 4, 3], calls
+    info = square.cache_info()
+    assert info.hits == 2 and info.misses == 4, info
+    assert info.maxsize == 2 and info.currsize == 2, info
+
+
+def test_large_maxsize():
+    import sys
+    for maxsize in (2 ** 31, sys.maxsize):
+        @functools.lru_cache(maxsize=maxsize)
+        def f(x):
+            return x + 1
+
+        assert f(1) == 2
+        assert f(1) == 2
+        assert f.cache_info() == (1, 1, maxsize, 1), f.cache_info()
+
+
+def test_unbounded_cache():
+    @functools.lru_cache(maxsize=None)
+    def fib(n):
+        return n if n < 2 else fib(n - 1) + fib(n - 2)
+
+    assert fib(80) == 23416728348467685
+    info = fib.cache_info()
+    assert info.misses == 81 and info.hits == 78, info
+    assert info.maxsize is None and info.currsize == 81, info
+    fib.cache_clear()
+    assert fib.cache_info() == (0, 0, None, 0)
+
+
+def test_no_cache():
+    @functools.lru_cache(maxsize=0)
+    def f(x):
+        return x
+
+    assert f(1) == 1
+    assert f(1) == 1
+    assert f.cache_info() == (0, 2, 0, 0)
+
+
+def test_keys():
+    calls = []
+
+    @functools.lru_cache()
+    def f(*args, **kwargs):
+        calls.append((args, kwargs))
+        return len(calls)
+
+    assert f(1) == 1
+    assert f(1) == 1
+    # a single int is its own key, a float is wrapped
+    assert f(1.0) == 2
+    assert f(1, 2) == 3
+    assert f(1, 2) == 3
+    assert f(1, b=2) == 4
+    assert f(1, b=2) == 4
+    assert f(1, c=2) == 5
+    assert f("a") == 6
+    assert f("a") == 6
+    try:
+        f([])
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError for an unhashable argument"
+
+
+def test_typed():
+    @functools.lru_cache(typed=True)
+    def f(x):
+        return type(x)
+
+    assert f(1) is int
+    assert f(1.0) is float
+    assert f.cache_info().currsize == 2
+
+
+def test_wrapper_attributes():
+    class A:
+        @functools.lru_cache()
+        def method(self, x):
+            """doc"""
+            return self, x
+
+    a = A()
+    assert a.method(1) == (a, 1)
+    assert A.method.__doc__ == "doc"
+    assert A.method.__wrapped__.__name__ == "method"
+    assert A.method.__qualname__.endswith("A.method")
+    import copy
+    assert copy.copy(A.method) is A.method
+    assert copy.deepcopy(A.method) is A.method
+
+
+def test_invalid_arguments():
+    try:
+        functools.lru_cache(maxsize="x")
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
@@ -4,6 +4,7 @@
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
 import os
 import re
+import struct
 import unittest
 from test.support import (TESTFN, run_unittest, import_module)
 
@@ -222,6 +223,63 @@ def test_readline():
     assert m.readline() == b'ab'
 
 
+def test_buffer_export():
+    m = mmap.mmap(-1, 16)
+    m[0:8] = struct.pack('<II', 1, 2)
+    assert struct.unpack_from('<II', m) == (1, 2)
+    view = memoryview(m)
+    assert view[0] == 1 and len(view) == 16
+    view[8:12] = b'abcd'
+    assert m[8:12] == b'abcd'
+    assert bytes(m).find(b'bc') == 9
+    assert re.search(b'[a-z]+', m).span() == (8, 12)
+    view.release()
+    m.close()
+
+
+def test_file_access_modes():
+    with open(TESTFN, 'wb') as f:
+        f.write(b'x' * PAGESIZE)
+    try:
+        with open(TESTFN, 'rb') as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+        assert m[:3] == b'xxx'
+        assert memoryview(m).readonly
+        try:
+            m[0] = 1
+        except TypeError:
+            pass
+        else:
+            assert False, "read-only mmap was writable"
+        m.close()
+
+        with open(TESTFN, 'r+b') as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_COPY)
+        m[0:3] = b'abc'
+        assert m[0:4] == b'abcx'
+        m.close()
+        with open(TESTFN, 'rb') as f:
+            assert f.read(4) == b'xxxx'
+
+        with open(TESTFN, 'rb') as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_COPY)
+        m[0:2] = b'ab'
+        assert m[0:3] == b'abx'
+        m.close()
+        with open(TESTFN, 'rb') as f:
+            assert f.read(3) == b'xxx'
+
+        with open(TESTFN, 'r+b') as f:
+            m = mmap.mmap(f.fileno(), 0)
+        memoryview(m)[1:3] = b'yz'
+        m.flush()
+        m.close()
+        with open(TESTFN, 'rb') as f:
+            assert f.read(4) == b'xyzx'
+    finally:
+        os.unlink(TESTFN)
+
+
 def test_main():
     #run_unittest(MmapTests, LargeMmapTests)
     run_unittest(MmapTests)
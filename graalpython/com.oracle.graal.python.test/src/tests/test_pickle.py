@@ -37,6 +37,7 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import io
 import unittest
 import pickle
 
@@ -66,5 +67,154 @@ class TestPickle(unittest.TestCase):
         assert [16,17,18,19] == [next(teeit2) for i in range(1, 5)]
         assert [16,17,18,19] == [next(teeit) for i in range(1, 5)]
 
+    def test_native_module(self):
+        import _pickle
+        self.assertIs(pickle.Pickler, _pickle.Pickler)
+        self.assertIs(pickle.Unpickler, _pickle.Unpickler)
+        self.assertTrue(issubclass(_pickle.PicklingError, _pickle.PickleError))
+
+    def test_roundtrip_all_protocols(self):
+        values = [None, True, False, 0, 1, -1, 255, 256, 65535, 65536, -2**31, 2**31 - 1, 2**64, -2**100,
+                  1.5, -0.0, "", "abc", "\u20ac\U0001F600", "x" * 300, b"", b"abc", bytearray(b"xyz"),
+                  (), (1,), (1, 2), (1, 2, 3), (1, 2, 3, 4), [], [1, [2, [3]]], {}, {"a": 1, 2: [3]},
+                  set(), {1, 2, 3}, frozenset(), frozenset({"a"}), list(range(2500)),
+                  {i: str(i) for i in range(2500)}, len, io.BytesIO, ValueError("msg").args]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            for value in values:
+                result = pickle.loads(pickle.dumps(value, proto))
+                self.assertEqual(value, result, "protocol %d" % proto)
+                self.assertIs(type(value), type(result), "protocol %d" % proto)
+
+    def test_opcodes(self):
+        self.assertEqual(pickle.dumps(None, 0), b"N.")
+        self.assertEqual(pickle.dumps(5, 2), b"\x80\x02K\x05.")
+        self.assertEqual(pickle.dumps(True, 2), b"\x80\x02\x88.")
+        self.assertEqual(pickle.dumps((1, 2), 2), b"\x80\x02K\x01K\x02\x86q\x00.")
+        self.assertEqual(pickle.dumps("a", 4), b"\x80\x04\x95\x05\x00\x00\x00\x00\x00\x00\x00\x8c\x01a\x94.")
+        self.assertEqual(pickle.loads(b"I42\n."), 42)
+        self.assertEqual(pickle.loads(b"S'abc'\np0\n."), "abc")
+        self.assertEqual(pickle.loads(b"S'abc'\np0\n.", encoding="bytes"), b"abc")
+
+    def test_shared_and_recursive(self):
+        shared = [1, 2]
+        value = [shared, shared]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            result = pickle.loads(pickle.dumps(value, proto))
+            self.assertIs(result[0], result[1])
+        rec = []
+        rec.append(rec)
+        d = {}
+        d["self"] = d
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            result = pickle.loads(pickle.dumps(rec, proto))
+            self.assertIs(result[0], result)
+            result = pickle.loads(pickle.dumps(d, proto))
+            self.assertIs(result["self"], result)
+
+    def test_reduce_and_state(self):
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            obj = PickleObject(1, [2])
+            obj.extra = "x"
+            result = pickle.loads(pickle.dumps(obj, proto))
+            self.assertIs(type(result), PickleObject)
+            self.assertEqual(result.__dict__, obj.__dict__)
+            if proto >= 2:
+                slotted = pickle.loads(pickle.dumps(PickleSlots(3), proto))
+                self.assertEqual(slotted.a, 3)
+
+    def test_file_and_memo(self):
+        f = io.BytesIO()
+        p = pickle.Pickler(f, 2)
+        value = [1, 2]
+        p.dump(value)
+        p.dump(value)
+        self.assertEqual(len(p.memo.copy()), 1)
+        p.clear_memo()
+        self.assertEqual(len(p.memo.copy()), 0)
+        f.write(b"trailing")
+        f.seek(0)
+        u = pickle.Unpickler(f)
+        first = u.load()
+        second = u.load()
+        self.assertIs(first, second)
+        self.assertEqual(first, value)
+        self.assertEqual(f.read(), b"trailing")
+
+    def test_persistent_id(self):
+        class MyPickler(pickle.Pickler):
+            def persistent_id(self, obj):
+                if isinstance(obj, str) and obj.startswith("ext:"):
+                    return obj[4:]
+                return None
+
+        class MyUnpickler(pickle.Unpickler):
+            def persistent_load(self, pid):
+                return "loaded:" + pid
+
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            f = io.BytesIO()
+            MyPickler(f, proto).dump(["ext:a", "b"])
+            f.seek(0)
+            self.assertEqual(MyUnpickler(f).load(), ["loaded:a", "b"])
+
+    def test_dispatch_table(self):
+        f = io.BytesIO()
+        p = pickle.Pickler(f, 2)
+        p.dispatch_table = {complex: lambda c: (str, ("complex",))}
+        p.dump(1j)
+        self.assertEqual(pickle.loads(f.getvalue()), "complex")
+
+    def test_out_of_band_buffers(self):
+        data = bytearray(b"abcdefgh" * 1000)
+        buffers = []
+        dumped = pickle.dumps(pickle.PickleBuffer(data), protocol=5, buffer_callback=buffers.append)
+        self.assertEqual(len(buffers), 1)
+        result = pickle.loads(dumped, buffers=buffers)
+        self.assertEqual(bytes(result), bytes(data))
+        self.assertEqual(bytes(buffers[0].raw()), bytes(data))
+        in_band = pickle.loads(pickle.dumps(pickle.PickleBuffer(data), protocol=5))
+        self.assertEqual(in_band, data)
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(dumped)
+        with self.assertRaises(ValueError):
+            pickle.dumps(1, protocol=4, buffer_callback=buffers.append)
+        buffer = pickle.PickleBuffer(b"abc")
+        buffer.release()
+        with self.assertRaises(ValueError):
+            buffer.raw()
+
+    def test_errors(self):
+        with self.assertRaises(EOFError):
+            pickle.loads(b"")
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(b"\xff.")
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(b"\x80\x02K")
+        with self.assertRaises(ValueError):
+            pickle.dumps(1, protocol=pickle.HIGHEST_PROTOCOL + 1)
+        with self.assertRaises((AttributeError, pickle.PicklingError)):
+            pickle.dumps(lambda: 1)
+        with self.assertRaises(TypeError):
+            pickle.Pickler(object())
+        with self.assertRaises(TypeError):
+            pickle.Unpickler(object())
+
+
+class PickleObject:
+    def __init__(self, a, b):
+        self.a = a
+        self.b = b
+
+    def __eq__(self, other):
+        return type(other) is PickleObject and self.__dict__ == other.__dict__
+
+
+class PickleSlots:
+    __slots__ = ("a",)
+
+    def __init__(self, a):
+        self.a = a
+
+
 if __name__ == '__main__':
     unittest.main()
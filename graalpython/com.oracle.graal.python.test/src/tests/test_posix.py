@@ -172,6 +172,53 @@ class PosixTests(unittest.TestCase):
             os.close(fd1)
             os.close(fd2)
 
+    def test_readv_writev(self):
+        r, w = os.pipe()
+        try:
+            self.assertEqual(os.writev(w, [b'ab', memoryview(b'xcdx')[1:3], bytearray(b'ef')]), 6)
+            ring = bytearray(8)
+            view = memoryview(ring)
+            arr = array.array('b', [0, 0])
+            self.assertEqual(os.readv(r, [view[5:], arr, view[:1]]), 6)
+            self.assertEqual(ring, b'f\0\0\0\0abc')
+            self.assertEqual(arr.tobytes(), b'de')
+            self.assertRaises(BufferError, os.readv, r, [b'readonly'])
+        finally:
+            os.close(r)
+            os.close(w)
+
+    def test_readv_writev_mmap(self):
+        import mmap
+        m = mmap.mmap(-1, 16)
+        r, w = os.pipe()
+        try:
+            m[:6] = b'abcdef'
+            self.assertEqual(os.writev(w, [m[:0], memoryview(m)[2:4], b'-', memoryview(m)[:2]]), 5)
+            arr = bytearray(2)
+            # mixes segments in native memory with segments in byte arrays
+            self.assertEqual(os.readv(r, [memoryview(m)[8:10], arr, m]), 5)
+            self.assertEqual(m[8:10], b'cd')
+            self.assertEqual(arr, b'-a')
+            self.assertEqual(m[:6], b'bbcdef')
+        finally:
+            os.close(r)
+            os.close(w)
+            m.close()
+
+    def test_sendfile(self):
+        data = b'0123456789' * 100
+        with tempfile.TemporaryFile() as src, tempfile.TemporaryFile() as dst:
+            src.write(data)
+            src.flush()
+            self.assertEqual(os.sendfile(dst.fileno(), src.fileno(), 10, 20), 20)
+            os.lseek(src.fileno(), 0, os.SEEK_SET)
+            self.assertEqual(os.sendfile(dst.fileno(), src.fileno(), None, 5), 5)
+            self.assertEqual(os.lseek(src.fileno(), 0, os.SEEK_CUR), 5)
+            self.assertEqual(os.sendfile(dst.fileno(), src.fileno(), len(data), 5), 0)
+            self.assertRaises(OSError, os.sendfile, dst.fileno(), src.fileno(), -1, 5)
+            dst.seek(0)
+            self.assertEqual(dst.read(), data[10:30] + data[:5])
+
     def test_mkdir_rmdir(self):
         os.mkdir(TEST_FULL_PATH1)
         try:
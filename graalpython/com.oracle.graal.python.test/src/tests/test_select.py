@@ -37,6 +37,7 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import errno
 import os
 import select
 import sys
@@ -95,3 +96,168 @@ class SelectTests(unittest.TestCase):
             fds = [F(f.fileno()), F(stdout_fd), F(f.fileno())]
             res = select.select(fds, [], [], 1)
             assert res == ([fds[0], fds[2]], [], [])
+
+
+class PollTests(unittest.TestCase):
+    def setUp(self):
+        self.r, self.w = os.pipe()
+
+    def tearDown(self):
+        os.close(self.r)
+        os.close(self.w)
+
+    def test_poll_empty_timeout(self):
+        p = select.poll()
+        self.assertEqual(p.poll(0), [])
+        self.assertEqual(p.poll(10), [])
+
+    def test_poll_readable_and_writable(self):
+        p = select.poll()
+        p.register(self.r, select.POLLIN)
+        p.register(self.w, select.POLLOUT)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+        os.write(self.w, b'x')
+        self.assertEqual(sorted(p.poll(1000)), sorted([(self.r, select.POLLIN), (self.w, select.POLLOUT)]))
+        os.read(self.r, 1)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+
+    def test_poll_modify_and_unregister(self):
+        p = select.poll()
+        p.register(self.w, select.POLLOUT)
+        p.modify(self.w, select.POLLIN)
+        self.assertEqual(p.poll(0), [])
+        p.unregister(self.w)
+        self.assertRaises(KeyError, p.unregister, self.w)
+        with self.assertRaises(OSError) as cm:
+            p.modify(self.w, select.POLLOUT)
+        self.assertEqual(cm.exception.errno, errno.ENOENT)
+
+    def test_poll_unregister_register_poll(self):
+        p = select.poll()
+        p.register(self.w, select.POLLOUT)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+        p.unregister(self.w)
+        p.register(self.w, select.POLLOUT)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+
+    def test_poll_register_object_with_fileno(self):
+        class F:
+            def __init__(self, fd):
+                self.fd = fd
+            def fileno(self):
+                return self.fd
+
+        p = select.poll()
+        p.register(F(self.w), select.POLLOUT)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+
+    def test_poll_argument_validation(self):
+        p = select.poll()
+        self.assertRaises(TypeError, p.register, 'abc')
+        self.assertRaises((OverflowError, ValueError), p.register, self.r, -1)
+        self.assertRaises(OverflowError, p.register, self.r, 1 << 16)
+        self.assertRaises(OverflowError, p.poll, 1 << 31)
+        self.assertRaises(TypeError, p.poll, 'abc')
+
+    def test_poll_socket_can_block_again(self):
+        import socket
+        a, b = socket.socketpair()
+        with a, b:
+            a.setblocking(False)
+            p = select.poll()
+            p.register(a, select.POLLOUT)
+            self.assertEqual(p.poll(0), [(a.fileno(), select.POLLOUT)])
+            a.setblocking(True)
+            a.sendall(b'x')
+            self.assertEqual(b.recv(1), b'x')
+
+    def test_poll_type_is_not_exposed(self):
+        self.assertEqual(type(select.poll()).__name__, 'poll')
+        self.assertFalse(isinstance(select.poll, type))
+
+
+@unittest.skipUnless(hasattr(select, 'epoll'), 'epoll is only available on Linux')
+class EpollTests(unittest.TestCase):
+    def setUp(self):
+        self.r, self.w = os.pipe()
+
+    def tearDown(self):
+        os.close(self.r)
+        os.close(self.w)
+
+    def test_epoll_constants(self):
+        self.assertEqual(select.EPOLLET, 1 << 31)
+        self.assertGreater(select.EPOLLIN, 0)
+
+    def test_epoll_poll(self):
+        with select.epoll() as ep:
+            ep.register(self.r, select.EPOLLIN)
+            ep.register(self.w, select.EPOLLOUT)
+            self.assertEqual(ep.poll(0), [(self.w, select.EPOLLOUT)])
+            os.write(self.w, b'x')
+            self.assertEqual(sorted(ep.poll(1)), sorted([(self.r, select.EPOLLIN), (self.w, select.EPOLLOUT)]))
+            self.assertEqual(len(ep.poll(1, 1)), 1)
+            ep.modify(self.w, select.EPOLLIN)
+            self.assertEqual(ep.poll(0), [(self.r, select.EPOLLIN)])
+            ep.unregister(self.r)
+            self.assertEqual(ep.poll(0.01), [])
+
+    def test_epoll_unregister_register_poll(self):
+        with select.epoll() as ep:
+            ep.register(self.w, select.EPOLLOUT)
+            self.assertEqual(ep.poll(0), [(self.w, select.EPOLLOUT)])
+            ep.unregister(self.w)
+            ep.register(self.w, select.EPOLLOUT)
+            self.assertEqual(ep.poll(0), [(self.w, select.EPOLLOUT)])
+
+    def test_epoll_unregistered_socket_can_block_again(self):
+        import socket
+        a, b = socket.socketpair()
+        with a, b, select.epoll() as ep:
+            a.setblocking(False)
+            ep.register(a, select.EPOLLOUT)
+            self.assertEqual(ep.poll(0), [(a.fileno(), select.EPOLLOUT)])
+            ep.unregister(a)
+            a.setblocking(True)
+            a.sendall(b'x')
+            self.assertEqual(b.recv(1), b'x')
+
+    def test_epoll_oneshot(self):
+        with select.epoll() as ep:
+            ep.register(self.w, select.EPOLLOUT | select.EPOLLONESHOT)
+            self.assertEqual(ep.poll(0), [(self.w, select.EPOLLOUT)])
+            self.assertEqual(ep.poll(0), [])
+            ep.modify(self.w, select.EPOLLOUT | select.EPOLLONESHOT)
+            self.assertEqual(ep.poll(0), [(self.w, select.EPOLLOUT)])
+
+    def test_epoll_errors(self):
+        with select.epoll() as ep:
+            ep.register(self.r, select.EPOLLIN)
+            with self.assertRaises(OSError) as cm:
+                ep.register(self.r, select.EPOLLIN)
+            self.assertEqual(cm.exception.errno, errno.EEXIST)
+            with self.assertRaises(OSError) as cm:
+                ep.modify(self.w, select.EPOLLIN)
+            self.assertEqual(cm.exception.errno, errno.ENOENT)
+            with self.assertRaises(OSError) as cm:
+                ep.unregister(self.w)
+            self.assertEqual(cm.exception.errno, errno.ENOENT)
+            self.assertRaises(ValueError, ep.poll, 0, 0)
+            self.assertRaises(ValueError, ep.poll, 0, -2)
+        self.assertRaises(ValueError, select.epoll, 0)
+        self.assertRaises(ValueError, select.epoll, -2)
+
+    def test_epoll_close(self):
+        ep = select.epoll()
+        self.assertFalse(ep.closed)
+        self.assertIsInstance(ep.fileno(), int)
+        ep.close()
+        self.assertTrue(ep.closed)
+        ep.close()
+        self.assertRaises(ValueError, ep.fileno)
+        self.assertRaises(ValueError, ep.register, self.r)
+        self.assertRaises(ValueError, ep.poll, 0)
+        with self.assertRaises(ValueError):
+            with ep:
+                pass
+
@@ -519,3 +519,41 @@ def test_MutableSet_pop():
     assert v2 in l
     assert v1 != v2
     assert len(s) == 0
+
+
+def test_homogeneous_set_operations():
+    for make in (lambda i: i, lambda i: "s%d" % i):
+        a = {make(i) for i in range(0, 1000, 2)}
+        b = {make(i) for i in range(0, 1000, 3)}
+        assert a & b == {make(i) for i in range(0, 1000, 6)}
+        assert b & a == a & b
+        assert a - b == {make(i) for i in range(0, 1000, 2) if i % 3}
+        assert a | b == {make(i) for i in range(1000) if i % 2 == 0 or i % 3 == 0}
+        assert a ^ b == {make(i) for i in range(1000) if (i % 2 == 0) != (i % 3 == 0)}
+        assert len(a) == 500 and len(b) == 334
+        assert frozenset(a) & frozenset(b) == a & b
+        assert a & {make(0), "x", 1.5} == {make(0)}
+        assert a - {make(0), "x", 1.5} == a - {make(0)}
+
+
+def test_homogeneous_set_remove_and_readd():
+    s = set(range(100))
+    for i in range(0, 100, 2):
+        s.remove(i)
+    assert s == set(range(1, 100, 2))
+    while len(s) > 10:
+        s.pop()
+    assert len(s) == 10
+    for i in range(1000):
+        s.add(i)
+    assert s == set(range(1000))
+    s.discard(True)
+    assert 1 not in s and len(s) == 999
+    s.add(2.0)
+    assert 2 in s and len(s) == 999
+
+    s = {"a", "b", "c"}
+    s.discard("b")
+    assert s == {"a", "c"}
+    s.add(1)
+    assert s == {"a", "c", 1}
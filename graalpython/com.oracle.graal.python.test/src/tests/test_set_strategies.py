@@ -52,6 +52,8 @@ try:
         lambda: set_strategy(set(), 'hashmap'),
         lambda: set_strategy(set(), 'dynamicobject'),
         lambda: set_strategy(set(), 'economicmap'),
+        lambda: set_strategy(set(), 'long'),
+        lambda: set_strategy(set(), 'string'),
     ]
 except NameError:
     # For CPython, just to verify the test results
@@ -87,6 +89,28 @@ def test_add_contains_iterate_all_keys():
         assert set(KEYS) == s
 
 
+def test_discard_iterate_add_again():
+    for f in FACTORIES:
+        for keys in (list(range(40)), [str(i) for i in range(40)]):
+            s = f()
+            for k in keys:
+                s.add(k)
+            for k in keys[::3]:
+                s.discard(k)
+            s.remove(keys[1])
+            expected = [k for i, k in enumerate(keys) if i % 3 != 0 and i != 1]
+            assert len(s) == len(expected)
+            assert sorted(s, key=keys.index) == expected
+            assert keys[0] not in s and keys[1] not in s and keys[2] in s
+            s.add(keys[0])
+            assert keys[0] in s and len(s) == len(expected) + 1
+            # adding many elements resizes the storage and drops the removed entries
+            for k in keys[1:]:
+                s.add(k)
+            assert len(s) == len(keys)
+            assert sorted(s, key=keys.index) == keys
+
+
 FACTORIES2 = [(f1, f2) for f1 in FACTORIES for f2 in FACTORIES]
 KEYS2 = [(k1, k2) for k1 in KEYS for k2 in KEYS]
 COMBINATIONS2 = [(f, k) for f in FACTORIES2 for k in KEYS2]
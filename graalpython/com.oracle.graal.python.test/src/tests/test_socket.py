@@ -37,6 +37,8 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import array
+import tempfile
 import unittest
 
 import socket
@@ -65,3 +67,79 @@ def test_get_name_info():
     except TypeError:
         raised = True
     assert raised
+
+
+class TestBufferIO(unittest.TestCase):
+    def setUp(self):
+        self.a, self.b = socket.socketpair()
+
+    def tearDown(self):
+        self.a.close()
+        self.b.close()
+
+    def recv_into_exactly(self, view):
+        n = 0
+        while n < len(view):
+            n += self.b.recv_into(view[n:])
+        return n
+
+    def test_recv_into_views(self):
+        self.a.sendall(b'abcdef')
+        buf = bytearray(10)
+        self.assertEqual(self.recv_into_exactly(memoryview(buf)[4:]), 6)
+        self.assertEqual(buf, b'\0\0\0\0abcdef')
+        self.a.sendall(b'xyz')
+        arr = array.array('b', [0] * 3)
+        self.assertEqual(self.recv_into_exactly(memoryview(arr)), 3)
+        self.assertEqual(arr.tobytes(), b'xyz')
+
+    def test_send_views(self):
+        self.a.sendall(memoryview(b'--hello--')[2:7])
+        buf = bytearray(5)
+        self.recv_into_exactly(memoryview(buf))
+        self.assertEqual(buf, b'hello')
+
+
+    def test_sendfile(self):
+        data = bytes(range(256)) * 64
+        with tempfile.TemporaryFile() as f:
+            f.write(data)
+            f.flush()
+            self.assertEqual(self.a.sendfile(f, 100, 1000), 1000)
+            self.assertEqual(f.tell(), 1100)
+            buf = bytearray(1000)
+            self.recv_into_exactly(memoryview(buf))
+            self.assertEqual(buf, data[100:1100])
+
+
+class TestSendRecvMsg(unittest.TestCase):
+    def setUp(self):
+        self.receiver = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+        self.receiver.bind(('127.0.0.1', 0))
+        self.sender = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+        self.sender.bind(('127.0.0.1', 0))
+
+    def tearDown(self):
+        self.receiver.close()
+        self.sender.close()
+
+    def test_recvmsg_into(self):
+        address = self.receiver.getsockname()
+        self.assertEqual(self.sender.sendmsg([b'ab', memoryview(b'xcdx')[1:3], bytearray(b'ef')], [], 0, address), 6)
+        ring = bytearray(8)
+        view = memoryview(ring)
+        nbytes, ancdata, flags, addr = self.receiver.recvmsg_into([view[5:], view[:3]])
+        self.assertEqual(nbytes, 6)
+        self.assertEqual(ancdata, [])
+        self.assertEqual(flags, 0)
+        self.assertEqual(addr, self.sender.getsockname())
+        self.assertEqual(ring, b'def\0\0abc')
+
+    def test_recvmsg(self):
+        self.sender.connect(self.receiver.getsockname())
+        self.assertEqual(self.sender.sendmsg([b'hello ', b'world']), 11)
+        data, ancdata, flags, addr = self.receiver.recvmsg(64)
+        self.assertEqual(data, b'hello world')
+        self.assertEqual(ancdata, [])
+        self.assertEqual(addr, self.sender.getsockname())
+        self.assertRaises(ValueError, self.receiver.recvmsg, -1)
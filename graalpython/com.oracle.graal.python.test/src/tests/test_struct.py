@@ -259,3 +259,68 @@ def test_iter_unpack():
     assert lh(it) == 0
     assert_raises(StopIteration, next, it)
     assert lh(it) == 0
+
+
+def test_unpack_from_offsets():
+    data = b'\x00\x01\x02\x03\x04\x05\x06\x07'
+    assert struct.unpack_from('<H', data, 2) == (0x0302,)
+    assert struct.unpack_from('<H', bytearray(data), offset=6) == (0x0706,)
+    assert struct.unpack_from('<H', memoryview(data)[2:]) == (0x0302,)
+    assert struct.unpack_from('<H', data, -2) == (0x0706,)
+    assert_raises(struct.error, struct.unpack_from, '<I', data, 6)
+    assert_raises(struct.error, struct.unpack_from, '<I', data, -10)
+
+
+def test_iter_unpack_buffers():
+    s = struct.Struct('>hb')
+    it = s.iter_unpack(b'\x00\x01\x02\x00\x03\x04')
+    assert it.__length_hint__() == 2
+    assert list(it) == [(1, 2), (3, 4)]
+    assert_raises(StopIteration, next, it)
+    assert list(struct.iter_unpack('<B', bytearray(b'\x01\x02\x03'))) == [(1,), (2,), (3,)]
+    assert_raises(struct.error, struct.iter_unpack, '<H', b'\x00\x01\x02')
+    assert_raises(struct.error, struct.iter_unpack, '', b'')
+
+
+def test_struct_object():
+    s = struct.Struct('<iq')
+    assert s.format == '<iq'
+    assert s.size == 12
+    assert s.unpack(s.pack(-1, 2 ** 40)) == (-1, 2 ** 40)
+    assert struct.Struct(b'>h').unpack(b'\xff\xfe') == (-2,)
+    buf = bytearray(16)
+    s.pack_into(buf, -12, 7, 8)
+    assert s.unpack_from(buf, 4) == (7, 8)
+    assert_raises(struct.error, s.pack, 1)
+    assert_raises(struct.error, s.unpack, b'\x00')
+
+
+def test_errors():
+    assert struct.error is struct.error
+    assert issubclass(struct.error, Exception)
+    assert_raises(struct.error, struct.pack, 'b', 128)
+    assert_raises(struct.error, struct.pack, 'B', -1)
+    assert_raises(struct.error, struct.pack, 'Q', -1)
+    assert_raises(struct.error, struct.pack, 'i', 'x')
+    assert_raises(struct.error, struct.pack, 'c', b'ab')
+    assert_raises(struct.error, struct.calcsize, 'z')
+    assert_raises(struct.error, struct.calcsize, '12')
+    assert_raises(struct.error, struct.calcsize, '<n')
+
+
+def test_native_alignment():
+    assert struct.calcsize('@bi') == 8
+    assert struct.calcsize('=bi') == 5
+    assert struct.calcsize('@bq') == 16
+    assert struct.pack('@?x?', True, False) == b'\x01\x00\x00'
+
+
+def test_repeat_counts():
+    assert struct.calcsize('<100000000i') == 400000000
+    assert struct.calcsize('0i') == 0
+    assert struct.pack('<3hb2H', 1, -2, 3, 4, 5, 6) == b'\x01\x00\xfe\xff\x03\x00\x04\x05\x00\x06\x00'
+    assert struct.unpack('<3hb2H', b'\x01\x00\xfe\xff\x03\x00\x04\x05\x00\x06\x00') == (1, -2, 3, 4, 5, 6)
+    values = tuple(range(40))
+    assert struct.unpack('<40B', struct.pack('<40B', *values)) == values
+    assert struct.unpack('@b3q', struct.pack('@b3q', 1, 2, 3, 4)) == (1, 2, 3, 4)
+    assert_raises(struct.error, struct.pack, '<3h', 1, 2)
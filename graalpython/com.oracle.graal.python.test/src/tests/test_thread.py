@@ -513,3 +513,167 @@ if syscfg.get_config_var('WITH_THREAD'):
             lock.release()
             self.assertFalse(lock.locked())
             self.assertTrue(lock.acquire(blocking=False))
+
+        def test_release_unlocked(self):
+            lock = self.locktype()
+            self.assertRaises(RuntimeError, lock.release)
+            with lock:
+                pass
+            self.assertRaises(RuntimeError, lock.release)
+
+        def test_lock_stats(self):
+            if sys.implementation.name != "graalpython":
+                return
+            lock = self.locktype()
+            for _ in range(10):
+                with lock:
+                    pass
+            stats = __graalpython__.get_lock_stats(lock)
+            self.assertEqual(stats["acquires"], 10)
+            self.assertEqual(stats["contended_acquires"], 0)
+
+            lock.acquire()
+
+            def f():
+                with lock:
+                    pass
+            start_new_thread(f, ())
+            _wait()
+            lock.release()
+            while __graalpython__.get_lock_stats(lock)["acquires"] < 12:
+                _wait()
+            self.assertFalse(lock.locked())
+
+            # hold the lock until another thread is blocked on it, which must count as contended
+            before = __graalpython__.get_lock_stats(lock)
+            for attempt in range(1, 51):
+                lock.acquire()
+                started = []
+                done = []
+
+                def g():
+                    started.append(True)
+                    with lock:
+                        pass
+                    done.append(True)
+                start_new_thread(g, ())
+                while not started:
+                    _wait()
+                time.sleep(POLL_SLEEP * attempt)
+                lock.release()
+                while not done:
+                    _wait()
+                if __graalpython__.get_lock_stats(lock)["contended_acquires"] > before["contended_acquires"]:
+                    break
+            stats = __graalpython__.get_lock_stats(lock)
+            self.assertGreater(stats["contended_acquires"], before["contended_acquires"])
+            self.assertGreater(stats["wait_time_ns"], before["wait_time_ns"])
+            self.assertLessEqual(stats["contended_acquires"], stats["acquires"])
+
+
+    class RLockTests(BaseTestCase):
+
+        def test_reentrant(self):
+            lock = threading.RLock()
+            for _ in range(5):
+                self.assertTrue(lock.acquire())
+            self.assertTrue(lock._is_owned())
+            for _ in range(5):
+                lock.release()
+            self.assertFalse(lock._is_owned())
+            self.assertRaises(RuntimeError, lock.release)
+
+        def test_other_thread_blocks(self):
+            lock = threading.RLock()
+            lock.acquire()
+            lock.acquire()
+            results = []
+
+            def f():
+                results.append(lock.acquire(blocking=False))
+                results.append(lock.acquire(timeout=0.01))
+                try:
+                    lock.release()
+                except RuntimeError:
+                    results.append("not owned")
+                results.append(lock.acquire())
+                lock.release()
+            b = Bunch(f, 1)
+            while len(results) < 3:
+                _wait()
+            lock.release()
+            self.assertTrue(lock._is_owned())
+            lock.release()
+            b.wait_for_finished()
+            self.assertEqual(results, [False, False, "not owned", True])
+
+        def test_release_save(self):
+            lock = threading.RLock()
+            self.assertRaises(RuntimeError, lock._release_save)
+            lock.acquire()
+            lock.acquire()
+            state = lock._release_save()
+            self.assertFalse(lock._is_owned())
+            lock._acquire_restore(state)
+            self.assertTrue(lock._is_owned())
+            lock.release()
+            lock.release()
+            self.assertFalse(lock._is_owned())
+
+
+    class SwitchIntervalTest(unittest.TestCase):
+
+        def test_switchinterval(self):
+            orig = sys.getswitchinterval()
+            try:
+                self.assertRaises(TypeError, sys.setswitchinterval, "a")
+                self.assertRaises(ValueError, sys.setswitchinterval, -1.0)
+                self.assertRaises(ValueError, sys.setswitchinterval, 0.0)
+                sys.setswitchinterval(1e-5)
+                self.assertAlmostEqual(sys.getswitchinterval(), 1e-5)
+                sys.setswitchinterval(1)
+                self.assertAlmostEqual(sys.getswitchinterval(), 1.0)
+                if sys.implementation.name == "graalpython":
+                    # huge intervals are clamped instead of overflowing
+                    sys.setswitchinterval(1e20)
+                    self.assertGreater(sys.getswitchinterval(), 1e9)
+            finally:
+                sys.setswitchinterval(orig)
+
+        def test_gil_handoff(self):
+            if sys.implementation.name != "graalpython":
+                return
+            orig = sys.getswitchinterval()
+            sys.setswitchinterval(0.001)
+            try:
+                before = __graalpython__.get_gil_stats()
+                # each thread busy-loops until the other one made progress after it started, so
+                # both can only finish if the GIL is handed over between threads that never block
+                counters = [0, 0]
+                progressed = [False, False]
+                timed_out = []
+                needed = 1000
+                deadline = time.monotonic() + 30
+
+                def spin(me):
+                    other = 1 - me
+                    start = counters[other]
+                    while not (progressed[0] and progressed[1]):
+                        counters[me] += 1
+                        if counters[other] - start >= needed:
+                            progressed[me] = True
+                        if time.monotonic() > deadline:
+                            timed_out.append(me)
+                            break
+
+                threads = [threading.Thread(target=spin, args=(i,)) for i in range(2)]
+                for t in threads:
+                    t.start()
+                for t in threads:
+                    t.join()
+                self.assertEqual(timed_out, [])
+                after = __graalpython__.get_gil_stats()
+                self.assertGreater(after["handoffs"], before["handoffs"])
+                self.assertGreater(after["switch_requests"], before["switch_requests"])
+            finally:
+                sys.setswitchinterval(orig)
@@ -0,0 +1,208 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import threading
+import _lsprof
+
+
+def _traced():
+    a = 1
+    b = a + 1
+    return b
+
+
+def _raising():
+    raise ValueError("traced")
+
+
+def _callee():
+    return 1
+
+
+def _caller():
+    return _callee() + 1
+
+
+def _fact(n):
+    return 1 if n <= 1 else n * _fact(n - 1)
+
+
+def _trace(func, collect):
+    def tracer(frame, event, arg):
+        if frame.f_code.co_name == func.__name__:
+            result = collect(frame, event, arg)
+            return tracer if result is None else result
+        return tracer
+    sys.settrace(tracer)
+    try:
+        func()
+    except ValueError:
+        pass
+    finally:
+        sys.settrace(None)
+
+
+def test_settrace_events():
+    events = []
+    firstlineno = _traced.__code__.co_firstlineno
+    _trace(_traced, lambda frame, event, arg: events.append((event, frame.f_lineno - firstlineno, arg)))
+    assert events == [('call', 0, None), ('line', 1, None), ('line', 2, None), ('line', 3, None), ('return', 3, 2)], events
+
+
+def test_settrace_exception():
+    events = []
+    _trace(_raising, lambda frame, event, arg: events.append((event, arg[0] if event == 'exception' else arg)))
+    assert events == [('call', None), ('line', None), ('exception', ValueError), ('return', None)], events
+
+
+def test_settrace_without_local_trace():
+    events = []
+    def tracer(frame, event, arg):
+        if frame.f_code.co_name == '_traced':
+            events.append(event)
+        return None
+    sys.settrace(tracer)
+    try:
+        _traced()
+    finally:
+        sys.settrace(None)
+    assert events == ['call'], events
+
+
+def test_gettrace_getprofile():
+    def hook(frame, event, arg):
+        return None
+    assert sys.gettrace() is None
+    assert sys.getprofile() is None
+    sys.settrace(hook)
+    sys.setprofile(hook)
+    try:
+        assert sys.gettrace() is hook
+        assert sys.getprofile() is hook
+    finally:
+        sys.settrace(None)
+        sys.setprofile(None)
+    assert sys.gettrace() is None
+    assert sys.getprofile() is None
+
+
+def test_failing_hook_is_removed():
+    def hook(frame, event, arg):
+        raise RuntimeError("hook")
+    sys.settrace(hook)
+    try:
+        _traced()
+    except RuntimeError:
+        pass
+    else:
+        assert False, "expected the hook to raise"
+    finally:
+        assert sys.gettrace() is None
+        sys.settrace(None)
+
+
+def test_setprofile_events():
+    events = []
+    def profiler(frame, event, arg):
+        if event in ('call', 'return') and frame.f_code.co_name in ('_caller', '_callee'):
+            events.append((event, frame.f_code.co_name, arg))
+    sys.setprofile(profiler)
+    try:
+        _caller()
+    finally:
+        sys.setprofile(None)
+    assert events == [('call', '_caller', None), ('call', '_callee', None), ('return', '_callee', 1), ('return', '_caller', 2)], events
+
+
+def test_threading_settrace():
+    events = []
+    def tracer(frame, event, arg):
+        if frame.f_code.co_name == '_traced':
+            events.append(event)
+        return None
+    threading.settrace(tracer)
+    try:
+        t = threading.Thread(target=_traced)
+        t.start()
+        t.join()
+    finally:
+        threading.settrace(None)
+    assert events == ['call'], events
+    assert sys.gettrace() is None
+
+
+def _stats(profiler):
+    return {entry.code.co_name: entry for entry in profiler.getstats() if not isinstance(entry.code, str)}
+
+
+def test_profiler_counts():
+    profiler = _lsprof.Profiler()
+    profiler.enable()
+    _caller()
+    _caller()
+    _fact(5)
+    profiler.disable()
+    assert sys.getprofile() is None
+    stats = _stats(profiler)
+    assert stats['_caller'].callcount == 2
+    assert stats['_callee'].callcount == 2
+    assert stats['_fact'].callcount == 5
+    assert stats['_fact'].reccallcount == 4
+    calls = [subentry for subentry in stats['_caller'].calls if subentry.code.co_name == '_callee']
+    assert len(calls) == 1 and calls[0].callcount == 2
+    assert stats['_caller'].totaltime >= stats['_caller'].inlinetime >= 0
+
+
+def test_profiler_external_timer():
+    ticks = [0]
+    def timer():
+        ticks[0] += 1
+        return ticks[0]
+    profiler = _lsprof.Profiler(timer, 1.0)
+    profiler.enable()
+    _caller()
+    _caller()
+    profiler.disable()
+    stats = _stats(profiler)
+    assert stats['_callee'].totaltime == 2.0, stats['_callee']
+    assert stats['_caller'].totaltime == 6.0, stats['_caller']
+    assert stats['_caller'].inlinetime == 4.0, stats['_caller']
+    profiler.clear()
+    assert _stats(profiler) == {}
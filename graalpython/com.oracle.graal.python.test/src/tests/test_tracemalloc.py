@@ -0,0 +1,138 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import tracemalloc
+
+
+def _allocate():
+    return [bytearray(100) for _ in range(100)]
+
+
+_ALLOCATION_LINE = _allocate.__code__.co_firstlineno + 1
+
+
+def _line_stats(snapshot):
+    snapshot = snapshot.filter_traces([tracemalloc.Filter(True, __file__)])
+    return [stat for stat in snapshot.statistics('lineno') if stat.traceback[0].lineno == _ALLOCATION_LINE]
+
+
+def test_start_stop():
+    assert not tracemalloc.is_tracing()
+    tracemalloc.start(5)
+    try:
+        assert tracemalloc.is_tracing()
+        assert tracemalloc.get_traceback_limit() == 5
+    finally:
+        tracemalloc.stop()
+    assert not tracemalloc.is_tracing()
+    assert tracemalloc.get_traced_memory() == (0, 0)
+
+
+def test_invalid_nframe():
+    for nframe in (0, -1, 65536):
+        try:
+            tracemalloc.start(nframe)
+        except ValueError:
+            pass
+        else:
+            assert False, "expected ValueError for %d frames" % nframe
+    assert not tracemalloc.is_tracing()
+
+
+def test_object_traceback():
+    tracemalloc.start()
+    try:
+        obj = bytearray(100)
+        lineno = sys._getframe().f_lineno - 1
+        traceback = tracemalloc.get_object_traceback(obj)
+    finally:
+        tracemalloc.stop()
+    assert traceback is not None
+    assert traceback[0].filename == __file__, traceback
+    assert traceback[0].lineno == lineno, traceback
+    assert tracemalloc.get_object_traceback(obj) is None
+
+
+def test_traced_memory():
+    tracemalloc.start()
+    try:
+        data = _allocate()
+        current, peak = tracemalloc.get_traced_memory()
+        assert current >= 100 * 100, current
+        assert peak >= current
+        assert tracemalloc.get_tracemalloc_memory() > 0
+        tracemalloc.clear_traces()
+        assert tracemalloc.get_object_traceback(data[0]) is None
+    finally:
+        tracemalloc.stop()
+
+
+def test_snapshot_statistics():
+    tracemalloc.start()
+    try:
+        data = _allocate()
+        snapshot = tracemalloc.take_snapshot()
+    finally:
+        tracemalloc.stop()
+    stats = _line_stats(snapshot)
+    assert len(stats) == 1, stats
+    assert stats[0].count >= 100
+    assert stats[0].size >= 100 * 100
+    file_stats = snapshot.filter_traces([tracemalloc.Filter(True, __file__)]).statistics('filename')
+    assert len(file_stats) == 1 and file_stats[0].size >= 100 * 100, file_stats
+    del data
+
+
+def test_snapshot_compare():
+    tracemalloc.start(10)
+    try:
+        before = tracemalloc.take_snapshot()
+        data = _allocate()
+        after = tracemalloc.take_snapshot()
+    finally:
+        tracemalloc.stop()
+    before = before.filter_traces([tracemalloc.Filter(True, __file__)])
+    after = after.filter_traces([tracemalloc.Filter(True, __file__)])
+    diffs = [diff for diff in after.compare_to(before, 'traceback') if diff.traceback[-1].lineno == _ALLOCATION_LINE]
+    assert diffs, diffs
+    assert diffs[0].count_diff >= 100
+    assert diffs[0].size_diff >= 100 * 100
+    assert any(frame.lineno != _ALLOCATION_LINE for frame in diffs[0].traceback), diffs[0].traceback
+    del data
@@ -68,3 +68,66 @@ def test_category():
     assert unicodedata.category('A') == 'Lu'
     assert_raises(TypeError, unicodedata.category)
     assert_raises(TypeError, unicodedata.category, 'xx')
+
+
+def test_normalize_unchanged():
+    import unicodedata
+    for form in ('NFC', 'NFD', 'NFKC', 'NFKD'):
+        assert unicodedata.normalize(form, 'hello world') == 'hello world'
+        assert unicodedata.is_normalized(form, 'hello world')
+    assert unicodedata.normalize('NFC', 'café') == 'café'
+    assert unicodedata.normalize('NFD', 'café') == 'cafe\u0301'
+    assert unicodedata.normalize('NFC', 'cafe\u0301') == 'café'
+    assert unicodedata.normalize('NFKC', 'ﬁ') == 'fi'
+    assert not unicodedata.is_normalized('NFD', 'café')
+
+
+def test_numeric_values():
+    import unicodedata
+    assert unicodedata.decimal('7') == 7
+    assert unicodedata.decimal('٣') == 3
+    assert unicodedata.decimal('²', None) is None
+    assert_raises(ValueError, unicodedata.decimal, 'a')
+    assert unicodedata.digit('²') == 2
+    assert unicodedata.digit('a', -1) == -1
+    assert_raises(ValueError, unicodedata.digit, '½')
+    assert unicodedata.numeric('½') == 0.5
+    assert unicodedata.numeric('9') == 9.0
+    assert unicodedata.numeric('x', 'default') == 'default'
+    assert_raises(ValueError, unicodedata.numeric, 'x')
+
+
+def test_properties():
+    import unicodedata
+    assert unicodedata.combining('a') == 0
+    assert unicodedata.combining('\u0301') == 230
+    assert unicodedata.mirrored('(') == 1
+    assert unicodedata.mirrored('a') == 0
+    assert unicodedata.east_asian_width('a') == 'Na'
+    assert unicodedata.east_asian_width('一') == 'W'
+    assert unicodedata.east_asian_width('\uff61') == 'H'
+    assert unicodedata.east_asian_width('\u3000') == 'F'
+    assert unicodedata.east_asian_width('¡') == 'A'
+    assert unicodedata.east_asian_width('é') == 'A'
+    assert unicodedata.east_asian_width('€') == 'A'
+    assert_raises(TypeError, unicodedata.east_asian_width, 'ab')
+
+
+def test_decomposition():
+    import unicodedata
+    assert unicodedata.decomposition('a') == ''
+    assert unicodedata.decomposition('é') == '0065 0301'
+    assert unicodedata.decomposition('\u00a0') == '<noBreak> 0020'
+    assert unicodedata.decomposition('½') == '<fraction> 0031 2044 0032'
+    assert unicodedata.decomposition('ﬁ') == '<compat> 0066 0069'
+    assert unicodedata.decomposition('가') == ''
+
+
+def test_lookup():
+    import unicodedata
+    assert unicodedata.lookup('LATIN SMALL LETTER A') == 'a'
+    assert unicodedata.lookup('latin small letter e with acute') == 'é'
+    assert unicodedata.lookup('GRINNING FACE') == '\U0001f600'
+    assert unicodedata.lookup('CJK UNIFIED IDEOGRAPH-4E00') == '一'
+    assert unicodedata.lookup('HANGUL SYLLABLE GA') == '가'
+    assert_raises(KeyError, unicodedata.lookup, 'NOT A CHARACTER NAME')
@@ -88,6 +88,17 @@ class ChecksumTests(unittest.TestCase):
         self.assertEqual(zlib.crc32(b'ahoj', MyIndexObject(10)), 3299199656)
         self.assertEqual(zlib.adler32(b'ahoj', MyIndexObject(10)), 69992876)
 
+    def test_buffer_slices(self):
+        data = HAMLET_SCENE * 10
+        for start, end in ((0, len(data)), (7, len(data)), (13, 6000)):
+            expected = data[start:end]
+            for ob in (memoryview(data)[start:end], memoryview(bytearray(data))[start:end]):
+                self.assertEqual(zlib.crc32(ob), binascii.crc32(expected))
+                self.assertEqual(zlib.crc32(ob, 42), binascii.crc32(expected, 42))
+                self.assertEqual(zlib.adler32(ob), zlib.adler32(expected))
+                self.assertEqual(zlib.adler32(ob[5:], zlib.adler32(ob[:5])), zlib.adler32(expected))
+                self.assertEqual(zlib.crc32(ob[5:], zlib.crc32(ob[:5])), zlib.crc32(expected))
+
     def test_wrong_inputs(self):
         self.assertRaises(TypeError, zlib.crc32, 10)
         self.assertRaises(TypeError, zlib.crc32, 'ahoj')
@@ -164,6 +175,55 @@ class CompressTests(BaseCompressTestCase, unittest.TestCase):
         compressed = zlib.compress(data, 1)
         self.assertEqual(zlib.decompress(compressed, 15, CustomInt()), data)
 
+class CompressObjectTests(unittest.TestCase):
+    def test_stream_buffer_slices(self):
+        data = HAMLET_SCENE * 64
+        view = memoryview(bytearray(data))
+        co = zlib.compressobj(9, zlib.DEFLATED, 31)
+        chunks = [co.compress(view[i:i + 1000]) for i in range(0, len(data), 1000)]
+        chunks.append(co.flush())
+        compressed = b''.join(chunks)
+        self.assertEqual(zlib.decompress(compressed, 31), data)
+
+        do = zlib.decompressobj(31)
+        compressed_view = memoryview(b'xx' + compressed)[2:]
+        result = [do.decompress(compressed_view[i:i + 100]) for i in range(0, len(compressed), 100)]
+        result.append(do.flush())
+        self.assertEqual(b''.join(result), data)
+        self.assertTrue(do.eof)
+
+    def test_decompress_max_length(self):
+        data = HAMLET_SCENE * 16
+        do = zlib.decompressobj()
+        buf = zlib.compress(data)
+        result = []
+        while buf:
+            chunk = do.decompress(buf, 100)
+            self.assertLessEqual(len(chunk), 100)
+            result.append(chunk)
+            buf = do.unconsumed_tail
+        result.append(do.flush())
+        self.assertEqual(b''.join(result), data)
+
+    def test_threads(self):
+        import threading
+        data = HAMLET_SCENE * 256
+        results = [None] * 4
+
+        def work(i):
+            co = zlib.compressobj(6, zlib.DEFLATED, 31)
+            compressed = co.compress(memoryview(data)) + co.flush()
+            results[i] = (zlib.decompress(compressed, 31), zlib.crc32(data))
+
+        threads = [threading.Thread(target=work, args=(i,)) for i in range(len(results))]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        for r in results:
+            self.assertEqual(r, (data, zlib.crc32(data)))
+
+
 HAMLET_SCENE = b"""
 LAERTES
 
@@ -26,6 +26,7 @@
 package com.oracle.graal.python;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -214,6 +215,16 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
      */
     private final ConcurrentHashMap<BuiltinMethodDescriptor, RootCallTarget> descriptorCallTargets = new ConcurrentHashMap<>();
 
+    /**
+     * Call targets of code that is parsed or deserialized directly, i.e., not through
+     * {@link Env#parsePublic(Source, String...)}, whose results are already cached by Truffle. The
+     * parser only creates context independent nodes, so when multiple contexts share this language
+     * instance, the ASTs (and their compiled code) are reused by every context of the engine. The
+     * values are soft references, so that dynamically generated code does not stay alive forever.
+     */
+    private final ConcurrentHashMap<Object, SoftReference<RootCallTarget>> parsedCodeCache = new ConcurrentHashMap<>();
+    private static final int PARSED_CODE_CACHE_PRUNE_THRESHOLD = 1024;
+
     private final Shape emptyShape = Shape.newBuilder().allowImplicitCastIntToDouble(false).allowImplicitCastIntToLong(true).shapeFlags(0).propertyAssumptions(true).build();
     @CompilationFinal(dimensions = 1) private final Shape[] builtinTypeInstanceShapes = new Shape[PythonBuiltinClassType.VALUES.length];
 
@@ -505,6 +516,7 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         final MaterializedFrame requestFrame = request.getFrame();
         final ExecutableNode executableNode = new ExecutableNode(this) {
             @CompilationFinal private volatile PythonContext cachedContext;
+            @CompilationFinal private boolean sharedAcrossContexts;
             @Child private GilNode gilNode;
             @Child private ExpressionNode expression;
 
@@ -525,7 +537,7 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
                 boolean wasAcquired = gilNode.acquire();
                 try {
                     Object result;
-                    if (context == cachedCtx) {
+                    if (context == cachedCtx || sharedAcrossContexts) {
                         result = expression.execute(frame);
                     } else {
                         result = parseAndEval(context, frame.materialize());
@@ -539,6 +551,9 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
             private void parseAndCache(PythonContext context) {
                 CompilerAsserts.neverPartOfCompilation();
                 expression = insert(parseInline(source, context, requestFrame));
+                // nodes created while multiple contexts are possible do not cache context-specific
+                // values, so the fragment can be evaluated in any context of the engine
+                sharedAcrossContexts = !singleContextAssumption.isValid();
                 cachedContext = context;
             }
 
@@ -850,6 +865,28 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         return createCachedCallTarget(rootNodeFunction, Arrays.asList(cacheKeys));
     }
 
+    /**
+     * Cache the call target of code that is parsed or deserialized without going through Truffle's
+     * source cache. The key must identify the code and all parser options that influence the
+     * resulting AST. In a single context the code is not cached, because it would not be reused.
+     */
+    @TruffleBoundary
+    public RootCallTarget cacheParsedCode(Object key, Supplier<RootNode> parse) {
+        if (singleContextAssumption.isValid()) {
+            return PythonUtils.getOrCreateCallTarget(parse.get());
+        }
+        SoftReference<RootCallTarget> ref = parsedCodeCache.get(key);
+        RootCallTarget callTarget = ref != null ? ref.get() : null;
+        if (callTarget == null) {
+            callTarget = PythonUtils.getOrCreateCallTarget(parse.get());
+            if (parsedCodeCache.size() >= PARSED_CODE_CACHE_PRUNE_THRESHOLD) {
+                parsedCodeCache.values().removeIf(r -> r.get() == null);
+            }
+            parsedCodeCache.put(key, new SoftReference<>(callTarget));
+        }
+        return callTarget;
+    }
+
     public void registerBuiltinDescriptorCallTarget(BuiltinMethodDescriptor descriptor, RootCallTarget callTarget) {
         descriptorCallTargets.put(descriptor, callTarget);
     }
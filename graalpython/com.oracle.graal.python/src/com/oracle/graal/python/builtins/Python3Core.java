@@ -50,6 +50,7 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.modules.ArrayModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.AtexitModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.BinasciiModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.BisectModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.BuiltinConstructors;
 import com.oracle.graal.python.builtins.modules.BuiltinFunctions;
 import com.oracle.graal.python.builtins.modules.CmathModuleBuiltins;
@@ -66,6 +67,7 @@ import com.oracle.graal.python.builtins.modules.GcModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalHPyDebugModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalHPyUniversalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalPythonModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.HeapqModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ImpModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ItertoolsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.JArrayModuleBuiltins;
@@ -94,20 +96,30 @@ import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SignalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SocketModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.StringModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.StructModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysConfigModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ThreadModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TraceModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.TracemallocModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.UnicodeDataModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.WarningsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.WeakRefModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ZipImportModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ast.AstBuiltins;
 import com.oracle.graal.python.builtins.modules.ast.AstModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureIterBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.TaskBuiltins;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2CompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2DecompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.csv.CSVDialectBuiltins;
+import com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.csv.CSVReaderBuiltins;
+import com.oracle.graal.python.builtins.modules.csv.CSVWriterBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.CArgObjectBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.CDataBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.CDataTypeBuiltins;
@@ -127,6 +139,24 @@ import com.oracle.graal.python.builtins.modules.ctypes.StgDictBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.StructUnionTypeBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.StructureBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.UnionTypeBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TimeBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TimeDeltaBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TimeZoneBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Blake2ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.DigestObjectBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.HashlibModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Md5ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha1ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha256ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha3Builtins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha3ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha512ModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.io.BufferedIOBaseBuiltins;
 import com.oracle.graal.python.builtins.modules.io.BufferedIOMixinBuiltins;
 import com.oracle.graal.python.builtins.modules.io.BufferedRWPairBuiltins;
@@ -151,6 +181,12 @@ import com.oracle.graal.python.builtins.modules.json.JSONScannerBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMACompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMADecompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PickleBufferBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PickleModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PicklerBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PicklerMemoProxyBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.UnpicklerBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.UnpicklerMemoProxyBuiltins;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.zlib.ZlibCompressBuiltins;
 import com.oracle.graal.python.builtins.modules.zlib.ZlibDecompressBuiltins;
@@ -201,6 +237,7 @@ import com.oracle.graal.python.builtins.objects.itertools.TeeBuiltins;
 import com.oracle.graal.python.builtins.objects.itertools.TeeDataObjectBuiltins;
 import com.oracle.graal.python.builtins.objects.keywrapper.KeyWrapperBuiltins;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltins;
+import com.oracle.graal.python.builtins.objects.lrucache.LruCacheWrapperBuiltins;
 import com.oracle.graal.python.builtins.objects.map.MapBuiltins;
 import com.oracle.graal.python.builtins.objects.mappingproxy.MappingproxyBuiltins;
 import com.oracle.graal.python.builtins.objects.memoryview.BufferBuiltins;
@@ -228,6 +265,8 @@ import com.oracle.graal.python.builtins.objects.random.RandomBuiltins;
 import com.oracle.graal.python.builtins.objects.range.RangeBuiltins;
 import com.oracle.graal.python.builtins.objects.referencetype.ReferenceTypeBuiltins;
 import com.oracle.graal.python.builtins.objects.reversed.ReversedBuiltins;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltins;
+import com.oracle.graal.python.builtins.objects.select.PollBuiltins;
 import com.oracle.graal.python.builtins.objects.set.BaseSetBuiltins;
 import com.oracle.graal.python.builtins.objects.set.FrozenSetBuiltins;
 import com.oracle.graal.python.builtins.objects.set.SetBuiltins;
@@ -238,6 +277,8 @@ import com.oracle.graal.python.builtins.objects.ssl.SSLContextBuiltins;
 import com.oracle.graal.python.builtins.objects.ssl.SSLErrorBuiltins;
 import com.oracle.graal.python.builtins.objects.ssl.SSLSocketBuiltins;
 import com.oracle.graal.python.builtins.objects.str.StringBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructUnpackIteratorBuiltins;
 import com.oracle.graal.python.builtins.objects.superobject.SuperBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.LockBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.RLockBuiltins;
@@ -320,7 +361,6 @@ public abstract class Python3Core extends ParserErrorCallback {
                         "java",
                         "_contextvars",
                         "pip_hook",
-                        "_struct",
                         "_posixshmem"));
         // add service loader defined python file extensions
         if (!ImageInfo.inImageRuntimeCode()) {
@@ -340,7 +380,6 @@ public abstract class Python3Core extends ParserErrorCallback {
     private final PythonBuiltins[] builtins;
 
     private static final boolean hasCoverageTool;
-    private static final boolean hasProfilerTool;
     static {
         Class<?> c = null;
         try {
@@ -349,12 +388,6 @@ public abstract class Python3Core extends ParserErrorCallback {
         }
         hasCoverageTool = c != null;
         c = null;
-        try {
-            c = Class.forName("com.oracle.truffle.tools.profiler.CPUSampler");
-        } catch (LinkageError | ClassNotFoundException e) {
-        }
-        hasProfilerTool = c != null;
-        c = null;
     }
 
     private static PythonBuiltins[] initializeBuiltins(boolean nativeAccessAllowed) {
@@ -377,6 +410,7 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new IntBuiltins(),
                         new ForeignObjectBuiltins(),
                         new KeyWrapperBuiltins(),
+                        new LruCacheWrapperBuiltins(),
                         new PartialBuiltins(),
                         new ListBuiltins(),
                         new DictBuiltins(),
@@ -468,14 +502,21 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new JavaModuleBuiltins(),
                         new JArrayModuleBuiltins(),
                         new JSONModuleBuiltins(),
+                        new CSVModuleBuiltins(),
+                        new CSVDialectBuiltins(),
+                        new CSVReaderBuiltins(),
+                        new CSVWriterBuiltins(),
                         new SREModuleBuiltins(),
                         new AstModuleBuiltins(),
                         new SelectModuleBuiltins(),
+                        new PollBuiltins(),
+                        new EpollBuiltins(),
                         new SocketModuleBuiltins(),
                         new SocketBuiltins(),
                         new SignalModuleBuiltins(),
                         new TracebackBuiltins(),
                         new GcModuleBuiltins(),
+                        new TracemallocModuleBuiltins(),
                         new AtexitModuleBuiltins(),
                         new FaulthandlerModuleBuiltins(),
                         new UnicodeDataModuleBuiltins(),
@@ -498,6 +539,30 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new OperatorModuleBuiltins(),
                         new ZipImporterBuiltins(),
                         new ZipImportModuleBuiltins(),
+                        new StructModuleBuiltins(),
+                        new HeapqModuleBuiltins(),
+                        new BisectModuleBuiltins(),
+                        new PickleModuleBuiltins(),
+                        new PicklerBuiltins(),
+                        new PicklerMemoProxyBuiltins(),
+                        new UnpicklerBuiltins(),
+                        new UnpicklerMemoProxyBuiltins(),
+                        new PickleBufferBuiltins(),
+                        new StructBuiltins(),
+                        new StructUnpackIteratorBuiltins(),
+
+                        // datetime
+                        new DateTimeModuleBuiltins(),
+                        new TimeDeltaBuiltins(),
+                        new DateBuiltins(),
+                        new DateTimeBuiltins(),
+                        new TimeBuiltins(),
+                        new TimeZoneBuiltins(),
+
+                        // decimal
+                        new DecimalModuleBuiltins(),
+                        new DecimalBuiltins(),
+                        new DecimalContextBuiltins(),
 
                         // itertools
                         new ChainBuiltins(),
@@ -510,6 +575,17 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new ZlibCompressBuiltins(),
                         new ZlibDecompressBuiltins(),
 
+                        // hashlib
+                        new HashlibModuleBuiltins(),
+                        new DigestObjectBuiltins(),
+                        new Md5ModuleBuiltins(),
+                        new Sha1ModuleBuiltins(),
+                        new Sha256ModuleBuiltins(),
+                        new Sha512ModuleBuiltins(),
+                        new Sha3ModuleBuiltins(),
+                        new Sha3Builtins(),
+                        new Blake2ModuleBuiltins(),
+
                         new MMapModuleBuiltins(),
                         new FcntlModuleBuiltins(),
                         new MMapBuiltins(),
@@ -538,6 +614,12 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new JSONScannerBuiltins(),
                         new JSONEncoderBuiltins(),
 
+                        // _asyncio
+                        new AsyncioModuleBuiltins(),
+                        new FutureBuiltins(),
+                        new TaskBuiltins(),
+                        new FutureIterBuiltins(),
+
                         // _ast
                         new AstBuiltins(),
 
@@ -567,14 +649,14 @@ public abstract class Python3Core extends ParserErrorCallback {
 
                         // _hpy_debug
                         new GraalHPyDebugModuleBuiltins(),
-                        new GraalHPyDebugHandleBuiltins()));
+                        new GraalHPyDebugHandleBuiltins(),
+
+                        // _lsprof
+                        new LsprofModuleBuiltins(),
+                        LsprofModuleBuiltins.newProfilerBuiltins()));
         if (hasCoverageTool) {
             builtins.add(new TraceModuleBuiltins());
         }
-        if (hasProfilerTool) {
-            builtins.add(new LsprofModuleBuiltins());
-            builtins.add(LsprofModuleBuiltins.newProfilerBuiltins());
-        }
         if (nativeAccessAllowed) {
             builtins.add(new BZ2CompressorBuiltins());
             builtins.add(new BZ2DecompressorBuiltins());
@@ -676,6 +758,16 @@ public abstract class Python3Core extends ParserErrorCallback {
         initialized = true;
     }
 
+    /**
+     * Runs the core file of a builtin module that is not needed at startup in that module. The
+     * module calls this from its {@link PythonBuiltins#postInitialize}, which runs when the module
+     * is first imported.
+     */
+    @TruffleBoundary
+    public final void loadLazyCoreFile(String name) {
+        loadFile(name, getContext().getCoreHomeOrFail());
+    }
+
     /**
      * Run post-initialization code that needs a fully working Python environment. This will be run
      * eagerly when the context is initialized on the JVM or a new context is created on SVM, but is
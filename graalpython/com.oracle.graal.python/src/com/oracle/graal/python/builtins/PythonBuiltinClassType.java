@@ -87,6 +87,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PSimpleNamespace("SimpleNamespace", null, "types", Flags.PUBLIC_BASE_WDICT),
     PKeyWrapper("KeyWrapper", "_functools", "functools", Flags.PUBLIC_DERIVED_WODICT),
     PPartial(PARTIAL, "_functools", "functools", Flags.PUBLIC_BASE_WDICT),
+    PLruCacheWrapper("_lru_cache_wrapper", "_functools", "functools", Flags.PUBLIC_DERIVED_WDICT),
     PDefaultDict(DEFAULTDICT, "_collections", "collections", Flags.PUBLIC_BASE_WODICT),
     PDeque(DEQUE, "_collections", Flags.PUBLIC_BASE_WODICT),
     PTupleGetter(TUPLE_GETTER, "_collections", Flags.PUBLIC_BASE_WODICT),
@@ -160,6 +161,18 @@ public enum PythonBuiltinClassType implements TruffleObject {
     Unpickler("Unpickler", "_pickle"),
     PickleBuffer("PickleBuffer", "_pickle"),
 
+    // datetime
+    PTimeDelta("timedelta", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PDate("date", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PDateTime("datetime", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTime("time", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTzInfo("tzinfo", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTimeZone("timezone", "_datetime", "datetime", Flags.PUBLIC_DERIVED_WODICT),
+
+    // decimal
+    PDecimal("Decimal", "_decimal", "decimal", Flags.PUBLIC_BASE_WODICT),
+    PDecimalContext("Context", "_decimal", "decimal", Flags.PUBLIC_BASE_WODICT),
+
     // bz2
     BZ2Compressor("BZ2Compressor", "_bz2"),
     BZ2Decompressor("BZ2Decompressor", "_bz2"),
@@ -172,6 +185,26 @@ public enum PythonBuiltinClassType implements TruffleObject {
     ZlibCompress("Compress", "zlib"),
     ZlibDecompress("Decompress", "zlib"),
 
+    // hashlib
+    HashlibHash("HASH", "_hashlib", Flags.PUBLIC_DERIVED_WODICT),
+    Sha3SHA224("sha3_224", "_sha3"),
+    Sha3SHA256("sha3_256", "_sha3"),
+    Sha3SHA384("sha3_384", "_sha3"),
+    Sha3SHA512("sha3_512", "_sha3"),
+    Sha3Shake128("shake_128", "_sha3"),
+    Sha3Shake256("shake_256", "_sha3"),
+    Blake2b("blake2b", "_blake2"),
+    Blake2s("blake2s", "_blake2"),
+
+    // select
+    PPoll("poll", null, "select", Flags.PUBLIC_DERIVED_WODICT),
+    PEpoll("epoll", "select"),
+
+    // csv
+    CSVDialect("Dialect", "_csv"),
+    CSVReader("reader", null, "_csv", Flags.PUBLIC_DERIVED_WODICT),
+    CSVWriter("writer", null, "_csv", Flags.PUBLIC_DERIVED_WODICT),
+
     // io
     PIOBase("_IOBase", "_io", Flags.PUBLIC_BASE_WDICT),
     PRawIOBase("_RawIOBase", "_io"),
@@ -218,6 +251,11 @@ public enum PythonBuiltinClassType implements TruffleObject {
     JSONScanner("Scanner", "_json", Flags.PUBLIC_BASE_WODICT),
     JSONEncoder("Encoder", "_json", Flags.PUBLIC_BASE_WODICT),
 
+    // _asyncio
+    PAsyncioFuture("Future", "_asyncio", Flags.PUBLIC_BASE_WDICT),
+    PAsyncioTask("Task", "_asyncio", Flags.PUBLIC_BASE_WDICT),
+    PAsyncioFutureIter("FutureIter", null, "_asyncio", Flags.PUBLIC_DERIVED_WODICT),
+
     // _ast (rest of the classes are not builtin, they are generated in AstModuleBuiltins)
     AST("AST", "_ast", Flags.PUBLIC_BASE_WDICT),
 
@@ -300,6 +338,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     SocketTimeout("timeout", "_socket", Flags.EXCEPTION),
     BinasciiError("Error", "binascii", Flags.EXCEPTION),
     BinasciiIncomplete("Incomplete", "binascii", Flags.EXCEPTION),
+    CSVError("Error", "_csv", Flags.EXCEPTION),
     SSLError("SSLError", "_ssl", Flags.EXCEPTION),
     SSLZeroReturnError("SSLZeroReturnError", "_ssl", Flags.EXCEPTION),
     SSLWantReadError("SSLWantReadError", "_ssl", Flags.EXCEPTION),
@@ -355,6 +394,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
         static final Flags PRIVATE_BASE_WODICT = new Flags(false, true, false);
         static final Flags PUBLIC_BASE_WDICT = new Flags(true, true, true);
         static final Flags PUBLIC_BASE_WODICT = new Flags(true, true, false);
+        static final Flags PUBLIC_DERIVED_WDICT = new Flags(true, false, true);
         static final Flags PUBLIC_DERIVED_WODICT = new Flags(true, false, false);
         static final Flags PRIVATE_DERIVED_WODICT = new Flags(false, false, false);
 
@@ -611,6 +651,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
         StructError.base = Exception;
         BinasciiError.base = ValueError;
         BinasciiIncomplete.base = Exception;
+        CSVError.base = Exception;
         PickleError.base = Exception;
         PicklingError.base = PickleError;
         UnpicklingError.base = PickleError;
@@ -689,6 +730,11 @@ public enum PythonBuiltinClassType implements TruffleObject {
 
         Empty.base = Exception;
 
+        PDateTime.base = PDate;
+        PTimeZone.base = PTzInfo;
+
+        PAsyncioTask.base = PAsyncioFuture;
+
         HashSet<String> set = new HashSet<>();
         for (PythonBuiltinClassType type : VALUES) {
             assert set.add(type.name) : type.name(); // check uniqueness
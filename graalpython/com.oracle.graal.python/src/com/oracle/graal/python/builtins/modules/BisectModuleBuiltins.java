@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemScalarNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.InsertItemNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.str.StringUtils;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Java implementation of CPython's {@code _bisect} module. Lists backed by int, long or double
+ * storages are searched directly on the primitive arrays when the probe has a matching type; other
+ * lists are searched through the storage nodes with a shortcut for string comparisons, and any
+ * other sequence through {@code __getitem__}.
+ */
+@CoreFunctions(defineModule = "_bisect")
+public class BisectModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BisectModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Returns the insertion point for {@code x} in {@code a[lo:hi]}. Both bounds must already be
+     * resolved, i.e., {@code lo >= 0} and {@code hi} is not the {@code -1} placeholder for
+     * {@code len(a)}.
+     */
+    abstract static class BisectNode extends PNodeWithRaise {
+
+        abstract int execute(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right);
+
+        @Specialization(guards = "isIntStorage(a)")
+        int doInt(PList a, int x, int lo, int hi, boolean right) {
+            IntSequenceStorage storage = (IntSequenceStorage) a.getSequenceStorage();
+            int[] array = storage.getInternalIntArray();
+            int len = storage.length();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (mid >= len) {
+                    throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+                }
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Specialization(guards = "isLongStorage(a)")
+        int doLong(PList a, long x, int lo, int hi, boolean right) {
+            LongSequenceStorage storage = (LongSequenceStorage) a.getSequenceStorage();
+            long[] array = storage.getInternalLongArray();
+            int len = storage.length();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (mid >= len) {
+                    throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+                }
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Specialization(guards = "isDoubleStorage(a)")
+        int doDouble(PList a, double x, int lo, int hi, boolean right) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) a.getSequenceStorage();
+            double[] array = storage.getInternalDoubleArray();
+            int len = storage.length();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (mid >= len) {
+                    throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+                }
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Specialization
+        int doList(VirtualFrame frame, PList a, Object x, int lo, int hi, boolean right,
+                        @Cached GetItemScalarNode getItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                // the comparison may run arbitrary code, so the storage must be re-read each time
+                SequenceStorage storage = a.getSequenceStorage();
+                if (mid >= storage.length()) {
+                    throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+                }
+                Object item = getItemNode.execute(storage, mid);
+                if (right ? lessThan(frame, x, item, ltNode) : !lessThan(frame, item, x, ltNode)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Fallback
+        static int doSequence(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right,
+                        @Cached PyObjectGetItem getItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                Object item = getItemNode.execute(frame, a, mid);
+                if (right ? ltNode.execute(frame, x, item) : !ltNode.execute(frame, item, x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        private static boolean lessThan(VirtualFrame frame, Object a, Object b, PyObjectRichCompareBool.LtNode ltNode) {
+            if (a instanceof String && b instanceof String) {
+                return StringUtils.compareToUnicodeAware((String) a, (String) b) < 0;
+            }
+            return ltNode.execute(frame, a, b);
+        }
+    }
+
+    /**
+     * Inserts {@code x} at {@code index}, directly into the storage of exact lists and through
+     * their {@code insert} method for everything else.
+     */
+    abstract static class InsertNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, Object a, int index, Object x);
+
+        @Specialization(guards = "isBuiltinList(a, isBuiltinClass)", limit = "1")
+        static void doList(PList a, int index, Object x,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isBuiltinClass,
+                        @Cached InsertItemNode insertItemNode) {
+            SequenceStorage storage = a.getSequenceStorage();
+            a.setSequenceStorage(insertItemNode.execute(storage, Math.min(index, storage.length()), x));
+        }
+
+        @Specialization(guards = "!isBuiltinList(a, isBuiltinClass)", limit = "1")
+        static void doGeneric(VirtualFrame frame, Object a, int index, Object x,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isBuiltinClass,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            callMethod.execute(frame, a, "insert", index, x);
+        }
+
+        protected static boolean isBuiltinList(Object object, IsBuiltinClassProfile profile) {
+            return object instanceof PList && profile.profileObject(object, PythonBuiltinClassType.PList);
+        }
+    }
+
+    abstract static class BisectBaseNode extends PythonQuaternaryClinicBuiltinNode {
+
+        int bisect(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right, PyObjectSizeNode sizeNode, BisectNode bisectNode) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "lo");
+            }
+            return bisectNode.execute(frame, a, x, lo, hi == -1 ? sizeNode.execute(frame, a) : hi, right);
+        }
+    }
+
+    @Builtin(name = "bisect_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, //
+                    doc = "Return the index where to insert item x in list a, assuming a is sorted.\n\n" +
+                                    "The return value i is such that all e in a[:i] have e <= x, and all e in\n" +
+                                    "a[i:] have e > x.  So if x already appears in the list, i points just\n" +
+                                    "beyond the rightmost x already there\n\n" +
+                                    "Optional args lo (default 0) and hi (default len(a)) bound the\n" +
+                                    "slice of a to be searched.")
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectRightNode extends BisectBaseNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int doIt(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached BisectNode bisectNode) {
+            return bisect(frame, a, x, lo, hi, true, sizeNode, bisectNode);
+        }
+    }
+
+    @Builtin(name = "bisect_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, //
+                    doc = "Return the index where to insert item x in list a, assuming a is sorted.\n\n" +
+                                    "The return value i is such that all e in a[:i] have e < x, and all e in\n" +
+                                    "a[i:] have e >= x.  So if x already appears in the list, i points just\n" +
+                                    "before the leftmost x already there.\n\n" +
+                                    "Optional args lo (default 0) and hi (default len(a)) bound the\n" +
+                                    "slice of a to be searched.")
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectLeftNode extends BisectBaseNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int doIt(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached BisectNode bisectNode) {
+            return bisect(frame, a, x, lo, hi, false, sizeNode, bisectNode);
+        }
+    }
+
+    @Builtin(name = "insort_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, //
+                    doc = "Insert item x in list a, and keep it sorted assuming a is sorted.\n\n" +
+                                    "If x is already in a, insert it to the right of the rightmost x.\n\n" +
+                                    "Optional args lo (default 0) and hi (default len(a)) bound the\n" +
+                                    "slice of a to be searched.")
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortRightNode extends BisectBaseNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doIt(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached BisectNode bisectNode,
+                        @Cached InsertNode insertNode) {
+            insertNode.execute(frame, a, bisect(frame, a, x, lo, hi, true, sizeNode, bisectNode), x);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "insort_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, //
+                    doc = "Insert item x in list a, and keep it sorted assuming a is sorted.\n\n" +
+                                    "If x is already in a, insert it to the left of the leftmost x.\n\n" +
+                                    "Optional args lo (default 0) and hi (default len(a)) bound the\n" +
+                                    "slice of a to be searched.")
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortLeftNode extends BisectBaseNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doIt(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached BisectNode bisectNode,
+                        @Cached InsertNode insertNode) {
+            insertNode.execute(frame, a, bisect(frame, a, x, lo, hi, false, sizeNode, bisectNode), x);
+            return PNone.NONE;
+        }
+    }
+}
@@ -1037,7 +1037,7 @@ public final class BuiltinFunctions extends PythonBuiltins {
                     return getContext().getEnv().parsePublic(source);
                 } else {
                     Source source = PythonLanguage.newSource(context, finalCode, filename, mayBeFromFile, PythonLanguage.MIME_TYPE);
-                    return PythonUtils.getOrCreateCallTarget((RootNode) getCore().getParser().parse(pm, kwOptimize, getCore(), source, null, null));
+                    return getLanguage().cacheParsedCode(Arrays.asList(source, pm, kwOptimize), () -> (RootNode) getCore().getParser().parse(pm, kwOptimize, getCore(), source, null, null));
                 }
             };
             if (getCore().isCoreInitialized()) {
@@ -42,6 +42,7 @@ package com.oracle.graal.python.builtins.modules;
 
 import static com.oracle.graal.python.builtins.objects.partial.PartialBuiltins.getNewPartialArgs;
 import static com.oracle.graal.python.nodes.BuiltinNames.PARTIAL;
+import static com.oracle.graal.python.nodes.ErrorMessages.MAXSIZE_SHOULD_BE_INTEGER_OR_NONE;
 import static com.oracle.graal.python.nodes.ErrorMessages.REDUCE_EMPTY_SEQ;
 import static com.oracle.graal.python.nodes.ErrorMessages.S_ARG_MUST_BE_CALLABLE;
 import static com.oracle.graal.python.nodes.ErrorMessages.S_ARG_N_MUST_SUPPORT_ITERATION;
@@ -61,7 +62,10 @@ import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.partial.PPartial;
 import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
 import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
 import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -258,4 +262,48 @@ public class FunctoolsModuleBuiltins extends PythonBuiltins {
             throw raise(PythonBuiltinClassType.TypeError, TYPE_S_TAKES_AT_LEAST_ONE_ARGUMENT, "partial");
         }
     }
+
+    // functools._lru_cache_wrapper(user_function, maxsize, typed, cache_info_type)
+    @Builtin(name = "_lru_cache_wrapper", minNumOfPositionalArgs = 5, parameterNames = {"$cls", "user_function", "maxsize", "typed", "cache_info_type"}, constructsClass = PythonBuiltinClassType.PLruCacheWrapper, doc = "Create a cached callable that wraps another function.\n" +
+                    "\n" +
+                    "user_function:      the function being cached\n" +
+                    "\n" +
+                    "maxsize:  0         for no caching\n" +
+                    "          None      for unlimited cache size\n" +
+                    "          n         for a bounded cache\n" +
+                    "\n" +
+                    "typed:    False     cache f(3) and f(3.0) as identical calls\n" +
+                    "          True      cache f(3) and f(3.0) as distinct calls\n" +
+                    "\n" +
+                    "cache_info_type:    namedtuple class with the fields:\n" +
+                    "                        hits misses currsize maxsize\n")
+    @GenerateNodeFactory
+    public abstract static class LruCacheWrapperNode extends PythonBuiltinNode {
+        @Specialization
+        Object create(VirtualFrame frame, Object cls, Object userFunction, Object maxSizeObj, Object typedObj, Object cacheInfoType,
+                        @Cached PyCallableCheckNode callableCheckNode,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            if (!callableCheckNode.execute(userFunction)) {
+                throw raise(PythonBuiltinClassType.TypeError, S_ARG_MUST_BE_CALLABLE, "the first");
+            }
+            int maxSize;
+            Object maxSizeInfo = maxSizeObj;
+            if (maxSizeObj == PNone.NONE) {
+                maxSize = -1;
+            } else if (longCheckNode.execute(maxSizeObj)) {
+                // the cache cannot hold more entries than an int anyway, so larger bounds are clamped
+                maxSize = asSizeNode.executeLossy(frame, maxSizeObj);
+                if (maxSize < 0) {
+                    maxSize = 0;
+                    maxSizeInfo = 0;
+                }
+            } else {
+                throw raise(PythonBuiltinClassType.TypeError, MAXSIZE_SHOULD_BE_INTEGER_OR_NONE);
+            }
+            boolean typed = isTrueNode.execute(frame, typedObj);
+            return factory().createLruCacheWrapper(cls, userFunction, maxSize, maxSizeInfo, typed, cacheInfoType);
+        }
+    }
 }
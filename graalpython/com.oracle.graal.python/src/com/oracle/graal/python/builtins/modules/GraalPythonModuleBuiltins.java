@@ -72,11 +72,14 @@ import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.LongHashingStorage;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.StringHashingStorage;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.ErrorAndMessagePair;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.Signature;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.list.PList;
@@ -84,6 +87,7 @@ import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.thread.AbstractPythonLock;
 import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
 import com.oracle.graal.python.lib.PyObjectTypeCheck;
 import com.oracle.graal.python.nodes.ErrorMessages;
@@ -706,6 +710,34 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "get_gil_stats", minNumOfPositionalArgs = 0, doc = "Returns a dict with statistics about GIL switching and contention.")
+    @GenerateNodeFactory
+    public abstract static class GetGilStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PDict doIt() {
+            long[] stats = getContext().getGilStatistics();
+            return factory().createDict(new PKeyword[]{
+                            new PKeyword("switch_requests", stats[0]),
+                            new PKeyword("handoffs", stats[1]),
+                            new PKeyword("contended_acquires", stats[2]),
+                            new PKeyword("wait_time_ns", stats[3])
+            });
+        }
+    }
+
+    @Builtin(name = "get_lock_stats", minNumOfPositionalArgs = 1, doc = "Returns a dict with acquire and contention statistics of the given lock.")
+    @GenerateNodeFactory
+    public abstract static class GetLockStatsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDict doIt(AbstractPythonLock lock) {
+            return factory().createDict(new PKeyword[]{
+                            new PKeyword("acquires", lock.getAcquireCount()),
+                            new PKeyword("contended_acquires", lock.getContendedAcquireCount()),
+                            new PKeyword("wait_time_ns", lock.getWaitTimeNanos())
+            });
+        }
+    }
+
     // Internal builtin used for testing: changes strategy of newly allocated set or map
     @Builtin(name = "set_storage_strategy", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
@@ -734,6 +766,10 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
                     return new DynamicObjectStorage(lang);
                 case "economicmap":
                     return EconomicMapStorage.create();
+                case "long":
+                    return new LongHashingStorage();
+                case "string":
+                    return new StringHashingStorage();
                 default:
                     throw raise(PythonBuiltinClassType.ValueError, "Unknown storage strategy name");
             }
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemScalarNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.SetItemDynamicNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.SetItemScalarNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.str.StringUtils;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.builtins.ListNodes.AppendNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Java implementation of CPython's {@code _heapq} module. Heaps backed by int, long or double
+ * storages are sifted directly on the primitive arrays; all other heaps go through the generic
+ * storage nodes and Python comparison, with a shortcut for pairs of strings.
+ */
+@CoreFunctions(defineModule = "_heapq")
+public class HeapqModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HeapqModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Restores the heap invariant at {@code pos}. With {@code up == false}, the item is moved
+     * towards the root (CPython's {@code _siftdown(heap, 0, pos)}), otherwise the smaller child is
+     * moved up until a leaf is reached and the item is then moved back towards {@code pos}
+     * (CPython's {@code _siftup(heap, pos)}). {@code max} reverses all comparisons.
+     */
+    abstract static class SiftNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean up, boolean max);
+
+        @Specialization
+        static void doInt(@SuppressWarnings("unused") PList heap, IntSequenceStorage storage, int pos, boolean up, boolean max) {
+            int[] array = storage.getInternalIntArray();
+            if (up) {
+                siftUp(array, storage.length(), pos, max);
+            } else {
+                siftDown(array, 0, pos, max);
+            }
+        }
+
+        @Specialization
+        static void doLong(@SuppressWarnings("unused") PList heap, LongSequenceStorage storage, int pos, boolean up, boolean max) {
+            long[] array = storage.getInternalLongArray();
+            if (up) {
+                siftUp(array, storage.length(), pos, max);
+            } else {
+                siftDown(array, 0, pos, max);
+            }
+        }
+
+        @Specialization
+        static void doDouble(@SuppressWarnings("unused") PList heap, DoubleSequenceStorage storage, int pos, boolean up, boolean max) {
+            double[] array = storage.getInternalDoubleArray();
+            if (up) {
+                siftUp(array, storage.length(), pos, max);
+            } else {
+                siftDown(array, 0, pos, max);
+            }
+        }
+
+        @Fallback
+        void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean up, boolean max,
+                        @Cached GetItemScalarNode getItemNode,
+                        @Cached SetItemScalarNode setItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            if (up) {
+                siftUpGeneric(frame, heap, storage, pos, max, getItemNode, setItemNode, ltNode);
+            } else {
+                siftDownGeneric(frame, heap, storage, 0, pos, max, getItemNode, setItemNode, ltNode);
+            }
+        }
+
+        private static void siftDown(int[] array, int startPos, int pos, boolean max) {
+            int newItem = array[pos];
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                int parent = array[parentPos];
+                if (!(max ? parent < newItem : newItem < parent)) {
+                    break;
+                }
+                array[pos] = parent;
+                pos = parentPos;
+            }
+            array[pos] = newItem;
+        }
+
+        private static void siftUp(int[] array, int endPos, int startPos, boolean max) {
+            int newItem = array[startPos];
+            int limit = endPos >> 1;
+            int pos = startPos;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                int rightPos = childPos + 1;
+                if (rightPos < endPos && !(max ? array[rightPos] < array[childPos] : array[childPos] < array[rightPos])) {
+                    childPos = rightPos;
+                }
+                array[pos] = array[childPos];
+                pos = childPos;
+            }
+            array[pos] = newItem;
+            siftDown(array, startPos, pos, max);
+        }
+
+        private static void siftDown(long[] array, int startPos, int pos, boolean max) {
+            long newItem = array[pos];
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                long parent = array[parentPos];
+                if (!(max ? parent < newItem : newItem < parent)) {
+                    break;
+                }
+                array[pos] = parent;
+                pos = parentPos;
+            }
+            array[pos] = newItem;
+        }
+
+        private static void siftUp(long[] array, int endPos, int startPos, boolean max) {
+            long newItem = array[startPos];
+            int limit = endPos >> 1;
+            int pos = startPos;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                int rightPos = childPos + 1;
+                if (rightPos < endPos && !(max ? array[rightPos] < array[childPos] : array[childPos] < array[rightPos])) {
+                    childPos = rightPos;
+                }
+                array[pos] = array[childPos];
+                pos = childPos;
+            }
+            array[pos] = newItem;
+            siftDown(array, startPos, pos, max);
+        }
+
+        private static void siftDown(double[] array, int startPos, int pos, boolean max) {
+            double newItem = array[pos];
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                double parent = array[parentPos];
+                if (!(max ? parent < newItem : newItem < parent)) {
+                    break;
+                }
+                array[pos] = parent;
+                pos = parentPos;
+            }
+            array[pos] = newItem;
+        }
+
+        private static void siftUp(double[] array, int endPos, int startPos, boolean max) {
+            double newItem = array[startPos];
+            int limit = endPos >> 1;
+            int pos = startPos;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                int rightPos = childPos + 1;
+                if (rightPos < endPos && !(max ? array[rightPos] < array[childPos] : array[childPos] < array[rightPos])) {
+                    childPos = rightPos;
+                }
+                array[pos] = array[childPos];
+                pos = childPos;
+            }
+            array[pos] = newItem;
+            siftDown(array, startPos, pos, max);
+        }
+
+        /*
+         * The generic variants swap items instead of moving a hole through the heap, and re-read
+         * them after every comparison, because a rich comparison may run arbitrary code that
+         * mutates the heap. Like CPython, we give up if that changes the size of the list.
+         */
+        private void siftDownGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int startPos, int pos, boolean max,
+                        GetItemScalarNode getItemNode, SetItemScalarNode setItemNode, PyObjectRichCompareBool.LtNode ltNode) {
+            int size = storage.length();
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                Object newItem = getItemNode.execute(storage, pos);
+                Object parent = getItemNode.execute(storage, parentPos);
+                boolean lt = max ? lessThan(frame, parent, newItem, ltNode) : lessThan(frame, newItem, parent, ltNode);
+                checkUnchanged(heap, storage, size);
+                if (!lt) {
+                    break;
+                }
+                parent = getItemNode.execute(storage, parentPos);
+                newItem = getItemNode.execute(storage, pos);
+                setItemNode.execute(storage, parentPos, newItem);
+                setItemNode.execute(storage, pos, parent);
+                pos = parentPos;
+            }
+        }
+
+        private void siftUpGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int startPos, boolean max,
+                        GetItemScalarNode getItemNode, SetItemScalarNode setItemNode, PyObjectRichCompareBool.LtNode ltNode) {
+            int endPos = storage.length();
+            int limit = endPos >> 1;
+            int pos = startPos;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                if (childPos + 1 < endPos) {
+                    Object left = getItemNode.execute(storage, childPos);
+                    Object right = getItemNode.execute(storage, childPos + 1);
+                    boolean lt = max ? lessThan(frame, right, left, ltNode) : lessThan(frame, left, right, ltNode);
+                    checkUnchanged(heap, storage, endPos);
+                    if (!lt) {
+                        childPos++;
+                    }
+                }
+                Object child = getItemNode.execute(storage, childPos);
+                Object item = getItemNode.execute(storage, pos);
+                setItemNode.execute(storage, childPos, item);
+                setItemNode.execute(storage, pos, child);
+                pos = childPos;
+            }
+            siftDownGeneric(frame, heap, storage, startPos, pos, max, getItemNode, setItemNode, ltNode);
+        }
+
+        private void checkUnchanged(PList heap, SequenceStorage storage, int size) {
+            if (heap.getSequenceStorage() != storage || storage.length() != size) {
+                throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+            }
+        }
+    }
+
+    static boolean lessThan(VirtualFrame frame, Object a, Object b, PyObjectRichCompareBool.LtNode ltNode) {
+        if (a instanceof String && b instanceof String) {
+            return StringUtils.compareToUnicodeAware((String) a, (String) b) < 0;
+        }
+        return ltNode.execute(frame, a, b);
+    }
+
+    @Builtin(name = "heappush", minNumOfPositionalArgs = 2, doc = "Push item onto heap, maintaining the heap invariant.")
+    @GenerateNodeFactory
+    abstract static class HeapPushNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone push(VirtualFrame frame, PList heap, Object item,
+                        @Cached AppendNode appendNode,
+                        @Cached SiftNode siftNode) {
+            appendNode.execute(heap, item);
+            SequenceStorage storage = heap.getSequenceStorage();
+            siftNode.execute(frame, heap, storage, storage.length() - 1, false, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object notList(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    abstract static class HeapPopBaseNode extends PythonUnaryBuiltinNode {
+        protected boolean isMax() {
+            return false;
+        }
+
+        @Specialization
+        Object pop(VirtualFrame frame, PList heap,
+                        @Cached GetItemScalarNode getItemNode,
+                        @Cached SetItemScalarNode setItemNode,
+                        @Cached SiftNode siftNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int len = storage.length();
+            if (len == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object lastItem = getItemNode.execute(storage, len - 1);
+            storage.setNewLength(len - 1);
+            if (len == 1) {
+                return lastItem;
+            }
+            Object result = getItemNode.execute(storage, 0);
+            setItemNode.execute(storage, 0, lastItem);
+            siftNode.execute(frame, heap, storage, 0, true, isMax());
+            return result;
+        }
+
+        @Fallback
+        Object notList(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappop", minNumOfPositionalArgs = 1, doc = "Pop the smallest item off the heap, maintaining the heap invariant.")
+    @GenerateNodeFactory
+    abstract static class HeapPopNode extends HeapPopBaseNode {
+    }
+
+    @Builtin(name = "_heappop_max", minNumOfPositionalArgs = 1, doc = "Maxheap variant of heappop.")
+    @GenerateNodeFactory
+    abstract static class HeapPopMaxNode extends HeapPopBaseNode {
+        @Override
+        protected boolean isMax() {
+            return true;
+        }
+    }
+
+    abstract static class HeapReplaceBaseNode extends PythonBinaryBuiltinNode {
+        protected boolean isMax() {
+            return false;
+        }
+
+        @Specialization
+        Object replace(VirtualFrame frame, PList heap, Object item,
+                        @Cached GetItemScalarNode getItemNode,
+                        @Cached SetItemDynamicNode setItemNode,
+                        @Cached SiftNode siftNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object result = getItemNode.execute(storage, 0);
+            storage = setItemNode.execute(frame, ListGeneralizationNode.SUPPLIER, storage, 0, item);
+            heap.setSequenceStorage(storage);
+            siftNode.execute(frame, heap, storage, 0, true, isMax());
+            return result;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object notList(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapreplace", minNumOfPositionalArgs = 2, doc = "Pop and return the current smallest value, and add the new item.")
+    @GenerateNodeFactory
+    abstract static class HeapReplaceNode extends HeapReplaceBaseNode {
+    }
+
+    @Builtin(name = "_heapreplace_max", minNumOfPositionalArgs = 2, doc = "Maxheap variant of heapreplace.")
+    @GenerateNodeFactory
+    abstract static class HeapReplaceMaxNode extends HeapReplaceBaseNode {
+        @Override
+        protected boolean isMax() {
+            return true;
+        }
+    }
+
+    @Builtin(name = "heappushpop", minNumOfPositionalArgs = 2, doc = "Push item on the heap, then pop and return the smallest item from the heap.")
+    @GenerateNodeFactory
+    abstract static class HeapPushPopNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object pushPop(VirtualFrame frame, PList heap, Object item,
+                        @Cached GetItemScalarNode getItemNode,
+                        @Cached SetItemDynamicNode setItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode,
+                        @Cached SiftNode siftNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                return item;
+            }
+            if (!lessThan(frame, getItemNode.execute(storage, 0), item, ltNode)) {
+                return item;
+            }
+            storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object result = getItemNode.execute(storage, 0);
+            storage = setItemNode.execute(frame, ListGeneralizationNode.SUPPLIER, storage, 0, item);
+            heap.setSequenceStorage(storage);
+            siftNode.execute(frame, heap, storage, 0, true, false);
+            return result;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object notList(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    abstract static class HeapifyBaseNode extends PythonUnaryBuiltinNode {
+        protected boolean isMax() {
+            return false;
+        }
+
+        @Specialization
+        PNone heapify(VirtualFrame frame, PList heap,
+                        @Cached SiftNode siftNode) {
+            for (int i = (heap.getSequenceStorage().length() >> 1) - 1; i >= 0; i--) {
+                siftNode.execute(frame, heap, heap.getSequenceStorage(), i, true, isMax());
+            }
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object notList(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapify", minNumOfPositionalArgs = 1, doc = "Transform list into a heap, in-place, in O(len(heap)) time.")
+    @GenerateNodeFactory
+    abstract static class HeapifyNode extends HeapifyBaseNode {
+    }
+
+    @Builtin(name = "_heapify_max", minNumOfPositionalArgs = 1, doc = "Maxheap variant of heapify.")
+    @GenerateNodeFactory
+    abstract static class HeapifyMaxNode extends HeapifyBaseNode {
+        @Override
+        protected boolean isMax() {
+            return true;
+        }
+    }
+}
@@ -49,6 +49,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.graalvm.nativeimage.ImageInfo;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.Python3Core;
@@ -57,7 +59,6 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
-import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.ExecModuleNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper;
 import com.oracle.graal.python.builtins.objects.cext.capi.ExternalFunctionNodesFactory.DefaultCheckFunctionResultNodeGen;
@@ -72,7 +73,6 @@ import com.oracle.graal.python.builtins.objects.cext.hpy.HPyExternalFunctionNode
 import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.ints.IntBuiltins;
-import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.str.PString;
@@ -82,6 +82,8 @@ import com.oracle.graal.python.nodes.attributes.SetAttributeNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.parser.sst.SerializationUtils;
 import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
@@ -378,30 +380,103 @@ public class ImpModuleBuiltins extends PythonBuiltins {
         }
     }
 
-    @Builtin(name = "source_hash", minNumOfPositionalArgs = 2)
+    @Builtin(name = "source_hash", minNumOfPositionalArgs = 2, parameterNames = {"key", "source"})
+    @ArgumentClinic(name = "key", conversion = ClinicConversion.Long)
+    @ArgumentClinic(name = "source", conversion = ClinicConversion.ReadableBuffer)
     @GenerateNodeFactory
-    public abstract static class SourceHashNode extends PythonBinaryBuiltinNode {
-        @Specialization
-        @TruffleBoundary
-        PBytes run(long magicNumber, PBytesLike source) {
-            byte[] hash = new byte[Long.BYTES];
-            long hashCode = magicNumber ^ source.hashCode();
-            for (int i = 0; i < hash.length; i++) {
-                hash[i] = (byte) (hashCode << (8 * i));
+    public abstract static class SourceHashNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PBytes run(VirtualFrame frame, long key, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib) {
+            try {
+                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                int len = bufferLib.getBufferLength(buffer);
+                return factory().createBytes(hashToBytes(sipHash24(key, 0, bytes, len)));
+            } finally {
+                bufferLib.release(buffer, frame, this);
             }
-            return factory().createBytes(hash);
         }
 
-        @Specialization
-        @TruffleBoundary
-        PBytes run(PInt magicNumber, PBytesLike source) {
-            return run(magicNumber.longValue(), source);
+        private static byte[] hashToBytes(long hash) {
+            // CPython stores the hash in native byte order, which is little endian on all
+            // platforms we support
+            byte[] result = new byte[Long.BYTES];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (byte) (hash >>> (8 * i));
+            }
+            return result;
         }
 
-        @Specialization
+        /**
+         * The keyed SipHash-2-4 that CPython uses for {@code _Py_KeyedHash}, so that hash-based pyc
+         * files are stable across processes and compatible with what {@code py_compile} writes.
+         */
         @TruffleBoundary
-        PBytes run(int magicNumber, PBytesLike source) {
-            return run((long) magicNumber, source);
+        static long sipHash24(long k0, long k1, byte[] src, int len) {
+            long v0 = k0 ^ 0x736f6d6570736575L;
+            long v1 = k1 ^ 0x646f72616e646f6dL;
+            long v2 = k0 ^ 0x6c7967656e657261L;
+            long v3 = k1 ^ 0x7465646279746573L;
+            int i = 0;
+            for (; i + Long.BYTES <= len; i += Long.BYTES) {
+                long m = readLongLE(src, i, Long.BYTES);
+                v3 ^= m;
+                for (int r = 0; r < 2; r++) {
+                    v0 += v1;
+                    v1 = Long.rotateLeft(v1, 13) ^ v0;
+                    v0 = Long.rotateLeft(v0, 32);
+                    v2 += v3;
+                    v3 = Long.rotateLeft(v3, 16) ^ v2;
+                    v0 += v3;
+                    v3 = Long.rotateLeft(v3, 21) ^ v0;
+                    v2 += v1;
+                    v1 = Long.rotateLeft(v1, 17) ^ v2;
+                    v2 = Long.rotateLeft(v2, 32);
+                }
+                v0 ^= m;
+            }
+            long b = ((long) len) << 56 | readLongLE(src, i, len - i);
+            v3 ^= b;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1;
+                v1 = Long.rotateLeft(v1, 13) ^ v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3;
+                v3 = Long.rotateLeft(v3, 16) ^ v2;
+                v0 += v3;
+                v3 = Long.rotateLeft(v3, 21) ^ v0;
+                v2 += v1;
+                v1 = Long.rotateLeft(v1, 17) ^ v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= b;
+            v2 ^= 0xff;
+            for (int r = 0; r < 4; r++) {
+                v0 += v1;
+                v1 = Long.rotateLeft(v1, 13) ^ v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3;
+                v3 = Long.rotateLeft(v3, 16) ^ v2;
+                v0 += v3;
+                v3 = Long.rotateLeft(v3, 21) ^ v0;
+                v2 += v1;
+                v1 = Long.rotateLeft(v1, 17) ^ v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            return v0 ^ v1 ^ v2 ^ v3;
+        }
+
+        private static long readLongLE(byte[] src, int offset, int count) {
+            long result = 0;
+            for (int i = 0; i < count; i++) {
+                result |= (src[offset + i] & 0xffL) << (8 * i);
+            }
+            return result;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ImpModuleBuiltinsClinicProviders.SourceHashNodeClinicProviderGen.INSTANCE;
         }
     }
 
@@ -41,8 +41,8 @@
 package com.oracle.graal.python.builtins.modules;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -52,29 +52,32 @@ import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
-import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.StructSequence;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.WriteUnraisableNode;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.instrumentation.PythonTraceInstrument;
+import com.oracle.graal.python.nodes.instrumentation.PythonTraceInstrument.ProfileListener;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import com.oracle.truffle.api.InstrumentInfo;
-import com.oracle.truffle.api.TruffleContext;
-import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.object.Shape;
-import com.oracle.truffle.api.source.SourceSection;
-import com.oracle.truffle.tools.profiler.CPUSampler;
-import com.oracle.truffle.tools.profiler.CPUSampler.Payload;
-import com.oracle.truffle.tools.profiler.CPUSamplerData;
-import com.oracle.truffle.tools.profiler.ProfilerNode;
-import com.oracle.truffle.tools.profiler.impl.CPUSamplerInstrument;
 
 @CoreFunctions(defineModule = "_lsprof")
 public class LsprofModuleBuiltins extends PythonBuiltins {
@@ -130,35 +133,134 @@ public class LsprofModuleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class LsprofNew extends PythonBuiltinNode {
         @Specialization
-        @TruffleBoundary
         Profiler doit(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
-            Env env = getContext().getEnv();
-            Map<String, InstrumentInfo> instruments = env.getInstruments();
-            InstrumentInfo instrumentInfo = instruments.get(CPUSamplerInstrument.ID);
-            if (instrumentInfo != null) {
-                CPUSampler sampler = env.lookup(instrumentInfo, CPUSampler.class);
-                if (sampler != null) {
-                    return factory().trace(new Profiler(cls, factory().getShape(cls), sampler));
-                }
-            }
-            throw raise(PythonBuiltinClassType.NotImplementedError, "coverage tracker not available");
+            return factory().trace(new Profiler(cls, factory().getShape(cls)));
         }
     }
 }
 
-class Profiler extends PythonBuiltinObject {
-    boolean subcalls;
-    boolean builtins;
+/**
+ * A deterministic profiler like CPython's {@code _lsprof.Profiler}. It is installed as the profile
+ * function of the enabling thread and measures the time between the 'call' and 'return' events of
+ * each Python function.
+ */
+final class Profiler extends PythonBuiltinObject implements ProfileListener {
+    boolean subcalls = true;
+    boolean builtins = true;
     double timeunit;
     Object externalTimer;
-    double time;
-    final CPUSampler sampler;
+    boolean enabled;
+
+    final Map<RootNode, ProfilerEntry> entries = new LinkedHashMap<>();
+    ProfilerContext currentContext;
+
+    static final class ProfilerEntry {
+        final RootNode root;
+        long totalTime;
+        long inlineTime;
+        long callCount;
+        long recursiveCallCount;
+        int recursionLevel;
+        // the callees of this entry, only recorded with 'subcalls'
+        final Map<RootNode, ProfilerEntry> calls = new LinkedHashMap<>();
+
+        ProfilerEntry(RootNode root) {
+            this.root = root;
+        }
+
+        void stop(long tt, long it) {
+            if (--recursionLevel == 0) {
+                totalTime += tt;
+            } else {
+                recursiveCallCount++;
+            }
+            inlineTime += it;
+            callCount++;
+        }
+    }
+
+    static final class ProfilerContext {
+        final ProfilerEntry entry;
+        final ProfilerContext previous;
+        long t0;
+        long subt;
 
-    public Profiler(Object cls, Shape instanceShape, CPUSampler sampler) {
+        ProfilerContext(ProfilerEntry entry, ProfilerContext previous) {
+            this.entry = entry;
+            this.previous = previous;
+        }
+    }
+
+    Profiler(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
-        this.sampler = sampler;
-        this.sampler.setFilter(SourceSectionFilter.newBuilder().includeInternal(true).build());
-        this.sampler.setPeriod(1);
+    }
+
+    @Override
+    public void onCall(RootNode root) {
+        ProfilerEntry entry = entries.computeIfAbsent(root, ProfilerEntry::new);
+        ProfilerContext context = new ProfilerContext(entry, currentContext);
+        currentContext = context;
+        entry.recursionLevel++;
+        if (subcalls && context.previous != null) {
+            context.previous.entry.calls.computeIfAbsent(root, ProfilerEntry::new).recursionLevel++;
+        }
+        context.t0 = getTime();
+    }
+
+    @Override
+    public void onReturn(RootNode root) {
+        // returns from frames that were entered before the profiler was enabled are ignored
+        if (currentContext != null) {
+            stop(currentContext);
+        }
+    }
+
+    private void stop(ProfilerContext context) {
+        long tt = getTime() - context.t0;
+        long it = tt - context.subt;
+        if (context.previous != null) {
+            context.previous.subt += tt;
+        }
+        currentContext = context.previous;
+        context.entry.stop(tt, it);
+        if (subcalls && context.previous != null) {
+            ProfilerEntry subentry = context.previous.entry.calls.get(context.entry.root);
+            if (subentry != null) {
+                subentry.stop(tt, it);
+            }
+        }
+    }
+
+    void flushUnmatched() {
+        while (currentContext != null) {
+            stop(currentContext);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        currentContext = null;
+    }
+
+    /**
+     * The time unit of the internal timestamps in seconds. Like in CPython, timers returning
+     * floats are converted to nanoseconds.
+     */
+    double getFactor() {
+        return externalTimer != null && timeunit > 0.0 ? timeunit : 1e-9;
+    }
+
+    private long getTime() {
+        if (externalTimer == null) {
+            return System.nanoTime();
+        }
+        try {
+            double time = PyFloatAsDoubleNode.getUncached().execute(null, CallNode.getUncached().execute(externalTimer));
+            return timeunit > 0.0 ? (long) time : (long) (time * 1e9);
+        } catch (PException e) {
+            WriteUnraisableNode.getUncached().execute(e.getEscapedException(), "in profiler timer", externalTimer);
+            return 0;
+        }
     }
 }
 
@@ -173,21 +275,13 @@ class ProfilerBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class Init extends PythonBuiltinNode {
         @Specialization
-        PNone doit(Profiler self, Object timer, double timeunit, long subcalls, long builtins) {
-            self.subcalls = subcalls > 0;
-            self.builtins = builtins > 0;
-            self.timeunit = timeunit;
-            self.externalTimer = timer;
-            return PNone.NONE;
-        }
-
-        @Specialization
-        @SuppressWarnings("unused")
-        PNone doit(Profiler self, Object timer, PNone timeunit, PNone subcalls, PNone builtins) {
-            self.subcalls = true;
-            self.builtins = true;
-            self.timeunit = -1;
-            self.externalTimer = timer;
+        static PNone doit(VirtualFrame frame, Profiler self, Object timer, Object timeunit, Object subcalls, Object builtins,
+                        @Cached PyFloatAsDoubleNode asDoubleNode,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            self.externalTimer = PGuards.isPNone(timer) ? null : timer;
+            self.timeunit = PGuards.isNoValue(timeunit) ? 0.0 : asDoubleNode.execute(frame, timeunit);
+            self.subcalls = PGuards.isNoValue(subcalls) || isTrueNode.execute(frame, subcalls);
+            self.builtins = PGuards.isNoValue(builtins) || isTrueNode.execute(frame, builtins);
             return PNone.NONE;
         }
     }
@@ -196,42 +290,39 @@ class ProfilerBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class Enable extends PythonBuiltinNode {
         @Specialization
-        @TruffleBoundary
-        PNone doit(Profiler self, long subcalls, long builtins) {
-            self.subcalls = subcalls > 0;
-            self.builtins = builtins > 0;
-            // TODO: deal with any arguments
-            self.time = System.currentTimeMillis();
-            self.sampler.setCollecting(true);
+        PNone doit(VirtualFrame frame, Profiler self, Object subcalls, Object builtins,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            if (!PGuards.isNoValue(subcalls)) {
+                self.subcalls = isTrueNode.execute(frame, subcalls);
+            }
+            if (!PGuards.isNoValue(builtins)) {
+                self.builtins = isTrueNode.execute(frame, builtins);
+            }
+            PythonContext context = getContext();
+            PythonTraceInstrument.setProfileFunction(context, context.getThreadState(getLanguage()), self);
+            self.enabled = true;
             return PNone.NONE;
         }
-
-        @Specialization
-        PNone doit(Profiler self, long subcalls, @SuppressWarnings("unused") PNone builtins) {
-            return doit(self, subcalls, self.builtins ? 1 : 0);
-        }
-
-        @Specialization
-        PNone doit(Profiler self, @SuppressWarnings("unused") PNone subcalls, long builtins) {
-            return doit(self, self.subcalls ? 1 : 0, builtins);
-        }
-
-        @Specialization
-        PNone doit(Profiler self, @SuppressWarnings("unused") PNone subcalls, @SuppressWarnings("unused") PNone builtins) {
-            return doit(self, self.subcalls ? 1 : 0, self.builtins ? 1 : 0);
-        }
     }
 
     @Builtin(name = "disable", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     abstract static class Disable extends PythonBuiltinNode {
         @Specialization
-        @TruffleBoundary
         PNone doit(Profiler self) {
-            self.sampler.setCollecting(false);
-            self.time = (System.currentTimeMillis() - self.time) / 1000D;
+            if (self.enabled) {
+                self.enabled = false;
+                PythonContext context = getContext();
+                PythonTraceInstrument.setProfileFunction(context, context.getThreadState(getLanguage()), null);
+                flushUnmatched(self);
+            }
             return PNone.NONE;
         }
+
+        @TruffleBoundary
+        private static void flushUnmatched(Profiler self) {
+            self.flushUnmatched();
+        }
     }
 
     @Builtin(name = "clear", minNumOfPositionalArgs = 1)
@@ -239,8 +330,8 @@ class ProfilerBuiltins extends PythonBuiltins {
     abstract static class Clear extends PythonBuiltinNode {
         @Specialization
         @TruffleBoundary
-        PNone doit(Profiler self) {
-            self.sampler.clearData();
+        static PNone doit(Profiler self) {
+            self.clear();
             return PNone.NONE;
         }
     }
@@ -272,59 +363,29 @@ class ProfilerBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PList doit(Profiler self) {
-            double avgSampleSeconds = self.sampler.getPeriod() / 1000D;
-            List<PTuple> entries = new ArrayList<>();
-            Map<TruffleContext, CPUSamplerData> data = self.sampler.getData();
-            for (TruffleContext context : data.keySet()) {
-                Map<Thread, Collection<ProfilerNode<Payload>>> threads = data.get(context).getThreadData();
-                for (Thread thread : threads.keySet()) {
-                    for (ProfilerNode<Payload> node : threads.get(thread)) {
-                        countNode(entries, node, avgSampleSeconds);
+            double factor = self.getFactor();
+            // subentries must refer to the same code objects as the entries
+            Map<RootNode, PCode> codes = new HashMap<>();
+            List<Object> entries = new ArrayList<>(self.entries.size());
+            for (Profiler.ProfilerEntry entry : self.entries.values()) {
+                Object calls = PNone.NONE;
+                if (self.subcalls) {
+                    Object[] subentries = new Object[entry.calls.size()];
+                    int i = 0;
+                    for (Profiler.ProfilerEntry subentry : entry.calls.values()) {
+                        subentries[i++] = factory().createStructSeq(LsprofModuleBuiltins.PROFILER_SUBENTRY_DESC, getCode(codes, subentry.root), subentry.callCount,
+                                        subentry.recursiveCallCount, subentry.totalTime * factor, subentry.inlineTime * factor);
                     }
+                    calls = factory().createList(subentries);
                 }
+                entries.add(factory().createStructSeq(LsprofModuleBuiltins.PROFILER_ENTRY_DESC, getCode(codes, entry.root), entry.callCount, entry.recursiveCallCount,
+                                entry.totalTime * factor, entry.inlineTime * factor, calls));
             }
-
-            self.sampler.close();
             return factory().createList(entries.toArray());
         }
 
-        private void countNode(List<PTuple> entries, ProfilerNode<Payload> node, double avgSampleTime) {
-            Collection<ProfilerNode<Payload>> children = node.getChildren();
-            Object[] profilerEntry = getProfilerEntry(node, avgSampleTime);
-            Object[] calls = new Object[children.size()];
-            int callIdx = 0;
-            for (ProfilerNode<Payload> childNode : children) {
-                countNode(entries, childNode, avgSampleTime);
-                calls[callIdx++] = factory().createStructSeq(LsprofModuleBuiltins.PROFILER_SUBENTRY_DESC, getProfilerEntry(childNode, avgSampleTime));
-            }
-            assert callIdx == calls.length;
-            profilerEntry = Arrays.copyOf(profilerEntry, 6);
-            profilerEntry[profilerEntry.length - 1] = factory().createList(calls);
-            entries.add(factory().createStructSeq(LsprofModuleBuiltins.PROFILER_ENTRY_DESC, profilerEntry));
-        }
-
-        private static Object[] getProfilerEntry(ProfilerNode<Payload> node, double avgSampleTime) {
-            SourceSection sec = node.getSourceSection();
-            String rootName;
-            if (sec == null) {
-                rootName = node.getRootName();
-            } else {
-                rootName = sec.getSource().getName() + ":" + sec.getStartLine() + "(" + node.getRootName() + ")";
-            }
-            if (rootName == null) {
-                rootName = "<unknown root>";
-            }
-            int otherHitCount = node.getPayload().getHitCount();
-            int selfHitCount = node.getPayload().getSelfHitCount();
-            long hitCount = (long) otherHitCount + selfHitCount;
-            Object[] profilerEntry = new Object[]{
-                            rootName,
-                            hitCount,
-                            0,
-                            otherHitCount * avgSampleTime,
-                            selfHitCount * avgSampleTime
-            };
-            return profilerEntry;
+        private PCode getCode(Map<RootNode, PCode> codes, RootNode root) {
+            return codes.computeIfAbsent(root, r -> factory().createCode(PythonUtils.getOrCreateCallTarget(r)));
         }
     }
 }
@@ -59,6 +59,7 @@ import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrar
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes.LenNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemNode;
@@ -81,8 +82,10 @@ import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
 import com.oracle.graal.python.lib.PyObjectSizeNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.expression.BinaryOpNode;
@@ -90,6 +93,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
@@ -645,6 +649,247 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * The segments of a scatter-gather operation over a sequence of Python buffers, in the form
+     * expected by {@link PosixSupportLibrary}. Buffers whose contents are a region of a byte array
+     * are accessed directly. With the native backend, contiguous buffers in native memory (mmaps
+     * and memoryviews of them or of native buffers) are passed by address. Any other buffers go
+     * through a temporary array.
+     */
+    public static final class BufferSegments {
+        private final Object[] buffers;
+        private final boolean[] copied;
+        public final byte[][] arrays;
+        public final int[] offsets;
+        public final int[] lengths;
+        /* the address of each segment in native memory, null if there is no such segment */
+        public long[] addresses;
+
+        private BufferSegments(int count) {
+            buffers = new Object[count];
+            copied = new boolean[count];
+            arrays = new byte[count][];
+            offsets = new int[count];
+            lengths = new int[count];
+        }
+
+        /**
+         * Acquires all buffers in {@code objects}. Must be paired with
+         * {@link #release(VirtualFrame, PNodeWithRaiseAndIndirectCall, PythonBufferAccessLibrary)}.
+         */
+        public static BufferSegments acquire(VirtualFrame frame, PNodeWithRaiseAndIndirectCall node, Object[] objects, boolean writable, PythonBufferAcquireLibrary acquireLib,
+                        PythonBufferAccessLibrary bufferLib, PosixSupportLibrary posixLib, Object posixSupport) {
+            BufferSegments segments = new BufferSegments(objects.length);
+            boolean nativeBackend = "native".equals(posixLib.getBackend(posixSupport));
+            try {
+                for (int i = 0; i < objects.length; i++) {
+                    Object buffer = writable ? acquireLib.acquireWritable(objects[i], frame, node) : acquireLib.acquireReadonly(objects[i], frame, node);
+                    segments.buffers[i] = buffer;
+                    segments.lengths[i] = bufferLib.getBufferLength(buffer);
+                    if (bufferLib.hasByteArrayRegion(buffer)) {
+                        segments.arrays[i] = bufferLib.getByteArrayRegion(buffer);
+                        segments.offsets[i] = bufferLib.getByteArrayRegionOffset(buffer);
+                    } else if (nativeBackend && bufferLib.hasNativeAddress(buffer)) {
+                        if (segments.addresses == null) {
+                            segments.addresses = new long[objects.length];
+                        }
+                        segments.addresses[i] = bufferLib.getNativeAddress(buffer);
+                    } else {
+                        segments.arrays[i] = writable ? new byte[segments.lengths[i]] : bufferLib.getCopiedByteArray(buffer);
+                        segments.copied[i] = true;
+                    }
+                }
+            } catch (PException e) {
+                segments.release(frame, node, bufferLib);
+                throw e;
+            }
+            return segments;
+        }
+
+        public long getTotalLength() {
+            long total = 0;
+            for (int length : lengths) {
+                total += length;
+            }
+            return total;
+        }
+
+        /**
+         * Copies the first {@code count} bytes that were read into temporary arrays back to the
+         * buffers they stand for.
+         */
+        public void writeBack(long count, PythonBufferAccessLibrary bufferLib) {
+            long remaining = count;
+            for (int i = 0; i < buffers.length && remaining > 0; i++) {
+                int n = (int) Math.min(remaining, lengths[i]);
+                if (copied[i]) {
+                    bufferLib.writeFromByteArray(buffers[i], 0, arrays[i], 0, n);
+                }
+                remaining -= n;
+            }
+        }
+
+        public void release(VirtualFrame frame, PNodeWithRaiseAndIndirectCall node, PythonBufferAccessLibrary bufferLib) {
+            for (Object buffer : buffers) {
+                if (buffer != null) {
+                    bufferLib.release(buffer, frame, node);
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "readv", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class ReadvNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.ReadvNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long readv(VirtualFrame frame, int fd, Object buffers,
+                        @Cached ConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            Object[] objects = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            BufferSegments segments = BufferSegments.acquire(frame, this, objects, true, bufferAcquireLib, bufferLib, posixLib, getPosixSupport());
+            try {
+                long n;
+                gil.release(true);
+                try {
+                    while (true) {
+                        try {
+                            n = posixLib.readv(getPosixSupport(), fd, segments.arrays, segments.offsets, segments.lengths, segments.addresses);
+                            break;
+                        } catch (PosixException e) {
+                            errorProfile.enter();
+                            if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                                PythonContext.triggerAsyncActions(this);
+                            } else {
+                                throw e;
+                            }
+                        }
+                    }
+                } finally {
+                    gil.acquire();
+                }
+                segments.writeBack(n, bufferLib);
+                return n;
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                segments.release(frame, this, bufferLib);
+            }
+        }
+    }
+
+    @Builtin(name = "writev", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class WritevNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.WritevNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long writev(VirtualFrame frame, int fd, Object buffers,
+                        @Cached ConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            Object[] objects = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            BufferSegments segments = BufferSegments.acquire(frame, this, objects, false, bufferAcquireLib, bufferLib, posixLib, getPosixSupport());
+            try {
+                gil.release(true);
+                try {
+                    while (true) {
+                        try {
+                            return posixLib.writev(getPosixSupport(), fd, segments.arrays, segments.offsets, segments.lengths, segments.addresses);
+                        } catch (PosixException e) {
+                            errorProfile.enter();
+                            if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                                PythonContext.triggerAsyncActions(this);
+                            } else {
+                                throw e;
+                            }
+                        }
+                    }
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                segments.release(frame, this, bufferLib);
+            }
+        }
+    }
+
+    @Builtin(name = "sendfile", minNumOfPositionalArgs = 4, parameterNames = {"out_fd", "in_fd", "offset", "count"})
+    @ArgumentClinic(name = "out_fd", conversionClass = FileDescriptorConversionNode.class)
+    @ArgumentClinic(name = "in_fd", conversionClass = FileDescriptorConversionNode.class)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.LongIndex)
+    @GenerateNodeFactory
+    public abstract static class SendfileNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.SendfileNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long sendfile(VirtualFrame frame, int outFd, int inFd, Object offsetObj, long count,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            // None means the current file position of in_fd, which the backends get as -1
+            long offset = -1;
+            if (offsetObj != PNone.NONE) {
+                offset = asLongNode.execute(frame, offsetObj);
+                if (offset < 0) {
+                    int error = OSErrorEnum.EINVAL.getNumber();
+                    throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+                }
+            }
+            try {
+                gil.release(true);
+                try {
+                    while (true) {
+                        try {
+                            return posixLib.sendfile(getPosixSupport(), outFd, inFd, offset, count);
+                        } catch (PosixException e) {
+                            errorProfile.enter();
+                            if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                                PythonContext.triggerAsyncActions(this);
+                            } else {
+                                throw e;
+                            }
+                        }
+                    }
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
     @Builtin(name = "dup", minNumOfPositionalArgs = 1, parameterNames = {"fd"})
     @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
     @GenerateNodeFactory
@@ -40,18 +40,24 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLET;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLIN;
 import static com.oracle.graal.python.runtime.PosixConstants.FD_SETSIZE;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 import static com.oracle.graal.python.util.TimeUtils.SEC_TO_NS;
 
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.select.PEpoll;
+import com.oracle.graal.python.builtins.objects.select.PPoll;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
 import com.oracle.graal.python.lib.PyObjectGetItem;
@@ -62,7 +68,10 @@ import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixConstants;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.ChannelNotSelectableException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
@@ -95,6 +104,77 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         return SelectModuleBuiltinsFactory.getFactories();
     }
 
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        addConstants(PosixConstants.pollEvents);
+        if (EPOLLIN.defined) {
+            addConstants(PosixConstants.epollEvents);
+            addConstant(PosixConstants.EPOLL_CLOEXEC);
+            if (EPOLLET.defined) {
+                // EPOLLET is the sign bit, but the event masks are unsigned
+                builtinConstants.put(EPOLLET.name, EPOLLET.getValueIfDefined() & 0xFFFFFFFFL);
+            }
+        }
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        if (!EPOLLIN.defined) {
+            // the type is published in the module regardless of the platform
+            core.lookupBuiltinModule("select").setAttribute("epoll", PNone.NO_VALUE);
+        }
+    }
+
+    private void addConstants(PosixConstants.IntConstant[] constants) {
+        for (PosixConstants.IntConstant constant : constants) {
+            addConstant(constant);
+        }
+    }
+
+    private void addConstant(PosixConstants.IntConstant constant) {
+        if (constant.defined) {
+            builtinConstants.put(constant.name, constant.getValueIfDefined());
+        }
+    }
+
+    @Builtin(name = "poll", doc = "Returns a polling object, which supports registering and unregistering file descriptors, and then polling them for I/O events.")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBuiltinNode {
+        @Specialization
+        PPoll poll() {
+            return factory().createPoll();
+        }
+    }
+
+    @Builtin(name = "epoll", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "sizehint", "flags"}, constructsClass = PythonBuiltinClassType.PEpoll)
+    @ArgumentClinic(name = "sizehint", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1")
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class EpollNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization
+        PEpoll epoll(VirtualFrame frame, Object cls, int sizehint, @SuppressWarnings("unused") int flags,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (sizehint != -1 && sizehint <= 0) {
+                throw raise(ValueError, ErrorMessages.NEGATIVE_SIZEHINT);
+            }
+            // the flags are ignored like in CPython, the descriptor is always close-on-exec
+            int epfd;
+            try {
+                epfd = posixLib.epollCreate(getPosixSupport());
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return factory().createEpoll(cls, getContext(), epfd);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SelectModuleBuiltinsClinicProviders.EpollNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
     @Builtin(name = "select", minNumOfPositionalArgs = 3, parameterNames = {"rlist", "wlist", "xlist", "timeout"})
     @GenerateNodeFactory
     abstract static class SelectNode extends PythonBuiltinNode {
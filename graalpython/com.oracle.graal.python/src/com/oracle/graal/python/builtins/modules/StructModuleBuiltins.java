@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes.GetStructFormatNode;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes.StructIterUnpackNode;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes.StructPackIntoNode;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes.StructPackNode;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes.StructUnpackFromNode;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes.StructUnpackNode;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Java implementation of CPython's {@code _struct} module. Format strings are compiled to
+ * {@link StructFormat} objects that are cached both globally and in the AST of the calling nodes.
+ */
+@CoreFunctions(defineModule = "_struct")
+public class StructModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StructModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        builtinConstants.put("error", core.lookupType(PythonBuiltinClassType.StructError));
+        super.initialize(core);
+    }
+
+    @Builtin(name = "Struct", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "format"}, constructsClass = PythonBuiltinClassType.PStruct, //
+                    doc = "Struct(format)\n--\n\n" +
+                                    "Create a compiled struct object.\n\n" +
+                                    "Return a new Struct object which writes and reads binary data according to\n" +
+                                    "the format string.\n\n" +
+                                    "See help(struct) for more on format strings.")
+    @GenerateNodeFactory
+    abstract static class ConstructStructNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PStruct construct(Object cls, Object format,
+                        @Cached GetStructFormatNode getStructFormatNode) {
+            return factory().createStruct(cls, getStructFormatNode.execute(format));
+        }
+    }
+
+    @Builtin(name = "pack", minNumOfPositionalArgs = 1, takesVarArgs = true, //
+                    doc = "pack(format, v1, v2, ...) -> bytes\n\n" +
+                                    "Return a bytes object containing the values v1, v2, ... packed according\n" +
+                                    "to the format string.  See help(struct) for more on format strings.")
+    @GenerateNodeFactory
+    abstract static class PackNode extends PythonBuiltinNode {
+        @Specialization
+        static PBytes pack(VirtualFrame frame, Object format, Object[] args,
+                        @Cached GetStructFormatNode getStructFormatNode,
+                        @Cached StructPackNode packNode) {
+            return packNode.execute(frame, getStructFormatNode.execute(format), args);
+        }
+    }
+
+    @Builtin(name = "pack_into", minNumOfPositionalArgs = 3, takesVarArgs = true, //
+                    doc = "pack_into(format, buffer, offset, v1, v2, ...)\n\n" +
+                                    "Pack the values v1, v2, ... according to the format string and write\n" +
+                                    "the packed bytes into the writable buffer buf starting at offset.  Note\n" +
+                                    "that the offset is a required argument.  See help(struct) for more\n" +
+                                    "on format strings.")
+    @GenerateNodeFactory
+    abstract static class PackIntoNode extends PythonBuiltinNode {
+        @Specialization(limit = "3")
+        Object packInto(VirtualFrame frame, Object format, Object buffer, Object offset, Object[] args,
+                        @Cached GetStructFormatNode getStructFormatNode,
+                        @CachedLibrary("buffer") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached StructPackIntoNode packIntoNode) {
+            StructFormat structFormat = getStructFormatNode.execute(format);
+            Object acquired = acquireLib.acquireWritableWithTypeError(buffer, "pack_into", frame, this);
+            try {
+                packIntoNode.execute(frame, structFormat, acquired, asSizeNode.executeExact(frame, offset), args);
+            } finally {
+                bufferLib.release(acquired, frame, this);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unpack", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"format", "buffer"}, //
+                    doc = "unpack($module, format, buffer, /)\n--\n\n" +
+                                    "Return a tuple containing values unpacked according to the format string.\n\n" +
+                                    "The buffer's size in bytes must be calcsize(format).\n\n" +
+                                    "See help(struct) for more on format strings.")
+    @ArgumentClinic(name = "buffer", conversion = ClinicConversion.ReadableBuffer)
+    @GenerateNodeFactory
+    abstract static class UnpackNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple unpack(VirtualFrame frame, Object format, Object buffer,
+                        @Cached GetStructFormatNode getStructFormatNode,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached StructUnpackNode unpackNode) {
+            try {
+                return unpackNode.execute(getStructFormatNode.execute(format), buffer);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructModuleBuiltinsClinicProviders.UnpackNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "unpack_from", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 1, parameterNames = {"format", "buffer", "offset"}, //
+                    doc = "unpack_from($module, format, /, buffer, offset=0)\n--\n\n" +
+                                    "Return a tuple containing values unpacked according to the format string.\n\n" +
+                                    "The buffer's size, minus offset, must be at least calcsize(format).\n\n" +
+                                    "See help(struct) for more on format strings.")
+    @ArgumentClinic(name = "buffer", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "offset", conversion = ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class UnpackFromNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple unpackFrom(VirtualFrame frame, Object format, Object buffer, int offset,
+                        @Cached GetStructFormatNode getStructFormatNode,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached StructUnpackFromNode unpackFromNode) {
+            try {
+                return unpackFromNode.execute(getStructFormatNode.execute(format), buffer, offset);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructModuleBuiltinsClinicProviders.UnpackFromNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "iter_unpack", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"format", "buffer"}, //
+                    doc = "iter_unpack($module, format, buffer, /)\n--\n\n" +
+                                    "Return an iterator yielding tuples unpacked from the given bytes.\n\n" +
+                                    "The bytes are unpacked according to the format string, like\n" +
+                                    "a repeated invocation of unpack_from().\n\n" +
+                                    "Requires that the bytes length be a multiple of the format struct size.")
+    @GenerateNodeFactory
+    abstract static class IterUnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        PStructUnpackIterator iterUnpack(VirtualFrame frame, Object format, Object buffer,
+                        @Cached GetStructFormatNode getStructFormatNode,
+                        @CachedLibrary("buffer") PythonBufferAcquireLibrary acquireLib,
+                        @Cached StructIterUnpackNode iterUnpackNode) {
+            PStruct struct = factory().createStruct(PythonBuiltinClassType.PStruct, getStructFormatNode.execute(format));
+            return iterUnpackNode.execute(struct, acquireLib.acquireReadonly(buffer, frame, this));
+        }
+    }
+
+    @Builtin(name = "calcsize", minNumOfPositionalArgs = 1, parameterNames = {"format"}, //
+                    doc = "calcsize($module, format, /)\n--\n\n" +
+                                    "Return size in bytes of the struct described by the format string.")
+    @GenerateNodeFactory
+    abstract static class CalcSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int calcSize(Object format,
+                        @Cached GetStructFormatNode getStructFormatNode) {
+            return getStructFormatNode.execute(format).getSize();
+        }
+    }
+
+    @Builtin(name = "_clearcache", doc = "_clearcache($module, /)\n--\n\nClear the internal cache.")
+    @GenerateNodeFactory
+    abstract static class ClearCacheNode extends PythonBuiltinNode {
+        @Specialization
+        static Object clearCache() {
+            StructFormat.clearCache();
+            return PNone.NONE;
+        }
+    }
+}
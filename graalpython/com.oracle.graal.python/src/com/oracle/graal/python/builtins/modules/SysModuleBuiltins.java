@@ -111,6 +111,7 @@ import com.oracle.graal.python.builtins.objects.traceback.TracebackBuiltinsFacto
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.StructSequence;
 import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
 import com.oracle.graal.python.lib.PyLongAsIntNodeGen;
 import com.oracle.graal.python.lib.PyLongAsLongAndOverflowNodeGen;
 import com.oracle.graal.python.lib.PyLongCheckNodeGen;
@@ -128,7 +129,9 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.instrumentation.PythonTraceInstrument;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
@@ -810,15 +813,77 @@ public class SysModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "getswitchinterval")
+    @GenerateNodeFactory
+    abstract static class GetSwitchIntervalNode extends PythonBuiltinNode {
+        @Specialization
+        double getSwitchInterval() {
+            return getContext().getSwitchIntervalNanos() / 1e9;
+        }
+    }
+
+    @Builtin(name = "setswitchinterval", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SetSwitchIntervalNode extends PythonUnaryBuiltinNode {
+        private static final long MAX_SWITCH_INTERVAL_MICROS = Long.MAX_VALUE / 1000;
+
+        @Specialization
+        Object setSwitchInterval(VirtualFrame frame, Object arg,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            double interval = asDoubleNode.execute(frame, arg);
+            if (!(interval > 0.0)) {
+                throw raise(ValueError, ErrorMessages.SWITCH_INTERVAL_MUST_BE_POSITIVE);
+            }
+            // like CPython, we work with microsecond granularity; huge intervals are clamped so
+            // that the conversion to nanoseconds cannot overflow
+            long micros = (long) Math.min(interval * 1e6, MAX_SWITCH_INTERVAL_MICROS);
+            getContext().setSwitchIntervalNanos(Math.max(micros, 1) * 1000);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "settrace", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SetTrace extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object settrace(Object function) {
+            PythonContext context = getContext();
+            PythonTraceInstrument.setTraceFunction(context, context.getThreadState(getLanguage()), function == PNone.NONE ? null : function);
+            return PNone.NONE;
+        }
+    }
+
     @Builtin(name = "gettrace")
     @GenerateNodeFactory
     abstract static class GetTrace extends PythonBuiltinNode {
         @Specialization
-        static Object gettrace() {
+        Object gettrace() {
+            Object function = getContext().getThreadState(getLanguage()).getTraceFunction();
+            return function == null ? PNone.NONE : function;
+        }
+    }
+
+    @Builtin(name = "setprofile", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SetProfile extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object setprofile(Object function) {
+            PythonContext context = getContext();
+            PythonTraceInstrument.setProfileFunction(context, context.getThreadState(getLanguage()), function == PNone.NONE ? null : function);
             return PNone.NONE;
         }
     }
 
+    @Builtin(name = "getprofile")
+    @GenerateNodeFactory
+    abstract static class GetProfile extends PythonBuiltinNode {
+        @Specialization
+        Object getprofile() {
+            Object function = getContext().getThreadState(getLanguage()).getProfileFunction();
+            return function == null ? PNone.NONE : function;
+        }
+    }
+
     @Builtin(name = EXCEPTHOOK, minNumOfPositionalArgs = 4, maxNumOfPositionalArgs = 4, declaresExplicitSelf = true, doc = "excepthook($module, exctype, value, traceback, /)\n" +
                     "--\n" +
                     "\n" +
@@ -108,7 +108,7 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
 
     private static final HiddenKey TIME_SLEPT = new HiddenKey("timeSlept");
 
-    private static final StructSequence.BuiltinTypeDescriptor STRUCT_TIME_DESC = new StructSequence.BuiltinTypeDescriptor(
+    public static final StructSequence.BuiltinTypeDescriptor STRUCT_TIME_DESC = new StructSequence.BuiltinTypeDescriptor(
                     PythonBuiltinClassType.PStructTime,
                     // @formatter:off The formatter joins these lines making it less readable
             "The time value as returned by gmtime(), localtime(), and strptime(), and\n" +
@@ -682,10 +682,14 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
             return new GregorianCalendar(time[0], month.ordinal(), time[2], time[3], time[4], time[5]);
         }
 
+        /**
+         * Formats a time tuple with the layout of {@code struct_time}. Also used by the
+         * {@code strftime} methods of the {@code _datetime} types.
+         */
         // This taken from JPython + some switches were corrected to provide the
         // same result as CPython
         @TruffleBoundary
-        private static String format(String format, int[] date) {
+        public static String format(String format, int[] date) {
             String s = "";
             int lastc = 0;
             int j;
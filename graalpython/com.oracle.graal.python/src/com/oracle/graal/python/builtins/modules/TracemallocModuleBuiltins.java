@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.code.PCode;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PClosureRootNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.instrumentation.PythonTraceInstrument;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.instrumentation.AllocationEvent;
+import com.oracle.truffle.api.instrumentation.AllocationListener;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * The {@code _tracemalloc} module. Allocations are observed through the {@link AllocationListener}
+ * API, which receives the objects reported by {@link PythonObjectFactory}. The listener is only
+ * attached while tracing, so allocation sites carry no cost otherwise. Since the actual sizes of
+ * Java objects are not known, the sizes are estimated like CPython's object sizes.
+ */
+@CoreFunctions(defineModule = "_tracemalloc")
+public class TracemallocModuleBuiltins extends PythonBuiltins {
+
+    private static final int MAX_NFRAME = 65535;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TracemallocModuleBuiltinsFactory.getFactories();
+    }
+
+    private static final AllocationListener LISTENER = new AllocationListener() {
+        @Override
+        public void onEnter(AllocationEvent event) {
+        }
+
+        @Override
+        @TruffleBoundary
+        public void onReturnValue(AllocationEvent event) {
+            TracemallocState state = PythonContext.get(null).getTracemallocState();
+            if (state != null) {
+                state.trace(event.getNewObject(), event.getNewSize());
+            }
+        }
+    };
+
+    /**
+     * A traceback of an allocation, from the most recent frame to the oldest one. Equal
+     * tracebacks are shared between traces.
+     */
+    static final class Traceback {
+        final String[] filenames;
+        final int[] lines;
+
+        Traceback(String[] filenames, int[] lines) {
+            this.filenames = filenames;
+            this.lines = lines;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Traceback)) {
+                return false;
+            }
+            Traceback other = (Traceback) obj;
+            return Arrays.equals(lines, other.lines) && Arrays.equals(filenames, other.filenames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(filenames) * 31 + Arrays.hashCode(lines);
+        }
+    }
+
+    /**
+     * A traced object. Traces compare equal if they refer to the same live object, so that a probe
+     * trace can be used to look up the trace of an object.
+     */
+    static final class Trace extends WeakReference<Object> {
+        final int hash;
+        final long size;
+        final Traceback traceback;
+
+        Trace(Object referent, ReferenceQueue<Object> queue, long size, Traceback traceback) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+            this.size = size;
+            this.traceback = traceback;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Trace)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((Trace) obj).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    public static final class TracemallocState {
+        private final int maxFrames;
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        private final HashMap<Trace, Trace> traces = new HashMap<>();
+        private final HashMap<Traceback, Traceback> tracebacks = new HashMap<>();
+        private final HashMap<RootNode, String> filenames = new HashMap<>();
+        private long tracedMemory;
+        private long peakTracedMemory;
+
+        TracemallocState(int maxFrames) {
+            this.maxFrames = maxFrames;
+        }
+
+        synchronized void trace(Object object, long reportedSize) {
+            removeCollected();
+            Traceback traceback = captureTraceback();
+            if (traceback == null) {
+                // allocations outside of Python code, e.g. during imports of core modules
+                return;
+            }
+            long size = reportedSize >= 0 ? reportedSize : estimateSize(object);
+            Trace trace = new Trace(object, queue, size, traceback);
+            Trace previous = traces.put(trace, trace);
+            if (previous != null) {
+                tracedMemory -= previous.size;
+            }
+            tracedMemory += size;
+            peakTracedMemory = Math.max(peakTracedMemory, tracedMemory);
+        }
+
+        private void removeCollected() {
+            Trace trace;
+            while ((trace = (Trace) queue.poll()) != null) {
+                if (traces.remove(trace) != null) {
+                    tracedMemory -= trace.size;
+                }
+            }
+        }
+
+        private Traceback captureTraceback() {
+            ArrayList<String> frameFilenames = new ArrayList<>();
+            ArrayList<Integer> frameLines = new ArrayList<>();
+            Truffle.getRuntime().iterateFrames((FrameInstance frameInstance) -> {
+                RootNode root = ((RootCallTarget) frameInstance.getCallTarget()).getRootNode();
+                if (!(root instanceof PClosureRootNode) || root.isInternal()) {
+                    return null;
+                }
+                Node location = frameInstance.getCallNode();
+                if (location == null) {
+                    // the innermost Python frame, statements record themselves while tracing
+                    Frame frame = frameInstance.getFrame(FrameInstance.FrameAccess.READ_ONLY);
+                    location = PArguments.getCurrentFrameInfo(frame).getCallNode();
+                }
+                frameFilenames.add(filenames.computeIfAbsent(root, PCode::extractFileName));
+                frameLines.add(getLine(location, root));
+                return frameLines.size() < maxFrames ? null : root;
+            });
+            if (frameLines.isEmpty()) {
+                return null;
+            }
+            int[] lines = new int[frameLines.size()];
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = frameLines.get(i);
+            }
+            Traceback traceback = new Traceback(frameFilenames.toArray(new String[0]), lines);
+            return tracebacks.computeIfAbsent(traceback, t -> t);
+        }
+
+        private static int getLine(Node location, RootNode root) {
+            SourceSection section = location != null ? location.getEncapsulatingSourceSection() : null;
+            if (section == null) {
+                section = root.getSourceSection();
+            }
+            return section != null ? section.getStartLine() : 0;
+        }
+
+        synchronized Traceback getTraceback(Object object) {
+            removeCollected();
+            Trace trace = traces.get(new Trace(object, null, 0, null));
+            return trace != null ? trace.traceback : null;
+        }
+
+        synchronized List<Trace> getTraces() {
+            removeCollected();
+            return new ArrayList<>(traces.values());
+        }
+
+        synchronized void clear() {
+            traces.clear();
+            tracebacks.clear();
+            tracedMemory = 0;
+            peakTracedMemory = 0;
+        }
+
+        synchronized long getTracedMemory() {
+            removeCollected();
+            return tracedMemory;
+        }
+
+        synchronized long getPeakTracedMemory() {
+            return peakTracedMemory;
+        }
+
+        /**
+         * An estimate of the memory used by the traces and the shared tracebacks.
+         */
+        synchronized long getTracemallocMemory() {
+            return traces.size() * 48L + tracebacks.size() * (32L + maxFrames * 16L);
+        }
+    }
+
+    /**
+     * Estimates the size of an object using the sizes of the corresponding CPython objects on a 64
+     * bit platform.
+     */
+    static long estimateSize(Object object) {
+        if (object instanceof PBytesLike) {
+            return 33 + ((PBytesLike) object).getSequenceStorage().length();
+        } else if (object instanceof PList) {
+            return 56 + 8L * ((PList) object).getSequenceStorage().length();
+        } else if (object instanceof PTuple) {
+            return 40 + 8L * ((PTuple) object).getSequenceStorage().length();
+        } else if (object instanceof PDict) {
+            return 232;
+        } else if (object instanceof PBaseSet) {
+            return 216;
+        }
+        return 48;
+    }
+
+    static PTuple createTraceback(PythonObjectFactory factory, Traceback traceback) {
+        Object[] frames = new Object[traceback.lines.length];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = factory.createTuple(new Object[]{traceback.filenames[i], traceback.lines[i]});
+        }
+        return factory.createTuple(frames);
+    }
+
+    @Builtin(name = "is_tracing")
+    @GenerateNodeFactory
+    abstract static class IsTracingNode extends PythonBuiltinNode {
+        @Specialization
+        boolean isTracing() {
+            return getContext().getTracemallocState() != null;
+        }
+    }
+
+    @Builtin(name = "start", minNumOfPositionalArgs = 0, parameterNames = {"nframe"})
+    @ArgumentClinic(name = "nframe", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @GenerateNodeFactory
+    abstract static class StartNode extends PythonUnaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TracemallocModuleBuiltinsClinicProviders.StartNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        PNone start(int nframe) {
+            if (nframe < 1 || nframe > MAX_NFRAME) {
+                throw raise(ValueError, ErrorMessages.THE_NUMBER_OF_FRAMES_MUST_BE_IN_RANGE, MAX_NFRAME);
+            }
+            PythonContext context = getContext();
+            if (context.getTracemallocState() == null) {
+                context.setTracemallocState(new TracemallocState(nframe));
+                PythonTraceInstrument.startAllocationTracing(context, LISTENER);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "stop")
+    @GenerateNodeFactory
+    abstract static class StopNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PNone stop() {
+            PythonContext context = getContext();
+            if (context.getTracemallocState() != null) {
+                context.setTracemallocState(null);
+                PythonTraceInstrument.stopAllocationTracing(context);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_traces")
+    @GenerateNodeFactory
+    abstract static class ClearTracesNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PNone clear() {
+            TracemallocState state = getContext().getTracemallocState();
+            if (state != null) {
+                state.clear();
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_traceback_limit")
+    @GenerateNodeFactory
+    abstract static class GetTracebackLimitNode extends PythonBuiltinNode {
+        @Specialization
+        int getLimit() {
+            TracemallocState state = getContext().getTracemallocState();
+            return state != null ? state.maxFrames : 1;
+        }
+    }
+
+    @Builtin(name = "get_traced_memory")
+    @GenerateNodeFactory
+    abstract static class GetTracedMemoryNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PTuple getTracedMemory() {
+            TracemallocState state = getContext().getTracemallocState();
+            if (state == null) {
+                return factory().createTuple(new Object[]{0, 0});
+            }
+            return factory().createTuple(new Object[]{state.getTracedMemory(), state.getPeakTracedMemory()});
+        }
+    }
+
+    @Builtin(name = "get_tracemalloc_memory")
+    @GenerateNodeFactory
+    abstract static class GetTracemallocMemoryNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        long getMemory() {
+            TracemallocState state = getContext().getTracemallocState();
+            return state != null ? state.getTracemallocMemory() : 0;
+        }
+    }
+
+    @Builtin(name = "_get_object_traceback", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetObjectTracebackNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object getTraceback(Object object) {
+            TracemallocState state = getContext().getTracemallocState();
+            Traceback traceback = state != null ? state.getTraceback(object) : null;
+            return traceback != null ? createTraceback(factory(), traceback) : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_get_traces")
+    @GenerateNodeFactory
+    abstract static class GetTracesNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PList getTraces() {
+            TracemallocState state = getContext().getTracemallocState();
+            if (state == null) {
+                return factory().createList();
+            }
+            PythonObjectFactory factory = factory();
+            // tracebacks are shared, so are the tuples representing them
+            HashMap<Traceback, PTuple> tracebackTuples = new HashMap<>();
+            List<Trace> traces = state.getTraces();
+            Object[] result = new Object[traces.size()];
+            for (int i = 0; i < result.length; i++) {
+                Trace trace = traces.get(i);
+                PTuple traceback = tracebackTuples.computeIfAbsent(trace.traceback, t -> createTraceback(factory, t));
+                result[i] = factory.createTuple(new Object[]{0, trace.size, traceback});
+            }
+            return factory.createList(result);
+        }
+    }
+}
@@ -40,6 +40,7 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.text.Normalizer;
@@ -47,6 +48,7 @@ import java.util.List;
 
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UProperty;
+import com.ibm.icu.text.Normalizer2;
 import com.oracle.graal.python.annotations.ArgumentClinic;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
@@ -164,6 +166,18 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
         builtinConstants.put("unidata_version", getUnicodeVersion());
     }
 
+    /**
+     * ASCII strings are unchanged by all normalization forms.
+     */
+    static boolean isAscii(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // unicodedata.normalize(form, unistr)
     @Builtin(name = "normalize", minNumOfPositionalArgs = 2, parameterNames = {"form", "unistr"})
     @ArgumentClinic(name = "form", conversion = ArgumentClinic.ClinicConversion.String)
@@ -187,6 +201,10 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
             if (cachedNormForm == null) {
                 throw raise(ValueError, ErrorMessages.INVALID_NORMALIZATION_FORM);
             }
+            if (isAscii(unistr) || Normalizer.isNormalized(unistr, cachedNormForm)) {
+                // return the input unchanged instead of a normalized copy
+                return unistr;
+            }
             return Normalizer.normalize(unistr, cachedNormForm);
         }
 
@@ -219,7 +237,7 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
             if (cachedNormForm == null) {
                 throw raise(ValueError, ErrorMessages.INVALID_NORMALIZATION_FORM);
             }
-            return Normalizer.isNormalized(unistr, cachedNormForm);
+            return isAscii(unistr) || Normalizer.isNormalized(unistr, cachedNormForm);
         }
 
         @Override
@@ -294,4 +312,257 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
             return UnicodeDataModuleBuiltinsClinicProviders.CategoryNodeClinicProviderGen.INSTANCE;
         }
     }
+
+    // unicodedata.decimal(chr, default)
+    @Builtin(name = "decimal", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 2, parameterNames = {"chr", "default"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class DecimalNode extends PythonBinaryClinicBuiltinNode {
+
+        @Specialization
+        Object decimal(int chr, Object defaultValue) {
+            int value = getDecimal(chr);
+            if (value < 0) {
+                if (defaultValue == PNone.NO_VALUE) {
+                    throw raise(ValueError, ErrorMessages.NOT_A_DECIMAL);
+                }
+                return defaultValue;
+            }
+            return value;
+        }
+
+        @TruffleBoundary
+        private static int getDecimal(int chr) {
+            if (UCharacter.getIntPropertyValue(chr, UProperty.NUMERIC_TYPE) == UCharacter.NumericType.DECIMAL) {
+                return UCharacter.getNumericValue(chr);
+            }
+            return -1;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.DecimalNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.digit(chr, default)
+    @Builtin(name = "digit", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 2, parameterNames = {"chr", "default"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class DigitNode extends PythonBinaryClinicBuiltinNode {
+
+        @Specialization
+        Object digit(int chr, Object defaultValue) {
+            int value = getDigit(chr);
+            if (value < 0) {
+                if (defaultValue == PNone.NO_VALUE) {
+                    throw raise(ValueError, ErrorMessages.NOT_A_DIGIT);
+                }
+                return defaultValue;
+            }
+            return value;
+        }
+
+        @TruffleBoundary
+        private static int getDigit(int chr) {
+            int type = UCharacter.getIntPropertyValue(chr, UProperty.NUMERIC_TYPE);
+            if (type == UCharacter.NumericType.DECIMAL || type == UCharacter.NumericType.DIGIT) {
+                return UCharacter.getNumericValue(chr);
+            }
+            return -1;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.DigitNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.numeric(chr, default)
+    @Builtin(name = "numeric", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 2, parameterNames = {"chr", "default"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class NumericNode extends PythonBinaryClinicBuiltinNode {
+
+        @Specialization
+        Object numeric(int chr, Object defaultValue) {
+            double value = getNumeric(chr);
+            if (value == UCharacter.NO_NUMERIC_VALUE) {
+                if (defaultValue == PNone.NO_VALUE) {
+                    throw raise(ValueError, ErrorMessages.NOT_A_NUMERIC_CHARACTER);
+                }
+                return defaultValue;
+            }
+            return value;
+        }
+
+        @TruffleBoundary
+        private static double getNumeric(int chr) {
+            return UCharacter.getUnicodeNumericValue(chr);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.NumericNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.combining(chr)
+    @Builtin(name = "combining", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 1, parameterNames = {"chr"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class CombiningNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static int combining(int chr) {
+            return UCharacter.getCombiningClass(chr);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.CombiningNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.mirrored(chr)
+    @Builtin(name = "mirrored", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 1, parameterNames = {"chr"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class MirroredNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static int mirrored(int chr) {
+            return UCharacter.isMirrored(chr) ? 1 : 0;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.MirroredNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.east_asian_width(chr)
+    @Builtin(name = "east_asian_width", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 1, parameterNames = {"chr"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class EastAsianWidthNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static String eastAsianWidth(int chr) {
+            return UCharacter.getPropertyValueName(UProperty.EAST_ASIAN_WIDTH, UCharacter.getIntPropertyValue(chr, UProperty.EAST_ASIAN_WIDTH), UProperty.NameChoice.SHORT);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.EastAsianWidthNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.decomposition(chr)
+    @Builtin(name = "decomposition", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 1, parameterNames = {"chr"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class DecompositionNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static String decomposition(int chr) {
+            if (0xAC00 <= chr && chr <= 0xD7A3) {
+                // the database does not contain the algorithmic decomposition of Hangul syllables
+                return "";
+            }
+            String mapping = Normalizer2.getNFKDInstance().getRawDecomposition(chr);
+            if (mapping == null) {
+                return "";
+            }
+            StringBuilder sb = new StringBuilder();
+            String tag = getTag(UCharacter.getIntPropertyValue(chr, UProperty.DECOMPOSITION_TYPE));
+            if (tag != null) {
+                sb.append('<').append(tag).append('>');
+            }
+            for (int i = 0; i < mapping.length(); i += Character.charCount(mapping.codePointAt(i))) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(String.format("%04X", mapping.codePointAt(i)));
+            }
+            return sb.toString();
+        }
+
+        private static String getTag(int decompositionType) {
+            switch (decompositionType) {
+                case UCharacter.DecompositionType.CIRCLE:
+                    return "circle";
+                case UCharacter.DecompositionType.COMPAT:
+                    return "compat";
+                case UCharacter.DecompositionType.FINAL:
+                    return "final";
+                case UCharacter.DecompositionType.FONT:
+                    return "font";
+                case UCharacter.DecompositionType.FRACTION:
+                    return "fraction";
+                case UCharacter.DecompositionType.INITIAL:
+                    return "initial";
+                case UCharacter.DecompositionType.ISOLATED:
+                    return "isolated";
+                case UCharacter.DecompositionType.MEDIAL:
+                    return "medial";
+                case UCharacter.DecompositionType.NARROW:
+                    return "narrow";
+                case UCharacter.DecompositionType.NOBREAK:
+                    return "noBreak";
+                case UCharacter.DecompositionType.SMALL:
+                    return "small";
+                case UCharacter.DecompositionType.SQUARE:
+                    return "square";
+                case UCharacter.DecompositionType.SUB:
+                    return "sub";
+                case UCharacter.DecompositionType.SUPER:
+                    return "super";
+                case UCharacter.DecompositionType.VERTICAL:
+                    return "vertical";
+                case UCharacter.DecompositionType.WIDE:
+                    return "wide";
+                default:
+                    // canonical decompositions have no tag
+                    return null;
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.DecompositionNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // unicodedata.lookup(name)
+    @Builtin(name = "lookup", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 1, parameterNames = {"name"})
+    @ArgumentClinic(name = "name", conversion = ArgumentClinic.ClinicConversion.String)
+    @GenerateNodeFactory
+    public abstract static class LookupNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        Object lookup(String name) {
+            String result = getCharacter(name);
+            if (result == null) {
+                throw raise(KeyError, ErrorMessages.UNDEFINED_CHARACTER_NAME, name);
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private static String getCharacter(String name) {
+            int cp = UCharacter.getCharFromName(name);
+            if (cp < 0) {
+                cp = UCharacter.getCharFromNameAlias(name);
+                if (cp < 0) {
+                    return null;
+                }
+            }
+            return new String(Character.toChars(cp));
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.LookupNodeClinicProviderGen.INSTANCE;
+        }
+    }
 }
@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETATTR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectDelItem;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectSetItem;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(defineModule = "_asyncio")
+public class AsyncioModuleBuiltins extends PythonBuiltins {
+    private static final String ALL_TASKS = "_all_tasks";
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return AsyncioModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * The per-context state of the module: the task registry and the Python-level helpers from the
+     * {@code asyncio} package. The helpers are resolved on first use, like {@code module_init} in
+     * {@code _asynciomodule.c}, because {@code _asyncio} is imported while {@code asyncio} itself
+     * is still being initialized. The {@code _all_tasks} weak set is also created on first use, so
+     * that importing {@code _asyncio} does not import {@code weakref}.
+     */
+    public static final class AsyncioModuleState {
+        private final PythonModule module;
+        private Object allTasks;
+        final PDict currentTasks;
+        private long taskNameCounter;
+
+        private boolean initialized;
+        private Object cancelledError;
+        private Object invalidStateError;
+        private Object copyContext;
+        private Object isCoroutine;
+
+        AsyncioModuleState(PythonModule module, PDict currentTasks) {
+            this.module = module;
+            this.currentTasks = currentTasks;
+        }
+
+        Object getAllTasks() {
+            if (allTasks == null) {
+                createAllTasks();
+            }
+            return allTasks;
+        }
+
+        @TruffleBoundary
+        private void createAllTasks() {
+            allTasks = callModuleFunction("weakref", "WeakSet");
+            module.setAttribute(ALL_TASKS, allTasks);
+        }
+
+        long nextTaskNumber() {
+            return ++taskNameCounter;
+        }
+
+        Object getCancelledError() {
+            ensureInitialized();
+            return cancelledError;
+        }
+
+        Object getInvalidStateError() {
+            ensureInitialized();
+            return invalidStateError;
+        }
+
+        Object getCopyContext() {
+            ensureInitialized();
+            return copyContext;
+        }
+
+        Object getIsCoroutine() {
+            ensureInitialized();
+            return isCoroutine;
+        }
+
+        private void ensureInitialized() {
+            if (!initialized) {
+                initialize();
+            }
+        }
+
+        @TruffleBoundary
+        private void initialize() {
+            PyObjectGetAttr getAttr = PyObjectGetAttr.getUncached();
+            Object exceptions = AbstractImportNode.importModule("asyncio.exceptions");
+            cancelledError = getAttr.execute(null, exceptions, "CancelledError");
+            invalidStateError = getAttr.execute(null, exceptions, "InvalidStateError");
+            copyContext = getAttr.execute(null, AbstractImportNode.importModule("contextvars"), "copy_context");
+            isCoroutine = getAttr.execute(null, AbstractImportNode.importModule("asyncio.coroutines"), "iscoroutine");
+            initialized = true;
+        }
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        PythonModule module = core.lookupBuiltinModule("_asyncio");
+        PDict currentTasks = core.factory().createDict();
+        module.setAttribute("_current_tasks", currentTasks);
+        core.getContext().setAsyncioState(new AsyncioModuleState(module, currentTasks));
+    }
+
+    static AsyncioModuleState getState(Node node) {
+        return PythonContext.get(node).getAsyncioState();
+    }
+
+    @TruffleBoundary
+    static Object callModuleFunction(String moduleName, String name, Object... args) {
+        Object function = PyObjectGetAttr.getUncached().execute(null, AbstractImportNode.importModule(moduleName), name);
+        return CallNode.getUncached().execute(function, args);
+    }
+
+    @TruffleBoundary
+    static String repr(Object object) {
+        return PyObjectReprAsJavaStringNode.getUncached().execute(null, object);
+    }
+
+    @TruffleBoundary
+    static PBaseException createError(Object errorClass, String message) {
+        if (message == null) {
+            return (PBaseException) CallNode.getUncached().execute(errorClass);
+        }
+        return (PBaseException) CallNode.getUncached().execute(errorClass, message);
+    }
+
+    static PException raiseCancelledError(Node node, AsyncioModuleState state) {
+        throw PRaiseNode.raise(node, createError(state.getCancelledError(), null), false);
+    }
+
+    static PException raiseInvalidStateError(Node node, AsyncioModuleState state, String message) {
+        throw PRaiseNode.raise(node, createError(state.getInvalidStateError(), message), false);
+    }
+
+    /**
+     * Equivalent of {@code asyncio.events.get_event_loop()}.
+     */
+    public abstract static class GetEventLoopNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame);
+
+        @Specialization
+        Object get(VirtualFrame frame,
+                        @Cached ConditionProfile hasRunningLoopProfile,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object loop = getContext().getThreadState(getLanguage()).getRunningLoop();
+            if (hasRunningLoopProfile.profile(loop != null)) {
+                return loop;
+            }
+            Object policy = callModuleFunction("asyncio.events", "get_event_loop_policy");
+            return callMethod.execute(frame, policy, "get_event_loop");
+        }
+    }
+
+    /**
+     * Equivalent of {@code loop.call_soon(callback[, arg][, context=context])}. The argument and the
+     * context may be {@code null}.
+     */
+    public abstract static class CallSoonNode extends Node {
+        public abstract void execute(VirtualFrame frame, Object loop, Object callback, Object arg, Object context);
+
+        @Specialization
+        static void call(VirtualFrame frame, Object loop, Object callback, Object arg, Object context,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached CallNode callNode) {
+            Object callSoon = getAttr.execute(frame, loop, "call_soon");
+            Object[] args = arg == null ? new Object[]{callback} : new Object[]{callback, arg};
+            PKeyword[] keywords = context == null ? PKeyword.EMPTY_KEYWORDS : new PKeyword[]{new PKeyword("context", context)};
+            callNode.execute(frame, callSoon, args, keywords);
+        }
+    }
+
+    abstract static class EnterTaskNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, AsyncioModuleState state, Object loop, Object task);
+
+        @Specialization
+        void enter(VirtualFrame frame, AsyncioModuleState state, Object loop, Object task,
+                        @Cached PyDictGetItem getItem,
+                        @Cached PyObjectSetItem setItem) {
+            Object current = getItem.execute(frame, state.currentTasks, loop);
+            if (current != null) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_ENTER_INTO_TASK_S_WHILE_ANOTHER_TASK_S_IS_BEING_EXECUTED, repr(task), repr(current));
+            }
+            setItem.execute(frame, state.currentTasks, loop, task);
+        }
+    }
+
+    abstract static class LeaveTaskNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, AsyncioModuleState state, Object loop, Object task);
+
+        @Specialization
+        void leave(VirtualFrame frame, AsyncioModuleState state, Object loop, Object task,
+                        @Cached PyDictGetItem getItem,
+                        @Cached PyObjectDelItem delItem) {
+            Object current = getItem.execute(frame, state.currentTasks, loop);
+            if (current != task) {
+                throw raise(RuntimeError, ErrorMessages.LEAVING_TASK_S_DOES_NOT_MATCH_THE_CURRENT_TASK_S, repr(task), repr(current == null ? PNone.NONE : current));
+            }
+            delItem.execute(frame, state.currentTasks, loop);
+        }
+    }
+
+    @Builtin(name = "Future", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PAsyncioFuture)
+    @GenerateNodeFactory
+    abstract static class FutureNode extends PythonBuiltinNode {
+        @Specialization
+        PFuture doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see FutureBuiltins.InitNode
+            return factory().createFuture(cls);
+        }
+    }
+
+    @Builtin(name = "Task", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PAsyncioTask)
+    @GenerateNodeFactory
+    abstract static class TaskNode extends PythonBuiltinNode {
+        @Specialization
+        PTask doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see TaskBuiltins.InitNode
+            return factory().createTask(cls);
+        }
+    }
+
+    @Builtin(name = __GETATTR__, minNumOfPositionalArgs = 1, parameterNames = {"name"})
+    @GenerateNodeFactory
+    abstract static class GetAttrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getattr(Object name) {
+            if (ALL_TASKS.equals(name)) {
+                return getState(this).getAllTasks();
+            }
+            throw raise(AttributeError, ErrorMessages.MODULE_S_HAS_NO_ATTR_S, "_asyncio", name);
+        }
+    }
+
+    @Builtin(name = "get_running_loop", doc = "Return the running event loop.  Raise a RuntimeError if there is none.\n\nThis function is thread-specific.")
+    @GenerateNodeFactory
+    abstract static class GetRunningLoopNode extends PythonBuiltinNode {
+        @Specialization
+        Object get() {
+            Object loop = getContext().getThreadState(getLanguage()).getRunningLoop();
+            if (loop == null) {
+                throw raise(RuntimeError, ErrorMessages.NO_RUNNING_EVENT_LOOP);
+            }
+            return loop;
+        }
+    }
+
+    @Builtin(name = "_get_running_loop", doc = "Return the running event loop or None.\n\nThis is a low-level function intended to be used by event loops.\nThis function is thread-specific.")
+    @GenerateNodeFactory
+    abstract static class InternalGetRunningLoopNode extends PythonBuiltinNode {
+        @Specialization
+        Object get() {
+            Object loop = getContext().getThreadState(getLanguage()).getRunningLoop();
+            return loop == null ? PNone.NONE : loop;
+        }
+    }
+
+    @Builtin(name = "_set_running_loop", minNumOfPositionalArgs = 1, doc = "Set the running event loop.\n\nThis is a low-level function intended to be used by event loops.\nThis function is thread-specific.")
+    @GenerateNodeFactory
+    abstract static class SetRunningLoopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object set(Object loop) {
+            getContext().getThreadState(getLanguage()).setRunningLoop(loop == PNone.NONE ? null : loop);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_event_loop", doc = "Return an asyncio event loop.\n\nWhen called from a coroutine or a callback (e.g. scheduled with call_soon\nor similar API), this function will always return the running event loop.\n\nIf there is no running event loop set, the function will return\nthe result of `get_event_loop_policy().get_event_loop()` call.")
+    @GenerateNodeFactory
+    abstract static class GetEventLoopBuiltinNode extends PythonBuiltinNode {
+        @Specialization
+        static Object get(VirtualFrame frame,
+                        @Cached GetEventLoopNode getEventLoop) {
+            return getEventLoop.execute(frame);
+        }
+    }
+
+    @Builtin(name = "_register_task", minNumOfPositionalArgs = 1, doc = "Register a new task in asyncio as executed by loop.")
+    @GenerateNodeFactory
+    abstract static class RegisterTaskNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object register(VirtualFrame frame, Object task,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            callMethod.execute(frame, getState(this).getAllTasks(), "add", task);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_unregister_task", minNumOfPositionalArgs = 1, doc = "Unregister a task.")
+    @GenerateNodeFactory
+    abstract static class UnregisterTaskNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object unregister(VirtualFrame frame, Object task,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            callMethod.execute(frame, getState(this).getAllTasks(), "discard", task);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_enter_task", minNumOfPositionalArgs = 2, parameterNames = {"loop", "task"}, doc = "Enter into task execution or resume suspended task.\n\nTask belongs to loop.\n\nReturns None.")
+    @GenerateNodeFactory
+    abstract static class EnterTaskBuiltinNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object enter(VirtualFrame frame, Object loop, Object task,
+                        @Cached EnterTaskNode enterTask) {
+            enterTask.execute(frame, getState(this), loop, task);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_leave_task", minNumOfPositionalArgs = 2, parameterNames = {"loop", "task"}, doc = "Leave task execution or suspend a task.\n\nTask belongs to loop.\n\nReturns None.")
+    @GenerateNodeFactory
+    abstract static class LeaveTaskBuiltinNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object leave(VirtualFrame frame, Object loop, Object task,
+                        @Cached LeaveTaskNode leaveTask) {
+            leaveTask.execute(frame, getState(this), loop, task);
+            return PNone.NONE;
+        }
+    }
+}
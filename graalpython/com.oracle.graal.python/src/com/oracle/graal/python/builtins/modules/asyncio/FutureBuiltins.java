@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.callModuleFunction;
+import static com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.getState;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__AWAIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.CallSoonNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.GetEventLoopNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PAsyncioFuture)
+public class FutureBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return FutureBuiltinsFactory.getFactories();
+    }
+
+    static void ensureAlive(PythonBuiltinBaseNode node, PFuture self) {
+        if (!self.isInitialized()) {
+            throw node.raise(RuntimeError, ErrorMessages.FUTURE_OBJECT_IS_NOT_INITIALIZED);
+        }
+    }
+
+    /**
+     * Equivalent of {@code future_init}: binds the future to the given loop (or the current event
+     * loop) and records the creation stack when the loop is in debug mode.
+     */
+    abstract static class FutureInitNode extends Node {
+        abstract void execute(VirtualFrame frame, PFuture self, Object loop);
+
+        @Specialization
+        static void init(VirtualFrame frame, PFuture self, Object loop,
+                        @Cached ConditionProfile noLoopProfile,
+                        @Cached GetEventLoopNode getEventLoop,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            Object actualLoop = loop;
+            if (noLoopProfile.profile(loop == PNone.NONE || loop == PNone.NO_VALUE)) {
+                actualLoop = getEventLoop.execute(frame);
+            }
+            self.init(actualLoop);
+            if (isTrue.execute(frame, callMethod.execute(frame, actualLoop, "get_debug"))) {
+                self.setSourceTraceback(callModuleFunction("traceback", "extract_stack"));
+            }
+        }
+    }
+
+    /**
+     * Equivalent of {@code future_schedule_callbacks}: hands all done-callbacks over to the loop.
+     */
+    abstract static class ScheduleCallbacksNode extends Node {
+        abstract void execute(VirtualFrame frame, PFuture self);
+
+        @Specialization
+        static void schedule(VirtualFrame frame, PFuture self,
+                        @Cached ConditionProfile singleCallbackProfile,
+                        @Cached CallSoonNode callSoon) {
+            if (!self.hasCallbacks()) {
+                return;
+            }
+            Object loop = self.getLoop();
+            if (singleCallbackProfile.profile(self.hasSingleCallback())) {
+                Object callback = self.getCallback0();
+                Object context = self.getContext0();
+                self.clearCallbacks();
+                callSoon.execute(frame, loop, callback, self, context);
+            } else {
+                Object[] callbacks = self.takeCallbacks();
+                for (int i = 0; i < callbacks.length; i += 2) {
+                    callSoon.execute(frame, loop, callbacks[i], self, callbacks[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Equivalent of {@code future_get_result}, raising the stored exception if there is one.
+     */
+    abstract static class GetResultNode extends PNodeWithRaise {
+        abstract Object execute(PFuture self);
+
+        @Specialization
+        Object get(PFuture self) {
+            if (self.isCancelled()) {
+                throw AsyncioModuleBuiltins.raiseCancelledError(this, getState(this));
+            }
+            if (self.isPending()) {
+                throw AsyncioModuleBuiltins.raiseInvalidStateError(this, getState(this), ErrorMessages.RESULT_IS_NOT_READY);
+            }
+            self.setLogTraceback(false);
+            PBaseException exception = self.getException();
+            if (exception != null) {
+                throw PRaiseNode.raise(this, exception, false);
+            }
+            return self.getResult();
+        }
+    }
+
+    /**
+     * Equivalent of {@code future_cancel}.
+     */
+    static boolean cancel(VirtualFrame frame, PFuture self, ScheduleCallbacksNode scheduleCallbacks) {
+        self.setLogTraceback(false);
+        if (!self.isPending()) {
+            return false;
+        }
+        self.markCancelled();
+        scheduleCallbacks.execute(frame, self);
+        return true;
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"loop"})
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object init(VirtualFrame frame, PFuture self, Object loop,
+                        @Cached FutureInitNode initNode) {
+            initNode.execute(frame, self, loop);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "result", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ResultNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object result(PFuture self,
+                        @Cached GetResultNode getResult) {
+            ensureAlive(this, self);
+            return getResult.execute(self);
+        }
+    }
+
+    @Builtin(name = "exception", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ExceptionNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object exception(PFuture self) {
+            ensureAlive(this, self);
+            if (self.isCancelled()) {
+                throw AsyncioModuleBuiltins.raiseCancelledError(this, getState(this));
+            }
+            if (self.isPending()) {
+                throw AsyncioModuleBuiltins.raiseInvalidStateError(this, getState(this), ErrorMessages.EXCEPTION_IS_NOT_SET);
+            }
+            self.setLogTraceback(false);
+            PBaseException exception = self.getException();
+            return exception == null ? PNone.NONE : exception;
+        }
+    }
+
+    @Builtin(name = "set_result", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetResultNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object setResult(VirtualFrame frame, PFuture self, Object result,
+                        @Cached ScheduleCallbacksNode scheduleCallbacks) {
+            ensureAlive(this, self);
+            if (!self.isPending()) {
+                throw AsyncioModuleBuiltins.raiseInvalidStateError(this, getState(this), ErrorMessages.INVALID_STATE);
+            }
+            self.markFinished(result);
+            scheduleCallbacks.execute(frame, self);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "set_exception", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetExceptionNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object setException(VirtualFrame frame, PFuture self, Object exception,
+                        @Cached TypeNodes.IsTypeNode isTypeNode,
+                        @Cached CallNode callNode,
+                        @Cached IsBuiltinClassProfile isStopIteration,
+                        @Cached ScheduleCallbacksNode scheduleCallbacks) {
+            ensureAlive(this, self);
+            if (!self.isPending()) {
+                throw AsyncioModuleBuiltins.raiseInvalidStateError(this, getState(this), ErrorMessages.INVALID_STATE);
+            }
+            Object excValue = exception;
+            if (isTypeNode.execute(exception)) {
+                excValue = callNode.execute(frame, exception);
+            }
+            if (!(excValue instanceof PBaseException)) {
+                throw raise(TypeError, ErrorMessages.INVALID_EXCEPTION_OBJECT);
+            }
+            if (isStopIteration.profileObject(excValue, PythonBuiltinClassType.StopIteration)) {
+                throw raise(TypeError, ErrorMessages.STOP_ITERATION_INTERACTS_BADLY_WITH_GENERATORS);
+            }
+            self.markFailed((PBaseException) excValue);
+            scheduleCallbacks.execute(frame, self);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "add_done_callback", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fn"}, keywordOnlyNames = {"context"})
+    @GenerateNodeFactory
+    abstract static class AddDoneCallbackNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object add(VirtualFrame frame, PFuture self, Object fn, Object context,
+                        @Cached CallNode callNode,
+                        @Cached CallSoonNode callSoon) {
+            ensureAlive(this, self);
+            Object ctx = context;
+            if (context == PNone.NONE || context == PNone.NO_VALUE) {
+                ctx = callNode.execute(frame, getState(this).getCopyContext());
+            }
+            if (!self.isPending()) {
+                callSoon.execute(frame, self.getLoop(), fn, self, ctx);
+            } else {
+                self.addCallback(fn, ctx);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "remove_done_callback", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RemoveDoneCallbackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object remove(VirtualFrame frame, PFuture self, Object fn,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode) {
+            ensureAlive(this, self);
+            if (!self.hasCallbacks()) {
+                return 0;
+            }
+            Object[] callbacks = self.getCallbacks();
+            Object[] kept = new Object[callbacks.length];
+            int n = 0;
+            for (int i = 0; i < callbacks.length; i += 2) {
+                if (!eqNode.execute(frame, callbacks[i], fn)) {
+                    kept[n++] = callbacks[i];
+                    kept[n++] = callbacks[i + 1];
+                }
+            }
+            int removed = (callbacks.length - n) / 2;
+            if (removed > 0) {
+                self.setCallbacks(PythonUtils.arrayCopyOf(kept, n));
+            }
+            return removed;
+        }
+    }
+
+    @Builtin(name = "cancel", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CancelNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean cancel(VirtualFrame frame, PFuture self,
+                        @Cached ScheduleCallbacksNode scheduleCallbacks) {
+            ensureAlive(this, self);
+            return FutureBuiltins.cancel(frame, self, scheduleCallbacks);
+        }
+    }
+
+    @Builtin(name = "cancelled", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CancelledNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean cancelled(PFuture self) {
+            return self.isInitialized() && self.isCancelled();
+        }
+    }
+
+    @Builtin(name = "done", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DoneNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean done(PFuture self) {
+            return self.isInitialized() && !self.isPending();
+        }
+    }
+
+    @Builtin(name = "get_loop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetLoopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getLoop(PFuture self) {
+            ensureAlive(this, self);
+            return self.getLoop();
+        }
+    }
+
+    @Builtin(name = "_repr_info", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object reprInfo(PFuture self) {
+            return callModuleFunction("asyncio.base_futures", "_future_repr_info", self);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(VirtualFrame frame, PFuture self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached TypeNodes.GetNameNode getNameNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            Object info = callMethod.execute(frame, self, "_repr_info");
+            Object joined = callMethod.execute(frame, " ", "join", info);
+            return format(getNameNode.execute(getClassNode.execute(self)), castToJavaStringNode.execute(joined));
+        }
+
+        @TruffleBoundary
+        private static String format(String className, String info) {
+            return PythonUtils.format("<%s %s>", className, info);
+        }
+    }
+
+    @Builtin(name = __AWAIT__, minNumOfPositionalArgs = 1)
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AwaitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PFutureIter await(PFuture self) {
+            return factory().createFutureIter(self);
+        }
+    }
+
+    @Builtin(name = "_state", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class StateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object state(PFuture self) {
+            if (!self.isInitialized()) {
+                return PNone.NONE;
+            }
+            return self.getState().name();
+        }
+    }
+
+    @Builtin(name = "_result", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ResultGetterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object result(PFuture self) {
+            Object result = self.getResult();
+            return result == null ? PNone.NONE : result;
+        }
+    }
+
+    @Builtin(name = "_exception", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ExceptionGetterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object exception(PFuture self) {
+            PBaseException exception = self.getException();
+            return exception == null ? PNone.NONE : exception;
+        }
+    }
+
+    @Builtin(name = "_loop", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LoopGetterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object loop(PFuture self) {
+            Object loop = self.getLoop();
+            return loop == null ? PNone.NONE : loop;
+        }
+    }
+
+    @Builtin(name = "_callbacks", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CallbacksGetterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object callbacks(PFuture self) {
+            if (!self.hasCallbacks()) {
+                return PNone.NONE;
+            }
+            Object[] callbacks = self.getCallbacks();
+            Object[] pairs = new Object[callbacks.length / 2];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = factory().createTuple(new Object[]{callbacks[2 * i], callbacks[2 * i + 1]});
+            }
+            return factory().createList(pairs);
+        }
+    }
+
+    @Builtin(name = "_source_traceback", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SourceTracebackNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object sourceTraceback(PFuture self) {
+            Object tb = self.getSourceTraceback();
+            return tb == null ? PNone.NONE : tb;
+        }
+    }
+
+    @Builtin(name = "_asyncio_future_blocking", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class BlockingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(noValue)")
+        static boolean get(PFuture self, @SuppressWarnings("unused") PNone noValue) {
+            return self.isBlocking();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PFuture self, Object value,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            ensureAlive(this, self);
+            self.setBlocking(isTrue.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_log_traceback", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class LogTracebackNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(noValue)")
+        static boolean get(PFuture self, @SuppressWarnings("unused") PNone noValue) {
+            return self.isLogTraceback();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PFuture self, Object value,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            ensureAlive(this, self);
+            if (isTrue.execute(frame, value)) {
+                throw raise(ValueError, ErrorMessages.LOG_TRACEBACK_CAN_ONLY_BE_SET_TO_FALSE);
+            }
+            self.setLogTraceback(false);
+            return PNone.NONE;
+        }
+    }
+}
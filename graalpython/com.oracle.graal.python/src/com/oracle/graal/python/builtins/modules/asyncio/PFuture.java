@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import java.util.ArrayList;
+
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The state of an {@code _asyncio.Future}. This mirrors {@code FutureObj} of CPython's
+ * {@code _asynciomodule.c}: the first done-callback is stored inline such that the common case of
+ * a single waiting task does not need a callback list.
+ */
+public class PFuture extends PythonBuiltinObject {
+    public enum State {
+        PENDING,
+        CANCELLED,
+        FINISHED
+    }
+
+    private State state = State.PENDING;
+    private Object loop;
+    private Object result;
+    private PBaseException exception;
+    private Object sourceTraceback;
+
+    private Object callback0;
+    private Object context0;
+    /* further callbacks as pairs of (callback, context) */
+    private ArrayList<Object> callbacks;
+
+    private boolean blocking;
+    private boolean logTraceback;
+
+    public PFuture(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    /**
+     * Resets the future to the pending state, bound to the given loop.
+     */
+    public final void init(Object newLoop) {
+        state = State.PENDING;
+        loop = newLoop;
+        result = null;
+        exception = null;
+        sourceTraceback = null;
+        callback0 = null;
+        context0 = null;
+        callbacks = null;
+        blocking = false;
+        logTraceback = false;
+    }
+
+    public final boolean isInitialized() {
+        return loop != null;
+    }
+
+    public final State getState() {
+        return state;
+    }
+
+    public final boolean isPending() {
+        return state == State.PENDING;
+    }
+
+    public final boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    public final Object getLoop() {
+        return loop;
+    }
+
+    public final Object getResult() {
+        return result;
+    }
+
+    public final PBaseException getException() {
+        return exception;
+    }
+
+    public final Object getSourceTraceback() {
+        return sourceTraceback;
+    }
+
+    public final void setSourceTraceback(Object sourceTraceback) {
+        this.sourceTraceback = sourceTraceback;
+    }
+
+    public final boolean isBlocking() {
+        return blocking;
+    }
+
+    public final void setBlocking(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    public final boolean isLogTraceback() {
+        return logTraceback;
+    }
+
+    public final void setLogTraceback(boolean logTraceback) {
+        this.logTraceback = logTraceback;
+    }
+
+    final void markFinished(Object newResult) {
+        assert state == State.PENDING;
+        result = newResult;
+        state = State.FINISHED;
+    }
+
+    final void markFailed(PBaseException newException) {
+        assert state == State.PENDING;
+        exception = newException;
+        state = State.FINISHED;
+        logTraceback = true;
+    }
+
+    final void markCancelled() {
+        assert state == State.PENDING;
+        state = State.CANCELLED;
+    }
+
+    final boolean hasCallbacks() {
+        return callback0 != null || callbacks != null;
+    }
+
+    final boolean hasSingleCallback() {
+        return callback0 != null && callbacks == null;
+    }
+
+    final Object getCallback0() {
+        return callback0;
+    }
+
+    final Object getContext0() {
+        return context0;
+    }
+
+    final void clearCallbacks() {
+        callback0 = null;
+        context0 = null;
+        callbacks = null;
+    }
+
+    @TruffleBoundary
+    final void addCallback(Object callback, Object context) {
+        if (callback0 == null && callbacks == null) {
+            callback0 = callback;
+            context0 = context;
+        } else {
+            if (callbacks == null) {
+                callbacks = new ArrayList<>(4);
+            }
+            callbacks.add(callback);
+            callbacks.add(context);
+        }
+    }
+
+    /**
+     * Returns all registered callbacks as a flat array of (callback, context) pairs and clears
+     * them.
+     */
+    @TruffleBoundary
+    final Object[] takeCallbacks() {
+        Object[] all = getCallbacks();
+        clearCallbacks();
+        return all;
+    }
+
+    @TruffleBoundary
+    final Object[] getCallbacks() {
+        int n = (callback0 != null ? 2 : 0) + (callbacks != null ? callbacks.size() : 0);
+        Object[] all = new Object[n];
+        int i = 0;
+        if (callback0 != null) {
+            all[i++] = callback0;
+            all[i++] = context0;
+        }
+        if (callbacks != null) {
+            for (Object o : callbacks) {
+                all[i++] = o;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Replaces the registered callbacks with the given flat array of (callback, context) pairs.
+     */
+    @TruffleBoundary
+    final void setCallbacks(Object[] pairs) {
+        clearCallbacks();
+        for (int i = 0; i < pairs.length; i += 2) {
+            addCallback(pairs[i], pairs[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DeprecationWarning;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.KeyboardInterrupt;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.StopIteration;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SystemExit;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.callModuleFunction;
+import static com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.getState;
+import static com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.repr;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.WarningsModuleBuiltins.WarnNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.AsyncioModuleState;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.CallSoonNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.EnterTaskNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.GetEventLoopNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.LeaveTaskNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureInitNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.GetResultNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.ScheduleCallbacksNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.code.PCode;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.generator.GeneratorBuiltins.ResumeGeneratorNode;
+import com.oracle.graal.python.builtins.objects.generator.PGenerator;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectDelItem;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectSetAttr;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.lib.PyObjectTypeCheck;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PAsyncioTask)
+public class TaskBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TaskBuiltinsFactory.getFactories();
+    }
+
+    @TruffleBoundary
+    private static String taskName(long number) {
+        return "Task-" + number;
+    }
+
+    /**
+     * Equivalent of {@code coro.send(None)} or {@code coro.throw(exc)}. Native coroutines are
+     * resumed directly, without going through the {@code send} method.
+     */
+    abstract static class CoroSendNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, Object coro, Object exc);
+
+        @Specialization(guards = "exc == null")
+        Object send(VirtualFrame frame, PGenerator coro, @SuppressWarnings("unused") Object exc,
+                        @Cached ResumeGeneratorNode resumeGeneratorNode) {
+            if (coro.isFinished()) {
+                throw raise(StopIteration);
+            }
+            if (coro.isRunning()) {
+                throw raise(ValueError, ErrorMessages.GENERATOR_ALREADY_EXECUTING);
+            }
+            return resumeGeneratorNode.execute(frame, coro, PNone.NONE);
+        }
+
+        @Specialization(guards = "exc != null || !isGenerator(coro)")
+        static Object sendGeneric(VirtualFrame frame, Object coro, Object exc,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (exc == null) {
+                return callMethod.execute(frame, coro, "send", PNone.NONE);
+            }
+            return callMethod.execute(frame, coro, "throw", exc);
+        }
+
+        static boolean isGenerator(Object coro) {
+            return coro instanceof PGenerator;
+        }
+    }
+
+    /**
+     * Equivalent of {@code task_step_impl}: advances the coroutine by one step and decides what to
+     * do with the value it yielded.
+     */
+    abstract static class TaskStepNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PTask task, Object exc);
+
+        @Specialization
+        void step(VirtualFrame frame, PTask task, Object excArg,
+                        @Cached PyObjectTypeCheck typeCheck,
+                        @Cached CallNode callNode,
+                        @Cached EnterTaskNode enterTask,
+                        @Cached LeaveTaskNode leaveTask,
+                        @Cached CoroSendNode sendNode,
+                        @Cached PyObjectGetAttr getValue,
+                        @Cached ScheduleCallbacksNode scheduleCallbacks,
+                        @Cached HandleYieldNode handleYield) {
+            AsyncioModuleState state = getState(this);
+            if (!task.isPending()) {
+                throw AsyncioModuleBuiltins.raiseInvalidStateError(this, state,
+                                PythonUtils.format(ErrorMessages.STEP_ALREADY_DONE_S_S, repr(task), repr(excArg == null ? PNone.NONE : excArg)));
+            }
+            Object exc = excArg;
+            if (task.isMustCancel()) {
+                if (exc == null || !typeCheck.execute(exc, state.getCancelledError())) {
+                    exc = callNode.execute(frame, state.getCancelledError());
+                }
+                task.setMustCancel(false);
+            }
+            task.setFutWaiter(null);
+            Object loop = task.getLoop();
+            enterTask.execute(frame, state, loop, task);
+            try {
+                Object result;
+                try {
+                    result = sendNode.execute(frame, task.getCoro(), exc);
+                } catch (PException e) {
+                    PBaseException escaped = e.setCatchingFrameAndGetEscapedException(frame, this);
+                    if (typeCheck.execute(escaped, StopIteration)) {
+                        if (task.isMustCancel()) {
+                            // the task was cancelled right before the coroutine stopped
+                            task.setMustCancel(false);
+                            FutureBuiltins.cancel(frame, task, scheduleCallbacks);
+                        } else {
+                            ensurePending(state, task);
+                            task.markFinished(getValue.execute(frame, escaped, "value"));
+                            scheduleCallbacks.execute(frame, task);
+                        }
+                    } else if (typeCheck.execute(escaped, state.getCancelledError())) {
+                        FutureBuiltins.cancel(frame, task, scheduleCallbacks);
+                    } else {
+                        ensurePending(state, task);
+                        task.markFailed(escaped);
+                        scheduleCallbacks.execute(frame, task);
+                        if (typeCheck.execute(escaped, KeyboardInterrupt) || typeCheck.execute(escaped, SystemExit)) {
+                            throw e;
+                        }
+                    }
+                    return;
+                }
+                handleYield.execute(frame, task, result);
+            } finally {
+                leaveTask.execute(frame, state, loop, task);
+            }
+        }
+
+        private void ensurePending(AsyncioModuleState state, PTask task) {
+            if (!task.isPending()) {
+                throw AsyncioModuleBuiltins.raiseInvalidStateError(this, state, ErrorMessages.INVALID_STATE);
+            }
+        }
+    }
+
+    /**
+     * Handles the value yielded by a task's coroutine. Futures and tasks of exactly the builtin
+     * types are handled without any attribute lookups.
+     */
+    abstract static class HandleYieldNode extends Node {
+        abstract void execute(VirtualFrame frame, PTask task, Object result);
+
+        @Specialization
+        static void handle(VirtualFrame frame, PTask task, Object result,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isFutureProfile,
+                        @Cached IsBuiltinClassProfile isTaskProfile,
+                        @Cached ConditionProfile isNoneProfile,
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached PyObjectSetAttr setAttr,
+                        @Cached PyObjectIsTrueNode isTrue,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached CallNode callNode,
+                        @Cached CallSoonNode callSoon,
+                        @Cached PythonObjectFactory factory) {
+            Object resultClass = getClassNode.execute(result);
+            if (isFutureProfile.profileClass(resultClass, PythonBuiltinClassType.PAsyncioFuture) || isTaskProfile.profileClass(resultClass, PythonBuiltinClassType.PAsyncioTask)) {
+                PFuture future = (PFuture) result;
+                if (future.getLoop() != task.getLoop()) {
+                    scheduleError(frame, task, callSoon, factory, ErrorMessages.TASK_S_GOT_FUTURE_S_ATTACHED_TO_A_DIFFERENT_LOOP, repr(task), repr(future));
+                } else if (!future.isBlocking()) {
+                    scheduleError(frame, task, callSoon, factory, ErrorMessages.YIELD_WAS_USED_INSTEAD_OF_YIELD_FROM_IN_TASK_S_WITH_S, repr(task), repr(future));
+                } else if (future == task) {
+                    scheduleError(frame, task, callSoon, factory, ErrorMessages.TASK_CANNOT_AWAIT_ON_ITSELF_S, repr(task));
+                } else {
+                    future.setBlocking(false);
+                    if (future.isPending()) {
+                        future.addCallback(task.getWakeupMethod(), task.getContext());
+                    } else {
+                        callSoon.execute(frame, future.getLoop(), task.getWakeupMethod(), future, task.getContext());
+                    }
+                    waitFor(frame, task, future, isTrue, callMethod);
+                }
+            } else if (isNoneProfile.profile(result == PNone.NONE)) {
+                // bare yield relinquishes control for one event loop iteration
+                callSoon.execute(frame, task.getLoop(), task.getStepMethod(), null, task.getContext());
+            } else {
+                Object blocking = lookupAttr.execute(frame, result, "_asyncio_future_blocking");
+                if (blocking != PNone.NO_VALUE && blocking != PNone.NONE) {
+                    if (getFutureLoop(frame, result, lookupAttr, getAttr, callNode) != task.getLoop()) {
+                        scheduleError(frame, task, callSoon, factory, ErrorMessages.TASK_S_GOT_FUTURE_S_ATTACHED_TO_A_DIFFERENT_LOOP, repr(task), repr(result));
+                    } else if (!isTrue.execute(frame, blocking)) {
+                        scheduleError(frame, task, callSoon, factory, ErrorMessages.YIELD_WAS_USED_INSTEAD_OF_YIELD_FROM_IN_TASK_S_WITH_S, repr(task), repr(result));
+                    } else if (result == task) {
+                        scheduleError(frame, task, callSoon, factory, ErrorMessages.TASK_CANNOT_AWAIT_ON_ITSELF_S, repr(task));
+                    } else {
+                        setAttr.execute(frame, result, "_asyncio_future_blocking", false);
+                        Object addDoneCallback = getAttr.execute(frame, result, "add_done_callback");
+                        callNode.execute(frame, addDoneCallback, new Object[]{task.getWakeupMethod()}, new PKeyword[]{new PKeyword("context", task.getContext())});
+                        waitFor(frame, task, result, isTrue, callMethod);
+                    }
+                } else if (result instanceof PGenerator) {
+                    scheduleError(frame, task, callSoon, factory, ErrorMessages.YIELD_WAS_USED_INSTEAD_OF_YIELD_FROM_FOR_GENERATOR_IN_TASK_S_WITH_S, repr(task), repr(result));
+                } else {
+                    scheduleError(frame, task, callSoon, factory, ErrorMessages.TASK_GOT_BAD_YIELD_S, repr(result));
+                }
+            }
+        }
+
+        private static void waitFor(VirtualFrame frame, PTask task, Object future, PyObjectIsTrueNode isTrue, PyObjectCallMethodObjArgs callMethod) {
+            task.setFutWaiter(future);
+            if (task.isMustCancel()) {
+                if (isTrue.execute(frame, callMethod.execute(frame, future, "cancel"))) {
+                    task.setMustCancel(false);
+                }
+            }
+        }
+
+        /**
+         * Equivalent of {@code asyncio.futures._get_loop}.
+         */
+        private static Object getFutureLoop(VirtualFrame frame, Object future, PyObjectLookupAttr lookupAttr, PyObjectGetAttr getAttr, CallNode callNode) {
+            Object getLoop = lookupAttr.execute(frame, future, "get_loop");
+            if (getLoop != PNone.NO_VALUE) {
+                return callNode.execute(frame, getLoop);
+            }
+            return getAttr.execute(frame, future, "_loop");
+        }
+
+        private static void scheduleError(VirtualFrame frame, PTask task, CallSoonNode callSoon, PythonObjectFactory factory, String format, Object... args) {
+            PBaseException exc = factory.createBaseException(RuntimeError, format, args);
+            callSoon.execute(frame, task.getLoop(), task.getStepMethod(), exc, task.getContext());
+        }
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "coro"}, keywordOnlyNames = {"loop", "name"})
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object init(VirtualFrame frame, PTask self, Object coro, Object loop, Object name,
+                        @Cached FutureInitNode futureInit,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectIsTrueNode isTrue,
+                        @Cached PyObjectDelItem delItem,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached CallSoonNode callSoon) {
+            futureInit.execute(frame, self, loop);
+            Object sourceTraceback = self.getSourceTraceback();
+            if (sourceTraceback != null) {
+                delItem.execute(frame, sourceTraceback, -1);
+            }
+            AsyncioModuleState state = getState(this);
+            if (coro instanceof PGenerator ? !isCoroutine((PGenerator) coro) : !isTrue.execute(frame, callNode.execute(frame, state.getIsCoroutine(), coro))) {
+                // prevent logging for the pending task
+                self.setLogDestroyPending(false);
+                throw raise(TypeError, ErrorMessages.A_COROUTINE_WAS_EXPECTED_GOT_S, repr(coro));
+            }
+            if (name == PNone.NONE || name == PNone.NO_VALUE) {
+                self.setName(taskName(state.nextTaskNumber()));
+            } else {
+                self.setName(strNode.execute(frame, name));
+            }
+            self.setMustCancel(false);
+            self.setFutWaiter(null);
+            self.setCoro(coro);
+            self.setContext(callNode.execute(frame, state.getCopyContext()));
+            self.setStepMethod(getAttr.execute(frame, self, "_step"));
+            self.setWakeupMethod(getAttr.execute(frame, self, "_wakeup"));
+            callSoon.execute(frame, self.getLoop(), self.getStepMethod(), null, self.getContext());
+            callMethod.execute(frame, state.getAllTasks(), "add", self);
+            return PNone.NONE;
+        }
+
+        /**
+         * Plain generators are not coroutines, only generators of functions decorated with
+         * {@code types.coroutine} are. This does not ask {@code asyncio.iscoroutine}, which still
+         * accepts any generator.
+         */
+        private static boolean isCoroutine(PGenerator generator) {
+            PCode code = generator.getCode();
+            return code != null && code.isIterableCoroutine();
+        }
+    }
+
+    @Builtin(name = "_step", minNumOfPositionalArgs = 1, parameterNames = {"$self", "exc"})
+    @GenerateNodeFactory
+    abstract static class StepNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object step(VirtualFrame frame, PTask self, Object exc,
+                        @Cached TaskStepNode taskStep) {
+            FutureBuiltins.ensureAlive(this, self);
+            taskStep.execute(frame, self, exc == PNone.NONE || exc == PNone.NO_VALUE ? null : exc);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_wakeup", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WakeupNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object wakeup(VirtualFrame frame, PTask self, Object future,
+                        @Cached ConditionProfile isFutureProfile,
+                        @Cached GetResultNode getResult,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached TaskStepNode taskStep) {
+            FutureBuiltins.ensureAlive(this, self);
+            Object exc = null;
+            try {
+                if (isFutureProfile.profile(future instanceof PFuture)) {
+                    getResult.execute((PFuture) future);
+                } else {
+                    callMethod.execute(frame, future, "result");
+                }
+            } catch (PException e) {
+                // this may also be a cancellation
+                exc = e.setCatchingFrameAndGetEscapedException(frame, this);
+            }
+            taskStep.execute(frame, self, exc);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "cancel", minNumOfPositionalArgs = 1, doc = "Request that this task cancel itself.")
+    @GenerateNodeFactory
+    abstract static class CancelNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean cancel(VirtualFrame frame, PTask self,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            self.setLogTraceback(false);
+            if (!self.isPending()) {
+                return false;
+            }
+            Object futWaiter = self.getFutWaiter();
+            if (futWaiter != null) {
+                if (isTrue.execute(frame, callMethod.execute(frame, futWaiter, "cancel"))) {
+                    // leave the waiter; it may be a task that ignores the cancellation
+                    return true;
+                }
+            }
+            self.setMustCancel(true);
+            return true;
+        }
+    }
+
+    @Builtin(name = "get_coro", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetCoroNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object getCoro(PTask self) {
+            Object coro = self.getCoro();
+            return coro == null ? PNone.NONE : coro;
+        }
+    }
+
+    @Builtin(name = "get_name", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetNameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object getName(PTask self) {
+            Object name = self.getName();
+            return name == null ? PNone.NONE : name;
+        }
+    }
+
+    @Builtin(name = "set_name", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetNameNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object setName(VirtualFrame frame, PTask self, Object value,
+                        @Cached PyObjectStrAsObjectNode strNode) {
+            self.setName(strNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "set_result", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetResultNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object setResult(@SuppressWarnings("unused") PTask self, @SuppressWarnings("unused") Object result) {
+            throw raise(RuntimeError, ErrorMessages.TASK_DOES_NOT_SUPPORT_S_OPERATION, "set_result");
+        }
+    }
+
+    @Builtin(name = "set_exception", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetExceptionNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object setException(@SuppressWarnings("unused") PTask self, @SuppressWarnings("unused") Object exception) {
+            throw raise(RuntimeError, ErrorMessages.TASK_DOES_NOT_SUPPORT_S_OPERATION, "set_exception");
+        }
+    }
+
+    @Builtin(name = "get_stack", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"limit"}, doc = "Return the list of stack frames for this task's coroutine.")
+    @GenerateNodeFactory
+    abstract static class GetStackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object getStack(PTask self, Object limit) {
+            return callModuleFunction("asyncio.base_tasks", "_task_get_stack", self, limit == PNone.NO_VALUE ? PNone.NONE : limit);
+        }
+    }
+
+    @Builtin(name = "print_stack", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"limit", "file"}, doc = "Print the stack or traceback for this task's coroutine.")
+    @GenerateNodeFactory
+    abstract static class PrintStackNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object printStack(PTask self, Object limit, Object file) {
+            return callModuleFunction("asyncio.base_tasks", "_task_print_stack", self, limit == PNone.NO_VALUE ? PNone.NONE : limit, file == PNone.NO_VALUE ? PNone.NONE : file);
+        }
+    }
+
+    @Builtin(name = "_repr_info", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object reprInfo(PTask self) {
+            return callModuleFunction("asyncio.base_tasks", "_task_repr_info", self);
+        }
+    }
+
+    @Builtin(name = "current_task", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "loop"}, isClassmethod = true, doc = "Return the currently running task in an event loop or None.")
+    @GenerateNodeFactory
+    abstract static class CurrentTaskNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object currentTask(VirtualFrame frame, @SuppressWarnings("unused") Object cls, Object loop,
+                        @Cached WarnNode warnNode,
+                        @Cached GetEventLoopNode getEventLoop,
+                        @Cached PyDictGetItem getItem) {
+            warnNode.warnEx(frame, DeprecationWarning, ErrorMessages.TASK_CURRENT_TASK_IS_DEPRECATED, 1);
+            Object actualLoop = loop;
+            if (loop == PNone.NONE || loop == PNone.NO_VALUE) {
+                actualLoop = getEventLoop.execute(frame);
+            }
+            Object task = getItem.execute(frame, getState(this).currentTasks, actualLoop);
+            return task == null ? PNone.NONE : task;
+        }
+    }
+
+    @Builtin(name = "all_tasks", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "loop"}, isClassmethod = true, doc = "Return a set of all tasks for an event loop.")
+    @GenerateNodeFactory
+    abstract static class AllTasksNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object allTasks(VirtualFrame frame, @SuppressWarnings("unused") Object cls, Object loop,
+                        @Cached WarnNode warnNode) {
+            warnNode.warnEx(frame, DeprecationWarning, ErrorMessages.TASK_ALL_TASKS_IS_DEPRECATED, 1);
+            return callModuleFunction("asyncio.tasks", "_all_tasks_compat", loop == PNone.NO_VALUE ? PNone.NONE : loop);
+        }
+    }
+
+    @Builtin(name = "_log_destroy_pending", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class LogDestroyPendingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(noValue)")
+        static boolean get(PTask self, @SuppressWarnings("unused") PNone noValue) {
+            return self.isLogDestroyPending();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PTask self, Object value,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            self.setLogDestroyPending(isTrue.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_must_cancel", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MustCancelNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean get(PTask self) {
+            return self.isMustCancel();
+        }
+    }
+
+    @Builtin(name = "_coro", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CoroNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTask self) {
+            Object coro = self.getCoro();
+            return coro == null ? PNone.NONE : coro;
+        }
+    }
+
+    @Builtin(name = "_fut_waiter", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FutWaiterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTask self) {
+            Object futWaiter = self.getFutWaiter();
+            return futWaiter == null ? PNone.NONE : futWaiter;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.QUOTE_NONE;
+import static com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.QUOTE_NONNUMERIC;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The immutable {@code _csv.Dialect}. The delimiter, quote and escape characters are stored as code
+ * points, {@link #NOT_SET} marks a character that is not set.
+ */
+public final class CSVDialect extends PythonBuiltinObject {
+    public static final int NOT_SET = -1;
+
+    private final int delimiter;
+    private final boolean doubleQuote;
+    private final int escapeChar;
+    private final String lineTerminator;
+    private final int quoteChar;
+    private final int quoting;
+    private final boolean skipInitialSpace;
+    private final boolean strict;
+
+    /**
+     * {@code true} if the parser and the writer may scan for the special characters char by char,
+     * i.e., if none of them is a supplementary code point.
+     */
+    private final boolean bmpOnly;
+
+    public CSVDialect(Object cls, Shape instanceShape, int delimiter, boolean doubleQuote, int escapeChar, String lineTerminator, int quoteChar, int quoting, boolean skipInitialSpace,
+                    boolean strict) {
+        super(cls, instanceShape);
+        this.delimiter = delimiter;
+        this.doubleQuote = doubleQuote;
+        this.escapeChar = escapeChar;
+        this.lineTerminator = lineTerminator;
+        this.quoteChar = quoteChar;
+        this.quoting = quoting;
+        this.skipInitialSpace = skipInitialSpace;
+        this.strict = strict;
+        this.bmpOnly = delimiter <= Character.MAX_VALUE && escapeChar <= Character.MAX_VALUE && quoteChar <= Character.MAX_VALUE;
+    }
+
+    public int getDelimiter() {
+        return delimiter;
+    }
+
+    public boolean isDoubleQuote() {
+        return doubleQuote;
+    }
+
+    public int getEscapeChar() {
+        return escapeChar;
+    }
+
+    public String getLineTerminator() {
+        return lineTerminator;
+    }
+
+    public int getQuoteChar() {
+        return quoteChar;
+    }
+
+    public int getQuoting() {
+        return quoting;
+    }
+
+    public boolean isSkipInitialSpace() {
+        return skipInitialSpace;
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    public boolean isBmpOnly() {
+        return bmpOnly;
+    }
+
+    /**
+     * Returns {@code true} if the quote character has a special meaning when reading.
+     */
+    public boolean isQuoting() {
+        return quoting != QUOTE_NONE;
+    }
+
+    /**
+     * Returns {@code true} if lines without quote and escape characters can be split at the
+     * delimiters without running the state machine, i.e., if no field of such a line needs any
+     * further processing.
+     */
+    public boolean canSplitPlainLines() {
+        return bmpOnly && quoting != QUOTE_NONNUMERIC && !skipInitialSpace;
+    }
+}
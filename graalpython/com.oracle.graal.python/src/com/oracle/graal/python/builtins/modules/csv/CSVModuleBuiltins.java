@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyLongCheckExactNode;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.object.HiddenKey;
+
+@CoreFunctions(defineModule = "_csv")
+public class CSVModuleBuiltins extends PythonBuiltins {
+
+    public static final int QUOTE_MINIMAL = 0;
+    public static final int QUOTE_ALL = 1;
+    public static final int QUOTE_NONNUMERIC = 2;
+    public static final int QUOTE_NONE = 3;
+
+    private static final HiddenKey STATE = new HiddenKey("__csv_state__");
+
+    private static final String MODULE_DOC = "CSV parsing and writing.\n" +
+                    "\n" +
+                    "This module provides classes that assist in the reading and writing\n" +
+                    "of Comma Separated Value (CSV) files, and implements the interface\n" +
+                    "described by PEP 305.  Although many CSV files are simple to parse,\n" +
+                    "the format is not formally defined by a stable specification and\n" +
+                    "is subtle enough that parsing lines of a CSV file with something\n" +
+                    "like line.split(\",\") is bound to fail.  The module supports three\n" +
+                    "basic APIs: reading, writing, and registration of dialects.\n";
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return CSVModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * The per-context state of the module: the dialect registry and the field size limit.
+     */
+    public static final class CSVModuleState {
+        private final LinkedHashMap<String, Object> dialects = new LinkedHashMap<>();
+        private long fieldLimit = 128 * 1024;
+
+        public long getFieldLimit() {
+            return fieldLimit;
+        }
+
+        @TruffleBoundary
+        Object getDialect(String name) {
+            return dialects.get(name);
+        }
+
+        @TruffleBoundary
+        void registerDialect(String name, Object dialect) {
+            dialects.put(name, dialect);
+        }
+
+        @TruffleBoundary
+        boolean unregisterDialect(String name) {
+            return dialects.remove(name) != null;
+        }
+
+        @TruffleBoundary
+        Object[] getDialectNames() {
+            return dialects.keySet().toArray();
+        }
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        builtinConstants.put(SpecialAttributeNames.__DOC__, MODULE_DOC);
+        builtinConstants.put("__version__", "1.0");
+        builtinConstants.put("QUOTE_MINIMAL", QUOTE_MINIMAL);
+        builtinConstants.put("QUOTE_ALL", QUOTE_ALL);
+        builtinConstants.put("QUOTE_NONNUMERIC", QUOTE_NONNUMERIC);
+        builtinConstants.put("QUOTE_NONE", QUOTE_NONE);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        core.lookupBuiltinModule("_csv").setAttribute(STATE, new CSVModuleState());
+    }
+
+    static CSVModuleState getState(PythonModule module, ReadAttributeFromObjectNode readNode) {
+        return (CSVModuleState) readNode.execute(module, STATE);
+    }
+
+    @Builtin(name = "Dialect", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "dialect", "delimiter", "doublequote", "escapechar", "lineterminator", "quotechar", "quoting",
+                    "skipinitialspace", "strict"}, constructsClass = PythonBuiltinClassType.CSVDialect, doc = "CSV dialect\n\nThe Dialect type records CSV parsing and generation options.\n")
+    @GenerateNodeFactory
+    public abstract static class DialectNode extends PythonBuiltinNode {
+
+        @Specialization
+        Object doGeneric(VirtualFrame frame, Object cls, Object dialectArg, Object delimiterArg, Object doubleQuoteArg, Object escapeCharArg, Object lineTerminatorArg, Object quoteCharArg,
+                        Object quotingArg, Object skipInitialSpaceArg, Object strictArg,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached PyLongCheckExactNode longCheckExactNode,
+                        @Cached PyLongAsIntNode asIntNode) {
+            Object dialect = dialectArg;
+            Object delimiter = delimiterArg;
+            Object doubleQuote = doubleQuoteArg;
+            Object escapeChar = escapeCharArg;
+            Object lineTerminator = lineTerminatorArg;
+            Object quoteChar = quoteCharArg;
+            Object quoting = quotingArg;
+            Object skipInitialSpace = skipInitialSpaceArg;
+            Object strict = strictArg;
+            if (dialect != PNone.NO_VALUE) {
+                if (PGuards.isString(dialect)) {
+                    CSVModuleState state = getState(getCore().lookupBuiltinModule("_csv"), readStateNode);
+                    dialect = getRegisteredDialect(state, castToJavaStringNode.execute(dialect));
+                }
+                // can we reuse this instance?
+                if (dialect instanceof CSVDialect && delimiter == PNone.NO_VALUE && doubleQuote == PNone.NO_VALUE && escapeChar == PNone.NO_VALUE && lineTerminator == PNone.NO_VALUE &&
+                                quoteChar == PNone.NO_VALUE && quoting == PNone.NO_VALUE && skipInitialSpace == PNone.NO_VALUE && strict == PNone.NO_VALUE) {
+                    return dialect;
+                }
+                delimiter = lookupIfMissing(frame, lookupAttr, dialect, "delimiter", delimiter);
+                doubleQuote = lookupIfMissing(frame, lookupAttr, dialect, "doublequote", doubleQuote);
+                escapeChar = lookupIfMissing(frame, lookupAttr, dialect, "escapechar", escapeChar);
+                lineTerminator = lookupIfMissing(frame, lookupAttr, dialect, "lineterminator", lineTerminator);
+                quoteChar = lookupIfMissing(frame, lookupAttr, dialect, "quotechar", quoteChar);
+                quoting = lookupIfMissing(frame, lookupAttr, dialect, "quoting", quoting);
+                skipInitialSpace = lookupIfMissing(frame, lookupAttr, dialect, "skipinitialspace", skipInitialSpace);
+                strict = lookupIfMissing(frame, lookupAttr, dialect, "strict", strict);
+            }
+
+            int delimiterValue = toChar("delimiter", delimiter, ',', castToJavaStringNode);
+            boolean doubleQuoteValue = toBool(frame, doubleQuote, true, isTrueNode);
+            int escapeCharValue = toChar("escapechar", escapeChar, CSVDialect.NOT_SET, castToJavaStringNode);
+            String lineTerminatorValue = toStr("lineterminator", lineTerminator, "\r\n", castToJavaStringNode);
+            int quoteCharValue = toChar("quotechar", quoteChar, '"', castToJavaStringNode);
+            int quotingValue = toInt(frame, "quoting", quoting, QUOTE_MINIMAL, longCheckExactNode, asIntNode);
+            boolean skipInitialSpaceValue = toBool(frame, skipInitialSpace, false, isTrueNode);
+            boolean strictValue = toBool(frame, strict, false, isTrueNode);
+
+            // validate options
+            if (quotingValue < QUOTE_MINIMAL || quotingValue > QUOTE_NONE) {
+                throw raise(TypeError, ErrorMessages.BAD_QUOTING_VALUE);
+            }
+            if (delimiterValue == CSVDialect.NOT_SET) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_1_CHAR_STRING, "delimiter");
+            }
+            if (quoteChar == PNone.NONE && quoting == PNone.NO_VALUE) {
+                quotingValue = QUOTE_NONE;
+            }
+            if (quotingValue != QUOTE_NONE && quoteCharValue == CSVDialect.NOT_SET) {
+                throw raise(TypeError, ErrorMessages.QUOTECHAR_MUST_BE_SET_IF_QUOTING_ENABLED);
+            }
+            if (lineTerminatorValue == null) {
+                throw raise(TypeError, ErrorMessages.LINETERMINATOR_MUST_BE_SET);
+            }
+            return factory().createCSVDialect(cls, delimiterValue, doubleQuoteValue, escapeCharValue, lineTerminatorValue, quoteCharValue, quotingValue, skipInitialSpaceValue, strictValue);
+        }
+
+        private Object getRegisteredDialect(CSVModuleState state, String name) {
+            Object dialect = state.getDialect(name);
+            if (dialect == null) {
+                throw raise(CSVError, ErrorMessages.UNKNOWN_DIALECT);
+            }
+            return dialect;
+        }
+
+        private static Object lookupIfMissing(VirtualFrame frame, PyObjectLookupAttr lookupAttr, Object dialect, String name, Object value) {
+            if (value != PNone.NO_VALUE) {
+                return value;
+            }
+            return lookupAttr.execute(frame, dialect, name);
+        }
+
+        private int toChar(String name, Object value, int defaultValue, CastToJavaStringNode castToJavaStringNode) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (value == PNone.NONE) {
+                return CSVDialect.NOT_SET;
+            }
+            String str;
+            try {
+                str = castToJavaStringNode.execute(value);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_STRING_NOT_P, name, value);
+            }
+            int len = codePointCount(str);
+            if (len > 1) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_1_CHAR_STRING, name);
+            }
+            return len == 0 ? CSVDialect.NOT_SET : str.codePointAt(0);
+        }
+
+        private String toStr(String name, Object value, String defaultValue, CastToJavaStringNode castToJavaStringNode) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (value == PNone.NONE) {
+                return null;
+            }
+            try {
+                return castToJavaStringNode.execute(value);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_STRING, name);
+            }
+        }
+
+        private int toInt(VirtualFrame frame, String name, Object value, int defaultValue, PyLongCheckExactNode longCheckExactNode, PyLongAsIntNode asIntNode) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (!longCheckExactNode.execute(value)) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_AN_INTEGER, name);
+            }
+            return asIntNode.execute(frame, value);
+        }
+
+        @TruffleBoundary
+        private static int codePointCount(String str) {
+            return str.codePointCount(0, str.length());
+        }
+
+        private static boolean toBool(VirtualFrame frame, Object value, boolean defaultValue, PyObjectIsTrueNode isTrueNode) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            return isTrueNode.execute(frame, value);
+        }
+    }
+
+    private static Object createDialect(VirtualFrame frame, CallNode callNode, Object dialect, PKeyword[] kwargs) {
+        Object[] args = dialect == PNone.NO_VALUE ? PythonUtils.EMPTY_OBJECT_ARRAY : new Object[]{dialect};
+        return callNode.execute(frame, PythonBuiltinClassType.CSVDialect, args, kwargs);
+    }
+
+    @Builtin(name = "reader", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3, parameterNames = {"$mod", "csvfile", "dialect"}, takesVarKeywordArgs = true, declaresExplicitSelf = true, //
+                    doc = "    csv_reader = reader(iterable [, dialect='excel']\n" +
+                                    "                        [optional keyword args])\n" +
+                                    "    for row in csv_reader:\n" +
+                                    "        process(row)\n" +
+                                    "\n" +
+                                    "The \"iterable\" argument can be any object that returns a line\n" +
+                                    "of input for each iteration, such as a file object or a list.  The\n" +
+                                    "optional \"dialect\" parameter is discussed below.  The function\n" +
+                                    "also accepts optional keyword arguments which override settings\n" +
+                                    "provided by the dialect.\n" +
+                                    "\n" +
+                                    "The returned object is an iterator.  Each iteration returns a row\n" +
+                                    "of the CSV file (which can span multiple input lines).\n")
+    @GenerateNodeFactory
+    public abstract static class ReaderNode extends PythonBuiltinNode {
+        @Specialization
+        Object reader(VirtualFrame frame, PythonModule module, Object csvfile, Object dialect, PKeyword[] kwargs,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached PyObjectGetIter getIter,
+                        @Cached CallNode callNode) {
+            Object inputIter = getIter.execute(frame, csvfile);
+            CSVDialect csvDialect = (CSVDialect) createDialect(frame, callNode, dialect, kwargs);
+            return factory().createCSVReader(inputIter, csvDialect, getState(module, readStateNode));
+        }
+    }
+
+    @Builtin(name = "writer", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3, parameterNames = {"$mod", "fileobj", "dialect"}, takesVarKeywordArgs = true, declaresExplicitSelf = true, //
+                    doc = "    csv_writer = csv.writer(fileobj [, dialect='excel']\n" +
+                                    "                            [optional keyword args])\n" +
+                                    "    for row in sequence:\n" +
+                                    "        csv_writer.writerow(row)\n" +
+                                    "\n" +
+                                    "    [or]\n" +
+                                    "\n" +
+                                    "    csv_writer = csv.writer(fileobj [, dialect='excel']\n" +
+                                    "                            [optional keyword args])\n" +
+                                    "    csv_writer.writerows(rows)\n" +
+                                    "\n" +
+                                    "The \"fileobj\" argument can be any object that supports the file API.\n")
+    @GenerateNodeFactory
+    public abstract static class WriterNode extends PythonBuiltinNode {
+        @Specialization
+        Object writer(VirtualFrame frame, @SuppressWarnings("unused") PythonModule module, Object fileobj, Object dialect, PKeyword[] kwargs,
+                        @Cached PyObjectLookupAttr lookupWrite,
+                        @Cached PyCallableCheckNode callableCheck,
+                        @Cached CallNode callNode) {
+            Object write = lookupWrite.execute(frame, fileobj, "write");
+            if (write == PNone.NO_VALUE || !callableCheck.execute(write)) {
+                throw raise(TypeError, ErrorMessages.ARG_1_MUST_HAVE_A_WRITE_METHOD);
+            }
+            CSVDialect csvDialect = (CSVDialect) createDialect(frame, callNode, dialect, kwargs);
+            return factory().createCSVWriter(write, csvDialect);
+        }
+    }
+
+    @Builtin(name = "register_dialect", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3, parameterNames = {"$mod", "name", "dialect"}, takesVarKeywordArgs = true, declaresExplicitSelf = true, //
+                    doc = "Create a mapping from a string name to a dialect class.\n" +
+                                    "    dialect = csv.register_dialect(name[, dialect[, **fmtparams]])")
+    @GenerateNodeFactory
+    public abstract static class RegisterDialectNode extends PythonBuiltinNode {
+        @Specialization
+        Object register(VirtualFrame frame, PythonModule module, Object name, Object dialect, PKeyword[] kwargs,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached CallNode callNode) {
+            String nameStr;
+            try {
+                nameStr = castToJavaStringNode.execute(name);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.DIALECT_NAME_MUST_BE_A_STRING);
+            }
+            Object csvDialect = createDialect(frame, callNode, dialect, kwargs);
+            getState(module, readStateNode).registerDialect(nameStr, csvDialect);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister_dialect", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "name"}, declaresExplicitSelf = true, //
+                    doc = "Delete the name/dialect mapping associated with a string name.\n" +
+                                    "    csv.unregister_dialect(name)")
+    @GenerateNodeFactory
+    public abstract static class UnregisterDialectNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object unregister(PythonModule module, Object name,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            String nameStr;
+            try {
+                nameStr = castToJavaStringNode.execute(name);
+            } catch (CannotCastException e) {
+                throw raise(CSVError, ErrorMessages.UNKNOWN_DIALECT);
+            }
+            if (!getState(module, readStateNode).unregisterDialect(nameStr)) {
+                throw raise(CSVError, ErrorMessages.UNKNOWN_DIALECT);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_dialect", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "name"}, declaresExplicitSelf = true, //
+                    doc = "Return the dialect instance associated with name.\n" +
+                                    "    dialect = csv.get_dialect(name)")
+    @GenerateNodeFactory
+    public abstract static class GetDialectNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object get(PythonModule module, Object name,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            Object dialect = null;
+            try {
+                dialect = getState(module, readStateNode).getDialect(castToJavaStringNode.execute(name));
+            } catch (CannotCastException e) {
+                // not a registered name
+            }
+            if (dialect == null) {
+                throw raise(CSVError, ErrorMessages.UNKNOWN_DIALECT);
+            }
+            return dialect;
+        }
+    }
+
+    @Builtin(name = "list_dialects", minNumOfPositionalArgs = 1, declaresExplicitSelf = true, //
+                    doc = "Return a list of all know dialect names.\n" +
+                                    "    names = csv.list_dialects()")
+    @GenerateNodeFactory
+    public abstract static class ListDialectsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object list(PythonModule module,
+                        @Cached ReadAttributeFromObjectNode readStateNode) {
+            return factory().createList(getState(module, readStateNode).getDialectNames());
+        }
+    }
+
+    @Builtin(name = "field_size_limit", minNumOfPositionalArgs = 1, parameterNames = {"$mod", "new_limit"}, declaresExplicitSelf = true, //
+                    doc = "Sets an upper limit on parsed fields.\n" +
+                                    "    csv.field_size_limit([limit])\n" +
+                                    "\n" +
+                                    "Returns old limit. If limit is not given, no new limit is set and\n" +
+                                    "the old limit is returned")
+    @GenerateNodeFactory
+    public abstract static class FieldSizeLimitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fieldSizeLimit(VirtualFrame frame, PythonModule module, Object newLimit,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached PyLongCheckExactNode longCheckExactNode,
+                        @Cached PyLongAsLongNode asLongNode) {
+            CSVModuleState state = getState(module, readStateNode);
+            long oldLimit = state.fieldLimit;
+            if (newLimit != PNone.NO_VALUE) {
+                if (!longCheckExactNode.execute(newLimit)) {
+                    throw raise(TypeError, ErrorMessages.LIMIT_MUST_BE_AN_INTEGER);
+                }
+                state.fieldLimit = asLongNode.execute(frame, newLimit);
+            }
+            return oldLimit;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.QUOTE_NONNUMERIC;
+
+import com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.CSVModuleState;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.lib.PyFloatFromString;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code _csv.reader} object. It implements the same state machine as CPython's {@code _csv.c},
+ * but it consumes whole lines: runs of ordinary characters inside a field are copied at once, and
+ * lines that contain neither quote nor escape characters are split at the delimiters without
+ * running the state machine at all.
+ */
+public final class CSVReader extends PythonBuiltinObject {
+
+    private static final int START_RECORD = 0;
+    private static final int START_FIELD = 1;
+    private static final int ESCAPED_CHAR = 2;
+    private static final int IN_FIELD = 3;
+    private static final int IN_QUOTED_FIELD = 4;
+    private static final int ESCAPE_IN_QUOTED_FIELD = 5;
+    private static final int QUOTE_IN_QUOTED_FIELD = 6;
+    private static final int EAT_CRNL = 7;
+    private static final int AFTER_ESCAPED_CRNL = 8;
+
+    /*
+     * Like in CPython, the end of a line is signalled by a NUL character, which cannot occur in the
+     * input itself.
+     */
+    private static final int EOL = '\0';
+
+    private static final int INITIAL_FIELDS_CAPACITY = 16;
+
+    private final Object inputIter;
+    private final CSVDialect dialect;
+    private final CSVModuleState moduleState;
+    private int lineNum;
+
+    private int state = START_RECORD;
+    private final StringBuilder field = new StringBuilder();
+    private boolean numericField;
+
+    /*
+     * The fields of the current row. The buffer is reused for all rows, so that its size adapts to
+     * the number of columns and each row is copied into an exactly sized list.
+     */
+    private Object[] fields = new Object[INITIAL_FIELDS_CAPACITY];
+    private int fieldCount;
+
+    public CSVReader(Object cls, Shape instanceShape, Object inputIter, CSVDialect dialect, CSVModuleState moduleState) {
+        super(cls, instanceShape);
+        this.inputIter = inputIter;
+        this.dialect = dialect;
+        this.moduleState = moduleState;
+    }
+
+    public Object getInputIter() {
+        return inputIter;
+    }
+
+    public CSVDialect getDialect() {
+        return dialect;
+    }
+
+    public int getLineNum() {
+        return lineNum;
+    }
+
+    public void parseReset() {
+        fieldCount = 0;
+        field.setLength(0);
+        state = START_RECORD;
+        numericField = false;
+    }
+
+    public boolean isRecordComplete() {
+        return state == START_RECORD;
+    }
+
+    /**
+     * Returns {@code true} if the input ended in the middle of a field.
+     */
+    public boolean hasPendingField() {
+        return field.length() != 0 || state == IN_QUOTED_FIELD;
+    }
+
+    /**
+     * Returns the fields of the current row and resets the row.
+     */
+    public Object[] takeFields() {
+        Object[] row = PythonUtils.arrayCopyOf(fields, fieldCount);
+        fieldCount = 0;
+        return row;
+    }
+
+    /**
+     * Feeds one line of input into the parser.
+     */
+    @TruffleBoundary
+    public void parseLine(PNodeWithRaise node, String line, PyFloatFromString floatNode) {
+        lineNum++;
+        if (state == START_RECORD && dialect.canSplitPlainLines() && splitPlainLine(node, line)) {
+            return;
+        }
+        int len = line.length();
+        int i = 0;
+        while (i < len) {
+            if (state == IN_FIELD || state == IN_QUOTED_FIELD) {
+                int end = scanOrdinary(line, i, state == IN_QUOTED_FIELD);
+                if (end > i) {
+                    addChars(node, line, i, end);
+                    i = end;
+                    continue;
+                }
+            }
+            int c = line.codePointAt(i);
+            if (c == '\0') {
+                throw node.raise(CSVError, ErrorMessages.LINE_CONTAINS_NUL);
+            }
+            processChar(node, c, floatNode);
+            i += Character.charCount(c);
+        }
+        processChar(node, EOL, floatNode);
+    }
+
+    /**
+     * Called when the input ends in the middle of a field.
+     */
+    @TruffleBoundary
+    public void finishField(PyFloatFromString floatNode) {
+        saveField(floatNode);
+    }
+
+    /**
+     * Splits a line without quote and escape characters at the delimiters. Returns {@code false}
+     * without changing the state if the line needs the state machine.
+     */
+    private boolean splitPlainLine(PNodeWithRaise node, String line) {
+        int end = line.length();
+        while (end > 0 && isLineBreak(line.charAt(end - 1))) {
+            end--;
+        }
+        int delimiter = dialect.getDelimiter();
+        int quoteChar = dialect.isQuoting() ? dialect.getQuoteChar() : CSVDialect.NOT_SET;
+        int escapeChar = dialect.getEscapeChar();
+        for (int i = 0; i < end; i++) {
+            char c = line.charAt(i);
+            if (c != delimiter && (c == quoteChar || c == escapeChar || isLineBreak(c) || c == '\0')) {
+                return false;
+            }
+        }
+        if (end == 0) {
+            // an empty line results in an empty row
+            return true;
+        }
+        long limit = moduleState.getFieldLimit();
+        int start = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i == end || line.charAt(i) == delimiter) {
+                if (i - start > limit && line.codePointCount(start, i) > limit) {
+                    fieldCount = 0;
+                    throw node.raise(CSVError, ErrorMessages.FIELD_LARGER_THAN_FIELD_LIMIT_D, limit);
+                }
+                appendField(line.substring(start, i));
+                start = i + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first character at or after {@code start} that has a special
+     * meaning in an unquoted (or quoted) field.
+     */
+    private int scanOrdinary(String line, int start, boolean quoted) {
+        if (!dialect.isBmpOnly()) {
+            return start;
+        }
+        int escapeChar = dialect.getEscapeChar();
+        int len = line.length();
+        int i = start;
+        if (quoted) {
+            int quoteChar = dialect.isQuoting() ? dialect.getQuoteChar() : CSVDialect.NOT_SET;
+            while (i < len) {
+                char c = line.charAt(i);
+                if (c == quoteChar || c == escapeChar || c == '\0') {
+                    break;
+                }
+                i++;
+            }
+        } else {
+            int delimiter = dialect.getDelimiter();
+            while (i < len) {
+                char c = line.charAt(i);
+                if (c == delimiter || c == escapeChar || isLineBreak(c) || c == '\0') {
+                    break;
+                }
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private void processChar(PNodeWithRaise node, int c, PyFloatFromString floatNode) {
+        switch (state) {
+            case START_RECORD:
+                if (c == EOL) {
+                    // empty line - return []
+                    break;
+                } else if (isLineBreak(c)) {
+                    state = EAT_CRNL;
+                    break;
+                }
+                // normal character - handle as START_FIELD
+                state = START_FIELD;
+                // fallthrough
+            case START_FIELD:
+                if (isLineBreak(c) || c == EOL) {
+                    // save empty field - return [fields]
+                    saveField(floatNode);
+                    state = c == EOL ? START_RECORD : EAT_CRNL;
+                } else if (c == dialect.getQuoteChar() && dialect.isQuoting()) {
+                    // start quoted field
+                    state = IN_QUOTED_FIELD;
+                } else if (c == dialect.getEscapeChar()) {
+                    // possible escaped character
+                    state = ESCAPED_CHAR;
+                } else if (c == ' ' && dialect.isSkipInitialSpace()) {
+                    // ignore space at start of field
+                } else if (c == dialect.getDelimiter()) {
+                    // save empty field
+                    saveField(floatNode);
+                } else {
+                    // begin new unquoted field
+                    if (dialect.getQuoting() == QUOTE_NONNUMERIC) {
+                        numericField = true;
+                    }
+                    addChar(node, c);
+                    state = IN_FIELD;
+                }
+                break;
+            case ESCAPED_CHAR:
+                if (isLineBreak(c)) {
+                    addChar(node, c);
+                    state = AFTER_ESCAPED_CRNL;
+                    break;
+                }
+                addChar(node, c == EOL ? '\n' : c);
+                state = IN_FIELD;
+                break;
+            case AFTER_ESCAPED_CRNL:
+                if (c == EOL) {
+                    break;
+                }
+                // fallthrough
+            case IN_FIELD:
+                if (isLineBreak(c) || c == EOL) {
+                    // end of line - return [fields]
+                    saveField(floatNode);
+                    state = c == EOL ? START_RECORD : EAT_CRNL;
+                } else if (c == dialect.getEscapeChar()) {
+                    // possible escaped character
+                    state = ESCAPED_CHAR;
+                } else if (c == dialect.getDelimiter()) {
+                    // save field - wait for new field
+                    saveField(floatNode);
+                    state = START_FIELD;
+                } else {
+                    // normal character - save in field
+                    addChar(node, c);
+                }
+                break;
+            case IN_QUOTED_FIELD:
+                if (c == EOL) {
+                    // the line break is part of the field
+                } else if (c == dialect.getEscapeChar()) {
+                    // possible escape character
+                    state = ESCAPE_IN_QUOTED_FIELD;
+                } else if (c == dialect.getQuoteChar() && dialect.isQuoting()) {
+                    // doublequote: " represented by "", otherwise end of quote part of field
+                    state = dialect.isDoubleQuote() ? QUOTE_IN_QUOTED_FIELD : IN_FIELD;
+                } else {
+                    // normal character - save in field
+                    addChar(node, c);
+                }
+                break;
+            case ESCAPE_IN_QUOTED_FIELD:
+                addChar(node, c == EOL ? '\n' : c);
+                state = IN_QUOTED_FIELD;
+                break;
+            case QUOTE_IN_QUOTED_FIELD:
+                // doublequote - seen a quote in a quoted field
+                if (dialect.isQuoting() && c == dialect.getQuoteChar()) {
+                    // save "" as "
+                    addChar(node, c);
+                    state = IN_QUOTED_FIELD;
+                } else if (c == dialect.getDelimiter()) {
+                    // save field - wait for new field
+                    saveField(floatNode);
+                    state = START_FIELD;
+                } else if (isLineBreak(c) || c == EOL) {
+                    // end of line - return [fields]
+                    saveField(floatNode);
+                    state = c == EOL ? START_RECORD : EAT_CRNL;
+                } else if (!dialect.isStrict()) {
+                    addChar(node, c);
+                    state = IN_FIELD;
+                } else {
+                    throw node.raise(CSVError, ErrorMessages.C_EXPECTED_AFTER_C, codePointToString(dialect.getDelimiter()), codePointToString(dialect.getQuoteChar()));
+                }
+                break;
+            case EAT_CRNL:
+                if (isLineBreak(c)) {
+                    // skip
+                } else if (c == EOL) {
+                    state = START_RECORD;
+                } else {
+                    throw node.raise(CSVError, ErrorMessages.NEW_LINE_CHARACTER_SEEN_IN_UNQUOTED_FIELD);
+                }
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private void addChar(PNodeWithRaise node, int c) {
+        long limit = moduleState.getFieldLimit();
+        if (field.length() >= limit && field.codePointCount(0, field.length()) >= limit) {
+            throw node.raise(CSVError, ErrorMessages.FIELD_LARGER_THAN_FIELD_LIMIT_D, limit);
+        }
+        field.appendCodePoint(c);
+    }
+
+    private void addChars(PNodeWithRaise node, String line, int start, int end) {
+        long limit = moduleState.getFieldLimit();
+        if (field.length() + (end - start) > limit && field.codePointCount(0, field.length()) + line.codePointCount(start, end) > limit) {
+            throw node.raise(CSVError, ErrorMessages.FIELD_LARGER_THAN_FIELD_LIMIT_D, limit);
+        }
+        field.append(line, start, end);
+    }
+
+    private void saveField(PyFloatFromString floatNode) {
+        String value = field.toString();
+        field.setLength(0);
+        if (numericField) {
+            numericField = false;
+            appendField(floatNode.execute(null, value));
+        } else {
+            appendField(value);
+        }
+    }
+
+    private void appendField(Object value) {
+        if (fieldCount == fields.length) {
+            fields = PythonUtils.arrayCopyOf(fields, fields.length * 2);
+        }
+        fields[fieldCount++] = value;
+    }
+
+    private static boolean isLineBreak(int c) {
+        return c == '\n' || c == '\r';
+    }
+
+    private static String codePointToString(int c) {
+        return new String(Character.toChars(c));
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.QUOTE_NONE;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code _csv.writer} object. Rows are joined into a reusable buffer; fields that contain none
+ * of the dialect's special characters are appended as a whole.
+ */
+public final class CSVWriter extends PythonBuiltinObject {
+
+    private final Object write;
+    private final CSVDialect dialect;
+
+    private final StringBuilder rec = new StringBuilder();
+    private int numFields;
+
+    public CSVWriter(Object cls, Shape instanceShape, Object write, CSVDialect dialect) {
+        super(cls, instanceShape);
+        this.write = write;
+        this.dialect = dialect;
+    }
+
+    public Object getWrite() {
+        return write;
+    }
+
+    public CSVDialect getDialect() {
+        return dialect;
+    }
+
+    @TruffleBoundary
+    public void joinReset() {
+        rec.setLength(0);
+        numFields = 0;
+    }
+
+    /**
+     * Returns {@code true} if the record consists of a single empty field, which must be quoted so
+     * that it can be distinguished from an empty line.
+     */
+    public boolean isSingleEmptyField() {
+        return numFields > 0 && rec.length() == 0;
+    }
+
+    /**
+     * Appends a field to the record. {@code null} stands for an empty field.
+     */
+    @TruffleBoundary
+    public void joinAppend(PNodeWithRaise node, String field, boolean quoted) {
+        if (field == null || field.isEmpty()) {
+            appendPlainField("", quoted);
+        } else if (!quoted && !needsProcessing(field)) {
+            appendPlainField(field, false);
+        } else {
+            appendField(node, field, quoted);
+        }
+    }
+
+    /**
+     * Replaces the single empty field of the record with a quoted one.
+     */
+    @TruffleBoundary
+    public void quoteSingleEmptyField(PNodeWithRaise node) {
+        if (dialect.getQuoting() == QUOTE_NONE) {
+            throw node.raise(CSVError, ErrorMessages.SINGLE_EMPTY_FIELD_RECORD_MUST_BE_QUOTED);
+        }
+        numFields--;
+        appendPlainField("", true);
+    }
+
+    /**
+     * Terminates the record and returns it.
+     */
+    @TruffleBoundary
+    public String joinLineTerminator() {
+        rec.append(dialect.getLineTerminator());
+        return rec.toString();
+    }
+
+    /**
+     * Appends a field that does not contain any special characters.
+     */
+    private void appendPlainField(String field, boolean quoted) {
+        if (numFields > 0) {
+            rec.appendCodePoint(dialect.getDelimiter());
+        }
+        if (quoted) {
+            rec.appendCodePoint(dialect.getQuoteChar());
+            rec.append(field);
+            rec.appendCodePoint(dialect.getQuoteChar());
+        } else {
+            rec.append(field);
+        }
+        numFields++;
+    }
+
+    /**
+     * Returns {@code true} if the field contains a delimiter, quote, escape or line terminator
+     * character.
+     */
+    private boolean needsProcessing(String field) {
+        String lineTerminator = dialect.getLineTerminator();
+        if (dialect.isBmpOnly()) {
+            int delimiter = dialect.getDelimiter();
+            int quoteChar = dialect.getQuoteChar();
+            int escapeChar = dialect.getEscapeChar();
+            for (int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                if (c == delimiter || c == quoteChar || c == escapeChar || lineTerminator.indexOf(c) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int i = 0; i < field.length();) {
+            int c = field.codePointAt(i);
+            if (isSpecial(c)) {
+                return true;
+            }
+            i += Character.charCount(c);
+        }
+        return false;
+    }
+
+    private boolean isSpecial(int c) {
+        return c == dialect.getDelimiter() || c == dialect.getEscapeChar() || c == dialect.getQuoteChar() || dialect.getLineTerminator().indexOf(c) >= 0;
+    }
+
+    /**
+     * The general case of CPython's {@code join_append_data}: the first pass decides whether the
+     * field has to be quoted (and fails if a character needs an escape character that is not set),
+     * the second pass copies the field.
+     */
+    private void appendField(PNodeWithRaise node, String field, boolean quotedArg) {
+        boolean quoted = quotedArg;
+        for (int i = 0; i < field.length();) {
+            int c = field.codePointAt(i);
+            if (isSpecial(c)) {
+                if (wantEscape(c)) {
+                    if (dialect.getEscapeChar() == CSVDialect.NOT_SET) {
+                        throw node.raise(CSVError, ErrorMessages.NEED_TO_ESCAPE_BUT_NO_ESCAPECHAR_SET);
+                    }
+                } else {
+                    quoted = true;
+                }
+            }
+            i += Character.charCount(c);
+        }
+        if (numFields > 0) {
+            rec.appendCodePoint(dialect.getDelimiter());
+        }
+        if (quoted) {
+            rec.appendCodePoint(dialect.getQuoteChar());
+        }
+        for (int i = 0; i < field.length();) {
+            int c = field.codePointAt(i);
+            if (isSpecial(c)) {
+                if (wantEscape(c)) {
+                    rec.appendCodePoint(dialect.getEscapeChar());
+                } else if (c == dialect.getQuoteChar()) {
+                    // doublequote
+                    rec.appendCodePoint(c);
+                }
+            }
+            rec.appendCodePoint(c);
+            i += Character.charCount(c);
+        }
+        if (quoted) {
+            rec.appendCodePoint(dialect.getQuoteChar());
+        }
+        numFields++;
+    }
+
+    private boolean wantEscape(int c) {
+        if (dialect.getQuoting() == QUOTE_NONE) {
+            return true;
+        }
+        return c == dialect.getQuoteChar() && !dialect.isDoubleQuote();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.QUOTE_ALL;
+import static com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.QUOTE_NONNUMERIC;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.csv.CSVWriterBuiltinsFactory.WriteRowNodeGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.lib.PyNumberCheckNode;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectStrAsJavaStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.CSVWriter)
+public class CSVWriterBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return CSVWriterBuiltinsFactory.getFactories();
+    }
+
+    abstract static class WriteRowNode extends PNodeWithRaise {
+
+        abstract Object execute(Frame frame, CSVWriter self, Object seq);
+
+        @Specialization
+        Object writeRow(VirtualFrame frame, CSVWriter self, Object seq,
+                        @Cached PyObjectGetIter getIter,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile typeErrorProfile,
+                        @Cached IsBuiltinClassProfile stopIterationProfile,
+                        @Cached PyNumberCheckNode numberCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached PyObjectStrAsJavaStringNode strNode,
+                        @Cached CallNode callNode) {
+            Object iter;
+            try {
+                iter = getIter.execute(frame, seq);
+            } catch (PException e) {
+                e.expectTypeError(typeErrorProfile);
+                throw raise(CSVError, ErrorMessages.ITERABLE_EXPECTED_NOT_P, seq);
+            }
+            CSVDialect dialect = self.getDialect();
+            self.joinReset();
+            while (true) {
+                Object field;
+                try {
+                    field = getNextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    break;
+                }
+                boolean quoted;
+                switch (dialect.getQuoting()) {
+                    case QUOTE_NONNUMERIC:
+                        quoted = !numberCheckNode.execute(field);
+                        break;
+                    case QUOTE_ALL:
+                        quoted = true;
+                        break;
+                    default:
+                        quoted = false;
+                        break;
+                }
+                String str;
+                if (field == PNone.NONE) {
+                    str = null;
+                } else {
+                    try {
+                        str = castToJavaStringNode.execute(field);
+                    } catch (CannotCastException e) {
+                        str = strNode.execute(frame, field);
+                    }
+                }
+                self.joinAppend(this, str, quoted);
+            }
+            if (self.isSingleEmptyField()) {
+                self.quoteSingleEmptyField(this);
+            }
+            return callNode.execute(frame, self.getWrite(), self.joinLineTerminator());
+        }
+
+        static WriteRowNode create() {
+            return WriteRowNodeGen.create();
+        }
+    }
+
+    @Builtin(name = "writerow", minNumOfPositionalArgs = 2, doc = "writerow(iterable)\n" +
+                    "\n" +
+                    "Construct and write a CSV record from an iterable of fields.  Non-string\n" +
+                    "elements will be converted to string.")
+    @GenerateNodeFactory
+    public abstract static class WriteRowBuiltinNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object writeRow(VirtualFrame frame, CSVWriter self, Object seq,
+                        @Cached WriteRowNode writeRowNode) {
+            return writeRowNode.execute(frame, self, seq);
+        }
+    }
+
+    @Builtin(name = "writerows", minNumOfPositionalArgs = 2, doc = "writerows(iterable of iterables)\n" +
+                    "\n" +
+                    "Construct and write a series of iterables to a csv file.  Non-string\n" +
+                    "elements will be converted to string.")
+    @GenerateNodeFactory
+    public abstract static class WriteRowsNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object writeRows(VirtualFrame frame, CSVWriter self, Object seqseq,
+                        @Cached PyObjectGetIter getIter,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile stopIterationProfile,
+                        @Cached WriteRowNode writeRowNode) {
+            Object iter = getIter.execute(frame, seqseq);
+            while (true) {
+                Object row;
+                try {
+                    row = getNextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    return PNone.NONE;
+                }
+                writeRowNode.execute(frame, self, row);
+            }
+        }
+    }
+
+    @Builtin(name = "dialect", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class DialectNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(CSVWriter self) {
+            return self.getDialect();
+        }
+    }
+}
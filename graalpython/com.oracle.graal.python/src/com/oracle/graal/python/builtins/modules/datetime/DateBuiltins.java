@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.AsIntFieldNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDate)
+public class DateBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateBuiltinsFactory.getFactories();
+    }
+
+    static int compareDates(PDate a, PDate b) {
+        int cmp = Integer.compare(a.getYear(), b.getYear());
+        if (cmp == 0) {
+            cmp = Integer.compare(a.getMonth(), b.getMonth());
+            if (cmp == 0) {
+                cmp = Integer.compare(a.getDay(), b.getDay());
+            }
+        }
+        return cmp;
+    }
+
+    /**
+     * Converts the argument of {@code fromisoformat} to a Java string.
+     */
+    static String isoFormatArgument(PythonBuiltinBaseNode node, Object value, CastToJavaStringNode castToStringNode) {
+        try {
+            return castToStringNode.execute(value);
+        } catch (CannotCastException e) {
+            throw node.raise(TypeError, ErrorMessages.FROMISOFORMAT_ARGUMENT_MUST_BE_STR);
+        }
+    }
+
+    @Builtin(name = "year", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class YearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getYear();
+        }
+    }
+
+    @Builtin(name = "month", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MonthNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getMonth();
+        }
+    }
+
+    @Builtin(name = "day", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getDay();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PDate self,
+                        @Cached GetClassNode getClassNode) {
+            int[] fields = {self.getYear(), self.getMonth(), self.getDay()};
+            return DateTimeUtils.reprFields(DateTimeNodes.getTypeName(getClassNode.execute(self)), fields, 3, 0, null, true);
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, doc = "Return string in ISO 8601 format, YYYY-MM-DD.")
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String isoformat(PDate self) {
+            return DateTimeUtils.formatDate(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, PDate self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            // subclasses may override isoformat
+            return callMethod.execute(frame, self, "isoformat");
+        }
+    }
+
+    @Builtin(name = "ctime", minNumOfPositionalArgs = 1, doc = "Return ctime() style string.")
+    @GenerateNodeFactory
+    abstract static class CTimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String ctime(PDate self) {
+            return DateTimeUtils.formatCTime(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0);
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"}, doc = "format -> strftime() style string.")
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class StrfTimeNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateBuiltinsClinicProviders.StrfTimeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static String strftime(PDate self, String format) {
+            int[] tm = DateTimeUtils.timeTuple(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0, -1);
+            return DateTimeUtils.strftime(format, tm, null, null, 0);
+        }
+    }
+
+    @Builtin(name = __FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateBuiltinsClinicProviders.FormatNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object format(VirtualFrame frame, Object self, String format,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (format.isEmpty()) {
+                return strNode.execute(frame, self);
+            }
+            return callMethod.execute(frame, self, "strftime", format);
+        }
+    }
+
+    @Builtin(name = "timetuple", minNumOfPositionalArgs = 1, doc = "Return time tuple, compatible with time.localtime().")
+    @GenerateNodeFactory
+    abstract static class TimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetuple(PDate self) {
+            int[] tm = DateTimeUtils.timeTuple(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0, -1);
+            return createStructTime(factory(), tm);
+        }
+    }
+
+    static Object createStructTime(PythonObjectFactory factory, int[] tm) {
+        Object[] values = new Object[11];
+        for (int i = 0; i < tm.length; i++) {
+            values[i] = tm[i];
+        }
+        values[9] = PNone.NONE;
+        values[10] = PNone.NONE;
+        return factory.createStructSeq(TimeModuleBuiltins.STRUCT_TIME_DESC, values);
+    }
+
+    @Builtin(name = "toordinal", minNumOfPositionalArgs = 1, doc = "Return proleptic Gregorian ordinal.  January 1 of year 1 is day 1.")
+    @GenerateNodeFactory
+    abstract static class ToOrdinalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int toordinal(PDate self) {
+            return self.toOrdinal();
+        }
+    }
+
+    @Builtin(name = "weekday", minNumOfPositionalArgs = 1, doc = "Return the day of the week represented by the date.\nMonday == 0 ... Sunday == 6")
+    @GenerateNodeFactory
+    abstract static class WeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int weekday(PDate self) {
+            return DateTimeUtils.weekday(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "isoweekday", minNumOfPositionalArgs = 1, doc = "Return the day of the week represented by the date.\nMonday == 1 ... Sunday == 7")
+    @GenerateNodeFactory
+    abstract static class IsoWeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int isoweekday(PDate self) {
+            return DateTimeUtils.weekday(self.getYear(), self.getMonth(), self.getDay()) + 1;
+        }
+    }
+
+    @Builtin(name = "isocalendar", minNumOfPositionalArgs = 1, doc = "Return a 3-tuple containing ISO year, week number, and weekday.")
+    @GenerateNodeFactory
+    abstract static class IsoCalendarNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object isocalendar(PDate self) {
+            int[] iso = DateTimeUtils.isoCalendar(self.getYear(), self.getMonth(), self.getDay());
+            return factory().createTuple(new Object[]{iso[0], iso[1], iso[2]});
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "year", "month", "day"}, doc = "Return date with new specified fields.")
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDate replace(VirtualFrame frame, PDate self, Object year, Object month, Object day,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached GetClassNode getClassNode) {
+            int y = asIntNode.execute(frame, year, self.getYear());
+            int m = asIntNode.execute(frame, month, self.getMonth());
+            int d = asIntNode.execute(frame, day, self.getDay());
+            DateTimeNodes.checkDateArgs(this, y, m, d);
+            return factory().createDate(getClassNode.execute(self), y, m, d);
+        }
+    }
+
+    @Builtin(name = "fromordinal", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "int -> date corresponding to a proleptic Gregorian ordinal.")
+    @GenerateNodeFactory
+    abstract static class FromOrdinalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromordinal(VirtualFrame frame, Object cls, Object ordinal,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached NewDateNode newDateNode) {
+            int ord = asIntNode.execute(frame, ordinal);
+            if (ord < 1) {
+                throw raise(ValueError, ErrorMessages.ORDINAL_MUST_BE_GE_1);
+            }
+            int ymd = DateTimeUtils.ordToYmd(ord);
+            int year = DateTimeUtils.unpackYear(ymd);
+            int month = DateTimeUtils.unpackMonth(ymd);
+            int day = DateTimeUtils.unpackDay(ymd);
+            DateTimeNodes.checkDateArgs(this, year, month, day);
+            return newDateNode.execute(frame, cls, year, month, day);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "str -> Construct a date from the output of date.isoformat()")
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromisoformat(VirtualFrame frame, Object cls, Object string,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode,
+                        @Cached NewDateNode newDateNode) {
+            String s = isoFormatArgument(this, string, castToStringNode);
+            int ymd = s.length() == 10 ? DateTimeUtils.parseIsoDate(s) : -1;
+            if (ymd < 0) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, reprNode.execute(frame, string));
+            }
+            int year = DateTimeUtils.unpackYear(ymd);
+            int month = DateTimeUtils.unpackMonth(ymd);
+            int day = DateTimeUtils.unpackDay(ymd);
+            DateTimeNodes.checkDateArgs(this, year, month, day);
+            return newDateNode.execute(frame, cls, year, month, day);
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PDate self) {
+            return self.getDateHash();
+        }
+    }
+
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        abstract int op();
+
+        @Specialization
+        Object doDate(PDate self, PDate other,
+                        @Cached GetClassNode getClassNode) {
+            if ((self instanceof PDateTime) != (other instanceof PDateTime)) {
+                // a date is never equal to a datetime and they cannot be ordered
+                int op = op();
+                if (op == DateTimeNodes.EQ || op == DateTimeNodes.NE) {
+                    return op == DateTimeNodes.NE;
+                }
+                throw raise(TypeError, ErrorMessages.CANT_COMPARE_S_TO_S, DateTimeNodes.getTypeName(getClassNode.execute(self)), DateTimeNodes.getTypeName(getClassNode.execute(other)));
+            }
+            return DateTimeNodes.applyOp(op(), compareDates(self, other));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.EQ;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.NE;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LT;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LE;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GT;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GE;
+        }
+    }
+
+    /**
+     * Shifts a date by a number of days, creating the result with the date's class.
+     */
+    static Object addDays(VirtualFrame frame, PythonBuiltinBaseNode node, PDate date, long days, GetClassNode getClassNode, NewDateNode newDateNode) {
+        long ordinal = date.toOrdinal() + days;
+        if (ordinal < 1 || ordinal > DateTimeUtils.MAXORDINAL) {
+            throw node.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+        }
+        int ymd = DateTimeUtils.ordToYmd((int) ordinal);
+        return newDateNode.execute(frame, getClassNode.execute(date), DateTimeUtils.unpackYear(ymd), DateTimeUtils.unpackMonth(ymd), DateTimeUtils.unpackDay(ymd));
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object add(VirtualFrame frame, PDate self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, this, self, other.getDays(), getClassNode, newDateNode);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object subDelta(VirtualFrame frame, PDate self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, this, self, -(long) other.getDays(), getClassNode, newDateNode);
+        }
+
+        @Specialization
+        PTimeDelta subDate(PDate self, PDate other) {
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.toOrdinal() - other.toOrdinal(), 0, 0);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDate self,
+                        @Cached GetClassNode getClassNode) {
+            int year = self.getYear();
+            byte[] state = {(byte) (year >> 8), (byte) year, (byte) self.getMonth(), (byte) self.getDay()};
+            Object args = factory().createTuple(new Object[]{factory().createBytes(state)});
+            return factory().createTuple(new Object[]{getClassNode.execute(self), args});
+        }
+    }
+}
@@ -0,0 +1,726 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.AsIntFieldNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IsoTimeZoneNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzNameNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.UtcOffsetNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDateTime)
+public class DateTimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateTimeBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Compares all fields but the fold and the tzinfo.
+     */
+    static int compareFields(PDateTime a, PDateTime b) {
+        int cmp = DateBuiltins.compareDates(a, b);
+        if (cmp == 0) {
+            cmp = Integer.compare(a.secondOfDay(), b.secondOfDay());
+            if (cmp == 0) {
+                cmp = Integer.compare(a.getMicrosecond(), b.getMicrosecond());
+            }
+        }
+        return cmp;
+    }
+
+    /**
+     * The difference {@code a - b} in microseconds after subtracting the offsets, which may be
+     * {@code null}. The result fits into a long, since datetimes span less than 10^4 years.
+     */
+    static long difference(PDateTime a, PDateTime b, PTimeDelta offsetA, PTimeDelta offsetB) {
+        long us = (long) (a.toOrdinal() - b.toOrdinal()) * DateTimeUtils.US_PER_DAY + (long) (a.secondOfDay() - b.secondOfDay()) * DateTimeUtils.US_PER_SECOND +
+                        (a.getMicrosecond() - b.getMicrosecond());
+        if (offsetA != null) {
+            us -= offsetA.toMicroseconds();
+        }
+        if (offsetB != null) {
+            us += offsetB.toMicroseconds();
+        }
+        return us;
+    }
+
+    static boolean offsetsEqual(PTimeDelta a, PTimeDelta b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return TimeDeltaBuiltins.compare(a, b) == 0;
+    }
+
+    static PDateTime withFold(PythonObjectFactory factory, Object cls, PDateTime dt, int fold) {
+        return factory.createDateTime(cls, dt.getYear(), dt.getMonth(), dt.getDay(), dt.getHour(), dt.getMinute(), dt.getSecond(), dt.getMicrosecond(), dt.getTzInfo(), fold);
+    }
+
+    static byte[] getState(PDateTime self, boolean withFold) {
+        int year = self.getYear();
+        int us = self.getMicrosecond();
+        int month = self.getMonth() | (withFold ? self.getFold() << 7 : 0);
+        return new byte[]{(byte) (year >> 8), (byte) year, (byte) month, (byte) self.getDay(), (byte) self.getHour(), (byte) self.getMinute(), (byte) self.getSecond(),
+                        (byte) (us >> 16), (byte) (us >> 8), (byte) us};
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PDateTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(VirtualFrame frame, PDateTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            int[] fields = {self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond()};
+            int count = self.getMicrosecond() != 0 ? 7 : self.getSecond() != 0 ? 6 : 5;
+            String tzinfo = self.hasTzInfo() ? reprNode.execute(frame, self.getTzInfo()) : null;
+            return DateTimeUtils.reprFields(DateTimeNodes.getTypeName(getClassNode.execute(self)), fields, count, self.getFold(), tzinfo, true);
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "sep", "timespec"}, //
+                    doc = "[sep] -> string in ISO 8601 format, YYYY-MM-DDT[HH[:MM[:SS[.mmm[uuu]]]]][+HH:MM].\n" +
+                                    "sep is used to separate the year from the time, and defaults to 'T'.\n" +
+                                    "timespec specifies what components of the time to include (allowed values are 'auto', 'hours', 'minutes', 'seconds', 'milliseconds', and 'microseconds').\n")
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        String isoformat(VirtualFrame frame, PDateTime self, Object sep, Object timespec,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            String separator = "T";
+            if (sep != PNone.NO_VALUE) {
+                try {
+                    separator = castToStringNode.execute(sep);
+                } catch (CannotCastException e) {
+                    separator = null;
+                }
+                if (separator == null || separator.codePointCount(0, separator.length()) != 1) {
+                    throw raise(TypeError, ErrorMessages.S_ARGUMENT_1_MUST_BE_UNICODE_CHARACTER_NOT_P, "isoformat()", sep);
+                }
+            }
+            int spec = parseTimespec(this, timespec, 2, castToStringNode);
+            PTimeDelta offset = utcOffsetNode.execute(frame, self);
+            return DateTimeUtils.formatDateTime(self.getYear(), self.getMonth(), self.getDay(), separator, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), spec,
+                            offset);
+        }
+    }
+
+    static int parseTimespec(PythonBuiltinBaseNode node, Object timespec, int argIndex, CastToJavaStringNode castToStringNode) {
+        if (timespec == PNone.NO_VALUE) {
+            return DateTimeUtils.TIMESPEC_AUTO;
+        }
+        String name;
+        try {
+            name = castToStringNode.execute(timespec);
+        } catch (CannotCastException e) {
+            throw node.raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "isoformat()", argIndex, "str", timespec);
+        }
+        int spec = DateTimeUtils.parseTimespec(name);
+        if (spec < 0) {
+            throw node.raise(ValueError, ErrorMessages.UNKNOWN_TIMESPEC_VALUE);
+        }
+        return spec;
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, PDateTime self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self, "isoformat", " ");
+        }
+    }
+
+    @Builtin(name = "ctime", minNumOfPositionalArgs = 1, doc = "Return ctime() style string.")
+    @GenerateNodeFactory
+    abstract static class CTimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String ctime(PDateTime self) {
+            return DateTimeUtils.formatCTime(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond());
+        }
+    }
+
+    static int[] timeTuple(VirtualFrame frame, PDateTime self, UtcOffsetNode dstNode) {
+        int isDst = -1;
+        if (self.hasTzInfo()) {
+            PTimeDelta dst = dstNode.execute(frame, self.getTzInfo(), self, true);
+            if (dst != null) {
+                isDst = dst.isZero() ? 0 : 1;
+            }
+        }
+        return DateTimeUtils.timeTuple(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), isDst);
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"}, doc = "format -> strftime() style string.")
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class StrfTimeNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateTimeBuiltinsClinicProviders.StrfTimeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static String strftime(VirtualFrame frame, PDateTime self, String format,
+                        @Cached UtcOffsetNode dstNode,
+                        @Cached UtcOffsetNode utcOffsetNode,
+                        @Cached TzNameNode tzNameNode) {
+            int[] tm = timeTuple(frame, self, dstNode);
+            PTimeDelta offset = null;
+            String tzName = null;
+            if (self.hasTzInfo()) {
+                // only the directives that are present are evaluated, like in CPython
+                if (format.contains("%z")) {
+                    offset = utcOffsetNode.execute(frame, self);
+                }
+                if (format.contains("%Z")) {
+                    Object name = tzNameNode.execute(frame, self.getTzInfo(), self);
+                    tzName = name == PNone.NONE ? null : name.toString();
+                }
+            }
+            return DateTimeUtils.strftime(format, tm, offset, tzName, self.getMicrosecond());
+        }
+    }
+
+    @Builtin(name = "timetuple", minNumOfPositionalArgs = 1, doc = "Return time tuple, compatible with time.localtime().")
+    @GenerateNodeFactory
+    abstract static class TimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetuple(VirtualFrame frame, PDateTime self,
+                        @Cached UtcOffsetNode dstNode) {
+            return DateBuiltins.createStructTime(factory(), timeTuple(frame, self, dstNode));
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.utcoffset(self).")
+    @GenerateNodeFactory
+    abstract static class UtcOffsetBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcoffset(VirtualFrame frame, PDateTime self,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            PTimeDelta offset = utcOffsetNode.execute(frame, self);
+            return offset != null ? offset : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.dst(self).")
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PDateTime self,
+                        @Cached UtcOffsetNode dstNode) {
+            PTimeDelta dst = dstNode.execute(frame, self.getTzInfo(), self, true);
+            return dst != null ? dst : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.tzname(self).")
+    @GenerateNodeFactory
+    abstract static class TzNameBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzname(VirtualFrame frame, PDateTime self,
+                        @Cached TzNameNode tzNameNode) {
+            return tzNameNode.execute(frame, self.getTzInfo(), self);
+        }
+    }
+
+    @Builtin(name = "date", minNumOfPositionalArgs = 1, doc = "Return date object with same year, month and day.")
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDate date(PDateTime self) {
+            return factory().createDate(PythonBuiltinClassType.PDate, self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "time", minNumOfPositionalArgs = 1, doc = "Return time object with same time but with tzinfo=None.")
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTime time(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), PNone.NONE, self.getFold());
+        }
+    }
+
+    @Builtin(name = "timetz", minNumOfPositionalArgs = 1, doc = "Return time object with same time and tzinfo.")
+    @GenerateNodeFactory
+    abstract static class TimeTzNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTime timetz(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), self.getTzInfo(), self.getFold());
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "year", "month", "day", "hour", "minute", "second", "microsecond", "tzinfo"}, //
+                    keywordOnlyNames = {"fold"}, doc = "Return datetime with new specified fields.")
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonBuiltinNode {
+        @Specialization
+        PDateTime replace(VirtualFrame frame, PDateTime self, Object year, Object month, Object day, Object hour, Object minute, Object second, Object microsecond, Object tzinfo,
+                        Object fold,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode) {
+            int y = asIntNode.execute(frame, year, self.getYear());
+            int mo = asIntNode.execute(frame, month, self.getMonth());
+            int d = asIntNode.execute(frame, day, self.getDay());
+            int h = asIntNode.execute(frame, hour, self.getHour());
+            int mi = asIntNode.execute(frame, minute, self.getMinute());
+            int s = asIntNode.execute(frame, second, self.getSecond());
+            int us = asIntNode.execute(frame, microsecond, self.getMicrosecond());
+            int f = asIntNode.execute(frame, fold, self.getFold());
+            Object tz = tzinfo == PNone.NO_VALUE ? self.getTzInfo() : checkTzInfoNode.execute(tzinfo);
+            DateTimeNodes.checkDateArgs(this, y, mo, d);
+            DateTimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            return factory().createDateTime(getClassNode.execute(self), y, mo, d, h, mi, s, us, tz, f);
+        }
+    }
+
+    @Builtin(name = "combine", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "date", "time", "tzinfo"}, isClassmethod = true, //
+                    doc = "date, time -> datetime with same date and time fields")
+    @GenerateNodeFactory
+    abstract static class CombineNode extends PythonBuiltinNode {
+        @Specialization
+        Object combine(VirtualFrame frame, Object cls, Object date, Object time, Object tzinfo,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            if (!(date instanceof PDate)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "combine()", 1, "datetime.date", date);
+            }
+            if (!(time instanceof PTime)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "combine()", 2, "datetime.time", time);
+            }
+            PDate d = (PDate) date;
+            PTime t = (PTime) time;
+            Object tz = tzinfo == PNone.NO_VALUE ? t.getTzInfo() : checkTzInfoNode.execute(tzinfo);
+            return newDateTimeNode.execute(frame, cls, d.getYear(), d.getMonth(), d.getDay(), t.getHour(), t.getMinute(), t.getSecond(), t.getMicrosecond(), tz, t.getFold());
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "string -> datetime from datetime.isoformat() output")
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromisoformat(VirtualFrame frame, Object cls, Object string,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode,
+                        @Cached IsoTimeZoneNode isoTimeZoneNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            String s = DateBuiltins.isoFormatArgument(this, string, castToStringNode);
+            int ymd = DateTimeUtils.parseIsoDate(s);
+            int[] time = null;
+            if (ymd >= 0 && s.length() > 10) {
+                // the separator may be any character
+                time = DateTimeUtils.parseIsoTime(s, 11);
+                if (time == null) {
+                    ymd = -1;
+                }
+            }
+            if (ymd < 0) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, reprNode.execute(frame, string));
+            }
+            int year = DateTimeUtils.unpackYear(ymd);
+            int month = DateTimeUtils.unpackMonth(ymd);
+            int day = DateTimeUtils.unpackDay(ymd);
+            DateTimeNodes.checkDateArgs(this, year, month, day);
+            if (time == null) {
+                return newDateTimeNode.execute(frame, cls, year, month, day, 0, 0, 0, 0, PNone.NONE, 0);
+            }
+            DateTimeNodes.checkTimeArgs(this, time[0], time[1], time[2], time[3], 0);
+            Object tzinfo = isoTimeZoneNode.execute(frame, time);
+            return newDateTimeNode.execute(frame, cls, year, month, day, time[0], time[1], time[2], time[3], tzinfo, 0);
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(VirtualFrame frame, PDateTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            long hash = self.getCachedHash();
+            if (hash == -1) {
+                // equal datetimes must hash equally, so a fold=1 datetime hashes like its fold=0
+                // twin and aware datetimes hash by their UTC value
+                PDateTime self0 = self.getFold() == 0 ? self : withFold(factory(), getClassNode.execute(self), self, 0);
+                PTimeDelta offset = utcOffsetNode.execute(frame, self0);
+                long days = self.toOrdinal();
+                long seconds = self.secondOfDay();
+                long us = self.getMicrosecond();
+                if (offset != null) {
+                    days -= offset.getDays();
+                    seconds -= offset.getSeconds();
+                    us -= offset.getMicroseconds();
+                }
+                seconds += Math.floorDiv(us, DateTimeUtils.US_PER_SECOND);
+                days += Math.floorDiv(seconds, DateTimeUtils.SECONDS_PER_DAY);
+                hash = DateTimeUtils.hashFields(days, Math.floorMod(seconds, DateTimeUtils.SECONDS_PER_DAY), Math.floorMod(us, DateTimeUtils.US_PER_SECOND));
+                self.setHash(hash);
+            }
+            return hash;
+        }
+    }
+
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        abstract int op();
+
+        @Specialization
+        Object doDateTime(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            int op = op();
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return DateTimeNodes.applyOp(op, compareFields(self, other));
+            }
+            PTimeDelta offset1 = utcOffsetNode.execute(frame, self);
+            PTimeDelta offset2 = utcOffsetNode.execute(frame, other);
+            int cmp;
+            if (offsetsEqual(offset1, offset2)) {
+                cmp = compareFields(self, other);
+            } else if (offset1 != null && offset2 != null) {
+                cmp = Long.signum(difference(self, other, offset1, offset2));
+            } else if (op == DateTimeNodes.EQ || op == DateTimeNodes.NE) {
+                return op == DateTimeNodes.NE;
+            } else {
+                throw raise(TypeError, ErrorMessages.CANT_COMPARE_OFFSET_NAIVE_AND_OFFSET_AWARE_S, "datetimes");
+            }
+            if ((op == DateTimeNodes.EQ || op == DateTimeNodes.NE) && cmp == 0) {
+                if (pep495Exception(frame, self, offset1, getClassNode, utcOffsetNode) || pep495Exception(frame, other, offset2, getClassNode, utcOffsetNode)) {
+                    // PEP 495: inter-zone comparison of times in a fold or gap is never equal
+                    cmp = 1;
+                }
+            }
+            return DateTimeNodes.applyOp(op, cmp);
+        }
+
+        private boolean pep495Exception(VirtualFrame frame, PDateTime dt, PTimeDelta offset, GetClassNode getClassNode, UtcOffsetNode utcOffsetNode) {
+            Object tzinfo = dt.getTzInfo();
+            if (tzinfo == PNone.NONE || tzinfo instanceof PTimeZone) {
+                // fixed offsets do not depend on the fold
+                return false;
+            }
+            PDateTime flipped = withFold(factory(), getClassNode.execute(dt), dt, 1 - dt.getFold());
+            return !offsetsEqual(offset, utcOffsetNode.execute(frame, flipped));
+        }
+
+        @Specialization(guards = "!isDateTime(other)")
+        Object doDate(PDateTime self, PDate other,
+                        @Cached GetClassNode getClassNode) {
+            int op = op();
+            if (op == DateTimeNodes.EQ || op == DateTimeNodes.NE) {
+                return op == DateTimeNodes.NE;
+            }
+            throw raise(TypeError, ErrorMessages.CANT_COMPARE_S_TO_S, DateTimeNodes.getTypeName(getClassNode.execute(self)), DateTimeNodes.getTypeName(getClassNode.execute(other)));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isDateTime(Object value) {
+            return value instanceof PDateTime;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.EQ;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.NE;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LT;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LE;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GT;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GE;
+        }
+    }
+
+    /**
+     * Adds a (possibly negated) timedelta to a datetime. The result has the datetime's class and
+     * tzinfo and a fold of 0.
+     */
+    static Object addDelta(VirtualFrame frame, PythonBuiltinBaseNode node, PDateTime dt, long days, long seconds, long microseconds, GetClassNode getClassNode,
+                    NewDateTimeNode newDateTimeNode) {
+        long us = dt.getMicrosecond() + microseconds;
+        long s = dt.secondOfDay() + seconds + Math.floorDiv(us, DateTimeUtils.US_PER_SECOND);
+        long ordinal = dt.toOrdinal() + days + Math.floorDiv(s, DateTimeUtils.SECONDS_PER_DAY);
+        if (ordinal < 1 || ordinal > DateTimeUtils.MAXORDINAL) {
+            throw node.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+        }
+        int secondOfDay = (int) Math.floorMod(s, DateTimeUtils.SECONDS_PER_DAY);
+        int ymd = DateTimeUtils.ordToYmd((int) ordinal);
+        return newDateTimeNode.execute(frame, getClassNode.execute(dt), DateTimeUtils.unpackYear(ymd), DateTimeUtils.unpackMonth(ymd), DateTimeUtils.unpackDay(ymd), secondOfDay / 3600,
+                        secondOfDay / 60 % 60, secondOfDay % 60, (int) Math.floorMod(us, DateTimeUtils.US_PER_SECOND), dt.getTzInfo(), 0);
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object add(VirtualFrame frame, PDateTime self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return addDelta(frame, this, self, other.getDays(), other.getSeconds(), other.getMicroseconds(), getClassNode, newDateTimeNode);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object subDelta(VirtualFrame frame, PDateTime self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return addDelta(frame, this, self, -(long) other.getDays(), -other.getSeconds(), -other.getMicroseconds(), getClassNode, newDateTimeNode);
+        }
+
+        @Specialization
+        PTimeDelta subDateTime(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            PTimeDelta offset1 = null;
+            PTimeDelta offset2 = null;
+            if (self.getTzInfo() != other.getTzInfo()) {
+                offset1 = utcOffsetNode.execute(frame, self);
+                offset2 = utcOffsetNode.execute(frame, other);
+                if ((offset1 == null) != (offset2 == null)) {
+                    throw raise(TypeError, ErrorMessages.CANT_SUBTRACT_OFFSET_NAIVE_AND_OFFSET_AWARE_DATETIMES);
+                }
+            }
+            return DateTimeNodes.createDelta(this, factory(), 0, 0, difference(self, other, offset1, offset2));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    static Object reduce(PythonObjectFactory factory, PDateTime self, Object cls, int protocol) {
+        Object state = factory.createBytes(getState(self, protocol > 3));
+        Object[] args = self.hasTzInfo() ? new Object[]{state, self.getTzInfo()} : new Object[]{state};
+        return factory.createTuple(new Object[]{cls, factory.createTuple(args)});
+    }
+
+    @Builtin(name = __REDUCE_EX__, minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"$self", "protocol"})
+    @ArgumentClinic(name = "protocol", conversion = ArgumentClinic.ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ReduceExNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateTimeBuiltinsClinicProviders.ReduceExNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object reduceEx(PDateTime self, int protocol,
+                        @Cached GetClassNode getClassNode) {
+            return reduce(factory(), self, getClassNode.execute(self), protocol);
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDateTime self,
+                        @Cached GetClassNode getClassNode) {
+            return DateTimeBuiltins.reduce(factory(), self, getClassNode.execute(self), 2);
+        }
+    }
+}
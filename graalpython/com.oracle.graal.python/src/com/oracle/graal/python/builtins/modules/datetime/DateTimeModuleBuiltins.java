@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.AsIntFieldNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes.ToBytesNode;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+
+/**
+ * Native implementation of CPython's {@code _datetime} accelerator module. This module only holds
+ * the constructors of the types; their methods live in the respective {@code *Builtins} classes of
+ * this package, and the methods that depend on the local time zone are added in
+ * {@code lib-graalpython/_datetime.py} when the module is first imported.
+ */
+@CoreFunctions(defineModule = "_datetime")
+public class DateTimeModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateTimeModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        builtinConstants.put("MINYEAR", DateTimeUtils.MINYEAR);
+        builtinConstants.put("MAXYEAR", DateTimeUtils.MAXYEAR);
+        builtinConstants.put(SpecialAttributeNames.__DOC__, "Fast implementation of the datetime type.");
+        super.initialize(core);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        core.loadLazyCoreFile("_datetime");
+    }
+
+    /**
+     * Returns the pickled state of a date, time or datetime if {@code value} is a bytes object or
+     * a latin-1 string of the given length, or {@code null} otherwise.
+     */
+    static byte[] getPickleState(VirtualFrame frame, Object value, int length, ToBytesNode toBytesNode, CastToJavaStringNode castToStringNode) {
+        if (value instanceof PBytes) {
+            byte[] state = toBytesNode.execute(frame, value);
+            return state.length == length ? state : null;
+        } else if (PGuards.isString(value)) {
+            try {
+                return latin1State(castToStringNode.execute(value), length);
+            } catch (CannotCastException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] latin1State(String value, int length) {
+        if (value.length() != length) {
+            return null;
+        }
+        byte[] state = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c > 0xFF) {
+                return null;
+            }
+            state[i] = (byte) c;
+        }
+        return state;
+    }
+
+    @Builtin(name = "timedelta", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "days", "seconds", "microseconds", "milliseconds", "minutes", "hours", "weeks"}, //
+                    constructsClass = PythonBuiltinClassType.PTimeDelta, doc = "Difference between two datetime values.")
+    @GenerateNodeFactory
+    abstract static class TimeDeltaNode extends PythonBuiltinNode {
+        private static final String[] NAMES = {"days", "seconds", "microseconds", "milliseconds", "minutes", "hours", "weeks"};
+        private static final long[] FACTORS = {DateTimeUtils.US_PER_DAY, DateTimeUtils.US_PER_SECOND, 1, 1000, 60L * DateTimeUtils.US_PER_SECOND, 3600L * DateTimeUtils.US_PER_SECOND,
+                        7 * DateTimeUtils.US_PER_DAY};
+
+        @Specialization
+        PTimeDelta construct(Object cls, Object days, Object seconds, Object microseconds, Object milliseconds, Object minutes, Object hours, Object weeks,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode) {
+            Object[] args = {days, seconds, microseconds, milliseconds, minutes, hours, weeks};
+            long[] total = new long[1];
+            if (sumExact(args, total)) {
+                return DateTimeNodes.createDelta(this, factory(), cls, Math.floorDiv(total[0], DateTimeUtils.US_PER_DAY), 0, Math.floorMod(total[0], DateTimeUtils.US_PER_DAY));
+            }
+            // some component is a float, a large int or an int subclass
+            BigInteger sum = BigInteger.ZERO;
+            double[] leftover = new double[1];
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                if (arg == PNone.NO_VALUE) {
+                    continue;
+                }
+                if (longCheckNode.execute(arg)) {
+                    sum = accumulate(sum, toBigIntegerNode.execute(arg), FACTORS[i]);
+                } else if (arg instanceof Double || arg instanceof PFloat) {
+                    double value = arg instanceof Double ? (double) arg : ((PFloat) arg).getValue();
+                    if (!Double.isFinite(value)) {
+                        throw raise(Double.isNaN(value) ? ValueError : OverflowError, ErrorMessages.CANNOT_CONVERT_FLOAT_F_TO_INT, value);
+                    }
+                    sum = accumulate(sum, value, FACTORS[i], leftover);
+                } else {
+                    throw raise(TypeError, ErrorMessages.UNSUPPORTED_TYPE_FOR_TIMEDELTA_S_COMPONENT_P, NAMES[i], arg);
+                }
+            }
+            if (leftover[0] != 0.0) {
+                sum = roundLeftover(sum, leftover[0]);
+            }
+            return DateTimeNodes.createDelta(this, factory(), cls, sum);
+        }
+
+        /**
+         * Sums up the components in microseconds if they are all Java ints or longs and the sum
+         * does not overflow, which covers nearly all calls.
+         */
+        @ExplodeLoop
+        private static boolean sumExact(Object[] args, long[] total) {
+            long sum = 0;
+            for (int i = 0; i < FACTORS.length; i++) {
+                Object arg = args[i];
+                long value;
+                if (arg == PNone.NO_VALUE) {
+                    continue;
+                } else if (arg instanceof Integer) {
+                    value = (int) arg;
+                } else if (arg instanceof Long) {
+                    value = (long) arg;
+                } else {
+                    return false;
+                }
+                try {
+                    sum = Math.addExact(sum, Math.multiplyExact(value, FACTORS[i]));
+                } catch (ArithmeticException e) {
+                    return false;
+                }
+            }
+            total[0] = sum;
+            return true;
+        }
+
+        @TruffleBoundary
+        private static BigInteger accumulate(BigInteger sum, BigInteger value, long factor) {
+            return sum.add(value.multiply(BigInteger.valueOf(factor)));
+        }
+
+        /**
+         * Adds the integral microseconds of {@code value * factor} to the sum and collects the
+         * fractional part in {@code leftover}, like CPython's {@code accum}.
+         */
+        @TruffleBoundary
+        private static BigInteger accumulate(BigInteger sum, double value, long factor, double[] leftover) {
+            double intPart = value < 0 ? Math.ceil(value) : Math.floor(value);
+            double fracPart = value - intPart;
+            BigInteger result = sum.add(new BigDecimal(intPart).toBigInteger().multiply(BigInteger.valueOf(factor)));
+            if (fracPart == 0.0) {
+                return result;
+            }
+            fracPart *= factor;
+            intPart = fracPart < 0 ? Math.ceil(fracPart) : Math.floor(fracPart);
+            leftover[0] += fracPart - intPart;
+            return result.add(new BigDecimal(intPart).toBigInteger());
+        }
+
+        /**
+         * Rounds the fractional microseconds half to even, taking the parity of the sum into
+         * account when the leftover is exactly half way.
+         */
+        @TruffleBoundary
+        private static BigInteger roundLeftover(BigInteger sum, double leftover) {
+            double wholeUs = roundHalfAwayFromZero(leftover);
+            if (Math.abs(wholeUs - leftover) == 0.5) {
+                int isOdd = sum.testBit(0) ? 1 : 0;
+                wholeUs = 2.0 * roundHalfAwayFromZero((leftover + isOdd) * 0.5) - isOdd;
+            }
+            return sum.add(BigInteger.valueOf((long) wholeUs));
+        }
+
+        private static double roundHalfAwayFromZero(double value) {
+            return Math.copySign(Math.floor(Math.abs(value) + 0.5), value);
+        }
+    }
+
+    @Builtin(name = "date", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "year", "month", "day"}, constructsClass = PythonBuiltinClassType.PDate, //
+                    doc = "date(year, month, day) --> date object")
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonBuiltinNode {
+        @Specialization
+        PDate construct(VirtualFrame frame, Object cls, Object year, Object month, Object day,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (month == PNone.NO_VALUE) {
+                byte[] state = getPickleState(frame, year, 4, toBytesNode, castToStringNode);
+                if (state != null && state[2] >= 1 && state[2] <= 12) {
+                    return factory().createDate(cls, (state[0] & 0xFF) << 8 | (state[1] & 0xFF), state[2], state[3]);
+                }
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "date", "month", 2);
+            }
+            if (day == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "date", "day", 3);
+            }
+            int y = asIntNode.execute(frame, year);
+            int m = asIntNode.execute(frame, month);
+            int d = asIntNode.execute(frame, day);
+            DateTimeNodes.checkDateArgs(this, y, m, d);
+            return factory().createDate(cls, y, m, d);
+        }
+    }
+
+    @Builtin(name = "datetime", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "year", "month", "day", "hour", "minute", "second", "microsecond", "tzinfo"}, //
+                    keywordOnlyNames = {"fold"}, constructsClass = PythonBuiltinClassType.PDateTime, //
+                    doc = "datetime(year, month, day[, hour[, minute[, second[, microsecond[,tzinfo]]]]])\n\n" +
+                                    "The year, month and day arguments are required. tzinfo may be None, or an\n" +
+                                    "instance of a tzinfo subclass. The remaining arguments may be ints.\n")
+    @GenerateNodeFactory
+    abstract static class DateTimeNode extends PythonBuiltinNode {
+        @Specialization
+        PDateTime construct(VirtualFrame frame, Object cls, Object year, Object month, Object day, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (day == PNone.NO_VALUE) {
+                byte[] state = getPickleState(frame, year, 10, toBytesNode, castToStringNode);
+                if (state != null && (state[2] & 0x7F) >= 1 && (state[2] & 0x7F) <= 12) {
+                    Object tz = checkTzInfoNode.execute(month);
+                    int us = (state[7] & 0xFF) << 16 | (state[8] & 0xFF) << 8 | (state[9] & 0xFF);
+                    return factory().createDateTime(cls, (state[0] & 0xFF) << 8 | (state[1] & 0xFF), state[2] & 0x7F, state[3], state[4], state[5], state[6], us, tz, (state[2] & 0x80) >> 7);
+                }
+                if (month == PNone.NO_VALUE) {
+                    throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "datetime", "month", 2);
+                }
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "datetime", "day", 3);
+            }
+            int y = asIntNode.execute(frame, year);
+            int mo = asIntNode.execute(frame, month);
+            int d = asIntNode.execute(frame, day);
+            int h = asIntNode.execute(frame, hour, 0);
+            int mi = asIntNode.execute(frame, minute, 0);
+            int s = asIntNode.execute(frame, second, 0);
+            int us = asIntNode.execute(frame, microsecond, 0);
+            int f = asIntNode.execute(frame, fold, 0);
+            DateTimeNodes.checkDateArgs(this, y, mo, d);
+            DateTimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            return factory().createDateTime(cls, y, mo, d, h, mi, s, us, checkTzInfoNode.execute(tzinfo), f);
+        }
+    }
+
+    @Builtin(name = "time", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"}, //
+                    constructsClass = PythonBuiltinClassType.PTime, //
+                    doc = "time([hour[, minute[, second[, microsecond[, tzinfo]]]]]) --> a time object\n\n" +
+                                    "All arguments are optional. tzinfo may be None, or an instance of\n" +
+                                    "a tzinfo subclass. The remaining arguments may be ints.\n")
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonBuiltinNode {
+        @Specialization
+        PTime construct(VirtualFrame frame, Object cls, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (second == PNone.NO_VALUE) {
+                byte[] state = getPickleState(frame, hour, 6, toBytesNode, castToStringNode);
+                if (state != null && (state[0] & 0x7F) < 24) {
+                    Object tz = checkTzInfoNode.execute(minute);
+                    int us = (state[3] & 0xFF) << 16 | (state[4] & 0xFF) << 8 | (state[5] & 0xFF);
+                    return factory().createTime(cls, state[0] & 0x7F, state[1], state[2], us, tz, (state[0] & 0x80) >> 7);
+                }
+            }
+            int h = asIntNode.execute(frame, hour, 0);
+            int m = asIntNode.execute(frame, minute, 0);
+            int s = asIntNode.execute(frame, second, 0);
+            int us = asIntNode.execute(frame, microsecond, 0);
+            int f = asIntNode.execute(frame, fold, 0);
+            DateTimeNodes.checkTimeArgs(this, h, m, s, us, f);
+            return factory().createTime(cls, h, m, s, us, checkTzInfoNode.execute(tzinfo), f);
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PTzInfo, //
+                    doc = "Abstract base class for time zone info objects.")
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonBuiltinNode {
+        @Specialization
+        Object construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createPythonObject(cls);
+        }
+    }
+
+    @Builtin(name = "timezone", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "offset", "name"}, constructsClass = PythonBuiltinClassType.PTimeZone, //
+                    doc = "Fixed offset from UTC implementation of tzinfo.")
+    @GenerateNodeFactory
+    abstract static class TimeZoneNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object construct(VirtualFrame frame, Object cls, Object offset, Object name,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectLookupAttr lookupUtc) {
+            if (!(offset instanceof PTimeDelta)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "timezone()", 1, "datetime.timedelta", offset);
+            }
+            PTimeDelta delta = (PTimeDelta) offset;
+            String tzName = null;
+            if (name != PNone.NO_VALUE) {
+                try {
+                    tzName = castToStringNode.execute(name);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "timezone()", 2, "str", name);
+                }
+            }
+            DateTimeNodes.checkOffset(this, delta);
+            if (tzName == null && delta.isZero()) {
+                // the UTC singleton, unless it does not exist yet because we are creating it
+                Object utc = lookupUtc.execute(frame, cls, "utc");
+                if (utc instanceof PTimeZone) {
+                    return utc;
+                }
+            }
+            return factory().createTimeZone(cls, delta, tzName);
+        }
+    }
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetNameNode;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectTypeCheck;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Nodes and helpers shared by the {@code _datetime} types: argument conversion and validation,
+ * calls into user-defined {@code tzinfo} objects, and construction of results that respect
+ * subclasses the way CPython's {@code new_*_subclass} functions do.
+ */
+public final class DateTimeNodes {
+    static final String UTCOFFSET = "utcoffset";
+    static final String DST = "dst";
+    static final String TZNAME = "tzname";
+
+    private DateTimeNodes() {
+    }
+
+    /**
+     * The {@code tp_name} CPython would use in reprs: the qualified name for the builtin types and
+     * the plain class name for subclasses.
+     */
+    @TruffleBoundary
+    static String getTypeName(Object cls) {
+        if (cls instanceof PythonBuiltinClassType) {
+            return ((PythonBuiltinClassType) cls).getPrintName();
+        } else if (cls instanceof PythonBuiltinClass) {
+            return ((PythonBuiltinClass) cls).getType().getPrintName();
+        }
+        return GetNameNode.doSlowPath(cls);
+    }
+
+    /** Rich comparison operators, in the order of CPython's {@code Py_LT} etc. */
+    static final int LT = 0;
+    static final int LE = 1;
+    static final int EQ = 2;
+    static final int NE = 3;
+    static final int GT = 4;
+    static final int GE = 5;
+
+    /**
+     * Applies a comparison operator to the result of a three-way comparison.
+     */
+    static boolean applyOp(int op, int cmp) {
+        switch (op) {
+            case LT:
+                return cmp < 0;
+            case LE:
+                return cmp <= 0;
+            case EQ:
+                return cmp == 0;
+            case NE:
+                return cmp != 0;
+            case GT:
+                return cmp > 0;
+            case GE:
+                return cmp >= 0;
+            default:
+                throw CompilerDirectives.shouldNotReachHere();
+        }
+    }
+
+    static boolean isFloat(Object value) {
+        return value instanceof Double || value instanceof PFloat;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Validation
+
+    static void checkDateArgs(PNodeWithRaise node, int year, int month, int day) {
+        if (year < DateTimeUtils.MINYEAR || year > DateTimeUtils.MAXYEAR) {
+            throw node.raise(ValueError, ErrorMessages.YEAR_D_IS_OUT_OF_RANGE, year);
+        }
+        if (month < 1 || month > 12) {
+            throw node.raise(ValueError, ErrorMessages.MONTH_MUST_BE_IN_1_12);
+        }
+        if (day < 1 || day > DateTimeUtils.daysInMonth(year, month)) {
+            throw node.raise(ValueError, ErrorMessages.DAY_IS_OUT_OF_RANGE_FOR_MONTH);
+        }
+    }
+
+    static void checkTimeArgs(PNodeWithRaise node, int hour, int minute, int second, int microsecond, int fold) {
+        if (hour < 0 || hour > 23) {
+            throw node.raise(ValueError, ErrorMessages.HOUR_MUST_BE_IN_0_23);
+        }
+        if (minute < 0 || minute > 59) {
+            throw node.raise(ValueError, ErrorMessages.MINUTE_MUST_BE_IN_0_59);
+        }
+        if (second < 0 || second > 59) {
+            throw node.raise(ValueError, ErrorMessages.SECOND_MUST_BE_IN_0_59);
+        }
+        if (microsecond < 0 || microsecond > 999999) {
+            throw node.raise(ValueError, ErrorMessages.MICROSECOND_MUST_BE_IN_0_999999);
+        }
+        if (fold != 0 && fold != 1) {
+            throw node.raise(ValueError, ErrorMessages.FOLD_MUST_BE_EITHER_0_OR_1);
+        }
+    }
+
+    /**
+     * Checks that a UTC offset returned by a tzinfo is strictly within one day.
+     */
+    static void checkOffset(PNodeWithRaise node, PTimeDelta offset) {
+        int days = offset.getDays();
+        if (days < -1 || days > 0 || (days == -1 && offset.getSeconds() == 0 && offset.getMicroseconds() == 0)) {
+            String repr = DateTimeUtils.reprTimeDelta(getTypeName(PythonBuiltinClassType.PTimeDelta), days, offset.getSeconds(), offset.getMicroseconds());
+            throw node.raise(ValueError, ErrorMessages.OFFSET_MUST_BE_TIMEDELTA_STRICTLY_BETWEEN_S, repr);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // timedelta construction
+
+    /**
+     * Creates a normalized timedelta from possibly denormalized components. The components must be
+     * small enough that carrying microseconds into seconds and seconds into days cannot overflow.
+     */
+    static PTimeDelta createDelta(PNodeWithRaise node, PythonObjectFactory factory, Object cls, long days, long seconds, long microseconds) {
+        long s = seconds + Math.floorDiv(microseconds, DateTimeUtils.US_PER_SECOND);
+        int us = (int) Math.floorMod(microseconds, DateTimeUtils.US_PER_SECOND);
+        long d = days + Math.floorDiv(s, DateTimeUtils.SECONDS_PER_DAY);
+        int sec = (int) Math.floorMod(s, DateTimeUtils.SECONDS_PER_DAY);
+        if (d < -PTimeDelta.MAX_DELTA_DAYS || d > PTimeDelta.MAX_DELTA_DAYS) {
+            throw node.raise(OverflowError, ErrorMessages.DAYS_D_MUST_HAVE_MAGNITUDE_LE_D, d, PTimeDelta.MAX_DELTA_DAYS);
+        }
+        return factory.createTimeDelta(cls, (int) d, sec, us);
+    }
+
+    static PTimeDelta createDelta(PNodeWithRaise node, PythonObjectFactory factory, long days, long seconds, long microseconds) {
+        return createDelta(node, factory, PythonBuiltinClassType.PTimeDelta, days, seconds, microseconds);
+    }
+
+    /**
+     * Creates a timedelta from a total number of microseconds of arbitrary magnitude.
+     */
+    static PTimeDelta createDelta(PNodeWithRaise node, PythonObjectFactory factory, Object cls, BigInteger microseconds) {
+        long[] parts = splitMicroseconds(microseconds);
+        if (parts == null) {
+            throw node.raise(OverflowError, ErrorMessages.DAYS_D_MUST_HAVE_MAGNITUDE_LE_D, microseconds.divide(BigInteger.valueOf(DateTimeUtils.US_PER_DAY)), PTimeDelta.MAX_DELTA_DAYS);
+        }
+        return createDelta(node, factory, cls, parts[0], parts[1], parts[2]);
+    }
+
+    @TruffleBoundary
+    private static long[] splitMicroseconds(BigInteger microseconds) {
+        BigInteger[] qr = microseconds.divideAndRemainder(BigInteger.valueOf(DateTimeUtils.US_PER_DAY));
+        BigInteger days = qr[0];
+        long rest = qr[1].longValue();
+        if (rest < 0) {
+            days = days.subtract(BigInteger.ONE);
+            rest += DateTimeUtils.US_PER_DAY;
+        }
+        if (days.bitLength() > 31) {
+            return null;
+        }
+        return new long[]{days.longValue(), rest / DateTimeUtils.US_PER_SECOND, rest % DateTimeUtils.US_PER_SECOND};
+    }
+
+    @TruffleBoundary
+    static BigInteger toMicrosecondsBig(PTimeDelta delta) {
+        return BigInteger.valueOf(delta.getDays()).multiply(BigInteger.valueOf(DateTimeUtils.US_PER_DAY)).add(
+                        BigInteger.valueOf(delta.getSeconds() * (long) DateTimeUtils.US_PER_SECOND + delta.getMicroseconds()));
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Nodes
+
+    /**
+     * Converts a date or time component to an {@code int}. Like CPython's {@code "i"} argument
+     * format, floats are rejected even though they implement {@code __int__}.
+     */
+    abstract static class AsIntFieldNode extends PNodeWithRaise {
+        abstract int execute(VirtualFrame frame, Object value);
+
+        final int execute(VirtualFrame frame, Object value, int defaultValue) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            return execute(frame, value);
+        }
+
+        static AsIntFieldNode create() {
+            return DateTimeNodesFactory.AsIntFieldNodeGen.create();
+        }
+
+        @Specialization
+        static int doInt(int value) {
+            return value;
+        }
+
+        @Specialization(guards = "isFloat(value)")
+        int doFloat(@SuppressWarnings("unused") Object value) {
+            throw raise(TypeError, ErrorMessages.INTEGER_ARGUMENT_EXPECTED_GOT_FLOAT);
+        }
+
+        @Specialization(guards = "!isFloat(value)", replaces = "doInt")
+        static int doGeneric(VirtualFrame frame, Object value,
+                        @Cached PyLongAsIntNode asIntNode) {
+            return asIntNode.execute(frame, value);
+        }
+
+        static boolean isFloat(Object value) {
+            return DateTimeNodes.isFloat(value);
+        }
+    }
+
+    /**
+     * Validates a {@code tzinfo} argument and maps a missing value to {@code None}.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class CheckTzInfoNode extends PNodeWithRaise {
+        abstract Object execute(Object tzinfo);
+
+        static CheckTzInfoNode create() {
+            return DateTimeNodesFactory.CheckTzInfoNodeGen.create();
+        }
+
+        @Specialization
+        static Object doNone(@SuppressWarnings("unused") PNone tzinfo) {
+            return PNone.NONE;
+        }
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo) {
+            return tzinfo;
+        }
+
+        @Specialization(guards = {"!isPNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        Object doGeneric(Object tzinfo,
+                        @Cached PyObjectTypeCheck typeCheck) {
+            if (!typeCheck.execute(tzinfo, PythonBuiltinClassType.PTzInfo)) {
+                throw raise(TypeError, ErrorMessages.TZINFO_ARGUMENT_MUST_BE_NONE_OR_TZINFO_NOT_P, tzinfo);
+            }
+            return tzinfo;
+        }
+
+        static boolean isTimeZone(Object value) {
+            return value instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.utcoffset(arg)} or {@code tzinfo.dst(arg)} and validates the result.
+     * Returns {@code null} if the tzinfo is {@code None} or returned {@code None}. Fixed offset
+     * {@link PTimeZone}s are answered without a call.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class UtcOffsetNode extends PNodeWithRaise {
+        abstract PTimeDelta execute(VirtualFrame frame, Object tzinfo, Object arg, boolean dst);
+
+        final PTimeDelta execute(VirtualFrame frame, PDateTime dt) {
+            return execute(frame, dt.getTzInfo(), dt, false);
+        }
+
+        static UtcOffsetNode create() {
+            return DateTimeNodesFactory.UtcOffsetNodeGen.create();
+        }
+
+        @Specialization
+        static PTimeDelta doNone(@SuppressWarnings("unused") PNone tzinfo, @SuppressWarnings("unused") Object arg, @SuppressWarnings("unused") boolean dst) {
+            return null;
+        }
+
+        @Specialization
+        static PTimeDelta doTimeZone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg, boolean dst) {
+            return dst ? null : tzinfo.getOffset();
+        }
+
+        @Specialization(guards = {"!isPNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        PTimeDelta doGeneric(VirtualFrame frame, Object tzinfo, Object arg, boolean dst,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            String name = dst ? DST : UTCOFFSET;
+            Object result = callMethod.execute(frame, tzinfo, name, arg);
+            if (result == PNone.NONE) {
+                return null;
+            }
+            if (!(result instanceof PTimeDelta)) {
+                throw raise(TypeError, ErrorMessages.TZINFO_S_MUST_RETURN_NONE_OR_TIMEDELTA_NOT_P, name, result);
+            }
+            PTimeDelta offset = (PTimeDelta) result;
+            checkOffset(this, offset);
+            return offset;
+        }
+
+        static boolean isTimeZone(Object value) {
+            return value instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.tzname(arg)}, which must return {@code None} or a string.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class TzNameNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg);
+
+        static TzNameNode create() {
+            return DateTimeNodesFactory.TzNameNodeGen.create();
+        }
+
+        @Specialization
+        static Object doNone(PNone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return tzinfo;
+        }
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return TimeZoneBuiltins.getName(tzinfo);
+        }
+
+        @Specialization(guards = {"!isPNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        Object doGeneric(VirtualFrame frame, Object tzinfo, Object arg,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object result = callMethod.execute(frame, tzinfo, TZNAME, arg);
+            if (result != PNone.NONE && !PGuards.isString(result)) {
+                throw raise(TypeError, ErrorMessages.TZINFO_TZNAME_MUST_RETURN_NONE_OR_STRING_NOT_P, result);
+            }
+            return result;
+        }
+
+        static boolean isTimeZone(Object value) {
+            return value instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Creates a date of the given class. Subclasses are instantiated by calling the class, so that
+     * overridden constructors see the new value, as in CPython's {@code new_date_subclass_ex}.
+     */
+    abstract static class NewDateNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day);
+
+        static NewDateNode create() {
+            return DateTimeNodesFactory.NewDateNodeGen.create();
+        }
+
+        @Specialization
+        static Object doIt(VirtualFrame frame, Object cls, int year, int month, int day,
+                        @Cached IsBuiltinClassProfile isDateProfile,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isDateProfile.profileClass(cls, PythonBuiltinClassType.PDate)) {
+                return factory.createDate(cls, year, month, day);
+            } else if (isDateTimeProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                return factory.createDateTime(cls, year, month, day, 0, 0, 0, 0, PNone.NONE, 0);
+            }
+            return callNode.execute(frame, cls, year, month, day);
+        }
+    }
+
+    /**
+     * Creates a datetime of the given class, calling subclasses like
+     * {@code new_datetime_subclass_fold_ex}. The fold is only passed on if it is set.
+     */
+    abstract static class NewDateTimeNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold);
+
+        static NewDateTimeNode create() {
+            return DateTimeNodesFactory.NewDateTimeNodeGen.create();
+        }
+
+        @Specialization
+        static Object doIt(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isDateTimeProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                return factory.createDateTime(cls, year, month, day, hour, minute, second, microsecond, tzinfo, fold);
+            }
+            Object[] args = new Object[]{year, month, day, hour, minute, second, microsecond, tzinfo};
+            PKeyword[] keywords = fold != 0 ? new PKeyword[]{new PKeyword("fold", fold)} : PKeyword.EMPTY_KEYWORDS;
+            return callNode.execute(frame, cls, args, keywords);
+        }
+    }
+
+    /**
+     * Creates the tzinfo for the offset parsed by {@link DateTimeUtils#parseIsoTime}: {@code None}
+     * if there is no offset, {@code timezone.utc} for a zero offset and a fixed offset timezone
+     * otherwise.
+     */
+    abstract static class IsoTimeZoneNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, int[] time);
+
+        static IsoTimeZoneNode create() {
+            return DateTimeNodesFactory.IsoTimeZoneNodeGen.create();
+        }
+
+        @Specialization
+        Object doIt(VirtualFrame frame, int[] time,
+                        @Cached PythonObjectFactory factory,
+                        @Cached PyObjectLookupAttr lookupUtc) {
+            if (time[4] == 0) {
+                return PNone.NONE;
+            }
+            if (time[5] == 0 && time[6] == 0) {
+                return lookupUtc.execute(frame, PythonBuiltinClassType.PTimeZone, "utc");
+            }
+            PTimeDelta offset = createDelta(this, factory, 0, time[5], time[6]);
+            return factory.createTimeZone(PythonBuiltinClassType.PTimeZone, offset, null);
+        }
+    }
+}
@@ -0,0 +1,667 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Calendar algorithms and ISO-8601 formatting and parsing shared by the {@code _datetime} types.
+ * The algorithms follow CPython's {@code _datetimemodule.c}; in particular, dates use the
+ * proleptic Gregorian calendar with ordinal 1 being January 1 of year 1.
+ */
+public final class DateTimeUtils {
+    public static final int MINYEAR = 1;
+    public static final int MAXYEAR = 9999;
+    public static final int MAXORDINAL = 3652059;
+
+    public static final int SECONDS_PER_DAY = 24 * 3600;
+    public static final int US_PER_SECOND = 1000000;
+    public static final long US_PER_DAY = (long) SECONDS_PER_DAY * US_PER_SECOND;
+
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    private static final int DI4Y = 1461; // days in 4 years
+    private static final int DI100Y = 36524; // days in 100 years
+    private static final int DI400Y = 146097; // days in 400 years
+
+    /** Values of the {@code timespec} argument of {@code isoformat}. */
+    public static final int TIMESPEC_AUTO = 0;
+    public static final int TIMESPEC_HOURS = 1;
+    public static final int TIMESPEC_MINUTES = 2;
+    public static final int TIMESPEC_SECONDS = 3;
+    public static final int TIMESPEC_MILLISECONDS = 4;
+    public static final int TIMESPEC_MICROSECONDS = 5;
+
+    private DateTimeUtils() {
+    }
+
+    public static boolean isLeap(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int daysInMonth(int year, int month) {
+        assert month >= 1 && month <= 12;
+        if (month == 2 && isLeap(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    public static int daysBeforeMonth(int year, int month) {
+        assert month >= 1 && month <= 12;
+        int days = DAYS_BEFORE_MONTH[month];
+        if (month > 2 && isLeap(year)) {
+            days++;
+        }
+        return days;
+    }
+
+    /**
+     * Number of days in the years before {@code year}, i.e., the ordinal of December 31 of the
+     * previous year.
+     */
+    public static int daysBeforeYear(int year) {
+        int y = year - 1;
+        return y * 365 + y / 4 - y / 100 + y / 400;
+    }
+
+    public static int ymdToOrd(int year, int month, int day) {
+        return daysBeforeYear(year) + daysBeforeMonth(year, month) + day;
+    }
+
+    /**
+     * Converts an ordinal to year, month and day, packed as {@code year << 16 | month << 8 | day}.
+     * Use {@link #unpackYear}, {@link #unpackMonth} and {@link #unpackDay} to read them.
+     */
+    public static int ordToYmd(int ordinal) {
+        assert ordinal >= 1;
+        int n = ordinal - 1;
+        int n400 = n / DI400Y;
+        n = n % DI400Y;
+        int year = n400 * 400 + 1;
+
+        int n100 = n / DI100Y;
+        n = n % DI100Y;
+        int n4 = n / DI4Y;
+        n = n % DI4Y;
+        int n1 = n / 365;
+        n = n % 365;
+
+        year += n100 * 100 + n4 * 4 + n1;
+        if (n1 == 4 || n100 == 4) {
+            assert n == 0;
+            return pack(year - 1, 12, 31);
+        }
+
+        boolean leapyear = n1 == 3 && (n4 != 24 || n100 == 3);
+        assert leapyear == isLeap(year);
+        int month = (n + 50) >> 5;
+        int preceding = DAYS_BEFORE_MONTH[month] + (month > 2 && leapyear ? 1 : 0);
+        if (preceding > n) {
+            month--;
+            preceding -= month == 2 && leapyear ? 29 : DAYS_IN_MONTH[month];
+        }
+        n -= preceding;
+        assert 0 <= n && n < daysInMonth(year, month);
+        return pack(year, month, n + 1);
+    }
+
+    private static int pack(int year, int month, int day) {
+        return year << 16 | month << 8 | day;
+    }
+
+    public static int unpackYear(int ymd) {
+        return ymd >>> 16;
+    }
+
+    public static int unpackMonth(int ymd) {
+        return (ymd >> 8) & 0xFF;
+    }
+
+    public static int unpackDay(int ymd) {
+        return ymd & 0xFF;
+    }
+
+    /** Day of the week, where Monday is 0 and Sunday is 6. */
+    public static int weekday(int year, int month, int day) {
+        return (ymdToOrd(year, month, day) + 6) % 7;
+    }
+
+    /** The ordinal of the Monday starting week 1 of the ISO year. */
+    public static int isoWeek1Monday(int year) {
+        int firstDay = ymdToOrd(year, 1, 1);
+        int firstWeekday = (firstDay + 6) % 7;
+        int week1Monday = firstDay - firstWeekday;
+        if (firstWeekday > 3) {
+            // first week is the one with the first Thursday
+            week1Monday += 7;
+        }
+        return week1Monday;
+    }
+
+    /**
+     * Returns the ISO calendar triple {@code (year, week, weekday)}.
+     */
+    public static int[] isoCalendar(int year, int month, int day) {
+        int isoYear = year;
+        int week1Monday = isoWeek1Monday(isoYear);
+        int today = ymdToOrd(year, month, day);
+        int week = Math.floorDiv(today - week1Monday, 7);
+        int weekday = Math.floorMod(today - week1Monday, 7);
+        if (week < 0) {
+            --isoYear;
+            week1Monday = isoWeek1Monday(isoYear);
+            week = Math.floorDiv(today - week1Monday, 7);
+            weekday = Math.floorMod(today - week1Monday, 7);
+        } else if (week >= 52 && today >= isoWeek1Monday(isoYear + 1)) {
+            ++isoYear;
+            week = 0;
+        }
+        return new int[]{isoYear, week + 1, weekday + 1};
+    }
+
+    public static long hashFields(long a, long b, long c) {
+        long h = a;
+        h = h * 1000003L ^ b;
+        h = h * 1000003L ^ c;
+        return h == -1 ? -2 : h;
+    }
+
+    public static long hashFields(long a, long b, long c, long d, long e, long f, long g) {
+        long h = hashFields(a, b, c);
+        h = h * 1000003L ^ d;
+        h = h * 1000003L ^ e;
+        h = h * 1000003L ^ f;
+        h = h * 1000003L ^ g;
+        return h == -1 ? -2 : h;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Arithmetic helpers
+
+    /**
+     * Divides and rounds the result to the nearest integer, ties to even, like CPython's
+     * {@code divide_and_round}.
+     */
+    @TruffleBoundary
+    public static BigInteger divideAndRound(BigInteger dividend, BigInteger divisor) {
+        BigInteger num = dividend;
+        BigInteger den = divisor;
+        if (den.signum() < 0) {
+            num = num.negate();
+            den = den.negate();
+        }
+        BigInteger[] qr = num.divideAndRemainder(den);
+        BigInteger q = qr[0];
+        BigInteger r = qr[1];
+        if (r.signum() < 0) {
+            q = q.subtract(BigInteger.ONE);
+            r = r.add(den);
+        }
+        int cmp = r.shiftLeft(1).compareTo(den);
+        if (cmp > 0 || (cmp == 0 && q.testBit(0))) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q;
+    }
+
+    /**
+     * Returns {@code (numerator, denominator)} of a finite double, as
+     * {@code float.as_integer_ratio()}, with a positive denominator.
+     */
+    @TruffleBoundary
+    public static BigInteger[] asIntegerRatio(double value) {
+        BigDecimal decimal = new BigDecimal(value);
+        BigInteger numerator = decimal.unscaledValue();
+        int scale = decimal.scale();
+        if (scale <= 0) {
+            return new BigInteger[]{numerator.multiply(BigInteger.TEN.pow(-scale)), BigInteger.ONE};
+        }
+        return new BigInteger[]{numerator, BigInteger.TEN.pow(scale)};
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Formatting
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        assert value >= 0;
+        int digits = 1;
+        for (int v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    @TruffleBoundary
+    public static String formatDate(int year, int month, int day) {
+        StringBuilder sb = new StringBuilder(10);
+        appendDate(sb, year, month, day);
+        return sb.toString();
+    }
+
+    private static void appendDate(StringBuilder sb, int year, int month, int day) {
+        appendPadded(sb, year, 4);
+        sb.append('-');
+        appendPadded(sb, month, 2);
+        sb.append('-');
+        appendPadded(sb, day, 2);
+    }
+
+    private static void appendTime(StringBuilder sb, int hour, int minute, int second, int microsecond, int timespec) {
+        int spec = timespec;
+        if (spec == TIMESPEC_AUTO) {
+            spec = microsecond != 0 ? TIMESPEC_MICROSECONDS : TIMESPEC_SECONDS;
+        }
+        appendPadded(sb, hour, 2);
+        if (spec == TIMESPEC_HOURS) {
+            return;
+        }
+        sb.append(':');
+        appendPadded(sb, minute, 2);
+        if (spec == TIMESPEC_MINUTES) {
+            return;
+        }
+        sb.append(':');
+        appendPadded(sb, second, 2);
+        if (spec == TIMESPEC_MILLISECONDS) {
+            sb.append('.');
+            appendPadded(sb, microsecond / 1000, 3);
+        } else if (spec == TIMESPEC_MICROSECONDS) {
+            sb.append('.');
+            appendPadded(sb, microsecond, 6);
+        }
+    }
+
+    /**
+     * Appends a UTC offset in the form {@code +HH<sep>MM[<sep>SS[.ffffff]]}.
+     */
+    public static void appendOffset(StringBuilder sb, PTimeDelta offset, String sep) {
+        long us = offset.toMicroseconds();
+        if (us < 0) {
+            sb.append('-');
+            us = -us;
+        } else {
+            sb.append('+');
+        }
+        int microseconds = (int) (us % US_PER_SECOND);
+        int seconds = (int) (us / US_PER_SECOND);
+        int minutes = seconds / 60;
+        seconds %= 60;
+        int hours = minutes / 60;
+        minutes %= 60;
+        appendPadded(sb, hours, 2);
+        sb.append(sep);
+        appendPadded(sb, minutes, 2);
+        if (seconds != 0 || microseconds != 0) {
+            sb.append(sep);
+            appendPadded(sb, seconds, 2);
+            if (microseconds != 0) {
+                sb.append('.');
+                appendPadded(sb, microseconds, 6);
+            }
+        }
+    }
+
+    @TruffleBoundary
+    public static String formatOffset(PTimeDelta offset, String sep) {
+        StringBuilder sb = new StringBuilder(16);
+        appendOffset(sb, offset, sep);
+        return sb.toString();
+    }
+
+    /**
+     * Formats a time for {@code isoformat}. The offset may be {@code null}.
+     */
+    @TruffleBoundary
+    public static String formatTime(int hour, int minute, int second, int microsecond, int timespec, PTimeDelta offset) {
+        StringBuilder sb = new StringBuilder(21);
+        appendTime(sb, hour, minute, second, microsecond, timespec);
+        if (offset != null) {
+            appendOffset(sb, offset, ":");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats a datetime for {@code isoformat}. The offset may be {@code null}.
+     */
+    @TruffleBoundary
+    public static String formatDateTime(int year, int month, int day, String sep, int hour, int minute, int second, int microsecond, int timespec, PTimeDelta offset) {
+        StringBuilder sb = new StringBuilder(32);
+        appendDate(sb, year, month, day);
+        sb.append(sep);
+        appendTime(sb, hour, minute, second, microsecond, timespec);
+        if (offset != null) {
+            appendOffset(sb, offset, ":");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns one of the {@code TIMESPEC_*} constants or {@code -1} for unknown values.
+     */
+    public static int parseTimespec(String timespec) {
+        switch (timespec) {
+            case "auto":
+                return TIMESPEC_AUTO;
+            case "hours":
+                return TIMESPEC_HOURS;
+            case "minutes":
+                return TIMESPEC_MINUTES;
+            case "seconds":
+                return TIMESPEC_SECONDS;
+            case "milliseconds":
+                return TIMESPEC_MILLISECONDS;
+            case "microseconds":
+                return TIMESPEC_MICROSECONDS;
+            default:
+                return -1;
+        }
+    }
+
+    @TruffleBoundary
+    public static String formatCTime(int year, int month, int day, int hour, int minute, int second) {
+        StringBuilder sb = new StringBuilder(24);
+        sb.append(DAY_NAMES[weekday(year, month, day)]).append(' ');
+        sb.append(MONTH_NAMES[month - 1]).append(' ');
+        if (day < 10) {
+            sb.append(' ');
+        }
+        sb.append(day).append(' ');
+        appendPadded(sb, hour, 2);
+        sb.append(':');
+        appendPadded(sb, minute, 2);
+        sb.append(':');
+        appendPadded(sb, second, 2);
+        sb.append(' ');
+        appendPadded(sb, year, 4);
+        return sb.toString();
+    }
+
+    @TruffleBoundary
+    public static String formatTimeDelta(int days, int seconds, int microseconds) {
+        StringBuilder sb = new StringBuilder(32);
+        if (days != 0) {
+            sb.append(days).append(" day");
+            if (days != 1 && days != -1) {
+                sb.append('s');
+            }
+            sb.append(", ");
+        }
+        int minutes = seconds / 60;
+        int hours = minutes / 60;
+        sb.append(hours).append(':');
+        appendPadded(sb, minutes % 60, 2);
+        sb.append(':');
+        appendPadded(sb, seconds % 60, 2);
+        if (microseconds != 0) {
+            sb.append('.');
+            appendPadded(sb, microseconds, 6);
+        }
+        return sb.toString();
+    }
+
+    @TruffleBoundary
+    public static String reprTimeDelta(String typeName, int days, int seconds, int microseconds) {
+        StringBuilder sb = new StringBuilder(typeName).append('(');
+        String sep = "";
+        if (days != 0) {
+            sb.append("days=").append(days);
+            sep = ", ";
+        }
+        if (seconds != 0) {
+            sb.append(sep).append("seconds=").append(seconds);
+            sep = ", ";
+        }
+        if (microseconds != 0) {
+            sb.append(sep).append("microseconds=").append(microseconds);
+            sep = ", ";
+        }
+        if (sep.isEmpty()) {
+            sb.append('0');
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Builds the repr of a date, time or datetime from its leading non-zero components. The
+     * {@code tzinfoRepr} may be {@code null} for naive objects. As in CPython, datetime puts the
+     * fold before the tzinfo, time after it.
+     */
+    @TruffleBoundary
+    public static String reprFields(String typeName, int[] fields, int count, int fold, String tzinfoRepr, boolean foldFirst) {
+        StringBuilder sb = new StringBuilder(typeName).append('(');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(fields[i]);
+        }
+        if (foldFirst && fold != 0) {
+            sb.append(", fold=").append(fold);
+        }
+        if (tzinfoRepr != null) {
+            sb.append(", tzinfo=").append(tzinfoRepr);
+        }
+        if (!foldFirst && fold != 0) {
+            sb.append(", fold=").append(fold);
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Builds the time tuple passed to the {@code time.strftime} formatter, in the layout of
+     * {@code struct_time}.
+     */
+    public static int[] timeTuple(int year, int month, int day, int hour, int minute, int second, int isDst) {
+        int yday = daysBeforeMonth(year, month) + day;
+        return new int[]{year, month, day, hour, minute, second, weekday(year, month, day), yday, isDst};
+    }
+
+    /**
+     * Implements {@code strftime} for the datetime types. As in CPython's {@code wrap_strftime},
+     * the {@code %z}, {@code %Z} and {@code %f} directives are substituted first and the result
+     * is handed to the {@code time.strftime} formatter. The offset and name may be {@code null}.
+     */
+    @TruffleBoundary
+    public static String strftime(String format, int[] timeTuple, PTimeDelta offset, String tzName, int microsecond) {
+        StringBuilder sb = new StringBuilder(format.length() + 8);
+        int length = format.length();
+        for (int i = 0; i < length; i++) {
+            char c = format.charAt(i);
+            if (c != '%' || i + 1 >= length) {
+                sb.append(c);
+                continue;
+            }
+            char directive = format.charAt(++i);
+            switch (directive) {
+                case 'z':
+                    if (offset != null) {
+                        appendOffset(sb, offset, "");
+                    }
+                    break;
+                case 'Z':
+                    if (tzName != null) {
+                        sb.append(tzName.replace("%", "%%"));
+                    }
+                    break;
+                case 'f':
+                    appendPadded(sb, microsecond, 6);
+                    break;
+                default:
+                    sb.append('%').append(directive);
+                    break;
+            }
+        }
+        return TimeModuleBuiltins.StrfTimeNode.format(sb.toString(), timeTuple);
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Parsing
+
+    private static int parseDigits(String s, int start, int count) {
+        if (start + count > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses {@code YYYY-MM-DD} at the start of the string. Returns the packed date as in
+     * {@link #ordToYmd} or {@code -1} if the string is malformed. Range checks are left to the
+     * caller.
+     */
+    @TruffleBoundary
+    public static int parseIsoDate(String s) {
+        if (s.length() < 10) {
+            return -1;
+        }
+        int year = parseDigits(s, 0, 4);
+        int month = parseDigits(s, 5, 2);
+        int day = parseDigits(s, 8, 2);
+        if (year < 0 || month < 0 || day < 0 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return -1;
+        }
+        return pack(year, month, day);
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]]} in {@code s[start:end]} into
+     * {@code result[offset..offset+3]}. Returns {@code false} if the string is malformed.
+     */
+    private static boolean parseHhMmSsFf(String s, int start, int end, int[] result, int offset) {
+        int pos = start;
+        for (int comp = 0; comp < 3; comp++) {
+            if (end - pos < 2) {
+                return false;
+            }
+            int value = parseDigits(s, pos, 2);
+            if (value < 0) {
+                return false;
+            }
+            result[offset + comp] = value;
+            pos += 2;
+            if (pos >= end || comp >= 2) {
+                break;
+            }
+            if (s.charAt(pos) != ':') {
+                return false;
+            }
+            pos++;
+        }
+        if (pos < end) {
+            if (s.charAt(pos) != '.') {
+                return false;
+            }
+            pos++;
+            int remainder = end - pos;
+            if (remainder != 3 && remainder != 6) {
+                return false;
+            }
+            int fraction = parseDigits(s, pos, remainder);
+            if (fraction < 0) {
+                return false;
+            }
+            result[offset + 3] = remainder == 3 ? fraction * 1000 : fraction;
+        }
+        return true;
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]][+HH:MM[:SS[.ffffff]]]} starting at {@code start}.
+     * Returns {@code null} if the string is malformed, otherwise an array with hour, minute,
+     * second, microsecond, a flag whether an offset is present, and the signed offset seconds and
+     * microseconds.
+     */
+    @TruffleBoundary
+    public static int[] parseIsoTime(String s, int start) {
+        int len = s.length() - start;
+        if (len < 2) {
+            return null;
+        }
+        int tzPos = -1;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '+' || c == '-') {
+                tzPos = i;
+                break;
+            }
+        }
+        int[] result = new int[7];
+        if (!parseHhMmSsFf(s, start, tzPos < 0 ? s.length() : tzPos, result, 0)) {
+            return null;
+        }
+        if (tzPos >= 0) {
+            int tzLen = s.length() - tzPos - 1;
+            if (tzLen != 5 && tzLen != 8 && tzLen != 15) {
+                return null;
+            }
+            int[] tz = new int[4];
+            if (!parseHhMmSsFf(s, tzPos + 1, s.length(), tz, 0)) {
+                return null;
+            }
+            int sign = s.charAt(tzPos) == '-' ? -1 : 1;
+            result[4] = 1;
+            result[5] = sign * ((tz[0] * 60 + tz[1]) * 60 + tz[2]);
+            result[6] = sign * tz[3];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.AsIntFieldNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IsoTimeZoneNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzNameNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.UtcOffsetNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTime)
+public class TimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeBuiltinsFactory.getFactories();
+    }
+
+    static int compareFields(PTime a, PTime b) {
+        int cmp = Integer.compare(a.secondOfDay(), b.secondOfDay());
+        if (cmp == 0) {
+            cmp = Integer.compare(a.getMicrosecond(), b.getMicrosecond());
+        }
+        return cmp;
+    }
+
+    /**
+     * The time in microseconds since midnight minus the offset, which must not be {@code null}.
+     */
+    static long toUtcMicroseconds(PTime time, PTimeDelta offset) {
+        return time.secondOfDay() * (long) DateTimeUtils.US_PER_SECOND + time.getMicrosecond() - offset.toMicroseconds();
+    }
+
+    /**
+     * The UTC offset of a time, which is requested with a {@code None} argument.
+     */
+    static PTimeDelta utcOffset(VirtualFrame frame, PTime time, UtcOffsetNode utcOffsetNode) {
+        return utcOffsetNode.execute(frame, time.getTzInfo(), PNone.NONE, false);
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(VirtualFrame frame, PTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            int[] fields = {self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond()};
+            int count = self.getMicrosecond() != 0 ? 4 : self.getSecond() != 0 ? 3 : 2;
+            String tzinfo = self.hasTzInfo() ? reprNode.execute(frame, self.getTzInfo()) : null;
+            return DateTimeUtils.reprFields(DateTimeNodes.getTypeName(getClassNode.execute(self)), fields, count, self.getFold(), tzinfo, false);
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timespec"}, //
+                    doc = "Return string in ISO 8601 format, [HH[:MM[:SS[.mmm[uuu]]]]][+HH:MM].\n\n" +
+                                    "timespec specifies what components of the time to include.\n")
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String isoformat(VirtualFrame frame, PTime self, Object timespec,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            int spec = DateTimeBuiltins.parseTimespec(this, timespec, 1, castToStringNode);
+            PTimeDelta offset = utcOffset(frame, self, utcOffsetNode);
+            return DateTimeUtils.formatTime(self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), spec, offset);
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, PTime self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self, "isoformat");
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"}, doc = "format -> strftime() style string.")
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class StrfTimeNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimeBuiltinsClinicProviders.StrfTimeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static String strftime(VirtualFrame frame, PTime self, String format,
+                        @Cached UtcOffsetNode utcOffsetNode,
+                        @Cached TzNameNode tzNameNode) {
+            // like CPython, the date part is 1900-01-01
+            int[] tm = DateTimeUtils.timeTuple(1900, 1, 1, self.getHour(), self.getMinute(), self.getSecond(), -1);
+            PTimeDelta offset = null;
+            String tzName = null;
+            if (self.hasTzInfo()) {
+                if (format.contains("%z")) {
+                    offset = utcOffset(frame, self, utcOffsetNode);
+                }
+                if (format.contains("%Z")) {
+                    Object name = tzNameNode.execute(frame, self.getTzInfo(), PNone.NONE);
+                    tzName = name == PNone.NONE ? null : name.toString();
+                }
+            }
+            return DateTimeUtils.strftime(format, tm, offset, tzName, self.getMicrosecond());
+        }
+    }
+
+    @Builtin(name = __FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimeBuiltinsClinicProviders.FormatNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object format(VirtualFrame frame, Object self, String format,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (format.isEmpty()) {
+                return strNode.execute(frame, self);
+            }
+            return callMethod.execute(frame, self, "strftime", format);
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.utcoffset(self).")
+    @GenerateNodeFactory
+    abstract static class UtcOffsetBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcoffset(VirtualFrame frame, PTime self,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            PTimeDelta offset = utcOffset(frame, self, utcOffsetNode);
+            return offset != null ? offset : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.dst(self).")
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PTime self,
+                        @Cached UtcOffsetNode dstNode) {
+            PTimeDelta dst = dstNode.execute(frame, self.getTzInfo(), PNone.NONE, true);
+            return dst != null ? dst : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.tzname(self).")
+    @GenerateNodeFactory
+    abstract static class TzNameBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzname(VirtualFrame frame, PTime self,
+                        @Cached TzNameNode tzNameNode) {
+            return tzNameNode.execute(frame, self.getTzInfo(), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"}, //
+                    doc = "Return time with new specified fields.")
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonBuiltinNode {
+        @Specialization
+        PTime replace(VirtualFrame frame, PTime self, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached AsIntFieldNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode) {
+            int h = asIntNode.execute(frame, hour, self.getHour());
+            int mi = asIntNode.execute(frame, minute, self.getMinute());
+            int s = asIntNode.execute(frame, second, self.getSecond());
+            int us = asIntNode.execute(frame, microsecond, self.getMicrosecond());
+            int f = asIntNode.execute(frame, fold, self.getFold());
+            Object tz = tzinfo == PNone.NO_VALUE ? self.getTzInfo() : checkTzInfoNode.execute(tzinfo);
+            DateTimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            return factory().createTime(getClassNode.execute(self), h, mi, s, us, tz, f);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "string -> time from time.isoformat() output")
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromisoformat(VirtualFrame frame, Object cls, Object string,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode,
+                        @Cached IsoTimeZoneNode isoTimeZoneNode,
+                        @Cached IsBuiltinClassProfile isTimeProfile,
+                        @Cached CallNode callNode) {
+            String s = DateBuiltins.isoFormatArgument(this, string, castToStringNode);
+            int[] time = DateTimeUtils.parseIsoTime(s, 0);
+            if (time == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, reprNode.execute(frame, string));
+            }
+            DateTimeNodes.checkTimeArgs(this, time[0], time[1], time[2], time[3], 0);
+            Object tzinfo = isoTimeZoneNode.execute(frame, time);
+            if (isTimeProfile.profileClass(cls, PythonBuiltinClassType.PTime)) {
+                return factory().createTime(cls, time[0], time[1], time[2], time[3], tzinfo, 0);
+            }
+            return callNode.execute(frame, cls, new Object[]{time[0], time[1], time[2], time[3], tzinfo}, PKeyword.EMPTY_KEYWORDS);
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(VirtualFrame frame, PTime self,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            long hash = self.getCachedHash();
+            if (hash == -1) {
+                // the offset of a time does not depend on the fold, so equal times hash equally
+                PTimeDelta offset = utcOffset(frame, self, utcOffsetNode);
+                if (offset == null) {
+                    hash = DateTimeUtils.hashFields(0, self.secondOfDay(), self.getMicrosecond());
+                } else {
+                    long us = toUtcMicroseconds(self, offset);
+                    hash = DateTimeUtils.hashFields(Math.floorDiv(us, DateTimeUtils.US_PER_DAY), Math.floorMod(us, DateTimeUtils.US_PER_DAY) / DateTimeUtils.US_PER_SECOND,
+                                    Math.floorMod(us, DateTimeUtils.US_PER_SECOND));
+                }
+                self.setHash(hash);
+            }
+            return hash;
+        }
+    }
+
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        abstract int op();
+
+        @Specialization
+        Object doTime(VirtualFrame frame, PTime self, PTime other,
+                        @Cached UtcOffsetNode utcOffsetNode) {
+            int op = op();
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return DateTimeNodes.applyOp(op, compareFields(self, other));
+            }
+            PTimeDelta offset1 = utcOffset(frame, self, utcOffsetNode);
+            PTimeDelta offset2 = utcOffset(frame, other, utcOffsetNode);
+            if (DateTimeBuiltins.offsetsEqual(offset1, offset2)) {
+                return DateTimeNodes.applyOp(op, compareFields(self, other));
+            } else if (offset1 != null && offset2 != null) {
+                return DateTimeNodes.applyOp(op, Long.compare(toUtcMicroseconds(self, offset1), toUtcMicroseconds(other, offset2)));
+            } else if (op == DateTimeNodes.EQ || op == DateTimeNodes.NE) {
+                return op == DateTimeNodes.NE;
+            }
+            throw raise(TypeError, ErrorMessages.CANT_COMPARE_OFFSET_NAIVE_AND_OFFSET_AWARE_S, "times");
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.EQ;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.NE;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LT;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LE;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GT;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GE;
+        }
+    }
+
+    static Object reduce(PythonObjectFactory factory, PTime self, Object cls, int protocol) {
+        int us = self.getMicrosecond();
+        int hour = self.getHour() | (protocol > 3 ? self.getFold() << 7 : 0);
+        byte[] bytes = {(byte) hour, (byte) self.getMinute(), (byte) self.getSecond(), (byte) (us >> 16), (byte) (us >> 8), (byte) us};
+        Object state = factory.createBytes(bytes);
+        Object[] args = self.hasTzInfo() ? new Object[]{state, self.getTzInfo()} : new Object[]{state};
+        return factory.createTuple(new Object[]{cls, factory.createTuple(args)});
+    }
+
+    @Builtin(name = __REDUCE_EX__, minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"$self", "protocol"})
+    @ArgumentClinic(name = "protocol", conversion = ArgumentClinic.ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ReduceExNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimeBuiltinsClinicProviders.ReduceExNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object reduceEx(PTime self, int protocol,
+                        @Cached GetClassNode getClassNode) {
+            return reduce(factory(), self, getClassNode.execute(self), protocol);
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PTime self,
+                        @Cached GetClassNode getClassNode) {
+            return TimeBuiltins.reduce(factory(), self, getClassNode.execute(self), 2);
+        }
+    }
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUEDIV__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZeroDivisionError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTimeDelta)
+public class TimeDeltaBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeDeltaBuiltinsFactory.getFactories();
+    }
+
+    static int compare(PTimeDelta a, PTimeDelta b) {
+        int cmp = Integer.compare(a.getDays(), b.getDays());
+        if (cmp == 0) {
+            cmp = Integer.compare(a.getSeconds(), b.getSeconds());
+            if (cmp == 0) {
+                cmp = Integer.compare(a.getMicroseconds(), b.getMicroseconds());
+            }
+        }
+        return cmp;
+    }
+
+    private static Object toPythonInt(PythonObjectFactory factory, BigInteger value) {
+        if (value.bitLength() < 64) {
+            return value.longValue();
+        }
+        return factory.createInt(value);
+    }
+
+    @Builtin(name = "days", minNumOfPositionalArgs = 1, isGetter = true, doc = "Number of days.")
+    @GenerateNodeFactory
+    abstract static class DaysNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getDays();
+        }
+    }
+
+    @Builtin(name = "seconds", minNumOfPositionalArgs = 1, isGetter = true, doc = "Number of seconds (>= 0 and less than 1 day).")
+    @GenerateNodeFactory
+    abstract static class SecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getSeconds();
+        }
+    }
+
+    @Builtin(name = "microseconds", minNumOfPositionalArgs = 1, isGetter = true, doc = "Number of microseconds (>= 0 and less than 1 second).")
+    @GenerateNodeFactory
+    abstract static class MicrosecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getMicroseconds();
+        }
+    }
+
+    @Builtin(name = "total_seconds", minNumOfPositionalArgs = 1, doc = "Total seconds in the duration.")
+    @GenerateNodeFactory
+    abstract static class TotalSecondsNode extends PythonUnaryBuiltinNode {
+        private static final int MAX_EXACT_DAYS = 100000;
+
+        @Specialization
+        static double get(PTimeDelta self) {
+            if (Math.abs(self.getDays()) < MAX_EXACT_DAYS) {
+                long us = self.toMicroseconds();
+                if (Math.abs(us) < (1L << 53)) {
+                    // both operands are exact, so the division is correctly rounded
+                    return us / 1e6;
+                }
+            }
+            return totalSecondsSlow(self);
+        }
+
+        @TruffleBoundary
+        private static double totalSecondsSlow(PTimeDelta self) {
+            return new BigDecimal(DateTimeNodes.toMicrosecondsBig(self)).movePointLeft(6).doubleValue();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PTimeDelta self,
+                        @Cached GetClassNode getClassNode) {
+            return DateTimeUtils.reprTimeDelta(DateTimeNodes.getTypeName(getClassNode.execute(self)), self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String str(PTimeDelta self) {
+            return DateTimeUtils.formatTimeDelta(self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PTimeDelta self) {
+            return self.getHash();
+        }
+    }
+
+    @Builtin(name = __BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PTimeDelta self) {
+            return !self.isZero();
+        }
+    }
+
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        abstract int op();
+
+        @Specialization
+        boolean doDelta(PTimeDelta self, PTimeDelta other) {
+            return DateTimeNodes.applyOp(op(), compare(self, other));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.EQ;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.NE;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LT;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.LE;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GT;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        int op() {
+            return DateTimeNodes.GE;
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta add(PTimeDelta self, PTimeDelta other) {
+            return DateTimeNodes.createDelta(this, factory(), (long) self.getDays() + other.getDays(), self.getSeconds() + other.getSeconds(),
+                            self.getMicroseconds() + other.getMicroseconds());
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta sub(PTimeDelta self, PTimeDelta other) {
+            return DateTimeNodes.createDelta(this, factory(), (long) self.getDays() - other.getDays(), self.getSeconds() - other.getSeconds(),
+                            self.getMicroseconds() - other.getMicroseconds());
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta neg(PTimeDelta self) {
+            return DateTimeNodes.createDelta(this, factory(), -(long) self.getDays(), -self.getSeconds(), -self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta pos(PTimeDelta self) {
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta abs(PTimeDelta self) {
+            if (self.getDays() < 0) {
+                return DateTimeNodes.createDelta(this, factory(), -(long) self.getDays(), -self.getSeconds(), -self.getMicroseconds());
+            }
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __MUL__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    @ImportStatic(PGuards.class)
+    abstract static class MulNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "canBeInteger(other)")
+        PTimeDelta mulInt(PTimeDelta self, Object other,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode) {
+            BigInteger result = multiply(DateTimeNodes.toMicrosecondsBig(self), toBigIntegerNode.execute(other));
+            return DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, result);
+        }
+
+        @Specialization(guards = "isFloat(other)")
+        PTimeDelta mulFloat(PTimeDelta self, Object other) {
+            BigInteger[] ratio = DateTimeUtils.asIntegerRatio(asDouble(other));
+            BigInteger result = DateTimeUtils.divideAndRound(multiply(DateTimeNodes.toMicrosecondsBig(self), ratio[0]), ratio[1]);
+            return DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, result);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isFloat(Object value) {
+            return DateTimeNodes.isFloat(value);
+        }
+    }
+
+    @Builtin(name = __RMUL__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RMulNode extends MulNode {
+    }
+
+    @Builtin(name = __TRUEDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    @ImportStatic(PGuards.class)
+    abstract static class TrueDivNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        double divDelta(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            return trueDivide(DateTimeNodes.toMicrosecondsBig(self), DateTimeNodes.toMicrosecondsBig(other));
+        }
+
+        @Specialization(guards = "canBeInteger(other)")
+        PTimeDelta divInt(PTimeDelta self, Object other,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode) {
+            BigInteger divisor = toBigIntegerNode.execute(other);
+            if (divisor.signum() == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            BigInteger result = DateTimeUtils.divideAndRound(DateTimeNodes.toMicrosecondsBig(self), divisor);
+            return DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, result);
+        }
+
+        @Specialization(guards = "isFloat(other)")
+        PTimeDelta divFloat(PTimeDelta self, Object other) {
+            BigInteger[] ratio = DateTimeUtils.asIntegerRatio(asDouble(other));
+            if (ratio[0].signum() == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            BigInteger result = DateTimeUtils.divideAndRound(multiply(DateTimeNodes.toMicrosecondsBig(self), ratio[1]), ratio[0]);
+            return DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, result);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isFloat(Object value) {
+            return DateTimeNodes.isFloat(value);
+        }
+    }
+
+    @Builtin(name = __FLOORDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    @ImportStatic(PGuards.class)
+    abstract static class FloorDivNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object divDelta(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            return toPythonInt(factory(), floorDivide(DateTimeNodes.toMicrosecondsBig(self), DateTimeNodes.toMicrosecondsBig(other)));
+        }
+
+        @Specialization(guards = "canBeInteger(other)")
+        PTimeDelta divInt(PTimeDelta self, Object other,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode) {
+            BigInteger divisor = toBigIntegerNode.execute(other);
+            if (divisor.signum() == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            BigInteger result = floorDivide(DateTimeNodes.toMicrosecondsBig(self), divisor);
+            return DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, result);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+    }
+
+    @Builtin(name = __MOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta mod(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            BigInteger result = floorMod(DateTimeNodes.toMicrosecondsBig(self), DateTimeNodes.toMicrosecondsBig(other));
+            return DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, result);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __DIVMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object divmod(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            BigInteger a = DateTimeNodes.toMicrosecondsBig(self);
+            BigInteger b = DateTimeNodes.toMicrosecondsBig(other);
+            Object quotient = toPythonInt(factory(), floorDivide(a, b));
+            PTimeDelta remainder = DateTimeNodes.createDelta(this, factory(), PythonBuiltinClassType.PTimeDelta, floorMod(a, b));
+            return factory().createTuple(new Object[]{quotient, remainder});
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PTimeDelta self,
+                        @Cached GetClassNode getClassNode) {
+            Object state = factory().createTuple(new Object[]{self.getDays(), self.getSeconds(), self.getMicroseconds()});
+            return factory().createTuple(new Object[]{getClassNode.execute(self), state});
+        }
+    }
+
+    private static double asDouble(Object value) {
+        return value instanceof Double ? (double) value : ((PFloat) value).getValue();
+    }
+
+    @TruffleBoundary
+    private static BigInteger multiply(BigInteger a, BigInteger b) {
+        return a.multiply(b);
+    }
+
+    @TruffleBoundary
+    private static BigInteger floorDivide(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        if (qr[1].signum() != 0 && qr[1].signum() != b.signum()) {
+            return qr[0].subtract(BigInteger.ONE);
+        }
+        return qr[0];
+    }
+
+    @TruffleBoundary
+    private static BigInteger floorMod(BigInteger a, BigInteger b) {
+        BigInteger r = a.remainder(b);
+        if (r.signum() != 0 && r.signum() != b.signum()) {
+            return r.add(b);
+        }
+        return r;
+    }
+
+    @TruffleBoundary
+    private static double trueDivide(BigInteger a, BigInteger b) {
+        return new BigDecimal(a).divide(new BigDecimal(b), java.math.MathContext.DECIMAL128).doubleValue();
+    }
+}
@@ -0,0 +1,1056 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CEIL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOOR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RDIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RFLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ROUND__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RSUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RTRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUNC__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandOrRaiseNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetContextNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetRoundingNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.formatting.InternalFormat;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimal)
+public class DecimalBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalBuiltinsFactory.getFactories();
+    }
+
+    /** Rich comparison operators, in the order of CPython's {@code Py_LT} etc. */
+    static final int LT = 0;
+    static final int LE = 1;
+    static final int EQ = 2;
+    static final int NE = 3;
+    static final int GT = 4;
+    static final int GE = 5;
+
+    private static boolean applyOp(int op, int cmp) {
+        switch (op) {
+            case LT:
+                return cmp < 0;
+            case LE:
+                return cmp <= 0;
+            case EQ:
+                return cmp == 0;
+            case NE:
+                return cmp != 0;
+            case GT:
+                return cmp > 0;
+            case GE:
+                return cmp >= 0;
+            default:
+                throw CompilerDirectives.shouldNotReachHere();
+        }
+    }
+
+    static boolean isFloat(Object value) {
+        return value instanceof Double || value instanceof PFloat;
+    }
+
+    static double asDouble(Object value) {
+        return value instanceof Double ? (double) value : ((PFloat) value).getValue();
+    }
+
+    private static Object toPythonInt(PythonObjectFactory factory, BigInteger value) {
+        if (value.bitLength() < 64) {
+            return value.longValue();
+        }
+        return factory.createInt(value);
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Comparison
+
+    abstract static class RichCompareNode extends PythonBinaryBuiltinNode {
+        private static final String COMPARE_OTHER = "_compare_other";
+
+        abstract int op();
+
+        @Specialization
+        Object compare(VirtualFrame frame, PDecimal self, Object other,
+                        @Cached ConvertOperandNode convertNode,
+                        @Cached CallNode callNode) {
+            int op = op();
+            DecimalValue a = self.getValue();
+            DecimalValue b = convertNode.execute(other);
+            if (b == null) {
+                if (!isFloat(other)) {
+                    // Rationals and complex numbers
+                    return callNode.execute(frame, DecimalNodes.getModuleAttribute(this, COMPARE_OTHER), self, other, op);
+                }
+                PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+                if (op == EQ || op == NE) {
+                    ctx.setFlags(ctx.getFlags() | PDecimalContext.FLOAT_OPERATION);
+                } else {
+                    DecimalNodes.addStatus(this, ctx, PDecimalContext.FLOAT_OPERATION);
+                }
+                b = DecimalMath.fromDouble(asDouble(other));
+            }
+            if (a.isNaN() || b.isNaN()) {
+                // signaling NaNs and ordering comparisons with NaNs are invalid
+                if (a.isSNaN() || b.isSNaN() || (op != EQ && op != NE)) {
+                    DecimalNodes.addStatus(this, DecimalNodes.getCurrentContext(getContext(), getLanguage()), PDecimalContext.INVALID_OPERATION);
+                }
+                return op == NE;
+            }
+            return applyOp(op, DecimalMath.cmp(a, b));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends RichCompareNode {
+        @Override
+        int op() {
+            return EQ;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends RichCompareNode {
+        @Override
+        int op() {
+            return NE;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends RichCompareNode {
+        @Override
+        int op() {
+            return LT;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends RichCompareNode {
+        @Override
+        int op() {
+            return LE;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends RichCompareNode {
+        @Override
+        int op() {
+            return GT;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends RichCompareNode {
+        @Override
+        int op() {
+            return GE;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(PDecimal self) {
+            DecimalValue value = self.getValue();
+            if (value.isSNaN()) {
+                throw raise(TypeError, ErrorMessages.CANNOT_HASH_SIGNALING_NAN);
+            }
+            return DecimalMath.hash(value);
+        }
+    }
+
+    @Builtin(name = __BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PDecimal self) {
+            return !self.getValue().isZero();
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Arithmetic
+
+    abstract static class UnaryArithmeticNode extends PythonUnaryBuiltinNode {
+        abstract DecimalValue compute(DecimalValue a, PDecimalContext ctx);
+
+        @Specialization
+        Object op(PDecimal self) {
+            PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+            DecimalValue result = compute(self.getValue(), ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = __NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends UnaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.minus(a, ctx);
+        }
+    }
+
+    @Builtin(name = __POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends UnaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.plus(a, ctx);
+        }
+    }
+
+    @Builtin(name = __ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends UnaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.abs(a, ctx);
+        }
+    }
+
+    /**
+     * A binary operator. The reflected variants swap the operands, which matters for more than the
+     * non-commutative operators because the first NaN operand determines the result.
+     */
+    abstract static class BinaryArithmeticNode extends PythonBinaryBuiltinNode {
+        abstract DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx);
+
+        boolean isReflected() {
+            return false;
+        }
+
+        @Specialization
+        Object op(PDecimal self, Object other,
+                        @Cached ConvertOperandNode convertNode) {
+            DecimalValue b = convertNode.execute(other);
+            if (b == null) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+            DecimalValue result = isReflected() ? compute(b, self.getValue(), ctx) : compute(self.getValue(), b, ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends BinaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.add(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends BinaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.subtract(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = __RSUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RSubNode extends SubNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __MUL__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class MulNode extends BinaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.multiply(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = __RMUL__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RMulNode extends MulNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __TRUEDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class TrueDivNode extends BinaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.divide(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = __RTRUEDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RTrueDivNode extends TrueDivNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __FLOORDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class FloorDivNode extends BinaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.divideInt(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = __RFLOORDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RFloorDivNode extends FloorDivNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __MOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ModNode extends BinaryArithmeticNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.remainder(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = __RMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RModNode extends ModNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __DIVMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends PythonBinaryBuiltinNode {
+        boolean isReflected() {
+            return false;
+        }
+
+        @Specialization
+        Object divmod(PDecimal self, Object other,
+                        @Cached ConvertOperandNode convertNode) {
+            DecimalValue b = convertNode.execute(other);
+            if (b == null) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+            DecimalValue[] result = isReflected() ? DecimalMath.divmod(b, self.getValue(), ctx) : DecimalMath.divmod(self.getValue(), b, ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createTuple(new Object[]{factory().createDecimal(result[0]), factory().createDecimal(result[1])});
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __RDIVMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RDivModNode extends DivModNode {
+        @Override
+        boolean isReflected() {
+            return true;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Methods with an optional context
+
+    abstract static class UnaryMethodNode extends PythonBinaryBuiltinNode {
+        abstract DecimalValue compute(DecimalValue a, PDecimalContext ctx);
+
+        @Specialization
+        Object op(PDecimal self, Object context,
+                        @Cached GetContextNode getContextNode) {
+            PDecimalContext ctx = getContextNode.execute(context);
+            DecimalValue result = compute(self.getValue(), ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+    }
+
+    abstract static class BinaryMethodNode extends PythonTernaryBuiltinNode {
+        abstract DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx);
+
+        @Specialization
+        Object op(PDecimal self, Object other, Object context,
+                        @Cached ConvertOperandOrRaiseNode convertNode,
+                        @Cached GetContextNode getContextNode) {
+            DecimalValue b = convertNode.execute(other);
+            PDecimalContext ctx = getContextNode.execute(context);
+            DecimalValue result = compute(self.getValue(), b, ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "normalize", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"}, doc = "Normalize the number by stripping the rightmost trailing zeros and\n" +
+                    "converting any result equal to Decimal('0') to Decimal('0e0').")
+    @GenerateNodeFactory
+    abstract static class NormalizeNode extends UnaryMethodNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.normalize(a, ctx);
+        }
+    }
+
+    @Builtin(name = "compare", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"}, doc = "Compare self to other.  Return a decimal value:\n\n" +
+                    "    a or b is a NaN ==> Decimal('NaN')\n    a < b           ==> Decimal('-1')\n    a == b          ==> Decimal('0')\n    a > b           ==> Decimal('1')\n")
+    @GenerateNodeFactory
+    abstract static class CompareNode extends BinaryMethodNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.compare(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "max", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"}, doc = "Maximum of self and other.  If one operand is a quiet NaN and the other is\n" +
+                    "numeric, the numeric operand is returned.")
+    @GenerateNodeFactory
+    abstract static class MaxNode extends BinaryMethodNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.max(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "min", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"}, doc = "Minimum of self and other. If one operand is a quiet NaN and the other is\n" +
+                    "numeric, the numeric operand is returned.")
+    @GenerateNodeFactory
+    abstract static class MinNode extends BinaryMethodNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.min(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "quantize", minNumOfPositionalArgs = 2, parameterNames = {"$self", "exp", "rounding", "context"}, doc = "Return a value equal to the first operand after rounding and having the\n" +
+                    "exponent of the second operand.")
+    @GenerateNodeFactory
+    abstract static class QuantizeNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object quantize(PDecimal self, Object exp, Object rounding, Object context,
+                        @Cached ConvertOperandOrRaiseNode convertNode,
+                        @Cached GetContextNode getContextNode,
+                        @Cached GetRoundingNode getRoundingNode) {
+            DecimalValue e = convertNode.execute(exp);
+            PDecimalContext ctx = getContextNode.execute(context);
+            DecimalValue result = DecimalMath.quantize(self.getValue(), e, getRoundingNode.execute(rounding, ctx), ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+    }
+
+    abstract static class ToIntegralBaseNode extends PythonTernaryBuiltinNode {
+        boolean isExact() {
+            return false;
+        }
+
+        @Specialization
+        Object toIntegral(PDecimal self, Object rounding, Object context,
+                        @Cached GetContextNode getContextNode,
+                        @Cached GetRoundingNode getRoundingNode) {
+            PDecimalContext ctx = getContextNode.execute(context);
+            DecimalValue result = DecimalMath.toIntegral(self.getValue(), getRoundingNode.execute(rounding, ctx), ctx, isExact());
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "to_integral_value", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"}, doc = "Round to the nearest integer without signaling Inexact or Rounded.")
+    @GenerateNodeFactory
+    abstract static class ToIntegralValueNode extends ToIntegralBaseNode {
+    }
+
+    @Builtin(name = "to_integral", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"}, doc = "Identical to the to_integral_value() method.")
+    @GenerateNodeFactory
+    abstract static class ToIntegralNode extends ToIntegralBaseNode {
+    }
+
+    @Builtin(name = "to_integral_exact", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"}, doc = "Round to the nearest integer, signaling Inexact or Rounded as appropriate.")
+    @GenerateNodeFactory
+    abstract static class ToIntegralExactNode extends ToIntegralBaseNode {
+        @Override
+        boolean isExact() {
+            return true;
+        }
+    }
+
+    @Builtin(name = "same_quantum", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"}, doc = "Test whether self and other have the same exponent or whether both are NaN.")
+    @GenerateNodeFactory
+    abstract static class SameQuantumNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static boolean sameQuantum(PDecimal self, Object other, @SuppressWarnings("unused") Object context,
+                        @Cached ConvertOperandOrRaiseNode convertNode) {
+            return DecimalMath.sameQuantum(self.getValue(), convertNode.execute(other));
+        }
+    }
+
+    @Builtin(name = "is_normal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"}, doc = "Return True if the argument is a normal finite non-zero number with an\n" +
+                    "adjusted exponent greater than or equal to Emin.")
+    @GenerateNodeFactory
+    abstract static class IsNormalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isNormal(PDecimal self, Object context,
+                        @Cached GetContextNode getContextNode) {
+            return DecimalMath.isNormal(self.getValue(), getContextNode.execute(context));
+        }
+    }
+
+    @Builtin(name = "is_subnormal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"}, doc = "Return True if the argument is subnormal, and False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsSubnormalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isSubnormal(PDecimal self, Object context,
+                        @Cached GetContextNode getContextNode) {
+            return DecimalMath.isSubnormal(self.getValue(), getContextNode.execute(context));
+        }
+    }
+
+    @Builtin(name = "to_eng_string", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"}, doc = "Convert to an engineering-type string.")
+    @GenerateNodeFactory
+    abstract static class ToEngStringNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static String toEngString(PDecimal self, Object context,
+                        @Cached GetContextNode getContextNode) {
+            return DecimalMath.toString(self.getValue(), true, getContextNode.execute(context).getCapitals() == 1);
+        }
+    }
+
+    @Builtin(name = "copy_sign", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"}, doc = "Return a copy of the first operand with the sign set to be the same as the\n" +
+                    "sign of the second operand.")
+    @GenerateNodeFactory
+    abstract static class CopySignNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object copySign(PDecimal self, Object other, @SuppressWarnings("unused") Object context,
+                        @Cached ConvertOperandOrRaiseNode convertNode) {
+            return factory().createDecimal(self.getValue().withSign(convertNode.execute(other).isNegative()));
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Quiet methods
+
+    @Builtin(name = "copy_abs", minNumOfPositionalArgs = 1, doc = "Return the absolute value of the argument.")
+    @GenerateNodeFactory
+    abstract static class CopyAbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object copyAbs(PDecimal self) {
+            return factory().createDecimal(self.getValue().abs());
+        }
+    }
+
+    @Builtin(name = "copy_negate", minNumOfPositionalArgs = 1, doc = "Return the negation of the argument.")
+    @GenerateNodeFactory
+    abstract static class CopyNegateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object copyNegate(PDecimal self) {
+            return factory().createDecimal(self.getValue().negate());
+        }
+    }
+
+    @Builtin(name = "adjusted", minNumOfPositionalArgs = 1, doc = "Return the adjusted exponent of the number.")
+    @GenerateNodeFactory
+    abstract static class AdjustedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long adjusted(PDecimal self) {
+            return self.getValue().adjusted();
+        }
+    }
+
+    @Builtin(name = "as_tuple", minNumOfPositionalArgs = 1, doc = "Return a tuple representation of the number.")
+    @GenerateNodeFactory
+    abstract static class AsTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object asTuple(VirtualFrame frame, PDecimal self,
+                        @Cached CallNode callNode) {
+            DecimalValue value = self.getValue();
+            Object exp;
+            Object[] digits;
+            if (value.isInfinite()) {
+                exp = "F";
+                digits = new Object[]{0};
+            } else {
+                if (value.isNaN()) {
+                    exp = value.isSNaN() ? "N" : "n";
+                } else {
+                    exp = value.getExponent();
+                }
+                digits = coefficientDigits(value);
+            }
+            Object decimalTuple = DecimalNodes.getModuleAttribute(this, "DecimalTuple");
+            return callNode.execute(frame, decimalTuple, value.isNegative() ? 1 : 0, factory().createTuple(digits), exp);
+        }
+
+        private static Object[] coefficientDigits(DecimalValue value) {
+            if (value.isNaN() && value.isCoefficientZero()) {
+                return new Object[0];
+            }
+            String s = coefficientString(value);
+            Object[] digits = new Object[s.length()];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = s.charAt(i) - '0';
+            }
+            return digits;
+        }
+    }
+
+    @TruffleBoundary
+    private static String coefficientString(DecimalValue value) {
+        return value.isCompact() ? Long.toString(value.getCompact()) : value.getCoefficient().toString();
+    }
+
+    @Builtin(name = "is_canonical", minNumOfPositionalArgs = 1, doc = "Return True if the argument is canonical and False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsCanonicalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isCanonical(@SuppressWarnings("unused") PDecimal self) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "is_finite", minNumOfPositionalArgs = 1, doc = "Return True if the argument is a finite number, and False if the argument is\ninfinite or a NaN.")
+    @GenerateNodeFactory
+    abstract static class IsFiniteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isFinite(PDecimal self) {
+            return self.getValue().isFinite();
+        }
+    }
+
+    @Builtin(name = "is_infinite", minNumOfPositionalArgs = 1, doc = "Return True if the argument is either positive or negative infinity and False\notherwise.")
+    @GenerateNodeFactory
+    abstract static class IsInfiniteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isInfinite(PDecimal self) {
+            return self.getValue().isInfinite();
+        }
+    }
+
+    @Builtin(name = "is_nan", minNumOfPositionalArgs = 1, doc = "Return True if the argument is a (quiet or signaling) NaN and False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsNaNNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isNaN(PDecimal self) {
+            return self.getValue().isNaN();
+        }
+    }
+
+    @Builtin(name = "is_qnan", minNumOfPositionalArgs = 1, doc = "Return True if the argument is a quiet NaN, and False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsQNaNNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isQNaN(PDecimal self) {
+            return self.getValue().isQNaN();
+        }
+    }
+
+    @Builtin(name = "is_snan", minNumOfPositionalArgs = 1, doc = "Return True if the argument is a signaling NaN and False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsSNaNNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isSNaN(PDecimal self) {
+            return self.getValue().isSNaN();
+        }
+    }
+
+    @Builtin(name = "is_signed", minNumOfPositionalArgs = 1, doc = "Return True if the argument has a negative sign and False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsSignedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isSigned(PDecimal self) {
+            return self.getValue().isNegative();
+        }
+    }
+
+    @Builtin(name = "is_zero", minNumOfPositionalArgs = 1, doc = "Return True if the argument is a (positive or negative) zero and False\notherwise.")
+    @GenerateNodeFactory
+    abstract static class IsZeroNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isZero(PDecimal self) {
+            return self.getValue().isZero();
+        }
+    }
+
+    @Builtin(name = "canonical", minNumOfPositionalArgs = 1, doc = "Return the canonical encoding of the argument.")
+    @GenerateNodeFactory
+    abstract static class CanonicalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object canonical(PDecimal self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "conjugate", minNumOfPositionalArgs = 1, doc = "Return self.")
+    @GenerateNodeFactory
+    abstract static class ConjugateNode extends CanonicalNode {
+    }
+
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends CanonicalNode {
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object deepcopy(PDecimal self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "real", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class RealNode extends CanonicalNode {
+    }
+
+    @Builtin(name = "imag", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ImagNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object imag(@SuppressWarnings("unused") PDecimal self) {
+            return factory().createDecimal(DecimalValue.ZERO);
+        }
+    }
+
+    @Builtin(name = "radix", minNumOfPositionalArgs = 1, doc = "Return Decimal(10), the radix (base) in which the Decimal class does\nall its arithmetic.")
+    @GenerateNodeFactory
+    abstract static class RadixNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object radix(@SuppressWarnings("unused") PDecimal self) {
+            return factory().createDecimal(DecimalValue.finite(false, 10, 0));
+        }
+    }
+
+    @Builtin(name = "from_float", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "Class method that converts a float to a decimal number, exactly.")
+    @GenerateNodeFactory
+    abstract static class FromFloatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromFloat(VirtualFrame frame, Object cls, Object f,
+                        @Cached ConvertOperandNode convertNode,
+                        @Cached IsBuiltinClassProfile isDecimalProfile,
+                        @Cached CallNode callNode) {
+            DecimalValue value;
+            if (isFloat(f)) {
+                value = DecimalMath.fromDouble(asDouble(f));
+            } else if (f instanceof PDecimal || (value = convertNode.execute(f)) == null) {
+                throw raise(TypeError, ErrorMessages.ARG_MUST_BE_INT_OR_FLOAT);
+            }
+            if (isDecimalProfile.profileClass(cls, PythonBuiltinClassType.PDecimal)) {
+                return factory().createDecimal(cls, value);
+            }
+            return callNode.execute(frame, cls, factory().createDecimal(value));
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Conversions
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        String str(PDecimal self) {
+            PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+            return DecimalMath.toString(self.getValue(), false, ctx.getCapitals() == 1);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        String repr(PDecimal self) {
+            PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+            return "Decimal('" + DecimalMath.toString(self.getValue(), false, ctx.getCapitals() == 1) + "')";
+        }
+    }
+
+    @Builtin(name = __FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format_spec", "override"})
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object format(VirtualFrame frame, PDecimal self, Object formatSpec, Object override,
+                        @Cached CallNode callNode) {
+            Spec spec = InternalFormat.fromText(getRaiseNode(), formatSpec, __FORMAT__);
+            if (!(override instanceof PNone) || spec.type == 'n') {
+                // locale-specific separators are left to _pydecimal
+                Object formatWithLocale = DecimalNodes.getModuleAttribute(this, "_format_with_locale");
+                return callNode.execute(frame, formatWithLocale, self, formatSpec, override == PNone.NO_VALUE ? PNone.NONE : override);
+            }
+            if (!isFormatType(spec.type)) {
+                throw raise(ValueError, ErrorMessages.INVALID_FORMAT_STRING);
+            }
+            return DecimalMath.format(self.getValue(), spec, DecimalNodes.getCurrentContext(getContext(), getLanguage()));
+        }
+
+        private static boolean isFormatType(char type) {
+            switch (type) {
+                case Spec.NONE:
+                case 'e':
+                case 'E':
+                case 'f':
+                case 'F':
+                case 'g':
+                case 'G':
+                case '%':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDecimal self,
+                        @Cached GetClassNode getClassNode) {
+            String str = DecimalMath.toString(self.getValue(), false, true);
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(new Object[]{str})});
+        }
+    }
+
+    @Builtin(name = __FLOAT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FloatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        double toFloat(PDecimal self) {
+            DecimalValue value = self.getValue();
+            if (value.isSNaN()) {
+                throw raise(ValueError, ErrorMessages.CANNOT_CONVERT_SIGNALING_NAN_TO_FLOAT);
+            }
+            return DecimalMath.toDouble(value);
+        }
+    }
+
+    /**
+     * Rounds to an integer with the given rounding mode and converts it to an int.
+     */
+    static Object toInt(PythonBuiltinBaseNode node, PythonObjectFactory factory, DecimalValue value, int rounding) {
+        if (value.isNaN()) {
+            throw node.raise(ValueError, ErrorMessages.CANNOT_CONVERT_NAN_TO_INTEGER);
+        }
+        if (value.isInfinite()) {
+            throw node.raise(OverflowError, ErrorMessages.CANNOT_CONVERT_INFINITY_TO_INTEGER);
+        }
+        if (value.isCompact() && value.getExponent() == 0) {
+            long c = value.getCompact();
+            return value.isNegative() ? -c : c;
+        }
+        return toPythonInt(factory, DecimalMath.toBigInteger(DecimalMath.rescale(value, 0, rounding)));
+    }
+
+    abstract static class ToIntBaseNode extends PythonUnaryBuiltinNode {
+        Object toInt(DecimalValue value, int rounding) {
+            return DecimalBuiltins.toInt(this, factory(), value, rounding);
+        }
+    }
+
+    @Builtin(name = __INT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IntNode extends ToIntBaseNode {
+        @Specialization
+        Object toInt(PDecimal self) {
+            return toInt(self.getValue(), PDecimalContext.ROUND_DOWN);
+        }
+    }
+
+    @Builtin(name = __TRUNC__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TruncNode extends IntNode {
+    }
+
+    @Builtin(name = __FLOOR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FloorNode extends ToIntBaseNode {
+        @Specialization
+        Object floor(PDecimal self) {
+            return toInt(self.getValue(), PDecimalContext.ROUND_FLOOR);
+        }
+    }
+
+    @Builtin(name = __CEIL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CeilNode extends ToIntBaseNode {
+        @Specialization
+        Object ceil(PDecimal self) {
+            return toInt(self.getValue(), PDecimalContext.ROUND_CEILING);
+        }
+    }
+
+    @Builtin(name = __ROUND__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "ndigits"})
+    @GenerateNodeFactory
+    abstract static class RoundNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(ndigits)")
+        Object round(PDecimal self, @SuppressWarnings("unused") PNone ndigits) {
+            return toInt(this, factory(), self.getValue(), PDecimalContext.ROUND_HALF_EVEN);
+        }
+
+        @Specialization(guards = "!isNoValue(ndigits)")
+        Object round(VirtualFrame frame, PDecimal self, Object ndigits,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached PyLongAsLongNode asLongNode) {
+            if (!longCheckNode.execute(ndigits)) {
+                throw raise(TypeError, ErrorMessages.OPTIONAL_ARG_MUST_BE_AN_INTEGER);
+            }
+            long n = asLongNode.execute(frame, ndigits);
+            PDecimalContext ctx = DecimalNodes.getCurrentContext(getContext(), getLanguage());
+            DecimalValue exp = DecimalValue.finite(false, 1, n == Long.MIN_VALUE ? Long.MAX_VALUE : -n);
+            DecimalValue result = DecimalMath.quantize(self.getValue(), exp, ctx.getRounding(), ctx);
+            DecimalNodes.checkStatus(this, ctx);
+            return factory().createDecimal(result);
+        }
+    }
+}
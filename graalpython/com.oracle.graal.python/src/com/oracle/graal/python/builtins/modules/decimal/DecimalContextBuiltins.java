@@ -0,0 +1,617 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandOrRaiseNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimalContext)
+public class DecimalContextBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalContextBuiltinsFactory.getFactories();
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Attributes
+
+    static void setPrec(PNodeWithRaise node, PDecimalContext ctx, long value) {
+        if (value < 1 || value > PDecimalContext.MAX_PREC) {
+            throw node.raise(ValueError, ErrorMessages.VALID_RANGE_FOR_PREC_IS);
+        }
+        ctx.setPrec(value);
+    }
+
+    static void setRounding(PNodeWithRaise node, PDecimalContext ctx, Object value) {
+        int rounding = DecimalNodes.parseRounding(value);
+        if (rounding < 0) {
+            throw node.raise(TypeError, ErrorMessages.INVALID_ROUNDING_MODE);
+        }
+        ctx.setRounding(rounding);
+    }
+
+    static void setEmin(PNodeWithRaise node, PDecimalContext ctx, long value) {
+        if (value < PDecimalContext.MIN_EMIN || value > 0) {
+            throw node.raise(ValueError, ErrorMessages.VALID_RANGE_FOR_EMIN_IS);
+        }
+        ctx.setEmin(value);
+    }
+
+    static void setEmax(PNodeWithRaise node, PDecimalContext ctx, long value) {
+        if (value < 0 || value > PDecimalContext.MAX_EMAX) {
+            throw node.raise(ValueError, ErrorMessages.VALID_RANGE_FOR_EMAX_IS);
+        }
+        ctx.setEmax(value);
+    }
+
+    static void setCapitals(PNodeWithRaise node, PDecimalContext ctx, long value) {
+        if (value != 0 && value != 1) {
+            throw node.raise(ValueError, ErrorMessages.VALID_VALUES_FOR_CAPITALS_ARE_0_OR_1);
+        }
+        ctx.setCapitals((int) value);
+    }
+
+    static void setClamp(PNodeWithRaise node, PDecimalContext ctx, long value) {
+        if (value != 0 && value != 1) {
+            throw node.raise(ValueError, ErrorMessages.VALID_VALUES_FOR_CLAMP_ARE_0_OR_1);
+        }
+        ctx.setClamp((int) value);
+    }
+
+    @Builtin(name = "prec", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class PrecNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static long get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getPrec();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            setPrec(this, self, asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "rounding", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class RoundingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static String get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return PDecimalContext.ROUNDING_NAMES[self.getRounding()];
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(PDecimalContext self, Object value) {
+            setRounding(this, self, value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "Emin", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class EminNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static long get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getEmin();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            setEmin(this, self, asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "Emax", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class EmaxNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static long get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getEmax();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            setEmax(this, self, asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "capitals", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class CapitalsNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getCapitals();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            setCapitals(this, self, asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clamp", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class ClampNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getClamp();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            setClamp(this, self, asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * The raw bit set of the flags; {@code Context.flags} is a mapping over it that is defined in
+     * {@code _decimal.py}.
+     */
+    @Builtin(name = "_flags", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class FlagsNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getFlags();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            self.setFlags((int) asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_traps", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class TrapsNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return self.getTraps();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            self.setTraps((int) asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_add_status", minNumOfPositionalArgs = 2, doc = "Signal the given conditions, raising the first one that is trapped.")
+    @GenerateNodeFactory
+    abstract static class AddStatusNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object add(VirtualFrame frame, PDecimalContext self, Object conditions,
+                        @Cached PyLongAsLongNode asLongNode) {
+            DecimalNodes.addStatus(this, self, (int) asLongNode.execute(frame, conditions));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "Etiny", minNumOfPositionalArgs = 1, doc = "Return a value equal to Emin - prec + 1, which is the minimum exponent value\nfor subnormal results.")
+    @GenerateNodeFactory
+    abstract static class EtinyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long etiny(PDecimalContext self) {
+            return self.etiny();
+        }
+    }
+
+    @Builtin(name = "Etop", minNumOfPositionalArgs = 1, doc = "Return a value equal to Emax - prec + 1.")
+    @GenerateNodeFactory
+    abstract static class EtopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long etop(PDecimalContext self) {
+            return self.etop();
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1, doc = "Return a duplicate of the context with all flags cleared.")
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimalContext copy(PDecimalContext self) {
+            return DecimalNodes.copyContext(factory(), self, true);
+        }
+    }
+
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DunderCopyNode extends CopyNode {
+    }
+
+    @Builtin(name = "clear_flags", minNumOfPositionalArgs = 1, doc = "Reset all flags to False.")
+    @GenerateNodeFactory
+    abstract static class ClearFlagsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clear(PDecimalContext self) {
+            self.setFlags(0);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_traps", minNumOfPositionalArgs = 1, doc = "Set all traps to False.")
+    @GenerateNodeFactory
+    abstract static class ClearTrapsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clear(PDecimalContext self) {
+            self.setTraps(0);
+            return PNone.NONE;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Conversions
+
+    @Builtin(name = "create_decimal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "num"}, doc = "Create a new Decimal instance from num, using self as the context. Unlike the\n" +
+                    "Decimal constructor, this function observes the context limits.")
+    @GenerateNodeFactory
+    abstract static class CreateDecimalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object create(PDecimalContext self, Object num,
+                        @Cached ConvertOperandNode convertNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            DecimalValue value;
+            if (num == PNone.NO_VALUE) {
+                value = DecimalValue.ZERO;
+            } else {
+                value = convertNode.execute(num);
+            }
+            if (value == null) {
+                if (PGuards.isString(num)) {
+                    try {
+                        value = DecimalMath.parse(castToStringNode.execute(num), self, false);
+                    } catch (CannotCastException e) {
+                        throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, num);
+                    }
+                } else if (num instanceof Double || num instanceof PFloat) {
+                    DecimalNodes.addStatus(this, self, PDecimalContext.FLOAT_OPERATION);
+                    value = DecimalMath.fromDouble(num instanceof Double ? (double) num : ((PFloat) num).getValue());
+                } else {
+                    throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, num);
+                }
+            }
+            DecimalValue result = apply(value, self);
+            DecimalNodes.checkStatus(this, self);
+            return factory().createDecimal(result);
+        }
+
+        /**
+         * Fits an exactly converted value into the context. Unlike arithmetic results, NaNs whose
+         * payload is too long are a conversion error.
+         */
+        static DecimalValue apply(DecimalValue value, PDecimalContext ctx) {
+            if (value.isNaN() && value.digits() > ctx.getPrec() - ctx.getClamp()) {
+                ctx.signal(PDecimalContext.CONVERSION_SYNTAX);
+                return DecimalValue.NAN;
+            }
+            return DecimalMath.fix(value, ctx);
+        }
+    }
+
+    @Builtin(name = "create_decimal_from_float", minNumOfPositionalArgs = 2, doc = "Create a new Decimal instance from float f. Unlike the Decimal.from_float()\n" +
+                    "class method, this function observes the context limits.")
+    @GenerateNodeFactory
+    abstract static class CreateDecimalFromFloatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object create(PDecimalContext self, Object f,
+                        @Cached ConvertOperandNode convertNode) {
+            DecimalValue value;
+            if (f instanceof Double || f instanceof PFloat) {
+                value = DecimalMath.fromDouble(f instanceof Double ? (double) f : ((PFloat) f).getValue());
+            } else if (!(f instanceof PDecimal) && (value = convertNode.execute(f)) != null) {
+                // ints are accepted, too
+            } else {
+                throw raise(TypeError, ErrorMessages.ARG_MUST_BE_INT_OR_FLOAT);
+            }
+            DecimalValue result = CreateDecimalNode.apply(value, self);
+            DecimalNodes.checkStatus(this, self);
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "_apply", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ApplyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object apply(PDecimalContext self, Object a,
+                        @Cached ConvertOperandOrRaiseNode convertNode) {
+            DecimalValue result = CreateDecimalNode.apply(convertNode.execute(a), self);
+            DecimalNodes.checkStatus(this, self);
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "apply", minNumOfPositionalArgs = 2, doc = "Apply self to Decimal x.")
+    @GenerateNodeFactory
+    abstract static class PublicApplyNode extends ApplyNode {
+    }
+
+    @Builtin(name = "to_sci_string", minNumOfPositionalArgs = 2, doc = "Convert a number to a string, using scientific notation.")
+    @GenerateNodeFactory
+    abstract static class ToSciStringNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static String convert(PDecimalContext self, Object a,
+                        @Cached ConvertOperandOrRaiseNode convertNode) {
+            return DecimalMath.toString(convertNode.execute(a), false, self.getCapitals() == 1);
+        }
+    }
+
+    @Builtin(name = "to_eng_string", minNumOfPositionalArgs = 2, doc = "Convert a number to a string, using engineering notation.")
+    @GenerateNodeFactory
+    abstract static class ToEngStringNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static String convert(PDecimalContext self, Object a,
+                        @Cached ConvertOperandOrRaiseNode convertNode) {
+            return DecimalMath.toString(convertNode.execute(a), true, self.getCapitals() == 1);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Arithmetic
+
+    abstract static class UnaryOpNode extends PythonBinaryBuiltinNode {
+        abstract DecimalValue compute(DecimalValue a, PDecimalContext ctx);
+
+        @Specialization
+        Object op(PDecimalContext self, Object a,
+                        @Cached ConvertOperandOrRaiseNode convertNode) {
+            DecimalValue result = compute(convertNode.execute(a), self);
+            DecimalNodes.checkStatus(this, self);
+            return factory().createDecimal(result);
+        }
+    }
+
+    abstract static class BinaryOpNode extends PythonTernaryBuiltinNode {
+        abstract DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx);
+
+        @Specialization
+        Object op(PDecimalContext self, Object a, Object b,
+                        @Cached ConvertOperandOrRaiseNode convertA,
+                        @Cached ConvertOperandOrRaiseNode convertB) {
+            DecimalValue result = compute(convertA.execute(a), convertB.execute(b), self);
+            DecimalNodes.checkStatus(this, self);
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "abs", minNumOfPositionalArgs = 2, doc = "Return the absolute value of x.")
+    @GenerateNodeFactory
+    abstract static class AbsNode extends UnaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.abs(a, ctx);
+        }
+    }
+
+    @Builtin(name = "plus", minNumOfPositionalArgs = 2, doc = "Plus corresponds to the unary prefix plus operator in Python, but applies the\ncontext to the result.")
+    @GenerateNodeFactory
+    abstract static class PlusNode extends UnaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.plus(a, ctx);
+        }
+    }
+
+    @Builtin(name = "minus", minNumOfPositionalArgs = 2, doc = "Minus corresponds to the unary prefix minus operator in Python, but applies the\ncontext to the result.")
+    @GenerateNodeFactory
+    abstract static class MinusNode extends UnaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.minus(a, ctx);
+        }
+    }
+
+    @Builtin(name = "normalize", minNumOfPositionalArgs = 2, doc = "Reduce x to its simplest form. Alias for reduce(x).")
+    @GenerateNodeFactory
+    abstract static class NormalizeNode extends UnaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.normalize(a, ctx);
+        }
+    }
+
+    @Builtin(name = "to_integral_value", minNumOfPositionalArgs = 2, doc = "Round to an integer.")
+    @GenerateNodeFactory
+    abstract static class ToIntegralValueNode extends UnaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.toIntegral(a, ctx.getRounding(), ctx, false);
+        }
+    }
+
+    @Builtin(name = "to_integral", minNumOfPositionalArgs = 2, doc = "Identical to to_integral_value(x).")
+    @GenerateNodeFactory
+    abstract static class ToIntegralNode extends ToIntegralValueNode {
+    }
+
+    @Builtin(name = "to_integral_exact", minNumOfPositionalArgs = 2, doc = "Round to an integer. Signal if the result is rounded or inexact.")
+    @GenerateNodeFactory
+    abstract static class ToIntegralExactNode extends UnaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, PDecimalContext ctx) {
+            return DecimalMath.toIntegral(a, ctx.getRounding(), ctx, true);
+        }
+    }
+
+    @Builtin(name = "add", minNumOfPositionalArgs = 3, doc = "Return the sum of x and y.")
+    @GenerateNodeFactory
+    abstract static class AddNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.add(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "subtract", minNumOfPositionalArgs = 3, doc = "Return the difference between x and y.")
+    @GenerateNodeFactory
+    abstract static class SubtractNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.subtract(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "multiply", minNumOfPositionalArgs = 3, doc = "Return the product of x and y.")
+    @GenerateNodeFactory
+    abstract static class MultiplyNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.multiply(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "divide", minNumOfPositionalArgs = 3, doc = "Return x divided by y.")
+    @GenerateNodeFactory
+    abstract static class DivideNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.divide(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "divide_int", minNumOfPositionalArgs = 3, doc = "Return x divided by y, truncated to an integer.")
+    @GenerateNodeFactory
+    abstract static class DivideIntNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.divideInt(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "remainder", minNumOfPositionalArgs = 3, doc = "Return the remainder from integer division. The sign of the result,\nif non-zero, is the same as that of the original dividend.")
+    @GenerateNodeFactory
+    abstract static class RemainderNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.remainder(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "compare", minNumOfPositionalArgs = 3, doc = "Compare x and y numerically.")
+    @GenerateNodeFactory
+    abstract static class CompareNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.compare(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "max", minNumOfPositionalArgs = 3, doc = "Compare the values numerically and return the maximum.")
+    @GenerateNodeFactory
+    abstract static class MaxNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.max(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "min", minNumOfPositionalArgs = 3, doc = "Compare the values numerically and return the minimum.")
+    @GenerateNodeFactory
+    abstract static class MinNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.min(a, b, ctx);
+        }
+    }
+
+    @Builtin(name = "quantize", minNumOfPositionalArgs = 3, doc = "Return a value equal to x (rounded), having the exponent of y.")
+    @GenerateNodeFactory
+    abstract static class QuantizeNode extends BinaryOpNode {
+        @Override
+        DecimalValue compute(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+            return DecimalMath.quantize(a, b, ctx.getRounding(), ctx);
+        }
+    }
+
+    @Builtin(name = "divmod", minNumOfPositionalArgs = 3, doc = "Return quotient and remainder of the division x / y.")
+    @GenerateNodeFactory
+    abstract static class DivModNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object divmod(PDecimalContext self, Object a, Object b,
+                        @Cached ConvertOperandOrRaiseNode convertA,
+                        @Cached ConvertOperandOrRaiseNode convertB) {
+            DecimalValue[] result = DecimalMath.divmod(convertA.execute(a), convertB.execute(b), self);
+            DecimalNodes.checkStatus(this, self);
+            return factory().createTuple(new Object[]{factory().createDecimal(result[0]), factory().createDecimal(result[1])});
+        }
+    }
+}
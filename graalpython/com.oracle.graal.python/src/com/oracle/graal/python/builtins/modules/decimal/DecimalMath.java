@@ -0,0 +1,1437 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CONVERSION_SYNTAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_BY_ZERO;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_IMPOSSIBLE;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_UNDEFINED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INEXACT;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_EMAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MIN_ETINY;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.OVERFLOW;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUNDED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_05UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_CEILING;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_DOWN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_FLOOR;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_DOWN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_EVEN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SUBNORMAL;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.UNDERFLOW;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The arithmetic of the {@code _decimal} module. The algorithms are those of
+ * {@code _pydecimal.py}, which implements the General Decimal Arithmetic Specification, working on
+ * {@link DecimalValue} instead of digit strings. Operations that only involve coefficients that fit
+ * into a {@code long} (which is what most programs use decimals for) stay in {@code long}
+ * arithmetic and can be compiled; everything else falls back to {@link BigInteger} behind a
+ * boundary.
+ * <p>
+ * Conditions are reported with {@link PDecimalContext#signal(int)}; the caller is responsible for
+ * checking the traps once the operation is done. When an operation raises a condition, the
+ * returned value is the one the default (untrapped) handler of that condition produces.
+ */
+final class DecimalMath {
+    /* 10**0 .. 10**18, i.e., all powers of ten that fit into a long */
+    private static final long[] LONG_POW10 = new long[19];
+    private static final BigInteger[] BIG_POW10 = new BigInteger[64];
+    private static final BigInteger FIVE = BigInteger.valueOf(5);
+    private static final double LOG10_2 = 0.30102999566398120;
+
+    private static final long HASH_MODULUS = SysModuleBuiltins.HASH_MODULUS;
+    /* the inverse of 10 modulo HASH_MODULUS */
+    private static final long HASH_10INV = 2075258708292324556L;
+
+    static {
+        long p = 1;
+        for (int i = 0; i < LONG_POW10.length; i++) {
+            LONG_POW10[i] = p;
+            p *= 10;
+        }
+        BigInteger b = BigInteger.ONE;
+        for (int i = 0; i < BIG_POW10.length; i++) {
+            BIG_POW10[i] = b;
+            b = b.multiply(BigInteger.TEN);
+        }
+    }
+
+    private DecimalMath() {
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Coefficient helpers
+
+    @TruffleBoundary
+    static BigInteger pow10(long n) {
+        if (n < BIG_POW10.length) {
+            return BIG_POW10[(int) n];
+        }
+        return BigInteger.TEN.pow(Math.toIntExact(n));
+    }
+
+    static int digits(long c) {
+        int d = 1;
+        while (d < LONG_POW10.length && c >= LONG_POW10[d]) {
+            d++;
+        }
+        return d;
+    }
+
+    @TruffleBoundary
+    static long digits(BigInteger c) {
+        if (c.bitLength() < 63) {
+            return digits(c.longValue());
+        }
+        // a lower bound that is at most one off
+        long d = (long) ((c.bitLength() - 1) * LOG10_2) + 1;
+        if (c.compareTo(pow10(d)) >= 0) {
+            d++;
+        } else if (c.compareTo(pow10(d - 1)) < 0) {
+            d--;
+        }
+        return d;
+    }
+
+    /**
+     * Returns {@code c * 10**n}, or -1 if the result does not fit into a long.
+     */
+    static long mulPow10(long c, long n) {
+        if (c == 0) {
+            return 0;
+        }
+        if (n >= LONG_POW10.length) {
+            return -1;
+        }
+        long p = LONG_POW10[(int) n];
+        long lo = c * p;
+        return multiplyHigh(c, p) == 0 && lo >= 0 ? lo : -1;
+    }
+
+    private static DecimalValue pad(DecimalValue v, long n, long exp) {
+        if (v.isCompact()) {
+            long c = mulPow10(v.getCompact(), n);
+            if (c >= 0) {
+                return DecimalValue.finite(v.isNegative(), c, exp);
+            }
+        }
+        return padSlow(v, n, exp);
+    }
+
+    @TruffleBoundary
+    private static DecimalValue padSlow(DecimalValue v, long n, long exp) {
+        return DecimalValue.finite(v.isNegative(), v.getCoefficient().multiply(pow10(n)), exp);
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Rounding
+
+    /**
+     * Decides whether a coefficient whose dropped digits are not all zero is rounded away from
+     * zero. {@code halfCmp} compares the dropped digits to one half of a unit in the last kept
+     * place.
+     */
+    private static boolean roundsUp(int rounding, boolean negative, int halfCmp, boolean oddQuotient, boolean quotientMultipleOf5) {
+        switch (rounding) {
+            case ROUND_DOWN:
+                return false;
+            case ROUND_UP:
+                return true;
+            case ROUND_HALF_UP:
+                return halfCmp >= 0;
+            case ROUND_HALF_DOWN:
+                return halfCmp > 0;
+            case ROUND_HALF_EVEN:
+                return halfCmp > 0 || (halfCmp == 0 && oddQuotient);
+            case ROUND_CEILING:
+                return !negative;
+            case ROUND_FLOOR:
+                return negative;
+            case ROUND_05UP:
+                return quotientMultipleOf5;
+            default:
+                throw CompilerDirectives.shouldNotReachHere();
+        }
+    }
+
+    /**
+     * Drops the {@code drop} (1 to 18) least significant digits of {@code c} and rounds.
+     */
+    private static long dropDigits(long c, int drop, int rounding, boolean negative) {
+        long p = LONG_POW10[drop];
+        long q = c / p;
+        long r = c - q * p;
+        if (r != 0 && roundsUp(rounding, negative, Long.compare(r, p - r), (q & 1) != 0, q % 5 == 0)) {
+            q++;
+        }
+        return q;
+    }
+
+    /**
+     * Drops the {@code drop} least significant digits of {@code c} and rounds. Stores whether the
+     * dropped digits were non-zero into {@code inexact[0]}.
+     */
+    @TruffleBoundary
+    private static BigInteger dropDigits(BigInteger c, long drop, int rounding, boolean negative, boolean[] inexact) {
+        BigInteger p = pow10(drop);
+        BigInteger[] qr = c.divideAndRemainder(p);
+        BigInteger q = qr[0];
+        inexact[0] = qr[1].signum() != 0;
+        if (inexact[0] && roundsUp(rounding, negative, qr[1].shiftLeft(1).compareTo(p), q.testBit(0), q.mod(FIVE).signum() == 0)) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q;
+    }
+
+    /**
+     * Rescales {@code v} to exponent {@code exp}, padding with zeros or rounding. Quiet, special
+     * values are returned unchanged.
+     */
+    static DecimalValue rescale(DecimalValue v, long exp, int rounding) {
+        if (v.isSpecial()) {
+            return v;
+        }
+        boolean negative = v.isNegative();
+        if (v.isZero()) {
+            return DecimalValue.finite(negative, 0, exp);
+        }
+        if (v.getExponent() >= exp) {
+            return pad(v, v.getExponent() - exp, exp);
+        }
+        long drop = exp - v.getExponent();
+        if (drop > v.digits()) {
+            // behaves like 10**(exp - 1)
+            return DecimalValue.finite(negative, dropDigits(1, 1, rounding, negative), exp);
+        }
+        if (v.isCompact() && drop < LONG_POW10.length) {
+            return DecimalValue.finite(negative, dropDigits(v.getCompact(), (int) drop, rounding, negative), exp);
+        }
+        return DecimalValue.finite(negative, dropDigits(v.getCoefficient(), drop, rounding, negative, new boolean[1]), exp);
+    }
+
+    /**
+     * Rounds {@code v} to the precision of the context and brings the exponent into range. This is
+     * {@code Decimal._fix}.
+     */
+    static DecimalValue fix(DecimalValue v, PDecimalContext ctx) {
+        if (v.isSpecial()) {
+            return v.isNaN() ? fixNaN(v, ctx) : v;
+        }
+        long etiny = ctx.etiny();
+        long etop = ctx.etop();
+        long exp = v.getExponent();
+        boolean negative = v.isNegative();
+        if (v.isZero()) {
+            long expMax = ctx.getClamp() == 0 ? ctx.getEmax() : etop;
+            long newExp = Math.min(Math.max(exp, etiny), expMax);
+            if (newExp != exp) {
+                ctx.signal(CLAMPED);
+                return DecimalValue.finite(negative, 0, newExp);
+            }
+            return v;
+        }
+        long digits = v.digits();
+        long expMin = digits + exp - ctx.getPrec();
+        if (expMin > etop) {
+            ctx.signal(OVERFLOW | INEXACT | ROUNDED);
+            return overflowResult(negative, ctx);
+        }
+        boolean subnormal = expMin < etiny;
+        if (subnormal) {
+            expMin = etiny;
+        }
+        if (exp < expMin) {
+            long drop = expMin - exp;
+            int rounding = ctx.getRounding();
+            DecimalValue ans;
+            boolean inexact;
+            if (drop > digits) {
+                // behaves like 10**(expMin - 1)
+                inexact = true;
+                ans = DecimalValue.finite(negative, dropDigits(1, 1, rounding, negative), expMin);
+            } else if (v.isCompact() && drop < LONG_POW10.length) {
+                long c = v.getCompact();
+                inexact = c % LONG_POW10[(int) drop] != 0;
+                long q = dropDigits(c, (int) drop, rounding, negative);
+                if (digits(q) > ctx.getPrec()) {
+                    q /= 10;
+                    expMin++;
+                }
+                ans = DecimalValue.finite(negative, q, expMin);
+            } else {
+                boolean[] inexactOut = new boolean[1];
+                ans = roundToPrecision(v, drop, expMin, ctx, inexactOut);
+                inexact = inexactOut[0];
+            }
+            int status = ROUNDED;
+            if (ans.getExponent() > etop) {
+                status |= OVERFLOW;
+                ans = overflowResult(negative, ctx);
+            }
+            if (inexact) {
+                status |= INEXACT;
+                if (subnormal) {
+                    status |= UNDERFLOW;
+                }
+            }
+            if (subnormal) {
+                status |= SUBNORMAL;
+            }
+            if (ans.isZero()) {
+                status |= CLAMPED;
+            }
+            ctx.signal(status);
+            return ans;
+        }
+        if (subnormal) {
+            ctx.signal(SUBNORMAL);
+        }
+        if (ctx.getClamp() == 1 && exp > etop) {
+            ctx.signal(CLAMPED);
+            return pad(v, exp - etop, etop);
+        }
+        return v;
+    }
+
+    @TruffleBoundary
+    private static DecimalValue roundToPrecision(DecimalValue v, long drop, long expMin, PDecimalContext ctx, boolean[] inexact) {
+        BigInteger q = dropDigits(v.getCoefficient(), drop, ctx.getRounding(), v.isNegative(), inexact);
+        long exp = expMin;
+        if (digits(q) > ctx.getPrec()) {
+            q = q.divide(BigInteger.TEN);
+            exp++;
+        }
+        return DecimalValue.finite(v.isNegative(), q, exp);
+    }
+
+    /**
+     * The result of an overflow, which depends on the rounding mode.
+     */
+    @TruffleBoundary
+    private static DecimalValue overflowResult(boolean negative, PDecimalContext ctx) {
+        int rounding = ctx.getRounding();
+        if (rounding == ROUND_HALF_UP || rounding == ROUND_HALF_EVEN || rounding == ROUND_HALF_DOWN || rounding == ROUND_UP ||
+                        (rounding == ROUND_CEILING && !negative) || (rounding == ROUND_FLOOR && negative)) {
+            return DecimalValue.infinity(negative);
+        }
+        // the largest representable number
+        return DecimalValue.finite(negative, pow10(ctx.getPrec()).subtract(BigInteger.ONE), ctx.getEmax() - ctx.getPrec() + 1);
+    }
+
+    /**
+     * Cuts the payload of a NaN to the digits that fit the context.
+     */
+    @TruffleBoundary
+    static DecimalValue fixNaN(DecimalValue v, PDecimalContext ctx) {
+        long maxLength = ctx.getPrec() - ctx.getClamp();
+        if (v.digits() > maxLength) {
+            return DecimalValue.nan(v.isNegative(), v.isSNaN(), v.getCoefficient().mod(pow10(maxLength)));
+        }
+        return v;
+    }
+
+    /**
+     * Returns the result of an operation with a NaN operand, or {@code null} if neither operand is
+     * a NaN. {@code b} may be {@code null} for unary operations.
+     */
+    static DecimalValue checkNaNs(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        if (a.isSNaN()) {
+            ctx.signal(INVALID_OPERATION);
+            return fixNaN(a.quiet(), ctx);
+        }
+        if (b != null && b.isSNaN()) {
+            ctx.signal(INVALID_OPERATION);
+            return fixNaN(b.quiet(), ctx);
+        }
+        if (a.isQNaN()) {
+            return fixNaN(a, ctx);
+        }
+        if (b != null && b.isQNaN()) {
+            return fixNaN(b, ctx);
+        }
+        return null;
+    }
+
+    private static DecimalValue invalidOperation(PDecimalContext ctx) {
+        ctx.signal(INVALID_OPERATION);
+        return DecimalValue.NAN;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Comparison
+
+    /**
+     * Three-way numeric comparison of two values that are not NaNs.
+     */
+    static int cmp(DecimalValue a, DecimalValue b) {
+        if (a.isSpecial() || b.isSpecial()) {
+            return Integer.compare(infinitySign(a), infinitySign(b));
+        }
+        if (a.isZero()) {
+            return b.isZero() ? 0 : (b.isNegative() ? 1 : -1);
+        }
+        if (b.isZero()) {
+            return a.isNegative() ? -1 : 1;
+        }
+        if (a.isNegative() != b.isNegative()) {
+            return a.isNegative() ? -1 : 1;
+        }
+        int sign = a.isNegative() ? -1 : 1;
+        if (a.isCompact() && b.isCompact()) {
+            long ea = a.getExponent();
+            long eb = b.getExponent();
+            long ca = a.getCompact();
+            long cb = b.getCompact();
+            if (ea > eb) {
+                ca = mulPow10(ca, ea - eb);
+            } else if (eb > ea) {
+                cb = mulPow10(cb, eb - ea);
+            }
+            if (ca >= 0 && cb >= 0) {
+                return sign * Long.compare(ca, cb);
+            }
+        }
+        return sign * compareMagnitudeSlow(a, b);
+    }
+
+    @TruffleBoundary
+    private static int compareMagnitudeSlow(DecimalValue a, DecimalValue b) {
+        long adjA = a.adjusted();
+        long adjB = b.adjusted();
+        if (adjA != adjB) {
+            return adjA > adjB ? 1 : -1;
+        }
+        BigInteger ca = a.getCoefficient();
+        BigInteger cb = b.getCoefficient();
+        if (a.getExponent() > b.getExponent()) {
+            ca = ca.multiply(pow10(a.getExponent() - b.getExponent()));
+        } else if (b.getExponent() > a.getExponent()) {
+            cb = cb.multiply(pow10(b.getExponent() - a.getExponent()));
+        }
+        return ca.compareTo(cb);
+    }
+
+    private static int infinitySign(DecimalValue v) {
+        if (v.isInfinite()) {
+            return v.isNegative() ? -1 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Compares using the total ordering of the specification, which also orders NaNs and
+     * different representations of the same number.
+     */
+    @TruffleBoundary
+    static int compareTotal(DecimalValue a, DecimalValue b) {
+        if (a.isNegative() && !b.isNegative()) {
+            return -1;
+        }
+        if (!a.isNegative() && b.isNegative()) {
+            return 1;
+        }
+        int sign = a.isNegative() ? -1 : 1;
+        if (a.isNaN() || b.isNaN()) {
+            int nanA = nanKind(a);
+            int nanB = nanKind(b);
+            if (nanA == nanB) {
+                return sign * a.getCoefficient().compareTo(b.getCoefficient());
+            }
+            // quiet NaNs sort after signaling NaNs, which sort after numbers
+            return sign * Integer.compare(nanA == 0 ? 0 : 3 - nanA, nanB == 0 ? 0 : 3 - nanB);
+        }
+        int c = cmp(a, b);
+        if (c != 0) {
+            return c;
+        }
+        return sign * Long.compare(a.getExponent(), b.getExponent());
+    }
+
+    /* 0 for numbers, 1 for quiet and 2 for signaling NaNs, like Decimal._isnan */
+    private static int nanKind(DecimalValue v) {
+        return v.isQNaN() ? 1 : (v.isSNaN() ? 2 : 0);
+    }
+
+    static DecimalValue compare(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue ans = checkNaNs(a, b, ctx);
+            if (ans != null) {
+                return ans;
+            }
+        }
+        int c = cmp(a, b);
+        return c == 0 ? DecimalValue.ZERO : (c < 0 ? DecimalValue.MINUS_ONE : DecimalValue.ONE);
+    }
+
+    static DecimalValue max(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        return maxOrMin(a, b, ctx, true);
+    }
+
+    static DecimalValue min(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        return maxOrMin(a, b, ctx, false);
+    }
+
+    private static DecimalValue maxOrMin(DecimalValue a, DecimalValue b, PDecimalContext ctx, boolean max) {
+        if (a.isNaN() || b.isNaN()) {
+            // a number wins against a quiet NaN
+            if (b.isQNaN() && !a.isNaN()) {
+                return fix(a, ctx);
+            }
+            if (a.isQNaN() && !b.isNaN()) {
+                return fix(b, ctx);
+            }
+            return checkNaNs(a, b, ctx);
+        }
+        int c = cmp(a, b);
+        if (c == 0) {
+            c = compareTotal(a, b);
+        }
+        DecimalValue ans;
+        if (max) {
+            ans = c == -1 ? b : a;
+        } else {
+            ans = c == -1 ? a : b;
+        }
+        return fix(ans, ctx);
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Arithmetic
+
+    static DecimalValue add(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        if (a.isCompact() && b.isCompact() && a.isFinite() && b.isFinite() && !a.isZero() && !b.isZero()) {
+            long ea = a.getExponent();
+            long eb = b.getExponent();
+            long ca = a.getCompact();
+            long cb = b.getCompact();
+            long exp = Math.min(ea, eb);
+            if (ea > eb) {
+                ca = mulPow10(ca, ea - eb);
+            } else if (eb > ea) {
+                cb = mulPow10(cb, eb - ea);
+            }
+            if (ca >= 0 && cb >= 0) {
+                long sa = a.isNegative() ? -ca : ca;
+                long sb = b.isNegative() ? -cb : cb;
+                long sum = sa + sb;
+                if (((sa ^ sum) & (sb ^ sum)) >= 0 && sum != Long.MIN_VALUE) {
+                    if (sum == 0) {
+                        // the operands have different signs
+                        return fix(DecimalValue.finite(ctx.getRounding() == ROUND_FLOOR, 0, exp), ctx);
+                    }
+                    return fix(DecimalValue.finite(sum < 0, Math.abs(sum), exp), ctx);
+                }
+            }
+        }
+        return addSlow(a, b, ctx);
+    }
+
+    @TruffleBoundary
+    private static DecimalValue addSlow(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue ans = checkNaNs(a, b, ctx);
+            if (ans != null) {
+                return ans;
+            }
+            if (a.isInfinite()) {
+                if (b.isInfinite() && a.isNegative() != b.isNegative()) {
+                    return invalidOperation(ctx);
+                }
+                return a;
+            }
+            return b;
+        }
+        long exp = Math.min(a.getExponent(), b.getExponent());
+        boolean negativeZero = ctx.getRounding() == ROUND_FLOOR && a.isNegative() != b.isNegative();
+        if (a.isZero() && b.isZero()) {
+            boolean negative = (a.isNegative() && b.isNegative()) || negativeZero;
+            return fix(DecimalValue.finite(negative, 0, exp), ctx);
+        }
+        if (a.isZero()) {
+            exp = Math.max(exp, b.getExponent() - ctx.getPrec() - 1);
+            return fix(rescale(b, exp, ctx.getRounding()), ctx);
+        }
+        if (b.isZero()) {
+            exp = Math.max(exp, a.getExponent() - ctx.getPrec() - 1);
+            return fix(rescale(a, exp, ctx.getRounding()), ctx);
+        }
+        // normalize the operands to the same exponent, replacing the one with the smaller
+        // exponent by 10**e if it is too small to matter (see _pydecimal._normalize)
+        DecimalValue hi = a.getExponent() < b.getExponent() ? b : a;
+        DecimalValue lo = hi == a ? b : a;
+        BigInteger hiCoeff = hi.getCoefficient();
+        BigInteger loCoeff = lo.getCoefficient();
+        long loExp = lo.getExponent();
+        long limit = hi.getExponent() + Math.min(-1, hi.digits() - ctx.getPrec() - 2);
+        if (lo.digits() + loExp - 1 < limit) {
+            loCoeff = BigInteger.ONE;
+            loExp = limit;
+        }
+        hiCoeff = hiCoeff.multiply(pow10(hi.getExponent() - loExp));
+        BigInteger ca = hi == a ? hiCoeff : loCoeff;
+        BigInteger cb = hi == a ? loCoeff : hiCoeff;
+        if (a.isNegative() != b.isNegative()) {
+            int c = ca.compareTo(cb);
+            if (c == 0) {
+                return fix(DecimalValue.finite(negativeZero, 0, exp), ctx);
+            }
+            if (c > 0) {
+                return fix(DecimalValue.finite(a.isNegative(), ca.subtract(cb), loExp), ctx);
+            }
+            return fix(DecimalValue.finite(b.isNegative(), cb.subtract(ca), loExp), ctx);
+        }
+        return fix(DecimalValue.finite(a.isNegative(), ca.add(cb), loExp), ctx);
+    }
+
+    static DecimalValue subtract(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        if (a.isNaN() || b.isNaN()) {
+            return checkNaNs(a, b, ctx);
+        }
+        return add(a, b.negate(), ctx);
+    }
+
+    static DecimalValue multiply(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        if (a.isCompact() && b.isCompact() && a.isFinite() && b.isFinite()) {
+            long ca = a.getCompact();
+            long cb = b.getCompact();
+            long product = ca * cb;
+            if (multiplyHigh(ca, cb) == 0 && product >= 0) {
+                return fix(DecimalValue.finite(a.isNegative() != b.isNegative(), product, a.getExponent() + b.getExponent()), ctx);
+            }
+        }
+        return multiplySlow(a, b, ctx);
+    }
+
+    @TruffleBoundary
+    private static DecimalValue multiplySlow(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        boolean negative = a.isNegative() != b.isNegative();
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue ans = checkNaNs(a, b, ctx);
+            if (ans != null) {
+                return ans;
+            }
+            if ((a.isInfinite() && b.isZero()) || (b.isInfinite() && a.isZero())) {
+                return invalidOperation(ctx);
+            }
+            return DecimalValue.infinity(negative);
+        }
+        return fix(DecimalValue.finite(negative, a.getCoefficient().multiply(b.getCoefficient()), a.getExponent() + b.getExponent()), ctx);
+    }
+
+    @TruffleBoundary
+    static DecimalValue divide(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        boolean negative = a.isNegative() != b.isNegative();
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue ans = checkNaNs(a, b, ctx);
+            if (ans != null) {
+                return ans;
+            }
+            if (a.isInfinite() && b.isInfinite()) {
+                return invalidOperation(ctx);
+            }
+            if (a.isInfinite()) {
+                return DecimalValue.infinity(negative);
+            }
+            ctx.signal(CLAMPED);
+            return DecimalValue.finite(negative, 0, ctx.etiny());
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                ctx.signal(DIVISION_UNDEFINED);
+                return DecimalValue.NAN;
+            }
+            ctx.signal(DIVISION_BY_ZERO);
+            return DecimalValue.infinity(negative);
+        }
+        long idealExp = a.getExponent() - b.getExponent();
+        if (a.isZero()) {
+            return fix(DecimalValue.finite(negative, 0, idealExp), ctx);
+        }
+        long shift = b.digits() - a.digits() + ctx.getPrec() + 1;
+        long exp = idealExp - shift;
+        BigInteger[] qr;
+        if (shift >= 0) {
+            qr = a.getCoefficient().multiply(pow10(shift)).divideAndRemainder(b.getCoefficient());
+        } else {
+            qr = a.getCoefficient().divideAndRemainder(b.getCoefficient().multiply(pow10(-shift)));
+        }
+        BigInteger coeff = qr[0];
+        if (qr[1].signum() != 0) {
+            // not exact, make sure that the result rounds correctly
+            if (coeff.mod(FIVE).signum() == 0) {
+                coeff = coeff.add(BigInteger.ONE);
+            }
+        } else {
+            // exact, get as close to the ideal exponent as possible
+            while (exp < idealExp) {
+                BigInteger[] q10 = coeff.divideAndRemainder(BigInteger.TEN);
+                if (q10[1].signum() != 0) {
+                    break;
+                }
+                coeff = q10[0];
+                exp++;
+            }
+        }
+        return fix(DecimalValue.finite(negative, coeff, exp), ctx);
+    }
+
+    /**
+     * Returns {@code (a // b, a % b)} for a finite {@code a} and a non-zero {@code b} that are not
+     * NaNs. Neither result is fixed yet.
+     */
+    private static DecimalValue[] divideInteger(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        boolean negative = a.isNegative() != b.isNegative();
+        long idealExp = b.isInfinite() ? a.getExponent() : Math.min(a.getExponent(), b.getExponent());
+        long expdiff = a.adjusted() - b.adjusted();
+        if (a.isZero() || b.isInfinite() || expdiff <= -2) {
+            return new DecimalValue[]{DecimalValue.finite(negative, 0, 0), rescale(a, idealExp, ctx.getRounding())};
+        }
+        if (expdiff <= ctx.getPrec()) {
+            BigInteger ca = a.getCoefficient();
+            BigInteger cb = b.getCoefficient();
+            if (a.getExponent() >= b.getExponent()) {
+                ca = ca.multiply(pow10(a.getExponent() - b.getExponent()));
+            } else {
+                cb = cb.multiply(pow10(b.getExponent() - a.getExponent()));
+            }
+            BigInteger[] qr = ca.divideAndRemainder(cb);
+            if (digits(qr[0]) <= ctx.getPrec()) {
+                return new DecimalValue[]{DecimalValue.finite(negative, qr[0], 0), DecimalValue.finite(a.isNegative(), qr[1], idealExp)};
+            }
+        }
+        // the quotient is too large to be representable
+        ctx.signal(DIVISION_IMPOSSIBLE);
+        return new DecimalValue[]{DecimalValue.NAN, DecimalValue.NAN};
+    }
+
+    /**
+     * Returns {@code divmod(a, b)}.
+     */
+    @TruffleBoundary
+    static DecimalValue[] divmod(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        DecimalValue ans = checkNaNs(a, b, ctx);
+        if (ans != null) {
+            return new DecimalValue[]{ans, ans};
+        }
+        boolean negative = a.isNegative() != b.isNegative();
+        if (a.isInfinite()) {
+            if (b.isInfinite()) {
+                ans = invalidOperation(ctx);
+                return new DecimalValue[]{ans, ans};
+            }
+            return new DecimalValue[]{DecimalValue.infinity(negative), invalidOperation(ctx)};
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                ctx.signal(DIVISION_UNDEFINED);
+                return new DecimalValue[]{DecimalValue.NAN, DecimalValue.NAN};
+            }
+            ctx.signal(DIVISION_BY_ZERO);
+            return new DecimalValue[]{DecimalValue.infinity(negative), invalidOperation(ctx)};
+        }
+        DecimalValue[] result = divideInteger(a, b, ctx);
+        result[0] = fix(result[0], ctx);
+        result[1] = fix(result[1], ctx);
+        return result;
+    }
+
+    /**
+     * Returns {@code a // b}.
+     */
+    @TruffleBoundary
+    static DecimalValue divideInt(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        DecimalValue ans = checkNaNs(a, b, ctx);
+        if (ans != null) {
+            return ans;
+        }
+        boolean negative = a.isNegative() != b.isNegative();
+        if (a.isInfinite()) {
+            if (b.isInfinite()) {
+                return invalidOperation(ctx);
+            }
+            return DecimalValue.infinity(negative);
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                ctx.signal(DIVISION_UNDEFINED);
+                return DecimalValue.NAN;
+            }
+            ctx.signal(DIVISION_BY_ZERO);
+            return DecimalValue.infinity(negative);
+        }
+        return fix(divideInteger(a, b, ctx)[0], ctx);
+    }
+
+    /**
+     * Returns {@code a % b}, with the sign of {@code a}.
+     */
+    @TruffleBoundary
+    static DecimalValue remainder(DecimalValue a, DecimalValue b, PDecimalContext ctx) {
+        DecimalValue ans = checkNaNs(a, b, ctx);
+        if (ans != null) {
+            return ans;
+        }
+        if (a.isInfinite()) {
+            return invalidOperation(ctx);
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                ctx.signal(DIVISION_UNDEFINED);
+                return DecimalValue.NAN;
+            }
+            return invalidOperation(ctx);
+        }
+        return fix(divideInteger(a, b, ctx)[1], ctx);
+    }
+
+    static DecimalValue plus(DecimalValue a, PDecimalContext ctx) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null, ctx);
+        }
+        if (a.isZero() && ctx.getRounding() != ROUND_FLOOR) {
+            // -0 + 0 is 0 unless rounding towards negative infinity
+            a = a.abs();
+        }
+        return fix(a, ctx);
+    }
+
+    static DecimalValue minus(DecimalValue a, PDecimalContext ctx) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null, ctx);
+        }
+        if (a.isZero() && ctx.getRounding() != ROUND_FLOOR) {
+            return fix(a.abs(), ctx);
+        }
+        return fix(a.negate(), ctx);
+    }
+
+    static DecimalValue abs(DecimalValue a, PDecimalContext ctx) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null, ctx);
+        }
+        return a.isNegative() ? minus(a, ctx) : plus(a, ctx);
+    }
+
+    /**
+     * Rounds {@code a} to the exponent of {@code e}.
+     */
+    static DecimalValue quantize(DecimalValue a, DecimalValue e, int rounding, PDecimalContext ctx) {
+        if (a.isSpecial() || e.isSpecial()) {
+            DecimalValue ans = checkNaNs(a, e, ctx);
+            if (ans != null) {
+                return ans;
+            }
+            if (e.isInfinite() && a.isInfinite()) {
+                return a;
+            }
+            return invalidOperation(ctx);
+        }
+        long exp = e.getExponent();
+        if (exp < ctx.etiny() || exp > ctx.getEmax()) {
+            return invalidOperation(ctx);
+        }
+        if (a.isZero()) {
+            return fix(DecimalValue.finite(a.isNegative(), 0, exp), ctx);
+        }
+        long adjusted = a.adjusted();
+        if (adjusted > ctx.getEmax() || adjusted - exp + 1 > ctx.getPrec()) {
+            return invalidOperation(ctx);
+        }
+        DecimalValue ans = rescale(a, exp, rounding);
+        long ansAdjusted = ans.adjusted();
+        if (ansAdjusted > ctx.getEmax() || ans.digits() > ctx.getPrec()) {
+            return invalidOperation(ctx);
+        }
+        if (!ans.isZero() && ansAdjusted < ctx.getEmin()) {
+            ctx.signal(SUBNORMAL);
+        }
+        if (exp > a.getExponent()) {
+            if (cmp(ans, a) != 0) {
+                ctx.signal(INEXACT);
+            }
+            ctx.signal(ROUNDED);
+        }
+        return fix(ans, ctx);
+    }
+
+    @TruffleBoundary
+    static DecimalValue normalize(DecimalValue a, PDecimalContext ctx) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null, ctx);
+        }
+        DecimalValue dup = fix(a, ctx);
+        if (dup.isInfinite()) {
+            return dup;
+        }
+        if (dup.isZero()) {
+            return DecimalValue.finite(dup.isNegative(), 0, 0);
+        }
+        long expMax = ctx.getClamp() == 0 ? ctx.getEmax() : ctx.etop();
+        BigInteger coeff = dup.getCoefficient();
+        long exp = dup.getExponent();
+        while (exp < expMax) {
+            BigInteger[] qr = coeff.divideAndRemainder(BigInteger.TEN);
+            if (qr[1].signum() != 0) {
+                break;
+            }
+            coeff = qr[0];
+            exp++;
+        }
+        return DecimalValue.finite(dup.isNegative(), coeff, exp);
+    }
+
+    /**
+     * Rounds to an integer. {@code exact} selects {@code to_integral_exact}, which signals Inexact
+     * and Rounded.
+     */
+    static DecimalValue toIntegral(DecimalValue a, int rounding, PDecimalContext ctx, boolean exact) {
+        if (a.isSpecial()) {
+            DecimalValue ans = checkNaNs(a, null, ctx);
+            return ans != null ? ans : a;
+        }
+        if (a.getExponent() >= 0) {
+            return a;
+        }
+        if (a.isZero()) {
+            return DecimalValue.finite(a.isNegative(), 0, 0);
+        }
+        DecimalValue ans = rescale(a, 0, rounding);
+        if (exact) {
+            if (cmp(ans, a) != 0) {
+                ctx.signal(INEXACT);
+            }
+            ctx.signal(ROUNDED);
+        }
+        return ans;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Predicates
+
+    static boolean isNormal(DecimalValue a, PDecimalContext ctx) {
+        return a.isFinite() && !a.isZero() && ctx.getEmin() <= a.adjusted();
+    }
+
+    static boolean isSubnormal(DecimalValue a, PDecimalContext ctx) {
+        return a.isFinite() && !a.isZero() && a.adjusted() < ctx.getEmin();
+    }
+
+    static boolean sameQuantum(DecimalValue a, DecimalValue b) {
+        if (a.isSpecial() || b.isSpecial()) {
+            return (a.isNaN() && b.isNaN()) || (a.isInfinite() && b.isInfinite());
+        }
+        return a.getExponent() == b.getExponent();
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Conversions
+
+    /**
+     * Formats in scientific or engineering notation, like {@code Decimal.__str__}.
+     */
+    @TruffleBoundary
+    static String toString(DecimalValue v, boolean eng, boolean capitals) {
+        StringBuilder sb = new StringBuilder();
+        if (v.isNegative()) {
+            sb.append('-');
+        }
+        if (v.isSpecial()) {
+            if (v.isInfinite()) {
+                sb.append("Infinity");
+            } else {
+                sb.append(v.isSNaN() ? "sNaN" : "NaN");
+                if (!v.isCoefficientZero()) {
+                    sb.append(v.getCoefficient());
+                }
+            }
+            return sb.toString();
+        }
+        String digits = v.isCompact() ? Long.toString(v.getCompact()) : v.getCoefficient().toString();
+        long exp = v.getExponent();
+        // number of digits to the left of the decimal point
+        long leftDigits = exp + digits.length();
+        long dotPlace;
+        if (exp <= 0 && leftDigits > -6) {
+            dotPlace = leftDigits;
+        } else if (!eng) {
+            dotPlace = 1;
+        } else if (v.isZero()) {
+            dotPlace = Math.floorMod(leftDigits + 1, 3) - 1;
+        } else {
+            dotPlace = Math.floorMod(leftDigits - 1, 3) + 1;
+        }
+        if (dotPlace <= 0) {
+            sb.append("0.");
+            for (long i = dotPlace; i < 0; i++) {
+                sb.append('0');
+            }
+            sb.append(digits);
+        } else if (dotPlace >= digits.length()) {
+            sb.append(digits);
+            for (long i = digits.length(); i < dotPlace; i++) {
+                sb.append('0');
+            }
+        } else {
+            sb.append(digits, 0, (int) dotPlace).append('.').append(digits, (int) dotPlace, digits.length());
+        }
+        if (leftDigits != dotPlace) {
+            long e = leftDigits - dotPlace;
+            sb.append(capitals ? 'E' : 'e').append(e < 0 ? '-' : '+').append(Math.abs(e));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats according to a format specification whose type is one of {@code eEfFgG%} or
+     * unspecified, like {@code Decimal.__format__} without locale-specific separators. Rounding
+     * uses the rounding mode of the context but does not signal.
+     */
+    @TruffleBoundary
+    static String format(DecimalValue value, Spec spec, PDecimalContext ctx) {
+        char type = spec.type;
+        int precision = spec.precision;
+        if (precision == 0 && (!Spec.specified(type) || type == 'g' || type == 'G')) {
+            precision = 1;
+        }
+        String sign = value.isNegative() ? "-" : spec.sign == '+' || spec.sign == ' ' ? String.valueOf(spec.sign) : "";
+        // the '0' flag pads the digits with zeros, everything else is padded with spaces
+        boolean zeroPad = spec.fill == '0' && spec.align == '=';
+        char fill = zeroPad ? ' ' : spec.getFill(' ');
+        char align = zeroPad ? '>' : spec.getAlign('>');
+        if (value.isSpecial()) {
+            // special values don't care about the type or precision
+            String body = toString(value.abs(), false, true);
+            return align(sign, type == '%' ? body + '%' : body, spec.width, fill, align);
+        }
+        if (!Spec.specified(type)) {
+            type = ctx.getCapitals() == 1 ? 'G' : 'g';
+        }
+        boolean fixed = type == 'f' || type == 'F' || type == '%';
+        boolean scientific = type == 'e' || type == 'E';
+        DecimalValue v = type == '%' ? value.withExponent(value.getExponent() + 2) : value;
+        int rounding = ctx.getRounding();
+        if (Spec.specified(precision)) {
+            if (scientific) {
+                v = roundToDigits(v, precision + 1L, rounding);
+            } else if (fixed) {
+                v = rescale(v, -precision, rounding);
+            } else if (v.digits() > precision) {
+                v = roundToDigits(v, precision, rounding);
+            }
+        }
+        if (v.isZero() && v.getExponent() > 0 && fixed) {
+            // zeros with a positive exponent can't be represented in fixed point
+            v = rescale(v, 0, rounding);
+        }
+        String digits = v.isCompact() ? Long.toString(v.getCompact()) : v.getCoefficient().toString();
+        long leftDigits = v.getExponent() + digits.length();
+        long dotPlace;
+        if (scientific) {
+            dotPlace = v.isZero() && Spec.specified(precision) ? 1 - precision : 1;
+        } else if (fixed || v.getExponent() <= 0 && leftDigits > -6) {
+            dotPlace = leftDigits;
+        } else {
+            dotPlace = 1;
+        }
+        String intPart;
+        StringBuilder fracPart = new StringBuilder();
+        if (dotPlace < 0) {
+            intPart = "0";
+            for (long i = dotPlace; i < 0; i++) {
+                fracPart.append('0');
+            }
+            fracPart.append(digits);
+        } else if (dotPlace > digits.length()) {
+            StringBuilder sb = new StringBuilder(digits);
+            for (long i = digits.length(); i < dotPlace; i++) {
+                sb.append('0');
+            }
+            intPart = sb.toString();
+        } else {
+            intPart = dotPlace == 0 ? "0" : digits.substring(0, (int) dotPlace);
+            fracPart.append(digits, (int) dotPlace, digits.length());
+        }
+        if (fracPart.length() > 0 || spec.alternate) {
+            fracPart.insert(0, '.');
+        }
+        long exp = leftDigits - dotPlace;
+        if (exp != 0 || scientific) {
+            fracPart.append(type == 'E' || type == 'G' ? 'E' : 'e').append(exp < 0 ? '-' : '+').append(Math.abs(exp));
+        }
+        if (type == '%') {
+            fracPart.append('%');
+        }
+        long minWidth = zeroPad ? spec.width - fracPart.length() - sign.length() : 0;
+        return align(sign, insertSeparators(intPart, spec.grouping, minWidth) + fracPart, spec.width, fill, align);
+    }
+
+    /**
+     * Rounds a finite value to the given number of significant digits. This is
+     * {@code Decimal._round}.
+     */
+    private static DecimalValue roundToDigits(DecimalValue v, long places, int rounding) {
+        if (v.isZero()) {
+            return v;
+        }
+        DecimalValue result = rescale(v, v.adjusted() + 1 - places, rounding);
+        if (result.adjusted() != v.adjusted()) {
+            // rounding carried into a new digit
+            result = rescale(result, result.adjusted() + 1 - places, rounding);
+        }
+        return result;
+    }
+
+    /**
+     * Pads the integer part with zeros to {@code minWidth} and separates groups of three digits.
+     */
+    private static String insertSeparators(String digits, char separator, long minWidth) {
+        if (!Spec.specified(separator)) {
+            if (digits.length() >= minWidth) {
+                return digits;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (long i = digits.length(); i < minWidth; i++) {
+                sb.append('0');
+            }
+            return sb.append(digits).toString();
+        }
+        StringBuilder sb = new StringBuilder();
+        int end = digits.length();
+        long width = minWidth;
+        while (true) {
+            // at least one digit to the left of a separator
+            int length = (int) Math.min(Math.max(Math.max(end, width), 1), 3);
+            int start = Math.max(end - length, 0);
+            sb.insert(0, digits, start, end);
+            for (int i = end - start; i < length; i++) {
+                sb.insert(0, '0');
+            }
+            end = start;
+            width -= length;
+            if (end == 0 && width <= 0) {
+                return sb.toString();
+            }
+            sb.insert(0, separator);
+            width--;
+        }
+    }
+
+    private static String align(String sign, String body, int width, char fill, char align) {
+        long padding = (long) width - sign.length() - body.length();
+        if (padding <= 0) {
+            return sign + body;
+        }
+        StringBuilder sb = new StringBuilder();
+        switch (align) {
+            case '<':
+                sb.append(sign).append(body);
+                appendFill(sb, fill, padding);
+                break;
+            case '=':
+                sb.append(sign);
+                appendFill(sb, fill, padding);
+                sb.append(body);
+                break;
+            case '^':
+                appendFill(sb, fill, padding / 2);
+                sb.append(sign).append(body);
+                appendFill(sb, fill, padding - padding / 2);
+                break;
+            default:
+                appendFill(sb, fill, padding);
+                sb.append(sign).append(body);
+                break;
+        }
+        return sb.toString();
+    }
+
+    private static void appendFill(StringBuilder sb, char fill, long count) {
+        for (long i = 0; i < count; i++) {
+            sb.append(fill);
+        }
+    }
+
+    /**
+     * Parses the string syntax of {@code Decimal(str)}: surrounding whitespace is ignored, as are
+     * underscores, and any Unicode decimal digit is accepted. Invalid strings signal
+     * ConversionSyntax and produce a NaN. An {@code exact} conversion only uses the context for
+     * signals, otherwise NaN payloads that are too long for the context are also a syntax error.
+     */
+    @TruffleBoundary
+    static DecimalValue parse(String input, PDecimalContext ctx, boolean exact) {
+        String s = stripWhitespace(input).replace("_", "");
+        int n = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        String rest = s.substring(i);
+        if (rest.equalsIgnoreCase("inf") || rest.equalsIgnoreCase("infinity")) {
+            return DecimalValue.infinity(negative);
+        }
+        boolean signaling = rest.regionMatches(true, 0, "snan", 0, 4);
+        if (signaling || rest.regionMatches(true, 0, "nan", 0, 3)) {
+            StringBuilder payload = toAsciiDigits(rest, signaling ? 4 : 3, rest.length());
+            if (payload == null) {
+                return conversionSyntax(ctx);
+            }
+            BigInteger value = payload.length() == 0 ? BigInteger.ZERO : new BigInteger(payload.toString());
+            long maxPayload = exact ? PDecimalContext.MAX_PREC : ctx.getPrec() - ctx.getClamp();
+            if (value.signum() != 0 && digits(value) > maxPayload) {
+                // the payload does not fit the context, unlike for results it is not cut
+                return conversionSyntax(ctx);
+            }
+            return DecimalValue.nan(negative, signaling, value);
+        }
+        // digits, an optional fraction, and an optional exponent
+        int intStart = i;
+        while (i < n && Character.isDigit(s.codePointAt(i))) {
+            i += Character.charCount(s.codePointAt(i));
+        }
+        int intEnd = i;
+        int fracStart = i;
+        int fracEnd = i;
+        if (i < n && s.charAt(i) == '.') {
+            i++;
+            fracStart = i;
+            while (i < n && Character.isDigit(s.codePointAt(i))) {
+                i += Character.charCount(s.codePointAt(i));
+            }
+            fracEnd = i;
+        }
+        if (intStart == intEnd && fracStart == fracEnd) {
+            return conversionSyntax(ctx);
+        }
+        BigInteger exp = BigInteger.ZERO;
+        if (i < n && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean expNegative = false;
+            if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                expNegative = s.charAt(i) == '-';
+                i++;
+            }
+            StringBuilder expDigits = toAsciiDigits(s, i, n);
+            if (expDigits == null || expDigits.length() == 0) {
+                return conversionSyntax(ctx);
+            }
+            exp = new BigInteger(expDigits.toString());
+            if (expNegative) {
+                exp = exp.negate();
+            }
+            i = n;
+        }
+        if (i != n) {
+            return conversionSyntax(ctx);
+        }
+        StringBuilder coeffDigits = toAsciiDigits(s, intStart, intEnd);
+        StringBuilder fracDigits = toAsciiDigits(s, fracStart, fracEnd);
+        coeffDigits.append(fracDigits);
+        BigInteger coeff = new BigInteger(coeffDigits.toString());
+        exp = exp.subtract(BigInteger.valueOf(fracDigits.length()));
+        if (exp.bitLength() >= 63) {
+            return invalidOperation(ctx);
+        }
+        DecimalValue result = DecimalValue.finite(negative, coeff, exp.longValue());
+        if (result.getExponent() < MIN_ETINY || result.adjusted() > MAX_EMAX) {
+            return invalidOperation(ctx);
+        }
+        return result;
+    }
+
+    /* like str.strip(), which also removes whitespace that String.trim() keeps */
+    private static String stripWhitespace(String s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && isWhitespace(s.codePointAt(start))) {
+            start += Character.charCount(s.codePointAt(start));
+        }
+        while (end > start && isWhitespace(s.codePointBefore(end))) {
+            end -= Character.charCount(s.codePointBefore(end));
+        }
+        return s.substring(start, end);
+    }
+
+    private static boolean isWhitespace(int codePoint) {
+        return Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint);
+    }
+
+    private static DecimalValue conversionSyntax(PDecimalContext ctx) {
+        ctx.signal(CONVERSION_SYNTAX);
+        return DecimalValue.NAN;
+    }
+
+    /**
+     * Converts the Unicode decimal digits in {@code s[start:end]} to ASCII, or returns
+     * {@code null} if there is any other character.
+     */
+    private static StringBuilder toAsciiDigits(String s, int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            int cp = s.codePointAt(i);
+            int digit = Character.digit(cp, 10);
+            if (digit < 0 || !Character.isDigit(cp)) {
+                return null;
+            }
+            sb.append((char) ('0' + digit));
+            i += Character.charCount(cp);
+        }
+        return sb;
+    }
+
+    /**
+     * The exact value of a float.
+     */
+    @TruffleBoundary
+    static DecimalValue fromDouble(double d) {
+        if (Double.isNaN(d)) {
+            return DecimalValue.NAN;
+        }
+        boolean negative = Math.copySign(1.0, d) < 0;
+        if (Double.isInfinite(d)) {
+            return DecimalValue.infinity(negative);
+        }
+        BigDecimal exact = new BigDecimal(Math.abs(d));
+        return DecimalValue.finite(negative, exact.unscaledValue(), -exact.scale());
+    }
+
+    @TruffleBoundary
+    static double toDouble(DecimalValue v) {
+        if (v.isNaN()) {
+            return v.isNegative() ? -Double.NaN : Double.NaN;
+        }
+        return Double.parseDouble(toString(v, false, true));
+    }
+
+    /**
+     * Truncates a finite value towards zero.
+     */
+    @TruffleBoundary
+    static BigInteger toBigInteger(DecimalValue v) {
+        assert v.isFinite();
+        BigInteger coeff = v.getCoefficient();
+        long exp = v.getExponent();
+        BigInteger result;
+        if (exp >= 0) {
+            result = coeff.multiply(pow10(exp));
+        } else if (-exp > v.digits()) {
+            result = BigInteger.ZERO;
+        } else {
+            result = coeff.divide(pow10(-exp));
+        }
+        return v.isNegative() ? result.negate() : result;
+    }
+
+    /**
+     * The hash of a value that is not a signaling NaN, which is equal to the hash of an int, float
+     * or Fraction with the same value.
+     */
+    @TruffleBoundary
+    static long hash(DecimalValue v) {
+        if (v.isNaN()) {
+            return SysModuleBuiltins.HASH_NAN;
+        }
+        if (v.isInfinite()) {
+            return v.isNegative() ? -SysModuleBuiltins.HASH_INF : SysModuleBuiltins.HASH_INF;
+        }
+        long coeff = v.isCompact() ? v.getCompact() % HASH_MODULUS : v.getCoefficient().mod(BigInteger.valueOf(HASH_MODULUS)).longValue();
+        long exp = v.getExponent();
+        long expHash = exp >= 0 ? powMod(10, exp) : powMod(HASH_10INV, -exp);
+        long result = mulMod(coeff, expHash);
+        if (v.isNegative()) {
+            result = -result;
+        }
+        return result == -1 ? -2 : result;
+    }
+
+    private static long powMod(long base, long exponent) {
+        long result = 1;
+        long b = base;
+        long e = exponent;
+        while (e != 0) {
+            if ((e & 1) != 0) {
+                result = mulMod(result, b);
+            }
+            b = mulMod(b, b);
+            e >>>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * The high 64 bits of the 128-bit product {@code x * y}, like {@code Math.multiplyHigh} which
+     * is not available on Java 8.
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /* a * b modulo the Mersenne prime 2**61 - 1, for a and b below the modulus */
+    private static long mulMod(long a, long b) {
+        long hi = multiplyHigh(a, b);
+        long lo = a * b;
+        long r = (lo & HASH_MODULUS) + ((lo >>> 61) | (hi << 3));
+        return r >= HASH_MODULUS ? r - HASH_MODULUS : r;
+    }
+}
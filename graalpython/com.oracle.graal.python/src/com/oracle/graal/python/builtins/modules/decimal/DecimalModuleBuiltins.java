@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetContextNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodesFactory.GetObjectArrayNodeGen;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Native implementation of CPython's {@code _decimal} module. This module holds the constructors
+ * of {@code Decimal} and {@code Context} and the current context; the arithmetic is in
+ * {@link DecimalMath}. The signals, the module-level contexts and the less frequently used methods
+ * are defined in {@code lib-graalpython/_decimal.py}, which is run when the module is first
+ * imported.
+ */
+@CoreFunctions(defineModule = DecimalNodes.MODULE_NAME)
+public class DecimalModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        builtinConstants.put("MAX_PREC", PDecimalContext.MAX_PREC);
+        builtinConstants.put("MAX_EMAX", PDecimalContext.MAX_EMAX);
+        builtinConstants.put("MIN_EMIN", PDecimalContext.MIN_EMIN);
+        builtinConstants.put("MIN_ETINY", PDecimalContext.MIN_ETINY);
+        for (String name : PDecimalContext.ROUNDING_NAMES) {
+            builtinConstants.put(name, name);
+        }
+        builtinConstants.put("HAVE_THREADS", true);
+        builtinConstants.put("HAVE_CONTEXTVAR", true);
+        builtinConstants.put("__version__", "1.70");
+        builtinConstants.put("__libmpdec_version__", "2.4.2");
+        builtinConstants.put(SpecialAttributeNames.__DOC__, "C decimal arithmetic module");
+        super.initialize(core);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        core.loadLazyCoreFile(DecimalNodes.MODULE_NAME);
+    }
+
+    @Builtin(name = "Decimal", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "value", "context"}, constructsClass = PythonBuiltinClassType.PDecimal, //
+                    doc = "Construct a new Decimal object from an integer, string, float, tuple or Decimal. The conversion is exact.")
+    @GenerateNodeFactory
+    abstract static class DecimalNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object construct(Object cls, Object value, Object context,
+                        @Cached GetContextNode getContextNode,
+                        @Cached ConvertOperandNode convertNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (value == PNone.NO_VALUE) {
+                return factory().createDecimal(cls, DecimalValue.ZERO);
+            }
+            if (value instanceof PDecimal && cls == PythonBuiltinClassType.PDecimal) {
+                return value;
+            }
+            DecimalValue result = convertNode.execute(value);
+            if (result == null) {
+                PDecimalContext ctx = getContextNode.execute(context);
+                if (PGuards.isString(value)) {
+                    try {
+                        result = DecimalMath.parse(castToStringNode.execute(value), ctx, true);
+                    } catch (CannotCastException e) {
+                        throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, value);
+                    }
+                    DecimalNodes.checkStatus(this, ctx);
+                } else if (value instanceof Double || value instanceof PFloat) {
+                    DecimalNodes.addStatus(this, ctx, PDecimalContext.FLOAT_OPERATION);
+                    result = DecimalMath.fromDouble(value instanceof Double ? (double) value : ((PFloat) value).getValue());
+                } else if (value instanceof PTuple || value instanceof PList) {
+                    result = DecimalMath.parse(tupleToString(this, value), ctx, true);
+                    DecimalNodes.checkStatus(this, ctx);
+                } else {
+                    throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, value);
+                }
+            }
+            return factory().createDecimal(cls, result);
+        }
+
+        /**
+         * Converts a {@code (sign, digits, exponent)} tuple to the string syntax, like CPython's
+         * {@code dectuple_as_str}.
+         */
+        @TruffleBoundary
+        private static String tupleToString(Node node, Object value) {
+            Object[] items = GetObjectArrayNodeGen.getUncached().execute(value);
+            if (items.length != 3) {
+                throw PRaiseNode.raiseUncached(node, ValueError, ErrorMessages.ARG_MUST_BE_SEQ_OF_LEN_3);
+            }
+            BigInteger sign = intValue(items[0]);
+            if (sign == null || sign.signum() < 0 || sign.compareTo(BigInteger.ONE) > 0) {
+                throw PRaiseNode.raiseUncached(node, ValueError, ErrorMessages.SIGN_MUST_BE_INT_0_OR_1);
+            }
+            StringBuilder sb = new StringBuilder();
+            if (sign.signum() != 0) {
+                sb.append('-');
+            }
+            Object exp = items[2];
+            String special = null;
+            if (PGuards.isString(exp)) {
+                special = exp.toString();
+                if (special.equals("F")) {
+                    return sb.append("Infinity").toString();
+                } else if (special.equals("n")) {
+                    sb.append("NaN");
+                } else if (special.equals("N")) {
+                    sb.append("sNaN");
+                } else {
+                    throw PRaiseNode.raiseUncached(node, ValueError, ErrorMessages.STRING_ARG_IN_THIRD_POS_MUST_BE_F_N_N);
+                }
+            } else if (intValue(exp) == null) {
+                throw PRaiseNode.raiseUncached(node, ValueError, ErrorMessages.EXPONENT_MUST_BE_AN_INTEGER);
+            }
+            if (!(items[1] instanceof PTuple || items[1] instanceof PList)) {
+                throw PRaiseNode.raiseUncached(node, ValueError, ErrorMessages.COEFFICIENT_MUST_BE_TUPLE_OF_DIGITS);
+            }
+            int start = sb.length();
+            for (Object digit : GetObjectArrayNodeGen.getUncached().execute(items[1])) {
+                BigInteger d = intValue(digit);
+                if (d == null || d.signum() < 0 || d.compareTo(BigInteger.TEN) >= 0) {
+                    throw PRaiseNode.raiseUncached(node, ValueError, ErrorMessages.COEFFICIENT_MUST_BE_TUPLE_OF_DIGITS);
+                }
+                sb.append((char) ('0' + d.intValue()));
+            }
+            if (special == null) {
+                if (sb.length() == start) {
+                    sb.append('0');
+                }
+                sb.append('E').append(intValue(exp));
+            }
+            return sb.toString();
+        }
+
+        /* the value of an int, or null if value is not one */
+        private static BigInteger intValue(Object value) {
+            if (value instanceof PInt) {
+                return ((PInt) value).getValue();
+            } else if (value instanceof Boolean) {
+                return (boolean) value ? BigInteger.ONE : BigInteger.ZERO;
+            } else if (value instanceof Integer || value instanceof Long) {
+                return BigInteger.valueOf(((Number) value).longValue());
+            }
+            return null;
+        }
+    }
+
+    @Builtin(name = "Context", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "prec", "rounding", "Emin", "Emax", "capitals", "clamp", "flags", "traps"}, //
+                    constructsClass = PythonBuiltinClassType.PDecimalContext, doc = "The context affects almost all operations and controls rounding,\n" +
+                                    "Over/Underflow, raising of exceptions and much more.  A new context\n" +
+                                    "can be constructed as follows:\n\n" +
+                                    "    >>> c = Context(prec=28, Emin=-425000000, Emax=425000000,\n" +
+                                    "    ...             rounding=ROUND_HALF_EVEN, capitals=1, clamp=1,\n" +
+                                    "    ...             traps=[InvalidOperation, DivisionByZero, Overflow],\n" +
+                                    "    ...             flags=[])\n    >>>\n")
+    @GenerateNodeFactory
+    abstract static class ContextNode extends PythonBuiltinNode {
+        private static final String SIGNALS_TO_MASK = "_signals_to_mask";
+
+        @Specialization
+        Object construct(VirtualFrame frame, Object cls, Object prec, Object rounding, Object emin, Object emax, Object capitals, Object clamp, Object flags, Object traps,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @Cached CallNode callNode) {
+            Object template = DecimalNodes.getModuleAttribute(this, DecimalNodes.DEFAULT_CONTEXT);
+            PDecimalContext ctx;
+            if (template instanceof PDecimalContext) {
+                PDecimalContext t = (PDecimalContext) template;
+                ctx = factory().createDecimalContext(cls, t.getPrec(), t.getRounding(), t.getEmin(), t.getEmax(), t.getCapitals(), t.getClamp(), 0, t.getTraps());
+            } else {
+                ctx = factory().createDecimalContext(cls, 28, PDecimalContext.ROUND_HALF_EVEN, -999999, 999999, 1, 0, 0, PDecimalContext.DEFAULT_TRAPS);
+            }
+            if (!DecimalNodes.isNoneOrNoValue(prec)) {
+                DecimalContextBuiltins.setPrec(this, ctx, asLongNode.execute(frame, prec));
+            }
+            if (!DecimalNodes.isNoneOrNoValue(rounding)) {
+                DecimalContextBuiltins.setRounding(this, ctx, rounding);
+            }
+            if (!DecimalNodes.isNoneOrNoValue(emin)) {
+                DecimalContextBuiltins.setEmin(this, ctx, asLongNode.execute(frame, emin));
+            }
+            if (!DecimalNodes.isNoneOrNoValue(emax)) {
+                DecimalContextBuiltins.setEmax(this, ctx, asLongNode.execute(frame, emax));
+            }
+            if (!DecimalNodes.isNoneOrNoValue(capitals)) {
+                DecimalContextBuiltins.setCapitals(this, ctx, asLongNode.execute(frame, capitals));
+            }
+            if (!DecimalNodes.isNoneOrNoValue(clamp)) {
+                DecimalContextBuiltins.setClamp(this, ctx, asLongNode.execute(frame, clamp));
+            }
+            if (!DecimalNodes.isNoneOrNoValue(traps)) {
+                ctx.setTraps((int) asLongNode.execute(frame, callNode.execute(frame, DecimalNodes.getModuleAttribute(this, SIGNALS_TO_MASK), traps)));
+            }
+            if (!DecimalNodes.isNoneOrNoValue(flags)) {
+                ctx.setFlags((int) asLongNode.execute(frame, callNode.execute(frame, DecimalNodes.getModuleAttribute(this, SIGNALS_TO_MASK), flags)));
+            }
+            return ctx;
+        }
+    }
+
+    @Builtin(name = "getcontext", doc = "Get the current default context.")
+    @GenerateNodeFactory
+    abstract static class GetContextBuiltinNode extends PythonBuiltinNode {
+        @Specialization
+        PDecimalContext get() {
+            return DecimalNodes.getCurrentContext(getContext(), getLanguage());
+        }
+    }
+
+    @Builtin(name = "setcontext", minNumOfPositionalArgs = 1, doc = "Set a new default context.")
+    @GenerateNodeFactory
+    abstract static class SetContextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object set(PDecimalContext ctx) {
+            PDecimalContext current = ctx;
+            if (isTemplate(this, ctx)) {
+                // the module-level contexts are templates that are never used directly
+                current = DecimalNodes.copyContext(factory(), ctx, false);
+            }
+            getContext().getThreadState(getLanguage()).setDecimalContext(current);
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static boolean isTemplate(Node node, PDecimalContext ctx) {
+            return ctx == DecimalNodes.getModuleAttribute(node, DecimalNodes.DEFAULT_CONTEXT) || ctx == DecimalNodes.getModuleAttribute(node, DecimalNodes.BASIC_CONTEXT) ||
+                            ctx == DecimalNodes.getModuleAttribute(node, DecimalNodes.EXTENDED_CONTEXT);
+        }
+
+        @Specialization(guards = "!isContext(ctx)")
+        Object doOther(@SuppressWarnings("unused") Object ctx) {
+            throw raise(TypeError, ErrorMessages.ARG_MUST_BE_A_CONTEXT);
+        }
+
+        static boolean isContext(Object ctx) {
+            return ctx instanceof PDecimalContext;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CONVERSION_SYNTAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_BY_ZERO;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_IMPOSSIBLE;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_UNDEFINED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.FLOAT_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.IEEE_INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INEXACT;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INVALID_CONTEXT;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.OVERFLOW;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUNDED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SUBNORMAL;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.UNDERFLOW;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Nodes and helpers shared by the {@code _decimal} types: operand conversion, access to the
+ * thread's current context, and raising the signals of the module, which are defined in
+ * {@code lib-graalpython/_decimal.py}.
+ */
+public final class DecimalNodes {
+    static final String MODULE_NAME = "_decimal";
+    static final String DEFAULT_CONTEXT = "DefaultContext";
+    static final String BASIC_CONTEXT = "BasicContext";
+    static final String EXTENDED_CONTEXT = "ExtendedContext";
+
+    /* the signals of the module with their conditions, in the order of libmpdec's signal map */
+    static final String[] SIGNAL_NAMES = {"InvalidOperation", "FloatOperation", "DivisionByZero", "Overflow", "Underflow", "Subnormal", "Inexact", "Rounded", "Clamped"};
+    static final int[] SIGNAL_CONDITIONS = {IEEE_INVALID_OPERATION, FLOAT_OPERATION, DIVISION_BY_ZERO, OVERFLOW, UNDERFLOW, SUBNORMAL, INEXACT, ROUNDED, CLAMPED};
+
+    /* the conditions that are reported with their own class rather than as InvalidOperation */
+    private static final String[] CONDITION_NAMES = {"InvalidOperation", "ConversionSyntax", "DivisionImpossible", "DivisionUndefined", "InvalidContext"};
+    private static final int[] CONDITIONS = {INVALID_OPERATION, CONVERSION_SYNTAX, DIVISION_IMPOSSIBLE, DIVISION_UNDEFINED, INVALID_CONTEXT};
+
+    private DecimalNodes() {
+    }
+
+    static PDecimalContext createDefaultContext(PythonObjectFactory factory) {
+        return factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext, 28, PDecimalContext.ROUND_HALF_EVEN, -999999, 999999, 1, 0, 0, PDecimalContext.DEFAULT_TRAPS);
+    }
+
+    static PDecimalContext copyContext(PythonObjectFactory factory, PDecimalContext ctx, boolean keepFlags) {
+        return factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext, ctx.getPrec(), ctx.getRounding(), ctx.getEmin(), ctx.getEmax(), ctx.getCapitals(), ctx.getClamp(),
+                        keepFlags ? ctx.getFlags() : 0, ctx.getTraps());
+    }
+
+    /**
+     * Returns the module-level object {@code name}, e.g., one of the signal classes.
+     */
+    @TruffleBoundary
+    static Object getModuleAttribute(Node node, String name) {
+        PythonModule module = PythonContext.get(node).lookupBuiltinModule(MODULE_NAME);
+        return ReadAttributeFromObjectNode.getUncached().execute(module, name);
+    }
+
+    /**
+     * Returns the current context of this thread, creating it as a copy of
+     * {@code decimal.DefaultContext} on first use.
+     */
+    static PDecimalContext getCurrentContext(PythonContext context, PythonLanguage language) {
+        PDecimalContext ctx = context.getThreadState(language).getDecimalContext();
+        if (ctx == null) {
+            ctx = initCurrentContext(context, language);
+        }
+        return ctx;
+    }
+
+    @TruffleBoundary
+    private static PDecimalContext initCurrentContext(PythonContext context, PythonLanguage language) {
+        PythonModule module = context.lookupBuiltinModule(MODULE_NAME);
+        Object template = ReadAttributeFromObjectNode.getUncached().execute(module, DEFAULT_CONTEXT);
+        PythonObjectFactory factory = context.factory();
+        PDecimalContext ctx;
+        if (template instanceof PDecimalContext) {
+            ctx = copyContext(factory, (PDecimalContext) template, false);
+        } else {
+            // only happens while the module itself is being set up
+            ctx = createDefaultContext(factory);
+        }
+        context.getThreadState(language).setDecimalContext(ctx);
+        return ctx;
+    }
+
+    /**
+     * Checks the conditions signaled by the last operation against the traps of the context and
+     * raises the corresponding signal if one of them is trapped.
+     */
+    static void checkStatus(Node node, PDecimalContext ctx) {
+        int trapped = ctx.takePending() & ctx.getTraps();
+        if (trapped != 0) {
+            throw raiseSignal(node, trapped);
+        }
+    }
+
+    /**
+     * Signals {@code conditions} and checks the traps right away.
+     */
+    static void addStatus(Node node, PDecimalContext ctx, int conditions) {
+        ctx.signal(conditions);
+        checkStatus(node, ctx);
+    }
+
+    /**
+     * Raises the first of the signals in {@code conditions}, with the list of all of them as
+     * argument like CPython does.
+     */
+    @TruffleBoundary
+    static PException raiseSignal(Node node, int conditions) {
+        ArrayList<Object> list = new ArrayList<>();
+        for (int i = 0; i < CONDITIONS.length; i++) {
+            if ((conditions & CONDITIONS[i]) != 0) {
+                list.add(getModuleAttribute(node, CONDITION_NAMES[i]));
+            }
+        }
+        Object signal = null;
+        for (int i = 0; i < SIGNAL_NAMES.length; i++) {
+            if ((conditions & SIGNAL_CONDITIONS[i]) != 0) {
+                if (signal == null) {
+                    signal = getModuleAttribute(node, SIGNAL_NAMES[i]);
+                }
+                if (i > 0) {
+                    list.add(getModuleAttribute(node, SIGNAL_NAMES[i]));
+                }
+            }
+        }
+        PythonObjectFactory factory = PythonContext.get(node).factory();
+        Object exception = CallNode.getUncached().execute(signal, factory.createList(list.toArray()));
+        return PRaiseNode.raise(node, (PBaseException) exception, PythonOptions.isPExceptionWithJavaStacktrace(PythonLanguage.get(node)));
+    }
+
+    static DecimalValue fromLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return fromBigInteger(BigInteger.valueOf(value));
+        }
+        return DecimalValue.finite(value < 0, Math.abs(value), 0);
+    }
+
+    @TruffleBoundary
+    static DecimalValue fromBigInteger(BigInteger value) {
+        return DecimalValue.finite(value.signum() < 0, value.abs(), 0);
+    }
+
+    /**
+     * Converts the operands that Decimal arithmetic accepts, i.e., decimals and ints. Returns
+     * {@code null} for anything else.
+     */
+    @GenerateUncached
+    @ImportStatic(PGuards.class)
+    public abstract static class ConvertOperandNode extends Node {
+        public abstract DecimalValue execute(Object value);
+
+        @Specialization
+        static DecimalValue doDecimal(PDecimal value) {
+            return value.getValue();
+        }
+
+        @Specialization
+        static DecimalValue doBoolean(boolean value) {
+            return value ? DecimalValue.ONE : DecimalValue.ZERO;
+        }
+
+        @Specialization
+        static DecimalValue doInt(int value) {
+            return fromLong(value);
+        }
+
+        @Specialization
+        static DecimalValue doLong(long value) {
+            return fromLong(value);
+        }
+
+        @Specialization
+        static DecimalValue doPInt(PInt value) {
+            return fromBigInteger(value.getValue());
+        }
+
+        @Fallback
+        static DecimalValue doOther(@SuppressWarnings("unused") Object value) {
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link ConvertOperandNode}, but raises a TypeError for unsupported operands.
+     */
+    public abstract static class ConvertOperandOrRaiseNode extends PNodeWithRaise {
+        public abstract DecimalValue execute(Object value);
+
+        @Specialization
+        DecimalValue convert(Object value,
+                        @Cached ConvertOperandNode convertNode) {
+            DecimalValue result = convertNode.execute(value);
+            if (result == null) {
+                throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, value);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Resolves the optional {@code context} argument of the Decimal methods.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class GetContextNode extends PNodeWithRaise {
+        public abstract PDecimalContext execute(Object context);
+
+        @Specialization
+        static PDecimalContext doContext(PDecimalContext context) {
+            return context;
+        }
+
+        @Specialization(guards = "isNoValue(context) || isNone(context)")
+        PDecimalContext doCurrent(@SuppressWarnings("unused") Object context) {
+            return getCurrentContext(getContext(), getLanguage());
+        }
+
+        @Fallback
+        PDecimalContext doOther(@SuppressWarnings("unused") Object context) {
+            throw raise(TypeError, ErrorMessages.OPTIONAL_ARG_MUST_BE_A_CONTEXT);
+        }
+    }
+
+    /**
+     * Resolves the optional {@code rounding} argument of the Decimal methods.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class GetRoundingNode extends PNodeWithRaise {
+        public abstract int execute(Object rounding, PDecimalContext context);
+
+        @Specialization(guards = "isNoValue(rounding) || isNone(rounding)")
+        static int doDefault(@SuppressWarnings("unused") Object rounding, PDecimalContext context) {
+            return context.getRounding();
+        }
+
+        @Fallback
+        int doOther(Object rounding, @SuppressWarnings("unused") PDecimalContext context) {
+            int result = DecimalNodes.parseRounding(rounding);
+            if (result < 0) {
+                throw raise(TypeError, ErrorMessages.INVALID_ROUNDING_MODE);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the rounding mode with the given name, or -1 if {@code name} is not one.
+     */
+    @TruffleBoundary
+    static int parseRounding(Object name) {
+        if (name instanceof String || name instanceof PString) {
+            String s = name.toString();
+            for (int i = 0; i < PDecimalContext.ROUNDING_NAMES.length; i++) {
+                if (PDecimalContext.ROUNDING_NAMES[i].equals(s)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    static boolean isNoneOrNoValue(Object value) {
+        return value == PNone.NONE || value == PNone.NO_VALUE;
+    }
+}
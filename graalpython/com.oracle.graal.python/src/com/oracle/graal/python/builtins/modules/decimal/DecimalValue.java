@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.CompilerDirectives.ValueType;
+
+/**
+ * An immutable decimal number {@code (-1)**sign * coefficient * 10**exponent}, or one of the special
+ * values infinity, quiet NaN and signaling NaN (whose coefficient is the diagnostic payload).
+ * Coefficients that fit into a {@code long} are stored inline, larger ones as {@link BigInteger}.
+ */
+@ValueType
+public final class DecimalValue {
+    static final int FINITE = 0;
+    static final int INFINITE = 1;
+    static final int QNAN = 2;
+    static final int SNAN = 3;
+
+    static final DecimalValue NAN = new DecimalValue(QNAN, false, 0, null, 0);
+    static final DecimalValue ZERO = new DecimalValue(FINITE, false, 0, null, 0);
+    static final DecimalValue ONE = new DecimalValue(FINITE, false, 1, null, 0);
+    static final DecimalValue MINUS_ONE = new DecimalValue(FINITE, true, 1, null, 0);
+    private static final DecimalValue POSITIVE_INFINITY = new DecimalValue(INFINITE, false, 0, null, 0);
+    private static final DecimalValue NEGATIVE_INFINITY = new DecimalValue(INFINITE, true, 0, null, 0);
+
+    private final int special;
+    private final boolean negative;
+    /* the coefficient if 'big' is null */
+    private final long compact;
+    private final BigInteger big;
+    private final long exponent;
+
+    private DecimalValue(int special, boolean negative, long compact, BigInteger big, long exponent) {
+        assert big == null || big.bitLength() >= 63;
+        this.special = special;
+        this.negative = negative;
+        this.compact = compact;
+        this.big = big;
+        this.exponent = exponent;
+    }
+
+    static DecimalValue finite(boolean negative, long coefficient, long exponent) {
+        assert coefficient >= 0;
+        return new DecimalValue(FINITE, negative, coefficient, null, exponent);
+    }
+
+    @TruffleBoundary
+    static DecimalValue finite(boolean negative, BigInteger coefficient, long exponent) {
+        assert coefficient.signum() >= 0;
+        if (coefficient.bitLength() < 63) {
+            return new DecimalValue(FINITE, negative, coefficient.longValue(), null, exponent);
+        }
+        return new DecimalValue(FINITE, negative, 0, coefficient, exponent);
+    }
+
+    static DecimalValue infinity(boolean negative) {
+        return negative ? NEGATIVE_INFINITY : POSITIVE_INFINITY;
+    }
+
+    @TruffleBoundary
+    static DecimalValue nan(boolean negative, boolean signaling, BigInteger payload) {
+        if (payload.bitLength() < 63) {
+            return new DecimalValue(signaling ? SNAN : QNAN, negative, payload.longValue(), null, 0);
+        }
+        return new DecimalValue(signaling ? SNAN : QNAN, negative, 0, payload, 0);
+    }
+
+    int getSpecial() {
+        return special;
+    }
+
+    boolean isNegative() {
+        return negative;
+    }
+
+    long getExponent() {
+        return exponent;
+    }
+
+    boolean isCompact() {
+        return big == null;
+    }
+
+    long getCompact() {
+        assert big == null;
+        return compact;
+    }
+
+    @TruffleBoundary
+    BigInteger getCoefficient() {
+        return big != null ? big : BigInteger.valueOf(compact);
+    }
+
+    boolean isSpecial() {
+        return special != FINITE;
+    }
+
+    boolean isFinite() {
+        return special == FINITE;
+    }
+
+    boolean isInfinite() {
+        return special == INFINITE;
+    }
+
+    boolean isNaN() {
+        return special >= QNAN;
+    }
+
+    boolean isQNaN() {
+        return special == QNAN;
+    }
+
+    boolean isSNaN() {
+        return special == SNAN;
+    }
+
+    /**
+     * Returns {@code true} for a finite zero.
+     */
+    boolean isZero() {
+        return special == FINITE && big == null && compact == 0;
+    }
+
+    /**
+     * Returns {@code true} for the values that {@code bool()} considers false.
+     */
+    boolean isFalse() {
+        return isZero();
+    }
+
+    /**
+     * Returns {@code true} if the coefficient is zero, also for special values.
+     */
+    boolean isCoefficientZero() {
+        return big == null && compact == 0;
+    }
+
+    /**
+     * The number of digits of the coefficient (or of the NaN payload). Zero has one digit.
+     */
+    long digits() {
+        return big == null ? DecimalMath.digits(compact) : DecimalMath.digits(big);
+    }
+
+    /**
+     * The exponent of the most significant digit, zero for special values.
+     */
+    long adjusted() {
+        if (special != FINITE) {
+            return 0;
+        }
+        return exponent + digits() - 1;
+    }
+
+    DecimalValue negate() {
+        return withSign(!negative);
+    }
+
+    DecimalValue abs() {
+        return withSign(false);
+    }
+
+    DecimalValue withSign(boolean newNegative) {
+        if (newNegative == negative) {
+            return this;
+        }
+        return new DecimalValue(special, newNegative, compact, big, exponent);
+    }
+
+    /**
+     * A finite value with the same sign and coefficient, scaled to the given exponent.
+     */
+    DecimalValue withExponent(long newExponent) {
+        assert isFinite();
+        return new DecimalValue(FINITE, negative, compact, big, newExponent);
+    }
+
+    /**
+     * Turns a signaling NaN into a quiet one, keeping the sign and the payload.
+     */
+    DecimalValue quiet() {
+        assert isNaN();
+        return new DecimalValue(QNAN, negative, compact, big, 0);
+    }
+}
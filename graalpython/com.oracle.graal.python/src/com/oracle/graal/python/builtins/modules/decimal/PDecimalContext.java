@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The mutable {@code decimal.Context}. Flags and traps are bit sets of the conditions below, which
+ * use the same values as libmpdec. The Python-level signals map to one or more conditions, e.g.,
+ * {@code InvalidOperation} covers all the {@link #IEEE_INVALID_OPERATION} conditions.
+ */
+public final class PDecimalContext extends PythonBuiltinObject {
+    static final int CLAMPED = 0x1;
+    static final int CONVERSION_SYNTAX = 0x2;
+    static final int DIVISION_BY_ZERO = 0x4;
+    static final int DIVISION_IMPOSSIBLE = 0x8;
+    static final int DIVISION_UNDEFINED = 0x10;
+    static final int FPU_ERROR = 0x20;
+    static final int INEXACT = 0x40;
+    static final int INVALID_CONTEXT = 0x80;
+    static final int INVALID_OPERATION = 0x100;
+    static final int MALLOC_ERROR = 0x200;
+    static final int FLOAT_OPERATION = 0x400;
+    static final int OVERFLOW = 0x800;
+    static final int ROUNDED = 0x1000;
+    static final int SUBNORMAL = 0x2000;
+    static final int UNDERFLOW = 0x4000;
+
+    static final int IEEE_INVALID_OPERATION = CONVERSION_SYNTAX | DIVISION_IMPOSSIBLE | DIVISION_UNDEFINED | FPU_ERROR | INVALID_CONTEXT | INVALID_OPERATION | MALLOC_ERROR;
+    static final int DEFAULT_TRAPS = IEEE_INVALID_OPERATION | DIVISION_BY_ZERO | OVERFLOW;
+
+    /* rounding modes, in the order of libmpdec */
+    static final int ROUND_UP = 0;
+    static final int ROUND_DOWN = 1;
+    static final int ROUND_CEILING = 2;
+    static final int ROUND_FLOOR = 3;
+    static final int ROUND_HALF_UP = 4;
+    static final int ROUND_HALF_DOWN = 5;
+    static final int ROUND_HALF_EVEN = 6;
+    static final int ROUND_05UP = 7;
+
+    static final String[] ROUNDING_NAMES = {"ROUND_UP", "ROUND_DOWN", "ROUND_CEILING", "ROUND_FLOOR", "ROUND_HALF_UP", "ROUND_HALF_DOWN", "ROUND_HALF_EVEN", "ROUND_05UP"};
+
+    static final long MAX_PREC = 999999999999999999L;
+    static final long MAX_EMAX = 999999999999999999L;
+    static final long MIN_EMIN = -999999999999999999L;
+    static final long MIN_ETINY = MIN_EMIN - (MAX_PREC - 1);
+
+    private long prec;
+    private int rounding;
+    private long emin;
+    private long emax;
+    private int capitals;
+    private int clamp;
+    private int flags;
+    private int traps;
+
+    /* the conditions signaled by the current operation that have not been checked for traps */
+    private int pending;
+
+    public PDecimalContext(Object cls, Shape instanceShape, long prec, int rounding, long emin, long emax, int capitals, int clamp, int flags, int traps) {
+        super(cls, instanceShape);
+        this.prec = prec;
+        this.rounding = rounding;
+        this.emin = emin;
+        this.emax = emax;
+        this.capitals = capitals;
+        this.clamp = clamp;
+        this.flags = flags;
+        this.traps = traps;
+    }
+
+    public long getPrec() {
+        return prec;
+    }
+
+    public void setPrec(long prec) {
+        this.prec = prec;
+    }
+
+    public int getRounding() {
+        return rounding;
+    }
+
+    public void setRounding(int rounding) {
+        this.rounding = rounding;
+    }
+
+    public long getEmin() {
+        return emin;
+    }
+
+    public void setEmin(long emin) {
+        this.emin = emin;
+    }
+
+    public long getEmax() {
+        return emax;
+    }
+
+    public void setEmax(long emax) {
+        this.emax = emax;
+    }
+
+    public int getCapitals() {
+        return capitals;
+    }
+
+    public void setCapitals(int capitals) {
+        this.capitals = capitals;
+    }
+
+    public int getClamp() {
+        return clamp;
+    }
+
+    public void setClamp(int clamp) {
+        this.clamp = clamp;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public void setFlags(int flags) {
+        this.flags = flags;
+    }
+
+    public int getTraps() {
+        return traps;
+    }
+
+    public void setTraps(int traps) {
+        this.traps = traps;
+    }
+
+    /**
+     * The smallest exponent of a subnormal number.
+     */
+    long etiny() {
+        return emin - prec + 1;
+    }
+
+    /**
+     * The largest exponent of a number with a full-length coefficient.
+     */
+    long etop() {
+        return emax - prec + 1;
+    }
+
+    /**
+     * Records conditions raised by an operation. They are added to the flags right away, the
+     * traps are checked once the operation is complete (see {@link #takePending()}).
+     */
+    void signal(int conditions) {
+        flags |= conditions;
+        pending |= conditions;
+    }
+
+    /**
+     * Returns and clears the conditions signaled since the last call.
+     */
+    int takePending() {
+        int result = pending;
+        pending = 0;
+        return result;
+    }
+}
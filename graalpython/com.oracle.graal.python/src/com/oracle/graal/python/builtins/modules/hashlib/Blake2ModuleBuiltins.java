@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(defineModule = "_blake2")
+public class Blake2ModuleBuiltins extends PythonBuiltins {
+
+    private static final long MAX_LEAF_SIZE = 0xFFFFFFFFL;
+    private static final long MAX_BLAKE2S_NODE_OFFSET = 0xFFFFFFFFFFFFL;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return Blake2ModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        builtinConstants.put("BLAKE2B_SALT_SIZE", Blake2bDigest.SALT_SIZE);
+        builtinConstants.put("BLAKE2B_PERSON_SIZE", Blake2bDigest.PERSON_SIZE);
+        builtinConstants.put("BLAKE2B_MAX_KEY_SIZE", Blake2bDigest.MAX_KEY_SIZE);
+        builtinConstants.put("BLAKE2B_MAX_DIGEST_SIZE", Blake2bDigest.MAX_DIGEST_SIZE);
+        builtinConstants.put("BLAKE2S_SALT_SIZE", Blake2sDigest.SALT_SIZE);
+        builtinConstants.put("BLAKE2S_PERSON_SIZE", Blake2sDigest.PERSON_SIZE);
+        builtinConstants.put("BLAKE2S_MAX_KEY_SIZE", Blake2sDigest.MAX_KEY_SIZE);
+        builtinConstants.put("BLAKE2S_MAX_DIGEST_SIZE", Blake2sDigest.MAX_DIGEST_SIZE);
+        super.initialize(core);
+        setSizes(core.lookupType(PythonBuiltinClassType.Blake2b), Blake2bDigest.SALT_SIZE, Blake2bDigest.PERSON_SIZE, Blake2bDigest.MAX_KEY_SIZE, Blake2bDigest.MAX_DIGEST_SIZE);
+        setSizes(core.lookupType(PythonBuiltinClassType.Blake2s), Blake2sDigest.SALT_SIZE, Blake2sDigest.PERSON_SIZE, Blake2sDigest.MAX_KEY_SIZE, Blake2sDigest.MAX_DIGEST_SIZE);
+    }
+
+    private static void setSizes(PythonBuiltinClass type, int saltSize, int personSize, int maxKeySize, int maxDigestSize) {
+        type.setAttribute("SALT_SIZE", saltSize);
+        type.setAttribute("PERSON_SIZE", personSize);
+        type.setAttribute("MAX_KEY_SIZE", maxKeySize);
+        type.setAttribute("MAX_DIGEST_SIZE", maxDigestSize);
+    }
+
+    /**
+     * Validates the parameters like CPython's {@code py_blake2b_new} and {@code py_blake2s_new}.
+     */
+    abstract static class Blake2ConstructorNode extends PythonClinicBuiltinNode {
+        abstract String getName();
+
+        abstract int getMaxDigestSize();
+
+        abstract int getMaxKeySize();
+
+        abstract int getSaltSize();
+
+        abstract int getPersonSize();
+
+        abstract long getMaxNodeOffset();
+
+        abstract MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize,
+                        boolean lastNode);
+
+        @Specialization
+        DigestObject create(VirtualFrame frame, Object cls, Object data, int digestSize, Object keyObj, Object saltObj, Object personObj, int fanout, int depth, long leafSize, long nodeOffset,
+                        int nodeDepth, int innerSize, boolean lastNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode,
+                        @Cached HashlibNodes.CreateDigestObjectNode createNode) {
+            if (digestSize < 1 || digestSize > getMaxDigestSize()) {
+                throw raise(ValueError, ErrorMessages.DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES, getMaxDigestSize());
+            }
+            byte[] salt = toBytes(frame, saltObj, toBytesNode);
+            if (salt.length > getSaltSize()) {
+                throw raise(ValueError, ErrorMessages.MAXIMUM_S_LENGTH_IS_D_BYTES, "salt", getSaltSize());
+            }
+            byte[] person = toBytes(frame, personObj, toBytesNode);
+            if (person.length > getPersonSize()) {
+                throw raise(ValueError, ErrorMessages.MAXIMUM_S_LENGTH_IS_D_BYTES, "person", getPersonSize());
+            }
+            if (fanout < 0 || fanout > 255) {
+                throw raise(ValueError, ErrorMessages.FANOUT_MUST_BE_BETWEEN_0_AND_255);
+            }
+            if (depth < 1 || depth > 255) {
+                throw raise(ValueError, ErrorMessages.DEPTH_MUST_BE_BETWEEN_1_AND_255);
+            }
+            if (leafSize < 0 || leafSize > MAX_LEAF_SIZE) {
+                throw raise(OverflowError, ErrorMessages.LEAF_SIZE_IS_TOO_LARGE);
+            }
+            if (Long.compareUnsigned(nodeOffset, getMaxNodeOffset()) > 0) {
+                throw raise(OverflowError, ErrorMessages.NODE_OFFSET_IS_TOO_LARGE);
+            }
+            if (nodeDepth < 0 || nodeDepth > 255) {
+                throw raise(ValueError, ErrorMessages.NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255);
+            }
+            if (innerSize < 0 || innerSize > getMaxDigestSize()) {
+                throw raise(ValueError, ErrorMessages.INNER_SIZE_MUST_BE_BETWEEN_0_AND_IS_D, getMaxDigestSize());
+            }
+            byte[] key = toBytes(frame, keyObj, toBytesNode);
+            if (key.length > getMaxKeySize()) {
+                throw raise(ValueError, ErrorMessages.MAXIMUM_S_LENGTH_IS_D_BYTES, "key", getMaxKeySize());
+            }
+            MessageDigest digest = createDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+            return createNode.execute(frame, cls, getName(), digest, data);
+        }
+
+        private static byte[] toBytes(VirtualFrame frame, Object obj, BytesNodes.ToBytesNode toBytesNode) {
+            if (obj == PNone.NO_VALUE) {
+                return PythonUtils.EMPTY_BYTE_ARRAY;
+            }
+            return toBytesNode.execute(frame, obj);
+        }
+    }
+
+    @Builtin(name = "blake2b", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "data"}, keywordOnlyNames = {"digest_size", "key", "salt", "person", "fanout", "depth", "leaf_size",
+                    "node_offset", "node_depth", "inner_size", "last_node"}, constructsClass = PythonBuiltinClassType.Blake2b, doc = "Return a new BLAKE2b hash object.")
+    @ArgumentClinic(name = "digest_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "Blake2bDigest.MAX_DIGEST_SIZE")
+    @ArgumentClinic(name = "fanout", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "leaf_size", conversion = ArgumentClinic.ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "node_offset", conversion = ArgumentClinic.ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "node_depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "inner_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "last_node", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class Blake2bNode extends Blake2ConstructorNode {
+        @Override
+        String getName() {
+            return "blake2b";
+        }
+
+        @Override
+        int getMaxDigestSize() {
+            return Blake2bDigest.MAX_DIGEST_SIZE;
+        }
+
+        @Override
+        int getMaxKeySize() {
+            return Blake2bDigest.MAX_KEY_SIZE;
+        }
+
+        @Override
+        int getSaltSize() {
+            return Blake2bDigest.SALT_SIZE;
+        }
+
+        @Override
+        int getPersonSize() {
+            return Blake2bDigest.PERSON_SIZE;
+        }
+
+        @Override
+        long getMaxNodeOffset() {
+            return -1L;
+        }
+
+        @Override
+        @TruffleBoundary
+        MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize, boolean lastNode) {
+            return new Blake2bDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Blake2ModuleBuiltinsClinicProviders.Blake2bNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "blake2s", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "data"}, keywordOnlyNames = {"digest_size", "key", "salt", "person", "fanout", "depth", "leaf_size",
+                    "node_offset", "node_depth", "inner_size", "last_node"}, constructsClass = PythonBuiltinClassType.Blake2s, doc = "Return a new BLAKE2s hash object.")
+    @ArgumentClinic(name = "digest_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "Blake2sDigest.MAX_DIGEST_SIZE")
+    @ArgumentClinic(name = "fanout", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "leaf_size", conversion = ArgumentClinic.ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "node_offset", conversion = ArgumentClinic.ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "node_depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "inner_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "last_node", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class Blake2sNode extends Blake2ConstructorNode {
+        @Override
+        String getName() {
+            return "blake2s";
+        }
+
+        @Override
+        int getMaxDigestSize() {
+            return Blake2sDigest.MAX_DIGEST_SIZE;
+        }
+
+        @Override
+        int getMaxKeySize() {
+            return Blake2sDigest.MAX_KEY_SIZE;
+        }
+
+        @Override
+        int getSaltSize() {
+            return Blake2sDigest.SALT_SIZE;
+        }
+
+        @Override
+        int getPersonSize() {
+            return Blake2sDigest.PERSON_SIZE;
+        }
+
+        @Override
+        long getMaxNodeOffset() {
+            return MAX_BLAKE2S_NODE_OFFSET;
+        }
+
+        @Override
+        @TruffleBoundary
+        MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize, boolean lastNode) {
+            return new Blake2sDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Blake2ModuleBuiltinsClinicProviders.Blake2sNodeClinicProviderGen.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+
+/**
+ * BLAKE2s (RFC 7693), the 32-bit variant of {@link Blake2bDigest}.
+ */
+final class Blake2sDigest extends MessageDigest implements Cloneable {
+
+    static final int BLOCK_SIZE = 64;
+    static final int MAX_DIGEST_SIZE = 32;
+    static final int MAX_KEY_SIZE = 32;
+    static final int SALT_SIZE = 8;
+    static final int PERSON_SIZE = 8;
+
+    private static final int[] IV = {
+                    0x6A09E667, 0xBB67AE85, 0x3C6EF372, 0xA54FF53A, 0x510E527F, 0x9B05688C, 0x1F83D9AB, 0x5BE0CD19
+    };
+
+    private final int digestLength;
+    private final boolean lastNode;
+    private final int[] initialState;
+    private final byte[] keyBlock;
+
+    private int[] h;
+    private byte[] buffer = new byte[BLOCK_SIZE];
+    private int bufferPos;
+    private long counter;
+
+    Blake2sDigest(int digestLength, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize, boolean lastNode) {
+        super("BLAKE2s-" + digestLength * 8);
+        this.digestLength = digestLength;
+        this.lastNode = lastNode;
+        byte[] param = new byte[32];
+        param[0] = (byte) digestLength;
+        param[1] = (byte) key.length;
+        param[2] = (byte) fanout;
+        param[3] = (byte) depth;
+        writeLE(param, 4, leafSize, 4);
+        writeLE(param, 8, nodeOffset, 6);
+        param[14] = (byte) nodeDepth;
+        param[15] = (byte) innerSize;
+        System.arraycopy(salt, 0, param, 16, salt.length);
+        System.arraycopy(person, 0, param, 24, person.length);
+        initialState = new int[8];
+        for (int i = 0; i < 8; i++) {
+            initialState[i] = IV[i] ^ readInt(param, i * 4);
+        }
+        if (key.length > 0) {
+            keyBlock = new byte[BLOCK_SIZE];
+            System.arraycopy(key, 0, keyBlock, 0, key.length);
+        } else {
+            keyBlock = null;
+        }
+        engineReset();
+    }
+
+    static void writeLE(byte[] dest, int offset, long value, int n) {
+        for (int i = 0; i < n; i++) {
+            dest[offset + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return digestLength;
+    }
+
+    @Override
+    protected void engineReset() {
+        h = initialState.clone();
+        bufferPos = 0;
+        counter = 0;
+        if (keyBlock != null) {
+            System.arraycopy(keyBlock, 0, buffer, 0, BLOCK_SIZE);
+            bufferPos = BLOCK_SIZE;
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        if (bufferPos == BLOCK_SIZE) {
+            counter += BLOCK_SIZE;
+            compress(buffer, 0, false);
+            bufferPos = 0;
+        }
+        buffer[bufferPos++] = input;
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        int i = offset;
+        int remaining = len;
+        if (remaining == 0) {
+            return;
+        }
+        // the last block must stay in the buffer until we know whether it is the final one
+        if (bufferPos > 0) {
+            int fill = BLOCK_SIZE - bufferPos;
+            if (remaining <= fill) {
+                System.arraycopy(input, i, buffer, bufferPos, remaining);
+                bufferPos += remaining;
+                return;
+            }
+            System.arraycopy(input, i, buffer, bufferPos, fill);
+            counter += BLOCK_SIZE;
+            compress(buffer, 0, false);
+            i += fill;
+            remaining -= fill;
+            bufferPos = 0;
+        }
+        while (remaining > BLOCK_SIZE) {
+            counter += BLOCK_SIZE;
+            compress(input, i, false);
+            i += BLOCK_SIZE;
+            remaining -= BLOCK_SIZE;
+        }
+        System.arraycopy(input, i, buffer, 0, remaining);
+        bufferPos = remaining;
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        counter += bufferPos;
+        for (int i = bufferPos; i < BLOCK_SIZE; i++) {
+            buffer[i] = 0;
+        }
+        compress(buffer, 0, true);
+        byte[] full = new byte[32];
+        for (int i = 0; i < 8; i++) {
+            writeLE(full, i * 4, h[i], 4);
+        }
+        byte[] out = new byte[digestLength];
+        System.arraycopy(full, 0, out, 0, digestLength);
+        engineReset();
+        return out;
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        Blake2sDigest copy = (Blake2sDigest) super.clone();
+        copy.h = h.clone();
+        copy.buffer = buffer.clone();
+        return copy;
+    }
+
+    private void compress(byte[] block, int offset, boolean last) {
+        int[] m = new int[16];
+        for (int i = 0; i < 16; i++) {
+            m[i] = readInt(block, offset + i * 4);
+        }
+        int[] v = new int[16];
+        System.arraycopy(h, 0, v, 0, 8);
+        System.arraycopy(IV, 0, v, 8, 8);
+        v[12] ^= (int) counter;
+        v[13] ^= (int) (counter >>> 32);
+        if (last) {
+            v[14] = ~v[14];
+            if (lastNode) {
+                v[15] = ~v[15];
+            }
+        }
+        for (int r = 0; r < 10; r++) {
+            byte[] s = Blake2bDigest.SIGMA[r];
+            mix(v, 0, 4, 8, 12, m[s[0]], m[s[1]]);
+            mix(v, 1, 5, 9, 13, m[s[2]], m[s[3]]);
+            mix(v, 2, 6, 10, 14, m[s[4]], m[s[5]]);
+            mix(v, 3, 7, 11, 15, m[s[6]], m[s[7]]);
+            mix(v, 0, 5, 10, 15, m[s[8]], m[s[9]]);
+            mix(v, 1, 6, 11, 12, m[s[10]], m[s[11]]);
+            mix(v, 2, 7, 8, 13, m[s[12]], m[s[13]]);
+            mix(v, 3, 4, 9, 14, m[s[14]], m[s[15]]);
+        }
+        for (int i = 0; i < 8; i++) {
+            h[i] ^= v[i] ^ v[i + 8];
+        }
+    }
+
+    private static void mix(int[] v, int a, int b, int c, int d, int x, int y) {
+        v[a] = v[a] + v[b] + x;
+        v[d] = Integer.rotateRight(v[d] ^ v[a], 16);
+        v[c] = v[c] + v[d];
+        v[b] = Integer.rotateRight(v[b] ^ v[c], 12);
+        v[a] = v[a] + v[b] + y;
+        v[d] = Integer.rotateRight(v[d] ^ v[a], 8);
+        v[c] = v[c] + v[d];
+        v[b] = Integer.rotateRight(v[b] ^ v[c], 7);
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+}
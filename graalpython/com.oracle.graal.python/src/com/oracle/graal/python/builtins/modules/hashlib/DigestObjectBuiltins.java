@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = {PythonBuiltinClassType.HashlibHash, PythonBuiltinClassType.Sha3SHA224, PythonBuiltinClassType.Sha3SHA256, PythonBuiltinClassType.Sha3SHA384,
+                PythonBuiltinClassType.Sha3SHA512, PythonBuiltinClassType.Sha3Shake128, PythonBuiltinClassType.Sha3Shake256, PythonBuiltinClassType.Blake2b,
+                PythonBuiltinClassType.Blake2s})
+public class DigestObjectBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DigestObjectBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "update", minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"})
+    @GenerateNodeFactory
+    abstract static class UpdateNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone update(VirtualFrame frame, DigestObject self, Object obj,
+                        @Cached HashlibNodes.UpdateNode updateNode) {
+            updateNode.execute(frame, self, obj);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        DigestObject copy(DigestObject self,
+                        @Cached GetClassNode getClassNode) {
+            return factory().createDigestObject(getClassNode.execute(self), self.getName(), self.getBlockSize(), self.copyDigest());
+        }
+    }
+
+    abstract static class BaseDigestNode extends PythonBinaryBuiltinNode {
+        abstract String getMethodName();
+
+        byte[] getDigest(VirtualFrame frame, DigestObject self, Object length, PyNumberAsSizeNode asSizeNode) {
+            if (!self.isXof()) {
+                if (length != PNone.NO_VALUE) {
+                    throw raise(TypeError, ErrorMessages.S_TAKES_NO_ARGUMENTS_D_GIVEN, getMethodName(), 1);
+                }
+                return self.digest();
+            }
+            if (length == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.S_MISSING_REQUIRED_ARGUMENT_S_POS_D, getMethodName(), "length", 1);
+            }
+            int len = asSizeNode.executeExact(frame, length);
+            if (len < 0) {
+                throw raise(ValueError, ErrorMessages.VALUE_MUST_BE_POSITIVE);
+            } else if (len >= (1 << 29)) {
+                throw raise(ValueError, ErrorMessages.LENGTH_IS_TOO_LARGE);
+            }
+            return self.digest(len);
+        }
+    }
+
+    @Builtin(name = "digest", minNumOfPositionalArgs = 1, parameterNames = {"$self", "length"})
+    @GenerateNodeFactory
+    abstract static class DigestNode extends BaseDigestNode {
+        @Override
+        String getMethodName() {
+            return "digest";
+        }
+
+        @Specialization
+        PBytes digest(VirtualFrame frame, DigestObject self, Object length,
+                        @Cached PyNumberAsSizeNode asSizeNode) {
+            return factory().createBytes(getDigest(frame, self, length, asSizeNode));
+        }
+    }
+
+    @Builtin(name = "hexdigest", minNumOfPositionalArgs = 1, parameterNames = {"$self", "length"})
+    @GenerateNodeFactory
+    abstract static class HexDigestNode extends BaseDigestNode {
+        @Override
+        String getMethodName() {
+            return "hexdigest";
+        }
+
+        @Specialization
+        String hexdigest(VirtualFrame frame, DigestObject self, Object length,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached BytesNodes.ByteToHexNode toHexNode) {
+            byte[] digest = getDigest(frame, self, length, asSizeNode);
+            return toHexNode.execute(digest, digest.length, (byte) 0, 0);
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String name(DigestObject self) {
+            return self.getName();
+        }
+    }
+
+    @Builtin(name = "digest_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DigestSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int digestSize(DigestObject self) {
+            return self.getDigestSize();
+        }
+    }
+
+    @Builtin(name = "block_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BlockSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int blockSize(DigestObject self) {
+            return self.getBlockSize();
+        }
+    }
+}
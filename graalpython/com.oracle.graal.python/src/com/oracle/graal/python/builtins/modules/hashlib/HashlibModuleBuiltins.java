@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Replaces CPython's OpenSSL based {@code _hashlib} with {@link MessageDigest} for the algorithms
+ * the JDK provides and our own implementations of SHA-3 and BLAKE2. The per-algorithm modules
+ * {@code _md5}, {@code _sha1}, {@code _sha256}, {@code _sha512}, {@code _sha3} and
+ * {@code _blake2} create the same hash objects.
+ */
+@CoreFunctions(defineModule = "_hashlib")
+public class HashlibModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HashlibModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        HashingStorage names = EconomicMapStorage.create(HashlibNodes.ALGORITHMS.length);
+        HashingStorageLibrary lib = HashingStorageLibrary.getFactory().getUncached(names);
+        for (String name : HashlibNodes.ALGORITHMS) {
+            if (HashlibNodes.createDigest(name) != null) {
+                names = lib.setItem(names, name, PNone.NO_VALUE);
+            }
+        }
+        builtinConstants.put("openssl_md_meth_names", core.factory().createFrozenSet(names));
+        super.initialize(core);
+    }
+
+    @Builtin(name = "new", minNumOfPositionalArgs = 1, parameterNames = {"name", "string"})
+    @ArgumentClinic(name = "name", conversion = ArgumentClinic.ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class NewNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization
+        DigestObject doNew(VirtualFrame frame, String name, Object string,
+                        @Cached HashlibNodes.CreateDigestObjectNode createNode) {
+            MessageDigest digest = HashlibNodes.createDigest(name);
+            if (digest == null) {
+                throw raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE_S, name);
+            }
+            return createNode.execute(frame, PythonBuiltinClassType.HashlibHash, HashlibNodes.canonicalName(name), digest, string);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.NewNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /**
+     * Base class of the {@code openssl_<name>} constructors and of the functions of the
+     * per-algorithm modules.
+     */
+    public abstract static class DigestConstructorNode extends PythonUnaryBuiltinNode {
+        protected abstract String getAlgorithm();
+
+        @Specialization
+        DigestObject create(VirtualFrame frame, Object string,
+                        @Cached HashlibNodes.CreateDigestObjectNode createNode) {
+            String name = getAlgorithm();
+            MessageDigest digest = HashlibNodes.createDigest(name);
+            if (digest == null) {
+                throw raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE_S, name);
+            }
+            return createNode.execute(frame, PythonBuiltinClassType.HashlibHash, name, digest, string);
+        }
+    }
+
+    @Builtin(name = "openssl_md5", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Md5Node extends DigestConstructorNode {
+        @Override
+        protected String getAlgorithm() {
+            return "md5";
+        }
+    }
+
+    @Builtin(name = "openssl_sha1", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha1Node extends DigestConstructorNode {
+        @Override
+        protected String getAlgorithm() {
+            return "sha1";
+        }
+    }
+
+    @Builtin(name = "openssl_sha224", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha224Node extends DigestConstructorNode {
+        @Override
+        protected String getAlgorithm() {
+            return "sha224";
+        }
+    }
+
+    @Builtin(name = "openssl_sha256", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha256Node extends DigestConstructorNode {
+        @Override
+        protected String getAlgorithm() {
+            return "sha256";
+        }
+    }
+
+    @Builtin(name = "openssl_sha384", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha384Node extends DigestConstructorNode {
+        @Override
+        protected String getAlgorithm() {
+            return "sha384";
+        }
+    }
+
+    @Builtin(name = "openssl_sha512", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha512Node extends DigestConstructorNode {
+        @Override
+        protected String getAlgorithm() {
+            return "sha512";
+        }
+    }
+
+    @Builtin(name = "hmac_digest", minNumOfPositionalArgs = 3, parameterNames = {"key", "msg", "digest"})
+    @ArgumentClinic(name = "key", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "msg", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "digest", conversion = ArgumentClinic.ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class HmacDigestNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PBytes hmacDigest(VirtualFrame frame, Object key, Object msg, String digestName,
+                        @CachedLibrary("key") PythonBufferAccessLibrary keyLib,
+                        @CachedLibrary("msg") PythonBufferAccessLibrary msgLib,
+                        @Cached GilNode gil) {
+            try {
+                MessageDigest digest = HashlibNodes.createDigest(digestName);
+                if (digest == null) {
+                    throw raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE_S, digestName);
+                }
+                int msgLen = msgLib.getBufferLength(msg);
+                byte[] msgBytes = msgLib.getInternalOrCopiedByteArray(msg);
+                Hmac hmac = new Hmac(digest, HashlibNodes.getBlockSize(digest), keyLib.getInternalOrCopiedByteArray(key), keyLib.getBufferLength(key));
+                if (msgLen >= HashlibNodes.GIL_MINSIZE) {
+                    gil.release(true);
+                    try {
+                        return factory().createBytes(hmac.mac(msgBytes, 0, msgLen));
+                    } finally {
+                        gil.acquire();
+                    }
+                }
+                return factory().createBytes(hmac.mac(msgBytes, 0, msgLen));
+            } finally {
+                keyLib.release(key, frame, this);
+                msgLib.release(msg, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.HmacDigestNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "pbkdf2_hmac", minNumOfPositionalArgs = 4, parameterNames = {"hash_name", "password", "salt", "iterations", "dklen"})
+    @ArgumentClinic(name = "hash_name", conversion = ArgumentClinic.ClinicConversion.String)
+    @ArgumentClinic(name = "password", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "salt", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "iterations", conversion = ArgumentClinic.ClinicConversion.LongIndex)
+    @GenerateNodeFactory
+    abstract static class Pbkdf2HmacNode extends PythonClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PBytes pbkdf2(VirtualFrame frame, String hashName, Object password, Object salt, long iterations, Object dklen,
+                        @CachedLibrary("password") PythonBufferAccessLibrary passwordLib,
+                        @CachedLibrary("salt") PythonBufferAccessLibrary saltLib,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached GilNode gil) {
+            try {
+                MessageDigest digest = HashlibNodes.createDigest(hashName);
+                if (digest == null) {
+                    throw raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE_S, hashName);
+                }
+                if (iterations < 1) {
+                    throw raise(ValueError, ErrorMessages.ITERATION_VALUE_MUST_BE_GREATER_THAN_0);
+                } else if (iterations > Integer.MAX_VALUE) {
+                    throw raise(OverflowError, ErrorMessages.ITERATION_VALUE_IS_TOO_GREAT);
+                }
+                int keyLength;
+                if (PGuards.isPNone(dklen)) {
+                    keyLength = digest.getDigestLength();
+                } else {
+                    keyLength = asSizeNode.executeExact(frame, dklen, OverflowError);
+                    if (keyLength < 1) {
+                        throw raise(ValueError, ErrorMessages.KEY_LENGTH_MUST_BE_GREATER_THAN_0);
+                    }
+                }
+                Hmac hmac = new Hmac(digest, HashlibNodes.getBlockSize(digest), passwordLib.getInternalOrCopiedByteArray(password), passwordLib.getBufferLength(password));
+                byte[] saltBytes = saltLib.getInternalOrCopiedByteArray(salt);
+                int saltLength = saltLib.getBufferLength(salt);
+                byte[] key;
+                gil.release(true);
+                try {
+                    key = hmac.pbkdf2(saltBytes, saltLength, iterations, keyLength);
+                } finally {
+                    gil.acquire();
+                }
+                return factory().createBytes(key);
+            } finally {
+                passwordLib.release(password, frame, this);
+                saltLib.release(salt, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.Pbkdf2HmacNodeClinicProviderGen.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+public abstract class HashlibNodes {
+
+    /**
+     * Like CPython, we only give up the GIL when hashing at least this many bytes; for smaller
+     * inputs the hand-over costs more than the hashing.
+     */
+    static final int GIL_MINSIZE = 2048;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * The algorithms that {@code _hashlib.new} accepts, in the spelling Python uses.
+     */
+    static final String[] ALGORITHMS = {"md5", "sha1", "sha224", "sha256", "sha384", "sha512", "sha3_224", "sha3_256", "sha3_384", "sha3_512", "shake_128", "shake_256", "blake2b",
+                    "blake2s"};
+
+    /**
+     * Creates the digest for one of the {@link #ALGORITHMS} (ignoring case), or returns
+     * {@code null} if the name is unknown or the JDK does not provide it.
+     */
+    @TruffleBoundary
+    static MessageDigest createDigest(String name) {
+        try {
+            switch (canonicalName(name)) {
+                case "md5":
+                    return MessageDigest.getInstance("MD5");
+                case "sha1":
+                    return MessageDigest.getInstance("SHA-1");
+                case "sha224":
+                    return MessageDigest.getInstance("SHA-224");
+                case "sha256":
+                    return MessageDigest.getInstance("SHA-256");
+                case "sha384":
+                    return MessageDigest.getInstance("SHA-384");
+                case "sha512":
+                    return MessageDigest.getInstance("SHA-512");
+                case "sha3_224":
+                    return Sha3Digest.sha3(224);
+                case "sha3_256":
+                    return Sha3Digest.sha3(256);
+                case "sha3_384":
+                    return Sha3Digest.sha3(384);
+                case "sha3_512":
+                    return Sha3Digest.sha3(512);
+                case "shake_128":
+                    return Sha3Digest.shake(128);
+                case "shake_256":
+                    return Sha3Digest.shake(256);
+                case "blake2b":
+                    return new Blake2bDigest(Blake2bDigest.MAX_DIGEST_SIZE, EMPTY, EMPTY, EMPTY, 1, 1, 0, 0, 0, 0, false);
+                case "blake2s":
+                    return new Blake2sDigest(Blake2sDigest.MAX_DIGEST_SIZE, EMPTY, EMPTY, EMPTY, 1, 1, 0, 0, 0, 0, false);
+                default:
+                    return null;
+            }
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    @TruffleBoundary
+    static String canonicalName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    static int getBlockSize(MessageDigest digest) {
+        if (digest instanceof Sha3Digest) {
+            return ((Sha3Digest) digest).getRate();
+        } else if (digest instanceof Blake2bDigest) {
+            return Blake2bDigest.BLOCK_SIZE;
+        } else if (digest instanceof Blake2sDigest) {
+            return Blake2sDigest.BLOCK_SIZE;
+        }
+        // MD5, SHA-1 and SHA-2 with 32-bit words work on 64 byte blocks, SHA-384/512 on 128
+        return digest.getDigestLength() > 32 ? 128 : 64;
+    }
+
+    /**
+     * Feeds a bytes-like object to a hash object. The data is read directly from the buffer's
+     * backing array where possible, and the GIL is released while hashing large inputs.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class UpdateNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract void execute(VirtualFrame frame, DigestObject self, Object data);
+
+        @Specialization(guards = "isNoValue(data)")
+        @SuppressWarnings("unused")
+        static void doNoValue(DigestObject self, PNone data) {
+            // no initial data
+        }
+
+        @Specialization(guards = "isString(data)")
+        void doString(@SuppressWarnings("unused") DigestObject self, @SuppressWarnings("unused") Object data) {
+            throw raise(TypeError, ErrorMessages.UNICODE_OBJECTS_MUST_BE_ENCODED_BEFORE_HASHING);
+        }
+
+        @Specialization(guards = {"!isString(data)", "!isNoValue(data)"}, limit = "3")
+        void doBuffer(VirtualFrame frame, DigestObject self, Object data,
+                        @CachedLibrary("data") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached ConditionProfile largeProfile,
+                        @Cached GilNode gil) {
+            Object buffer = acquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                if (largeProfile.profile(len >= GIL_MINSIZE)) {
+                    gil.release(true);
+                    try {
+                        self.update(bytes, 0, len);
+                    } finally {
+                        gil.acquire();
+                    }
+                } else {
+                    self.update(bytes, 0, len);
+                }
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /**
+     * Wraps a digest into a new hash object of the given class and feeds it the initial data, if
+     * any was given.
+     */
+    public abstract static class CreateDigestObjectNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract DigestObject execute(VirtualFrame frame, Object cls, String name, MessageDigest digest, Object data);
+
+        @Specialization
+        static DigestObject create(VirtualFrame frame, Object cls, String name, MessageDigest digest, Object data,
+                        @Cached PythonObjectFactory factory,
+                        @Cached UpdateNode updateNode) {
+            DigestObject self = factory.createDigestObject(cls, name, getBlockSize(digest), digest);
+            updateNode.execute(frame, self, data);
+            return self;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * HMAC (RFC 2104) over any of the digests of this package, so that {@code hmac_digest} and
+ * {@code pbkdf2_hmac} support the same algorithms as {@code new}.
+ */
+final class Hmac {
+    private final MessageDigest inner;
+    private final MessageDigest outer;
+
+    /**
+     * @param digest a freshly created digest, which is consumed by this constructor
+     */
+    @TruffleBoundary
+    Hmac(MessageDigest digest, int blockSize, byte[] key, int keyLength) {
+        byte[] k = key;
+        int kLen = keyLength;
+        if (kLen > blockSize) {
+            digest.update(key, 0, keyLength);
+            k = digest.digest();
+            kLen = k.length;
+        }
+        byte[] ipad = new byte[blockSize];
+        byte[] opad = new byte[blockSize];
+        for (int i = 0; i < blockSize; i++) {
+            byte b = i < kLen ? k[i] : 0;
+            ipad[i] = (byte) (b ^ 0x36);
+            opad[i] = (byte) (b ^ 0x5c);
+        }
+        inner = copy(digest);
+        inner.update(ipad);
+        outer = digest;
+        outer.update(opad);
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @TruffleBoundary
+    byte[] mac(byte[] msg, int offset, int length) {
+        MessageDigest i = copy(inner);
+        i.update(msg, offset, length);
+        MessageDigest o = copy(outer);
+        o.update(i.digest());
+        return o.digest();
+    }
+
+    /**
+     * PBKDF2 (RFC 8018) with this HMAC as the pseudorandom function.
+     */
+    @TruffleBoundary
+    byte[] pbkdf2(byte[] salt, int saltLength, long iterations, int keyLength) {
+        byte[] result = new byte[keyLength];
+        byte[] block = new byte[saltLength + 4];
+        System.arraycopy(salt, 0, block, 0, saltLength);
+        int pos = 0;
+        for (int blockIndex = 1; pos < keyLength; blockIndex++) {
+            block[saltLength] = (byte) (blockIndex >>> 24);
+            block[saltLength + 1] = (byte) (blockIndex >>> 16);
+            block[saltLength + 2] = (byte) (blockIndex >>> 8);
+            block[saltLength + 3] = (byte) blockIndex;
+            byte[] u = mac(block, 0, block.length);
+            byte[] t = u.clone();
+            for (long j = 1; j < iterations; j++) {
+                u = mac(u, 0, u.length);
+                for (int x = 0; x < t.length; x++) {
+                    t[x] ^= u[x];
+                }
+            }
+            int n = Math.min(t.length, keyLength - pos);
+            System.arraycopy(t, 0, result, pos, n);
+            pos += n;
+        }
+        return result;
+    }
+}
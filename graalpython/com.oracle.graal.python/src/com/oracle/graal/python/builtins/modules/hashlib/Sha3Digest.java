@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+
+/**
+ * SHA-3 and SHAKE (FIPS 202) on top of the Keccak-f[1600] permutation. The JDK only provides the
+ * fixed-length SHA-3 variants starting with JDK 9 and none of the extendable-output functions, so
+ * we implement the sponge ourselves.
+ */
+final class Sha3Digest extends MessageDigest implements Cloneable {
+
+    static final byte SHA3_SUFFIX = 0x06;
+    static final byte SHAKE_SUFFIX = 0x1F;
+
+    private static final long[] ROUND_CONSTANTS = {
+                    0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+                    0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+                    0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+                    0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+                    0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+                    0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+    private static final int[] ROTATIONS = {1, 3, 6, 10, 15, 21, 28, 36, 45, 55, 2, 14, 27, 41, 56, 8, 25, 43, 62, 18, 39, 61, 20, 44};
+    private static final int[] PI_LANES = {10, 7, 11, 17, 18, 3, 5, 16, 8, 21, 24, 4, 15, 23, 19, 13, 12, 2, 20, 14, 22, 9, 6, 1};
+
+    private final int rate;
+    private final byte suffix;
+    private final int digestLength;
+    private long[] state = new long[25];
+    private int position;
+
+    private Sha3Digest(String algorithm, int rate, byte suffix, int digestLength) {
+        super(algorithm);
+        this.rate = rate;
+        this.suffix = suffix;
+        this.digestLength = digestLength;
+    }
+
+    /**
+     * Creates a SHA-3 digest with an output of {@code bits} bits.
+     */
+    static Sha3Digest sha3(int bits) {
+        return new Sha3Digest("SHA3-" + bits, 200 - 2 * (bits / 8), SHA3_SUFFIX, bits / 8);
+    }
+
+    /**
+     * Creates a SHAKE extendable-output function with a security strength of {@code bits} bits.
+     * Its output has to be read with {@link #squeeze(byte[], int, int)}.
+     */
+    static Sha3Digest shake(int bits) {
+        return new Sha3Digest("SHAKE" + bits, 200 - 2 * (bits / 8), SHAKE_SUFFIX, 0);
+    }
+
+    int getRate() {
+        return rate;
+    }
+
+    byte getSuffix() {
+        return suffix;
+    }
+
+    boolean isXof() {
+        return suffix == SHAKE_SUFFIX;
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return digestLength;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        state[position >> 3] ^= (input & 0xFFL) << ((position & 7) << 3);
+        if (++position == rate) {
+            keccak(state);
+            position = 0;
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        int i = offset;
+        int end = offset + len;
+        // absorb until we are lane aligned, then whole lanes, then the tail
+        while (i < end && (position & 7) != 0) {
+            engineUpdate(input[i++]);
+        }
+        while (end - i >= 8) {
+            state[position >> 3] ^= readLong(input, i);
+            i += 8;
+            position += 8;
+            if (position == rate) {
+                keccak(state);
+                position = 0;
+            }
+        }
+        while (i < end) {
+            engineUpdate(input[i++]);
+        }
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        byte[] out = new byte[digestLength];
+        squeeze(out, 0, digestLength);
+        return out;
+    }
+
+    /**
+     * Pads the absorbed input and writes {@code len} bytes of output. Like {@link #digest()}, this
+     * resets the digest.
+     */
+    void squeeze(byte[] out, int offset, int len) {
+        state[position >> 3] ^= (suffix & 0xFFL) << ((position & 7) << 3);
+        state[(rate - 1) >> 3] ^= 0x80L << (((rate - 1) & 7) << 3);
+        keccak(state);
+        int pos = 0;
+        for (int i = 0; i < len; i++) {
+            if (pos == rate) {
+                keccak(state);
+                pos = 0;
+            }
+            out[offset + i] = (byte) (state[pos >> 3] >>> ((pos & 7) << 3));
+            pos++;
+        }
+        engineReset();
+    }
+
+    @Override
+    protected void engineReset() {
+        state = new long[25];
+        position = 0;
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        Sha3Digest copy = (Sha3Digest) super.clone();
+        copy.state = state.clone();
+        return copy;
+    }
+
+    private static long readLong(byte[] b, int i) {
+        return (b[i] & 0xFFL) | (b[i + 1] & 0xFFL) << 8 | (b[i + 2] & 0xFFL) << 16 | (b[i + 3] & 0xFFL) << 24 |
+                        (b[i + 4] & 0xFFL) << 32 | (b[i + 5] & 0xFFL) << 40 | (b[i + 6] & 0xFFL) << 48 | (b[i + 7] & 0xFFL) << 56;
+    }
+
+    private static void keccak(long[] s) {
+        long[] bc = new long[5];
+        for (int round = 0; round < 24; round++) {
+            // theta
+            for (int i = 0; i < 5; i++) {
+                bc[i] = s[i] ^ s[i + 5] ^ s[i + 10] ^ s[i + 15] ^ s[i + 20];
+            }
+            for (int i = 0; i < 5; i++) {
+                long t = bc[(i + 4) % 5] ^ Long.rotateLeft(bc[(i + 1) % 5], 1);
+                for (int j = 0; j < 25; j += 5) {
+                    s[j + i] ^= t;
+                }
+            }
+            // rho and pi
+            long t = s[1];
+            for (int i = 0; i < 24; i++) {
+                int j = PI_LANES[i];
+                long tmp = s[j];
+                s[j] = Long.rotateLeft(t, ROTATIONS[i]);
+                t = tmp;
+            }
+            // chi
+            for (int j = 0; j < 25; j += 5) {
+                for (int i = 0; i < 5; i++) {
+                    bc[i] = s[j + i];
+                }
+                for (int i = 0; i < 5; i++) {
+                    s[j + i] ^= ~bc[(i + 1) % 5] & bc[(i + 2) % 5];
+                }
+            }
+            // iota
+            s[0] ^= ROUND_CONSTANTS[round];
+        }
+    }
+}
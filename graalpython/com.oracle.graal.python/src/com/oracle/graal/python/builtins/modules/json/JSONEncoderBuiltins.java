@@ -13,6 +13,7 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
 import static com.oracle.graal.python.nodes.object.IsBuiltinClassProfile.profileClassSlowPath;
 
+import java.util.Arrays;
 import java.util.List;
 
 import com.oracle.graal.python.annotations.ArgumentClinic;
@@ -32,6 +33,7 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltins.ListSortNode;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.str.StringUtils;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PRaiseNode;
@@ -50,6 +52,10 @@ import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.formatting.FloatFormatter;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -214,12 +220,15 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                 startRecursion(encoder, dict);
                 builder.append('{');
 
-                if (!encoder.sortKeys && profileClassSlowPath(getDictClass.execute(dict), PDict)) {
+                boolean isExactDict = profileClassSlowPath(getDictClass.execute(dict), PDict);
+                if (!encoder.sortKeys && isExactDict) {
                     HashingStorageIterable<DictEntry> entries = dictLib.entries(storage);
                     boolean first = true;
                     for (DictEntry entry : entries) {
                         first = appendDictEntry(encoder, builder, first, entry.key, entry.value);
                     }
+                } else if (isExactDict && appendDictSortedByStringKeys(encoder, builder, storage)) {
+                    // done
                 } else {
                     PList items = constructList.execute(null, callGetItems.executeObject(null, dict));
                     if (encoder.sortKeys) {
@@ -250,6 +259,28 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
             }
         }
 
+        /**
+         * Sorts the entries of a dict whose keys are all {@code str} without going through
+         * {@code items()} and the list sort. Returns {@code false} without appending anything if
+         * there is another kind of key.
+         */
+        private boolean appendDictSortedByStringKeys(PJSONEncoder encoder, StringBuilder builder, HashingStorage storage) {
+            DictEntry[] entries = new DictEntry[dictLib.length(storage)];
+            int i = 0;
+            for (DictEntry entry : dictLib.entries(storage)) {
+                if (!(entry.key instanceof String)) {
+                    return false;
+                }
+                entries[i++] = entry;
+            }
+            Arrays.sort(entries, (a, b) -> StringUtils.compareToUnicodeAware((String) a.key, (String) b.key));
+            boolean first = true;
+            for (DictEntry entry : entries) {
+                first = appendDictEntry(encoder, builder, first, entry.key, entry.value);
+            }
+            return true;
+        }
+
         private boolean appendDictEntry(PJSONEncoder encoder, StringBuilder builder, boolean first, Object key, Object value) {
             if (!first) {
                 builder.append(encoder.itemSeparator);
@@ -285,11 +316,13 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                 builder.append('[');
 
                 if (profileClassSlowPath(getDictClass.execute(list), PTuple) || profileClassSlowPath(getDictClass.execute(list), PList)) {
-                    for (int i = 0; i < storage.length(); i++) {
-                        if (i > 0) {
-                            builder.append(encoder.itemSeparator);
+                    if (!appendPrimitiveItems(encoder, builder, storage)) {
+                        for (int i = 0; i < storage.length(); i++) {
+                            if (i > 0) {
+                                builder.append(encoder.itemSeparator);
+                            }
+                            appendListObj(encoder, builder, storage.getItemNormalized(i));
                         }
-                        appendListObj(encoder, builder, storage.getItemNormalized(i));
                     }
                 } else {
                     Object iter = callGetListIter.executeObject(null, list);
@@ -314,5 +347,49 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                 endRecursion(encoder, list);
             }
         }
+
+        /**
+         * Appends the items of a primitive storage without boxing them. Returns {@code false} if
+         * the storage holds objects.
+         */
+        private boolean appendPrimitiveItems(PJSONEncoder encoder, StringBuilder builder, SequenceStorage storage) {
+            int length = storage.length();
+            if (storage instanceof IntSequenceStorage) {
+                IntSequenceStorage intStorage = (IntSequenceStorage) storage;
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(encoder.itemSeparator);
+                    }
+                    builder.append(intStorage.getIntItemNormalized(i));
+                }
+            } else if (storage instanceof LongSequenceStorage) {
+                LongSequenceStorage longStorage = (LongSequenceStorage) storage;
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(encoder.itemSeparator);
+                    }
+                    builder.append(longStorage.getLongItemNormalized(i));
+                }
+            } else if (storage instanceof DoubleSequenceStorage) {
+                DoubleSequenceStorage doubleStorage = (DoubleSequenceStorage) storage;
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(encoder.itemSeparator);
+                    }
+                    appendFloat(encoder, builder, doubleStorage.getDoubleItemNormalized(i));
+                }
+            } else if (storage instanceof BoolSequenceStorage) {
+                BoolSequenceStorage boolStorage = (BoolSequenceStorage) storage;
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(encoder.itemSeparator);
+                    }
+                    builder.append(boolStorage.getBoolItemNormalized(i) ? "true" : "false");
+                }
+            } else {
+                return false;
+            }
+            return true;
+        }
     }
 }
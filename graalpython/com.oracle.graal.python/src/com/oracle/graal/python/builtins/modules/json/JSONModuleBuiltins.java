@@ -6,6 +6,7 @@
 package com.oracle.graal.python.builtins.modules.json;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 
 import java.util.List;
 
@@ -17,6 +18,9 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.json.JSONScannerBuiltins.IntRef;
 import com.oracle.graal.python.builtins.modules.json.PJSONEncoder.FastEncode;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.str.StringNodes.CastToJavaStringCheckedNode;
@@ -34,10 +38,12 @@ import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
 
 @CoreFunctions(defineModule = "_json")
 public class JSONModuleBuiltins extends PythonBuiltins {
@@ -95,6 +101,53 @@ public class JSONModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "decode_utf8", minNumOfPositionalArgs = 2, parameterNames = {"scanner", "data"}, //
+                    doc = "decode_utf8(scanner, data) -> object\n" +
+                                    "\n" +
+                                    "Decode a complete UTF-8 encoded JSON document from a bytes-like object\n" +
+                                    "without decoding it to a string first. Raises ValueError if the scanner\n" +
+                                    "configuration or the document are not supported by this fast path, in\n" +
+                                    "which case the data should be decoded and passed to the scanner.")
+    @GenerateNodeFactory
+    abstract static class DecodeUtf8 extends PythonBinaryBuiltinNode {
+
+        @Child private HashingStorageLibrary mapLib = HashingStorageLibrary.getFactory().createDispatched(6);
+
+        @Specialization(limit = "3")
+        Object decode(VirtualFrame frame, PJSONScanner scanner, Object data,
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib) {
+            if (!JSONUtf8Scanner.isSupported(scanner)) {
+                throw raise(ValueError, "scanner configuration is not supported");
+            }
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
+                try {
+                    return JSONUtf8Scanner.scanDocument(scanner, factory(), mapLib, bytes, offset, len);
+                } catch (JSONUtf8Scanner.Unsupported e) {
+                    throw raise(ValueError, "document is not supported");
+                }
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Fallback
+        Object notSupported(@SuppressWarnings("unused") Object scanner, @SuppressWarnings("unused") Object data) {
+            throw raise(ValueError, "scanner is not supported");
+        }
+    }
+
     @Builtin(name = "encode_basestring", parameterNames = {"string"}, //
                     doc = "encode_basestring(string) -> string\n" +
                                     "\n" +
@@ -24,8 +24,6 @@ import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.floats.FloatUtils;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
-import com.oracle.graal.python.lib.PyFloatCheckExactNode;
-import com.oracle.graal.python.lib.PyLongCheckExactNode;
 import com.oracle.graal.python.lib.PyObjectLookupAttr;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.call.CallNode;
@@ -99,7 +97,13 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                 dictInstanceShape = PythonLanguage.get(this).getBuiltinTypeInstanceShape(PythonBuiltinClassType.PDict);
             }
             IntRef nextIdx = new IntRef();
-            Object result = scanOnceUnicode(self, string, idx, nextIdx);
+            Object result;
+            try {
+                result = scanOnceUnicode(self, string, idx, nextIdx);
+            } finally {
+                // like CPython, only share keys within one document
+                clearMemo(self);
+            }
             return factory.createTuple(new Object[]{result, nextIdx.value});
         }
 
@@ -327,7 +331,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
 
             nextIdx.value = idx;
             if (isFloat) {
-                if (PyFloatCheckExactNode.getUncached().execute(scanner.parseFloat)) {
+                if (scanner.builtinParseFloat) {
                     String numStr = string.substring(start, idx);
                     return FloatUtils.parseValidString(numStr);
                 } else {
@@ -336,7 +340,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                     return callParseFloat.executeObject(scanner.parseFloat, numStr);
                 }
             } else {
-                if (PyLongCheckExactNode.getUncached().execute(scanner.parseInt)) {
+                if (scanner.builtinParseInt) {
                     Object rval = BuiltinConstructors.IntNode.parseSimpleDecimalLiteral(string, start, idx - start);
                     if (rval != null) {
                         return rval;
@@ -448,6 +452,11 @@ public class JSONScannerBuiltins extends PythonBuiltins {
 
     }
 
+    @TruffleBoundary
+    static void clearMemo(PJSONScanner scanner) {
+        scanner.memo.clear();
+    }
+
     @TruffleBoundary
     static String scanStringUnicode(String string, int start, boolean strict, IntRef nextIdx, PRaiseNode raiseNode) {
         String result;
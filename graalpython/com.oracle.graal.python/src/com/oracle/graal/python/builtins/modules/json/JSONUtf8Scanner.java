@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.floats.FloatUtils;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.ControlFlowException;
+
+/**
+ * Parses a complete UTF-8 encoded JSON document directly from its bytes, so that
+ * {@code json.loads(bytes)} does not have to decode the whole document to a {@code str} first.
+ * Only the default decoder configuration is supported, i.e., no hooks and the builtin
+ * {@code float} and {@code int} for numbers.
+ *
+ * The scanner does not produce error messages. On anything unusual, e.g. malformed JSON, invalid
+ * UTF-8, surrogates or the {@code NaN}/{@code Infinity} constants, it gives up and the caller falls
+ * back to decoding the document and scanning the {@code str}, which reports errors with the
+ * correct character positions.
+ */
+final class JSONUtf8Scanner {
+
+    static final class Unsupported extends ControlFlowException {
+        private static final long serialVersionUID = 1L;
+        static final Unsupported INSTANCE = new Unsupported();
+    }
+
+    private final PJSONScanner scanner;
+    private final PythonObjectFactory factory;
+    private final HashingStorageLibrary mapLib;
+    private final byte[] bytes;
+    private final int end;
+    private int idx;
+    private CharsetDecoder utf8Decoder;
+
+    private JSONUtf8Scanner(PJSONScanner scanner, PythonObjectFactory factory, HashingStorageLibrary mapLib, byte[] bytes, int offset, int length) {
+        this.scanner = scanner;
+        this.factory = factory;
+        this.mapLib = mapLib;
+        this.bytes = bytes;
+        this.idx = offset;
+        this.end = offset + length;
+    }
+
+    static boolean isSupported(PJSONScanner scanner) {
+        return scanner.objectHook == PNone.NONE && scanner.objectPairsHook == PNone.NONE && scanner.builtinParseFloat && scanner.builtinParseInt;
+    }
+
+    /**
+     * Returns the document's value or throws {@link Unsupported}.
+     */
+    @TruffleBoundary
+    static Object scanDocument(PJSONScanner scanner, PythonObjectFactory factory, HashingStorageLibrary mapLib, byte[] bytes, int offset, int length) {
+        assert isSupported(scanner);
+        JSONUtf8Scanner s = new JSONUtf8Scanner(scanner, factory, mapLib, bytes, offset, length);
+        try {
+            s.skipWhitespace();
+            Object result = s.scanValue();
+            s.skipWhitespace();
+            if (s.idx != s.end) {
+                throw Unsupported.INSTANCE;
+            }
+            return result;
+        } finally {
+            JSONScannerBuiltins.clearMemo(scanner);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (idx < end && JSONModuleBuiltins.isWhitespace((char) bytes[idx])) {
+            idx++;
+        }
+    }
+
+    private int peek() {
+        if (idx >= end) {
+            throw Unsupported.INSTANCE;
+        }
+        return bytes[idx] & 0xff;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw Unsupported.INSTANCE;
+        }
+        idx++;
+    }
+
+    private void expectLiteral(String literal) {
+        if (end - idx < literal.length()) {
+            throw Unsupported.INSTANCE;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (bytes[idx + i] != literal.charAt(i)) {
+                throw Unsupported.INSTANCE;
+            }
+        }
+        idx += literal.length();
+    }
+
+    private Object scanValue() {
+        switch (peek()) {
+            case '"':
+                idx++;
+                return scanString();
+            case '{':
+                idx++;
+                return scanObject();
+            case '[':
+                idx++;
+                return scanArray();
+            case 'n':
+                expectLiteral("null");
+                return PNone.NONE;
+            case 't':
+                expectLiteral("true");
+                return true;
+            case 'f':
+                expectLiteral("false");
+                return false;
+            default:
+                return scanNumber();
+        }
+    }
+
+    private Object scanObject() {
+        HashingStorage storage = EconomicMapStorage.create();
+        skipWhitespace();
+        if (peek() != '}') {
+            while (true) {
+                expect('"');
+                String newKey = scanString();
+                String key = scanner.memo.putIfAbsent(newKey, newKey);
+                if (key == null) {
+                    key = newKey;
+                }
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                Object value = scanValue();
+                storage = mapLib.setItem(storage, key, value);
+                skipWhitespace();
+                if (peek() == '}') {
+                    break;
+                }
+                expect(',');
+                skipWhitespace();
+            }
+        }
+        idx++;
+        return factory.createDict(storage);
+    }
+
+    private Object scanArray() {
+        ObjectSequenceStorage storage = new ObjectSequenceStorage(4);
+        skipWhitespace();
+        if (peek() != ']') {
+            while (true) {
+                storage.insertItem(storage.length(), scanValue());
+                skipWhitespace();
+                if (peek() == ']') {
+                    break;
+                }
+                expect(',');
+                skipWhitespace();
+            }
+        }
+        idx++;
+        return factory.createList(storage);
+    }
+
+    /**
+     * Scans the rest of a string literal, {@link #idx} points after the opening quote.
+     */
+    private String scanString() {
+        int start = idx;
+        boolean ascii = true;
+        while (true) {
+            int c = peek();
+            if (c == '"') {
+                idx++;
+                return decode(start, idx - 1, ascii);
+            } else if (c == '\\') {
+                return scanEscapedString(start);
+            } else if (c < 0x20 && scanner.strict) {
+                throw Unsupported.INSTANCE;
+            } else if (c >= 0x80) {
+                ascii = false;
+            }
+            idx++;
+        }
+    }
+
+    private String scanEscapedString(int start) {
+        StringBuilder builder = new StringBuilder();
+        int segmentStart = start;
+        boolean ascii = true;
+        while (true) {
+            int c = peek();
+            if (c == '"') {
+                builder.append(decode(segmentStart, idx, ascii));
+                idx++;
+                return builder.toString();
+            } else if (c == '\\') {
+                builder.append(decode(segmentStart, idx, ascii));
+                idx++;
+                c = peek();
+                idx++;
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        builder.append((char) c);
+                        break;
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        builder.append(scanUnicodeEscape());
+                        break;
+                    default:
+                        throw Unsupported.INSTANCE;
+                }
+                segmentStart = idx;
+                ascii = true;
+                continue;
+            } else if (c < 0x20 && scanner.strict) {
+                throw Unsupported.INSTANCE;
+            } else if (c >= 0x80) {
+                ascii = false;
+            }
+            idx++;
+        }
+    }
+
+    private char scanUnicodeEscape() {
+        if (end - idx < 4) {
+            throw Unsupported.INSTANCE;
+        }
+        int c = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(bytes[idx++], 16);
+            if (digit == -1) {
+                throw Unsupported.INSTANCE;
+            }
+            c = (c << 4) + digit;
+        }
+        return (char) c;
+    }
+
+    private String decode(int from, int to, boolean ascii) {
+        if (ascii) {
+            return new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        }
+        if (utf8Decoder == null) {
+            utf8Decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        try {
+            return utf8Decoder.decode(ByteBuffer.wrap(bytes, from, to - from)).toString();
+        } catch (CharacterCodingException e) {
+            // e.g. surrogates, which 'surrogatepass' accepts
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private boolean isDigit(int i) {
+        return i < end && bytes[i] >= '0' && bytes[i] <= '9';
+    }
+
+    private Object scanNumber() {
+        int start = idx;
+        if (bytes[idx] == '-') {
+            idx++;
+        }
+        if (isDigit(idx) && bytes[idx] != '0') {
+            while (isDigit(idx)) {
+                idx++;
+            }
+        } else if (idx < end && bytes[idx] == '0') {
+            idx++;
+        } else {
+            // includes NaN, Infinity and -Infinity
+            throw Unsupported.INSTANCE;
+        }
+        boolean isFloat = false;
+        if (idx < end && bytes[idx] == '.' && isDigit(idx + 1)) {
+            isFloat = true;
+            idx += 2;
+            while (isDigit(idx)) {
+                idx++;
+            }
+        }
+        if (idx < end && (bytes[idx] == 'e' || bytes[idx] == 'E')) {
+            int exponentStart = idx;
+            idx++;
+            if (idx < end && (bytes[idx] == '-' || bytes[idx] == '+')) {
+                idx++;
+            }
+            if (isDigit(idx)) {
+                isFloat = true;
+                while (isDigit(idx)) {
+                    idx++;
+                }
+            } else {
+                idx = exponentStart;
+            }
+        }
+        if (isFloat) {
+            return FloatUtils.parseValidString(new String(bytes, start, idx - start, StandardCharsets.ISO_8859_1));
+        }
+        int digits = idx - start;
+        if (digits <= 18) {
+            long value = 0;
+            boolean negative = bytes[start] == '-';
+            for (int i = negative ? start + 1 : start; i < idx; i++) {
+                value = value * 10 + (bytes[i] - '0');
+            }
+            value = negative ? -value : value;
+            if (value == (int) value) {
+                return (int) value;
+            }
+            return value;
+        }
+        BigInteger bi = new BigInteger(new String(bytes, start, digits, StandardCharsets.ISO_8859_1));
+        if (bi.bitLength() < 64) {
+            return bi.longValue();
+        }
+        return factory.createInt(bi);
+    }
+}
@@ -42,7 +42,9 @@ package com.oracle.graal.python.builtins.modules.json;
 
 import java.util.HashMap;
 
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.object.Shape;
 
@@ -55,6 +57,9 @@ public final class PJSONScanner extends PythonBuiltinObject {
     final Object parseFloat;
     final Object parseInt;
     final Object parseConstant;
+    // whether numbers can be created directly instead of calling parse_float/parse_int
+    final boolean builtinParseFloat;
+    final boolean builtinParseInt;
 
     public PJSONScanner(Object cls, Shape instanceShape, boolean strict, Object objectHook, Object objectPairsHook, Object parseFloat, Object parseInt, Object parseConstant) {
         super(cls, instanceShape);
@@ -66,5 +71,7 @@ public final class PJSONScanner extends PythonBuiltinObject {
         this.parseFloat = parseFloat;
         this.parseInt = parseInt;
         this.parseConstant = parseConstant;
+        this.builtinParseFloat = IsBuiltinClassProfile.profileClassSlowPath(parseFloat, PythonBuiltinClassType.PFloat);
+        this.builtinParseInt = IsBuiltinClassProfile.profileClassSlowPath(parseInt, PythonBuiltinClassType.PInt);
     }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME_HEADER_SIZE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME_SIZE_MIN;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME_SIZE_TARGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.WRITE_BUF_SIZE;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.memory.ByteArraySupport;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * State of a {@code _pickle.Pickler}. The memo maps objects by identity to their memo index and
+ * keeps them alive for the lifetime of the pickler (or until {@code clear_memo()}), just like
+ * CPython's {@code PyMemoTable}. The output is accumulated in a byte array that is either
+ * returned by {@code dumps} or flushed to {@link #write} at frame boundaries.
+ */
+public final class PPickler extends PythonBuiltinObject {
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+
+    int protocol;
+    boolean bin;
+    boolean fast;
+    boolean fixImports;
+    /** The bound {@code write} method of the file or {@code null} when pickling to memory. */
+    Object write;
+    Object persistentId;
+    Object dispatchTable;
+    Object reducerOverride;
+    Object bufferCallback;
+
+    IdentityHashMap<Object, Integer> memo;
+    int fastNesting;
+    IdentityHashMap<Object, Object> fastMemo;
+
+    private byte[] output;
+    private int outputLen;
+    private int frameStart = -1;
+    boolean framing;
+
+    public PPickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        CompilerAsserts.neverPartOfCompilation();
+        this.memo = new IdentityHashMap<>();
+        this.output = new byte[WRITE_BUF_SIZE];
+    }
+
+    void clearMemo() {
+        memo = new IdentityHashMap<>();
+    }
+
+    void clearBuffer() {
+        if (output.length > WRITE_BUF_SIZE * 16) {
+            output = new byte[WRITE_BUF_SIZE];
+        }
+        outputLen = 0;
+        frameStart = -1;
+    }
+
+    private void ensureCapacity(int n) {
+        int required = outputLen + n;
+        if (required < 0) {
+            throw new OutOfMemoryError();
+        }
+        if (required > output.length) {
+            output = Arrays.copyOf(output, Math.max(required, output.length * 2));
+        }
+    }
+
+    /**
+     * Reserves {@code n} bytes in the output buffer (opening a new frame if needed) and returns the
+     * offset at which they must be written.
+     */
+    int reserve(int n) {
+        if (framing && frameStart == -1) {
+            ensureCapacity(n + FRAME_HEADER_SIZE);
+            frameStart = outputLen;
+            outputLen += FRAME_HEADER_SIZE;
+        } else {
+            ensureCapacity(n);
+        }
+        int offset = outputLen;
+        outputLen += n;
+        return offset;
+    }
+
+    byte[] getOutput() {
+        return output;
+    }
+
+    void write(byte b) {
+        int off = reserve(1);
+        output[off] = b;
+    }
+
+    void write(byte b0, byte b1) {
+        int off = reserve(2);
+        output[off] = b0;
+        output[off + 1] = b1;
+    }
+
+    void write(byte[] data, int offset, int length) {
+        int off = reserve(length);
+        System.arraycopy(data, offset, output, off, length);
+    }
+
+    void write(byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    void writeAscii(String s) {
+        int off = reserve(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            output[off + i] = (byte) s.charAt(i);
+        }
+    }
+
+    void writeOpWithInt(byte op, int value) {
+        int off = reserve(5);
+        output[off] = op;
+        LE.putInt(output, off + 1, value);
+    }
+
+    void writeOpWithLong(byte op, long value) {
+        int off = reserve(9);
+        output[off] = op;
+        LE.putLong(output, off + 1, value);
+    }
+
+    /**
+     * Writes an opcode header followed by a payload. Large payloads are never framed and, when
+     * pickling to a file, are streamed to it without being copied into the output buffer;
+     * {@code payload} is the object that is passed to {@code write()} in that case.
+     */
+    void writeBytes(byte[] header, int headerLen, byte[] data, int dataOffset, int dataLen, Object payload) {
+        if (dataLen >= FRAME_SIZE_TARGET) {
+            boolean wasFraming = framing;
+            commitFrame();
+            framing = false;
+            write(header, 0, headerLen);
+            if (write != null) {
+                flushToFile();
+                Object toWrite = payload;
+                if (toWrite == null) {
+                    toWrite = PythonObjectFactory.getUncached().createBytes(Arrays.copyOfRange(data, dataOffset, dataOffset + dataLen));
+                }
+                CallNode.getUncached().execute(write, toWrite);
+            } else {
+                write(data, dataOffset, dataLen);
+            }
+            framing = wasFraming;
+        } else {
+            write(header, 0, headerLen);
+            write(data, dataOffset, dataLen);
+        }
+    }
+
+    /**
+     * Called before each opcode; commits the current frame once it reached the target size and
+     * streams it to the file, so that pickling large structures needs bounded memory.
+     */
+    void opcodeBoundary() {
+        if (!framing || frameStart == -1) {
+            return;
+        }
+        int frameLen = outputLen - frameStart - FRAME_HEADER_SIZE;
+        if (frameLen >= FRAME_SIZE_TARGET) {
+            commitFrame();
+            if (write != null) {
+                flushToFile();
+            }
+        }
+    }
+
+    void commitFrame() {
+        if (!framing || frameStart == -1) {
+            return;
+        }
+        int frameLen = outputLen - frameStart - FRAME_HEADER_SIZE;
+        if (frameLen >= FRAME_SIZE_MIN) {
+            output[frameStart] = FRAME;
+            LE.putLong(output, frameStart + 1, frameLen);
+        } else {
+            System.arraycopy(output, frameStart + FRAME_HEADER_SIZE, output, frameStart, frameLen);
+            outputLen -= FRAME_HEADER_SIZE;
+        }
+        frameStart = -1;
+    }
+
+    byte[] getString() {
+        return Arrays.copyOf(output, outputLen);
+    }
+
+    void flushToFile() {
+        assert write != null;
+        byte[] data = getString();
+        clearBuffer();
+        CallNode.getUncached().execute(write, PythonObjectFactory.getUncached().createBytes(data));
+    }
+}
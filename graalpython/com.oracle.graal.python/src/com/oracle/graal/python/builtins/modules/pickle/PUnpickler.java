@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PREFETCH;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.UnpicklingError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * State of a {@code _pickle.Unpickler}: the input buffer, the value and mark stacks, and the memo.
+ * Input is either a byte array that is read in place ({@code loads}) or a file. Files with a
+ * {@code peek} method are read ahead in large chunks and only the consumed part is skipped with
+ * {@code read} at the end, just like CPython does, so that data following the pickle remains in
+ * the file.
+ */
+public final class PUnpickler extends PythonBuiltinObject {
+    int protocol;
+    boolean fixImports;
+    String encoding = "ASCII";
+    String errors = "strict";
+    Object persistentLoad;
+    /** Iterator over out-of-band buffers or {@code null}. */
+    Object buffers;
+
+    Object read;
+    Object readline;
+    Object peek;
+
+    Object[] memo = new Object[32];
+    int memoLen;
+
+    private byte[] input = PythonUtils.EMPTY_BYTE_ARRAY;
+    private int inputLen;
+    private int next;
+    private int prefetchedIdx;
+    /** Offset of the line returned by the last call to {@link #readline()}. */
+    int lineStart;
+
+    Object[] stack = new Object[8];
+    int stackLen;
+    int fence;
+    boolean markSet;
+    private int[] marks = new int[8];
+    private int numMarks;
+
+    public PUnpickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        CompilerAsserts.neverPartOfCompilation();
+    }
+
+    // input
+
+    void setInput(byte[] data, int length) {
+        input = data;
+        inputLen = length;
+        next = 0;
+        prefetchedIdx = length;
+    }
+
+    boolean hasFile() {
+        return read != null;
+    }
+
+    byte[] getInput() {
+        return input;
+    }
+
+    /**
+     * Makes sure {@code n} bytes are available and returns the offset of the first one.
+     */
+    int read(int n) {
+        if (n <= inputLen - next) {
+            int start = next;
+            next += n;
+            return start;
+        }
+        if (read == null) {
+            throw PRaiseNode.getUncached().raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+        }
+        int readSize = readFromFile(n);
+        if (readSize < n) {
+            throw PRaiseNode.getUncached().raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+        }
+        int start = next;
+        next += n;
+        return start;
+    }
+
+    int readByte() {
+        int off = read(1);
+        return input[off] & 0xff;
+    }
+
+    /**
+     * Moves the read position back after {@code read} was called with the length of a frame,
+     * making the whole frame available to subsequent reads from memory.
+     */
+    void unread(int n) {
+        next -= n;
+    }
+
+    /**
+     * Reads a line and returns its length including the newline. The line starts at
+     * {@link #lineStart}.
+     */
+    int readline() {
+        for (int i = next; i < inputLen; i++) {
+            if (input[i] == '\n') {
+                int len = i - next + 1;
+                lineStart = next;
+                next = i + 1;
+                return len;
+            }
+        }
+        if (read == null) {
+            throw PRaiseNode.getUncached().raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+        }
+        int len = readFromFile(-1);
+        if (len == 0 || input[len - 1] != '\n') {
+            throw PRaiseNode.getUncached().raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+        }
+        lineStart = 0;
+        next = len;
+        return len;
+    }
+
+    /**
+     * Advances the file past the data consumed from the last prefetched chunk.
+     */
+    void skipConsumed() {
+        int consumed = next - prefetchedIdx;
+        if (consumed <= 0) {
+            return;
+        }
+        CallNode.getUncached().execute(read, consumed);
+        prefetchedIdx = next;
+    }
+
+    /**
+     * Reads at least {@code n} bytes (or a whole line if {@code n < 0}) from the file into a fresh
+     * input buffer and returns the number of bytes available.
+     */
+    private int readFromFile(int n) {
+        skipConsumed();
+        Object data;
+        if (n < 0) {
+            data = CallNode.getUncached().execute(readline);
+        } else {
+            if (peek != null && n < PREFETCH) {
+                Object prefetched = null;
+                try {
+                    prefetched = CallNode.getUncached().execute(peek, PREFETCH);
+                } catch (PException e) {
+                    e.expect(NotImplementedError, IsBuiltinClassProfile.getUncached());
+                    peek = null;
+                }
+                if (prefetched != null) {
+                    int readSize = setInputFromObject(prefetched);
+                    prefetchedIdx = 0;
+                    if (n <= readSize) {
+                        return n;
+                    }
+                }
+            }
+            data = CallNode.getUncached().execute(read, n);
+        }
+        return setInputFromObject(data);
+    }
+
+    private int setInputFromObject(Object data) {
+        PythonBufferAcquireLibrary acquireLib = PythonBufferAcquireLibrary.getUncached();
+        if (!acquireLib.hasBuffer(data)) {
+            throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.A_BYTES_LIKE_OBJECT_IS_REQUIRED_NOT_P, data);
+        }
+        PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getUncached();
+        Object buffer = acquireLib.acquireReadonly(data);
+        try {
+            int len = bufferLib.getBufferLength(buffer);
+            setInput(bufferLib.getInternalOrCopiedByteArray(buffer), len);
+            return len;
+        } finally {
+            bufferLib.release(buffer);
+        }
+    }
+
+    // stack
+
+    void push(Object value) {
+        if (stackLen == stack.length) {
+            stack = Arrays.copyOf(stack, stackLen * 2);
+        }
+        stack[stackLen++] = value;
+    }
+
+    PException stackUnderflow() {
+        return PRaiseNode.getUncached().raise(UnpicklingError, markSet ? ErrorMessages.UNEXPECTED_MARK_FOUND : ErrorMessages.UNPICKLING_STACK_UNDERFLOW);
+    }
+
+    Object pop() {
+        if (stackLen <= fence) {
+            throw stackUnderflow();
+        }
+        Object value = stack[--stackLen];
+        stack[stackLen] = null;
+        return value;
+    }
+
+    Object peekTop() {
+        if (stackLen <= fence) {
+            throw stackUnderflow();
+        }
+        return stack[stackLen - 1];
+    }
+
+    /**
+     * Pops all values from {@code start} to the top of the stack.
+     */
+    Object[] popItems(int start) {
+        Object[] items = Arrays.copyOfRange(stack, start, stackLen);
+        clearStack(start);
+        return items;
+    }
+
+    void clearStack(int start) {
+        Arrays.fill(stack, start, stackLen, null);
+        stackLen = start;
+    }
+
+    void pushMark() {
+        if (numMarks == marks.length) {
+            marks = Arrays.copyOf(marks, numMarks * 2);
+        }
+        marks[numMarks++] = stackLen;
+        fence = stackLen;
+        markSet = true;
+    }
+
+    int popMark() {
+        if (numMarks < 1) {
+            throw PRaiseNode.getUncached().raise(UnpicklingError, ErrorMessages.COULD_NOT_FIND_MARK);
+        }
+        int mark = marks[--numMarks];
+        markSet = numMarks != 0;
+        fence = numMarks != 0 ? marks[numMarks - 1] : 0;
+        return mark;
+    }
+
+    /**
+     * {@code POP} either removes the topmost mark (if it is on top of the stack) or a value.
+     */
+    void popValueOrMark() {
+        if (numMarks > 0 && marks[numMarks - 1] == stackLen) {
+            popMark();
+        } else {
+            pop();
+        }
+    }
+
+    void resetStack() {
+        clearStack(0);
+        numMarks = 0;
+        fence = 0;
+        markSet = false;
+    }
+
+    // memo
+
+    Object memoGet(long idx) {
+        if (idx < 0 || idx >= memo.length) {
+            return null;
+        }
+        return memo[(int) idx];
+    }
+
+    void memoPut(long idx, Object value) {
+        if (idx >= memo.length) {
+            if (idx >= Integer.MAX_VALUE / 2) {
+                throw new OutOfMemoryError();
+            }
+            memo = Arrays.copyOf(memo, (int) idx * 2);
+        }
+        if (memo[(int) idx] == null) {
+            memoLen++;
+        }
+        memo[(int) idx] = value;
+    }
+
+    void clearMemo() {
+        memo = new Object[32];
+        memoLen = 0;
+    }
+
+    Object getPersistentLoad() {
+        return persistentLoad == PNone.NO_VALUE ? null : persistentLoad;
+    }
+}
@@ -0,0 +1,1173 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.ADDITEMS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.APPEND;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.APPENDS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINBYTES;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINBYTES8;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINFLOAT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BININT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BININT1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BININT2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINPERSID;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINPUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINSTRING;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINUNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINUNICODE8;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BUILD;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BYTEARRAY8;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.DICT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.DUP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_DICT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_LIST;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_SET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_TUPLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EXT1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EXT2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EXT4;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FLOAT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FROZENSET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.GET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.GLOBAL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.HIGHEST_PROTOCOL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.INST;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.INT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LIST;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG4;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG_BINGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG_BINPUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.MARK;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.MEMOIZE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWFALSE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWOBJ;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWOBJ_EX;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWTRUE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEXT_BUFFER;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NONE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.OBJ;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PERSID;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.POP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.POP_MARK;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PROTO;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.READONLY_BUFFER;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.REDUCE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SETITEM;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SETITEMS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SHORT_BINBYTES;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SHORT_BINSTRING;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SHORT_BINUNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.STACK_GLOBAL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.STOP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.STRING;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE3;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.UNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.getDeepAttribute;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.getDottedPath;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.importModule;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.UnpicklingError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyMemoryViewFromObject;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectSetAttr;
+import com.oracle.graal.python.lib.PyObjectSetItem;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.memory.ByteArraySupport;
+
+/**
+ * The unpickling logic of {@code _pickle.Unpickler}, following CPython's {@code Modules/_pickle.c}.
+ * Opcode arguments are decoded directly from the unpickler's input buffer. Lists, dicts and sets
+ * created by the pickle are filled through their storages; objects of other types go through
+ * their {@code append}, {@code extend}, {@code __setitem__} or {@code add} methods.
+ */
+final class PickleDecoder {
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+    private static final ByteArraySupport BE = ByteArraySupport.bigEndian();
+
+    private final PUnpickler unpickler;
+    private final PythonObjectFactory factory = PythonObjectFactory.getUncached();
+    private final PRaiseNode raiseNode = PRaiseNode.getUncached();
+    private final CallNode callNode = CallNode.getUncached();
+    private final HashingStorageLibrary hashingLib = HashingStorageLibrary.getUncached();
+
+    private PickleDecoder(PUnpickler unpickler) {
+        this.unpickler = unpickler;
+    }
+
+    @TruffleBoundary
+    static Object load(PUnpickler unpickler) {
+        return new PickleDecoder(unpickler).load();
+    }
+
+    private PException raise(PythonBuiltinClassType type, String format, Object... args) {
+        throw raiseNode.raise(type, format, args);
+    }
+
+    private PException badReadline() {
+        throw raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+    }
+
+    private byte[] input() {
+        return unpickler.getInput();
+    }
+
+    private Object load() {
+        unpickler.resetStack();
+        unpickler.protocol = 0;
+        while (true) {
+            byte op;
+            try {
+                op = input()[unpickler.read(1)];
+            } catch (PException e) {
+                e.expect(UnpicklingError, IsBuiltinClassProfile.getUncached());
+                throw raise(PythonBuiltinClassType.EOFError, ErrorMessages.RAN_OUT_OF_INPUT);
+            }
+            switch (op) {
+                case NONE:
+                    unpickler.push(PNone.NONE);
+                    break;
+                case BININT:
+                    unpickler.push(LE.getInt(input(), unpickler.read(4)));
+                    break;
+                case BININT1:
+                    unpickler.push(unpickler.readByte());
+                    break;
+                case BININT2:
+                    unpickler.push(LE.getShort(input(), unpickler.read(2)) & 0xffff);
+                    break;
+                case INT:
+                    loadInt();
+                    break;
+                case LONG:
+                    loadLong();
+                    break;
+                case LONG1:
+                    loadCountedLong(1);
+                    break;
+                case LONG4:
+                    loadCountedLong(4);
+                    break;
+                case FLOAT:
+                    loadFloat();
+                    break;
+                case BINFLOAT:
+                    unpickler.push(BE.getDouble(input(), unpickler.read(8)));
+                    break;
+                case SHORT_BINBYTES:
+                    loadCountedBinBytes(1, false);
+                    break;
+                case BINBYTES:
+                    loadCountedBinBytes(4, false);
+                    break;
+                case BINBYTES8:
+                    loadCountedBinBytes(8, false);
+                    break;
+                case BYTEARRAY8:
+                    loadCountedBinBytes(8, true);
+                    break;
+                case NEXT_BUFFER:
+                    loadNextBuffer();
+                    break;
+                case READONLY_BUFFER:
+                    loadReadonlyBuffer();
+                    break;
+                case SHORT_BINSTRING:
+                    loadCountedBinString(1);
+                    break;
+                case BINSTRING:
+                    loadCountedBinString(4);
+                    break;
+                case STRING:
+                    loadString();
+                    break;
+                case UNICODE:
+                    loadUnicode();
+                    break;
+                case SHORT_BINUNICODE:
+                    loadCountedBinUnicode(1);
+                    break;
+                case BINUNICODE:
+                    loadCountedBinUnicode(4);
+                    break;
+                case BINUNICODE8:
+                    loadCountedBinUnicode(8);
+                    break;
+                case EMPTY_TUPLE:
+                    unpickler.push(factory.createEmptyTuple());
+                    break;
+                case TUPLE:
+                    unpickler.push(factory.createTuple(popItems(unpickler.popMark())));
+                    break;
+                case TUPLE1:
+                    loadCountedTuple(1);
+                    break;
+                case TUPLE2:
+                    loadCountedTuple(2);
+                    break;
+                case TUPLE3:
+                    loadCountedTuple(3);
+                    break;
+                case EMPTY_LIST:
+                    unpickler.push(factory.createList());
+                    break;
+                case LIST:
+                    unpickler.push(factory.createList(popItems(unpickler.popMark())));
+                    break;
+                case EMPTY_DICT:
+                    unpickler.push(factory.createDict());
+                    break;
+                case DICT:
+                    loadDict();
+                    break;
+                case EMPTY_SET:
+                    unpickler.push(factory.createSet());
+                    break;
+                case ADDITEMS:
+                    loadAddItems();
+                    break;
+                case FROZENSET:
+                    loadFrozenSet();
+                    break;
+                case APPEND:
+                    doAppend(unpickler.stackLen - 1);
+                    break;
+                case APPENDS:
+                    doAppend(unpickler.popMark());
+                    break;
+                case SETITEM:
+                    doSetItems(unpickler.stackLen - 2);
+                    break;
+                case SETITEMS:
+                    doSetItems(unpickler.popMark());
+                    break;
+                case OBJ:
+                    loadObj();
+                    break;
+                case INST:
+                    loadInst();
+                    break;
+                case NEWOBJ:
+                    loadNewObj();
+                    break;
+                case NEWOBJ_EX:
+                    loadNewObjEx();
+                    break;
+                case GLOBAL:
+                    loadGlobal();
+                    break;
+                case STACK_GLOBAL:
+                    loadStackGlobal();
+                    break;
+                case EXT1:
+                    loadExtension(1);
+                    break;
+                case EXT2:
+                    loadExtension(2);
+                    break;
+                case EXT4:
+                    loadExtension(4);
+                    break;
+                case GET:
+                    loadGet();
+                    break;
+                case BINGET:
+                    doGet(unpickler.readByte());
+                    break;
+                case LONG_BINGET:
+                    doGet(LE.getInt(input(), unpickler.read(4)) & 0xffffffffL);
+                    break;
+                case PUT:
+                    loadPut();
+                    break;
+                case BINPUT:
+                    unpickler.memoPut(unpickler.readByte(), unpickler.peekTop());
+                    break;
+                case LONG_BINPUT:
+                    unpickler.memoPut(LE.getInt(input(), unpickler.read(4)) & 0xffffffffL, unpickler.peekTop());
+                    break;
+                case MEMOIZE:
+                    unpickler.memoPut(unpickler.memoLen, unpickler.peekTop());
+                    break;
+                case DUP:
+                    unpickler.push(unpickler.peekTop());
+                    break;
+                case POP:
+                    unpickler.popValueOrMark();
+                    break;
+                case POP_MARK:
+                    unpickler.clearStack(unpickler.popMark());
+                    break;
+                case MARK:
+                    unpickler.pushMark();
+                    break;
+                case BUILD:
+                    loadBuild();
+                    break;
+                case PERSID:
+                    loadPersId();
+                    break;
+                case BINPERSID:
+                    loadBinPersId();
+                    break;
+                case REDUCE:
+                    loadReduce();
+                    break;
+                case PROTO:
+                    loadProto();
+                    break;
+                case FRAME:
+                    loadFrame();
+                    break;
+                case NEWTRUE:
+                    unpickler.push(true);
+                    break;
+                case NEWFALSE:
+                    unpickler.push(false);
+                    break;
+                case STOP:
+                    unpickler.skipConsumed();
+                    return unpickler.pop();
+                default:
+                    int c = op & 0xff;
+                    if (0x20 <= c && c <= 0x7e && c != '\'' && c != '\\') {
+                        throw raise(UnpicklingError, ErrorMessages.INVALID_LOAD_KEY_S, String.valueOf((char) c));
+                    }
+                    throw raise(UnpicklingError, ErrorMessages.INVALID_LOAD_KEY_S, String.format("\\x%02x", c));
+            }
+        }
+    }
+
+    private Object[] popItems(int start) {
+        if (start < unpickler.fence) {
+            throw unpickler.stackUnderflow();
+        }
+        return unpickler.popItems(start);
+    }
+
+    // argument decoding
+
+    /**
+     * Reads a line and returns it without the trailing newline as a Latin-1 string.
+     */
+    private String readLineAsString(int minLength) {
+        int len = unpickler.readline();
+        if (len < minLength) {
+            throw badReadline();
+        }
+        return new String(input(), unpickler.lineStart, len - 1, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads a line and decodes it with the given codec, without the trailing newline.
+     */
+    private Object readLineDecoded(String encoding) {
+        int len = unpickler.readline();
+        if (len < 2) {
+            throw badReadline();
+        }
+        return decode(input(), unpickler.lineStart, len - 1, encoding, "strict");
+    }
+
+    /**
+     * Decodes bytes with the given Python codec. ASCII-only data is converted directly; everything
+     * else goes through {@code bytes.decode} so that error handling matches the codec.
+     */
+    private Object decode(byte[] data, int offset, int length, String encoding, String errors) {
+        if ("utf-8".equals(encoding) && "strict".equals(errors)) {
+            String s = PickleUtils.decodeUTF8(data, offset, length);
+            if (s != null) {
+                // only surrogatepass accepts encoded surrogates
+                boolean hasSurrogates = false;
+                for (int i = 0; i < s.length() && !hasSurrogates; i++) {
+                    hasSurrogates = Character.isSurrogate(s.charAt(i)) && !(Character.isHighSurrogate(s.charAt(i)) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1)));
+                }
+                if (!hasSurrogates) {
+                    return s;
+                }
+            }
+        } else if (isAscii(data, offset, length) && isAsciiCompatible(encoding)) {
+            return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+        }
+        PBytes bytes = factory.createBytes(PythonUtils.arrayCopyOfRange(data, offset, offset + length));
+        return PyObjectCallMethodObjArgs.getUncached().execute(null, bytes, "decode", encoding, errors);
+    }
+
+    private static boolean isAscii(byte[] data, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (data[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiCompatible(String encoding) {
+        switch (encoding.toLowerCase()) {
+            case "ascii":
+            case "latin1":
+            case "latin-1":
+            case "iso-8859-1":
+            case "utf-8":
+            case "utf8":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads an unsigned size of {@code nbytes} bytes and checks that it fits into a Java array.
+     */
+    private int readSize(int nbytes, String opname) {
+        int off = unpickler.read(nbytes);
+        long size;
+        if (nbytes == 1) {
+            size = input()[off] & 0xff;
+        } else if (nbytes == 4) {
+            size = LE.getInt(input(), off) & 0xffffffffL;
+        } else {
+            size = LE.getLong(input(), off);
+        }
+        if (size < 0 || size > Integer.MAX_VALUE - 8) {
+            throw raise(OverflowError, ErrorMessages.S_EXCEEDS_SYSTEMS_MAXIMUM_SIZE_OF_D_BYTES, opname, Integer.MAX_VALUE - 8);
+        }
+        return (int) size;
+    }
+
+    private Object narrow(BigInteger value) {
+        if (value.bitLength() < 32) {
+            return value.intValue();
+        } else if (value.bitLength() < 64) {
+            return value.longValue();
+        }
+        return factory.createInt(value);
+    }
+
+    // ints and floats
+
+    private void loadInt() {
+        String s = readLineAsString(2).trim();
+        long x;
+        try {
+            x = Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            try {
+                unpickler.push(narrow(new BigInteger(s)));
+            } catch (NumberFormatException e2) {
+                throw raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_INT);
+            }
+            return;
+        }
+        if (s.length() == 2 && (x == 0 || x == 1)) {
+            // "I00" and "I01" are False and True in protocol 0
+            unpickler.push(x == 1);
+        } else if (x == (int) x) {
+            unpickler.push((int) x);
+        } else {
+            unpickler.push(x);
+        }
+    }
+
+    private void loadLong() {
+        String s = readLineAsString(2);
+        if (s.endsWith("L")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        try {
+            unpickler.push(narrow(new BigInteger(s.trim())));
+        } catch (NumberFormatException e) {
+            throw raise(ValueError, ErrorMessages.INVALID_LITERAL_FOR_INT_WITH_BASE, 10, PyObjectReprAsJavaStringNode.getUncached().execute(null, s));
+        }
+    }
+
+    private void loadCountedLong(int nbytes) {
+        int off = unpickler.read(nbytes);
+        int size = nbytes == 1 ? input()[off] & 0xff : LE.getInt(input(), off);
+        if (size < 0) {
+            throw raise(UnpicklingError, ErrorMessages.LONG_PICKLE_HAS_NEGATIVE_BYTE_COUNT);
+        }
+        if (size == 0) {
+            unpickler.push(0);
+            return;
+        }
+        off = unpickler.read(size);
+        byte[] data = input();
+        byte[] bigEndian = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bigEndian[i] = data[off + size - 1 - i];
+        }
+        unpickler.push(narrow(new BigInteger(bigEndian)));
+    }
+
+    private void loadFloat() {
+        String s = readLineAsString(2).trim();
+        double value;
+        switch (s.toLowerCase()) {
+            case "inf":
+            case "+inf":
+            case "infinity":
+            case "+infinity":
+                value = Double.POSITIVE_INFINITY;
+                break;
+            case "-inf":
+            case "-infinity":
+                value = Double.NEGATIVE_INFINITY;
+                break;
+            case "nan":
+            case "+nan":
+            case "-nan":
+                value = Double.NaN;
+                break;
+            default:
+                char last = s.isEmpty() ? 0 : s.charAt(s.length() - 1);
+                if (!(last >= '0' && last <= '9' || last == '.')) {
+                    // reject the type suffixes Java would accept
+                    throw raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_FLOAT, PyObjectReprAsJavaStringNode.getUncached().execute(null, s));
+                }
+                try {
+                    value = Double.parseDouble(s);
+                } catch (NumberFormatException e) {
+                    throw raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_FLOAT, PyObjectReprAsJavaStringNode.getUncached().execute(null, s));
+                }
+        }
+        unpickler.push(value);
+    }
+
+    // bytes and strings
+
+    private void loadCountedBinBytes(int nbytes, boolean byteArray) {
+        int size = readSize(nbytes, byteArray ? "BYTEARRAY8" : nbytes == 8 ? "BINBYTES8" : "BINBYTES");
+        int off = unpickler.read(size);
+        byte[] data = PythonUtils.arrayCopyOfRange(input(), off, off + size);
+        unpickler.push(byteArray ? factory.createByteArray(data) : factory.createBytes(data));
+    }
+
+    private void loadNextBuffer() {
+        if (unpickler.buffers == null) {
+            throw raise(UnpicklingError, ErrorMessages.PICKLE_STREAM_REFERS_TO_OUT_OF_BAND_DATA);
+        }
+        Object buffer;
+        try {
+            buffer = GetNextNode.getUncached().execute(null, unpickler.buffers);
+        } catch (PException e) {
+            e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+            throw raise(UnpicklingError, ErrorMessages.NOT_ENOUGH_OUT_OF_BAND_BUFFERS);
+        }
+        // the buffer object is pushed as it is, without copying its data
+        unpickler.push(buffer);
+    }
+
+    private void loadReadonlyBuffer() {
+        Object obj = unpickler.peekTop();
+        PMemoryView view = PyMemoryViewFromObject.getUncached().execute(null, obj);
+        if (!view.isReadOnly()) {
+            unpickler.pop();
+            unpickler.push(PyObjectCallMethodObjArgs.getUncached().execute(null, view, "toreadonly"));
+        }
+    }
+
+    /**
+     * Decodes a Python 2 {@code str} with the encoding given to the unpickler, or returns bytes for
+     * the {@code 'bytes'} encoding.
+     */
+    private Object decodeString(byte[] data, int offset, int length) {
+        if ("bytes".equals(unpickler.encoding)) {
+            return factory.createBytes(PythonUtils.arrayCopyOfRange(data, offset, offset + length));
+        }
+        return decode(data, offset, length, unpickler.encoding, unpickler.errors);
+    }
+
+    private void loadCountedBinString(int nbytes) {
+        int off = unpickler.read(nbytes);
+        int size = nbytes == 1 ? input()[off] & 0xff : LE.getInt(input(), off);
+        if (size < 0) {
+            throw raise(UnpicklingError, ErrorMessages.BINSTRING_PICKLE_HAS_NEGATIVE_BYTE_COUNT);
+        }
+        off = unpickler.read(size);
+        unpickler.push(decodeString(input(), off, size));
+    }
+
+    private void loadString() {
+        int len = unpickler.readline();
+        if (len < 2) {
+            throw badReadline();
+        }
+        byte[] data = input();
+        int start = unpickler.lineStart;
+        // strip the newline and any other trailing whitespace
+        while (len > 0 && (data[start + len - 1] & 0xff) <= ' ') {
+            len--;
+        }
+        if (len < 2 || data[start] != data[start + len - 1] || (data[start] != '\'' && data[start] != '"')) {
+            throw raise(UnpicklingError, ErrorMessages.THE_STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED);
+        }
+        byte[] decoded = PickleUtils.decodeEscape(data, start + 1, len - 2);
+        unpickler.push(decodeString(decoded, 0, decoded.length));
+    }
+
+    private void loadUnicode() {
+        int len = unpickler.readline();
+        if (len < 1) {
+            throw badReadline();
+        }
+        String s = PickleUtils.decodeRawUnicodeEscape(input(), unpickler.lineStart, len - 1);
+        if (s != null) {
+            unpickler.push(s);
+        } else {
+            unpickler.push(decode(input(), unpickler.lineStart, len - 1, "raw-unicode-escape", "strict"));
+        }
+    }
+
+    private void loadCountedBinUnicode(int nbytes) {
+        int size = readSize(nbytes, nbytes == 8 ? "BINUNICODE8" : "BINUNICODE");
+        int off = unpickler.read(size);
+        String s = PickleUtils.decodeUTF8(input(), off, size);
+        if (s != null) {
+            unpickler.push(s);
+        } else {
+            unpickler.push(decode(input(), off, size, "utf-8", "surrogatepass"));
+        }
+    }
+
+    // containers
+
+    private void loadCountedTuple(int len) {
+        if (unpickler.stackLen < len) {
+            throw unpickler.stackUnderflow();
+        }
+        unpickler.push(factory.createTuple(popItems(unpickler.stackLen - len)));
+    }
+
+    private void loadDict() {
+        Object[] items = popItems(unpickler.popMark());
+        if (items.length % 2 != 0) {
+            throw raise(UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR_S, "DICT");
+        }
+        PDict dict = factory.createDict();
+        for (int i = 0; i < items.length; i += 2) {
+            dict.setItem(items[i], items[i + 1]);
+        }
+        unpickler.push(dict);
+    }
+
+    private void loadFrozenSet() {
+        Object[] items = popItems(unpickler.popMark());
+        HashingStorage storage = EmptyStorage.INSTANCE;
+        for (Object item : items) {
+            storage = hashingLib.setItem(storage, item, PNone.NONE);
+        }
+        unpickler.push(factory.createFrozenSet(storage));
+    }
+
+    private void loadAddItems() {
+        int mark = unpickler.popMark();
+        int len = unpickler.stackLen;
+        if (mark > len || mark <= unpickler.fence) {
+            throw unpickler.stackUnderflow();
+        }
+        if (len == mark) {
+            return;
+        }
+        Object set = unpickler.stack[mark - 1];
+        Object[] items = unpickler.popItems(mark);
+        if (set instanceof PSet) {
+            PSet pset = (PSet) set;
+            HashingStorage storage = pset.getDictStorage();
+            for (Object item : items) {
+                storage = hashingLib.setItem(storage, item, PNone.NONE);
+            }
+            pset.setDictStorage(storage);
+        } else {
+            Object add = PyObjectGetAttr.getUncached().execute(null, set, "add");
+            for (Object item : items) {
+                callNode.execute(add, item);
+            }
+        }
+    }
+
+    private boolean isExact(Object obj, PythonBuiltinClassType type) {
+        return IsBuiltinClassProfile.profileClassSlowPath(GetClassNode.getUncached().execute(obj), type);
+    }
+
+    private void doAppend(int x) {
+        int len = unpickler.stackLen;
+        if (x > len || x <= unpickler.fence) {
+            throw unpickler.stackUnderflow();
+        }
+        if (len == x) {
+            return;
+        }
+        Object list = unpickler.stack[x - 1];
+        if (list instanceof PList && isExact(list, PythonBuiltinClassType.PList)) {
+            PList plist = (PList) list;
+            Object[] items = unpickler.popItems(x);
+            SequenceStorage storage = plist.getSequenceStorage();
+            SequenceStorageNodes.AppendNode appendNode = SequenceStorageNodes.AppendNode.getUncached();
+            for (Object item : items) {
+                storage = appendNode.execute(storage, item, ListGeneralizationNode.SUPPLIER);
+            }
+            plist.setSequenceStorage(storage);
+            return;
+        }
+        Object extend = PyObjectLookupAttr.getUncached().execute(null, list, "extend");
+        if (extend != PNone.NO_VALUE) {
+            callNode.execute(extend, factory.createList(unpickler.popItems(x)));
+        } else {
+            // Even though PEP 307 requires extend() and append() methods, fall back on append()
+            // if the object has no extend() method for backward compatibility.
+            Object append = PyObjectGetAttr.getUncached().execute(null, list, "append");
+            for (Object item : unpickler.popItems(x)) {
+                callNode.execute(append, item);
+            }
+        }
+    }
+
+    private void doSetItems(int x) {
+        int len = unpickler.stackLen;
+        if (x > len || x <= unpickler.fence) {
+            throw unpickler.stackUnderflow();
+        }
+        if (len == x) {
+            return;
+        }
+        if ((len - x) % 2 != 0) {
+            throw raise(UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR_S, "SETITEMS");
+        }
+        Object dict = unpickler.stack[x - 1];
+        Object[] items = unpickler.popItems(x);
+        if (dict instanceof PDict && isExact(dict, PythonBuiltinClassType.PDict)) {
+            PDict pdict = (PDict) dict;
+            for (int i = 0; i < items.length; i += 2) {
+                pdict.setItem(items[i], items[i + 1]);
+            }
+        } else {
+            PyObjectSetItem setItem = PyObjectSetItem.getUncached();
+            for (int i = 0; i < items.length; i += 2) {
+                setItem.execute(null, dict, items[i], items[i + 1]);
+            }
+        }
+    }
+
+    // object construction
+
+    private Object instantiate(Object cls, Object[] args) {
+        if (args.length == 0 && TypeNodes.IsTypeNode.getUncached().execute(cls)) {
+            Object getInitArgs = PyObjectLookupAttr.getUncached().execute(null, cls, "__getinitargs__");
+            if (getInitArgs == PNone.NO_VALUE) {
+                return PyObjectCallMethodObjArgs.getUncached().execute(null, cls, "__new__", cls);
+            }
+        }
+        return callNode.execute(cls, args);
+    }
+
+    private void loadObj() {
+        int start = unpickler.popMark();
+        if (unpickler.stackLen - start < 1) {
+            throw unpickler.stackUnderflow();
+        }
+        Object[] args = popItems(start + 1);
+        Object cls = unpickler.pop();
+        unpickler.push(instantiate(cls, args));
+    }
+
+    private void loadInst() {
+        int start = unpickler.popMark();
+        Object moduleName = readLineDecoded("ascii");
+        Object className = readLineDecoded("ascii");
+        Object cls = callFindClass(moduleName, className);
+        unpickler.push(instantiate(cls, popItems(start)));
+    }
+
+    private static Object[] tupleItems(PTuple tuple) {
+        SequenceStorage storage = tuple.getSequenceStorage();
+        Object[] items = new Object[storage.length()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = storage.getItemNormalized(i);
+        }
+        return items;
+    }
+
+    private Object callNew(Object cls, PTuple args, PKeyword[] kwargs) {
+        Object[] items = tupleItems(args);
+        Object[] newArgs = new Object[items.length + 1];
+        newArgs[0] = cls;
+        PythonUtils.arraycopy(items, 0, newArgs, 1, items.length);
+        Object newFunc = PyObjectGetAttr.getUncached().execute(null, cls, "__new__");
+        return callNode.execute(newFunc, newArgs, kwargs);
+    }
+
+    private void loadNewObj() {
+        Object args = unpickler.pop();
+        if (!(args instanceof PTuple)) {
+            throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EXPECTED_AN_ARG_TUPLE);
+        }
+        Object cls = unpickler.pop();
+        if (!TypeNodes.IsTypeNode.getUncached().execute(cls)) {
+            throw raise(UnpicklingError, ErrorMessages.NEWOBJ_CLASS_ARGUMENT_ISNT_A_TYPE_OBJECT);
+        }
+        unpickler.push(callNew(cls, (PTuple) args, PKeyword.EMPTY_KEYWORDS));
+    }
+
+    private void loadNewObjEx() {
+        Object kwargs = unpickler.pop();
+        Object args = unpickler.pop();
+        Object cls = unpickler.pop();
+        if (!TypeNodes.IsTypeNode.getUncached().execute(cls)) {
+            throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_ARGUMENT_MUST_BE_S_NOT_P, "class", "a type", cls);
+        }
+        if (!(args instanceof PTuple)) {
+            throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_ARGUMENT_MUST_BE_S_NOT_P, "args", "a tuple", args);
+        }
+        if (!(kwargs instanceof PDict)) {
+            throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_ARGUMENT_MUST_BE_S_NOT_P, "kwargs", "a dict", kwargs);
+        }
+        ArrayList<PKeyword> keywords = new ArrayList<>();
+        for (DictEntry entry : hashingLib.entries(((PDict) kwargs).getDictStorage())) {
+            keywords.add(new PKeyword(castToString(entry.getKey()), entry.getValue()));
+        }
+        unpickler.push(callNew(cls, (PTuple) args, keywords.toArray(new PKeyword[0])));
+    }
+
+    private String castToString(Object obj) {
+        try {
+            return CastToJavaStringNode.getUncached().execute(obj);
+        } catch (CannotCastException e) {
+            throw raise(TypeError, ErrorMessages.EXPECTED_STR_GOT_P, obj);
+        }
+    }
+
+    private void loadGlobal() {
+        Object moduleName = readLineDecoded("utf-8");
+        Object globalName = readLineDecoded("utf-8");
+        unpickler.push(callFindClass(moduleName, globalName));
+    }
+
+    private void loadStackGlobal() {
+        Object globalName = unpickler.pop();
+        Object moduleName = unpickler.pop();
+        if (!isExact(moduleName, PythonBuiltinClassType.PString) || !isExact(globalName, PythonBuiltinClassType.PString)) {
+            throw raise(UnpicklingError, ErrorMessages.STACK_GLOBAL_REQUIRES_STR);
+        }
+        unpickler.push(callFindClass(moduleName, globalName));
+    }
+
+    /**
+     * Calls {@code find_class} as a method so that subclasses can override it.
+     */
+    private Object callFindClass(Object moduleName, Object globalName) {
+        return PyObjectCallMethodObjArgs.getUncached().execute(null, unpickler, "find_class", moduleName, globalName);
+    }
+
+    @TruffleBoundary
+    static Object findClass(PUnpickler unpickler, Object moduleNameObj, Object globalNameObj) {
+        PRaiseNode raise = PRaiseNode.getUncached();
+        Object moduleName = moduleNameObj;
+        Object globalName = globalNameObj;
+        if (unpickler.protocol < 3 && unpickler.fixImports) {
+            // map the old names used in Python 2.x to the new ones used in Python 3.x
+            Object compatPickle = importModule("_compat_pickle");
+            Object nameMapping = PyObjectGetAttr.getUncached().execute(null, compatPickle, "NAME_MAPPING");
+            PythonObjectFactory factory = PythonObjectFactory.getUncached();
+            Object item = PickleUtils.getItemOrNull(nameMapping, factory.createTuple(new Object[]{moduleName, globalName}));
+            if (item != null) {
+                if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                    throw raise.raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_S_VALUES_SHOULD_BE_2_TUPLES_NOT_P, "NAME_MAPPING", item);
+                }
+                moduleName = ((PTuple) item).getSequenceStorage().getItemNormalized(0);
+                globalName = ((PTuple) item).getSequenceStorage().getItemNormalized(1);
+                if (!PGuards.isString(moduleName) || !PGuards.isString(globalName)) {
+                    throw raise.raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_S_VALUES_SHOULD_BE_PAIRS_OF_STR_NOT_P_P, "NAME_MAPPING", moduleName, globalName);
+                }
+            } else {
+                Object importMapping = PyObjectGetAttr.getUncached().execute(null, compatPickle, "IMPORT_MAPPING");
+                item = PickleUtils.getItemOrNull(importMapping, moduleName);
+                if (item != null) {
+                    if (!PGuards.isString(item)) {
+                        throw raise.raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_S_VALUES_SHOULD_BE_STRINGS_NOT_P, "IMPORT_MAPPING", item);
+                    }
+                    moduleName = item;
+                }
+            }
+        }
+        String moduleNameStr;
+        String globalNameStr;
+        try {
+            moduleNameStr = CastToJavaStringNode.getUncached().execute(moduleName);
+            globalNameStr = CastToJavaStringNode.getUncached().execute(globalName);
+        } catch (CannotCastException e) {
+            throw raise.raise(TypeError, ErrorMessages.EXPECTED_STR_GOT_P, PGuards.isString(moduleName) ? globalName : moduleName);
+        }
+        Object module = importModule(moduleNameStr);
+        PyObjectReprAsJavaStringNode repr = PyObjectReprAsJavaStringNode.getUncached();
+        if (unpickler.protocol >= 4) {
+            String[] dottedPath = getDottedPath(globalNameStr);
+            if (dottedPath == null) {
+                throw raise.raise(AttributeError, ErrorMessages.CANT_GET_LOCAL_ATTRIBUTE_S_ON_S, repr.execute(null, globalName), repr.execute(null, module));
+            }
+            try {
+                return getDeepAttribute(module, dottedPath, null);
+            } catch (PException e) {
+                e.expectAttributeError(IsBuiltinClassProfile.getUncached());
+                throw raise.raise(AttributeError, ErrorMessages.CANT_GET_ATTRIBUTE_S_ON_S, repr.execute(null, globalName), repr.execute(null, module));
+            }
+        }
+        Object global = PyObjectLookupAttr.getUncached().execute(null, module, globalNameStr);
+        if (global == PNone.NO_VALUE) {
+            throw raise.raise(AttributeError, ErrorMessages.CANT_GET_ATTRIBUTE_S_ON_S, repr.execute(null, globalName), repr.execute(null, module));
+        }
+        return global;
+    }
+
+    private void loadExtension(int nbytes) {
+        int off = unpickler.read(nbytes);
+        int code;
+        if (nbytes == 1) {
+            code = input()[off] & 0xff;
+        } else if (nbytes == 2) {
+            code = LE.getShort(input(), off) & 0xffff;
+        } else {
+            code = LE.getInt(input(), off);
+        }
+        if (code <= 0) {
+            throw raise(ValueError, ErrorMessages.EXT_SPECIFIES_CODE_LE_0);
+        }
+        Object copyreg = importModule("copyreg");
+        Object extensionCache = PyObjectGetAttr.getUncached().execute(null, copyreg, "_extension_cache");
+        Object obj = PickleUtils.getItemOrNull(extensionCache, code);
+        if (obj != null) {
+            unpickler.push(obj);
+            return;
+        }
+        Object invertedRegistry = PyObjectGetAttr.getUncached().execute(null, copyreg, "_inverted_registry");
+        Object pair = PickleUtils.getItemOrNull(invertedRegistry, code);
+        if (pair == null) {
+            throw raise(ValueError, ErrorMessages.UNREGISTERED_EXTENSION_CODE_D, code);
+        }
+        if (!(pair instanceof PTuple) || ((PTuple) pair).getSequenceStorage().length() != 2) {
+            throw raise(ValueError, ErrorMessages.INVERTED_REGISTRY_D_ISNT_A_2_TUPLE_OF_STRINGS, code);
+        }
+        Object moduleName = ((PTuple) pair).getSequenceStorage().getItemNormalized(0);
+        Object className = ((PTuple) pair).getSequenceStorage().getItemNormalized(1);
+        if (!PGuards.isString(moduleName) || !PGuards.isString(className)) {
+            throw raise(ValueError, ErrorMessages.INVERTED_REGISTRY_D_ISNT_A_2_TUPLE_OF_STRINGS, code);
+        }
+        obj = callFindClass(moduleName, className);
+        PyObjectSetItem.getUncached().execute(null, extensionCache, code, obj);
+        unpickler.push(obj);
+    }
+
+    // memo
+
+    private long parseMemoKey(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            throw raise(ValueError, ErrorMessages.INVALID_LITERAL_FOR_INT_WITH_BASE, 10, PyObjectReprAsJavaStringNode.getUncached().execute(null, s));
+        }
+    }
+
+    private void doGet(long idx) {
+        Object value = unpickler.memoGet(idx);
+        if (value == null) {
+            throw raiseNode.raise(KeyError, new Object[]{idx});
+        }
+        unpickler.push(value);
+    }
+
+    private void loadGet() {
+        doGet(parseMemoKey(readLineAsString(2)));
+    }
+
+    private void loadPut() {
+        long idx = parseMemoKey(readLineAsString(1));
+        if (idx < 0) {
+            throw raise(ValueError, ErrorMessages.NEGATIVE_S_ARGUMENT, "PUT");
+        }
+        unpickler.memoPut(idx, unpickler.peekTop());
+    }
+
+    // state and reduce
+
+    private void loadBuild() {
+        if (unpickler.stackLen - 2 < unpickler.fence) {
+            throw unpickler.stackUnderflow();
+        }
+        Object state = unpickler.pop();
+        Object inst = unpickler.peekTop();
+        Object setstate = PyObjectLookupAttr.getUncached().execute(null, inst, "__setstate__");
+        if (setstate != PNone.NO_VALUE) {
+            callNode.execute(setstate, state);
+            return;
+        }
+        // a default __setstate__; first see whether state embeds a slot state dict too
+        Object slotstate = null;
+        if (state instanceof PTuple && ((PTuple) state).getSequenceStorage().length() == 2) {
+            SequenceStorage storage = ((PTuple) state).getSequenceStorage();
+            state = storage.getItemNormalized(0);
+            slotstate = storage.getItemNormalized(1);
+        }
+        if (state != PNone.NONE) {
+            if (!(state instanceof PDict)) {
+                throw raise(UnpicklingError, ErrorMessages.STATE_IS_NOT_A_DICTIONARY);
+            }
+            Object dict = PyObjectGetAttr.getUncached().execute(null, inst, "__dict__");
+            PyObjectSetItem setItem = PyObjectSetItem.getUncached();
+            for (DictEntry entry : hashingLib.entries(((PDict) state).getDictStorage())) {
+                setItem.execute(null, dict, entry.getKey(), entry.getValue());
+            }
+        }
+        if (slotstate != null) {
+            if (!(slotstate instanceof PDict)) {
+                throw raise(UnpicklingError, ErrorMessages.SLOT_STATE_IS_NOT_A_DICTIONARY);
+            }
+            PyObjectSetAttr setAttr = PyObjectSetAttr.getUncached();
+            for (DictEntry entry : hashingLib.entries(((PDict) slotstate).getDictStorage())) {
+                setAttr.execute(null, inst, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Object getPersistentLoadOrRaise() {
+        Object persistentLoad = unpickler.getPersistentLoad();
+        if (persistentLoad == null) {
+            throw raise(UnpicklingError, ErrorMessages.NO_PERSISTENT_LOAD_FUNCTION_SPECIFIED);
+        }
+        return persistentLoad;
+    }
+
+    private void loadPersId() {
+        Object persistentLoad = getPersistentLoadOrRaise();
+        int len = unpickler.readline();
+        if (len < 1) {
+            throw badReadline();
+        }
+        if (!isAscii(input(), unpickler.lineStart, len - 1)) {
+            throw raise(UnpicklingError, ErrorMessages.PERSISTENT_IDS_IN_PROTOCOL_0_MUST_BE_ASCII);
+        }
+        String pid = new String(input(), unpickler.lineStart, len - 1, StandardCharsets.ISO_8859_1);
+        unpickler.push(callNode.execute(persistentLoad, pid));
+    }
+
+    private void loadBinPersId() {
+        Object persistentLoad = getPersistentLoadOrRaise();
+        Object pid = unpickler.pop();
+        unpickler.push(callNode.execute(persistentLoad, pid));
+    }
+
+    private void loadReduce() {
+        Object argtup = unpickler.pop();
+        Object callable = unpickler.pop();
+        if (!(argtup instanceof PTuple)) {
+            throw raise(TypeError, ErrorMessages.ARGUMENT_LIST_MUST_BE_A_TUPLE);
+        }
+        unpickler.push(callNode.execute(callable, tupleItems((PTuple) argtup)));
+    }
+
+    private void loadProto() {
+        int proto = unpickler.readByte();
+        if (proto > HIGHEST_PROTOCOL) {
+            throw raise(ValueError, ErrorMessages.UNSUPPORTED_PICKLE_PROTOCOL_D, proto);
+        }
+        unpickler.protocol = proto;
+    }
+
+    private void loadFrame() {
+        int off = unpickler.read(8);
+        long frameLen = LE.getLong(input(), off);
+        if (frameLen < 0 || frameLen > Integer.MAX_VALUE - 8) {
+            throw raise(OverflowError, ErrorMessages.FRAME_LENGTH_EXCEEDS_SYSTEMS_MAXIMUM_OF_D_BYTES, Integer.MAX_VALUE - 8);
+        }
+        // make the whole frame available in memory, then rewind to its start
+        unpickler.read((int) frameLen);
+        unpickler.unread((int) frameLen);
+    }
+}
@@ -0,0 +1,1315 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.APPEND;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.APPENDS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.ADDITEMS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BATCHSIZE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINBYTES;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINFLOAT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BININT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BININT1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BININT2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINPERSID;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINPUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BINUNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BUILD;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.BYTEARRAY8;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.DICT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_DICT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_LIST;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_SET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EMPTY_TUPLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EXT1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EXT2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.EXT4;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FAST_NESTING_LIMIT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FLOAT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FROZENSET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.GET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.GLOBAL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.INT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LIST;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG4;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG_BINGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.LONG_BINPUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.MARK;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.MEMOIZE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWFALSE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWOBJ;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWOBJ_EX;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEWTRUE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NEXT_BUFFER;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.NONE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PERSID;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.POP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.POP_MARK;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PROTO;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.PUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.READONLY_BUFFER;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.REDUCE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SETITEM;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SETITEMS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SHORT_BINBYTES;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.SHORT_BINUNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.STACK_GLOBAL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.STOP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.TUPLE3;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.UNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.getDeepAttribute;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.getDottedPath;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.importModule;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.PicklingError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
+import com.oracle.graal.python.builtins.objects.floats.FloatBuiltins;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.SpecialMethodSlot;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsJavaStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupSpecialMethodSlotNode;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.formatting.FloatFormatter;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.memory.ByteArraySupport;
+
+/**
+ * The pickling logic of {@code _pickle.Pickler}, following CPython's {@code Modules/_pickle.c}.
+ * Exact instances of the common builtin types are written directly from their storages: lists and
+ * tuples from their {@link SequenceStorage}, dicts and sets by walking their
+ * {@link HashingStorage}, and ints, floats, strings and bytes without calling any Python code.
+ * Everything else goes through the reduce protocol.
+ */
+final class PickleEncoder {
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+    private static final ByteArraySupport BE = ByteArraySupport.bigEndian();
+    private static final BigInteger MIN_INT = BigInteger.valueOf(Integer.MIN_VALUE);
+    private static final BigInteger MAX_INT = BigInteger.valueOf(Integer.MAX_VALUE);
+
+    private final PPickler pickler;
+    private final int proto;
+    private final PythonObjectFactory factory = PythonObjectFactory.getUncached();
+    private final PRaiseNode raiseNode = PRaiseNode.getUncached();
+    private final GetClassNode getClassNode = GetClassNode.getUncached();
+    private final PyObjectLookupAttr lookupAttr = PyObjectLookupAttr.getUncached();
+    private final CallNode callNode = CallNode.getUncached();
+    private final HashingStorageLibrary hashingLib = HashingStorageLibrary.getUncached();
+    private final byte[] header = new byte[9];
+
+    private Object copyreg;
+
+    private PickleEncoder(PPickler pickler) {
+        this.pickler = pickler;
+        this.proto = pickler.protocol;
+    }
+
+    @TruffleBoundary
+    static void dump(PPickler pickler, Object obj) {
+        new PickleEncoder(pickler).dump(obj);
+    }
+
+    private void dump(Object obj) {
+        Object reducerOverride = lookupAttr.execute(null, pickler, "reducer_override");
+        pickler.reducerOverride = reducerOverride == PNone.NO_VALUE ? null : reducerOverride;
+        if (proto >= 2) {
+            pickler.write(PROTO, (byte) proto);
+            if (proto >= 4) {
+                pickler.framing = true;
+            }
+        }
+        try {
+            save(obj, false);
+            pickler.write(STOP);
+            pickler.commitFrame();
+        } finally {
+            pickler.framing = false;
+        }
+    }
+
+    private boolean isBuiltinClass(Object cls, PythonBuiltinClassType type) {
+        return IsBuiltinClassProfile.profileClassSlowPath(cls, type);
+    }
+
+    private PException raise(PythonBuiltinClassType type, String format, Object... args) {
+        throw raiseNode.raise(type, format, args);
+    }
+
+    private void save(Object obj, boolean persSave) {
+        pickler.opcodeBoundary();
+
+        if (!persSave && pickler.persistentId != null && savePers(obj)) {
+            return;
+        }
+
+        // atoms; these are not memoized
+        if (obj == PNone.NONE) {
+            pickler.write(NONE);
+            return;
+        } else if (obj instanceof Boolean) {
+            saveBool((boolean) obj);
+            return;
+        } else if (obj instanceof Integer) {
+            saveLong((int) obj);
+            return;
+        } else if (obj instanceof Long) {
+            saveLong((long) obj);
+            return;
+        } else if (obj instanceof Double) {
+            saveFloat((double) obj);
+            return;
+        }
+        Object type = getClassNode.execute(obj);
+        if (obj instanceof PInt) {
+            if (isBuiltinClass(type, PythonBuiltinClassType.PInt)) {
+                saveLong(((PInt) obj).getValue());
+                return;
+            } else if (isBuiltinClass(type, PythonBuiltinClassType.Boolean)) {
+                saveBool(!((PInt) obj).isZero());
+                return;
+            }
+        } else if (obj instanceof PFloat && isBuiltinClass(type, PythonBuiltinClassType.PFloat)) {
+            saveFloat(((PFloat) obj).getValue());
+            return;
+        }
+
+        Integer memoIndex = pickler.memo.get(obj);
+        if (memoIndex != null) {
+            memoGet(memoIndex);
+            return;
+        }
+
+        if (obj instanceof String) {
+            saveUnicode((String) obj);
+            return;
+        } else if (obj instanceof PString && isBuiltinClass(type, PythonBuiltinClassType.PString)) {
+            saveUnicode(obj);
+            return;
+        } else if (obj instanceof PBytes && isBuiltinClass(type, PythonBuiltinClassType.PBytes)) {
+            saveBytes((PBytes) obj);
+            return;
+        }
+
+        if (obj instanceof PDict && isBuiltinClass(type, PythonBuiltinClassType.PDict)) {
+            saveDict((PDict) obj);
+            return;
+        } else if (obj instanceof PSet && isBuiltinClass(type, PythonBuiltinClassType.PSet)) {
+            saveSet((PSet) obj, type);
+            return;
+        } else if (obj instanceof PFrozenSet && isBuiltinClass(type, PythonBuiltinClassType.PFrozenSet)) {
+            saveFrozenSet((PFrozenSet) obj, type);
+            return;
+        } else if (obj instanceof PList && isBuiltinClass(type, PythonBuiltinClassType.PList)) {
+            saveList((PList) obj);
+            return;
+        } else if (obj instanceof PTuple && isBuiltinClass(type, PythonBuiltinClassType.PTuple)) {
+            saveTuple((PTuple) obj);
+            return;
+        } else if (obj instanceof PByteArray && isBuiltinClass(type, PythonBuiltinClassType.PByteArray)) {
+            saveByteArray((PByteArray) obj);
+            return;
+        } else if (obj instanceof PPickleBuffer && isBuiltinClass(type, PythonBuiltinClassType.PickleBuffer)) {
+            savePickleBuffer((PPickleBuffer) obj);
+            return;
+        }
+
+        Object reduceValue = null;
+        if (pickler.reducerOverride != null) {
+            reduceValue = callNode.execute(pickler.reducerOverride, obj);
+            if (reduceValue == PNotImplemented.NOT_IMPLEMENTED) {
+                reduceValue = null;
+            }
+        }
+        if (reduceValue == null) {
+            if (isBuiltinClass(type, PythonBuiltinClassType.PythonClass)) {
+                saveType(obj);
+                return;
+            } else if (isBuiltinClass(type, PythonBuiltinClassType.PFunction)) {
+                saveGlobal(obj, null);
+                return;
+            }
+            Object reduceFunc = null;
+            if (pickler.dispatchTable == null) {
+                Object dispatchTable = PyObjectGetAttr.getUncached().execute(null, getCopyreg(), "dispatch_table");
+                reduceFunc = PickleUtils.getItemOrNull(dispatchTable, resolveType(type));
+            } else {
+                reduceFunc = PickleUtils.getItemOrNull(pickler.dispatchTable, resolveType(type));
+            }
+            if (reduceFunc != null) {
+                reduceValue = callNode.execute(reduceFunc, obj);
+            } else if (IsSubtypeNode.getUncached().execute(type, PythonBuiltinClassType.PythonClass)) {
+                saveGlobal(obj, null);
+                return;
+            } else {
+                reduceFunc = lookupAttr.execute(null, obj, "__reduce_ex__");
+                if (reduceFunc != PNone.NO_VALUE) {
+                    reduceValue = callNode.execute(reduceFunc, proto);
+                } else {
+                    reduceFunc = lookupAttr.execute(null, obj, "__reduce__");
+                    if (reduceFunc == PNone.NO_VALUE) {
+                        throw raise(PicklingError, ErrorMessages.CANT_PICKLE_P_OBJECT_S, obj, repr(obj));
+                    }
+                    reduceValue = callNode.execute(reduceFunc);
+                }
+            }
+        }
+        if (PGuards.isString(reduceValue)) {
+            saveGlobal(obj, reduceValue);
+        } else if (reduceValue instanceof PTuple) {
+            saveReduce((PTuple) reduceValue, obj);
+        } else {
+            throw raise(PicklingError, ErrorMessages.REDUCE_MUST_RETURN_STRING_OR_TUPLE);
+        }
+    }
+
+    private String repr(Object obj) {
+        return PyObjectReprAsJavaStringNode.getUncached().execute(null, obj);
+    }
+
+    private Object resolveType(Object type) {
+        if (type instanceof PythonBuiltinClassType) {
+            return PythonContext.get(null).lookupType((PythonBuiltinClassType) type);
+        }
+        return type;
+    }
+
+    private Object getCopyreg() {
+        if (copyreg == null) {
+            copyreg = importModule("copyreg");
+        }
+        return copyreg;
+    }
+
+    private boolean savePers(Object obj) {
+        Object pid = callNode.execute(pickler.persistentId, obj);
+        if (pid == PNone.NONE) {
+            return false;
+        }
+        if (pickler.bin) {
+            save(pid, true);
+            pickler.write(BINPERSID);
+        } else {
+            String pidStr = PyObjectStrAsJavaStringNode.getUncached().execute(null, pid);
+            for (int i = 0; i < pidStr.length(); i++) {
+                if (pidStr.charAt(i) >= 128) {
+                    throw raise(PicklingError, ErrorMessages.PERSISTENT_IDS_IN_PROTOCOL_0_MUST_BE_ASCII);
+                }
+            }
+            pickler.write(PERSID);
+            pickler.writeAscii(pidStr);
+            pickler.write((byte) '\n');
+        }
+        return true;
+    }
+
+    private void saveBool(boolean value) {
+        if (proto >= 2) {
+            pickler.write(value ? NEWTRUE : NEWFALSE);
+        } else {
+            pickler.writeAscii(value ? "I01\n" : "I00\n");
+        }
+    }
+
+    private void saveLong(long value) {
+        if (value == (int) value) {
+            saveLong((int) value);
+        } else {
+            saveLong(BigInteger.valueOf(value));
+        }
+    }
+
+    private void saveLong(int value) {
+        if (pickler.bin) {
+            if ((value & 0xffff0000) != 0) {
+                pickler.writeOpWithInt(BININT, value);
+            } else if ((value & 0xff00) != 0) {
+                pickler.write(BININT2, (byte) value);
+                pickler.write((byte) (value >> 8));
+            } else {
+                pickler.write(BININT1, (byte) value);
+            }
+        } else {
+            pickler.write(INT);
+            pickler.writeAscii(Integer.toString(value));
+            pickler.write((byte) '\n');
+        }
+    }
+
+    private void saveLong(BigInteger value) {
+        if (value.compareTo(MIN_INT) >= 0 && value.compareTo(MAX_INT) <= 0) {
+            saveLong(value.intValue());
+        } else if (proto >= 2) {
+            // little-endian two's complement with the minimal number of bytes
+            byte[] bigEndian = value.toByteArray();
+            int nbytes = bigEndian.length;
+            if (nbytes < 256) {
+                pickler.write(LONG1, (byte) nbytes);
+            } else {
+                pickler.writeOpWithInt(LONG4, nbytes);
+            }
+            int off = pickler.reserve(nbytes);
+            byte[] out = pickler.getOutput();
+            for (int i = 0; i < nbytes; i++) {
+                out[off + i] = bigEndian[nbytes - 1 - i];
+            }
+        } else {
+            pickler.write(LONG);
+            pickler.writeAscii(value.toString());
+            pickler.writeAscii("L\n");
+        }
+    }
+
+    private void saveFloat(double value) {
+        if (pickler.bin) {
+            int off = pickler.reserve(9);
+            byte[] out = pickler.getOutput();
+            out[off] = BINFLOAT;
+            BE.putDouble(out, off + 1, value);
+        } else {
+            FloatFormatter f = new FloatFormatter(raiseNode, FloatBuiltins.StrNode.spec);
+            f.setMinFracDigits(1);
+            pickler.write(FLOAT);
+            pickler.writeAscii(FloatBuiltins.StrNode.doFormat(value, f));
+            pickler.write((byte) '\n');
+        }
+    }
+
+    private void memoPut(Object obj) {
+        if (pickler.fast) {
+            return;
+        }
+        int idx = pickler.memo.size();
+        pickler.memo.put(obj, idx);
+        if (proto >= 4) {
+            pickler.write(MEMOIZE);
+        } else if (!pickler.bin) {
+            pickler.write(PUT);
+            pickler.writeAscii(Integer.toString(idx));
+            pickler.write((byte) '\n');
+        } else if (idx < 256) {
+            pickler.write(BINPUT, (byte) idx);
+        } else {
+            pickler.writeOpWithInt(LONG_BINPUT, idx);
+        }
+    }
+
+    private void memoGet(int idx) {
+        if (!pickler.bin) {
+            pickler.write(GET);
+            pickler.writeAscii(Integer.toString(idx));
+            pickler.write((byte) '\n');
+        } else if (idx < 256) {
+            pickler.write(BINGET, (byte) idx);
+        } else {
+            pickler.writeOpWithInt(LONG_BINGET, idx);
+        }
+    }
+
+    private void fastSaveEnter(Object obj) {
+        if (++pickler.fastNesting >= FAST_NESTING_LIMIT) {
+            if (pickler.fastMemo == null) {
+                pickler.fastMemo = new IdentityHashMap<>();
+            }
+            if (pickler.fastMemo.containsKey(obj)) {
+                pickler.fastNesting = 0;
+                throw raise(ValueError, ErrorMessages.FAST_MODE_CANT_PICKLE_CYCLIC_OBJECTS, obj, String.format("0x%x", System.identityHashCode(obj)));
+            }
+            pickler.fastMemo.put(obj, obj);
+        }
+    }
+
+    private void fastSaveLeave(Object obj) {
+        if (pickler.fastNesting-- >= FAST_NESTING_LIMIT) {
+            pickler.fastMemo.remove(obj);
+        }
+    }
+
+    private void saveUnicode(Object obj) {
+        String str;
+        try {
+            str = CastToJavaStringNode.getUncached().execute(obj);
+        } catch (CannotCastException e) {
+            throw raise(TypeError, ErrorMessages.EXPECTED_STR_GOT_P, obj);
+        }
+        if (pickler.bin) {
+            byte[] data = PickleUtils.encodeUTF8(str);
+            int size = data.length;
+            int headerLen;
+            if (size <= 0xff && proto >= 4) {
+                header[0] = SHORT_BINUNICODE;
+                header[1] = (byte) size;
+                headerLen = 2;
+            } else {
+                header[0] = BINUNICODE;
+                LE.putInt(header, 1, size);
+                headerLen = 5;
+            }
+            pickler.writeBytes(header, headerLen, data, 0, size, null);
+        } else {
+            pickler.write(UNICODE);
+            pickler.write(PickleUtils.encodeRawUnicodeEscape(str));
+            pickler.write((byte) '\n');
+        }
+        memoPut(obj);
+    }
+
+    private void saveBytesData(Object obj, byte[] data, int size) {
+        int headerLen;
+        if (size <= 0xff) {
+            header[0] = SHORT_BINBYTES;
+            header[1] = (byte) size;
+            headerLen = 2;
+        } else {
+            header[0] = BINBYTES;
+            LE.putInt(header, 1, size);
+            headerLen = 5;
+        }
+        pickler.writeBytes(header, headerLen, data, 0, size, obj);
+        memoPut(obj);
+    }
+
+    private void saveByteArrayData(Object obj, byte[] data, int size) {
+        header[0] = BYTEARRAY8;
+        LE.putLong(header, 1, size);
+        pickler.writeBytes(header, 9, data, 0, size, obj);
+        memoPut(obj);
+    }
+
+    private void saveBytes(PBytes obj) {
+        PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getUncached();
+        byte[] data = bufferLib.getInternalOrCopiedByteArray(obj);
+        int size = bufferLib.getBufferLength(obj);
+        if (proto < 3) {
+            // older protocols have no opcode for bytes, so go through codecs.encode
+            PTuple reduceValue;
+            Object bytesType = resolveType(PythonBuiltinClassType.PBytes);
+            if (size == 0) {
+                reduceValue = factory.createTuple(new Object[]{bytesType, factory.createEmptyTuple()});
+            } else {
+                char[] latin1 = new char[size];
+                for (int i = 0; i < size; i++) {
+                    latin1[i] = (char) (data[i] & 0xff);
+                }
+                Object encode = PyObjectGetAttr.getUncached().execute(null, importModule("_codecs"), "encode");
+                reduceValue = factory.createTuple(new Object[]{encode, factory.createTuple(new Object[]{new String(latin1), "latin1"})});
+            }
+            saveReduce(reduceValue, obj);
+        } else {
+            saveBytesData(obj, data, size);
+        }
+    }
+
+    private void saveByteArray(PByteArray obj) {
+        PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getUncached();
+        byte[] data = bufferLib.getInternalOrCopiedByteArray(obj);
+        int size = bufferLib.getBufferLength(obj);
+        if (proto < 5) {
+            Object byteArrayType = resolveType(PythonBuiltinClassType.PByteArray);
+            PTuple args;
+            if (size == 0) {
+                args = factory.createEmptyTuple();
+            } else {
+                args = factory.createTuple(new Object[]{factory.createBytes(PythonUtils.arrayCopyOfRange(data, 0, size))});
+            }
+            saveReduce(factory.createTuple(new Object[]{byteArrayType, args}), obj);
+        } else {
+            saveByteArrayData(obj, data, size);
+        }
+    }
+
+    private void savePickleBuffer(PPickleBuffer obj) {
+        if (proto < 5) {
+            throw raise(PicklingError, ErrorMessages.PICKLEBUFFER_CAN_ONLY_PICKLED_WITH_PROTOCOL_5);
+        }
+        PMemoryView view = obj.getViewOrRaise(raiseNode);
+        if (!view.isCContiguous() && !view.isFortranContiguous()) {
+            throw raise(PicklingError, ErrorMessages.PICKLEBUFFER_CANNOT_BE_PICKLED_NON_CONTIGUOUS);
+        }
+        boolean inBand = true;
+        if (pickler.bufferCallback != null) {
+            Object ret = callNode.execute(pickler.bufferCallback, obj);
+            inBand = PyObjectIsTrueNode.getUncached().execute(null, ret);
+        }
+        if (inBand) {
+            // the object itself is handed to file.write for large buffers, so no copy is made
+            PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getUncached();
+            byte[] data = bufferLib.getInternalOrCopiedByteArray(view);
+            int size = bufferLib.getBufferLength(view);
+            if (view.isReadOnly()) {
+                saveBytesData(obj, data, size);
+            } else {
+                saveByteArrayData(obj, data, size);
+            }
+        } else {
+            pickler.write(NEXT_BUFFER);
+            if (view.isReadOnly()) {
+                pickler.write(READONLY_BUFFER);
+            }
+        }
+    }
+
+    private static Object next(Object iterator) {
+        try {
+            return GetNextNode.getUncached().execute(null, iterator);
+        } catch (PException e) {
+            e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+            return null;
+        }
+    }
+
+    private void saveList(PList obj) {
+        if (pickler.fast) {
+            fastSaveEnter(obj);
+        }
+        if (pickler.bin) {
+            pickler.write(EMPTY_LIST);
+        } else {
+            pickler.write(MARK, LIST);
+        }
+        memoPut(obj);
+        if (obj.getSequenceStorage().length() != 0) {
+            batchListExact(obj);
+        }
+        if (pickler.fast) {
+            fastSaveLeave(obj);
+        }
+    }
+
+    /**
+     * Like {@link #batchList} but reads the items directly from the list's storage. The storage is
+     * re-read for every item since saving an item can run arbitrary code that mutates the list.
+     */
+    private void batchListExact(PList obj) {
+        if (!pickler.bin) {
+            for (int i = 0; i < obj.getSequenceStorage().length(); i++) {
+                save(obj.getSequenceStorage().getItemNormalized(i), false);
+                pickler.write(APPEND);
+            }
+            return;
+        }
+        if (obj.getSequenceStorage().length() == 1) {
+            save(obj.getSequenceStorage().getItemNormalized(0), false);
+            pickler.write(APPEND);
+            return;
+        }
+        int total = 0;
+        do {
+            int thisBatch = 0;
+            pickler.write(MARK);
+            while (total < obj.getSequenceStorage().length()) {
+                save(obj.getSequenceStorage().getItemNormalized(total), false);
+                total++;
+                if (++thisBatch == BATCHSIZE) {
+                    break;
+                }
+            }
+            pickler.write(APPENDS);
+        } while (total < obj.getSequenceStorage().length());
+    }
+
+    private void batchList(Object iterator) {
+        if (!pickler.bin) {
+            Object item;
+            while ((item = next(iterator)) != null) {
+                save(item, false);
+                pickler.write(APPEND);
+            }
+            return;
+        }
+        Object firstItem = next(iterator);
+        if (firstItem == null) {
+            return;
+        }
+        Object item = next(iterator);
+        if (item == null) {
+            save(firstItem, false);
+            pickler.write(APPEND);
+            return;
+        }
+        while (true) {
+            pickler.write(MARK);
+            save(firstItem, false);
+            int n = 1;
+            while (item != null) {
+                save(item, false);
+                if (++n == BATCHSIZE) {
+                    break;
+                }
+                item = next(iterator);
+            }
+            pickler.write(APPENDS);
+            if (n < BATCHSIZE) {
+                return;
+            }
+            firstItem = next(iterator);
+            if (firstItem == null) {
+                return;
+            }
+            item = next(iterator);
+            if (item == null) {
+                save(firstItem, false);
+                pickler.write(APPEND);
+                return;
+            }
+        }
+    }
+
+    private void saveDict(PDict obj) {
+        if (pickler.fast) {
+            fastSaveEnter(obj);
+        }
+        if (pickler.bin) {
+            pickler.write(EMPTY_DICT);
+        } else {
+            pickler.write(MARK, DICT);
+        }
+        memoPut(obj);
+        if (hashingLib.length(obj.getDictStorage()) != 0) {
+            if (proto > 0) {
+                batchDictExact(obj);
+            } else {
+                Object items = PyObjectCallMethodObjArgs.getUncached().execute(null, obj, "items");
+                batchDict(PyObjectGetIter.getUncached().execute(null, items));
+            }
+        }
+        if (pickler.fast) {
+            fastSaveLeave(obj);
+        }
+    }
+
+    /**
+     * Writes the items of an exact dict by walking its {@link HashingStorage}, without creating the
+     * items view and the intermediate tuples.
+     */
+    private void batchDictExact(PDict obj) {
+        HashingStorage storage = obj.getDictStorage();
+        int dictSize = hashingLib.length(storage);
+        Iterator<DictEntry> entries = hashingLib.entries(storage).iterator();
+        if (dictSize == 1) {
+            DictEntry entry = entries.next();
+            save(entry.getKey(), false);
+            save(entry.getValue(), false);
+            pickler.write(SETITEM);
+            return;
+        }
+        int i;
+        do {
+            i = 0;
+            pickler.write(MARK);
+            while (entries.hasNext()) {
+                DictEntry entry = entries.next();
+                save(entry.getKey(), false);
+                save(entry.getValue(), false);
+                if (obj.getDictStorage() != storage || hashingLib.length(storage) != dictSize) {
+                    throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "dictionary");
+                }
+                if (++i == BATCHSIZE) {
+                    break;
+                }
+            }
+            pickler.write(SETITEMS);
+        } while (i == BATCHSIZE);
+    }
+
+    private PTuple nextDictItem(Object iterator) {
+        Object item = next(iterator);
+        if (item == null) {
+            return null;
+        }
+        if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+            throw raise(TypeError, ErrorMessages.DICT_ITEMS_ITERATOR_MUST_RETURN_2_TUPLES);
+        }
+        return (PTuple) item;
+    }
+
+    private void saveDictItem(PTuple item) {
+        SequenceStorage storage = item.getSequenceStorage();
+        save(storage.getItemNormalized(0), false);
+        save(storage.getItemNormalized(1), false);
+    }
+
+    private void batchDict(Object iterator) {
+        if (!pickler.bin) {
+            PTuple item;
+            while ((item = nextDictItem(iterator)) != null) {
+                saveDictItem(item);
+                pickler.write(SETITEM);
+            }
+            return;
+        }
+        PTuple firstItem = nextDictItem(iterator);
+        if (firstItem == null) {
+            return;
+        }
+        PTuple item = nextDictItem(iterator);
+        if (item == null) {
+            saveDictItem(firstItem);
+            pickler.write(SETITEM);
+            return;
+        }
+        while (true) {
+            pickler.write(MARK);
+            saveDictItem(firstItem);
+            int n = 1;
+            while (item != null) {
+                saveDictItem(item);
+                if (++n == BATCHSIZE) {
+                    break;
+                }
+                item = nextDictItem(iterator);
+            }
+            pickler.write(SETITEMS);
+            if (n < BATCHSIZE) {
+                return;
+            }
+            firstItem = nextDictItem(iterator);
+            if (firstItem == null) {
+                return;
+            }
+            item = nextDictItem(iterator);
+            if (item == null) {
+                saveDictItem(firstItem);
+                pickler.write(SETITEM);
+                return;
+            }
+        }
+    }
+
+    private PList setItemsList(PBaseSet obj) {
+        ArrayList<Object> items = new ArrayList<>();
+        for (Object key : hashingLib.keys(obj.getDictStorage())) {
+            items.add(key);
+        }
+        return factory.createList(items.toArray());
+    }
+
+    private void saveSet(PSet obj, Object type) {
+        if (proto < 4) {
+            PTuple args = factory.createTuple(new Object[]{setItemsList(obj)});
+            saveReduce(factory.createTuple(new Object[]{resolveType(type), args}), obj);
+            return;
+        }
+        pickler.write(EMPTY_SET);
+        memoPut(obj);
+        HashingStorage storage = obj.getDictStorage();
+        int setSize = hashingLib.length(storage);
+        if (setSize == 0) {
+            return;
+        }
+        Iterator<Object> keys = hashingLib.keys(storage).iterator();
+        int i;
+        do {
+            i = 0;
+            pickler.write(MARK);
+            while (keys.hasNext()) {
+                save(keys.next(), false);
+                if (obj.getDictStorage() != storage || hashingLib.length(storage) != setSize) {
+                    throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "set");
+                }
+                if (++i == BATCHSIZE) {
+                    break;
+                }
+            }
+            pickler.write(ADDITEMS);
+        } while (i == BATCHSIZE);
+    }
+
+    private void saveFrozenSet(PFrozenSet obj, Object type) {
+        if (proto < 4) {
+            PTuple args = factory.createTuple(new Object[]{setItemsList(obj)});
+            saveReduce(factory.createTuple(new Object[]{resolveType(type), args}), obj);
+            return;
+        }
+        pickler.write(MARK);
+        for (Object key : hashingLib.keys(obj.getDictStorage())) {
+            save(key, false);
+        }
+        // if the object is already in the memo it is recursive; throw away what we put on the stack
+        Integer memoIndex = pickler.memo.get(obj);
+        if (memoIndex != null) {
+            pickler.write(POP_MARK);
+            memoGet(memoIndex);
+            return;
+        }
+        pickler.write(FROZENSET);
+        memoPut(obj);
+    }
+
+    private void saveTuple(PTuple obj) {
+        SequenceStorage storage = obj.getSequenceStorage();
+        int len = storage.length();
+        if (len == 0) {
+            if (proto > 0) {
+                pickler.write(EMPTY_TUPLE);
+            } else {
+                pickler.write(MARK, TUPLE);
+            }
+            return;
+        }
+        if (len <= 3 && proto >= 2) {
+            for (int i = 0; i < len; i++) {
+                save(storage.getItemNormalized(i), false);
+            }
+            Integer memoIndex = pickler.memo.get(obj);
+            if (memoIndex != null) {
+                // a recursive tuple: pop the elements and fetch the object from the memo
+                for (int i = 0; i < len; i++) {
+                    pickler.write(POP);
+                }
+                memoGet(memoIndex);
+                return;
+            }
+            pickler.write(len == 1 ? TUPLE1 : len == 2 ? TUPLE2 : TUPLE3);
+            memoPut(obj);
+            return;
+        }
+        pickler.write(MARK);
+        for (int i = 0; i < len; i++) {
+            save(storage.getItemNormalized(i), false);
+        }
+        Integer memoIndex = pickler.memo.get(obj);
+        if (memoIndex != null) {
+            if (pickler.bin) {
+                pickler.write(POP_MARK);
+            } else {
+                for (int i = 0; i <= len; i++) {
+                    pickler.write(POP);
+                }
+            }
+            memoGet(memoIndex);
+            return;
+        }
+        pickler.write(TUPLE);
+        memoPut(obj);
+    }
+
+    private void saveType(Object obj) {
+        if (isBuiltinClass(obj, PythonBuiltinClassType.PNone)) {
+            saveSingletonType(obj, PNone.NONE);
+        } else if (isBuiltinClass(obj, PythonBuiltinClassType.PEllipsis)) {
+            saveSingletonType(obj, PEllipsis.INSTANCE);
+        } else if (isBuiltinClass(obj, PythonBuiltinClassType.PNotImplemented)) {
+            saveSingletonType(obj, PNotImplemented.NOT_IMPLEMENTED);
+        } else {
+            saveGlobal(obj, null);
+        }
+    }
+
+    private void saveSingletonType(Object obj, Object singleton) {
+        if (proto < 3) {
+            saveGlobal(obj, null);
+        } else {
+            PTuple args = factory.createTuple(new Object[]{singleton});
+            saveReduce(factory.createTuple(new Object[]{resolveType(PythonBuiltinClassType.PythonClass), args}), obj);
+        }
+    }
+
+    private String castToString(Object obj) {
+        try {
+            return CastToJavaStringNode.getUncached().execute(obj);
+        } catch (CannotCastException e) {
+            throw raise(TypeError, ErrorMessages.EXPECTED_STR_GOT_P, obj);
+        }
+    }
+
+    private Object whichModule(Object obj, String[] dottedPath) {
+        Object moduleName = lookupAttr.execute(null, obj, "__module__");
+        if (moduleName != PNone.NO_VALUE && moduleName != PNone.NONE) {
+            return moduleName;
+        }
+        // fall back on walking sys.modules
+        PDict modules = PythonContext.get(null).getSysModules();
+        for (DictEntry entry : hashingLib.entries(modules.getDictStorage())) {
+            Object module = entry.getValue();
+            if (PGuards.isString(entry.getKey()) && "__main__".equals(castToString(entry.getKey())) || module == PNone.NONE) {
+                continue;
+            }
+            Object candidate;
+            try {
+                candidate = getDeepAttribute(module, dottedPath, null);
+            } catch (PException e) {
+                e.expectAttributeError(IsBuiltinClassProfile.getUncached());
+                continue;
+            }
+            if (resolveType(candidate) == resolveType(obj)) {
+                return entry.getKey();
+            }
+        }
+        return "__main__";
+    }
+
+    private void saveGlobal(Object obj, Object name) {
+        Object globalName = name;
+        if (globalName == null) {
+            globalName = lookupAttr.execute(null, obj, "__qualname__");
+            if (globalName == PNone.NO_VALUE) {
+                globalName = PyObjectGetAttr.getUncached().execute(null, obj, "__name__");
+            }
+        }
+        String globalNameStr = castToString(globalName);
+        String[] dottedPath = getDottedPath(globalNameStr);
+        if (dottedPath == null) {
+            throw raise(PythonBuiltinClassType.AttributeError, ErrorMessages.CANT_PICKLE_LOCAL_OBJECT_S, repr(globalName));
+        }
+        Object moduleName = whichModule(obj, dottedPath);
+        String moduleNameStr = castToString(moduleName);
+
+        Object module;
+        try {
+            module = importModule(moduleNameStr);
+        } catch (PException e) {
+            throw raise(PicklingError, ErrorMessages.CANT_PICKLE_S_IMPORT_OF_MODULE_S_FAILED, repr(obj), repr(moduleName));
+        }
+        String lastName = dottedPath[dottedPath.length - 1];
+        Object[] parent = new Object[1];
+        Object cls;
+        try {
+            cls = getDeepAttribute(module, dottedPath, parent);
+        } catch (PException e) {
+            throw raise(PicklingError, ErrorMessages.CANT_PICKLE_S_ATTRIBUTE_LOOKUP_S_ON_S_FAILED, repr(obj), globalNameStr, moduleNameStr);
+        }
+        if (resolveType(cls) != resolveType(obj)) {
+            throw raise(PicklingError, ErrorMessages.CANT_PICKLE_S_NOT_SAME_OBJECT_AS_S_S, repr(obj), moduleNameStr, globalNameStr);
+        }
+
+        if (proto >= 2) {
+            // see whether this is in the extension registry, and if so generate an EXT opcode
+            Object registry = PyObjectGetAttr.getUncached().execute(null, getCopyreg(), "_extension_registry");
+            Object codeObj = PickleUtils.getItemOrNull(registry, factory.createTuple(new Object[]{moduleName, globalName}));
+            if (codeObj != null) {
+                saveExtension(obj, codeObj);
+                return;
+            }
+        }
+        if (parent[0] == module) {
+            globalName = lastName;
+            globalNameStr = lastName;
+        }
+        if (proto >= 4) {
+            save(moduleName, false);
+            save(globalName, false);
+            pickler.write(STACK_GLOBAL);
+        } else if (parent[0] != module) {
+            Object getattr = PythonContext.get(null).getBuiltins().getAttribute("getattr");
+            PTuple args = factory.createTuple(new Object[]{parent[0], lastName});
+            saveReduce(factory.createTuple(new Object[]{getattr, args}), null);
+        } else {
+            pickler.write(GLOBAL);
+            if (proto < 3 && pickler.fixImports) {
+                String[] fixed = fixImports(moduleName, globalName, moduleNameStr, globalNameStr);
+                moduleNameStr = fixed[0];
+                globalNameStr = fixed[1];
+            }
+            writeGlobalIdentifier(moduleNameStr, ErrorMessages.CANT_PICKLE_MODULE_IDENTIFIER_S_USING_PROTOCOL_D);
+            writeGlobalIdentifier(globalNameStr, ErrorMessages.CANT_PICKLE_GLOBAL_IDENTIFIER_S_USING_PROTOCOL_D);
+        }
+        memoPut(obj);
+    }
+
+    private void saveExtension(Object obj, Object codeObj) {
+        long code;
+        if (codeObj instanceof Integer || codeObj instanceof Long) {
+            code = ((Number) codeObj).longValue();
+        } else if (codeObj instanceof PInt) {
+            code = ((PInt) codeObj).getValue().compareTo(MAX_INT) > 0 ? Long.MAX_VALUE : ((PInt) codeObj).getValue().longValue();
+        } else {
+            throw raise(PicklingError, ErrorMessages.CANT_PICKLE_S_EXTENSION_CODE_S_ISNT_INTEGER, repr(obj), repr(codeObj));
+        }
+        if (code <= 0 || code > 0x7fffffffL) {
+            throw raise(PicklingError, ErrorMessages.CANT_PICKLE_S_EXTENSION_CODE_S_OUT_OF_RANGE, repr(obj), repr(codeObj));
+        }
+        if (code <= 0xff) {
+            pickler.write(EXT1, (byte) code);
+        } else if (code <= 0xffff) {
+            pickler.write(EXT2, (byte) code);
+            pickler.write((byte) (code >> 8));
+        } else {
+            pickler.writeOpWithInt(EXT4, (int) code);
+        }
+    }
+
+    private void writeGlobalIdentifier(String identifier, String errorMessage) {
+        int maxChar = proto == 3 ? Character.MAX_CODE_POINT : 127;
+        for (int i = 0; i < identifier.length(); i++) {
+            if (identifier.charAt(i) > maxChar || (proto == 3 && Character.isSurrogate(identifier.charAt(i)))) {
+                throw raise(PicklingError, errorMessage, identifier, proto);
+            }
+        }
+        pickler.write(PickleUtils.encodeUTF8(identifier));
+        pickler.write((byte) '\n');
+    }
+
+    /**
+     * Converts module and global names to the old Python 2.x names using the mappings of
+     * {@code _compat_pickle}.
+     */
+    private String[] fixImports(Object moduleName, Object globalName, String moduleNameStr, String globalNameStr) {
+        Object compatPickle = importModule("_compat_pickle");
+        Object nameMapping = PyObjectGetAttr.getUncached().execute(null, compatPickle, "REVERSE_NAME_MAPPING");
+        Object item = PickleUtils.getItemOrNull(nameMapping, factory.createTuple(new Object[]{moduleName, globalName}));
+        if (item != null) {
+            if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_S_VALUES_SHOULD_BE_2_TUPLES_NOT_P, "REVERSE_NAME_MAPPING", item);
+            }
+            SequenceStorage storage = ((PTuple) item).getSequenceStorage();
+            Object fixedModule = storage.getItemNormalized(0);
+            Object fixedName = storage.getItemNormalized(1);
+            if (!PGuards.isString(fixedModule) || !PGuards.isString(fixedName)) {
+                throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_S_VALUES_SHOULD_BE_PAIRS_OF_STR_NOT_P_P, "REVERSE_NAME_MAPPING", fixedModule, fixedName);
+            }
+            return new String[]{castToString(fixedModule), castToString(fixedName)};
+        }
+        Object importMapping = PyObjectGetAttr.getUncached().execute(null, compatPickle, "REVERSE_IMPORT_MAPPING");
+        item = PickleUtils.getItemOrNull(importMapping, moduleName);
+        if (item != null) {
+            if (!PGuards.isString(item)) {
+                throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_S_VALUES_SHOULD_BE_STRINGS_NOT_P, "REVERSE_IMPORT_MAPPING", item);
+            }
+            return new String[]{castToString(item), globalNameStr};
+        }
+        return new String[]{moduleNameStr, globalNameStr};
+    }
+
+    private boolean isIterator(Object obj) {
+        Object type = getClassNode.execute(obj);
+        return LookupSpecialMethodSlotNode.getUncached(SpecialMethodSlot.Next).execute(null, type, obj) != PNone.NO_VALUE;
+    }
+
+    private void saveReduce(PTuple reduceValue, Object obj) {
+        SequenceStorage reduceStorage = reduceValue.getSequenceStorage();
+        int size = reduceStorage.length();
+        if (size < 2 || size > 6) {
+            throw raise(PicklingError, ErrorMessages.TUPLE_RETURNED_BY_REDUCE_MUST_CONTAIN_2_THROUGH_6);
+        }
+        Object[] items = new Object[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = reduceStorage.getItemNormalized(i);
+        }
+        Object callable = items[0];
+        Object argtup = items[1];
+        Object state = size > 2 && items[2] != PNone.NONE ? items[2] : null;
+        Object listitems = size > 3 && items[3] != PNone.NONE ? items[3] : null;
+        Object dictitems = size > 4 && items[4] != PNone.NONE ? items[4] : null;
+        Object stateSetter = size > 5 && items[5] != PNone.NONE ? items[5] : null;
+
+        PyCallableCheckNode callableCheck = PyCallableCheckNode.getUncached();
+        if (!callableCheck.execute(callable)) {
+            throw raise(PicklingError, ErrorMessages.FIRST_ITEM_OF_REDUCE_TUPLE_MUST_BE_CALLABLE);
+        }
+        if (!(argtup instanceof PTuple)) {
+            throw raise(PicklingError, ErrorMessages.SECOND_ITEM_OF_REDUCE_TUPLE_MUST_BE_TUPLE);
+        }
+        if (listitems != null && !isIterator(listitems)) {
+            throw raise(PicklingError, ErrorMessages.REDUCE_ELEMENT_MUST_BE_ITERATOR_NOT_P, "fourth", listitems);
+        }
+        if (dictitems != null && !isIterator(dictitems)) {
+            throw raise(PicklingError, ErrorMessages.REDUCE_ELEMENT_MUST_BE_ITERATOR_NOT_P, "fifth", dictitems);
+        }
+        if (stateSetter != null && !callableCheck.execute(stateSetter)) {
+            throw raise(PicklingError, ErrorMessages.SIXTH_ELEMENT_OF_REDUCE_TUPLE_MUST_BE_FUNCTION_NOT_P, stateSetter);
+        }
+
+        boolean useNewobj = false;
+        boolean useNewobjEx = false;
+        if (proto >= 2) {
+            Object name = lookupAttr.execute(null, callable, "__name__");
+            if (PGuards.isString(name)) {
+                String nameStr = castToString(name);
+                useNewobjEx = "__newobj_ex__".equals(nameStr);
+                useNewobj = "__newobj__".equals(nameStr);
+            }
+        }
+        SequenceStorage args = ((PTuple) argtup).getSequenceStorage();
+        if (useNewobjEx) {
+            if (args.length() != 3) {
+                throw raise(PicklingError, ErrorMessages.LENGTH_OF_NEWOBJ_EX_ARGUMENT_TUPLE_MUST_BE_3, args.length());
+            }
+            Object cls = args.getItemNormalized(0);
+            Object clsArgs = args.getItemNormalized(1);
+            Object clsKwargs = args.getItemNormalized(2);
+            if (!TypeNodes.IsTypeNode.getUncached().execute(cls)) {
+                throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_ARGUMENT_ITEM_MUST_BE_S_NOT_P, "first", "a class", cls);
+            }
+            if (!(clsArgs instanceof PTuple)) {
+                throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_ARGUMENT_ITEM_MUST_BE_S_NOT_P, "second", "a tuple", clsArgs);
+            }
+            if (!(clsKwargs instanceof PDict)) {
+                throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_ARGUMENT_ITEM_MUST_BE_S_NOT_P, "third", "a dict", clsKwargs);
+            }
+            if (proto >= 4) {
+                save(cls, false);
+                save(clsArgs, false);
+                save(clsKwargs, false);
+                pickler.write(NEWOBJ_EX);
+            } else {
+                // emulate NEWOBJ_EX with functools.partial(cls.__new__, cls, *args, **kwargs)
+                SequenceStorage clsArgsStorage = ((PTuple) clsArgs).getSequenceStorage();
+                Object[] newargs = new Object[clsArgsStorage.length() + 2];
+                newargs[0] = PyObjectGetAttr.getUncached().execute(null, cls, "__new__");
+                newargs[1] = cls;
+                for (int i = 0; i < clsArgsStorage.length(); i++) {
+                    newargs[i + 2] = clsArgsStorage.getItemNormalized(i);
+                }
+                Object partial = PyObjectGetAttr.getUncached().execute(null, importModule("functools"), "partial");
+                ArrayList<PKeyword> keywords = new ArrayList<>();
+                for (DictEntry entry : hashingLib.entries(((PDict) clsKwargs).getDictStorage())) {
+                    keywords.add(new PKeyword(castToString(entry.getKey()), entry.getValue()));
+                }
+                Object partialCallable = callNode.execute(partial, newargs, keywords.toArray(new PKeyword[0]));
+                save(partialCallable, false);
+                save(factory.createEmptyTuple(), false);
+                pickler.write(REDUCE);
+            }
+        } else if (useNewobj) {
+            if (args.length() < 1) {
+                throw raise(PicklingError, ErrorMessages.NEWOBJ_ARGLIST_IS_EMPTY);
+            }
+            Object cls = args.getItemNormalized(0);
+            if (!TypeNodes.IsTypeNode.getUncached().execute(cls)) {
+                throw raise(PicklingError, ErrorMessages.ARGS0_FROM_NEWOBJ_ARGS_IS_NOT_A_TYPE);
+            }
+            if (obj != null) {
+                Object objClass = PyObjectGetAttr.getUncached().execute(null, obj, "__class__");
+                if (resolveType(objClass) != resolveType(cls)) {
+                    throw raise(PicklingError, ErrorMessages.ARGS0_FROM_NEWOBJ_ARGS_HAS_WRONG_CLASS);
+                }
+            }
+            save(cls, false);
+            Object[] newargs = new Object[args.length() - 1];
+            for (int i = 1; i < args.length(); i++) {
+                newargs[i - 1] = args.getItemNormalized(i);
+            }
+            save(factory.createTuple(newargs), false);
+            pickler.write(NEWOBJ);
+        } else {
+            save(callable, false);
+            save(argtup, false);
+            pickler.write(REDUCE);
+        }
+
+        if (obj != null) {
+            // if the object is already in the memo it is recursive; throw away what we put on the
+            // stack and fetch the object back from the memo
+            Integer memoIndex = pickler.memo.get(obj);
+            if (memoIndex != null) {
+                pickler.write(POP);
+                memoGet(memoIndex);
+                return;
+            }
+            memoPut(obj);
+        }
+        if (listitems != null) {
+            batchList(listitems);
+        }
+        if (dictitems != null) {
+            batchDict(dictitems);
+        }
+        if (state != null) {
+            if (stateSetter == null) {
+                save(state, false);
+                pickler.write(BUILD);
+            } else {
+                // call the state setter instead of BUILD; the result is popped to keep the stack
+                // unchanged
+                save(stateSetter, false);
+                save(obj, false);
+                save(state, false);
+                pickler.write(TUPLE2);
+                pickler.write(REDUCE);
+                pickler.write(POP);
+            }
+        }
+    }
+}
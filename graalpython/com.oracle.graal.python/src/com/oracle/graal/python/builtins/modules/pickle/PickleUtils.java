@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+
+/**
+ * Opcodes and limits of the pickle protocol, see {@code Lib/pickletools.py} for documentation.
+ */
+final class PickleUtils {
+    static final int DEFAULT_PROTOCOL = 4;
+    static final int HIGHEST_PROTOCOL = 5;
+
+    /** Number of items written by a single {@code APPENDS}, {@code SETITEMS} or {@code ADDITEMS}. */
+    static final int BATCHSIZE = 1000;
+
+    /** Nesting level after which the fast mode starts tracking containers to detect cycles. */
+    static final int FAST_NESTING_LIMIT = 50;
+
+    static final int FRAME_SIZE_MIN = 4;
+    static final int FRAME_SIZE_TARGET = 64 * 1024;
+    static final int FRAME_HEADER_SIZE = 9;
+
+    static final int WRITE_BUF_SIZE = 4096;
+    static final int PREFETCH = 8192 * 16;
+
+    // protocol 0 and 1
+    static final byte MARK = '(';
+    static final byte STOP = '.';
+    static final byte POP = '0';
+    static final byte POP_MARK = '1';
+    static final byte DUP = '2';
+    static final byte FLOAT = 'F';
+    static final byte INT = 'I';
+    static final byte BININT = 'J';
+    static final byte BININT1 = 'K';
+    static final byte LONG = 'L';
+    static final byte BININT2 = 'M';
+    static final byte NONE = 'N';
+    static final byte PERSID = 'P';
+    static final byte BINPERSID = 'Q';
+    static final byte REDUCE = 'R';
+    static final byte STRING = 'S';
+    static final byte BINSTRING = 'T';
+    static final byte SHORT_BINSTRING = 'U';
+    static final byte UNICODE = 'V';
+    static final byte BINUNICODE = 'X';
+    static final byte APPEND = 'a';
+    static final byte BUILD = 'b';
+    static final byte GLOBAL = 'c';
+    static final byte DICT = 'd';
+    static final byte EMPTY_DICT = '}';
+    static final byte APPENDS = 'e';
+    static final byte GET = 'g';
+    static final byte BINGET = 'h';
+    static final byte INST = 'i';
+    static final byte LONG_BINGET = 'j';
+    static final byte LIST = 'l';
+    static final byte EMPTY_LIST = ']';
+    static final byte OBJ = 'o';
+    static final byte PUT = 'p';
+    static final byte BINPUT = 'q';
+    static final byte LONG_BINPUT = 'r';
+    static final byte SETITEM = 's';
+    static final byte TUPLE = 't';
+    static final byte EMPTY_TUPLE = ')';
+    static final byte SETITEMS = 'u';
+    static final byte BINFLOAT = 'G';
+
+    // protocol 2
+    static final byte PROTO = (byte) 0x80;
+    static final byte NEWOBJ = (byte) 0x81;
+    static final byte EXT1 = (byte) 0x82;
+    static final byte EXT2 = (byte) 0x83;
+    static final byte EXT4 = (byte) 0x84;
+    static final byte TUPLE1 = (byte) 0x85;
+    static final byte TUPLE2 = (byte) 0x86;
+    static final byte TUPLE3 = (byte) 0x87;
+    static final byte NEWTRUE = (byte) 0x88;
+    static final byte NEWFALSE = (byte) 0x89;
+    static final byte LONG1 = (byte) 0x8a;
+    static final byte LONG4 = (byte) 0x8b;
+
+    // protocol 3
+    static final byte BINBYTES = 'B';
+    static final byte SHORT_BINBYTES = 'C';
+
+    // protocol 4
+    static final byte SHORT_BINUNICODE = (byte) 0x8c;
+    static final byte BINUNICODE8 = (byte) 0x8d;
+    static final byte BINBYTES8 = (byte) 0x8e;
+    static final byte EMPTY_SET = (byte) 0x8f;
+    static final byte ADDITEMS = (byte) 0x90;
+    static final byte FROZENSET = (byte) 0x91;
+    static final byte NEWOBJ_EX = (byte) 0x92;
+    static final byte STACK_GLOBAL = (byte) 0x93;
+    static final byte MEMOIZE = (byte) 0x94;
+    static final byte FRAME = (byte) 0x95;
+
+    // protocol 5
+    static final byte BYTEARRAY8 = (byte) 0x96;
+    static final byte NEXT_BUFFER = (byte) 0x97;
+    static final byte READONLY_BUFFER = (byte) 0x98;
+
+    private PickleUtils() {
+    }
+
+    /**
+     * Encodes a Java string as UTF-8, passing lone surrogates through like the
+     * {@code surrogatepass} error handler does.
+     */
+    static byte[] encodeUTF8(String s) {
+        int len = s.length();
+        int size = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else {
+                size += 3;
+            }
+        }
+        byte[] out = new byte[size];
+        if (size == len) {
+            for (int i = 0; i < len; i++) {
+                out[i] = (byte) s.charAt(i);
+            }
+            return out;
+        }
+        int j = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out[j++] = (byte) c;
+            } else if (c < 0x800) {
+                out[j++] = (byte) (0xc0 | (c >> 6));
+                out[j++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out[j++] = (byte) (0xf0 | (cp >> 18));
+                out[j++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                out[j++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                out[j++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                out[j++] = (byte) (0xe0 | (c >> 12));
+                out[j++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                out[j++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Decodes UTF-8 data accepting encoded surrogates like the {@code surrogatepass} error handler.
+     * Returns {@code null} if the data is malformed, so that the caller can produce a proper
+     * {@code UnicodeDecodeError} through the codecs machinery.
+     */
+    static String decodeUTF8(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end && data[i] >= 0) {
+            i++;
+        }
+        if (i == end) {
+            return new String(data, 0, offset, length);
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (int k = offset; k < i; k++) {
+            sb.append((char) data[k]);
+        }
+        while (i < end) {
+            int b0 = data[i] & 0xff;
+            if (b0 < 0x80) {
+                sb.append((char) b0);
+                i++;
+            } else if (b0 >= 0xc2 && b0 < 0xe0) {
+                if (i + 1 >= end || !isContinuation(data[i + 1])) {
+                    return null;
+                }
+                sb.append((char) (((b0 & 0x1f) << 6) | (data[i + 1] & 0x3f)));
+                i += 2;
+            } else if (b0 >= 0xe0 && b0 < 0xf0) {
+                if (i + 2 >= end || !isContinuation(data[i + 1]) || !isContinuation(data[i + 2])) {
+                    return null;
+                }
+                int cp = ((b0 & 0x0f) << 12) | ((data[i + 1] & 0x3f) << 6) | (data[i + 2] & 0x3f);
+                if (cp < 0x800) {
+                    return null;
+                }
+                sb.append((char) cp);
+                i += 3;
+            } else if (b0 >= 0xf0 && b0 < 0xf5) {
+                if (i + 3 >= end || !isContinuation(data[i + 1]) || !isContinuation(data[i + 2]) || !isContinuation(data[i + 3])) {
+                    return null;
+                }
+                int cp = ((b0 & 0x07) << 18) | ((data[i + 1] & 0x3f) << 12) | ((data[i + 2] & 0x3f) << 6) | (data[i + 3] & 0x3f);
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    return null;
+                }
+                sb.appendCodePoint(cp);
+                i += 4;
+            } else {
+                return null;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    /**
+     * Protocol 0 {@code UNICODE} argument: Python 3.8's {@code raw-unicode-escape} plus escaping of
+     * backslash and newline so that the result fits on a single line.
+     */
+    static byte[] encodeRawUnicodeEscape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            int cp = s.codePointAt(i);
+            if (cp >= 0x10000) {
+                sb.append(String.format("\\U%08x", cp));
+                i++;
+            } else if (cp >= 256 || cp == '\\' || cp == '\n') {
+                sb.append(String.format("\\u%04x", cp));
+            } else {
+                sb.append((char) cp);
+            }
+        }
+        byte[] out = new byte[sb.length()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) sb.charAt(i);
+        }
+        return out;
+    }
+
+    /**
+     * Decodes {@code raw-unicode-escape} data. Returns {@code null} on a truncated escape.
+     */
+    static String decodeRawUnicodeEscape(byte[] data, int offset, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            char c = (char) (data[i] & 0xff);
+            if (c == '\\') {
+                // only a backslash preceded by an even number of backslashes starts an escape
+                int runEnd = i;
+                while (runEnd < end && data[runEnd] == '\\') {
+                    runEnd++;
+                }
+                int run = runEnd - i;
+                for (int k = 0; k < run - (run & 1); k++) {
+                    sb.append('\\');
+                }
+                i = runEnd - (run & 1);
+                if ((run & 1) == 0) {
+                    continue;
+                }
+            }
+            if (c == '\\' && i + 1 < end && (data[i + 1] == 'u' || data[i + 1] == 'U')) {
+                int digits = data[i + 1] == 'u' ? 4 : 8;
+                if (i + 2 + digits > end) {
+                    return null;
+                }
+                int cp = 0;
+                for (int k = 0; k < digits; k++) {
+                    int d = Character.digit(data[i + 2 + k], 16);
+                    if (d < 0) {
+                        return null;
+                    }
+                    cp = (cp << 4) | d;
+                }
+                if (cp < 0 || cp > Character.MAX_CODE_POINT) {
+                    return null;
+                }
+                sb.appendCodePoint(cp);
+                i += 2 + digits;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+    /**
+     * Decodes the escapes of a protocol 0 {@code STRING} argument like
+     * {@code PyBytes_DecodeEscape}. Unknown escapes are kept as they are.
+     */
+    static byte[] decodeEscape(byte[] data, int offset, int length) {
+        byte[] out = new byte[length];
+        int outLen = 0;
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            byte b = data[i++];
+            if (b != '\\' || i == end) {
+                out[outLen++] = b;
+                continue;
+            }
+            byte c = data[i++];
+            switch (c) {
+                case '\n':
+                    break;
+                case '\\':
+                case '\'':
+                case '"':
+                    out[outLen++] = c;
+                    break;
+                case 'b':
+                    out[outLen++] = '\b';
+                    break;
+                case 'f':
+                    out[outLen++] = '\f';
+                    break;
+                case 't':
+                    out[outLen++] = '\t';
+                    break;
+                case 'n':
+                    out[outLen++] = '\n';
+                    break;
+                case 'r':
+                    out[outLen++] = '\r';
+                    break;
+                case 'v':
+                    out[outLen++] = 0x0b;
+                    break;
+                case 'a':
+                    out[outLen++] = 0x07;
+                    break;
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7': {
+                    int value = c - '0';
+                    for (int k = 0; k < 2 && i < end && data[i] >= '0' && data[i] <= '7'; k++) {
+                        value = (value << 3) + (data[i++] - '0');
+                    }
+                    out[outLen++] = (byte) value;
+                    break;
+                }
+                case 'x': {
+                    int hi = i < end ? Character.digit(data[i], 16) : -1;
+                    int lo = i + 1 < end ? Character.digit(data[i + 1], 16) : -1;
+                    if (hi < 0 || lo < 0) {
+                        throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.INVALID_ESCAPE_AT, "\\x", i - 2 - offset);
+                    }
+                    out[outLen++] = (byte) ((hi << 4) | lo);
+                    i += 2;
+                    break;
+                }
+                default:
+                    out[outLen++] = '\\';
+                    out[outLen++] = c;
+            }
+        }
+        return Arrays.copyOf(out, outLen);
+    }
+
+    /**
+     * Imports a module like {@code PyImport_Import}, returning the module itself rather than the
+     * top-level package for dotted names.
+     */
+    static Object importModule(String name) {
+        Object topLevel = AbstractImportNode.importModule(name);
+        Object module = PythonContext.get(null).getSysModules().getItem(name);
+        return module != null ? module : topLevel;
+    }
+
+    /**
+     * Splits a qualified name into its components. Returns {@code null} if the name refers to a
+     * local object.
+     */
+    static String[] getDottedPath(String name) {
+        String[] dottedPath = name.split("\\.", -1);
+        for (String subpath : dottedPath) {
+            if ("<locals>".equals(subpath)) {
+                return null;
+            }
+        }
+        return dottedPath;
+    }
+
+    /**
+     * Returns the attribute at the end of the dotted path and stores its parent object in
+     * {@code parent[0]}.
+     */
+    static Object getDeepAttribute(Object obj, String[] dottedPath, Object[] parent) {
+        Object current = obj;
+        for (String name : dottedPath) {
+            if (parent != null) {
+                parent[0] = current;
+            }
+            current = PyObjectGetAttr.getUncached().execute(null, current, name);
+        }
+        return current;
+    }
+
+    /**
+     * Looks up a key in a mapping like {@code PyDict_GetItemWithError} for exact dicts and
+     * {@code PyObject_GetItem} otherwise. Returns {@code null} if the key is missing.
+     */
+    static Object getItemOrNull(Object mapping, Object key) {
+        if (mapping instanceof PDict && IsBuiltinClassProfile.profileClassSlowPath(GetClassNode.getUncached().execute(mapping), PythonBuiltinClassType.PDict)) {
+            return ((PDict) mapping).getItem(key);
+        }
+        try {
+            return PyObjectGetItem.getUncached().execute(null, mapping, key);
+        } catch (PException e) {
+            e.expect(KeyError, IsBuiltinClassProfile.getUncached());
+            return null;
+        }
+    }
+}
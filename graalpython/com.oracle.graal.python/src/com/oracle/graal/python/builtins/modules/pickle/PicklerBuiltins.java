@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.DEFAULT_PROTOCOL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.HIGHEST_PROTOCOL;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.PicklingError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.Pickler)
+public class PicklerBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PicklerBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Common initialization of {@code Pickler.__init__}, {@code dump} and {@code dumps}.
+     */
+    @TruffleBoundary
+    static void init(PPickler self, Object file, Object protocolObj, boolean fixImports, Object bufferCallback) {
+        PRaiseNode raiseNode = PRaiseNode.getUncached();
+        int protocol;
+        if (PGuards.isPNone(protocolObj)) {
+            protocol = DEFAULT_PROTOCOL;
+        } else {
+            protocol = PyNumberAsSizeNode.getUncached().executeLossy(null, protocolObj);
+            if (protocol < 0) {
+                protocol = HIGHEST_PROTOCOL;
+            } else if (protocol > HIGHEST_PROTOCOL) {
+                throw raiseNode.raise(ValueError, ErrorMessages.PICKLE_PROTOCOL_MUST_BE_LE_D, HIGHEST_PROTOCOL);
+            }
+        }
+        self.protocol = protocol;
+        self.bin = protocol > 0;
+        self.fixImports = fixImports && protocol < 3;
+        if (file != null) {
+            Object write = PyObjectLookupAttr.getUncached().execute(null, file, "write");
+            if (write == PNone.NO_VALUE) {
+                throw raiseNode.raise(TypeError, ErrorMessages.FILE_MUST_HAVE_A_WRITE_ATTR);
+            }
+            self.write = write;
+        } else {
+            self.write = null;
+        }
+        self.bufferCallback = PGuards.isPNone(bufferCallback) ? null : bufferCallback;
+        if (self.bufferCallback != null && protocol < 5) {
+            throw raiseNode.raise(ValueError, ErrorMessages.BUFFER_CALLBACK_NEEDS_PROTOCOL_5);
+        }
+        self.clearBuffer();
+        self.clearMemo();
+        self.fast = false;
+        self.fastNesting = 0;
+        self.fastMemo = null;
+        self.persistentId = null;
+        self.dispatchTable = null;
+        self.reducerOverride = null;
+    }
+
+    /**
+     * Looks up an optional attribute of the pickler, which may be a method defined in a subclass.
+     */
+    static Object lookupOptionalAttr(Object self, String name) {
+        Object value = PyObjectLookupAttr.getUncached().execute(null, self, name);
+        return value == PNone.NO_VALUE ? null : value;
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file", "protocol", "fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "fix_imports", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PicklerBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        static Object init(PPickler self, Object file, Object protocol, boolean fixImports, Object bufferCallback) {
+            PicklerBuiltins.init(self, file, protocol, fixImports, bufferCallback);
+            self.persistentId = lookupOptionalAttr(self, "persistent_id");
+            self.dispatchTable = lookupOptionalAttr(self, "dispatch_table");
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"}, doc = "Write a pickled representation of the given object to the open file.")
+    @GenerateNodeFactory
+    abstract static class DumpNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        @TruffleBoundary
+        Object dump(PPickler self, Object obj) {
+            // check whether the Pickler was initialized correctly
+            if (self.write == null) {
+                throw raise(PicklingError, ErrorMessages.PICKLER_INIT_NOT_CALLED_BY_P_INIT, self);
+            }
+            self.clearBuffer();
+            PickleEncoder.dump(self, obj);
+            self.flushToFile();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_memo", minNumOfPositionalArgs = 1, doc = "Clears the pickler's \"memo\".")
+    @GenerateNodeFactory
+    abstract static class ClearMemoNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object clear(PPickler self) {
+            self.clearMemo();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "memo", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class MemoNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            return factory().createPicklerMemoProxy(self);
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        @TruffleBoundary
+        Object set(PPickler self, Object value) {
+            IdentityHashMap<Object, Integer> memo;
+            if (value instanceof PPicklerMemoProxy) {
+                memo = new IdentityHashMap<>(((PPicklerMemoProxy) value).pickler.memo);
+            } else if (value instanceof PDict) {
+                memo = new IdentityHashMap<>();
+                for (DictEntry entry : HashingStorageLibrary.getUncached().entries(((PDict) value).getDictStorage())) {
+                    Object item = entry.getValue();
+                    if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                        throw raise(TypeError, ErrorMessages.MEMO_VALUES_MUST_BE_2_ITEM_TUPLES);
+                    }
+                    SequenceStorage storage = ((PTuple) item).getSequenceStorage();
+                    int idx = PyNumberAsSizeNode.getUncached().executeExact(null, storage.getItemNormalized(0));
+                    memo.put(storage.getItemNormalized(1), idx);
+                }
+            } else {
+                throw raise(TypeError, ErrorMessages.MEMO_ATTR_MUST_BE_S_OBJECT_OR_DICT_NOT_P, "PicklerMemoProxy", value);
+            }
+            self.memo = memo;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "persistent_id", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class PersistentIdNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            if (self.persistentId == null) {
+                throw raise(AttributeError, "persistent_id");
+            }
+            return self.persistentId;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(PPickler self, Object value,
+                        @Cached PyCallableCheckNode callableCheck) {
+            if (!callableCheck.execute(value)) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_CALLABLE_TAKING_ONE_ARGUMENT, "persistent_id");
+            }
+            self.persistentId = value;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dispatch_table", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class DispatchTableNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            if (self.dispatchTable == null) {
+                throw raise(AttributeError, "dispatch_table");
+            }
+            return self.dispatchTable;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(PPickler self, Object value) {
+            self.dispatchTable = value;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "bin", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class BinNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        static Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            return self.bin ? 1 : 0;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(PPickler self, Object value,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            self.bin = isTrue.execute(null, value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "fast", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class FastNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        static Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            return self.fast ? 1 : 0;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(PPickler self, Object value,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            self.fast = isTrue.execute(null, value);
+            return PNone.NONE;
+        }
+    }
+}
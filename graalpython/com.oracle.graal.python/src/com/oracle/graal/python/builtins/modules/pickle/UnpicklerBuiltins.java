@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.UnpicklingError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.Unpickler)
+public class UnpicklerBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return UnpicklerBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Common initialization of {@code Unpickler.__init__}, {@code load} and {@code loads}. The
+     * {@code file} may be {@code null} when unpickling from memory.
+     */
+    @TruffleBoundary
+    static void init(PUnpickler self, Object file, boolean fixImports, String encoding, String errors, Object buffers) {
+        if (file != null) {
+            PyObjectLookupAttr lookupAttr = PyObjectLookupAttr.getUncached();
+            Object peek = lookupAttr.execute(null, file, "peek");
+            Object read = lookupAttr.execute(null, file, "read");
+            Object readline = lookupAttr.execute(null, file, "readline");
+            if (read == PNone.NO_VALUE || readline == PNone.NO_VALUE) {
+                throw PRaiseNode.getUncached().raise(TypeError, ErrorMessages.FILE_MUST_HAVE_READ_AND_READLINE_ATTRS);
+            }
+            self.peek = peek == PNone.NO_VALUE ? null : peek;
+            self.read = read;
+            self.readline = readline;
+        } else {
+            self.peek = null;
+            self.read = null;
+            self.readline = null;
+        }
+        self.encoding = encoding;
+        self.errors = errors;
+        self.buffers = PGuards.isPNone(buffers) ? null : PyObjectGetIter.getUncached().execute(null, buffers);
+        self.fixImports = fixImports;
+        self.protocol = 0;
+        self.resetStack();
+        self.clearMemo();
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "fix_imports", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "\"ASCII\"")
+    @ArgumentClinic(name = "errors", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "\"strict\"")
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnpicklerBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        static Object init(PUnpickler self, Object file, boolean fixImports, String encoding, String errors, Object buffers) {
+            UnpicklerBuiltins.init(self, file, fixImports, encoding, errors, buffers);
+            self.persistentLoad = PicklerBuiltins.lookupOptionalAttr(self, "persistent_load");
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "load", minNumOfPositionalArgs = 1, doc = "Load a pickle.")
+    @GenerateNodeFactory
+    abstract static class LoadNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object load(PUnpickler self) {
+            // check whether the Unpickler was initialized correctly
+            if (self.read == null) {
+                throw raise(UnpicklingError, ErrorMessages.UNPICKLER_INIT_NOT_CALLED_BY_P_INIT, self);
+            }
+            return PickleDecoder.load(self);
+        }
+    }
+
+    @Builtin(name = "find_class", minNumOfPositionalArgs = 3, parameterNames = {"$self", "module_name", "global_name"}, doc = "Return an object from a specified module.")
+    @GenerateNodeFactory
+    abstract static class FindClassNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        static Object findClass(PUnpickler self, Object moduleName, Object globalName) {
+            return PickleDecoder.findClass(self, moduleName, globalName);
+        }
+    }
+
+    @Builtin(name = "memo", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class MemoNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PUnpickler self, @SuppressWarnings("unused") PNone value) {
+            return factory().createUnpicklerMemoProxy(self);
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        @TruffleBoundary
+        Object set(PUnpickler self, Object value) {
+            if (value instanceof PUnpicklerMemoProxy) {
+                PUnpickler other = ((PUnpicklerMemoProxy) value).unpickler;
+                self.memo = other.memo.clone();
+                self.memoLen = other.memoLen;
+            } else if (value instanceof PDict) {
+                Object[] oldMemo = self.memo;
+                int oldMemoLen = self.memoLen;
+                self.clearMemo();
+                try {
+                    for (DictEntry entry : HashingStorageLibrary.getUncached().entries(((PDict) value).getDictStorage())) {
+                        Object key = entry.getKey();
+                        if (!PGuards.canBeInteger(key)) {
+                            throw raise(TypeError, ErrorMessages.MEMO_KEY_MUST_BE_INTEGERS);
+                        }
+                        long idx = PyLongAsLongNode.getUncached().execute(null, key);
+                        if (idx < 0) {
+                            throw raise(ValueError, ErrorMessages.MEMO_KEY_MUST_BE_POSITIVE_INTEGERS);
+                        }
+                        self.memoPut(idx, entry.getValue());
+                    }
+                } catch (PException e) {
+                    self.memo = oldMemo;
+                    self.memoLen = oldMemoLen;
+                    throw e;
+                }
+            } else {
+                throw raise(TypeError, ErrorMessages.MEMO_ATTR_MUST_BE_S_OBJECT_OR_DICT_NOT_P, "UnpicklerMemoProxy", value);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "persistent_load", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class PersistentLoadNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PUnpickler self, @SuppressWarnings("unused") PNone value) {
+            Object persistentLoad = self.getPersistentLoad();
+            if (persistentLoad == null) {
+                throw raise(AttributeError, "persistent_load");
+            }
+            return persistentLoad;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(PUnpickler self, Object value,
+                        @Cached PyCallableCheckNode callableCheck) {
+            if (!callableCheck.execute(value)) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_CALLABLE_TAKING_ONE_ARGUMENT, "persistent_load");
+            }
+            self.persistentLoad = value;
+            return PNone.NONE;
+        }
+    }
+}
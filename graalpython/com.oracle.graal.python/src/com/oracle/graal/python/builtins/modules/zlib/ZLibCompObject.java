@@ -44,6 +44,8 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibCompre
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibDecompress;
 import static com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins.MAX_WBITS;
 
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
@@ -108,8 +110,17 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
         final int strategy;
 
         private byte[] inputData; // helper for copy operation
+        private int inputOffset;
+        private int inputLength;
         private boolean canCopy; // to assist if copying is allowed
 
+        /*
+         * Serializes access to the stream while the GIL is released around deflate/inflate. It
+         * must never be waited for while holding the GIL, see ZlibNodes#lockStream.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+        private byte[] outputBuffer; // reused across compress/decompress calls
+
         public JavaZlibCompObject(Object cls, Shape instanceShape, Object stream, int level, int wbits, int strategy, byte[] zdict) {
             super(cls, instanceShape);
             this.stream = stream;
@@ -138,19 +149,64 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
         }
 
         @TruffleBoundary
-        public void setDeflaterInput(byte[] data) {
+        boolean tryLock() {
+            return lock.tryLock();
+        }
+
+        @TruffleBoundary
+        void lock() {
+            lock.lock();
+        }
+
+        @TruffleBoundary
+        void unlock() {
+            lock.unlock();
+        }
+
+        /**
+         * Returns a scratch output buffer of at least {@code size} bytes. The buffer is kept
+         * across calls so that repeated {@code decompress(data, max_length)} calls do not allocate
+         * a fresh chunk each time. Must only be used while holding the stream lock.
+         */
+        byte[] getOutputBuffer(int size) {
+            assert lock.isHeldByCurrentThread();
+            if (outputBuffer == null || outputBuffer.length < size) {
+                outputBuffer = new byte[size];
+            }
+            return outputBuffer;
+        }
+
+        /**
+         * Feeds the given region to the deflater without copying it. The region must stay
+         * unchanged until the data has been consumed. If {@code stable} is {@code false}, the
+         * region may change afterwards and the first input is copied for {@link #copyCompressObj}.
+         */
+        @TruffleBoundary
+        public void setDeflaterInput(byte[] data, int offset, int length, boolean stable) {
             assert stream instanceof Deflater;
-            canCopy = inputData == null;
-            inputData = data;
-            ((Deflater) stream).setInput(data);
+            rememberInput(data, offset, length, stable);
+            ((Deflater) stream).setInput(data, offset, length);
         }
 
         @TruffleBoundary
-        public void setInflaterInput(byte[] data) {
+        public void setInflaterInput(byte[] data, int offset, int length, boolean stable) {
             assert stream instanceof Inflater;
+            rememberInput(data, offset, length, stable);
+            ((Inflater) stream).setInput(data, offset, length);
+        }
+
+        private void rememberInput(byte[] data, int offset, int length, boolean stable) {
             canCopy = inputData == null;
-            inputData = data;
-            ((Inflater) stream).setInput(data);
+            if (canCopy) {
+                if (stable) {
+                    inputData = data;
+                    inputOffset = offset;
+                } else {
+                    inputData = Arrays.copyOfRange(data, offset, offset + length);
+                    inputOffset = 0;
+                }
+                inputLength = length;
+            }
         }
 
         @TruffleBoundary
@@ -165,8 +221,8 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             ZLibCompObject obj = factory.createJavaZLibCompObject(ZlibCompress, deflater, level, wbits, strategy, zdict);
             if (inputData != null) {
                 // feed the new copy of deflater the same input data
-                ((JavaZlibCompObject) obj).setDeflaterInput(inputData);
-                deflater.deflate(new byte[inputData.length]);
+                ((JavaZlibCompObject) obj).setDeflaterInput(inputData, inputOffset, inputLength, true);
+                deflater.deflate(new byte[inputLength]);
             }
             return obj;
         }
@@ -182,8 +238,7 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             ZLibCompObject obj = factory.createJavaZLibCompObject(ZlibDecompress, inflater, wbits, zdict);
             if (inputData != null) {
                 try {
-                    ((JavaZlibCompObject) obj).setInflaterInput(inputData);
-                    inflater.setInput(inputData);
+                    ((JavaZlibCompObject) obj).setInflaterInput(inputData, inputOffset, inputLength, true);
                     int n = inflater.inflate(new byte[ZLibModuleBuiltins.DEF_BUF_SIZE]);
                     if (!isRAW && n == 0 && inflater.needsDictionary() && zdict.length > 0) {
                         inflater.setDictionary(zdict);
@@ -66,6 +66,8 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.MathGuards;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes.ToBytesNode;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
@@ -83,6 +85,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuilti
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentCastNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -100,6 +103,7 @@ import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(defineModule = ZLibModuleBuiltins.ZLIB)
@@ -144,6 +148,11 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
     protected static final int DEF_MEM_LEVEL = 8;
     protected static final int DEF_BUF_SIZE = 16 * 1024;
 
+    /*
+     * Same as CPython: checksums of smaller inputs are cheaper than a GIL round trip.
+     */
+    private static final int RELEASE_GIL_THRESHOLD = 5 * 1024;
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
         return ZLibModuleBuiltinsFactory.getFactories();
@@ -375,17 +384,12 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return PythonContext.get(this).getNFIZlibSupport().isAvailable();
         }
 
-        @Specialization
+        @Specialization(limit = "3")
         long doitNone(VirtualFrame frame, Object data, @SuppressWarnings("unused") PNone value,
-                        @Cached ToBytesNode toBytesNode) {
-            return doCRC32(toBytesNode.execute(frame, data));
-        }
-
-        @TruffleBoundary
-        static long doCRC32(byte[] data) {
-            CRC32 crc32 = new CRC32();
-            crc32.update(data);
-            return crc32.getValue();
+                        @Shared("ba") @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @Shared("bl") @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Shared("gil") @Cached GilNode gil) {
+            return doJavaObject(frame, data, 0, bufferAcquireLib, bufferLib, gil);
         }
 
         @Specialization(guards = "useNative()")
@@ -400,26 +404,41 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"useNative()", "!isBytes(data)"})
         long doNativeObject(VirtualFrame frame, Object data, int value,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode,
+                        @Cached ToBytesNode toBytesNode,
                         @Cached NativeLibrary.InvokeNativeFunction invoke) {
             byte[] bytes = toBytesNode.execute(frame, data);
             return nativeCrc32(bytes, bytes.length, value, invoke);
         }
 
-        @Specialization(guards = "!useNative()")
-        static long doJavaBytes(PBytesLike data, int value,
-                        @Shared("b") @Cached SequenceStorageNodes.GetInternalBytesNode toBytes,
-                        @Shared("l") @Cached SequenceStorageNodes.LenNode lenNode) {
-            byte[] bytes = toBytes.execute(data);
-            int len = lenNode.execute(data.getSequenceStorage());
-            return javaCrc32(bytes, len, value);
-        }
-
-        @Specialization(guards = {"!useNative()", "!isBytes(data)"})
-        static long doJavaObject(VirtualFrame frame, Object data, int value,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode) {
-            byte[] bytes = toBytesNode.execute(frame, data);
-            return javaCrc32(bytes, bytes.length, value);
+        @Specialization(guards = "!useNative()", limit = "3")
+        long doJavaObject(VirtualFrame frame, Object data, int value,
+                        @Shared("ba") @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @Shared("bl") @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Shared("gil") @Cached GilNode gil) {
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
+                if (len > RELEASE_GIL_THRESHOLD) {
+                    gil.release(true);
+                    try {
+                        return javaCrc32(bytes, offset, len, value);
+                    } finally {
+                        gil.acquire();
+                    }
+                }
+                return javaCrc32(bytes, offset, len, value);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
         }
 
         @Fallback
@@ -434,9 +453,16 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return signedVal & 0xFFFFFFFFL;
         }
 
-        static long javaCrc32(byte[] bytes, int len, int value) {
+        @TruffleBoundary
+        static long javaCrc32(byte[] bytes, int offset, int len, int value) {
+            if (value == 0) {
+                // the JDK implementation is intrinsified, but cannot start from a given value
+                CRC32 crc32 = new CRC32();
+                crc32.update(bytes, offset, len);
+                return crc32.getValue();
+            }
             int result = ~value;
-            for (int i = 0; i < len; i++) {
+            for (int i = offset; i < offset + len; i++) {
                 result = (result >>> 8) ^ CRC32_TABLE[(result ^ bytes[i]) & 0xff];
             }
             result ^= 0xffffffff;
@@ -463,17 +489,12 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return getContext().getNFIZlibSupport().isAvailable();
         }
 
-        @Specialization
+        @Specialization(limit = "3")
         long doitNone(VirtualFrame frame, Object data, @SuppressWarnings("unused") PNone value,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode) {
-            return doAdler32(toBytesNode.execute(frame, data));
-        }
-
-        @TruffleBoundary
-        private long doAdler32(byte[] bytes) {
-            Adler32 adler32 = new Adler32();
-            adler32.update(bytes);
-            return adler32.getValue();
+                        @Shared("ba") @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @Shared("bl") @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Shared("gil") @Cached GilNode gil) {
+            return doJavaObject(frame, data, 1, bufferAcquireLib, bufferLib, gil);
         }
 
         @Specialization(guards = "useNative()")
@@ -488,26 +509,41 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"useNative()", "!isBytes(data)"})
         long doNativeObject(VirtualFrame frame, Object data, int value,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode,
+                        @Cached ToBytesNode toBytesNode,
                         @Cached NativeLibrary.InvokeNativeFunction invoke) {
             byte[] bytes = toBytesNode.execute(frame, data);
             return nativeAdler32(bytes, bytes.length, value, PythonContext.get(this), invoke);
         }
 
-        @Specialization(guards = "!useNative()")
-        long doJavaBytes(PBytesLike data, int value,
-                        @Shared("b") @Cached SequenceStorageNodes.GetInternalBytesNode toBytes,
-                        @Shared("l") @Cached SequenceStorageNodes.LenNode lenNode) {
-            byte[] bytes = toBytes.execute(data);
-            int len = lenNode.execute(data.getSequenceStorage());
-            return javaAdler32(bytes, len, value);
-        }
-
-        @Specialization(guards = {"!useNative()", "!isBytes(data)"})
+        @Specialization(guards = "!useNative()", limit = "3")
         long doJavaObject(VirtualFrame frame, Object data, int value,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode) {
-            byte[] bytes = toBytesNode.execute(frame, data);
-            return javaAdler32(bytes, bytes.length, value);
+                        @Shared("ba") @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @Shared("bl") @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Shared("gil") @Cached GilNode gil) {
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
+                if (len > RELEASE_GIL_THRESHOLD) {
+                    gil.release(true);
+                    try {
+                        return javaAdler32(bytes, offset, len, value);
+                    } finally {
+                        gil.acquire();
+                    }
+                }
+                return javaAdler32(bytes, offset, len, value);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
         }
 
         long nativeAdler32(byte[] bytes, int len, int value,
@@ -517,13 +553,21 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             return signedVal & 0xFFFFFFFFL;
         }
 
-        long javaAdler32(byte[] bytes, int len, int value) {
-            int index = 0;
+        @TruffleBoundary
+        static long javaAdler32(byte[] bytes, int offset, int len, int value) {
+            if (value == 1) {
+                // the JDK implementation is intrinsified, but cannot start from a given value
+                Adler32 adler32 = new Adler32();
+                adler32.update(bytes, offset, len);
+                return adler32.getValue();
+            }
+            int index = offset;
+            int end = offset + len;
             int result = value;
             int s1 = result & 0xffff;
             int s2 = result >>> 16;
-            while (index < len) {
-                int max = Math.min(index + DEFER, index + len);
+            while (index < end) {
+                int max = Math.min(index + DEFER, end);
                 while (index < max) {
                     s1 = (bytes[index++] & 0xff) + s1;
                     s2 += s1;
@@ -564,21 +608,44 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"useNative()", "!isBytes(data)"})
         PBytes doNativeObject(VirtualFrame frame, Object data, int level,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode,
+                        @Cached ToBytesNode toBytesNode,
                         @Cached ZlibNodes.ZlibNativeCompress nativeCompress) {
             byte[] bytes = toBytesNode.execute(frame, data);
             return factory().createBytes(nativeCompress.execute(bytes, bytes.length, level, getContext()));
         }
 
-        @Specialization(guards = {"!useNative()"})
+        @Specialization(guards = {"!useNative()"}, limit = "3")
         PBytes doJava(VirtualFrame frame, Object data, int level,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode,
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached GilNode gil,
                         @Cached ConditionProfile wrongLevelProfile) {
             if (wrongLevelProfile.profile(level < -1 || 9 < level)) {
                 throw raise(ZLibError, ErrorMessages.BAD_COMPRESSION_LEVEL);
             }
-            byte[] array = toBytesNode.execute(frame, data);
-            return factory().createBytes(javaCompress(array, level));
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
+                byte[] result;
+                gil.release(true);
+                try {
+                    result = javaCompress(bytes, offset, len, level);
+                } finally {
+                    gil.acquire();
+                }
+                return factory().createBytes(result);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
         }
 
         @SuppressWarnings("unused")
@@ -587,10 +654,10 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
         }
 
-        @CompilerDirectives.TruffleBoundary
-        byte[] javaCompress(byte[] array, int level) {
+        @TruffleBoundary
+        static byte[] javaCompress(byte[] array, int offset, int len, int level) {
             Deflater compresser = new Deflater(level);
-            compresser.setInput(array);
+            compresser.setInput(array, offset, len);
             compresser.finish();
             byte[] resultArray = new byte[DEF_BUF_SIZE];
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -632,21 +699,47 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"bufsize >= 0", "useNative()", "!isBytes(data)"})
         PBytes doNativeObject(VirtualFrame frame, Object data, int wbits, int bufsize,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode,
+                        @Cached ToBytesNode toBytesNode,
                         @Cached ZlibNodes.ZlibNativeDecompress nativeDecompress) {
             byte[] bytes = toBytesNode.execute(frame, data);
             int len = bytes.length;
             return factory().createBytes(nativeDecompress.execute(bytes, len, wbits, bufsize, PythonContext.get(this)));
         }
 
-        @Specialization(guards = {"bufsize >= 0", "!useNative()"})
+        @Specialization(guards = {"bufsize >= 0", "!useNative()"}, limit = "3")
         PBytes doJava(VirtualFrame frame, Object data, int wbits, int bufsize,
-                        @Shared("bb") @Cached ToBytesNode toBytesNode) {
-            byte[] array = toBytesNode.execute(frame, data);
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached GilNode gil) {
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
             try {
-                return factory().createBytes(javaDecompress(array, wbits, bufsize == 0 ? 1 : bufsize));
-            } catch (DataFormatException e) {
-                throw raise(ZLibError, ErrorMessages.WHILE_PREPARING_TO_S_DATA, "decompress");
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
+                byte[] result;
+                try {
+                    gil.release(true);
+                    try {
+                        result = javaDecompress(bytes, offset, len, wbits, bufsize == 0 ? 1 : bufsize);
+                    } finally {
+                        gil.acquire();
+                    }
+                } catch (DataFormatException e) {
+                    throw raise(ZLibError, ErrorMessages.WHILE_PREPARING_TO_S_DATA, "decompress");
+                }
+                if (result == null) {
+                    throw raise(ZLibError, ErrorMessages.ERROR_5_WHILE_DECOMPRESSING);
+                }
+                return factory().createBytes(result);
+            } finally {
+                bufferLib.release(buffer, frame, this);
             }
         }
 
@@ -662,22 +755,28 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
             throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
         }
 
+        /**
+         * Returns {@code null} if the input ends before the end of the compressed stream.
+         */
         @TruffleBoundary
-        byte[] javaDecompress(byte[] array, @SuppressWarnings("unused") int wbits, int bufsize) throws DataFormatException {
+        static byte[] javaDecompress(byte[] array, int offset, int len, @SuppressWarnings("unused") int wbits, int bufsize) throws DataFormatException {
             // We don't use wbits currently. There is no easy way how to map to java Inflater.
             Inflater decompresser = new Inflater();
-            decompresser.setInput(array);
-            byte[] resultArray = new byte[bufsize];
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (!decompresser.finished()) {
-                int howmany = decompresser.inflate(resultArray);
-                if (howmany == 0 && decompresser.needsInput()) {
-                    throw raise(ZLibError, ErrorMessages.ERROR_5_WHILE_DECOMPRESSING);
+            try {
+                decompresser.setInput(array, offset, len);
+                byte[] resultArray = new byte[bufsize];
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                while (!decompresser.finished()) {
+                    int howmany = decompresser.inflate(resultArray);
+                    if (howmany == 0 && decompresser.needsInput()) {
+                        return null;
+                    }
+                    baos.write(resultArray, 0, howmany);
                 }
-                baos.write(resultArray, 0, howmany);
+                return baos.toByteArray();
+            } finally {
+                decompresser.end();
             }
-            decompresser.end();
-            return baos.toByteArray();
         }
     }
 
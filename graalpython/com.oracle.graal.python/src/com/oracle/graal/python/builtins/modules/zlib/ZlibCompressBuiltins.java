@@ -57,6 +57,8 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
@@ -68,6 +70,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -80,6 +83,7 @@ import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
 
 @CoreFunctions(extendClasses = ZlibCompress)
 public class ZlibCompressBuiltins extends PythonBuiltins {
@@ -107,7 +111,7 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"self.isInitialized()", "!isBytes(data)"})
         PBytes doNativeObject(VirtualFrame frame, ZLibCompObject.NativeZlibCompObject self, Object data,
-                        @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
+                        @Cached BytesNodes.ToBytesNode toBytes,
                         @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj) {
             synchronized (self) {
                 assert self.isInitialized();
@@ -117,13 +121,23 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
             }
         }
 
-        @Specialization(guards = "self.isInitialized()")
+        @Specialization(guards = "self.isInitialized()", limit = "3")
         PBytes doit(VirtualFrame frame, ZLibCompObject.JavaZlibCompObject self, Object data,
-                        @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
                         @Cached ZlibNodes.JavaCompressNode compressNode) {
-            byte[] bytes = toBytes.execute(frame, data);
-            self.setDeflaterInput(bytes);
-            return compressNode.execute(self, Z_NO_FLUSH, factory());
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    byte[] bytes = bufferLib.getByteArrayRegion(buffer);
+                    int offset = bufferLib.getByteArrayRegionOffset(buffer);
+                    return compressNode.execute(self, bytes, offset, len, data instanceof PBytes, Z_NO_FLUSH, factory());
+                }
+                return compressNode.execute(self, bufferLib.getCopiedByteArray(buffer), 0, len, true, Z_NO_FLUSH, factory());
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
         }
 
         @SuppressWarnings("unused")
@@ -157,8 +171,14 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
         }
 
         @Specialization(guards = {"self.isInitialized()", "self.canCopy()"})
-        Object doJava(ZLibCompObject.JavaZlibCompObject self, @SuppressWarnings("unused") PythonContext ctxt, PythonObjectFactory factory) {
-            return self.copyCompressObj(factory);
+        Object doJava(ZLibCompObject.JavaZlibCompObject self, @SuppressWarnings("unused") PythonContext ctxt, PythonObjectFactory factory,
+                        @Cached GilNode gil) {
+            ZlibNodes.lockStream(self, gil);
+            try {
+                return self.copyCompressObj(factory);
+            } finally {
+                self.unlock();
+            }
         }
 
         @SuppressWarnings("unused")
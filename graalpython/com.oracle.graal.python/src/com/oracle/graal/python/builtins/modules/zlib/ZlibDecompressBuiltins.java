@@ -58,6 +58,8 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
@@ -70,6 +72,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltin
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -81,6 +84,7 @@ import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
 
 @CoreFunctions(extendClasses = ZlibDecompress)
 public class ZlibDecompressBuiltins extends PythonBuiltins {
@@ -114,7 +118,7 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"maxLength >= 0", "self.isInitialized()", "!isBytes(data)"})
         PBytes doNativeObject(VirtualFrame frame, ZLibCompObject.NativeZlibCompObject self, Object data, int maxLength,
-                        @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
+                        @Cached BytesNodes.ToBytesNode toBytes,
                         @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj) {
             synchronized (self) {
                 assert self.isInitialized();
@@ -124,13 +128,26 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
             }
         }
 
-        @Specialization(guards = {"maxLength >= 0", "self.isInitialized()"})
+        @Specialization(guards = {"maxLength >= 0", "self.isInitialized()"}, limit = "3")
         PBytes doit(VirtualFrame frame, ZLibCompObject.JavaZlibCompObject self, Object data, int maxLength,
-                        @Cached ZlibNodes.JavaDecompressNode decompressNode,
-                        @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes) {
-            byte[] bytes = toBytes.execute(frame, data);
-            byte[] res = decompressNode.execute(self, bytes, maxLength, DEF_BUF_SIZE, factory());
-            return factory().createBytes(res);
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached ZlibNodes.JavaDecompressNode decompressNode) {
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] res;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    byte[] bytes = bufferLib.getByteArrayRegion(buffer);
+                    int offset = bufferLib.getByteArrayRegionOffset(buffer);
+                    res = decompressNode.execute(self, bytes, offset, len, data instanceof PBytes, maxLength, DEF_BUF_SIZE, factory());
+                } else {
+                    res = decompressNode.execute(self, bufferLib.getCopiedByteArray(buffer), 0, len, true, maxLength, DEF_BUF_SIZE, factory());
+                }
+                return factory().createBytes(res);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
         }
 
         @SuppressWarnings("unused")
@@ -172,8 +189,14 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         }
 
         @Specialization(guards = {"self.isInitialized()", "self.canCopy()"})
-        Object doJava(ZLibCompObject.JavaZlibCompObject self, @SuppressWarnings("unused") PythonContext ctxt, PythonObjectFactory factory) {
-            return self.copyDecompressObj(factory);
+        Object doJava(ZLibCompObject.JavaZlibCompObject self, @SuppressWarnings("unused") PythonContext ctxt, PythonObjectFactory factory,
+                        @Cached GilNode gil) {
+            ZlibNodes.lockStream(self, gil);
+            try {
+                return self.copyDecompressObj(factory);
+            } finally {
+                self.unlock();
+            }
         }
 
         @SuppressWarnings("unused")
@@ -253,7 +276,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         PBytes doit(ZLibCompObject.JavaZlibCompObject self, int length,
                         @Cached ZlibNodes.JavaDecompressNode decompressNode,
                         @Cached BytesNodes.ToBytesNode toBytes) {
-            byte[] res = decompressNode.execute(self, toBytes.execute(self.getUnconsumedTail()), 0, length, factory());
+            byte[] tail = toBytes.execute(self.getUnconsumedTail());
+            byte[] res = decompressNode.execute(self, tail, 0, tail.length, true, 0, length, factory());
             self.setUninitialized();
             return factory().createBytes(res);
         }
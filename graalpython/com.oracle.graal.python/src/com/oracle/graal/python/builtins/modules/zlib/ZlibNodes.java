@@ -78,6 +78,7 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -504,14 +505,57 @@ public class ZlibNodes {
         }
     }
 
+    /**
+     * Acquires the lock of a JDK based stream. Waiting for it happens with the GIL released, since
+     * the current owner may need the GIL to finish its operation.
+     */
+    static void lockStream(ZLibCompObject.JavaZlibCompObject self, GilNode gil) {
+        if (!self.tryLock()) {
+            gil.release(true);
+            try {
+                self.lock();
+            } finally {
+                gil.acquire();
+            }
+        }
+    }
+
     abstract static class JavaCompressNode extends PNodeWithContext {
 
-        public abstract PBytes execute(ZLibCompObject.JavaZlibCompObject self, int mode, PythonObjectFactory factory);
+        public abstract PBytes execute(ZLibCompObject.JavaZlibCompObject self, byte[] data, int offset, int length, boolean stable, int mode, PythonObjectFactory factory);
+
+        public final PBytes execute(ZLibCompObject.JavaZlibCompObject self, int mode, PythonObjectFactory factory) {
+            return execute(self, null, 0, 0, true, mode, factory);
+        }
 
-        @CompilerDirectives.TruffleBoundary
         @Specialization
-        PBytes doit(ZLibCompObject.JavaZlibCompObject self, int mode, PythonObjectFactory factory) {
-            byte[] result = new byte[DEF_BUF_SIZE];
+        PBytes doit(ZLibCompObject.JavaZlibCompObject self, byte[] data, int offset, int length, boolean stable, int mode, PythonObjectFactory factory,
+                        @Cached GilNode gil,
+                        @Cached PRaiseNode raise) {
+            lockStream(self, gil);
+            try {
+                if (!self.isInitialized()) {
+                    throw raise.raise(ZLibError, "Error %d %s: %s", Z_STREAM_ERROR, "while compressing data", "inconsistent stream state");
+                }
+                byte[] result;
+                gil.release(true);
+                try {
+                    if (data != null) {
+                        self.setDeflaterInput(data, offset, length, stable);
+                    }
+                    result = deflate(self, mode);
+                } finally {
+                    gil.acquire();
+                }
+                return factory.createBytes(result);
+            } finally {
+                self.unlock();
+            }
+        }
+
+        @CompilerDirectives.TruffleBoundary
+        private static byte[] deflate(ZLibCompObject.JavaZlibCompObject self, int mode) {
+            byte[] result = self.getOutputBuffer(DEF_BUF_SIZE);
             Deflater deflater = (Deflater) self.stream;
             int deflateMode = mode;
             if (mode == Z_FINISH) {
@@ -530,61 +574,87 @@ public class ZlibNodes {
                 deflater.end();
                 self.setUninitialized();
             }
-            return factory.createBytes(baos.toByteArray());
+            return baos.toByteArray();
         }
     }
 
     abstract static class JavaDecompressNode extends PNodeWithContext {
 
-        public abstract byte[] execute(ZLibCompObject.JavaZlibCompObject self, Object data, int maxLength, int bufSize, PythonObjectFactory factory);
+        public abstract byte[] execute(ZLibCompObject.JavaZlibCompObject self, byte[] data, int offset, int length, boolean stable, int maxLength, int bufSize, PythonObjectFactory factory);
 
-        @CompilerDirectives.TruffleBoundary
         @Specialization
-        byte[] doit(ZLibCompObject.JavaZlibCompObject self, byte[] bytes, int maxLength, int bufSize, PythonObjectFactory factory,
+        byte[] doit(ZLibCompObject.JavaZlibCompObject self, byte[] data, int offset, int length, boolean stable, int maxLength, int bufSize, PythonObjectFactory factory,
+                        @Cached GilNode gil,
                         @Cached PRaiseNode raise,
                         @Cached SequenceStorageNodes.LenNode lenNode,
                         @Cached BytesNodes.ToBytesNode toBytesNode) {
+            lockStream(self, gil);
+            try {
+                if (!self.isInitialized()) {
+                    throw raise.raise(ZLibError, "Error %d %s: %s", Z_STREAM_ERROR, "while decompressing data", "inconsistent stream state");
+                }
+                byte[] result;
+                try {
+                    gil.release(true);
+                    try {
+                        self.setInflaterInput(data, offset, length, stable);
+                        result = inflate(self, maxLength, bufSize);
+                    } finally {
+                        gil.acquire();
+                    }
+                } catch (DataFormatException e) {
+                    throw raise.raise(ZLibError, e);
+                }
+                if (result == null) {
+                    throw raise.raise(ZLibError, WHILE_SETTING_ZDICT);
+                }
+                self.setEof(isFinished((Inflater) self.stream));
+                byte[] unusedDataBytes = toBytesNode.execute(self.getUnusedData());
+                int unconsumedTailLen = lenNode.execute(self.getUnconsumedTail().getSequenceStorage());
+                saveUnconsumedInput(self, data, offset, length, unusedDataBytes, unconsumedTailLen, factory);
+                return result;
+            } finally {
+                self.unlock();
+            }
+        }
+
+        /**
+         * Inflates the current input into at most {@code maxLength} bytes (unlimited if zero).
+         * Returns {@code null} if the stream needs a dictionary that was not provided.
+         */
+        @CompilerDirectives.TruffleBoundary
+        private static byte[] inflate(ZLibCompObject.JavaZlibCompObject self, int maxLength, int bufSize) throws DataFormatException {
             int maxLen = maxLength == 0 ? Integer.MAX_VALUE : maxLength;
-            byte[] result = new byte[Math.min(maxLen, bufSize)];
+            int chunkSize = Math.min(maxLen, bufSize);
+            byte[] result = self.getOutputBuffer(chunkSize);
             boolean zdictIsSet = false;
 
             Inflater inflater = (Inflater) self.stream;
-            self.setInflaterInput(bytes);
-
-            int bytesWritten = result.length;
+            int bytesWritten = chunkSize;
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (baos.size() < maxLen && bytesWritten == result.length) {
-                try {
-                    int len = Math.min(maxLen - baos.size(), result.length);
-                    bytesWritten = inflater.inflate(result, 0, len);
-                    if (bytesWritten == 0 && !zdictIsSet && inflater.needsDictionary()) {
-                        if (self.getZdict().length > 0) {
-                            inflater.setDictionary(self.getZdict());
-                            zdictIsSet = true;
-                            // we inflate again with a dictionary
-                            bytesWritten = inflater.inflate(result, 0, len);
-                        } else {
-                            throw raise.raise(ZLibError, WHILE_SETTING_ZDICT);
-                        }
+            while (baos.size() < maxLen && bytesWritten == chunkSize) {
+                int len = Math.min(maxLen - baos.size(), chunkSize);
+                bytesWritten = inflater.inflate(result, 0, len);
+                if (bytesWritten == 0 && !zdictIsSet && inflater.needsDictionary()) {
+                    if (self.getZdict().length == 0) {
+                        return null;
                     }
-                } catch (DataFormatException e) {
-                    throw raise.raise(ZLibError, e);
+                    inflater.setDictionary(self.getZdict());
+                    zdictIsSet = true;
+                    // we inflate again with a dictionary
+                    bytesWritten = inflater.inflate(result, 0, len);
                 }
                 baos.write(result, 0, bytesWritten);
             }
-            self.setEof(isFinished(inflater));
-            byte[] unusedDataBytes = toBytesNode.execute(self.getUnusedData());
-            int unconsumedTailLen = lenNode.execute(self.getUnconsumedTail().getSequenceStorage());
-            saveUnconsumedInput(self, bytes, unusedDataBytes, unconsumedTailLen, factory);
             return baos.toByteArray();
         }
 
         @CompilerDirectives.TruffleBoundary
-        private static void saveUnconsumedInput(ZLibCompObject.JavaZlibCompObject self, byte[] data,
+        private static void saveUnconsumedInput(ZLibCompObject.JavaZlibCompObject self, byte[] data, int offset, int length,
                         byte[] unusedDataBytes, int unconsumedTailLen, PythonObjectFactory factory) {
             Inflater inflater = (Inflater) self.stream;
             int unusedLen = getRemaining(inflater);
-            byte[] tail = Arrays.copyOfRange(data, data.length - unusedLen, data.length);
+            byte[] tail = Arrays.copyOfRange(data, offset + length - unusedLen, offset + length);
             if (self.isEof()) {
                 if (unconsumedTailLen > 0) {
                     self.setUnconsumedTail(factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY));
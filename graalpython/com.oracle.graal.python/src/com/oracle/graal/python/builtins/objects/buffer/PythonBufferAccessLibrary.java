@@ -173,6 +173,59 @@ public abstract class PythonBufferAccessLibrary extends Library {
         throw CompilerDirectives.shouldNotReachHere("getInternalByteArray");
     }
 
+    /**
+     * Return whether the buffer contents are a contiguous region of a Java {@code byte[]} array
+     * that can be directly accessed. Unlike {@link #hasInternalByteArray(Object)}, the region does
+     * not have to start at the beginning of the array, which allows views into other buffers (like
+     * sliced memoryviews) to be accessed without copying. The array can be obtained using
+     * {@link #getByteArrayRegion(Object)} and the start of the buffer contents in it using
+     * {@link #getByteArrayRegionOffset(Object)}.
+     */
+    public boolean hasByteArrayRegion(Object receiver) {
+        return hasInternalByteArray(receiver);
+    }
+
+    /**
+     * Access the {@code byte[]} array containing the buffer contents. Must call
+     * {@link #hasByteArrayRegion(Object)} before calling this method. The buffer contents start at
+     * {@link #getByteArrayRegionOffset(Object)} and span {@link #getBufferLength(Object)} bytes. If
+     * the object is not readonly, the region can be directly written and the changes will affect
+     * the object.
+     */
+    @Abstract(ifExported = "hasByteArrayRegion")
+    public byte[] getByteArrayRegion(Object receiver) {
+        return getInternalByteArray(receiver);
+    }
+
+    /**
+     * Return the offset of the buffer contents in the array returned by
+     * {@link #getByteArrayRegion(Object)}. Must call {@link #hasByteArrayRegion(Object)} before
+     * calling this method.
+     */
+    @Abstract(ifExported = "hasByteArrayRegion")
+    public int getByteArrayRegionOffset(@SuppressWarnings("unused") Object receiver) {
+        return 0;
+    }
+
+    /**
+     * Return whether the buffer contents are contiguous native memory that can be accessed
+     * directly, e.g., by native code. The address of the first byte can be obtained using
+     * {@link #getNativeAddress(Object)}. The address is only valid until the buffer is released.
+     */
+    public boolean hasNativeAddress(@SuppressWarnings("unused") Object receiver) {
+        return false;
+    }
+
+    /**
+     * Return the address of the buffer contents. Must call {@link #hasNativeAddress(Object)} before
+     * calling this method. If the object is not readonly, the memory can be directly written and
+     * the changes will affect the object.
+     */
+    @Abstract(ifExported = "hasNativeAddress")
+    public long getNativeAddress(@SuppressWarnings("unused") Object receiver) {
+        throw CompilerDirectives.shouldNotReachHere("getNativeAddress");
+    }
+
     /**
      * Read bytes from this buffer into a given byte array. Bounds checks are responsibility of the
      * caller.
@@ -83,6 +83,8 @@ import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.PythonCextBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.StgDictObject;
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject.PInteropGetAttributeNode;
@@ -103,7 +105,6 @@ import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.ToSulongNode
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.TransformExceptionToNativeNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.WrapVoidPtrNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapperFactory.ReadTypeNativeMemberNodeGen;
-import com.oracle.graal.python.builtins.objects.cext.capi.PyDateTimeMRNode.DateTimeMode;
 import com.oracle.graal.python.builtins.objects.cext.capi.UnicodeObjectNodes.UnicodeAsWideCharNode;
 import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers.CStringWrapper;
 import com.oracle.graal.python.builtins.objects.cext.common.CExtCommonNodes.SizeofWCharNode;
@@ -1113,26 +1114,23 @@ public abstract class DynamicObjectNativeWrapper extends PythonNativeWrapper {
 
         }
 
-        protected static DateTimeMode getDateTimeMode(PythonObject object, GetClassNode getClassNode, GetNameNode getNameNode) {
-            return PyDateTimeMRNode.getModeFromTypeName(getNameNode.execute(getClassNode.execute(object)));
-        }
-
         @Specialization(guards = "isPyDateTimeCAPI(object, getClassNode, getNameNode)", limit = "1")
         static Object doDatetimeCAPI(PythonObject object, @SuppressWarnings("unused") PythonNativeWrapper nativeWrapper, String key,
                         @Cached LookupAttributeInMRONode.Dynamic getAttrNode,
                         @Shared("toSulongNode") @Cached ToSulongNode toSulongNode,
-                        @Shared("getNameNode") @Cached @SuppressWarnings("unused") GetNameNode getNameNode,
-                        @Shared("getClassNode") @Cached GetClassNode getClassNode) {
+                        @Cached @SuppressWarnings("unused") GetNameNode getNameNode,
+                        @Cached GetClassNode getClassNode) {
             return toSulongNode.execute(getAttrNode.execute(getClassNode.execute(object), key));
         }
 
-        @Specialization(guards = "mode != null", limit = "1")
-        static Object doDatetimeData(PythonObject object, @SuppressWarnings("unused") PythonNativeWrapper nativeWrapper, @SuppressWarnings("unused") String key,
-                        @Shared("getNameNode") @Cached @SuppressWarnings("unused") GetNameNode getNameNode,
-                        @Shared("getClassNode") @Cached @SuppressWarnings("unused") GetClassNode getClassNode,
-                        @Bind("getDateTimeMode(object, getClassNode, getNameNode)") DateTimeMode mode,
+        @Specialization(guards = "isDateTimeObject(object)")
+        static Object doDatetimeData(PythonObject object, @SuppressWarnings("unused") PythonNativeWrapper nativeWrapper, String key,
                         @Cached PyDateTimeMRNode pyDateTimeMRNode) {
-            return pyDateTimeMRNode.execute(object, key, mode);
+            return pyDateTimeMRNode.execute(object, key);
+        }
+
+        protected static boolean isDateTimeObject(PythonObject object) {
+            return object instanceof PDate || object instanceof PTime;
         }
 
         @Specialization(guards = "eq(F_LINENO, key)")
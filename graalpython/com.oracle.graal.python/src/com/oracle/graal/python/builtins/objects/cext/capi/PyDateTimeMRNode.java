@@ -40,52 +40,28 @@
  */
 package com.oracle.graal.python.builtins.objects.cext.capi;
 
-import com.oracle.graal.python.builtins.objects.PNone;
-import com.oracle.graal.python.builtins.objects.PythonAbstractObject.PInteropGetAttributeNode;
-import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers.CByteArrayWrapper;
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.ToSulongNode;
+import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers.CByteArrayWrapper;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
-import com.oracle.graal.python.lib.PyNumberAsSizeNode;
-import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
-import com.oracle.graal.python.runtime.PythonOptions;
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.Node;
 
+/**
+ * Provides the {@code data} and {@code tzinfo} members of {@code PyDateTime_Date},
+ * {@code PyDateTime_DateTime} and {@code PyDateTime_Time} for the Java implementations of the
+ * {@code datetime} types. The values are taken directly from the fields of the objects.
+ */
 @GenerateUncached
-@ImportStatic({NativeMember.class, PythonOptions.class})
+@ImportStatic(NativeMember.class)
 public abstract class PyDateTimeMRNode extends Node {
 
-    public enum DateTimeMode {
-        DATE,
-        TIME,
-        DATE_TIME
-    }
-
-    static DateTimeMode getModeFromTypeName(String typeName) {
-        if ("date".equals(typeName)) {
-            return DateTimeMode.DATE;
-        } else if ("datetime".equals(typeName)) {
-            return DateTimeMode.DATE_TIME;
-        } else if ("time".equals(typeName)) {
-            return DateTimeMode.TIME;
-        }
-        return null;
-    }
-
-    public abstract Object execute(PythonObject object, String key, DateTimeMode mode);
-
-    public static final String YEAR = "year";
-    public static final String MONTH = "month";
-    public static final String DAY = "day";
-    public static final String HOUR = "hour";
-    public static final String MIN = "minute";
-    public static final String SEC = "second";
-    public static final String USEC = "microsecond";
-    public static final String TZINFO = "tzinfo";
+    public abstract Object execute(PythonObject object, String key);
 
     /**
      * Fields are packed into successive bytes, each viewed as unsigned and big-endian, unless
@@ -112,85 +88,54 @@ public abstract class PyDateTimeMRNode extends Node {
      *  0           year     2 bytes, 1-9999
      *  2           month    1 byte, 1-12
      *  3           day      1 byte, 1-31
-     * 10
+     * 4
      * </pre>
      * 
      * PyDateTime_Time:
      * 
      * <pre>
      * byte offset
-     *  4           hour     1 byte, 0-23
-     *  5           minute   1 byte, 0-59
-     *  6           second   1 byte, 0-59
-     *  7           usecond  3 bytes, 0-999999
-     * 10
+     *  0           hour     1 byte, 0-23
+     *  1           minute   1 byte, 0-59
+     *  2           second   1 byte, 0-59
+     *  3           usecond  3 bytes, 0-999999
+     * 6
      * </pre>
      */
-    @Specialization(guards = {"eq(DATETIME_DATA, key)", "cachedMode == mode", "cachedMode != null"}, limit = "1")
-    static Object doData(PythonObject object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
-                    @Cached("mode") DateTimeMode cachedMode,
-                    @Cached PInteropGetAttributeNode getYearNode,
-                    @Cached PInteropGetAttributeNode getMonthNode,
-                    @Cached PInteropGetAttributeNode getDayNode,
-                    @Cached PInteropGetAttributeNode getHourNode,
-                    @Cached PInteropGetAttributeNode getMinNode,
-                    @Cached PInteropGetAttributeNode getSecNode,
-                    @Cached PInteropGetAttributeNode getUSecNode,
-                    @Cached PyNumberAsSizeNode asSizeNode) {
+    @Specialization(guards = "eq(DATETIME_DATA, key)")
+    static Object doDateTimeData(PDateTime object, @SuppressWarnings("unused") String key) {
+        int year = object.getYear();
+        int usec = object.getMicrosecond();
+        return new CByteArrayWrapper(new byte[]{(byte) (year >> 8), (byte) year, (byte) object.getMonth(), (byte) object.getDay(), (byte) object.getHour(), (byte) object.getMinute(),
+                        (byte) object.getSecond(), (byte) (usec >> 16), (byte) (usec >> 8), (byte) usec});
+    }
 
-        // passing null here should be ok, since we should be in an interop situation
-        int year = -1;
-        int month = -1;
-        int day = -1;
-        int hour = -1;
-        int min = -1;
-        int sec = -1;
-        int usec = -1;
-        if (cachedMode == DateTimeMode.DATE || cachedMode == DateTimeMode.DATE_TIME) {
-            year = asSizeNode.executeExact(null, getYearNode.execute(object, YEAR));
-            month = asSizeNode.executeExact(null, getMonthNode.execute(object, MONTH));
-            day = asSizeNode.executeExact(null, getDayNode.execute(object, DAY));
-            assert year >= 0 && year < 0x10000;
-            assert month >= 0 && month < 0x100;
-            assert day >= 0 && day < 0x100;
-        }
-        if (cachedMode == DateTimeMode.TIME || cachedMode == DateTimeMode.DATE_TIME) {
-            hour = asSizeNode.executeExact(null, getHourNode.execute(object, HOUR));
-            min = asSizeNode.executeExact(null, getMinNode.execute(object, MIN));
-            sec = asSizeNode.executeExact(null, getSecNode.execute(object, SEC));
-            usec = asSizeNode.executeExact(null, getUSecNode.execute(object, USEC));
-            assert hour >= 0 && hour < 0x100;
-            assert min >= 0 && min < 0x100;
-            assert sec >= 0 && sec < 0x100;
-            assert usec >= 0 && sec < 0x1000000;
-        }
+    @Specialization(guards = {"eq(DATETIME_DATA, key)", "!isDateTime(object)"})
+    static Object doDateData(PDate object, @SuppressWarnings("unused") String key) {
+        int year = object.getYear();
+        return new CByteArrayWrapper(new byte[]{(byte) (year >> 8), (byte) year, (byte) object.getMonth(), (byte) object.getDay()});
+    }
 
-        byte[] data;
-        switch (cachedMode) {
-            case DATE:
-                data = new byte[]{(byte) (year >> 8), (byte) year, (byte) month, (byte) day};
-                break;
-            case TIME:
-                data = new byte[]{(byte) hour, (byte) min, (byte) sec, (byte) (usec >> 16), (byte) (usec >> 8), (byte) usec};
-                break;
-            case DATE_TIME:
-                data = new byte[]{(byte) (year >> 8), (byte) year, (byte) month, (byte) day, (byte) hour, (byte) min, (byte) sec, (byte) (usec >> 16), (byte) (usec >> 8), (byte) usec};
-                break;
-            default:
-                throw CompilerDirectives.shouldNotReachHere();
-        }
-        return new CByteArrayWrapper(data);
+    @Specialization(guards = "eq(DATETIME_DATA, key)")
+    static Object doTimeData(PTime object, @SuppressWarnings("unused") String key) {
+        int usec = object.getMicrosecond();
+        return new CByteArrayWrapper(new byte[]{(byte) object.getHour(), (byte) object.getMinute(), (byte) object.getSecond(), (byte) (usec >> 16), (byte) (usec >> 8), (byte) usec});
     }
 
     @Specialization(guards = "eq(DATETIME_TZINFO, key)")
-    static Object doTzinfo(PythonObject object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
-                    @Cached ReadAttributeFromObjectNode getTzinfoNode,
+    static Object doDateTimeTzinfo(PDateTime object, @SuppressWarnings("unused") String key,
                     @Cached ToSulongNode toSulongNode) {
-        Object value = getTzinfoNode.execute(object, TZINFO);
-        if (value != PNone.NO_VALUE) {
-            return toSulongNode.execute(value);
-        }
-        throw CompilerDirectives.shouldNotReachHere();
+        return toSulongNode.execute(object.getTzInfo());
+    }
+
+    @Specialization(guards = "eq(DATETIME_TZINFO, key)")
+    static Object doTimeTzinfo(PTime object, @SuppressWarnings("unused") String key,
+                    @Cached ToSulongNode toSulongNode) {
+        return toSulongNode.execute(object.getTzInfo());
+    }
+
+    protected static boolean isDateTime(Object object) {
+        return object instanceof PDateTime;
     }
 
     protected static boolean eq(NativeMember expected, String actual) {
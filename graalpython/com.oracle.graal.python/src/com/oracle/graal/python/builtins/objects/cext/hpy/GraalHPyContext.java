@@ -157,9 +157,9 @@ import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyNodesFactory.HP
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyNodesFactory.PCallHPyFunctionNodeGen;
 import com.oracle.graal.python.builtins.objects.cext.hpy.HPyExternalFunctionNodes.HPyCheckFunctionResultNode;
 import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
-import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.StringHashingStorage;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
 import com.oracle.graal.python.builtins.objects.frame.PFrame;
@@ -737,7 +737,18 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
         }
     }
 
-    private GraalHPyHandle[] hpyHandleTable = new GraalHPyHandle[]{GraalHPyHandle.NULL_HANDLE};
+    /*
+     * The handle table is split into segments of HANDLE_TABLE_SEGMENT_SIZE entries, so growing it
+     * never copies the existing entries but only the (much smaller) array of segments. The segment
+     * size must be kept in sync with 'HANDLE_TABLE_SEGMENT_SHIFT' in 'hpy_jni.c'.
+     */
+    private static final int HANDLE_TABLE_SEGMENT_SHIFT = 10;
+    private static final int HANDLE_TABLE_SEGMENT_SIZE = 1 << HANDLE_TABLE_SEGMENT_SHIFT;
+    private static final int HANDLE_TABLE_SEGMENT_MASK = HANDLE_TABLE_SEGMENT_SIZE - 1;
+
+    private GraalHPyHandle[][] hpyHandleTable = new GraalHPyHandle[][]{createFirstHandleTableSegment()};
+    /** The smallest handle ID that has never been allocated. */
+    private int nextFreshHandle = 1;
     private final HandleStack freeStack = new HandleStack(16);
     Object nativePointer;
 
@@ -1509,8 +1520,8 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
                         dict.setDictStorage(dictStorage);
                     }
 
-                    if (dictStorage instanceof HashMapStorage) {
-                        ((HashMapStorage) dictStorage).put((String) key, value);
+                    if (dictStorage instanceof StringHashingStorage) {
+                        ((StringHashingStorage) dictStorage).put((String) key, value);
                         return 0;
                     }
                     // fall through to generic case
@@ -2101,39 +2112,57 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
 
     private static Unsafe unsafe = CArrayWrappers.UNSAFE;
 
+    /**
+     * Pointer to a native array of pointers to the native segments of the native space pointers
+     * mirror. The native segments have the same layout as the segments of {@link #hpyHandleTable}.
+     */
     private long nativeSpacePointers;
+    private int nativeSpaceSegmentsCapacity;
 
+    private static GraalHPyHandle[] createFirstHandleTableSegment() {
+        GraalHPyHandle[] segment = new GraalHPyHandle[HANDLE_TABLE_SEGMENT_SIZE];
+        segment[0] = GraalHPyHandle.NULL_HANDLE;
+        return segment;
+    }
+
+    /**
+     * Allocates a handle ID in constant time: a previously released ID is reused if there is one,
+     * otherwise the next fresh ID is taken and, if necessary, a new segment is added to the table.
+     */
     @TruffleBoundary(allowInlining = true)
     private int allocateHandle() {
         int freeItem = freeStack.pop();
         if (freeItem != -1) {
-            assert 0 <= freeItem && freeItem < hpyHandleTable.length;
-            assert hpyHandleTable[freeItem] == null;
+            assert 0 < freeItem && freeItem < nextFreshHandle;
+            assert hpyHandleTable[freeItem >>> HANDLE_TABLE_SEGMENT_SHIFT][freeItem & HANDLE_TABLE_SEGMENT_MASK] == null;
             return freeItem;
         }
-        for (int i = 1; i < hpyHandleTable.length; i++) {
-            if (hpyHandleTable[i] == null) {
-                return i;
-            }
+        int handle = nextFreshHandle;
+        int segment = handle >>> HANDLE_TABLE_SEGMENT_SHIFT;
+        if (segment >= hpyHandleTable.length || hpyHandleTable[segment] == null) {
+            addHandleTableSegment(segment);
         }
-        return -1;
+        nextFreshHandle++;
+        return handle;
     }
 
-    public final synchronized int getHPyHandleForObject(GraalHPyHandle object) {
-        // find free association
-        int handle = allocateHandle();
-        if (handle == -1) {
-            // resize
-            int newSize = Math.max(16, hpyHandleTable.length * 2);
-            LOGGER.fine(() -> "resizing HPy handle table to " + newSize);
+    @TruffleBoundary
+    private void addHandleTableSegment(int segment) {
+        if (segment >= hpyHandleTable.length) {
+            int newSize = hpyHandleTable.length * 2;
+            LOGGER.fine(() -> "resizing HPy handle table to " + newSize * HANDLE_TABLE_SEGMENT_SIZE);
             hpyHandleTable = Arrays.copyOf(hpyHandleTable, newSize);
-            if (useNativeFastPaths && isPointer()) {
-                reallocateNativeSpacePointersMirror();
-            }
-            handle = allocateHandle();
         }
+        hpyHandleTable[segment] = new GraalHPyHandle[HANDLE_TABLE_SEGMENT_SIZE];
+        if (useNativeFastPaths && isPointer()) {
+            addNativeSpacePointersSegment(segment);
+        }
+    }
+
+    public final synchronized int getHPyHandleForObject(GraalHPyHandle object) {
+        int handle = allocateHandle();
         assert handle > 0;
-        hpyHandleTable[handle] = object;
+        hpyHandleTable[handle >>> HANDLE_TABLE_SEGMENT_SHIFT][handle & HANDLE_TABLE_SEGMENT_MASK] = object;
         if (useNativeFastPaths && isPointer()) {
             mirrorNativeSpacePointerToNative(object, handle);
         }
@@ -2155,45 +2184,71 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
         }
         try {
             long l = nativeSpace instanceof Long ? ((long) nativeSpace) : nativeSpace == PNone.NO_VALUE ? 0 : InteropLibrary.getUncached().asPointer(nativeSpace);
-            unsafe.putLong(nativeSpacePointers + handleID * SIZEOF_LONG, l);
+            long segmentPtr = unsafe.getLong(nativeSpacePointers + (handleID >>> HANDLE_TABLE_SEGMENT_SHIFT) * SIZEOF_LONG);
+            unsafe.putLong(segmentPtr + (handleID & HANDLE_TABLE_SEGMENT_MASK) * SIZEOF_LONG, l);
         } catch (UnsupportedMessageException e) {
             throw CompilerDirectives.shouldNotReachHere();
         }
     }
 
+    /**
+     * Allocates the native segment of the native space pointers mirror for the given segment of
+     * {@link #hpyHandleTable}. Only the array of segment pointers may need to be reallocated, the
+     * existing segments stay where they are.
+     */
     @TruffleBoundary
-    private void reallocateNativeSpacePointersMirror() {
+    private void addNativeSpacePointersSegment(int segment) {
         assert isPointer();
         assert useNativeFastPaths;
-        nativeSpacePointers = unsafe.reallocateMemory(nativeSpacePointers, hpyHandleTable.length * SIZEOF_LONG);
-        try {
-            InteropLibrary.getUncached().execute(setNativeSpaceFunction, nativePointer, nativeSpacePointers);
-        } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
-            throw CompilerDirectives.shouldNotReachHere();
+        if (segment >= nativeSpaceSegmentsCapacity) {
+            int newCapacity = hpyHandleTable.length;
+            assert segment < newCapacity;
+            long newSegments = unsafe.allocateMemory(newCapacity * SIZEOF_LONG);
+            unsafe.setMemory(newSegments, newCapacity * SIZEOF_LONG, (byte) 0);
+            unsafe.copyMemory(nativeSpacePointers, newSegments, nativeSpaceSegmentsCapacity * SIZEOF_LONG);
+            try {
+                InteropLibrary.getUncached().execute(setNativeSpaceFunction, nativePointer, newSegments);
+            } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+            unsafe.freeMemory(nativeSpacePointers);
+            nativeSpacePointers = newSegments;
+            nativeSpaceSegmentsCapacity = newCapacity;
         }
+        long segmentSize = HANDLE_TABLE_SEGMENT_SIZE * SIZEOF_LONG;
+        long segmentPtr = unsafe.allocateMemory(segmentSize);
+        unsafe.setMemory(segmentPtr, segmentSize, (byte) 0);
+        unsafe.putLong(nativeSpacePointers + segment * SIZEOF_LONG, segmentPtr);
     }
 
     /**
-     * Allocates a native array (element size is {@link #SIZEOF_LONG} for as many elements as in
-     * {@link #hpyHandleTable} and writes the native space pointers of all objects in the handle
-     * table into this array. The pointer of the array is then set to
-     * {@code ((HPyContext) ctx)->_private} and meant to be used by the {@code ctx_Cast}'s upcall
-     * stub to avoid an expensive upcall.
+     * Allocates the native space pointers mirror for all segments of {@link #hpyHandleTable} and
+     * writes the native space pointers of all objects in the handle table into it. The pointer of
+     * the array of segments is then set to {@code ((HPyContext) ctx)->_private} and meant to be used
+     * by the {@code ctx_Cast}'s upcall stub to avoid an expensive upcall.
      */
     @TruffleBoundary
     private void allocateNativeSpacePointersMirror() {
-        long arraySize = hpyHandleTable.length * SIZEOF_LONG;
+        int capacity = hpyHandleTable.length;
+        long arraySize = capacity * SIZEOF_LONG;
         long arrayPtr = unsafe.allocateMemory(arraySize);
         unsafe.setMemory(arrayPtr, arraySize, (byte) 0);
 
         // publish pointer value (needed for initialization)
         nativeSpacePointers = arrayPtr;
+        nativeSpaceSegmentsCapacity = capacity;
 
-        // write existing values to mirror; start at 1 to omit the NULL handle
-        for (int i = 1; i < hpyHandleTable.length; i++) {
-            GraalHPyHandle handleObject = hpyHandleTable[i];
-            if (handleObject != null) {
-                mirrorNativeSpacePointerToNative(handleObject, i);
+        for (int segment = 0; segment < capacity; segment++) {
+            GraalHPyHandle[] handles = hpyHandleTable[segment];
+            if (handles == null) {
+                break;
+            }
+            addNativeSpacePointersSegment(segment);
+            // write existing values to mirror; omit the NULL handle
+            for (int i = 0; i < handles.length; i++) {
+                if (handles[i] != null && (segment != 0 || i != 0)) {
+                    mirrorNativeSpacePointerToNative(handles[i], (segment << HANDLE_TABLE_SEGMENT_SHIFT) | i);
+                }
             }
         }
 
@@ -2205,18 +2260,26 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
         }
     }
 
+    /**
+     * Returns {@code true} if the handle ID has been handed out at some point, i.e., if it can be
+     * looked up in the handle table (the entry may still be {@code null} if it has been released).
+     */
+    final synchronized boolean isAllocatedHandle(int handle) {
+        return 0 <= handle && handle < nextFreshHandle;
+    }
+
     public synchronized GraalHPyHandle getObjectForHPyHandle(int handle) {
         assert !GraalHPyBoxing.isBoxedInt(handle) && !GraalHPyBoxing.isBoxedDouble(handle) : "trying to lookup boxed primitive";
-        return hpyHandleTable[handle];
+        return hpyHandleTable[handle >>> HANDLE_TABLE_SEGMENT_SHIFT][handle & HANDLE_TABLE_SEGMENT_MASK];
     }
 
     synchronized boolean releaseHPyHandleForObject(int handle) {
         assert handle != 0 : "NULL handle cannot be released";
-        assert hpyHandleTable[handle] != null : PythonUtils.format("releasing handle that has already been released: %d", handle);
+        assert getObjectForHPyHandle(handle) != null : PythonUtils.format("releasing handle that has already been released: %d", handle);
         if (LOGGER.isLoggable(Level.FINER)) {
             LOGGER.finer(() -> "releasing HPy handle " + handle);
         }
-        hpyHandleTable[handle] = null;
+        hpyHandleTable[handle >>> HANDLE_TABLE_SEGMENT_SHIFT][handle & HANDLE_TABLE_SEGMENT_MASK] = null;
         freeStack.push(handle);
         return true;
     }
@@ -107,7 +107,7 @@ public final class GraalHPyDebugContext extends GraalHPyContext {
     public ArrayList<GraalHPyHandle> getOpenHandles(int generation) {
         ArrayList<GraalHPyHandle> openHandles = new ArrayList<>();
         for (int i = 0; i < debugHandleInfo.length; i++) {
-            if (getGeneration(debugHandleInfo[i]) >= generation) {
+            if (isAllocatedHandle(i) && getGeneration(debugHandleInfo[i]) >= generation) {
                 openHandles.add(getObjectForHPyHandle(i));
             }
         }
@@ -149,12 +149,11 @@ public final class GraalHPyDebugContext extends GraalHPyContext {
 
     @Override
     public synchronized GraalHPyHandle getObjectForHPyHandle(int handle) {
-        try {
-            return super.getObjectForHPyHandle(handle);
-        } catch (ArrayIndexOutOfBoundsException e) {
+        if (!isAllocatedHandle(handle)) {
             onInvalidHandle(handle);
             return GraalHPyHandle.NULL_HANDLE;
         }
+        return super.getObjectForHPyHandle(handle);
     }
 
     @Override
@@ -40,7 +40,9 @@
  */
 package com.oracle.graal.python.builtins.objects.code;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.graalvm.polyglot.io.ByteSequence;
@@ -54,7 +56,6 @@ import com.oracle.graal.python.nodes.util.BadOPCodeNode;
 import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
-import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.graal.python.util.Supplier;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
@@ -121,8 +122,10 @@ public abstract class CodeNodes {
             if (codedata.length == 0) {
                 ct = language.createCachedCallTarget(l -> new BadOPCodeNode(l, name), BadOPCodeNode.class, name);
             } else {
-                RootNode rootNode = context.getSerializer().deserialize(context, codedata, toStringArray(cellvars), toStringArray(freevars));
-                ct = PythonUtils.getOrCreateCallTarget(rootNode);
+                String[] cellvarNames = toStringArray(cellvars);
+                String[] freevarNames = toStringArray(freevars);
+                Object key = Arrays.asList(ByteBuffer.wrap(codedata), Arrays.asList(cellvarNames), Arrays.asList(freevarNames), filename);
+                ct = language.cacheParsedCode(key, () -> context.getSerializer().deserialize(context, codedata, cellvarNames, freevarNames));
                 if (filename != null) {
                     context.setCodeFilename(ct, filename);
                 }
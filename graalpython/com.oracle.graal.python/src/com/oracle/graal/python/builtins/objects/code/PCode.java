@@ -97,6 +97,7 @@ public final class PCode extends PythonBuiltinObject {
     static final long FLAG_GENERATOR = 0x20;
     static final long FLAG_MODULE = 0x40; // CO_NOFREE on CPython, we use it on modules, it's
                                           // redundant anyway
+    static final long FLAG_ITERABLE_COROUTINE = 0x100; // set by 'types.coroutine'
 
     // callTargetSupplier may be null, in which case callTarget and signature will be
     // set. Otherwise, these are lazily created from the supplier.
@@ -504,6 +505,10 @@ public final class PCode extends PythonBuiltinObject {
         return (getFlags() & FLAG_GENERATOR) > 0;
     }
 
+    public boolean isIterableCoroutine() {
+        return (getFlags() & FLAG_ITERABLE_COROUTINE) > 0;
+    }
+
     public static boolean isModule(int flags) {
         return (flags & FLAG_MODULE) > 0;
     }
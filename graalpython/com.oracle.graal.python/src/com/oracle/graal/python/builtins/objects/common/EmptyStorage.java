@@ -88,7 +88,7 @@ public class EmptyStorage extends HashingStorage {
     public HashingStorage setItemWithState(Object key, Object value, ThreadState state,
                     @CachedLibrary(limit = "2") HashingStorageLibrary lib,
                     @Shared("gotState") @Cached ConditionProfile gotState) {
-        HashingStorage newStore = PDict.createNewStorage(key instanceof String, 1);
+        HashingStorage newStore = PDict.createNewStorageForKey(key, 1);
         if (gotState.profile(state != null)) {
             lib.setItemWithState(newStore, key, value, state);
         } else {
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Common part of the hashing storages specialized for one kind of keys ({@link LongHashingStorage}
+ * and {@link StringHashingStorage}). The entries are kept in insertion order in parallel arrays
+ * and are located through an open-addressing index table that is addressed by the Python hash of
+ * the keys. A removed entry is marked in a bit set and squeezed out the next time the arrays are
+ * resized. The subclasses own the keys array and implement the lookups with unboxed keys.
+ *
+ * The values array is only allocated once a value other than {@code None} is stored. Sets store
+ * {@code None} for all their elements, so a set only needs the keys array and the index table, and
+ * the bit set once an element is removed.
+ */
+abstract class IndexedHashingStorage extends HashingStorage {
+    static final int INITIAL_CAPACITY = 8;
+
+    /* null while all values are None */
+    private Object[] values;
+    /* bit set of the removed entries, null while no entry was removed */
+    private long[] removed;
+    /* entry index + 1 for each occupied slot, 0 for a free slot */
+    private int[] table;
+    /* number of entries in the arrays including the removed ones */
+    int used;
+    int size;
+    private int capacity;
+
+    /**
+     * Replaces the keys array with an empty one for {@code newCapacity} entries.
+     */
+    abstract void allocateKeys(int newCapacity);
+
+    /**
+     * Replaces the keys array with one for {@code newCapacity} entries that holds the keys of the
+     * live entries among the first {@code oldUsed} entries, in order.
+     */
+    abstract void compactKeys(int newCapacity, long[] oldRemoved, int oldUsed);
+
+    /**
+     * The Python hash of the key of the entry at {@code index}.
+     */
+    abstract long hashAt(int index);
+
+    /**
+     * The current keys array. It is replaced on every resize, which iterators use to find out
+     * whether they still see the current entries.
+     */
+    abstract Object getKeys();
+
+    /**
+     * The boxed key at {@code index} of a keys array returned by {@link #getKeys()}.
+     */
+    abstract Object getKey(Object keys, int index);
+
+    final void allocate(int newCapacity) {
+        allocateKeys(newCapacity);
+        capacity = newCapacity;
+        values = null;
+        removed = null;
+        table = new int[tableSize(newCapacity)];
+        used = 0;
+        size = 0;
+    }
+
+    private static int tableSize(int capacity) {
+        // keep the load factor of the index table at or below 0.5
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    final Object keyAt(int index) {
+        return getKey(getKeys(), index);
+    }
+
+    final boolean isLive(int index) {
+        return isLive(removed, index);
+    }
+
+    static boolean isLive(long[] removed, int index) {
+        return removed == null || (removed[index >>> 6] & (1L << index)) == 0;
+    }
+
+    final Object valueAt(int index) {
+        return values == null ? PNone.NONE : values[index];
+    }
+
+    final void setValueAt(int index, Object value) {
+        if (values == null) {
+            if (value == PNone.NONE) {
+                return;
+            }
+            Object[] newValues = new Object[capacity];
+            for (int i = 0; i < used; i++) {
+                newValues[i] = PNone.NONE;
+            }
+            values = newValues;
+        }
+        values[index] = value;
+    }
+
+    static int slotOf(long hash, int mask) {
+        int h = (int) (hash ^ (hash >>> 32));
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * The index table for the typed lookups of the subclasses, which start probing at
+     * {@link #slotOf} of the key's hash.
+     */
+    final int[] getTable() {
+        return table;
+    }
+
+    /**
+     * Looks up a key of any type by its Python hash. The {@code __eq__} of the key may run
+     * arbitrary code, so the lookup is restarted if the storage got resized meanwhile.
+     */
+    final int findIndexGeneric(VirtualFrame frame, Object key, long keyHash, PyObjectRichCompareBool.EqNode eqNode) {
+        restart: while (true) {
+            int[] currentTable = table;
+            int mask = currentTable.length - 1;
+            int slot = slotOf(keyHash, mask);
+            while (true) {
+                int index = currentTable[slot] - 1;
+                if (index < 0) {
+                    return -1;
+                }
+                if (isLive(index) && hashAt(index) == keyHash) {
+                    boolean equal = eqNode.execute(frame, key, keyAt(index));
+                    if (currentTable != table) {
+                        continue restart;
+                    }
+                    if (equal) {
+                        return index;
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * Reserves the index of a new entry. The caller stores the key at the returned index of the
+     * (possibly resized) keys array and then calls {@link #addEntry}.
+     */
+    final int nextIndex() {
+        if (used == capacity) {
+            resize();
+        }
+        return used++;
+    }
+
+    final void addEntry(int index, Object value) {
+        setValueAt(index, value);
+        insertIntoTable(index);
+        size++;
+    }
+
+    private void insertIntoTable(int index) {
+        int mask = table.length - 1;
+        int slot = slotOf(hashAt(index), mask);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    private void resize() {
+        Object[] oldValues = values;
+        long[] oldRemoved = removed;
+        int oldUsed = used;
+        // only grow if there are not enough removed entries to reclaim, the values array is
+        // dropped again if all remaining values are None
+        int newCapacity = Math.max(INITIAL_CAPACITY, size * 2);
+        compactKeys(newCapacity, oldRemoved, oldUsed);
+        capacity = newCapacity;
+        values = null;
+        removed = null;
+        table = new int[tableSize(newCapacity)];
+        used = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (isLive(oldRemoved, i)) {
+                setValueAt(used, oldValues == null ? PNone.NONE : oldValues[i]);
+                insertIntoTable(used);
+                used++;
+            }
+        }
+        assert used == size;
+    }
+
+    final void removeAt(int index) {
+        if (removed == null) {
+            removed = new long[(capacity + 63) >>> 6];
+        }
+        removed[index >>> 6] |= 1L << index;
+        if (values != null) {
+            values[index] = null;
+        }
+        size--;
+    }
+
+    /**
+     * Iterates over the entries in the arrays the storage has at the time the iterator is created.
+     * The state is the position in the entries array, so that iterators can be pickled.
+     */
+    static final class KeysIterator implements Iterator<Object> {
+        private final IndexedHashingStorage storage;
+        private final Object keys;
+        private final long[] removed;
+        private final boolean reverse;
+        private final int end;
+        private int index;
+
+        KeysIterator(IndexedHashingStorage storage, boolean reverse) {
+            this.storage = storage;
+            this.keys = storage.getKeys();
+            this.removed = storage.removed;
+            this.reverse = reverse;
+            this.end = storage.used;
+            this.index = reverse ? storage.used - 1 : 0;
+        }
+
+        public int getState() {
+            return index;
+        }
+
+        public void setState(int state) {
+            index = state;
+        }
+
+        private boolean isLive(int i) {
+            // the bit set may have been allocated since, but only if it was not resized
+            return IndexedHashingStorage.isLive(storage.getKeys() == keys ? storage.removed : removed, i);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (reverse) {
+                while (index >= 0 && !isLive(index)) {
+                    index--;
+                }
+                return index >= 0;
+            } else {
+                while (index < end && !isLive(index)) {
+                    index++;
+                }
+                return index < end;
+            }
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object key = storage.getKey(keys, index);
+            index += reverse ? -1 : 1;
+            return key;
+        }
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        StringBuilder builder = new StringBuilder();
+        builder.append(getClass().getSimpleName()).append("(size=").append(size).append(", {");
+        String sep = "";
+        for (int i = 0; i < used; i++) {
+            if (isLive(i)) {
+                builder.append(sep).append("(").append(keyAt(i)).append(",").append(valueAt(i)).append(")");
+                sep = ",";
+            }
+        }
+        builder.append("})");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Hashing storage specialized for dictionaries and sets whose keys are all builtin integers that
+ * fit into a Java {@code long}. The keys are kept unboxed in a {@code long[]}, so lookups with
+ * {@code int} or {@code long} keys neither allocate nor call {@code __eq__}. See
+ * {@link IndexedHashingStorage} for the layout of the entries.
+ *
+ * Arbitrary keys (e.g. {@code True} or {@code 1.0} or instances of {@code int} subclasses) can
+ * still be looked up by calling their {@code __hash__} and {@code __eq__} against the candidate
+ * entries. Storing any key that is not a {@code long} generalizes this storage to
+ * {@link EconomicMapStorage}.
+ */
+@ExportLibrary(HashingStorageLibrary.class)
+public final class LongHashingStorage extends IndexedHashingStorage {
+    private long[] keys;
+
+    public LongHashingStorage(int expectedSize) {
+        allocate(Math.max(INITIAL_CAPACITY, expectedSize));
+    }
+
+    public LongHashingStorage() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private LongHashingStorage(LongHashingStorage original) {
+        this(original.size);
+        for (int i = 0; i < original.used; i++) {
+            if (original.isLive(i)) {
+                append(original.keys[i], original.valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    void allocateKeys(int newCapacity) {
+        keys = new long[newCapacity];
+    }
+
+    @Override
+    void compactKeys(int newCapacity, long[] oldRemoved, int oldUsed) {
+        long[] oldKeys = keys;
+        keys = new long[newCapacity];
+        int j = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (isLive(oldRemoved, i)) {
+                keys[j++] = oldKeys[i];
+            }
+        }
+    }
+
+    @Override
+    long hashAt(int index) {
+        return hash(keys[index]);
+    }
+
+    @Override
+    Object getKeys() {
+        return keys;
+    }
+
+    @Override
+    Object getKey(Object keyArray, int index) {
+        return ((long[]) keyArray)[index];
+    }
+
+    private static long hash(long key) {
+        return PyObjectHashNode.hash(key);
+    }
+
+    private int findIndex(long key) {
+        int[] table = getTable();
+        int mask = table.length - 1;
+        int slot = slotOf(hash(key), mask);
+        while (true) {
+            int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (keys[index] == key && isLive(index)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void append(long key, Object value) {
+        int index = nextIndex();
+        keys[index] = key;
+        addEntry(index, value);
+    }
+
+    private boolean contains(long key) {
+        return findIndex(key) >= 0;
+    }
+
+    private void put(long key, Object value) {
+        assert value != null;
+        int index = findIndex(key);
+        if (index >= 0) {
+            setValueAt(index, value);
+        } else {
+            append(key, value);
+        }
+    }
+
+    @ExportMessage
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @ExportMessage
+    static class GetItemWithState {
+        @Specialization
+        static Object getItemInt(LongHashingStorage self, int key, @SuppressWarnings("unused") ThreadState state) {
+            return getItemLong(self, key, state);
+        }
+
+        @Specialization
+        static Object getItemLong(LongHashingStorage self, long key, @SuppressWarnings("unused") ThreadState state) {
+            int index = self.findIndex(key);
+            return index >= 0 ? self.valueAt(index) : null;
+        }
+
+        @Specialization(guards = "!isLongOrInt(key)")
+        static Object getItemGeneric(LongHashingStorage self, Object key, ThreadState state,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int index = self.findIndexGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            return index >= 0 ? self.valueAt(index) : null;
+        }
+    }
+
+    static boolean isLongOrInt(Object key) {
+        return key instanceof Long || key instanceof Integer;
+    }
+
+    @ExportMessage
+    static class SetItemWithState {
+        @Specialization
+        static HashingStorage setItemInt(LongHashingStorage self, int key, Object value, @SuppressWarnings("unused") ThreadState state) {
+            self.put(key, value);
+            return self;
+        }
+
+        @Specialization
+        static HashingStorage setItemLong(LongHashingStorage self, long key, Object value, @SuppressWarnings("unused") ThreadState state) {
+            self.put(key, value);
+            return self;
+        }
+
+        @Specialization(guards = "!isLongOrInt(key)", limit = "3")
+        static HashingStorage setItemGeneric(LongHashingStorage self, Object key, Object value, ThreadState state,
+                        @CachedLibrary("self") HashingStorageLibrary thisLib,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary newLib) {
+            HashingStorage newStore = EconomicMapStorage.create(self.length());
+            newStore = thisLib.addAllToOther(self, newStore);
+            return newLib.setItemWithState(newStore, key, value, state);
+        }
+    }
+
+    @ExportMessage
+    static class DelItemWithState {
+        @Specialization
+        static HashingStorage delItemInt(LongHashingStorage self, int key, @SuppressWarnings("unused") ThreadState state) {
+            return delItemLong(self, key, state);
+        }
+
+        @Specialization
+        static HashingStorage delItemLong(LongHashingStorage self, long key, @SuppressWarnings("unused") ThreadState state) {
+            int index = self.findIndex(key);
+            if (index >= 0) {
+                self.removeAt(index);
+            }
+            return self;
+        }
+
+        @Specialization(guards = "!isLongOrInt(key)")
+        static HashingStorage delItemGeneric(LongHashingStorage self, Object key, ThreadState state,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int index = self.findIndexGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            if (index >= 0) {
+                self.removeAt(index);
+            }
+            return self;
+        }
+    }
+
+    @ExportMessage
+    @Override
+    Object forEachUntyped(ForEachNode<Object> node, Object argIn) {
+        Object arg = argIn;
+        long[] k = keys;
+        int n = used;
+        for (int i = 0; i < n; i++) {
+            if (isLive(i)) {
+                arg = node.execute(k[i], arg);
+            }
+        }
+        return arg;
+    }
+
+    @ExportMessage
+    static class AddAllToOther {
+        @Specialization
+        static HashingStorage addAllToSameType(LongHashingStorage self, LongHashingStorage other) {
+            for (int i = 0; i < self.used; i++) {
+                if (self.isLive(i)) {
+                    other.put(self.keys[i], self.valueAt(i));
+                }
+            }
+            return other;
+        }
+
+        @Specialization
+        static HashingStorage addAllToGeneric(LongHashingStorage self, HashingStorage other,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary otherLib) {
+            HashingStorage result = other;
+            for (int i = 0; i < self.used; i++) {
+                if (self.isLive(i)) {
+                    result = otherLib.setItem(result, self.keys[i], self.valueAt(i));
+                }
+            }
+            return result;
+        }
+    }
+
+    @ExportMessage
+    static class Intersect {
+        @Specialization
+        static HashingStorage intersectSameType(LongHashingStorage self, LongHashingStorage other) {
+            // probe the larger storage with the keys of the smaller one
+            LongHashingStorage small = self.size <= other.size ? self : other;
+            LongHashingStorage large = small == self ? other : self;
+            LongHashingStorage result = new LongHashingStorage(small.size);
+            for (int i = 0; i < small.used; i++) {
+                if (small.isLive(i)) {
+                    long key = small.keys[i];
+                    int j = large.findIndex(key);
+                    if (j >= 0) {
+                        result.append(key, small == other ? small.valueAt(i) : large.valueAt(j));
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Specialization
+        static HashingStorage intersectGeneric(LongHashingStorage self, HashingStorage other,
+                        @CachedLibrary("self") HashingStorageLibrary libSelf,
+                        @Cached IntersectInjectionNode injectNode) {
+            return libSelf.injectInto(self, new HashingStorage[]{other, EmptyStorage.INSTANCE}, injectNode)[1];
+        }
+    }
+
+    @ExportMessage
+    static class DiffWithState {
+        @Specialization
+        static HashingStorage diffSameType(LongHashingStorage self, LongHashingStorage other, @SuppressWarnings("unused") ThreadState state) {
+            LongHashingStorage result = new LongHashingStorage(self.size);
+            for (int i = 0; i < self.used; i++) {
+                if (self.isLive(i) && !other.contains(self.keys[i])) {
+                    result.append(self.keys[i], self.valueAt(i));
+                }
+            }
+            return result;
+        }
+
+        @Specialization
+        static HashingStorage diffGeneric(LongHashingStorage self, HashingStorage other, @SuppressWarnings("unused") ThreadState state,
+                        @CachedLibrary("self") HashingStorageLibrary libSelf,
+                        @Cached DiffInjectNode diffNode) {
+            return libSelf.injectInto(self, new HashingStorage[]{self, other, EmptyStorage.INSTANCE}, diffNode)[2];
+        }
+    }
+
+    @ExportMessage
+    public HashingStorage union(HashingStorage other,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary otherLib) {
+        return otherLib.addAllToOther(other, new LongHashingStorage(this));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage clear() {
+        allocate(INITIAL_CAPACITY);
+        return this;
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage copy() {
+        return new LongHashingStorage(this);
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> keys() {
+        return new HashingStorageIterable<>(new KeysIterator(this, false));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> reverseKeys() {
+        return new HashingStorageIterable<>(new KeysIterator(this, true));
+    }
+}
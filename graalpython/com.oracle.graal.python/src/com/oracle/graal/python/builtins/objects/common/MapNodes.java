@@ -98,6 +98,11 @@ public abstract class MapNodes {
         int iterState(DynamicObjectStorage.EntriesIterator iterator) {
             return iterator.getState();
         }
+
+        @Specialization
+        int iterState(IndexedHashingStorage.KeysIterator iterator) {
+            return iterator.getState();
+        }
     }
 
     @GenerateNodeFactory
@@ -150,6 +155,11 @@ public abstract class MapNodes {
         void iterState(DynamicObjectStorage.EntriesIterator iterator, int state) {
             iterator.setState(state);
         }
+
+        @Specialization
+        void iterState(IndexedHashingStorage.KeysIterator iterator, int state) {
+            iterator.setState(state);
+        }
     }
 
 }
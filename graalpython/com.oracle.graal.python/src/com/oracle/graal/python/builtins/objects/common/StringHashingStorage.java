@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Hashing storage specialized for dictionaries and sets whose keys are all builtin strings. The
+ * keys and their hashes are kept in parallel arrays. Comparing the cached hashes first means that
+ * a lookup with a string key only calls {@link String#equals(Object)} on a likely hit and never
+ * allocates. See {@link IndexedHashingStorage} for the layout of the entries.
+ *
+ * Keys that are not builtin strings can still be looked up by calling their {@code __hash__} and
+ * {@code __eq__} against the candidate entries. Storing such a key generalizes this storage to
+ * {@link EconomicMapStorage}.
+ */
+@ExportLibrary(HashingStorageLibrary.class)
+public final class StringHashingStorage extends IndexedHashingStorage {
+    private String[] keys;
+    private int[] hashes;
+
+    public StringHashingStorage(int expectedSize) {
+        allocate(Math.max(INITIAL_CAPACITY, expectedSize));
+    }
+
+    public StringHashingStorage() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private StringHashingStorage(StringHashingStorage original) {
+        this(original.size);
+        for (int i = 0; i < original.used; i++) {
+            if (original.isLive(i)) {
+                append(original.keys[i], original.hashes[i], original.valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    void allocateKeys(int newCapacity) {
+        keys = new String[newCapacity];
+        hashes = new int[newCapacity];
+    }
+
+    @Override
+    void compactKeys(int newCapacity, long[] oldRemoved, int oldUsed) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        allocateKeys(newCapacity);
+        int j = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (isLive(oldRemoved, i)) {
+                keys[j] = oldKeys[i];
+                hashes[j++] = oldHashes[i];
+            }
+        }
+    }
+
+    @Override
+    long hashAt(int index) {
+        return hashes[index];
+    }
+
+    @Override
+    Object getKeys() {
+        return keys;
+    }
+
+    @Override
+    Object getKey(Object keyArray, int index) {
+        return ((String[]) keyArray)[index];
+    }
+
+    /**
+     * Same as {@link PyObjectHashNode#hash(String)}, but without the boundary. The hash code is
+     * cached in the string, so this is cheap after the first call.
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h == -1 ? -2 : h;
+    }
+
+    private int findIndex(String key, int keyHash) {
+        int[] table = getTable();
+        int mask = table.length - 1;
+        int slot = slotOf(keyHash, mask);
+        while (true) {
+            int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (hashes[index] == keyHash && isLive(index)) {
+                String candidate = keys[index];
+                if (candidate == key || candidate.equals(key)) {
+                    return index;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void append(String key, int keyHash, Object value) {
+        int index = nextIndex();
+        keys[index] = key;
+        hashes[index] = keyHash;
+        addEntry(index, value);
+    }
+
+    public void put(String key, Object value) {
+        put(key, hash(key), value);
+    }
+
+    private void put(String key, int keyHash, Object value) {
+        assert value != null;
+        int index = findIndex(key, keyHash);
+        if (index >= 0) {
+            setValueAt(index, value);
+        } else {
+            append(key, keyHash, value);
+        }
+    }
+
+    private Object get(String key) {
+        int index = findIndex(key, hash(key));
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    private void remove(String key) {
+        int index = findIndex(key, hash(key));
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    static boolean isSupportedKey(Object obj, IsBuiltinClassProfile isBuiltinClassProfile) {
+        return PGuards.isBuiltinString(obj, isBuiltinClassProfile);
+    }
+
+    @ExportMessage
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @ExportMessage
+    static class GetItemWithState {
+        @Specialization
+        static Object getItemString(StringHashingStorage self, String key, @SuppressWarnings("unused") ThreadState state) {
+            return self.get(key);
+        }
+
+        @Specialization(replaces = "getItemString", guards = "isSupportedKey(key, profile)")
+        static Object getItem(StringHashingStorage self, Object key, @SuppressWarnings("unused") ThreadState state,
+                        @Shared("castNode") @Cached CastToJavaStringNode castNode,
+                        @Shared("classProfile") @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile) {
+            return self.get(castNode.execute(key));
+        }
+
+        @Specialization(guards = "!isSupportedKey(key, profile)", limit = "1")
+        static Object getItemNotSupportedKey(StringHashingStorage self, Object key, ThreadState state,
+                        @Shared("classProfile") @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int index = self.findIndexGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            return index >= 0 ? self.valueAt(index) : null;
+        }
+    }
+
+    @ExportMessage
+    static class SetItemWithState {
+        @Specialization
+        static HashingStorage setItemString(StringHashingStorage self, String key, Object value, @SuppressWarnings("unused") ThreadState state) {
+            self.put(key, value);
+            return self;
+        }
+
+        @Specialization(replaces = "setItemString", guards = "isSupportedKey(key, profile)")
+        static HashingStorage setItem(StringHashingStorage self, Object key, Object value, @SuppressWarnings("unused") ThreadState state,
+                        @Shared("castNode") @Cached CastToJavaStringNode castNode,
+                        @Shared("classProfile") @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile) {
+            self.put(castNode.execute(key), value);
+            return self;
+        }
+
+        @Specialization(guards = "!isSupportedKey(key, profile)", limit = "3")
+        static HashingStorage setItemNotSupportedKey(StringHashingStorage self, Object key, Object value, ThreadState state,
+                        @Shared("classProfile") @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile,
+                        @CachedLibrary("self") HashingStorageLibrary thisLib,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary newLib) {
+            HashingStorage newStore = EconomicMapStorage.create(self.length());
+            newStore = thisLib.addAllToOther(self, newStore);
+            return newLib.setItemWithState(newStore, key, value, state);
+        }
+    }
+
+    @ExportMessage
+    static class DelItemWithState {
+        @Specialization
+        static HashingStorage delItemString(StringHashingStorage self, String key, @SuppressWarnings("unused") ThreadState state) {
+            self.remove(key);
+            return self;
+        }
+
+        @Specialization(replaces = "delItemString", guards = "isSupportedKey(key, profile)")
+        static HashingStorage delItem(StringHashingStorage self, Object key, @SuppressWarnings("unused") ThreadState state,
+                        @Shared("castNode") @Cached CastToJavaStringNode castNode,
+                        @Shared("classProfile") @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile) {
+            self.remove(castNode.execute(key));
+            return self;
+        }
+
+        @Specialization(guards = "!isSupportedKey(key, profile)", limit = "1")
+        static HashingStorage delItemNotSupportedKey(StringHashingStorage self, Object key, ThreadState state,
+                        @Shared("classProfile") @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int index = self.findIndexGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            if (index >= 0) {
+                self.removeAt(index);
+            }
+            return self;
+        }
+    }
+
+    @ExportMessage
+    @Override
+    Object forEachUntyped(ForEachNode<Object> node, Object argIn) {
+        Object arg = argIn;
+        String[] k = keys;
+        int n = used;
+        for (int i = 0; i < n; i++) {
+            if (isLive(i)) {
+                arg = node.execute(k[i], arg);
+            }
+        }
+        return arg;
+    }
+
+    @ExportMessage
+    static class AddAllToOther {
+        @Specialization
+        static HashingStorage addAllToSameType(StringHashingStorage self, StringHashingStorage other) {
+            for (int i = 0; i < self.used; i++) {
+                if (self.isLive(i)) {
+                    other.put(self.keys[i], self.hashes[i], self.valueAt(i));
+                }
+            }
+            return other;
+        }
+
+        @Specialization
+        static HashingStorage addAllToGeneric(StringHashingStorage self, HashingStorage other,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary otherLib) {
+            HashingStorage result = other;
+            for (int i = 0; i < self.used; i++) {
+                if (self.isLive(i)) {
+                    result = otherLib.setItem(result, self.keys[i], self.valueAt(i));
+                }
+            }
+            return result;
+        }
+    }
+
+    @ExportMessage
+    static class Intersect {
+        @Specialization
+        static HashingStorage intersectSameType(StringHashingStorage self, StringHashingStorage other) {
+            // probe the larger storage with the keys of the smaller one
+            StringHashingStorage small = self.size <= other.size ? self : other;
+            StringHashingStorage large = small == self ? other : self;
+            StringHashingStorage result = new StringHashingStorage(small.size);
+            for (int i = 0; i < small.used; i++) {
+                if (small.isLive(i)) {
+                    int j = large.findIndex(small.keys[i], small.hashes[i]);
+                    if (j >= 0) {
+                        result.append(small.keys[i], small.hashes[i], small == other ? small.valueAt(i) : large.valueAt(j));
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Specialization
+        static HashingStorage intersectGeneric(StringHashingStorage self, HashingStorage other,
+                        @CachedLibrary("self") HashingStorageLibrary libSelf,
+                        @Cached IntersectInjectionNode injectNode) {
+            return libSelf.injectInto(self, new HashingStorage[]{other, EmptyStorage.INSTANCE}, injectNode)[1];
+        }
+    }
+
+    @ExportMessage
+    static class DiffWithState {
+        @Specialization
+        static HashingStorage diffSameType(StringHashingStorage self, StringHashingStorage other, @SuppressWarnings("unused") ThreadState state) {
+            StringHashingStorage result = new StringHashingStorage(self.size);
+            for (int i = 0; i < self.used; i++) {
+                if (self.isLive(i) && other.findIndex(self.keys[i], self.hashes[i]) < 0) {
+                    result.append(self.keys[i], self.hashes[i], self.valueAt(i));
+                }
+            }
+            return result;
+        }
+
+        @Specialization
+        static HashingStorage diffGeneric(StringHashingStorage self, HashingStorage other, @SuppressWarnings("unused") ThreadState state,
+                        @CachedLibrary("self") HashingStorageLibrary libSelf,
+                        @Cached DiffInjectNode diffNode) {
+            return libSelf.injectInto(self, new HashingStorage[]{self, other, EmptyStorage.INSTANCE}, diffNode)[2];
+        }
+    }
+
+    @ExportMessage
+    public HashingStorage union(HashingStorage other,
+                    @CachedLibrary(limit = "2") HashingStorageLibrary otherLib) {
+        return otherLib.addAllToOther(other, new StringHashingStorage(this));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage clear() {
+        allocate(INITIAL_CAPACITY);
+        return this;
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage copy() {
+        return new StringHashingStorage(this);
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> keys() {
+        return new HashingStorageIterable<>(new KeysIterator(this, false));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> reverseKeys() {
+        return new HashingStorageIterable<>(new KeysIterator(this, true));
+    }
+}
@@ -33,11 +33,12 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
-import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.KeywordsStorage;
+import com.oracle.graal.python.builtins.objects.common.LongHashingStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
+import com.oracle.graal.python.builtins.objects.common.StringHashingStorage;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
 import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
@@ -98,13 +99,24 @@ public class PDict extends PHashingCollection {
         if (expectedSize == 0) {
             newDictStorage = EmptyStorage.INSTANCE;
         } else if (isStringKey) {
-            newDictStorage = new HashMapStorage(expectedSize);
+            newDictStorage = new StringHashingStorage(expectedSize);
         } else {
             newDictStorage = EconomicMapStorage.create(expectedSize);
         }
         return newDictStorage;
     }
 
+    /**
+     * Like {@link #createNewStorage(boolean, int)}, but also picks the storage specialized for
+     * integer keys if {@code firstKey} is a {@code long} or {@code int}.
+     */
+    public static HashingStorage createNewStorageForKey(Object firstKey, int expectedSize) {
+        if (firstKey instanceof Long || firstKey instanceof Integer) {
+            return new LongHashingStorage(expectedSize);
+        }
+        return createNewStorage(firstKey instanceof String, expectedSize);
+    }
+
     public void update(PDict other) {
         storage = HashingStorageLibrary.getUncached().addAllToOther(other.getDictStorage(), storage);
     }
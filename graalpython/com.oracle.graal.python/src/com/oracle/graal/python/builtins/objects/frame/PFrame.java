@@ -67,6 +67,11 @@ public final class PFrame extends PythonBuiltinObject {
     private int line = -2;
     private int lasti = -1;
 
+    // the local trace function ('f_trace') and the position of the last traced statement
+    private Object localTraceFunction;
+    private int traceLine = -1;
+    private int traceCharIndex = -1;
+
     private PFrame.Reference backref = null;
 
     // TODO: frames: this is a large object, think about how to make this
@@ -296,10 +301,34 @@ public final class PFrame extends PythonBuiltinObject {
         this.arguments = arguments2;
     }
 
+    public Node getLocation() {
+        return location;
+    }
+
     public void setLocation(Node location) {
         this.location = location;
     }
 
+    public Object getLocalTraceFunction() {
+        return localTraceFunction;
+    }
+
+    public void setLocalTraceFunction(Object localTraceFunction) {
+        this.localTraceFunction = localTraceFunction;
+    }
+
+    /**
+     * Records the position of a statement that is about to be reported to the local trace function
+     * and returns {@code false} if a 'line' event for it would be redundant, i.e., if the statement
+     * follows the previously traced one on the same line.
+     */
+    public boolean updateTracePosition(int line, int charIndex) {
+        boolean newLine = line != traceLine || charIndex <= traceCharIndex;
+        traceLine = line;
+        traceCharIndex = charIndex;
+        return newLine;
+    }
+
     /**
      * Last bytecode instruction. Since we don't have bytecode this is -1 by default, but can be set
      * to a different value to distinguish started generators from unstarted
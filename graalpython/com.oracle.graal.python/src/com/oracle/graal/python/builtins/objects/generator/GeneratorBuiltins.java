@@ -139,7 +139,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
     }
 
     @ImportStatic({PGuards.class, PythonOptions.class})
-    abstract static class ResumeGeneratorNode extends Node {
+    public abstract static class ResumeGeneratorNode extends Node {
         public abstract Object execute(VirtualFrame frame, PGenerator self, Object sendValue);
 
         @Specialization(guards = "sameCallTarget(self.getCurrentCallTarget(), call.getCallTarget())", limit = "getCallSiteInlineCacheMaxDepth()")
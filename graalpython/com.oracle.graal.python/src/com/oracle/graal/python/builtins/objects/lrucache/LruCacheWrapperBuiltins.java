@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.lrucache;
+
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__QUALNAME__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GET__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.lrucache.PLruCacheWrapper.Link;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.CallVarargsMethodNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PLruCacheWrapper)
+public class LruCacheWrapperBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return LruCacheWrapperBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Equivalent of {@code lru_cache_make_key}. A single positional argument of exactly type
+     * {@code int} or {@code str} is its own key, other positional-only calls use a tuple of the
+     * arguments. Keyword arguments and the argument types (if {@code typed}) are appended after a
+     * marker object.
+     */
+    abstract static class MakeKeyNode extends Node {
+        abstract Object execute(PLruCacheWrapper self, Object[] args, PKeyword[] keywords);
+
+        @Specialization(guards = {"keywords.length == 0", "!self.isTyped()"})
+        static Object positional(@SuppressWarnings("unused") PLruCacheWrapper self, Object[] args, @SuppressWarnings("unused") PKeyword[] keywords,
+                        @Cached ConditionProfile singleArgProfile,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isIntProfile,
+                        @Cached IsBuiltinClassProfile isStrProfile,
+                        @Cached PythonObjectFactory factory) {
+            if (singleArgProfile.profile(args.length == 1)) {
+                Object arg = args[0];
+                Object argClass = getClassNode.execute(arg);
+                if (isIntProfile.profileClass(argClass, PythonBuiltinClassType.PInt) || isStrProfile.profileClass(argClass, PythonBuiltinClassType.PString)) {
+                    return arg;
+                }
+            }
+            return factory.createTuple(PythonUtils.arrayCopyOf(args, args.length));
+        }
+
+        @Specialization(guards = "keywords.length > 0 || self.isTyped()")
+        static Object generic(PLruCacheWrapper self, Object[] args, PKeyword[] keywords,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PythonObjectFactory factory) {
+            boolean typed = self.isTyped();
+            int size = args.length;
+            if (keywords.length > 0) {
+                size += 1 + 2 * keywords.length;
+            }
+            if (typed) {
+                size += args.length + keywords.length;
+            }
+            Object[] key = new Object[size];
+            PythonUtils.arraycopy(args, 0, key, 0, args.length);
+            int i = args.length;
+            if (keywords.length > 0) {
+                key[i++] = self.getKwdMark();
+                for (PKeyword keyword : keywords) {
+                    key[i++] = keyword.getName();
+                    key[i++] = keyword.getValue();
+                }
+            }
+            if (typed) {
+                for (Object arg : args) {
+                    key[i++] = getClassNode.execute(arg);
+                }
+                for (PKeyword keyword : keywords) {
+                    key[i++] = getClassNode.execute(keyword.getValue());
+                }
+            }
+            assert i == size;
+            return factory.createTuple(key);
+        }
+    }
+
+    @Builtin(name = __CALL__, minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class LruCacheCallNode extends PythonVarargsBuiltinNode {
+
+        @Specialization(guards = "self.isUncached()")
+        static Object uncached(VirtualFrame frame, PLruCacheWrapper self, Object[] args, PKeyword[] keywords,
+                        @Cached CallVarargsMethodNode callNode) {
+            self.incrementMisses();
+            return callNode.execute(frame, self.getFunction(), args, keywords);
+        }
+
+        @Specialization(guards = "self.isUnbounded()")
+        static Object unbounded(VirtualFrame frame, PLruCacheWrapper self, Object[] args, PKeyword[] keywords,
+                        @Cached MakeKeyNode makeKeyNode,
+                        @Cached ConditionProfile hasFrame,
+                        @Cached ConditionProfile hitProfile,
+                        @Cached CallVarargsMethodNode callNode,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
+            Object key = makeKeyNode.execute(self, args, keywords);
+            Object result = lib.getItemWithFrame(self.getCache(), key, hasFrame, frame);
+            if (hitProfile.profile(result != null)) {
+                self.incrementHits();
+                return result;
+            }
+            self.incrementMisses();
+            result = callNode.execute(frame, self.getFunction(), args, keywords);
+            self.setCache(lib.setItemWithFrame(self.getCache(), key, result, hasFrame, frame));
+            return result;
+        }
+
+        @Specialization(guards = "self.isBounded()")
+        static Object bounded(VirtualFrame frame, PLruCacheWrapper self, Object[] args, PKeyword[] keywords,
+                        @Cached MakeKeyNode makeKeyNode,
+                        @Cached ConditionProfile hasFrame,
+                        @Cached ConditionProfile hitProfile,
+                        @Cached ConditionProfile fullProfile,
+                        @Cached CallVarargsMethodNode callNode,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
+            Object key = makeKeyNode.execute(self, args, keywords);
+            Object found = lib.getItemWithFrame(self.getCache(), key, hasFrame, frame);
+            if (hitProfile.profile(found != null)) {
+                Link link = (Link) found;
+                self.moveToEnd(link);
+                self.incrementHits();
+                return link.result;
+            }
+            self.incrementMisses();
+            Object result = callNode.execute(frame, self.getFunction(), args, keywords);
+            if (lib.hasKeyWithFrame(self.getCache(), key, hasFrame, frame)) {
+                // the same key was added to the cache during the call
+                return result;
+            }
+            if (fullProfile.profile(lib.length(self.getCache()) >= self.getMaxSize() && self.hasLinks())) {
+                Link oldest = self.removeOldest();
+                self.setCache(lib.delItemWithFrame(self.getCache(), oldest.key, hasFrame, frame));
+            }
+            Link link = self.append(key, result);
+            self.setCache(lib.setItemWithFrame(self.getCache(), key, link, hasFrame, frame));
+            return result;
+        }
+    }
+
+    @Builtin(name = __GET__, minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class GetNode extends PythonTernaryBuiltinNode {
+        @Specialization(guards = "isNone(instance)")
+        static Object getUnbound(PLruCacheWrapper self, @SuppressWarnings("unused") Object instance, @SuppressWarnings("unused") Object owner) {
+            return self;
+        }
+
+        @Specialization(guards = "!isNone(instance)")
+        Object getMethod(PLruCacheWrapper self, Object instance, @SuppressWarnings("unused") Object owner) {
+            return factory().createMethod(instance, self);
+        }
+    }
+
+    @Builtin(name = "cache_info", minNumOfPositionalArgs = 1, doc = "Report cache statistics")
+    @GenerateNodeFactory
+    abstract static class CacheInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object cacheInfo(VirtualFrame frame, PLruCacheWrapper self,
+                        @Cached CallNode callNode,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
+            return callNode.execute(frame, self.getCacheInfoType(), self.getHits(), self.getMisses(), self.getMaxSizeObj(), lib.length(self.getCache()));
+        }
+    }
+
+    @Builtin(name = "cache_clear", minNumOfPositionalArgs = 1, doc = "Clear the cache and cache statistics")
+    @GenerateNodeFactory
+    abstract static class CacheClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object cacheClear(PLruCacheWrapper self) {
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object reduce(VirtualFrame frame, PLruCacheWrapper self,
+                        @Cached PyObjectGetAttr getAttr) {
+            return getAttr.execute(frame, self, __QUALNAME__);
+        }
+    }
+
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object copy(PLruCacheWrapper self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object deepcopy(PLruCacheWrapper self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.lrucache;
+
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code functools._lru_cache_wrapper} object. In the bounded case, the cache maps keys to
+ * {@link Link}s that also form a circular doubly-linked list ordered from the least to the most
+ * recently used entry, just like {@code lru_cache_object} in CPython's {@code _functoolsmodule.c}.
+ * In the unbounded case, the cache maps keys to the results directly.
+ */
+public final class PLruCacheWrapper extends PythonBuiltinObject {
+    static final class Link {
+        Link prev;
+        Link next;
+        Object key;
+        Object result;
+    }
+
+    private final Object function;
+    private final Object cacheInfoType;
+    /* -1 if the cache is unbounded */
+    private final int maxSize;
+    /* the maxsize argument as given, reported by cache_info() */
+    private final Object maxSizeObj;
+    private final boolean typed;
+    /* separates the positional from the keyword arguments in the keys */
+    private final Object kwdMark;
+
+    private HashingStorage cache = EconomicMapStorage.create();
+    private final Link root = new Link();
+    private long hits;
+    private long misses;
+
+    public PLruCacheWrapper(Object cls, Shape instanceShape, Object function, int maxSize, Object maxSizeObj, boolean typed, Object cacheInfoType, Object kwdMark) {
+        super(cls, instanceShape);
+        this.function = function;
+        this.maxSize = maxSize;
+        this.maxSizeObj = maxSizeObj;
+        this.typed = typed;
+        this.cacheInfoType = cacheInfoType;
+        this.kwdMark = kwdMark;
+        root.prev = root;
+        root.next = root;
+    }
+
+    public Object getFunction() {
+        return function;
+    }
+
+    public Object getCacheInfoType() {
+        return cacheInfoType;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public Object getMaxSizeObj() {
+        return maxSizeObj;
+    }
+
+    public boolean isUncached() {
+        return maxSize == 0;
+    }
+
+    public boolean isUnbounded() {
+        return maxSize < 0;
+    }
+
+    public boolean isBounded() {
+        return maxSize > 0;
+    }
+
+    public boolean isTyped() {
+        return typed;
+    }
+
+    Object getKwdMark() {
+        return kwdMark;
+    }
+
+    public HashingStorage getCache() {
+        return cache;
+    }
+
+    void setCache(HashingStorage cache) {
+        this.cache = cache;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    void incrementHits() {
+        hits++;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    void incrementMisses() {
+        misses++;
+    }
+
+    void clear() {
+        cache = EconomicMapStorage.create();
+        root.prev = root;
+        root.next = root;
+        hits = 0;
+        misses = 0;
+    }
+
+    boolean hasLinks() {
+        return root.next != root;
+    }
+
+    /**
+     * Appends a new entry as the most recently used one.
+     */
+    Link append(Object key, Object result) {
+        Link link = new Link();
+        link.key = key;
+        link.result = result;
+        link.prev = root.prev;
+        link.next = root;
+        root.prev.next = link;
+        root.prev = link;
+        return link;
+    }
+
+    /**
+     * Marks the entry as the most recently used one.
+     */
+    void moveToEnd(Link link) {
+        if (link.next == root) {
+            return;
+        }
+        link.prev.next = link.next;
+        link.next.prev = link.prev;
+        link.prev = root.prev;
+        link.next = root;
+        root.prev.next = link;
+        root.prev = link;
+    }
+
+    /**
+     * Unlinks and returns the least recently used entry.
+     */
+    Link removeOldest() {
+        assert hasLinks();
+        Link oldest = root.next;
+        root.next = oldest.next;
+        oldest.next.prev = root;
+        oldest.prev = null;
+        oldest.next = null;
+        return oldest;
+    }
+}
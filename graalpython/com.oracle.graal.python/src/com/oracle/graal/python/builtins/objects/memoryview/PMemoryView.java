@@ -55,8 +55,11 @@ import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.util.BufferFormat;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
@@ -355,6 +358,53 @@ public final class PMemoryView extends PythonBuiltinObject {
         return bufferLib.getInternalByteArray(buffer);
     }
 
+    @ExportMessage
+    boolean hasByteArrayRegion(
+                    @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
+        assert isCContiguous() && !isReleased();
+        return bufferLib.hasByteArrayRegion(buffer);
+    }
+
+    @ExportMessage
+    byte[] getByteArrayRegion(
+                    @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
+        assert hasByteArrayRegion(bufferLib);
+        return bufferLib.getByteArrayRegion(buffer);
+    }
+
+    @ExportMessage
+    int getByteArrayRegionOffset(
+                    @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
+        assert hasByteArrayRegion(bufferLib);
+        return bufferLib.getByteArrayRegionOffset(buffer) + offset;
+    }
+
+    @ExportMessage
+    boolean hasNativeAddress(
+                    @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                    @Shared("pointerLib") @CachedLibrary(limit = "1") InteropLibrary pointerLib) {
+        assert isCContiguous() && !isReleased();
+        if (bufPointer != null) {
+            return pointerLib.isPointer(bufPointer);
+        }
+        return bufferLib.hasNativeAddress(buffer);
+    }
+
+    @ExportMessage
+    long getNativeAddress(
+                    @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                    @Shared("pointerLib") @CachedLibrary(limit = "1") InteropLibrary pointerLib) {
+        assert hasNativeAddress(bufferLib, pointerLib);
+        if (bufPointer != null) {
+            try {
+                return pointerLib.asPointer(bufPointer) + offset;
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+        return bufferLib.getNativeAddress(buffer) + offset;
+    }
+
     @ExportMessage
     void readIntoByteArray(int srcOffset, byte[] dest, int destOffset, int length,
                     @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
@@ -380,7 +430,7 @@ public final class PMemoryView extends PythonBuiltinObject {
     byte readByte(int byteOffset,
                     @Shared("bufferLib") @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
         assert isCContiguous() && !isReleased();
-        return bufferLib.readByte(buffer, byteOffset);
+        return bufferLib.readByte(buffer, offset + byteOffset);
     }
 
     @ExportMessage
@@ -203,7 +203,7 @@ public class MMapBuiltins extends PythonBuiltins {
             assert len > 0;
             assert pos + len <= self.getLength();
             byte[] buffer = new byte[len];
-            posixLib.mmapReadBytes(node.getPosixSupport(), self.getPosixSupportHandle(), pos, buffer, buffer.length);
+            posixLib.mmapReadBytes(node.getPosixSupport(), self.getPosixSupportHandle(), pos, buffer, 0, buffer.length);
             return buffer;
         } catch (PosixException e) {
             throw node.raiseOSErrorFromPosixException(frame, e);
@@ -296,8 +296,11 @@ public class MMapBuiltins extends PythonBuiltins {
         }
 
         private void writeBuffer(VirtualFrame frame, PosixSupportLibrary posixSupportLib, PMMap mmap, long idx, byte[] bytes, int len) {
+            if (!mmap.isWriteable()) {
+                throw raise(TypeError, ErrorMessages.MMAP_CANNOT_MODIFY_READONLY_MEMORY);
+            }
             try {
-                posixSupportLib.mmapWriteBytes(getPosixSupport(), mmap.getPosixSupportHandle(), idx, bytes, len);
+                posixSupportLib.mmapWriteBytes(getPosixSupport(), mmap.getPosixSupportHandle(), idx, bytes, 0, len);
             } catch (PosixException ex) {
                 throw raiseOSErrorFromPosixException(frame, ex);
             }
@@ -482,7 +485,7 @@ public class MMapBuiltins extends PythonBuiltins {
             int nread;
             outer: while (self.getPos() < self.getLength()) {
                 try {
-                    nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), buffer, (int) Math.min(self.getRemaining(), buffer.length));
+                    nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), buffer, 0, (int) Math.min(self.getRemaining(), buffer.length));
                 } catch (PosixException e) {
                     throw raiseOSErrorFromPosixException(frame, e);
                 }
@@ -518,12 +521,20 @@ public class MMapBuiltins extends PythonBuiltins {
                 if (!self.isWriteable()) {
                     throw raise(TypeError, ErrorMessages.MMAP_CANNOT_MODIFY_READONLY_MEMORY);
                 }
-                byte[] dataBytes = bufferLib.getInternalOrCopiedByteArray(dataBuffer);
+                byte[] dataBytes;
+                int dataOffset;
+                if (bufferLib.hasByteArrayRegion(dataBuffer)) {
+                    dataBytes = bufferLib.getByteArrayRegion(dataBuffer);
+                    dataOffset = bufferLib.getByteArrayRegionOffset(dataBuffer);
+                } else {
+                    dataBytes = bufferLib.getCopiedByteArray(dataBuffer);
+                    dataOffset = 0;
+                }
                 int dataLen = bufferLib.getBufferLength(dataBuffer);
                 if (self.getPos() > self.getLength() || self.getLength() - self.getPos() < dataLen) {
                     throw raise(ValueError, ErrorMessages.DATA_OUT_OF_RANGE);
                 }
-                posixLib.mmapWriteBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), dataBytes, dataLen);
+                posixLib.mmapWriteBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), dataBytes, dataOffset, dataLen);
                 return dataLen;
             } catch (PosixException e) {
                 throw raiseOSErrorFromPosixException(frame, e);
@@ -649,7 +660,7 @@ public class MMapBuiltins extends PythonBuiltins {
             try {
                 long remaining = self.getLength() - index;
                 int toReadLen = remaining > buffer.length ? buffer.length : (int) remaining;
-                int nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), index, buffer, toReadLen);
+                int nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), index, buffer, 0, toReadLen);
                 if (toReadLen != nread) {
                     throw raise(PythonBuiltinClassType.SystemError, MMAP_CHANGED_LENGTH);
                 }
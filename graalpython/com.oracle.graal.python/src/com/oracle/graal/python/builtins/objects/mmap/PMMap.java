@@ -40,10 +40,15 @@
  */
 package com.oracle.graal.python.builtins.objects.mmap;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.BufferError;
+
+import com.oracle.graal.python.builtins.objects.buffer.BufferFlags;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
@@ -148,7 +153,92 @@ public final class PMMap extends PythonObject {
     }
 
     @ExportMessage
-    Object acquire(@SuppressWarnings("unused") int flags) {
+    void readIntoByteArray(int srcOffset, byte[] dest, int destOffset, int len,
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Cached BranchProfile gotException,
+                    @Cached PConstructAndRaiseNode raiseNode) {
+        try {
+            posixLib.mmapReadBytes(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), srcOffset, dest, destOffset, len);
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    @ExportMessage
+    boolean isReadonly() {
+        return !isWriteable();
+    }
+
+    @ExportMessage
+    void writeByte(int byteOffset, byte value,
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Cached BranchProfile gotException,
+                    @Cached PConstructAndRaiseNode raiseNode) {
+        try {
+            posixLib.mmapWriteByte(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), byteOffset, value);
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    @ExportMessage
+    void writeFromByteArray(int destOffset, byte[] src, int srcOffset, int len,
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Cached BranchProfile gotException,
+                    @Cached PConstructAndRaiseNode raiseNode) {
+        try {
+            posixLib.mmapWriteBytes(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), destOffset, src, srcOffset, len);
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    @ExportMessage
+    void readIntoBuffer(int srcOffset, Object dest, int destOffset, int len, PythonBufferAccessLibrary otherLib,
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Cached BranchProfile gotException,
+                    @Cached PConstructAndRaiseNode raiseNode) {
+        if (otherLib.hasByteArrayRegion(dest)) {
+            byte[] destArray = otherLib.getByteArrayRegion(dest);
+            readIntoByteArray(srcOffset, destArray, otherLib.getByteArrayRegionOffset(dest) + destOffset, len, posixLib, gotException, raiseNode);
+        } else {
+            otherLib.writeFromByteArray(dest, destOffset, readBytes(srcOffset, len, posixLib, gotException, raiseNode), 0, len);
+        }
+    }
+
+    private byte[] readBytes(int srcOffset, int len, PosixSupportLibrary posixLib, BranchProfile gotException, PConstructAndRaiseNode raiseNode) {
+        byte[] bytes = new byte[len];
+        readIntoByteArray(srcOffset, bytes, 0, len, posixLib, gotException, raiseNode);
+        return bytes;
+    }
+
+    /*
+     * Consumers that need a byte array (e.g. bytes(), re or bytes.find on an mmap) still get a copy
+     * from 'getInternalOrCopiedByteArray', but those that can work with native memory can access
+     * the mapping of the native backend directly.
+     */
+    @ExportMessage
+    boolean hasNativeAddress(
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib) {
+        return handle != null && posixLib.mmapGetPointer(PythonContext.get(posixLib).getPosixSupport(), handle) != 0;
+    }
+
+    @ExportMessage
+    long getNativeAddress(
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib) {
+        assert handle != null;
+        return posixLib.mmapGetPointer(PythonContext.get(posixLib).getPosixSupport(), handle);
+    }
+
+    @ExportMessage
+    Object acquire(int flags,
+                    @Cached PRaiseNode raiseNode) {
+        if ((flags & BufferFlags.PyBUF_WRITABLE) != 0 && !isWriteable()) {
+            throw raiseNode.raise(BufferError, ErrorMessages.OBJ_IS_NOT_WRITABLE);
+        }
         return this;
     }
 
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.EINTR;
+import static com.oracle.graal.python.builtins.objects.select.PEpoll.INVALID_FD;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLPRI;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_ADD;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_DEL;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_MOD;
+import static com.oracle.graal.python.runtime.PosixConstants.FD_SETSIZE;
+import static com.oracle.graal.python.util.TimeUtils.SEC_TO_NS;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
+import com.oracle.graal.python.lib.PyTimeFromObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PEpoll)
+public class EpollBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return EpollBuiltinsFactory.getFactories();
+    }
+
+    private static int checkOpen(PythonBuiltinBaseNode node, PEpoll self) {
+        if (self.isClosed()) {
+            throw node.raise(ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL_OBJECT);
+        }
+        return self.getEpfd();
+    }
+
+    /**
+     * Like CPython's {@code unsigned int} bitwise conversion, out-of-range event masks are
+     * truncated instead of raising an error.
+     */
+    private static int asEventMask(VirtualFrame frame, Object eventMask, PyLongAsLongNode asLongNode) {
+        return (int) asLongNode.execute(frame, eventMask);
+    }
+
+    private static void closeEpoll(PythonBuiltinBaseNode node, VirtualFrame frame, PEpoll self, PosixSupportLibrary posixLib, GilNode gil) {
+        int fd = self.markClosed();
+        if (fd != INVALID_FD) {
+            try {
+                gil.release(true);
+                try {
+                    posixLib.close(node.getPosixSupport(), fd);
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                throw node.raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    private static void ctl(PythonBuiltinBaseNode node, VirtualFrame frame, PEpoll self, int op, Object fd, int eventMask, PyObjectAsFileDescriptor asFileDescriptor, PosixSupportLibrary posixLib) {
+        int epfd = checkOpen(node, self);
+        int fdValue = asFileDescriptor.execute(frame, fd);
+        try {
+            posixLib.epollCtl(node.getPosixSupport(), epfd, op, fdValue, eventMask);
+        } catch (PosixException e) {
+            throw node.raiseOSErrorFromPosixException(frame, e);
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object close(VirtualFrame frame, PEpoll self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil) {
+            closeEpoll(this, frame, self, posixLib, gil);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean closed(PEpoll self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FilenoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int fileno(PEpoll self) {
+            return checkOpen(this, self);
+        }
+    }
+
+    @Builtin(name = "fromfd", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "fd"}, isClassmethod = true)
+    @ArgumentClinic(name = "fd", conversion = ArgumentClinic.ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FromFdNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization
+        Object fromfd(Object cls, int fd) {
+            return factory().createEpoll(cls, getContext(), fd);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.FromFdNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object register(VirtualFrame frame, PEpoll self, Object fd, Object eventMask,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @Cached PyLongAsLongNode asLongNode) {
+            int mask;
+            if (eventMask == PNone.NO_VALUE) {
+                mask = EPOLLIN.getValueIfDefined() | EPOLLPRI.getValueIfDefined() | EPOLLOUT.getValueIfDefined();
+            } else {
+                mask = asEventMask(frame, eventMask, asLongNode);
+            }
+            ctl(this, frame, self, EPOLL_CTL_ADD.getValueIfDefined(), fd, mask, asFileDescriptor, posixLib);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object modify(VirtualFrame frame, PEpoll self, Object fd, Object eventMask,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @Cached PyLongAsLongNode asLongNode) {
+            ctl(this, frame, self, EPOLL_CTL_MOD.getValueIfDefined(), fd, asEventMask(frame, eventMask, asLongNode), asFileDescriptor, posixLib);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object unregister(VirtualFrame frame, PEpoll self, Object fd,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor) {
+            ctl(this, frame, self, EPOLL_CTL_DEL.getValueIfDefined(), fd, 0, asFileDescriptor, posixLib);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout", "maxevents"})
+    @ArgumentClinic(name = "maxevents", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization
+        PList poll(VirtualFrame frame, PEpoll self, Object timeout, int maxEventsIn,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @Cached GilNode gil) {
+            int epfd = checkOpen(this, self);
+            int timeoutMs = -1;
+            if (!PGuards.isPNone(timeout)) {
+                timeoutMs = PollBuiltins.timeoutToMs(this, pyTimeFromObjectNode.execute(frame, timeout, SEC_TO_NS));
+            }
+            int maxEvents = maxEventsIn;
+            if (maxEvents == -1) {
+                maxEvents = FD_SETSIZE.value - 1;
+            } else if (maxEvents <= 0) {
+                throw raise(ValueError, ErrorMessages.MAXEVENTS_MUST_BE_GREATER_THAN_0_GOT_D, maxEvents);
+            }
+            int[] fds = new int[maxEvents];
+            int[] events = new int[maxEvents];
+            int count;
+            long deadline = PollBuiltins.deadline(timeoutMs);
+            while (true) {
+                try {
+                    gil.release(true);
+                    try {
+                        count = posixLib.epollWait(getPosixSupport(), epfd, fds, events, PollBuiltins.remainingMs(timeoutMs, deadline));
+                    } finally {
+                        gil.acquire();
+                    }
+                    break;
+                } catch (PosixException e) {
+                    if (e.getErrorCode() == EINTR.getNumber()) {
+                        PythonContext.triggerAsyncActions(this);
+                        continue;
+                    }
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            }
+            Object[] result = new Object[count];
+            for (int i = 0; i < count; i++) {
+                // event masks are unsigned, EPOLLET is the sign bit
+                result[i] = factory().createTuple(new Object[]{fds[i], events[i] & 0xFFFFFFFFL});
+            }
+            return factory().createList(result);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.PollNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = __ENTER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object enter(PEpoll self) {
+            checkOpen(this, self);
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+        @Specialization
+        Object exit(VirtualFrame frame, PEpoll self, @SuppressWarnings("unused") Object[] args,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil) {
+            closeEpoll(this, frame, self, posixLib, gil);
+            return PNone.NONE;
+        }
+    }
+}
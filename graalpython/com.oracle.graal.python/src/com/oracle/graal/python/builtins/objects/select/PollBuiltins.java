@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.KeyError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.EINTR;
+import static com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.ENOENT;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLPRI;
+import static com.oracle.graal.python.util.TimeUtils.MS_TO_NS;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
+import com.oracle.graal.python.lib.PyTimeFromObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PPoll)
+public class PollBuiltins extends PythonBuiltins {
+
+    private static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PollBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Converts a timeout in nanoseconds to the milliseconds expected by poll(2) and epoll_wait(2),
+     * rounding up so that the call never returns before the requested time has elapsed. A negative
+     * timeout is passed on as {@code -1}, i.e., an infinite timeout.
+     */
+    static int timeoutToMs(PNodeWithRaise node, long timeoutNs) {
+        if (timeoutNs < 0) {
+            return -1;
+        }
+        long ms = timeoutNs / MS_TO_NS + (timeoutNs % MS_TO_NS != 0 ? 1 : 0);
+        if (ms > Integer.MAX_VALUE) {
+            throw node.raise(OverflowError, ErrorMessages.TIMEOUT_IS_TOO_LARGE);
+        }
+        return (int) ms;
+    }
+
+    /**
+     * Computes the deadline used to recompute the remaining timeout when the call is interrupted
+     * by a signal.
+     */
+    @TruffleBoundary
+    static long deadline(int timeoutMs) {
+        return timeoutMs > 0 ? System.nanoTime() + timeoutMs * MS_TO_NS : 0;
+    }
+
+    @TruffleBoundary
+    static int remainingMs(int timeoutMs, long deadline) {
+        if (timeoutMs <= 0) {
+            return timeoutMs;
+        }
+        long remaining = deadline - System.nanoTime();
+        return remaining <= 0 ? 0 : (int) (remaining / MS_TO_NS + (remaining % MS_TO_NS != 0 ? 1 : 0));
+    }
+
+    private static int asEventMask(PNodeWithRaise node, long value) {
+        if (value < 0) {
+            throw node.raise(OverflowError, ErrorMessages.CANT_CONVERT_NEGATIVE_INT_TO_UNSIGNED);
+        }
+        if (value > MAX_UNSIGNED_SHORT) {
+            throw node.raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "C unsigned short");
+        }
+        return (int) value;
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object register(VirtualFrame frame, PPoll self, Object fd, Object eventMask,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @Cached PyLongAsLongNode asLongNode) {
+            int fdValue = asFileDescriptor.execute(frame, fd);
+            int mask;
+            if (eventMask == PNone.NO_VALUE) {
+                mask = POLLIN.value | POLLPRI.value | POLLOUT.value;
+            } else {
+                mask = asEventMask(this, asLongNode.execute(frame, eventMask));
+            }
+            self.register(fdValue, mask);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object modify(VirtualFrame frame, PPoll self, Object fd, Object eventMask,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @Cached PyLongAsLongNode asLongNode) {
+            int fdValue = asFileDescriptor.execute(frame, fd);
+            int mask = asEventMask(this, asLongNode.execute(frame, eventMask));
+            if (!self.modify(fdValue, mask)) {
+                throw raiseOSError(frame, ENOENT);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object unregister(VirtualFrame frame, PPoll self, Object fd,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor) {
+            int fdValue = asFileDescriptor.execute(frame, fd);
+            if (!self.unregister(fdValue)) {
+                throw raise(KeyError, new Object[]{fdValue});
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout"})
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PList poll(VirtualFrame frame, PPoll self, Object timeout,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @Cached GilNode gil) {
+            int timeoutMs = -1;
+            if (!PGuards.isPNone(timeout)) {
+                timeoutMs = timeoutToMs(this, pyTimeFromObjectNode.execute(frame, timeout, MS_TO_NS));
+            }
+            if (self.isPollRunning()) {
+                throw raise(RuntimeError, ErrorMessages.CONCURRENT_POLL_INVOCATION);
+            }
+            int[] fds = self.getFds();
+            int[] revents;
+            self.setPollRunning(true);
+            try {
+                long deadline = deadline(timeoutMs);
+                while (true) {
+                    try {
+                        gil.release(true);
+                        try {
+                            revents = posixLib.poll(getPosixSupport(), fds, self.getEvents(), remainingMs(timeoutMs, deadline));
+                        } finally {
+                            gil.acquire();
+                        }
+                        break;
+                    } catch (PosixException e) {
+                        if (e.getErrorCode() == EINTR.getNumber()) {
+                            PythonContext.triggerAsyncActions(this);
+                            continue;
+                        }
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            } finally {
+                self.setPollRunning(false);
+            }
+            int count = 0;
+            for (int i = 0; i < revents.length; i++) {
+                if (revents[i] != 0) {
+                    count++;
+                }
+            }
+            Object[] result = new Object[count];
+            int j = 0;
+            for (int i = 0; i < revents.length; i++) {
+                if (revents[i] != 0) {
+                    result[j++] = factory().createTuple(new Object[]{fds[i], revents[i]});
+                }
+            }
+            return factory().createList(result);
+        }
+    }
+}
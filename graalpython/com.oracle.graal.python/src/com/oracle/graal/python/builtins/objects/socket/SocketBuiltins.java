@@ -41,6 +41,7 @@
 package com.oracle.graal.python.builtins.objects.socket;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImplementedError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OSError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
@@ -64,12 +65,14 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.BufferSegments;
 import com.oracle.graal.python.builtins.modules.SocketModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.socket.SocketUtils.TimeoutHelper;
@@ -77,6 +80,7 @@ import com.oracle.graal.python.lib.PyLongAsIntNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
@@ -91,6 +95,7 @@ import com.oracle.graal.python.runtime.PosixConstants;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddrLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -659,32 +664,35 @@ public class SocketBuiltins extends PythonBuiltins {
 
                 checkSelectable(this, socket);
 
-                boolean directWrite = bufferLib.hasInternalByteArray(buffer);
+                boolean directWrite = bufferLib.hasByteArrayRegion(buffer);
                 byte[] bytes;
+                int offset;
                 if (directWrite) {
-                    bytes = bufferLib.getInternalByteArray(buffer);
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
                 } else {
                     try {
                         bytes = new byte[recvlen];
                     } catch (OutOfMemoryError error) {
                         throw raise(MemoryError);
                     }
+                    offset = 0;
                 }
 
                 final int len = recvlen;
                 try {
                     int outlen = SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
-                                    () -> posixLib.recv(getPosixSupport(), socket.getFd(), bytes, 0, len, flags),
+                                    () -> posixLib.recv(getPosixSupport(), socket.getFd(), bytes, offset, len, flags),
                                     false, false);
                     if (!directWrite) {
-                        bufferLib.readIntoByteArray(buffer, 0, bytes, 0, outlen);
+                        bufferLib.writeFromByteArray(buffer, 0, bytes, 0, outlen);
                     }
                     return outlen;
                 } catch (PosixException e) {
                     throw raiseOSErrorFromPosixException(frame, e);
                 }
             } finally {
-                bufferLib.release(bufferObj, frame, this);
+                bufferLib.release(buffer, frame, this);
             }
         }
 
@@ -723,24 +731,28 @@ public class SocketBuiltins extends PythonBuiltins {
 
                 checkSelectable(this, socket);
 
-                boolean directWrite = bufferLib.hasInternalByteArray(buffer);
+                boolean directWrite = bufferLib.hasByteArrayRegion(buffer);
                 byte[] bytes;
+                int offset;
                 if (directWrite) {
-                    bytes = bufferLib.getInternalByteArray(buffer);
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
                 } else {
                     try {
                         bytes = new byte[recvlen];
                     } catch (OutOfMemoryError error) {
                         throw raise(MemoryError);
                     }
+                    offset = 0;
                 }
 
+                final int len = recvlen;
                 try {
                     RecvfromResult result = SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
-                                    () -> posixLib.recvfrom(getPosixSupport(), socket.getFd(), bytes, 0, bytes.length, flags),
+                                    () -> posixLib.recvfrom(getPosixSupport(), socket.getFd(), bytes, offset, len, flags),
                                     false, false);
                     if (!directWrite) {
-                        bufferLib.readIntoByteArray(buffer, 0, bytes, 0, result.readBytes);
+                        bufferLib.writeFromByteArray(buffer, 0, bytes, 0, result.readBytes);
                     }
                     return factory().createTuple(new Object[]{result.readBytes, makeSockAddrNode.execute(frame, result.sockAddr)});
                 } catch (PosixException e) {
@@ -773,11 +785,19 @@ public class SocketBuiltins extends PythonBuiltins {
                 checkSelectable(this, socket);
 
                 int len = bufferLib.getBufferLength(buffer);
-                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
 
                 try {
                     return SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
-                                    () -> posixLib.send(getPosixSupport(), socket.getFd(), bytes, 0, len, flags),
+                                    () -> posixLib.send(getPosixSupport(), socket.getFd(), bytes, offset, len, flags),
                                     true, false);
                 } catch (PosixException e) {
                     throw raiseOSErrorFromPosixException(frame, e);
@@ -808,9 +828,16 @@ public class SocketBuiltins extends PythonBuiltins {
             try {
                 checkSelectable(this, socket);
 
-                int offset = 0;
+                int offset;
                 int len = bufferLib.getBufferLength(buffer);
-                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                byte[] bytes;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
 
                 long timeout = socket.getTimeoutNs();
                 TimeoutHelper timeoutHelper = null;
@@ -880,11 +907,19 @@ public class SocketBuiltins extends PythonBuiltins {
                 auditNode.audit("socket.sendto", socket, address);
 
                 int len = bufferLib.getBufferLength(buffer);
-                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                byte[] bytes;
+                int offset;
+                if (bufferLib.hasByteArrayRegion(buffer)) {
+                    bytes = bufferLib.getByteArrayRegion(buffer);
+                    offset = bufferLib.getByteArrayRegionOffset(buffer);
+                } else {
+                    bytes = bufferLib.getCopiedByteArray(buffer);
+                    offset = 0;
+                }
 
                 try {
                     return SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
-                                    () -> posixLib.sendto(getPosixSupport(), socket.getFd(), bytes, 0, len, flags, addr),
+                                    () -> posixLib.sendto(getPosixSupport(), socket.getFd(), bytes, offset, len, flags, addr),
                                     true, false);
                 } catch (PosixException e) {
                     throw raiseOSErrorFromPosixException(frame, e);
@@ -895,6 +930,142 @@ public class SocketBuiltins extends PythonBuiltins {
         }
     }
 
+    // sendmsg(buffers[, ancdata[, flags[, address]]])
+    @Builtin(name = "sendmsg", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 5, parameterNames = {"$self", "buffers", "ancdata", "flags", "address"})
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class SendMsgNode extends PythonClinicBuiltinNode {
+        @Specialization
+        int sendMsg(VirtualFrame frame, PSocket socket, Object buffers, Object ancdata, int flags, Object address,
+                        @Cached ConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached SocketNodes.GetSockAddrArgNode getSockAddrArgNode,
+                        @Cached SysModuleBuiltins.AuditNode auditNode,
+                        @Cached GilNode gil) {
+            Object[] bufferObjs = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            if (ancdata != PNone.NO_VALUE && getObjectArrayNode.execute(constructListNode.execute(frame, ancdata)).length > 0) {
+                throw raise(NotImplementedError, "sendmsg() ancillary data is not supported");
+            }
+            UniversalSockAddr addr = null;
+            if (address != PNone.NO_VALUE && address != PNone.NONE) {
+                addr = getSockAddrArgNode.execute(frame, socket, address, "sendmsg");
+            }
+            auditNode.audit("socket.sendmsg", socket, address == PNone.NO_VALUE ? PNone.NONE : address);
+            checkSelectable(this, socket);
+
+            BufferSegments segments = BufferSegments.acquire(frame, this, bufferObjs, false, bufferAcquireLib, bufferLib, posixLib, getPosixSupport());
+            try {
+                final UniversalSockAddr destAddr = addr;
+                return SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
+                                () -> posixLib.sendmsg(getPosixSupport(), socket.getFd(), segments.arrays, segments.offsets, segments.lengths, segments.addresses, flags, destAddr),
+                                true, false);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                segments.release(frame, this, bufferLib);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.SendMsgNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // recvmsg(bufsize[, ancbufsize[, flags]])
+    @Builtin(name = "recvmsg", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 4, parameterNames = {"$self", "bufsize", "ancbufsize", "flags"})
+    @ArgumentClinic(name = "bufsize", conversion = ArgumentClinic.ClinicConversion.Index)
+    @ArgumentClinic(name = "ancbufsize", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class RecvMsgNode extends PythonQuaternaryClinicBuiltinNode {
+        @Specialization
+        Object recvMsg(VirtualFrame frame, PSocket socket, int bufsize, int ancbufsize, int flags,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil,
+                        @Cached SocketNodes.MakeSockAddrNode makeSockAddrNode) {
+            if (bufsize < 0 || ancbufsize < 0) {
+                throw raise(ValueError, "negative buffer size in recvmsg()");
+            }
+            checkSelectable(this, socket);
+
+            byte[] bytes;
+            try {
+                bytes = new byte[bufsize];
+            } catch (OutOfMemoryError error) {
+                throw raise(MemoryError);
+            }
+
+            try {
+                byte[][] buffers = new byte[][]{bytes};
+                int[] offsets = new int[]{0};
+                int[] lengths = new int[]{bufsize};
+                RecvmsgResult result = SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
+                                () -> posixLib.recvmsg(getPosixSupport(), socket.getFd(), buffers, offsets, lengths, null, flags),
+                                false, false);
+                PBytes resultBytes;
+                if (result.readBytes == 0) {
+                    resultBytes = factory().createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+                } else {
+                    resultBytes = factory().createBytes(bytes, result.readBytes);
+                }
+                // ancillary data is not supported, the kernel reports MSG_CTRUNC if there was any
+                return factory().createTuple(new Object[]{resultBytes, factory().createList(), result.msgFlags, makeSockAddrNode.execute(frame, result.sockAddr)});
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.RecvMsgNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // recvmsg_into(buffers[, ancbufsize[, flags]])
+    @Builtin(name = "recvmsg_into", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 4, parameterNames = {"$self", "buffers", "ancbufsize", "flags"})
+    @ArgumentClinic(name = "ancbufsize", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class RecvMsgIntoNode extends PythonQuaternaryClinicBuiltinNode {
+        @Specialization
+        Object recvMsgInto(VirtualFrame frame, PSocket socket, Object buffers, int ancbufsize, int flags,
+                        @Cached ConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil,
+                        @Cached SocketNodes.MakeSockAddrNode makeSockAddrNode) {
+            if (ancbufsize < 0) {
+                throw raise(ValueError, "negative buffer size in recvmsg_into()");
+            }
+            Object[] bufferObjs = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            checkSelectable(this, socket);
+
+            BufferSegments segments = BufferSegments.acquire(frame, this, bufferObjs, true, bufferAcquireLib, bufferLib, posixLib, getPosixSupport());
+            try {
+                RecvmsgResult result = SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
+                                () -> posixLib.recvmsg(getPosixSupport(), socket.getFd(), segments.arrays, segments.offsets, segments.lengths, segments.addresses, flags),
+                                false, false);
+                segments.writeBack(result.readBytes, bufferLib);
+                return factory().createTuple(new Object[]{result.readBytes, factory().createList(), result.msgFlags, makeSockAddrNode.execute(frame, result.sockAddr)});
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                segments.release(frame, this, bufferLib);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.RecvMsgIntoNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
     @Builtin(name = "setblocking", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"$self", "blocking"})
     @ArgumentClinic(name = "blocking", conversion = ArgumentClinic.ClinicConversion.Boolean)
     @GenerateNodeFactory
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.BAD_CHAR_IN_STRUCT_FMT;
+import static com.oracle.graal.python.nodes.ErrorMessages.REPEAT_COUNT_WITHOUT_FMT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_SIZE_TOO_LONG;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StructError;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.util.NumericSupport;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * A compiled {@code struct} format string. Instances are immutable and context independent, so
+ * they can be cached in the AST (see {@link StructNodes.GetStructFormatNode}) and shared between
+ * contexts. The format loop over {@link #getCodes()} is a compilation constant in that case, which
+ * lets the pack and unpack loops be exploded and specialized per format code.
+ */
+public final class StructFormat {
+    // same limit as CPython's MAXCACHE in _struct.c
+    private static final int MAX_CACHE_SIZE = 100;
+    private static final ConcurrentHashMap<String, StructFormat> CACHE = new ConcurrentHashMap<>();
+
+    private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    public enum FormatDef {
+        CHAR('c', 1, 1),
+        SIGNED_CHAR('b', 1, 1),
+        UNSIGNED_CHAR('B', 1, 1),
+        BOOL('?', 1, 1),
+        SHORT('h', 2, 2),
+        UNSIGNED_SHORT('H', 2, 2),
+        INT('i', 4, 4),
+        UNSIGNED_INT('I', 4, 4),
+        LONG('l', 8, 4),
+        UNSIGNED_LONG('L', 8, 4),
+        LONG_LONG('q', 8, 8),
+        UNSIGNED_LONG_LONG('Q', 8, 8),
+        SSIZE_T('n', 8, -1),
+        SIZE_T('N', 8, -1),
+        HALF_FLOAT('e', 2, 2),
+        FLOAT('f', 4, 4),
+        DOUBLE('d', 8, 8),
+        STRING('s', 1, 1),
+        PASCAL_STRING('p', 1, 1),
+        VOID_PTR('P', 8, -1),
+        PAD_BYTE('x', 1, 1);
+
+        public final char code;
+        final int nativeSize;
+        final int standardSize;
+
+        FormatDef(char code, int nativeSize, int standardSize) {
+            this.code = code;
+            this.nativeSize = nativeSize;
+            this.standardSize = standardSize;
+        }
+
+        public boolean isSignedInteger() {
+            return this == SIGNED_CHAR || this == SHORT || this == INT || this == LONG || this == LONG_LONG || this == SSIZE_T;
+        }
+
+        public boolean isUnsignedInteger() {
+            return this == UNSIGNED_CHAR || this == UNSIGNED_SHORT || this == UNSIGNED_INT || this == UNSIGNED_LONG || this == UNSIGNED_LONG_LONG || this == SIZE_T || this == VOID_PTR;
+        }
+
+        public boolean isFloatingPoint() {
+            return this == HALF_FLOAT || this == FLOAT || this == DOUBLE;
+        }
+
+        static FormatDef fromChar(char c) {
+            for (FormatDef def : values()) {
+                if (def.code == c) {
+                    return def;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A run of value-producing items of a format. A numeric code with a repeat count produces one
+     * run of {@link #count} items of {@link #size} bytes each, laid out consecutively from
+     * {@link #offset}. {@code 's'} and {@code 'p'} produce a single item with {@link #size} bytes and
+     * pad bytes produce no items at all.
+     */
+    public static final class FormatCode {
+        public final FormatDef formatDef;
+        public final int offset;
+        public final int size;
+        public final int count;
+
+        FormatCode(FormatDef formatDef, int offset, int size, int count) {
+            this.formatDef = formatDef;
+            this.offset = offset;
+            this.size = size;
+            this.count = count;
+        }
+    }
+
+    private final String format;
+    private final boolean bigEndian;
+    @CompilationFinal(dimensions = 1) private final FormatCode[] codes;
+    private final int length;
+    private final int size;
+
+    private StructFormat(String format, boolean bigEndian, FormatCode[] codes, int length, int size) {
+        this.format = format;
+        this.bigEndian = bigEndian;
+        this.codes = codes;
+        this.length = length;
+        this.size = size;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public FormatCode[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * The number of values packed or unpacked by this format.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * The size of the packed data in bytes.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public NumericSupport getNumericSupport() {
+        return bigEndian ? NumericSupport.bigEndian() : NumericSupport.littleEndian();
+    }
+
+    @TruffleBoundary
+    public static StructFormat lookup(Node raisingNode, String format) {
+        StructFormat result = CACHE.get(format);
+        if (result == null) {
+            result = compile(raisingNode, format);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(format, result);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    @TruffleBoundary
+    static StructFormat compile(Node raisingNode, String format) {
+        int pos = 0;
+        boolean nativeMode = true;
+        boolean bigEndian = NATIVE_BIG_ENDIAN;
+        if (format.length() > 0) {
+            switch (format.charAt(0)) {
+                case '@':
+                    pos++;
+                    break;
+                case '=':
+                    nativeMode = false;
+                    pos++;
+                    break;
+                case '<':
+                    nativeMode = false;
+                    bigEndian = false;
+                    pos++;
+                    break;
+                case '>':
+                case '!':
+                    nativeMode = false;
+                    bigEndian = true;
+                    pos++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        ArrayList<FormatCode> codes = new ArrayList<>();
+        int length = 0;
+        long offset = 0;
+        while (pos < format.length()) {
+            char c = format.charAt(pos++);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            long count = 1;
+            if (c >= '0' && c <= '9') {
+                count = c - '0';
+                while (pos < format.length() && (c = format.charAt(pos)) >= '0' && c <= '9') {
+                    count = count * 10 + (c - '0');
+                    if (count > Integer.MAX_VALUE) {
+                        throw PRaiseNode.raiseUncached(raisingNode, StructError, STRUCT_SIZE_TOO_LONG);
+                    }
+                    pos++;
+                }
+                if (pos >= format.length()) {
+                    throw PRaiseNode.raiseUncached(raisingNode, StructError, REPEAT_COUNT_WITHOUT_FMT);
+                }
+                c = format.charAt(pos++);
+            }
+            FormatDef def = FormatDef.fromChar(c);
+            int itemSize = def == null ? -1 : (nativeMode ? def.nativeSize : def.standardSize);
+            if (itemSize < 0) {
+                throw PRaiseNode.raiseUncached(raisingNode, StructError, BAD_CHAR_IN_STRUCT_FMT);
+            }
+            if (nativeMode && itemSize > 1) {
+                offset = (offset + itemSize - 1) / itemSize * itemSize;
+            }
+            switch (def) {
+                case PAD_BYTE:
+                    offset += count;
+                    break;
+                case STRING:
+                case PASCAL_STRING:
+                    codes.add(new FormatCode(def, (int) offset, (int) count, 1));
+                    length++;
+                    offset += count;
+                    break;
+                default:
+                    if (count > 0) {
+                        codes.add(new FormatCode(def, (int) offset, itemSize, (int) count));
+                        length += count;
+                        offset += count * itemSize;
+                    }
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw PRaiseNode.raiseUncached(raisingNode, StructError, STRUCT_SIZE_TOO_LONG);
+            }
+        }
+        return new StructFormat(format, bigEndian, codes.toArray(new FormatCode[codes.size()]), length, (int) offset);
+    }
+}
@@ -0,0 +1,685 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_FOR_S_MUST_BE_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_NOT_AN_INTEGER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_NOT_A_FLOAT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_OUT_OF_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_CHAR_FMT_BYTES_1;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_FMT_NOT_STR_OR_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_FMT_REQUIRES_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ITER_CANNOT_UNPACK_FROM_STRUCT_OF_SIZE_0;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ITER_UNPACK_REQ_A_BUFFER_OF_A_MUL_OF_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_NOT_ENOUGH_DATA_TO_UNPACK;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_NO_SPACE_TO_PACK_N_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_OFFSET_OUT_OF_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_REQ_AT_LEAST_N_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_S_EXPECTED_N_ITEMS_GOT_K;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UNPACK_FROM_REQ_AT_LEAST_N_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UNPACK_REQ_BUFFER_OF_N_BYTES;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StructError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat.FormatCode;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat.FormatDef;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.CanBeDoubleNode;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyIndexCheckNode;
+import com.oracle.graal.python.lib.PyNumberIndexNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.NumericSupport;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.ReportPolymorphism.Megamorphic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+public abstract class StructNodes {
+    /**
+     * Formats with more values than this are packed and unpacked in a loop instead of being
+     * exploded into one specialized node per value.
+     */
+    static final int MAX_EXPLODED_LENGTH = 32;
+
+    /**
+     * Converts a {@code str} or {@code bytes} format to a compiled {@link StructFormat}. Constant
+     * formats are cached in the AST, so the common {@code struct.unpack('<HI', data)} call does not
+     * even need to consult the global format cache.
+     */
+    public abstract static class GetStructFormatNode extends PNodeWithRaise {
+        public abstract StructFormat execute(Object format);
+
+        @Specialization(guards = "cachedFormat.equals(format)", limit = "3")
+        static StructFormat doCached(@SuppressWarnings("unused") String format,
+                        @Cached("format") @SuppressWarnings("unused") String cachedFormat,
+                        @Cached("lookup(format)") StructFormat structFormat) {
+            return structFormat;
+        }
+
+        @Specialization(replaces = "doCached")
+        StructFormat doString(String format) {
+            return lookup(format);
+        }
+
+        @Specialization
+        StructFormat doPString(PString format,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            return lookup(castToJavaStringNode.execute(format));
+        }
+
+        @Specialization(limit = "1")
+        StructFormat doBytes(PBytes format,
+                        @CachedLibrary("format") PythonBufferAccessLibrary bufferLib) {
+            return lookup(decodeAscii(bufferLib.getInternalOrCopiedByteArray(format), bufferLib.getBufferLength(format)));
+        }
+
+        @Fallback
+        StructFormat doOther(Object format) {
+            throw raise(TypeError, STRUCT_FMT_NOT_STR_OR_BYTES, format);
+        }
+
+        StructFormat lookup(String format) {
+            return StructFormat.lookup(this, format);
+        }
+
+        @TruffleBoundary
+        private static String decodeAscii(byte[] bytes, int length) {
+            return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+        }
+
+        public static GetStructFormatNode create() {
+            return StructNodesFactory.GetStructFormatNodeGen.create();
+        }
+    }
+
+    /**
+     * Converts an integer argument to a Java {@code long} as CPython's {@code get_pylong} does.
+     * Unsigned 64-bit values above {@link Long#MAX_VALUE} are returned in their two's complement
+     * representation.
+     */
+    abstract static class AsStructLongNode extends PNodeWithRaise {
+        public abstract long execute(VirtualFrame frame, Object value, boolean unsigned);
+
+        @Specialization
+        long doInt(int value, boolean unsigned) {
+            if (unsigned && value < 0) {
+                throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+            }
+            return value;
+        }
+
+        @Specialization
+        long doLong(long value, boolean unsigned) {
+            if (unsigned && value < 0) {
+                throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+            }
+            return value;
+        }
+
+        @Specialization
+        static long doBoolean(boolean value, @SuppressWarnings("unused") boolean unsigned) {
+            return value ? 1 : 0;
+        }
+
+        @Specialization
+        long doPInt(PInt value, boolean unsigned) {
+            if (unsigned) {
+                if (value.isNegative() || value.bitLength() > Long.SIZE) {
+                    throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+                }
+                return value.longValue();
+            }
+            try {
+                return value.longValueExact();
+            } catch (OverflowException e) {
+                throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+            }
+        }
+
+        @Specialization(replaces = {"doInt", "doLong", "doBoolean", "doPInt"})
+        long doGeneric(VirtualFrame frame, Object value, boolean unsigned,
+                        @Cached PyIndexCheckNode indexCheckNode,
+                        @Cached PyNumberIndexNode indexNode,
+                        @Cached ConditionProfile isIntProfile,
+                        @Cached ConditionProfile isLongProfile) {
+            if (!indexCheckNode.execute(value)) {
+                throw raise(StructError, STRUCT_ARG_NOT_AN_INTEGER);
+            }
+            Object index = indexNode.execute(frame, value);
+            if (isIntProfile.profile(index instanceof Integer)) {
+                return doInt((int) index, unsigned);
+            } else if (isLongProfile.profile(index instanceof Long)) {
+                return doLong((long) index, unsigned);
+            } else if (index instanceof Boolean) {
+                return doBoolean((boolean) index, unsigned);
+            }
+            return doPInt((PInt) index, unsigned);
+        }
+    }
+
+    /**
+     * Packs a single value. In the exploded pack loop, each format code has its own instance of this
+     * node, so only the specialization for that format code is ever active. The values of a repeated
+     * code are packed at {@code offset + j * code.size}.
+     */
+    @ImportStatic(FormatDef.class)
+    public abstract static class PackValueNode extends PNodeWithRaise {
+        public abstract void execute(VirtualFrame frame, NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset);
+
+        @Specialization(guards = "code.formatDef.isSignedInteger()")
+        void packSigned(VirtualFrame frame, NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Shared("asLong") @Cached AsStructLongNode asLongNode) {
+            long num = asLongNode.execute(frame, value, false);
+            if (code.size < Long.BYTES) {
+                long max = (1L << (code.size * Byte.SIZE - 1)) - 1;
+                long min = -max - 1;
+                if (num < min || num > max) {
+                    throw raise(StructError, STRUCT_FMT_REQUIRES_RANGE, code.formatDef.code, min, max);
+                }
+            }
+            numeric.putLong(bytes, offset + code.offset, num, code.size);
+        }
+
+        @Specialization(guards = "code.formatDef.isUnsignedInteger()")
+        void packUnsigned(VirtualFrame frame, NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Shared("asLong") @Cached AsStructLongNode asLongNode) {
+            long num = asLongNode.execute(frame, value, true);
+            if (code.size < Long.BYTES) {
+                long max = (1L << (code.size * Byte.SIZE)) - 1;
+                if (num > max) {
+                    throw raise(StructError, STRUCT_FMT_REQUIRES_RANGE, code.formatDef.code, 0, max);
+                }
+            }
+            numeric.putLong(bytes, offset + code.offset, num, code.size);
+        }
+
+        @Specialization(guards = "code.formatDef.isFloatingPoint()")
+        void packFloat(VirtualFrame frame, NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Cached CanBeDoubleNode canBeDoubleNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            if (!canBeDoubleNode.execute(value)) {
+                throw raise(StructError, STRUCT_ARG_NOT_A_FLOAT);
+            }
+            numeric.putDouble(this, bytes, offset + code.offset, asDoubleNode.execute(frame, value), code.size);
+        }
+
+        @Specialization(guards = "code.formatDef == BOOL")
+        static void packBool(VirtualFrame frame, @SuppressWarnings("unused") NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            bytes[offset + code.offset] = isTrueNode.execute(frame, value) ? (byte) 1 : (byte) 0;
+        }
+
+        @Specialization(guards = "code.formatDef == CHAR")
+        void packChar(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Shared("bufferLib") @CachedLibrary(limit = "2") PythonBufferAccessLibrary bufferLib) {
+            if (!(value instanceof PBytesLike) || bufferLib.getBufferLength(value) != 1) {
+                throw raise(StructError, STRUCT_CHAR_FMT_BYTES_1);
+            }
+            bytes[offset + code.offset] = bufferLib.readByte(value, 0);
+        }
+
+        @Specialization(guards = "code.formatDef == STRING")
+        void packString(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Shared("bufferLib") @CachedLibrary(limit = "2") PythonBufferAccessLibrary bufferLib) {
+            if (!(value instanceof PBytesLike)) {
+                throw raise(StructError, STRUCT_ARG_FOR_S_MUST_BE_BYTES, code.formatDef.code);
+            }
+            int start = offset + code.offset;
+            int n = Math.min(bufferLib.getBufferLength(value), code.size);
+            bufferLib.readIntoByteArray(value, 0, bytes, start, n);
+            Arrays.fill(bytes, start + n, start + code.size, (byte) 0);
+        }
+
+        @Specialization(guards = "code.formatDef == PASCAL_STRING")
+        void packPascalString(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, Object value, byte[] bytes, int offset,
+                        @Shared("bufferLib") @CachedLibrary(limit = "2") PythonBufferAccessLibrary bufferLib) {
+            if (!(value instanceof PBytesLike)) {
+                throw raise(StructError, STRUCT_ARG_FOR_S_MUST_BE_BYTES, code.formatDef.code);
+            }
+            if (code.size == 0) {
+                return;
+            }
+            int start = offset + code.offset;
+            int n = Math.min(bufferLib.getBufferLength(value), code.size - 1);
+            bufferLib.readIntoByteArray(value, 0, bytes, start + 1, n);
+            Arrays.fill(bytes, start + 1 + n, start + code.size, (byte) 0);
+            bytes[start] = (byte) Math.min(n, 255);
+        }
+
+        public static PackValueNode create() {
+            return StructNodesFactory.PackValueNodeGen.create();
+        }
+    }
+
+    /**
+     * Unpacks a single value. See {@link PackValueNode} for how the instances are used.
+     */
+    @ImportStatic(FormatDef.class)
+    public abstract static class UnpackValueNode extends Node {
+        public abstract Object execute(NumericSupport numeric, FormatCode code, byte[] bytes, int offset);
+
+        @Specialization(guards = "code.formatDef.isSignedInteger()")
+        static Object unpackSigned(NumericSupport numeric, FormatCode code, byte[] bytes, int offset) {
+            long value = numeric.getLong(bytes, offset + code.offset, code.size);
+            if (code.size <= Integer.BYTES) {
+                return (int) value;
+            }
+            return value;
+        }
+
+        @Specialization(guards = {"code.formatDef.isUnsignedInteger()", "code.size < 8"})
+        static Object unpackUnsigned(NumericSupport numeric, FormatCode code, byte[] bytes, int offset) {
+            long value = numeric.getLongUnsigned(bytes, offset + code.offset, code.size);
+            if (code.size < Integer.BYTES) {
+                return (int) value;
+            }
+            return value;
+        }
+
+        @Specialization(guards = {"code.formatDef.isUnsignedInteger()", "code.size == 8"})
+        static Object unpackUnsignedLong(NumericSupport numeric, FormatCode code, byte[] bytes, int offset,
+                        @Cached ConditionProfile needsPIntProfile,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            long value = numeric.getLong(bytes, offset + code.offset);
+            if (needsPIntProfile.profile(value < 0)) {
+                return factory.createInt(PInt.longToUnsignedBigInteger(value));
+            }
+            return value;
+        }
+
+        @Specialization(guards = "code.formatDef.isFloatingPoint()")
+        static double unpackFloat(NumericSupport numeric, FormatCode code, byte[] bytes, int offset) {
+            return numeric.getDouble(bytes, offset + code.offset, code.size);
+        }
+
+        @Specialization(guards = "code.formatDef == BOOL")
+        static boolean unpackBool(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, byte[] bytes, int offset) {
+            return bytes[offset + code.offset] != 0;
+        }
+
+        @Specialization(guards = "code.formatDef == CHAR")
+        static Object unpackChar(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, byte[] bytes, int offset,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            return factory.createBytes(new byte[]{bytes[offset + code.offset]});
+        }
+
+        @Specialization(guards = "code.formatDef == STRING")
+        static Object unpackString(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, byte[] bytes, int offset,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            int start = offset + code.offset;
+            return factory.createBytes(PythonUtils.arrayCopyOfRange(bytes, start, start + code.size));
+        }
+
+        @Specialization(guards = "code.formatDef == PASCAL_STRING")
+        static Object unpackPascalString(@SuppressWarnings("unused") NumericSupport numeric, FormatCode code, byte[] bytes, int offset,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            if (code.size == 0) {
+                return factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+            }
+            int start = offset + code.offset;
+            int n = Math.min(bytes[start] & 0xFF, code.size - 1);
+            return factory.createBytes(PythonUtils.arrayCopyOfRange(bytes, start + 1, start + 1 + n));
+        }
+
+        public static UnpackValueNode create() {
+            return StructNodesFactory.UnpackValueNodeGen.create();
+        }
+    }
+
+    /**
+     * Packs all values of a format into {@code bytes} starting at {@code offset}. The caller is
+     * responsible for checking the number of arguments and the available space.
+     */
+    public abstract static class PackNode extends Node {
+        public abstract void execute(VirtualFrame frame, StructFormat format, Object[] args, byte[] bytes, int offset);
+
+        @Specialization(guards = {"format == cachedFormat", "cachedFormat.getLength() <= MAX_EXPLODED_LENGTH"}, limit = "3")
+        static void doCached(VirtualFrame frame, @SuppressWarnings("unused") StructFormat format, Object[] args, byte[] bytes, int offset,
+                        @Cached("format") StructFormat cachedFormat,
+                        @Cached("createPackNodes(cachedFormat)") PackValueNode[] packNodes) {
+            packExploded(frame, cachedFormat.getNumericSupport(), cachedFormat.getCodes(), args, bytes, offset, packNodes);
+        }
+
+        @Specialization(replaces = "doCached")
+        @Megamorphic
+        static void doGeneric(VirtualFrame frame, StructFormat format, Object[] args, byte[] bytes, int offset,
+                        @Cached PackValueNode packNode) {
+            NumericSupport numeric = format.getNumericSupport();
+            FormatCode[] codes = format.getCodes();
+            int argIndex = 0;
+            for (int i = 0; i < codes.length; i++) {
+                FormatCode code = codes[i];
+                for (int j = 0; j < code.count; j++) {
+                    packNode.execute(frame, numeric, code, args[argIndex++], bytes, offset + j * code.size);
+                }
+            }
+        }
+
+        @ExplodeLoop
+        private static void packExploded(VirtualFrame frame, NumericSupport numeric, FormatCode[] codes, Object[] args, byte[] bytes, int offset, PackValueNode[] packNodes) {
+            CompilerAsserts.partialEvaluationConstant(codes.length);
+            int argIndex = 0;
+            for (int i = 0; i < codes.length; i++) {
+                FormatCode code = codes[i];
+                for (int j = 0; j < code.count; j++) {
+                    packNodes[i].execute(frame, numeric, code, args[argIndex++], bytes, offset + j * code.size);
+                }
+            }
+        }
+
+        static PackValueNode[] createPackNodes(StructFormat format) {
+            PackValueNode[] packNodes = new PackValueNode[format.getCodes().length];
+            for (int i = 0; i < packNodes.length; i++) {
+                packNodes[i] = PackValueNode.create();
+            }
+            return packNodes;
+        }
+
+        public static PackNode create() {
+            return StructNodesFactory.PackNodeGen.create();
+        }
+    }
+
+    /**
+     * Unpacks all values of a format from {@code bytes} starting at {@code offset}. The caller is
+     * responsible for checking that enough data is available.
+     */
+    public abstract static class UnpackNode extends Node {
+        public abstract Object[] execute(StructFormat format, byte[] bytes, int offset);
+
+        @Specialization(guards = {"format == cachedFormat", "cachedFormat.getLength() <= MAX_EXPLODED_LENGTH"}, limit = "3")
+        static Object[] doCached(@SuppressWarnings("unused") StructFormat format, byte[] bytes, int offset,
+                        @Cached("format") StructFormat cachedFormat,
+                        @Cached("createUnpackNodes(cachedFormat)") UnpackValueNode[] unpackNodes) {
+            return unpackExploded(cachedFormat.getNumericSupport(), cachedFormat.getCodes(), cachedFormat.getLength(), bytes, offset, unpackNodes);
+        }
+
+        @Specialization(replaces = "doCached")
+        @Megamorphic
+        static Object[] doGeneric(StructFormat format, byte[] bytes, int offset,
+                        @Cached UnpackValueNode unpackNode) {
+            NumericSupport numeric = format.getNumericSupport();
+            FormatCode[] codes = format.getCodes();
+            Object[] values = new Object[format.getLength()];
+            int valueIndex = 0;
+            for (int i = 0; i < codes.length; i++) {
+                FormatCode code = codes[i];
+                for (int j = 0; j < code.count; j++) {
+                    values[valueIndex++] = unpackNode.execute(numeric, code, bytes, offset + j * code.size);
+                }
+            }
+            return values;
+        }
+
+        @ExplodeLoop
+        private static Object[] unpackExploded(NumericSupport numeric, FormatCode[] codes, int length, byte[] bytes, int offset, UnpackValueNode[] unpackNodes) {
+            CompilerAsserts.partialEvaluationConstant(codes.length);
+            Object[] values = new Object[length];
+            int valueIndex = 0;
+            for (int i = 0; i < codes.length; i++) {
+                FormatCode code = codes[i];
+                for (int j = 0; j < code.count; j++) {
+                    values[valueIndex++] = unpackNodes[i].execute(numeric, code, bytes, offset + j * code.size);
+                }
+            }
+            return values;
+        }
+
+        static UnpackValueNode[] createUnpackNodes(StructFormat format) {
+            UnpackValueNode[] unpackNodes = new UnpackValueNode[format.getCodes().length];
+            for (int i = 0; i < unpackNodes.length; i++) {
+                unpackNodes[i] = UnpackValueNode.create();
+            }
+            return unpackNodes;
+        }
+
+        public static UnpackNode create() {
+            return StructNodesFactory.UnpackNodeGen.create();
+        }
+    }
+
+    /**
+     * Reads {@code format.getSize()} bytes at {@code offset} of an acquired buffer and unpacks
+     * them. Buffers backed by a Java byte array ({@code bytes}, {@code bytearray} and memoryviews
+     * of them) are read in place; only other buffers need a copy of the bytes being unpacked.
+     */
+    public abstract static class UnpackBufferNode extends Node {
+        public abstract Object[] execute(StructFormat format, Object buffer, int offset);
+
+        @Specialization(limit = "3")
+        static Object[] doBuffer(StructFormat format, Object buffer, int offset,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached ConditionProfile internalArrayProfile,
+                        @Cached UnpackNode unpackNode) {
+            if (internalArrayProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                return unpackNode.execute(format, bufferLib.getInternalByteArray(buffer), offset);
+            }
+            byte[] bytes = new byte[format.getSize()];
+            bufferLib.readIntoByteArray(buffer, offset, bytes, 0, bytes.length);
+            return unpackNode.execute(format, bytes, 0);
+        }
+
+        public static UnpackBufferNode create() {
+            return StructNodesFactory.UnpackBufferNodeGen.create();
+        }
+    }
+
+    /**
+     * Implementation of {@code Struct.pack} and the module level {@code pack} function.
+     */
+    public abstract static class StructPackNode extends PNodeWithRaise {
+        public abstract PBytes execute(VirtualFrame frame, StructFormat format, Object[] args);
+
+        @Specialization
+        PBytes pack(VirtualFrame frame, StructFormat format, Object[] args,
+                        @Cached PackNode packNode,
+                        @Cached PythonObjectFactory factory) {
+            if (args.length != format.getLength()) {
+                throw raise(StructError, STRUCT_S_EXPECTED_N_ITEMS_GOT_K, "pack", format.getLength(), args.length);
+            }
+            byte[] bytes = new byte[format.getSize()];
+            packNode.execute(frame, format, args, bytes, 0);
+            return factory.createBytes(bytes);
+        }
+
+        public static StructPackNode create() {
+            return StructNodesFactory.StructPackNodeGen.create();
+        }
+    }
+
+    /**
+     * Implementation of {@code Struct.pack_into} and the module level {@code pack_into} function.
+     * The {@code buffer} must be an acquired writable buffer. Buffers backed by a Java byte array
+     * are written in place.
+     */
+    public abstract static class StructPackIntoNode extends PNodeWithRaise {
+        public abstract void execute(VirtualFrame frame, StructFormat format, Object buffer, int offset, Object[] args);
+
+        @Specialization(limit = "3")
+        void packInto(VirtualFrame frame, StructFormat format, Object buffer, int offset, Object[] args,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached ConditionProfile internalArrayProfile,
+                        @Cached PackNode packNode) {
+            if (args.length != format.getLength()) {
+                throw raise(StructError, STRUCT_S_EXPECTED_N_ITEMS_GOT_K, "pack_into", format.getLength(), args.length);
+            }
+            int size = format.getSize();
+            int bufferLength = bufferLib.getBufferLength(buffer);
+            int start = offset;
+            if (start < 0) {
+                if (start + size > 0) {
+                    throw raise(StructError, STRUCT_NO_SPACE_TO_PACK_N_BYTES, size, start);
+                }
+                if (start + bufferLength < 0) {
+                    throw raise(StructError, STRUCT_OFFSET_OUT_OF_RANGE, start, bufferLength);
+                }
+                start += bufferLength;
+            }
+            if (bufferLength - start < size) {
+                throw raise(StructError, STRUCT_PACK_INTO_REQ_AT_LEAST_N_BYTES, size + start, size, start, bufferLength);
+            }
+            if (internalArrayProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                byte[] bytes = bufferLib.getInternalByteArray(buffer);
+                Arrays.fill(bytes, start, start + size, (byte) 0);
+                packNode.execute(frame, format, args, bytes, start);
+            } else {
+                byte[] bytes = new byte[size];
+                packNode.execute(frame, format, args, bytes, 0);
+                bufferLib.writeFromByteArray(buffer, start, bytes, 0, size);
+            }
+        }
+
+        public static StructPackIntoNode create() {
+            return StructNodesFactory.StructPackIntoNodeGen.create();
+        }
+    }
+
+    /**
+     * Implementation of {@code Struct.unpack} and the module level {@code unpack} function. The
+     * {@code buffer} must be an acquired buffer.
+     */
+    public abstract static class StructUnpackNode extends PNodeWithRaise {
+        public abstract PTuple execute(StructFormat format, Object buffer);
+
+        @Specialization(limit = "3")
+        PTuple unpack(StructFormat format, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackBufferNode unpackBufferNode,
+                        @Cached PythonObjectFactory factory) {
+            if (bufferLib.getBufferLength(buffer) != format.getSize()) {
+                throw raise(StructError, STRUCT_UNPACK_REQ_BUFFER_OF_N_BYTES, format.getSize());
+            }
+            return factory.createTuple(unpackBufferNode.execute(format, buffer, 0));
+        }
+
+        public static StructUnpackNode create() {
+            return StructNodesFactory.StructUnpackNodeGen.create();
+        }
+    }
+
+    /**
+     * Implementation of {@code Struct.unpack_from} and the module level {@code unpack_from}
+     * function. The {@code buffer} must be an acquired buffer.
+     */
+    public abstract static class StructUnpackFromNode extends PNodeWithRaise {
+        public abstract PTuple execute(StructFormat format, Object buffer, int offset);
+
+        @Specialization(limit = "3")
+        PTuple unpackFrom(StructFormat format, Object buffer, int offset,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackBufferNode unpackBufferNode,
+                        @Cached PythonObjectFactory factory) {
+            int size = format.getSize();
+            int bufferLength = bufferLib.getBufferLength(buffer);
+            int start = offset;
+            if (start < 0) {
+                if (start + bufferLength < 0) {
+                    throw raise(StructError, STRUCT_OFFSET_OUT_OF_RANGE, start, bufferLength);
+                }
+                start += bufferLength;
+            }
+            if (bufferLength - start < size) {
+                if (offset < 0) {
+                    throw raise(StructError, STRUCT_NOT_ENOUGH_DATA_TO_UNPACK, size, offset);
+                }
+                throw raise(StructError, STRUCT_UNPACK_FROM_REQ_AT_LEAST_N_BYTES, size + start, size, start, bufferLength);
+            }
+            return factory.createTuple(unpackBufferNode.execute(format, buffer, start));
+        }
+
+        public static StructUnpackFromNode create() {
+            return StructNodesFactory.StructUnpackFromNodeGen.create();
+        }
+    }
+
+    /**
+     * Creates the iterator for {@code Struct.iter_unpack} and the module level {@code iter_unpack}
+     * function. The iterator takes over the acquired {@code buffer} and releases it once it is
+     * exhausted. If the iterator cannot be created, the buffer is released here.
+     */
+    public abstract static class StructIterUnpackNode extends PNodeWithRaise {
+        public abstract PStructUnpackIterator execute(PStruct struct, Object buffer);
+
+        @Specialization(limit = "3")
+        PStructUnpackIterator iterUnpack(PStruct struct, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached PythonObjectFactory factory) {
+            int size = struct.getFormat().getSize();
+            int bufferLength = bufferLib.getBufferLength(buffer);
+            if (size == 0) {
+                bufferLib.release(buffer);
+                throw raise(StructError, STRUCT_ITER_CANNOT_UNPACK_FROM_STRUCT_OF_SIZE_0);
+            }
+            if (bufferLength % size != 0) {
+                bufferLib.release(buffer);
+                throw raise(StructError, STRUCT_ITER_UNPACK_REQ_A_BUFFER_OF_A_MUL_OF_BYTES, size);
+            }
+            return factory.createStructUnpackIterator(struct, buffer, bufferLength);
+        }
+
+        public static StructIterUnpackNode create() {
+            return StructNodesFactory.StructIterUnpackNodeGen.create();
+        }
+    }
+}
@@ -40,7 +40,12 @@
  */
 package com.oracle.graal.python.builtins.objects.thread;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.Shape;
 
@@ -50,6 +55,81 @@ public abstract class AbstractPythonLock extends PythonBuiltinObject {
     public static final boolean DEFAULT_BLOCKING = true;
     public static final double UNSET_TIMEOUT = -1;
 
+    /**
+     * A non-reentrant mutex whose uncontended acquire and release are a single CAS respectively a
+     * single volatile write of the synchronizer state. Both can be compiled without a boundary and
+     * without releasing the GIL. Only threads that actually have to wait are queued by the
+     * {@link AbstractQueuedSynchronizer}. They announce themselves in {@link #waiters} before
+     * looking at the state, and a releasing thread looks at {@link #waiters} only after resetting
+     * the state, so a release either sees the waiter or the waiter sees the free lock.
+     */
+    static final class Sync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = -4017335380734393616L;
+
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        boolean tryLock() {
+            return compareAndSetState(0, 1);
+        }
+
+        /**
+         * Frees the lock and returns {@code true} if a waiting thread has to be woken up using
+         * {@link #wakeWaiter()}.
+         */
+        boolean unlock() {
+            setState(0);
+            return waiters.get() != 0;
+        }
+
+        boolean isLocked() {
+            return getState() != 0;
+        }
+
+        @TruffleBoundary
+        void wakeWaiter() {
+            release(0);
+        }
+
+        @TruffleBoundary
+        void lockInterruptibly() throws InterruptedException {
+            waiters.incrementAndGet();
+            try {
+                acquireInterruptibly(1);
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        @TruffleBoundary
+        boolean tryLock(long timeoutMillis) throws InterruptedException {
+            waiters.incrementAndGet();
+            try {
+                return tryAcquireNanos(1, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        @Override
+        protected boolean tryAcquire(int arg) {
+            return compareAndSetState(0, 1);
+        }
+
+        @Override
+        protected boolean tryRelease(int arg) {
+            // the state has already been reset by 'unlock', we only need to wake up a successor
+            return true;
+        }
+    }
+
+    /*
+     * Contention statistics. They are only updated by the thread that has just acquired the lock,
+     * so plain fields are sufficient.
+     */
+    private long acquireCount;
+    private long contendedAcquireCount;
+    private long waitTimeNanos;
+
     AbstractPythonLock(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
     }
@@ -76,4 +156,26 @@ public abstract class AbstractPythonLock extends PythonBuiltinObject {
     public abstract void release();
 
     public abstract boolean locked();
+
+    protected final void countAcquire() {
+        acquireCount++;
+    }
+
+    protected final void countContendedAcquire(long waitedNanos) {
+        acquireCount++;
+        contendedAcquireCount++;
+        waitTimeNanos += waitedNanos;
+    }
+
+    public final long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public final long getContendedAcquireCount() {
+        return contendedAcquireCount;
+    }
+
+    public final long getWaitTimeNanos() {
+        return waitTimeNanos;
+    }
 }
@@ -73,6 +73,7 @@ import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = {PythonBuiltinClassType.PLock, PythonBuiltinClassType.PRLock})
 public class LockBuiltins extends PythonBuiltins {
@@ -116,8 +117,12 @@ public class LockBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout == UNSET_TIMEOUT", "blocking"})
         boolean acBlocking(PLock self, @SuppressWarnings("unused") boolean blocking, @SuppressWarnings("unused") double timeout,
+                        @Cached.Shared("u") @Cached ConditionProfile uncontendedProfile,
                         @Cached.Shared("g") @Cached GilNode gil) {
-            // acquire lock
+            // uncontended: a single CAS, no need to give up the GIL
+            if (uncontendedProfile.profile(self.acquireNonBlocking())) {
+                return true;
+            }
             gil.release(true);
             try {
                 return self.acquireBlocking(this);
@@ -128,8 +133,12 @@ public class LockBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout == UNSET_TIMEOUT", "blocking"})
         boolean acBlocking(PRLock self, @SuppressWarnings("unused") boolean blocking, @SuppressWarnings("unused") double timeout,
+                        @Cached.Shared("u") @Cached ConditionProfile uncontendedProfile,
                         @Cached.Shared("g") @Cached GilNode gil) {
-            // acquire lock
+            // uncontended: a single CAS, no need to give up the GIL
+            if (uncontendedProfile.profile(self.acquireNonBlocking())) {
+                return true;
+            }
             gil.release(true);
             try {
                 return self.acquireBlocking(this);
@@ -152,8 +161,11 @@ public class LockBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout != UNSET_TIMEOUT", "blocking"})
         boolean acTimeOut(AbstractPythonLock self, @SuppressWarnings("unused") boolean blocking, double timeout,
+                        @Cached.Shared("u") @Cached ConditionProfile uncontendedProfile,
                         @Cached.Shared("g") @Cached GilNode gil) {
-            // acquire lock
+            if (uncontendedProfile.profile(self.acquireNonBlocking())) {
+                return true;
+            }
             gil.release(true);
             try {
                 return self.acquireTimeout(this, timeout);
@@ -214,6 +226,9 @@ public class LockBuiltins extends PythonBuiltins {
     abstract static class ReleaseLockNode extends PythonUnaryBuiltinNode {
         @Specialization
         Object doRelease(PLock self) {
+            if (!self.locked()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.RELEASE_UNLOCKED_LOCK);
+            }
             self.release();
             return PNone.NONE;
         }
@@ -232,10 +247,10 @@ public class LockBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class ExitLockNode extends PythonBuiltinNode {
         @Specialization
-        @TruffleBoundary
-        Object exit(AbstractPythonLock self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
-            self.release();
-            return PNone.NONE;
+        static Object exit(VirtualFrame frame, AbstractPythonLock self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value,
+                        @SuppressWarnings("unused") Object traceback,
+                        @Cached ReleaseLockNode releaseLockNode) {
+            return releaseLockNode.execute(frame, self);
         }
     }
 
@@ -40,57 +40,73 @@
  */
 package com.oracle.graal.python.builtins.objects.thread;
 
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
-
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleSafepoint;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.Shape;
 
 public final class PLock extends AbstractPythonLock {
-    private final Semaphore semaphore;
+    private final Sync sync;
 
-    @TruffleBoundary
     public PLock(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
-        semaphore = new Semaphore(1);
+        sync = allocateSync();
     }
 
-    @Override
     @TruffleBoundary
+    private static Sync allocateSync() {
+        return new Sync();
+    }
+
+    @Override
     public boolean acquireNonBlocking() {
-        return semaphore.tryAcquire();
+        if (sync.tryLock()) {
+            countAcquire();
+            return true;
+        }
+        return false;
     }
 
     @Override
     @TruffleBoundary
     public boolean acquireBlocking(Node node) {
+        if (acquireNonBlocking()) {
+            return true;
+        }
+        long start = System.nanoTime();
         boolean[] b = new boolean[1];
         TruffleSafepoint.setBlockedThreadInterruptible(node, (s) -> {
-            s.acquire();
+            s.lockInterruptibly();
             b[0] = true;
-        }, semaphore);
+        }, sync);
+        countContendedAcquire(System.nanoTime() - start);
         return b[0];
     }
 
     @Override
     @TruffleBoundary
     public boolean acquireTimeout(Node node, long timeout) {
+        if (acquireNonBlocking()) {
+            return true;
+        }
+        long start = System.nanoTime();
         boolean[] b = new boolean[1];
-        TruffleSafepoint.setBlockedThreadInterruptible(node, (s) -> b[0] = s.tryAcquire(timeout, TimeUnit.MILLISECONDS), semaphore);
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (s) -> b[0] = s.tryLock(timeout), sync);
+        if (b[0]) {
+            countContendedAcquire(System.nanoTime() - start);
+        }
         return b[0];
     }
 
     @Override
-    @TruffleBoundary
     public void release() {
-        semaphore.release();
+        if (sync.unlock()) {
+            sync.wakeWaiter();
+        }
     }
 
     @Override
-    @TruffleBoundary
     public boolean locked() {
-        return semaphore.availablePermits() == 0;
+        return sync.isLocked();
     }
 }
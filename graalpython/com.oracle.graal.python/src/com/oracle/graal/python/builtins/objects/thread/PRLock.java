@@ -40,95 +40,129 @@
  */
 package com.oracle.graal.python.builtins.objects.thread;
 
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
-
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleSafepoint;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.Shape;
 
+/**
+ * A reentrant lock biased towards its current owner: the owner thread and the recursion count are
+ * plain fields that are only written by the thread holding the underlying {@link Sync}, so
+ * re-acquiring and releasing a lock that is already held does not need any atomic operation.
+ */
 public final class PRLock extends AbstractPythonLock {
-    private static class InternalReentrantLock extends ReentrantLock {
-        private static final long serialVersionUID = 2531000884985514112L;
-
-        @TruffleBoundary
-        long getOwnerId() {
-            Thread owner = getOwner();
-            if (owner != null) {
-                return owner.getId();
-            }
-            return 0;
-        }
-    }
-
-    private final InternalReentrantLock lock;
+    private final Sync sync;
+    private Thread owner;
+    private int count;
 
     public PRLock(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
-        this.lock = allocateLock();
+        this.sync = allocateSync();
     }
 
     @TruffleBoundary
-    private static InternalReentrantLock allocateLock() {
-        return new InternalReentrantLock();
+    private static Sync allocateSync() {
+        return new Sync();
     }
 
-    @TruffleBoundary
     public boolean isOwned() {
-        return lock.isHeldByCurrentThread();
+        return owner == Thread.currentThread();
     }
 
-    @TruffleBoundary
     public int getCount() {
-        return lock.getHoldCount();
+        return isOwned() ? count : 0;
     }
 
+    @TruffleBoundary
     public long getOwnerId() {
-        return lock.getOwnerId();
+        Thread t = owner;
+        if (t != null) {
+            return t.getId();
+        }
+        return 0;
     }
 
-    @TruffleBoundary
     public void releaseAll() {
-        while (lock.getHoldCount() > 0) {
-            lock.unlock();
+        if (isOwned()) {
+            count = 0;
+            unlock();
+        }
+    }
+
+    private void setOwned() {
+        owner = Thread.currentThread();
+        count = 1;
+    }
+
+    private void unlock() {
+        owner = null;
+        if (sync.unlock()) {
+            sync.wakeWaiter();
         }
     }
 
     @Override
-    @TruffleBoundary
     protected boolean acquireNonBlocking() {
-        return lock.tryLock();
+        if (isOwned()) {
+            count++;
+            countAcquire();
+            return true;
+        }
+        if (sync.tryLock()) {
+            setOwned();
+            countAcquire();
+            return true;
+        }
+        return false;
     }
 
     @Override
     @TruffleBoundary
     protected boolean acquireBlocking(Node node) {
+        if (acquireNonBlocking()) {
+            return true;
+        }
+        long start = System.nanoTime();
         boolean[] b = new boolean[1];
-        TruffleSafepoint.setBlockedThreadInterruptible(node, (l) -> {
-            l.lockInterruptibly();
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (s) -> {
+            s.lockInterruptibly();
             b[0] = true;
-        }, lock);
+        }, sync);
+        setOwned();
+        countContendedAcquire(System.nanoTime() - start);
         return b[0];
     }
 
     @Override
     @TruffleBoundary
     protected boolean acquireTimeout(Node node, long timeout) {
+        if (acquireNonBlocking()) {
+            return true;
+        }
+        long start = System.nanoTime();
         boolean[] b = new boolean[1];
-        TruffleSafepoint.setBlockedThreadInterruptible(node, (l) -> b[0] = l.tryLock(timeout, TimeUnit.MILLISECONDS), lock);
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (s) -> b[0] = s.tryLock(timeout), sync);
+        if (b[0]) {
+            setOwned();
+            countContendedAcquire(System.nanoTime() - start);
+        }
         return b[0];
     }
 
+    /**
+     * Releases one level of ownership. Callers have to make sure that the current thread owns the
+     * lock (see {@link #isOwned()}).
+     */
     @Override
-    @TruffleBoundary
     public void release() {
-        lock.unlock();
+        assert isOwned();
+        if (--count == 0) {
+            unlock();
+        }
     }
 
     @Override
-    @TruffleBoundary
     public boolean locked() {
-        return lock.isLocked();
+        return sync.isLocked();
     }
 }
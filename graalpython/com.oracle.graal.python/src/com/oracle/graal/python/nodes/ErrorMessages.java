@@ -56,6 +56,19 @@ public abstract class ErrorMessages {
     public static final String ARG_MUST_BE_NUMBER = "%s argument must be a number, not '%p'";
     public static final String ARG_MUST_BE_S_NOT_P = "%s argument must be a %s, not %p";
     public static final String ARGUMENTS_MUST_BE_ITERATORS = "Arguments must be iterators";
+    public static final String AWAIT_WASNT_USED_WITH_FUTURE = "await wasn't used with future";
+    public static final String A_COROUTINE_WAS_EXPECTED_GOT_S = "a coroutine was expected, got %s";
+    public static final String CANNOT_ENTER_INTO_TASK_S_WHILE_ANOTHER_TASK_S_IS_BEING_EXECUTED = "Cannot enter into task %s while another task %s is being executed.";
+    public static final String EXCEPTION_IS_NOT_SET = "Exception is not set.";
+    public static final String FUTURE_OBJECT_IS_NOT_INITIALIZED = "Future object is not initialized.";
+    public static final String INVALID_EXCEPTION_OBJECT = "invalid exception object";
+    public static final String INVALID_STATE = "invalid state";
+    public static final String LEAVING_TASK_S_DOES_NOT_MATCH_THE_CURRENT_TASK_S = "Leaving task %s does not match the current task %s.";
+    public static final String LOG_TRACEBACK_CAN_ONLY_BE_SET_TO_FALSE = "_log_traceback can only be set to False";
+    public static final String NO_RUNNING_EVENT_LOOP = "no running event loop";
+    public static final String RESULT_IS_NOT_READY = "Result is not ready.";
+    public static final String STEP_ALREADY_DONE_S_S = "_step(): already done: %s, %s";
+    public static final String STOP_ITERATION_INTERACTS_BADLY_WITH_GENERATORS = "StopIteration interacts badly with generators and cannot be raised into a Future";
     public static final String S_BRACKETS_ARG_MUST_BE_S_NOT_P = "%s() argument must be a %s, not %p";
     public static final String S_BRACKETS_ARG_MUST_BE_READ_WRITE_BYTES_LIKE_NOT_P = "%s() argument must be read-write bytes-like object, not %p";
     public static final String ARG_MUST_BE_CALLABLE = "argument must be callable";
@@ -293,6 +306,7 @@ public abstract class ErrorMessages {
     public static final String P_HAS_RO_ATTRS_S_TO_ASSIGN = "'%p' object has only read-only attributes (assign to .%s)";
     public static final String P_HAS_RO_ATTRS_S_TO_DELETE = "'%p' object has only read-only attributes (del .%s)";
     public static final String HASH_SHOULD_RETURN_INTEGER = "__hash__ method should return an integer";
+    public static final String HEAP_ARGUMENT_MUST_BE_A_LIST = "heap argument must be a list";
     public static final String HEX_VALUE_TOO_LARGE_AS_FLOAT = "hexadecimal value too large to represent as a float";
     public static final String HOST_ACCESS_NOT_ALLOWED = "host access is not allowed";
     public static final String HOST_LOOKUP_NOT_ALLOWED = "host lookup is not allowed";
@@ -344,6 +358,7 @@ public abstract class ErrorMessages {
     public static final String INVALID_ITEM_RETURNED_FROM_NATIVE_SEQ = "Invalid item type %s returned from native sequence storage (expected: %s)";
     public static final String INVALID_LITERAL_FOR_INT_WITH_BASE = "invalid literal for int() with base %s: %s";
     public static final String INVALID_LOCALE_CATEGORY = "invalid locale category";
+    public static final String INVALID_FORMAT_STRING = "invalid format string";
     public static final String INVALID_MRO_OBJ = "invalid mro object";
     public static final String INVALID_NORMALIZATION_FORM = "invalid normalization form";
     public static final String INVALID_NUMBER_OF_ARGUMENTS = "%s: invalid number of arguments";
@@ -396,6 +411,7 @@ public abstract class ErrorMessages {
     public static final String LENGTH_SHOULD_NOT_BE_NEG = "length should not be negative";
     public static final String MATH_DOMAIN_ERROR = "math domain error";
     public static final String MATH_RANGE_ERROR = "math range error";
+    public static final String MAXSIZE_SHOULD_BE_INTEGER_OR_NONE = "maxsize should be integer or None";
     public static final String MAX_MARSHAL_STACK_DEPTH = "Maximum marshal stack depth";
     public static final String MEMORYVIEW_INVALID_SLICE_KEY = "memoryview: invalid slice key";
     public static final String MEMORYVIEW_A_BYTES_LIKE_OBJECT_REQUIRED_NOT_P = "memoryview: a bytes-like object is required, not '%p'";
@@ -471,6 +487,9 @@ public abstract class ErrorMessages {
     public static final String NONLOCAL_AND_GLOBAL = "name '%s' is nonlocal and global";
     public static final String NONLOCAL_AT_MODULE_LEVEL = "nonlocal declaration not allowed at module level";
     public static final String NON_HEX_DIGIT_FOUND = "Non-hexadecimal digit found";
+    public static final String NOT_A_DECIMAL = "not a decimal";
+    public static final String NOT_A_DIGIT = "not a digit";
+    public static final String NOT_A_NUMERIC_CHARACTER = "not a numeric character";
     public static final String NOT_A_ZIP_FILE = "not a Zip file: '%s'";
     public static final String NOT_ALL_ARGS_CONVERTED_DURING_FORMATTING = "not all arguments converted during %s formatting";
     public static final String NOT_ENOUGH_ARGS_FOR_FORMAT_STRING = "not enough arguments for format string";
@@ -519,6 +538,7 @@ public abstract class ErrorMessages {
     public static final String READ_WRITE_BYTELIKE_OBJ = "read-write bytes-like object";
     public static final String READONLY_ATTRIBUTE = "readonly attribute";
     public static final String RECURSION_DEPTH_EXCEEDED = "Recursion depth exceeded";
+    public static final String RELEASE_UNLOCKED_LOCK = "release unlocked lock";
     public static final String REPLACEMENT_INDEX_S_OUT_OF_RANGE = "Replacement index %s out of range for positional args tuple";
     public static final String REQUIRES_CODE_OBJ = "%s() requires a code object with %d free vars, not %d";
     public static final String REQUIRES_INT_OR_CHAR = "%%%c requires int or char";
@@ -577,6 +597,12 @@ public abstract class ErrorMessages {
     public static final String SWITCHING_FROM_MANUAL_TO_AUTOMATIC_NUMBERING = "switching from manual to automatic numbering";
     public static final String SRC_CODE_CANNOT_CONTAIN_NULL_BYTES = "source code string cannot contain null bytes";
     public static final String DICT_SLOT_DISALLOWED_WE_GOT_ONE = "__dict__ slot disallowed: we already got one";
+    public static final String TASK_ALL_TASKS_IS_DEPRECATED = "Task.all_tasks() is deprecated since Python 3.7, use asyncio.all_tasks() instead";
+    public static final String TASK_CANNOT_AWAIT_ON_ITSELF_S = "Task cannot await on itself: %s";
+    public static final String TASK_CURRENT_TASK_IS_DEPRECATED = "Task.current_task() is deprecated since Python 3.7, use asyncio.current_task() instead";
+    public static final String TASK_DOES_NOT_SUPPORT_S_OPERATION = "Task does not support %s operation";
+    public static final String TASK_GOT_BAD_YIELD_S = "Task got bad yield: %s";
+    public static final String TASK_S_GOT_FUTURE_S_ATTACHED_TO_A_DIFFERENT_LOOP = "Task %s got Future %s attached to a different loop";
     public static final String WEAKREF_SLOT_DISALLOWED_WE_GOT_ONE = "__weakref__ slot disallowed: either we already got one, or __itemsize__ != 0";
     public static final String STAR_WANTS_INT = "* wants int";
     public static final String TOO_MANY_DECIMAL_DIGITS_IN_FORMAT_STRING = "Too many decimal digits in format string";
@@ -608,6 +634,7 @@ public abstract class ErrorMessages {
     public static final String TAKES_EXACTLY_D_ARGUMENTS_D_GIVEN = "%s() takes exactly %d arguments (%d given)";
     public static final String TAKES_EXACTLY_S_ARGUMENTS_D_GIVEN = "%s() takes exactly %s arguments (%d given)";
     public static final String TAKES_NO_KEYWORD_ARGS = "%s takes no keyword arguments";
+    public static final String THE_NUMBER_OF_FRAMES_MUST_BE_IN_RANGE = "the number of frames must be in range [1; %d]";
     public static final String THROW_THIRD_ARG_MUST_BE_TRACEBACK = "throw() third argument must be a traceback object";
     public static final String TDATAOBJECT_SHOULD_NOT_HAVE_MORE_LINKS = "_tee_dataobject should not have more than %s links";
     public static final String TDATAOBJECT_SHOULDNT_HAVE_NEXT = "_tee_dataobject shouldn't have a next if not full";
@@ -635,6 +662,7 @@ public abstract class ErrorMessages {
     public static final String TYPE_DOESNT_DEFINE_FORMAT = "Type %p doesn't define __format__";
     public static final String UNAVAILABLE_ON_THIS_PLATFORM = "%s: %s unavailable on this platform";
     public static final String UNAVAILABLE_ON_THIS_PLATFORM_NO_FUNC = "%s unavailable on this platform";
+    public static final String UNDEFINED_CHARACTER_NAME = "undefined character name '%s'";
     public static final String UNEXPECTED_KEYWORD_ARGS = "%s: unexpected keyword arguments";
     public static final String UNEXPECTED_S_IN_FIELD_NAME = "unexpected %s in field name";
     public static final String UNHASHABLE_TYPE_P = "unhashable type: '%p'";
@@ -672,6 +700,8 @@ public abstract class ErrorMessages {
     public static final String WEAK_OBJ_GONE_AWAY = "weak object has gone away";
     public static final String X_NOT_IN_LIST = "x not in list";
     public static final String X_NOT_IN_TUPLE = "tuple.index(x): x not in tuple";
+    public static final String YIELD_WAS_USED_INSTEAD_OF_YIELD_FROM_FOR_GENERATOR_IN_TASK_S_WITH_S = "yield was used instead of yield from for generator in task %s with %s";
+    public static final String YIELD_WAS_USED_INSTEAD_OF_YIELD_FROM_IN_TASK_S_WITH_S = "yield was used instead of yield from in task %s with %s";
     public static final String YOU_MAY_SPECIFY_EITHER_OR_BUT_NOT_BOTH = "%s: you may specify either '%s' or '%s' but not both";
     public static final String ZIPIMPORT_CANNOT_REWAD_ARCH_MEMBERS = "zipimport: cannot read archive members large than 2GB";
     public static final String ZIPIMPORT_CANT_READ_DATA = "zipimport: can't read data";
@@ -829,6 +859,7 @@ public abstract class ErrorMessages {
     public static final String CAN_T_RECONSTRUCT_LOGICAL_FILE_POSITION = "can't reconstruct logical file position";
     public static final String ILLEGAL_DECODER_STATE = "illegal decoder state";
     public static final String ILLEGAL_DECODER_STATE_THE_FIRST = "illegal decoder state: the first item should be a bytes object, not '%p'";
+    public static final String SWITCH_INTERVAL_MUST_BE_POSITIVE = "switch interval must be strictly positive";
     public static final String A_STRICTLY_POSITIVE_INTEGER_IS_REQUIRED = "a strictly positive integer is required";
     public static final String NEW_POSITION_TOO_LARGE = "new position too large";
     public static final String NEGATIVE_SIZE_VALUE_D = "negative size value %d";
@@ -978,8 +1009,203 @@ public abstract class ErrorMessages {
     public static final String OTHER_ARG_MUST_BE_KEY = "other argument must be K instance";
     public static final String INVALID_PARTIAL_STATE = "invalid partial state";
 
+    // struct errors
+    public static final String BAD_CHAR_IN_STRUCT_FMT = "bad char in struct format";
+    public static final String REPEAT_COUNT_WITHOUT_FMT = "repeat count given without format specifier";
+    public static final String STRUCT_SIZE_TOO_LONG = "total struct size too long";
+    public static final String STRUCT_FMT_NOT_STR_OR_BYTES = "Struct() argument 1 must be a str or bytes object, not %p";
+    public static final String STRUCT_S_EXPECTED_N_ITEMS_GOT_K = "%s expected %d items for packing (got %d)";
+    public static final String STRUCT_UNPACK_REQ_BUFFER_OF_N_BYTES = "unpack requires a buffer of %d bytes";
+    public static final String STRUCT_UNPACK_FROM_REQ_AT_LEAST_N_BYTES = "unpack_from requires a buffer of at least %d bytes for unpacking %d bytes at offset %d (actual buffer size is %d)";
+    public static final String STRUCT_PACK_INTO_REQ_AT_LEAST_N_BYTES = "pack_into requires a buffer of at least %d bytes for packing %d bytes at offset %d (actual buffer size is %d)";
+    public static final String STRUCT_OFFSET_OUT_OF_RANGE = "offset %d out of range for %d-byte buffer";
+    public static final String STRUCT_NOT_ENOUGH_DATA_TO_UNPACK = "not enough data to unpack %d bytes at offset %d";
+    public static final String STRUCT_NO_SPACE_TO_PACK_N_BYTES = "no space to pack %d bytes at offset %d";
+    public static final String STRUCT_ITER_CANNOT_UNPACK_FROM_STRUCT_OF_SIZE_0 = "cannot iteratively unpack with a struct of length 0";
+    public static final String STRUCT_ITER_UNPACK_REQ_A_BUFFER_OF_A_MUL_OF_BYTES = "iterative unpacking requires a buffer of a multiple of %d bytes";
+    public static final String STRUCT_ARG_NOT_AN_INTEGER = "required argument is not an integer";
+    public static final String STRUCT_ARG_NOT_A_FLOAT = "required argument is not a float";
+    public static final String STRUCT_ARG_OUT_OF_RANGE = "argument out of range";
+    public static final String STRUCT_FMT_REQUIRES_RANGE = "'%c' format requires %d <= number <= %d";
+    public static final String STRUCT_CHAR_FMT_BYTES_1 = "char format requires a bytes object of length 1";
+    public static final String STRUCT_ARG_FOR_S_MUST_BE_BYTES = "argument for '%c' must be a bytes object";
+
     // pickle errors
     public static final String CANNOT_PICKLE_OBJECT_TYPE = "cannot pickle '%p' object";
+    public static final String ARGS0_FROM_NEWOBJ_ARGS_HAS_WRONG_CLASS = "args[0] from __newobj__ args has the wrong class";
+    public static final String ARGS0_FROM_NEWOBJ_ARGS_IS_NOT_A_TYPE = "args[0] from __newobj__ args is not a type";
+    public static final String ARGUMENT_LIST_MUST_BE_A_TUPLE = "argument list must be a tuple";
+    public static final String BINSTRING_PICKLE_HAS_NEGATIVE_BYTE_COUNT = "BINSTRING pickle has negative byte count";
+    public static final String BUFFER_CALLBACK_NEEDS_PROTOCOL_5 = "buffer_callback needs protocol >= 5";
+    public static final String CANT_GET_ATTRIBUTE_S_ON_S = "Can't get attribute %s on %s";
+    public static final String CANT_GET_LOCAL_ATTRIBUTE_S_ON_S = "Can't get local attribute %s on %s";
+    public static final String CANT_PICKLE_GLOBAL_IDENTIFIER_S_USING_PROTOCOL_D = "can't pickle global identifier '%s' using pickle protocol %d";
+    public static final String CANT_PICKLE_LOCAL_OBJECT_S = "Can't pickle local object %s";
+    public static final String CANT_PICKLE_MODULE_IDENTIFIER_S_USING_PROTOCOL_D = "can't pickle module identifier '%s' using pickle protocol %d";
+    public static final String CANT_PICKLE_P_OBJECT_S = "can't pickle '%p' object: %s";
+    public static final String CANT_PICKLE_S_ATTRIBUTE_LOOKUP_S_ON_S_FAILED = "Can't pickle %s: attribute lookup %s on %s failed";
+    public static final String CANT_PICKLE_S_EXTENSION_CODE_S_ISNT_INTEGER = "Can't pickle %s: extension code %s isn't an integer";
+    public static final String CANT_PICKLE_S_EXTENSION_CODE_S_OUT_OF_RANGE = "Can't pickle %s: extension code %s is out of range";
+    public static final String CANT_PICKLE_S_IMPORT_OF_MODULE_S_FAILED = "Can't pickle %s: import of module %s failed";
+    public static final String CANT_PICKLE_S_NOT_SAME_OBJECT_AS_S_S = "Can't pickle %s: it's not the same object as %s.%s";
+    public static final String CANNOT_EXTRACT_RAW_BUFFER_FROM_NON_CONTIGUOUS = "cannot extract raw buffer from non-contiguous buffer";
+    public static final String COMPAT_PICKLE_S_VALUES_SHOULD_BE_2_TUPLES_NOT_P = "_compat_pickle.%s values should be 2-tuples, not %p";
+    public static final String COMPAT_PICKLE_S_VALUES_SHOULD_BE_PAIRS_OF_STR_NOT_P_P = "_compat_pickle.%s values should be pairs of str, not (%p, %p)";
+    public static final String COMPAT_PICKLE_S_VALUES_SHOULD_BE_STRINGS_NOT_P = "_compat_pickle.%s values should be strings, not %p";
+    public static final String COULD_NOT_CONVERT_STRING_TO_INT = "could not convert string to int";
+    public static final String COULD_NOT_FIND_MARK = "could not find MARK";
+    public static final String DICT_ITEMS_ITERATOR_MUST_RETURN_2_TUPLES = "dict items iterator must return 2-tuples";
+    public static final String EXPECTED_STR_GOT_P = "expected str, got %p";
+    public static final String EXT_SPECIFIES_CODE_LE_0 = "EXT specifies code <= 0";
+    public static final String FAST_MODE_CANT_PICKLE_CYCLIC_OBJECTS = "fast mode: can't pickle cyclic objects including object type %p at %s";
+    public static final String FILE_MUST_HAVE_A_WRITE_ATTR = "file must have a 'write' attribute";
+    public static final String FILE_MUST_HAVE_READ_AND_READLINE_ATTRS = "file must have 'read' and 'readline' attributes";
+    public static final String FIRST_ITEM_OF_REDUCE_TUPLE_MUST_BE_CALLABLE = "first item of the tuple returned by __reduce__ must be callable";
+    public static final String FRAME_LENGTH_EXCEEDS_SYSTEMS_MAXIMUM_OF_D_BYTES = "FRAME length exceeds system's maximum of %d bytes";
+    public static final String INVALID_LOAD_KEY_S = "invalid load key, '%s'.";
+    public static final String INVERTED_REGISTRY_D_ISNT_A_2_TUPLE_OF_STRINGS = "_inverted_registry[%d] isn't a 2-tuple of strings";
+    public static final String LENGTH_OF_NEWOBJ_EX_ARGUMENT_TUPLE_MUST_BE_3 = "length of the NEWOBJ_EX argument tuple must be exactly 3, not %d";
+    public static final String LONG_PICKLE_HAS_NEGATIVE_BYTE_COUNT = "LONG pickle has negative byte count";
+    public static final String MEMO_ATTR_MUST_BE_S_OBJECT_OR_DICT_NOT_P = "'memo' attribute must be a %s object or dict, not %p";
+    public static final String MEMO_KEY_MUST_BE_INTEGERS = "memo key must be integers";
+    public static final String MEMO_KEY_MUST_BE_POSITIVE_INTEGERS = "memo key must be positive integers.";
+    public static final String MEMO_VALUES_MUST_BE_2_ITEM_TUPLES = "memo values must be 2-item tuples";
+    public static final String NEGATIVE_S_ARGUMENT = "negative %s argument";
+    public static final String NEWOBJ_ARGLIST_IS_EMPTY = "__newobj__ arglist is empty";
+    public static final String NEWOBJ_CLASS_ARGUMENT_ISNT_A_TYPE_OBJECT = "NEWOBJ class argument isn't a type object";
+    public static final String NEWOBJ_EXPECTED_AN_ARG_TUPLE = "NEWOBJ expected an arg tuple.";
+    public static final String NEWOBJ_EX_ARGUMENT_ITEM_MUST_BE_S_NOT_P = "%s item from NEWOBJ_EX argument tuple must be %s, not %p";
+    public static final String NEWOBJ_EX_ARGUMENT_MUST_BE_S_NOT_P = "NEWOBJ_EX %s argument must be %s, not %p";
+    public static final String NOT_ENOUGH_OUT_OF_BAND_BUFFERS = "not enough out-of-band buffers";
+    public static final String NO_PERSISTENT_LOAD_FUNCTION_SPECIFIED = "A load persistent id instruction was encountered,\nbut no persistent_load function was specified.";
+    public static final String ODD_NUMBER_OF_ITEMS_FOR_S = "odd number of items for %s";
+    public static final String OP_FORBIDDEN_ON_RELEASED_PICKLEBUFFER = "operation forbidden on released PickleBuffer object";
+    public static final String PERSISTENT_IDS_IN_PROTOCOL_0_MUST_BE_ASCII = "persistent IDs in protocol 0 must be ASCII strings";
+    public static final String PICKLEBUFFER_CANNOT_BE_PICKLED_NON_CONTIGUOUS = "PickleBuffer can not be pickled when pointing to a non-contiguous buffer";
+    public static final String PICKLEBUFFER_CAN_ONLY_PICKLED_WITH_PROTOCOL_5 = "PickleBuffer can only pickled with protocol >= 5";
+    public static final String PICKLER_INIT_NOT_CALLED_BY_P_INIT = "Pickler.__init__() was not called by %p.__init__()";
+    public static final String PICKLE_DATA_WAS_TRUNCATED = "pickle data was truncated";
+    public static final String PICKLE_PROTOCOL_MUST_BE_LE_D = "pickle protocol must be <= %d";
+    public static final String PICKLE_STREAM_REFERS_TO_OUT_OF_BAND_DATA = "pickle stream refers to out-of-band data but no *buffers* argument was given";
+    public static final String RAN_OUT_OF_INPUT = "Ran out of input";
+    public static final String REDUCE_ELEMENT_MUST_BE_ITERATOR_NOT_P = "%s element of the tuple returned by __reduce__ must be an iterator, not %p";
+    public static final String REDUCE_MUST_RETURN_STRING_OR_TUPLE = "__reduce__ must return a string or tuple";
+    public static final String SECOND_ITEM_OF_REDUCE_TUPLE_MUST_BE_TUPLE = "second item of the tuple returned by __reduce__ must be a tuple";
+    public static final String SIXTH_ELEMENT_OF_REDUCE_TUPLE_MUST_BE_FUNCTION_NOT_P = "sixth element of the tuple returned by __reduce__ must be a function, not %p";
+    public static final String SLOT_STATE_IS_NOT_A_DICTIONARY = "slot state is not a dictionary";
+    public static final String STACK_GLOBAL_REQUIRES_STR = "STACK_GLOBAL requires str";
+    public static final String STATE_IS_NOT_A_DICTIONARY = "state is not a dictionary";
+    public static final String S_MUST_BE_A_CALLABLE_TAKING_ONE_ARGUMENT = "%s must be a callable taking one argument";
+    public static final String S_EXCEEDS_SYSTEMS_MAXIMUM_SIZE_OF_D_BYTES = "%s exceeds system's maximum size of %d bytes";
+    public static final String THE_STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED = "the STRING opcode argument must be quoted";
+    public static final String TUPLE_RETURNED_BY_REDUCE_MUST_CONTAIN_2_THROUGH_6 = "tuple returned by __reduce__ must contain 2 through 6 elements";
+    public static final String UNEXPECTED_MARK_FOUND = "unexpected MARK found";
+    public static final String UNPICKLER_INIT_NOT_CALLED_BY_P_INIT = "Unpickler.__init__() was not called by %p.__init__()";
+    public static final String UNPICKLING_STACK_UNDERFLOW = "unpickling stack underflow";
+    public static final String UNREGISTERED_EXTENSION_CODE_D = "unregistered extension code %d";
+    public static final String UNSUPPORTED_PICKLE_PROTOCOL_D = "unsupported pickle protocol: %d";
+
+    // datetime errors
+    public static final String CANT_COMPARE_OFFSET_NAIVE_AND_OFFSET_AWARE_S = "can't compare offset-naive and offset-aware %s";
+    public static final String CANT_COMPARE_S_TO_S = "can't compare %s to %s";
+    public static final String CANT_SUBTRACT_OFFSET_NAIVE_AND_OFFSET_AWARE_DATETIMES = "can't subtract offset-naive and offset-aware datetimes";
+    public static final String DATE_VALUE_OUT_OF_RANGE = "date value out of range";
+    public static final String DAYS_D_MUST_HAVE_MAGNITUDE_LE_D = "days=%d; must have magnitude <= %d";
+    public static final String DAY_IS_OUT_OF_RANGE_FOR_MONTH = "day is out of range for month";
+    public static final String FOLD_MUST_BE_EITHER_0_OR_1 = "fold must be either 0 or 1";
+    public static final String FROMISOFORMAT_ARGUMENT_MUST_BE_STR = "fromisoformat: argument must be str";
+    public static final String HOUR_MUST_BE_IN_0_23 = "hour must be in 0..23";
+    public static final String INTEGER_ARGUMENT_EXPECTED_GOT_FLOAT = "integer argument expected, got float";
+    public static final String INVALID_ISOFORMAT_STRING_S = "Invalid isoformat string: %s";
+    public static final String MICROSECOND_MUST_BE_IN_0_999999 = "microsecond must be in 0..999999";
+    public static final String MINUTE_MUST_BE_IN_0_59 = "minute must be in 0..59";
+    public static final String MONTH_MUST_BE_IN_1_12 = "month must be in 1..12";
+    public static final String OFFSET_MUST_BE_TIMEDELTA_STRICTLY_BETWEEN_S = "offset must be a timedelta strictly between -timedelta(hours=24) and timedelta(hours=24), not %s.";
+    public static final String ORDINAL_MUST_BE_GE_1 = "ordinal must be >= 1";
+    public static final String SECOND_MUST_BE_IN_0_59 = "second must be in 0..59";
+    public static final String S_ARGUMENT_1_MUST_BE_UNICODE_CHARACTER_NOT_P = "%s argument 1 must be a unicode character, not %p";
+    public static final String S_DT_ARGUMENT_MUST_BE_DATETIME_OR_NONE_NOT_P = "%s(dt) argument must be a datetime instance or None, not %p";
+    public static final String TZINFO_ARGUMENT_MUST_BE_NONE_OR_TZINFO_NOT_P = "tzinfo argument must be None or of a tzinfo subclass, not type '%p'";
+    public static final String TZINFO_S_MUST_RETURN_NONE_OR_TIMEDELTA_NOT_P = "tzinfo.%s() must return None or timedelta, not '%p'";
+    public static final String TZINFO_TZNAME_MUST_RETURN_NONE_OR_STRING_NOT_P = "tzinfo.tzname() must return None or a string, not '%p'";
+    public static final String UNKNOWN_TIMESPEC_VALUE = "Unknown timespec value";
+    public static final String UNSUPPORTED_TYPE_FOR_TIMEDELTA_S_COMPONENT_P = "unsupported type for timedelta %s component: %p";
+    public static final String YEAR_D_IS_OUT_OF_RANGE = "year %d is out of range";
+
+    // hashlib errors
+    public static final String DEPTH_MUST_BE_BETWEEN_1_AND_255 = "depth must be between 1 and 255";
+    public static final String DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES = "digest_size must be between 1 and %d bytes";
+    public static final String FANOUT_MUST_BE_BETWEEN_0_AND_255 = "fanout must be between 0 and 255";
+    public static final String INNER_SIZE_MUST_BE_BETWEEN_0_AND_IS_D = "inner_size must be between 0 and is %d";
+    public static final String ITERATION_VALUE_IS_TOO_GREAT = "iteration value is too great.";
+    public static final String ITERATION_VALUE_MUST_BE_GREATER_THAN_0 = "iteration value must be greater than 0.";
+    public static final String KEY_LENGTH_IS_TOO_GREAT = "key length is too great.";
+    public static final String KEY_LENGTH_MUST_BE_GREATER_THAN_0 = "key length must be greater than 0.";
+    public static final String LEAF_SIZE_IS_TOO_LARGE = "leaf_size is too large";
+    public static final String LENGTH_IS_TOO_LARGE = "length is too large";
+    public static final String MAXIMUM_S_LENGTH_IS_D_BYTES = "maximum %s length is %d bytes";
+    public static final String NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255 = "node_depth must be between 0 and 255";
+    public static final String NODE_OFFSET_IS_TOO_LARGE = "node_offset is too large";
+    public static final String S_MISSING_REQUIRED_ARGUMENT_S_POS_D = "%s() missing required argument '%s' (pos %d)";
+    public static final String S_TAKES_NO_ARGUMENTS_D_GIVEN = "%s() takes no arguments (%d given)";
+    public static final String UNICODE_OBJECTS_MUST_BE_ENCODED_BEFORE_HASHING = "Unicode-objects must be encoded before hashing";
+    public static final String UNSUPPORTED_HASH_TYPE_S = "unsupported hash type %s";
+    public static final String VALUE_MUST_BE_POSITIVE = "value must be positive";
+
+    // select errors
+    public static final String CANT_CONVERT_NEGATIVE_INT_TO_UNSIGNED = "can't convert negative int to unsigned";
+    public static final String CONCURRENT_POLL_INVOCATION = "concurrent poll() invocation";
+    public static final String IO_OPERATION_ON_CLOSED_EPOLL_OBJECT = "I/O operation on closed epoll object";
+    public static final String MAXEVENTS_MUST_BE_GREATER_THAN_0_GOT_D = "maxevents must be greater than 0, got %d";
+    public static final String NEGATIVE_SIZEHINT = "negative sizehint";
+    public static final String TIMEOUT_IS_TOO_LARGE = "timeout is too large";
+
+    // csv errors
+    public static final String ARG_1_MUST_HAVE_A_WRITE_METHOD = "argument 1 must have a \"write\" method";
+    public static final String BAD_QUOTING_VALUE = "bad \"quoting\" value";
+    public static final String C_EXPECTED_AFTER_C = "'%s' expected after '%s'";
+    public static final String DIALECT_NAME_MUST_BE_A_STRING = "dialect name must be a string";
+    public static final String FIELD_LARGER_THAN_FIELD_LIMIT_D = "field larger than field limit (%d)";
+    public static final String ITERABLE_EXPECTED_NOT_P = "iterable expected, not %p";
+    public static final String ITERATOR_SHOULD_RETURN_STRINGS_NOT_P = "iterator should return strings, not %p (did you open the file in text mode?)";
+    public static final String LIMIT_MUST_BE_AN_INTEGER = "limit must be an integer";
+    public static final String LINE_CONTAINS_NUL = "line contains NUL";
+    public static final String LINETERMINATOR_MUST_BE_SET = "lineterminator must be set";
+    public static final String NEED_TO_ESCAPE_BUT_NO_ESCAPECHAR_SET = "need to escape, but no escapechar set";
+    public static final String NEW_LINE_CHARACTER_SEEN_IN_UNQUOTED_FIELD = "new-line character seen in unquoted field - do you need to open the file in universal-newline mode?";
+    public static final String QUOTECHAR_MUST_BE_SET_IF_QUOTING_ENABLED = "quotechar must be set if quoting enabled";
+    public static final String S_MUST_BE_1_CHAR_STRING = "\"%s\" must be a 1-character string";
+    public static final String S_MUST_BE_A_STRING = "\"%s\" must be a string";
+    public static final String S_MUST_BE_AN_INTEGER = "\"%s\" must be an integer";
+    public static final String S_MUST_BE_STRING_NOT_P = "\"%s\" must be string, not %p";
+    public static final String SINGLE_EMPTY_FIELD_RECORD_MUST_BE_QUOTED = "single empty field record must be quoted";
+    public static final String UNEXPECTED_END_OF_DATA = "unexpected end of data";
+    public static final String UNKNOWN_DIALECT = "unknown dialect";
+
+    // decimal errors
+    public static final String ARG_MUST_BE_A_CONTEXT = "argument must be a context";
+    public static final String ARG_MUST_BE_INT_OR_FLOAT = "argument must be int or float";
+    public static final String ARG_MUST_BE_SEQ_OF_LEN_3 = "argument must be a sequence of length 3";
+    public static final String CANNOT_CONVERT_INFINITY_TO_INTEGER = "cannot convert Infinity to integer";
+    public static final String CANNOT_CONVERT_NAN_TO_INTEGER = "cannot convert NaN to integer";
+    public static final String CANNOT_CONVERT_SIGNALING_NAN_TO_FLOAT = "cannot convert signaling NaN to float";
+    public static final String CANNOT_HASH_SIGNALING_NAN = "Cannot hash a signaling NaN value.";
+    public static final String COEFFICIENT_MUST_BE_TUPLE_OF_DIGITS = "coefficient must be a tuple of digits";
+    public static final String CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED = "conversion from %p to Decimal is not supported";
+    public static final String EXPONENT_MUST_BE_AN_INTEGER = "exponent must be an integer";
+    public static final String INVALID_ROUNDING_MODE = "valid values for rounding are:\n" +
+                    "  [ROUND_CEILING, ROUND_FLOOR, ROUND_UP, ROUND_DOWN,\n" +
+                    "   ROUND_HALF_UP, ROUND_HALF_DOWN, ROUND_HALF_EVEN,\n" +
+                    "   ROUND_05UP]";
+    public static final String OPTIONAL_ARG_MUST_BE_A_CONTEXT = "optional argument must be a context";
+    public static final String OPTIONAL_ARG_MUST_BE_AN_INTEGER = "optional arg must be an integer";
+    public static final String SIGN_MUST_BE_INT_0_OR_1 = "sign must be an integer with the value 0 or 1";
+    public static final String STRING_ARG_IN_THIRD_POS_MUST_BE_F_N_N = "string argument in the third position must be 'F', 'n' or 'N'";
+    public static final String VALID_RANGE_FOR_EMAX_IS = "valid range for Emax is [0, MAX_EMAX]";
+    public static final String VALID_RANGE_FOR_EMIN_IS = "valid range for Emin is [MIN_EMIN, 0]";
+    public static final String VALID_RANGE_FOR_PREC_IS = "valid range for prec is [1, MAX_PREC]";
+    public static final String VALID_VALUES_FOR_CAPITALS_ARE_0_OR_1 = "valid values for capitals are 0 or 1";
+    public static final String VALID_VALUES_FOR_CLAMP_ARE_0_OR_1 = "valid values for clamp are 0 or 1";
 
     // warnings
     public static final String WARN_P_RETURNED_NON_P = "%p.%s returned non-%s (type %p). " +
@@ -44,6 +44,7 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.Signature;
+import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.nodes.PClosureFunctionRootNode;
 import com.oracle.graal.python.nodes.PRootNode;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
@@ -94,8 +95,12 @@ public class GeneratorFunctionRootNode extends PClosureFunctionRootNode {
         // This is passed from CallDispatch node
         PFunction generatorFunction = PArguments.getGeneratorFunction(arguments);
 
-        return factory.createGenerator(generatorFunction.getName(), generatorFunction.getQualname(), callTargets, frameDescriptor, arguments, PArguments.getClosure(frame), cellSlots,
-                        generatorInfo, null);
+        PGenerator generator = factory.createGenerator(generatorFunction.getName(), generatorFunction.getQualname(), callTargets, frameDescriptor, arguments, PArguments.getClosure(frame),
+                        cellSlots, generatorInfo, null);
+        // like 'gi_code' on CPython, this is the function's code, including flags set by
+        // 'types.coroutine'
+        generator.setCode(generatorFunction.getCode());
+        return generator;
     }
 
     public static RootCallTarget[] createYieldTargets(RootCallTarget callTarget) {
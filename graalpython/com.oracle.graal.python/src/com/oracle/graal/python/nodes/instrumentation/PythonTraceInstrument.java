@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.instrumentation;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.frame.PFrame;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.BaseBlockNode;
+import com.oracle.graal.python.nodes.frame.MaterializeFrameNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.InstrumentInfo;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.AllocationEventFilter;
+import com.oracle.truffle.api.instrumentation.AllocationListener;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.Instrumenter;
+import com.oracle.truffle.api.instrumentation.SourceFilter;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags.RootTag;
+import com.oracle.truffle.api.instrumentation.StandardTags.StatementTag;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.nodes.LanguageInfo;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Implements the hooks installed with {@code sys.settrace} and {@code sys.setprofile} and the
+ * allocation tracing of {@code tracemalloc}. The event bindings are only attached while at least
+ * one thread has a hook installed or one context traces allocations, so code that runs without
+ * them is not instrumented at all.
+ */
+@TruffleInstrument.Registration(id = PythonTraceInstrument.ID, name = "Python trace and profile hooks", internal = true, services = PythonTraceInstrument.Hooks.class)
+public final class PythonTraceInstrument extends TruffleInstrument {
+
+    public static final String ID = "python-trace-hooks";
+
+    /**
+     * A profile function implemented in Java. It receives the 'call' and 'return' events of the
+     * profiled thread without materializing the Python frame.
+     */
+    public interface ProfileListener {
+        void onCall(RootNode root);
+
+        void onReturn(RootNode root);
+    }
+
+    @Override
+    protected void onCreate(Env env) {
+        env.registerService(new Hooks(env));
+    }
+
+    @TruffleBoundary
+    public static void setTraceFunction(PythonContext context, PythonThreadState threadState, Object function) {
+        getHooks(context.getEnv()).setTraceFunction(threadState, function);
+    }
+
+    @TruffleBoundary
+    public static void setProfileFunction(PythonContext context, PythonThreadState threadState, Object function) {
+        getHooks(context.getEnv()).setProfileFunction(threadState, function);
+    }
+
+    @TruffleBoundary
+    public static void startAllocationTracing(PythonContext context, AllocationListener listener) {
+        getHooks(context.getEnv()).setAllocationTracing(true, listener);
+    }
+
+    @TruffleBoundary
+    public static void stopAllocationTracing(PythonContext context) {
+        getHooks(context.getEnv()).setAllocationTracing(false, null);
+    }
+
+    private static Hooks getHooks(TruffleLanguage.Env env) {
+        InstrumentInfo info = env.getInstruments().get(ID);
+        Hooks hooks = info != null ? env.lookup(info, Hooks.class) : null;
+        if (hooks == null) {
+            throw CompilerDirectives.shouldNotReachHere("trace instrument not available");
+        }
+        return hooks;
+    }
+
+    public static final class Hooks {
+        private final Env env;
+        private final Instrumenter instrumenter;
+
+        private int traceHooks;
+        private int profileHooks;
+        private int allocationTracers;
+        private EventBinding<?> callBinding;
+        private EventBinding<?> lineBinding;
+        private EventBinding<?> allocationBinding;
+        private EventBinding<?> locationBinding;
+
+        Hooks(Env env) {
+            this.env = env;
+            this.instrumenter = env.getInstrumenter();
+        }
+
+        synchronized void setTraceFunction(PythonThreadState threadState, Object function) {
+            Object old = threadState.getTraceFunction();
+            threadState.setTraceFunction(function);
+            if (old == null && function != null) {
+                traceHooks++;
+            } else if (old != null && function == null) {
+                traceHooks--;
+            } else {
+                return;
+            }
+            updateBindings();
+        }
+
+        synchronized void setProfileFunction(PythonThreadState threadState, Object function) {
+            Object old = threadState.getProfileFunction();
+            threadState.setProfileFunction(function);
+            if (old == null && function != null) {
+                profileHooks++;
+            } else if (old != null && function == null) {
+                profileHooks--;
+            } else {
+                return;
+            }
+            updateBindings();
+        }
+
+        /**
+         * The allocation listener is shared by all contexts and attached while any of them traces
+         * allocations. While it is attached, statements record themselves as the location of
+         * their frame, so that allocations can be attributed to lines.
+         */
+        synchronized void setAllocationTracing(boolean enable, AllocationListener listener) {
+            if (enable) {
+                if (allocationTracers++ == 0) {
+                    LanguageInfo python = env.getLanguages().get(PythonLanguage.ID);
+                    allocationBinding = instrumenter.attachAllocationListener(AllocationEventFilter.newBuilder().languages(python).build(), listener);
+                    locationBinding = instrumenter.attachExecutionEventFactory(createFilter(StatementTag.class), LocationEventNode::create);
+                }
+            } else if (allocationTracers > 0 && --allocationTracers == 0) {
+                allocationBinding.dispose();
+                allocationBinding = null;
+                locationBinding.dispose();
+                locationBinding = null;
+            }
+        }
+
+        private void updateBindings() {
+            if (traceHooks + profileHooks > 0) {
+                if (callBinding == null) {
+                    callBinding = instrumenter.attachExecutionEventFactory(createFilter(RootTag.class), context -> new CallEventNode(this, context));
+                }
+            } else if (callBinding != null) {
+                callBinding.dispose();
+                callBinding = null;
+            }
+            if (traceHooks > 0) {
+                if (lineBinding == null) {
+                    lineBinding = instrumenter.attachExecutionEventFactory(createFilter(StatementTag.class), new LineEventNodeFactory(this));
+                }
+            } else if (lineBinding != null) {
+                lineBinding.dispose();
+                lineBinding = null;
+            }
+        }
+
+        private static SourceSectionFilter createFilter(Class<?> tag) {
+            SourceFilter sourceFilter = SourceFilter.newBuilder().languageIs(PythonLanguage.ID).includeInternal(false).build();
+            return SourceSectionFilter.newBuilder().tagIs(tag).sourceFilter(sourceFilter).includeInternal(false).build();
+        }
+    }
+
+    private static final class LineEventNodeFactory implements ExecutionEventNodeFactory {
+        private final Hooks hooks;
+
+        LineEventNodeFactory(Hooks hooks) {
+            this.hooks = hooks;
+        }
+
+        @Override
+        public ExecutionEventNode create(EventContext context) {
+            // blocks start at the line of their first statement, which reports itself
+            if (context.getInstrumentedNode() instanceof BaseBlockNode || context.getInstrumentedSourceSection() == null) {
+                return null;
+            }
+            return new LineEventNode(hooks, context);
+        }
+    }
+
+    private static final class LocationEventNode extends ExecutionEventNode {
+        private final Node location;
+
+        private LocationEventNode(Node location) {
+            this.location = location;
+        }
+
+        static ExecutionEventNode create(EventContext context) {
+            if (context.getInstrumentedNode() instanceof BaseBlockNode) {
+                return null;
+            }
+            return new LocationEventNode(context.getInstrumentedNode());
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            PArguments.getCurrentFrameInfo(frame).setCallNode(location);
+        }
+    }
+
+    private abstract static class TraceEventNode extends ExecutionEventNode {
+        private final Hooks hooks;
+        protected final EventContext eventContext;
+
+        @Child private MaterializeFrameNode materializeNode = MaterializeFrameNode.create();
+        @Child private CallNode callNode = CallNode.create();
+
+        protected final BranchProfile hookProfile = BranchProfile.create();
+
+        TraceEventNode(Hooks hooks, EventContext eventContext) {
+            this.hooks = hooks;
+            this.eventContext = eventContext;
+        }
+
+        protected final PythonThreadState getThreadState() {
+            return PythonContext.get(this).getThreadState(PythonLanguage.get(this));
+        }
+
+        protected final PFrame materialize(VirtualFrame frame, Node location) {
+            return materializeNode.execute(frame, location, true, true);
+        }
+
+        /**
+         * Calls a trace or profile function with the thread's hooks disabled. Like in CPython, a
+         * hook that raises an exception is uninstalled before the exception propagates into the
+         * traced code.
+         */
+        protected final Object invokeHook(VirtualFrame frame, PythonThreadState threadState, Object hook, PFrame pyFrame, String event, Object arg, boolean isProfile) {
+            threadState.setTracing(true);
+            try {
+                return callNode.execute(frame, hook, pyFrame, event, arg);
+            } catch (PException e) {
+                removeHook(threadState, pyFrame, isProfile);
+                throw eventContext.createError(e);
+            } finally {
+                threadState.setTracing(false);
+            }
+        }
+
+        @TruffleBoundary
+        private void removeHook(PythonThreadState threadState, PFrame pyFrame, boolean isProfile) {
+            if (isProfile) {
+                hooks.setProfileFunction(threadState, null);
+            } else {
+                hooks.setTraceFunction(threadState, null);
+                pyFrame.setLocalTraceFunction(null);
+            }
+        }
+    }
+
+    private static final class CallEventNode extends TraceEventNode {
+        @Child private GetClassNode getClassNode;
+        @Child private PythonObjectFactory factory;
+
+        CallEventNode(Hooks hooks, EventContext eventContext) {
+            super(hooks, eventContext);
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            PythonThreadState threadState = getThreadState();
+            if (threadState.isTracing()) {
+                return;
+            }
+            Object traceFunction = threadState.getTraceFunction();
+            if (traceFunction != null) {
+                hookProfile.enter();
+                // 'call' events report the line of the function definition
+                PFrame pyFrame = materialize(frame, eventContext.getInstrumentedNode().getRootNode());
+                Object localTraceFunction = invokeHook(frame, threadState, traceFunction, pyFrame, "call", PNone.NONE, false);
+                if (localTraceFunction != PNone.NONE) {
+                    pyFrame.setLocalTraceFunction(localTraceFunction);
+                }
+            }
+            Object profileFunction = threadState.getProfileFunction();
+            if (profileFunction != null) {
+                hookProfile.enter();
+                profile(frame, threadState, profileFunction, true, PNone.NONE);
+            }
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            onReturn(frame, result == null ? PNone.NONE : result);
+        }
+
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            PythonThreadState threadState = getThreadState();
+            if (exception instanceof PException && !threadState.isTracing()) {
+                PFrame pyFrame = getTracedFrame(frame, threadState);
+                if (pyFrame != null) {
+                    invokeHook(frame, threadState, pyFrame.getLocalTraceFunction(), pyFrame, "exception", createExceptionInfo((PException) exception), false);
+                }
+            }
+            // generators that yield also end up here, CPython reports them as 'return' as well
+            onReturn(frame, PNone.NONE);
+        }
+
+        private void onReturn(VirtualFrame frame, Object result) {
+            PythonThreadState threadState = getThreadState();
+            if (threadState.isTracing()) {
+                return;
+            }
+            PFrame pyFrame = getTracedFrame(frame, threadState);
+            if (pyFrame != null) {
+                invokeHook(frame, threadState, pyFrame.getLocalTraceFunction(), pyFrame, "return", result, false);
+            }
+            Object profileFunction = threadState.getProfileFunction();
+            if (profileFunction != null) {
+                hookProfile.enter();
+                profile(frame, threadState, profileFunction, false, result);
+            }
+        }
+
+        /**
+         * Returns the frame if it has a local trace function that should receive the event.
+         */
+        private PFrame getTracedFrame(VirtualFrame frame, PythonThreadState threadState) {
+            if (threadState.getTraceFunction() == null) {
+                return null;
+            }
+            PFrame pyFrame = PArguments.getCurrentFrameInfo(frame).getPyFrame();
+            if (pyFrame == null || pyFrame.getLocalTraceFunction() == null) {
+                return null;
+            }
+            hookProfile.enter();
+            return materialize(frame, pyFrame.getLocation());
+        }
+
+        private void profile(VirtualFrame frame, PythonThreadState threadState, Object profileFunction, boolean isCall, Object arg) {
+            if (profileFunction instanceof ProfileListener) {
+                threadState.setTracing(true);
+                try {
+                    notifyListener((ProfileListener) profileFunction, eventContext.getInstrumentedNode().getRootNode(), isCall);
+                } finally {
+                    threadState.setTracing(false);
+                }
+            } else {
+                PFrame pyFrame = materialize(frame, eventContext.getInstrumentedNode().getRootNode());
+                invokeHook(frame, threadState, profileFunction, pyFrame, isCall ? "call" : "return", arg, true);
+            }
+        }
+
+        @TruffleBoundary
+        private static void notifyListener(ProfileListener listener, RootNode root, boolean isCall) {
+            if (isCall) {
+                listener.onCall(root);
+            } else {
+                listener.onReturn(root);
+            }
+        }
+
+        private Object createExceptionInfo(PException exception) {
+            if (getClassNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getClassNode = insert(GetClassNode.create());
+                factory = insert(PythonObjectFactory.create());
+            }
+            // the traceback is only created once the exception is caught
+            Object value = exception.getUnreifiedException();
+            return factory.createTuple(new Object[]{getClassNode.execute(value), value, PNone.NONE});
+        }
+    }
+
+    private static final class LineEventNode extends TraceEventNode {
+        private final int line;
+        private final int charIndex;
+
+        LineEventNode(Hooks hooks, EventContext eventContext) {
+            super(hooks, eventContext);
+            SourceSection section = eventContext.getInstrumentedSourceSection();
+            this.line = section.getStartLine();
+            this.charIndex = section.getCharIndex();
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            PythonThreadState threadState = getThreadState();
+            if (threadState.getTraceFunction() == null || threadState.isTracing()) {
+                return;
+            }
+            PFrame pyFrame = PArguments.getCurrentFrameInfo(frame).getPyFrame();
+            if (pyFrame == null || pyFrame.getLocalTraceFunction() == null || !pyFrame.updateTracePosition(line, charIndex)) {
+                return;
+            }
+            hookProfile.enter();
+            materialize(frame, eventContext.getInstrumentedNode());
+            Object result = invokeHook(frame, threadState, pyFrame.getLocalTraceFunction(), pyFrame, "line", PNone.NONE, false);
+            if (result != PNone.NONE) {
+                pyFrame.setLocalTraceFunction(result);
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.StringHashingStorage;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.nodes.literal.DictLiteralNodeFactory.DynamicDictLiteralNodeGen;
@@ -61,7 +62,7 @@ public abstract class DictLiteralNode {
         @Specialization
         @ExplodeLoop
         public PDict create(VirtualFrame frame) {
-            HashMapStorage dictStorage = new HashMapStorage(values.length);
+            StringHashingStorage dictStorage = new StringHashingStorage(values.length);
             for (int i = 0; i < values.length; i++) {
                 Object value = values[i].execute(frame);
                 dictStorage.put(keys[i], value);
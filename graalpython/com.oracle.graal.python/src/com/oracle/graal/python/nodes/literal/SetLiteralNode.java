@@ -26,6 +26,7 @@
 package com.oracle.graal.python.nodes.literal;
 
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
@@ -61,16 +62,22 @@ public abstract class SetLiteralNode extends LiteralNode {
     public PSet expand(VirtualFrame frame,
                     @Cached ConditionProfile hasFrame,
                     @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
-        // we will usually have more than 'values.length' elements
-        HashingStorage storage = PDict.createNewStorage(true, values.length);
+        HashingStorage storage = EmptyStorage.INSTANCE;
         ThreadState state = PArguments.getThreadStateOrNull(frame, hasFrame);
-        for (ExpressionNode n : values) {
+        for (int i = 0; i < values.length; i++) {
+            ExpressionNode n = values[i];
             Object element = n.execute(frame);
             if (StarredExpressionNode.isStarredExpression(n)) {
                 storage = ((StarredExpressionNode) n.unwrap()).appendToSet(frame, storage, lib, state, element);
-            } else {
-                storage = lib.setItemWithState(storage, element, PNone.NONE, state);
+                continue;
             }
+            if (i == 0) {
+                // let the first element pick the storage, so that e.g. sets of ints get a storage
+                // specialized for them instead of one that generalizes on the first element, and
+                // size it for at least 'values.length' elements
+                storage = PDict.createNewStorageForKey(element, values.length);
+            }
+            storage = lib.setItemWithState(storage, element, PNone.NONE, state);
         }
         return factory.createSet(storage);
     }
@@ -49,6 +49,7 @@ import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -71,7 +72,6 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.ThreadLocalAction;
 import com.oracle.truffle.api.TruffleLanguage;
-import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.TruffleLogger;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.RootNode;
@@ -151,7 +151,9 @@ public class AsyncHandler {
 
     private final WeakReference<PythonContext> context;
     private static final int ASYNC_ACTION_DELAY = 25;
-    private static final int GIL_RELEASE_DELAY = 50;
+    private volatile boolean gilActivated;
+    private final AtomicBoolean gilTickerScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean gilReleaseRequested = new AtomicBoolean(false);
 
     private class AsyncRunnable implements Runnable {
         private final Supplier<AsyncAction> actionSupplier;
@@ -249,51 +251,93 @@ public class AsyncHandler {
         executorService.scheduleWithFixedDelay(new AsyncRunnable(actionSupplier), ASYNC_ACTION_DELAY, ASYNC_ACTION_DELAY, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Enables the periodic GIL switching. The switch ticker is not running all the time, it is only
+     * started when a thread has to wait for the GIL (see {@link #notifyGilContended()}) and it stops
+     * again as soon as nobody is waiting.
+     */
     void activateGIL() {
         CompilerAsserts.neverPartOfCompilation();
+        gilActivated = true;
+        final PythonContext ctx = context.get();
+        if (ctx != null && ctx.hasGilWaiters()) {
+            notifyGilContended();
+        }
+    }
+
+    /**
+     * Called by a thread that is about to block on the GIL, after it registered itself as waiter.
+     */
+    void notifyGilContended() {
+        if (gilActivated && gilTickerScheduled.compareAndSet(false, true)) {
+            scheduleGilTick();
+        }
+    }
+
+    private void scheduleGilTick() {
         final PythonContext ctx = context.get();
         if (ctx == null) {
             return;
         }
-        final Env env = ctx.getEnv();
-        final AtomicBoolean gilReleaseRequested = new AtomicBoolean(false);
-        executorService.scheduleWithFixedDelay(() -> {
-            if (gilReleaseRequested.compareAndSet(false, true)) {
-                Thread gilOwner = ctx.getGilOwner();
-                // There is a race, but that's no problem. The gil owner may release the gil before
-                // getting to run this safepoint. In that case, it just ignores it. Some other
-                // thread will run and eventually get another gil release request.
-                if (gilOwner != null) {
-                    env.submitThreadLocal(new Thread[]{gilOwner}, new ThreadLocalAction(false, false) {
-                        @Override
-                        protected void perform(ThreadLocalAction.Access access) {
-                            // it may happen that we request a GIL release and no thread is
-                            // currently holding the GIL (e.g. all are sleeping). We still need
-                            // to tick again later, so we reset the gilReleaseRequested flag even
-                            // when the thread in question isn't actually holding it.
-                            gilReleaseRequested.set(false);
-                            RootNode rootNode = access.getLocation().getRootNode();
-                            if (rootNode instanceof PClosureRootNode) {
-                                if (rootNode.isInternal()) {
-                                    return;
-                                }
-                                if (rootNode instanceof FunctionRootNode && ((FunctionRootNode) rootNode).isPythonInternal()) {
-                                    return;
-                                }
-                                // we only release the gil in ordinary Python code nodes
-                                GilNode gil = GilNode.getUncached();
-                                if (gil.tryRelease()) {
-                                    Thread.yield();
-                                    gil.acquire(access.getLocation());
-                                }
+        try {
+            executorService.schedule(this::gilTick, ctx.getSwitchIntervalNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // we are shutting down
+            gilTickerScheduled.set(false);
+        }
+    }
+
+    private void gilTick() {
+        final PythonContext ctx = context.get();
+        if (ctx == null) {
+            return;
+        }
+        if (!ctx.hasGilWaiters()) {
+            // Nobody waits for the GIL, so stop ticking. A thread registers as waiter before it
+            // tries to restart the ticker, so re-checking after resetting the flag ensures we
+            // cannot miss a waiter that arrived in between.
+            gilTickerScheduled.set(false);
+            if (!ctx.hasGilWaiters() || !gilTickerScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        if (gilReleaseRequested.compareAndSet(false, true)) {
+            Thread gilOwner = ctx.getGilOwner();
+            // There is a race, but that's no problem. The gil owner may release the gil before
+            // getting to run this safepoint. In that case, it just ignores it. Some other
+            // thread will run and eventually get another gil release request.
+            if (gilOwner != null) {
+                ctx.getEnv().submitThreadLocal(new Thread[]{gilOwner}, new ThreadLocalAction(false, false) {
+                    @Override
+                    protected void perform(ThreadLocalAction.Access access) {
+                        // it may happen that we request a GIL release and no thread is
+                        // currently holding the GIL (e.g. all are sleeping). We still need
+                        // to tick again later, so we reset the gilReleaseRequested flag even
+                        // when the thread in question isn't actually holding it.
+                        gilReleaseRequested.set(false);
+                        RootNode rootNode = access.getLocation().getRootNode();
+                        if (rootNode instanceof PClosureRootNode) {
+                            if (rootNode.isInternal()) {
+                                return;
+                            }
+                            if (rootNode instanceof FunctionRootNode && ((FunctionRootNode) rootNode).isPythonInternal()) {
+                                return;
+                            }
+                            // we only release the gil in ordinary Python code nodes
+                            GilNode gil = GilNode.getUncached();
+                            long contendedAcquires = ctx.getGilContendedAcquires();
+                            if (gil.tryRelease()) {
+                                ctx.awaitGilHandoff(contendedAcquires);
+                                gil.acquire(access.getLocation());
                             }
                         }
-                    });
-                } else {
-                    gilReleaseRequested.set(false);
-                }
+                    }
+                });
+            } else {
+                gilReleaseRequested.set(false);
             }
-        }, GIL_RELEASE_DELAY, GIL_RELEASE_DELAY, TimeUnit.MILLISECONDS);
+        }
+        scheduleGilTick();
     }
 
     public void shutdown() {
@@ -57,6 +57,12 @@ import static com.oracle.graal.python.runtime.PosixConstants.EAI_FAMILY;
 import static com.oracle.graal.python.runtime.PosixConstants.EAI_NONAME;
 import static com.oracle.graal.python.runtime.PosixConstants.EAI_SERVICE;
 import static com.oracle.graal.python.runtime.PosixConstants.EAI_SOCKTYPE;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLONESHOT;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_ADD;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_DEL;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_MOD;
 import static com.oracle.graal.python.runtime.PosixConstants.F_OK;
 import static com.oracle.graal.python.runtime.PosixConstants.IN6ADDR_ANY;
 import static com.oracle.graal.python.runtime.PosixConstants.INADDR_NONE;
@@ -67,6 +73,7 @@ import static com.oracle.graal.python.runtime.PosixConstants.LOCK_NB;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_SH;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_UN;
 import static com.oracle.graal.python.runtime.PosixConstants.MAP_ANONYMOUS;
+import static com.oracle.graal.python.runtime.PosixConstants.MAP_PRIVATE;
 import static com.oracle.graal.python.runtime.PosixConstants.NI_DGRAM;
 import static com.oracle.graal.python.runtime.PosixConstants.NI_NAMEREQD;
 import static com.oracle.graal.python.runtime.PosixConstants.NI_NUMERICHOST;
@@ -83,6 +90,9 @@ import static com.oracle.graal.python.runtime.PosixConstants.O_SYNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TMPFILE;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TRUNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_WRONLY;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLNVAL;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLOUT;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_EXEC;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_NONE;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_READ;
@@ -148,14 +158,19 @@ import java.net.StandardProtocolFamily;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.channels.AlreadyConnectedException;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.FileLock;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.NotYetConnectedException;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
@@ -186,6 +201,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 import org.graalvm.nativeimage.ImageInfo;
@@ -214,6 +230,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -313,6 +330,8 @@ public final class EmulatedPosixSupport extends PosixResources {
     };
 
     private final ConcurrentHashMap<String, String> environ = new ConcurrentHashMap<>();
+    // Selector-based poller reused by subsequent calls to 'poll'
+    private final AtomicReference<EmulatedPoller> idlePoller = new AtomicReference<>();
     private int currentUmask = 0022;
     private boolean hasDefaultUmask = true;
     // Lazily parsed content of /etc/services.
@@ -472,6 +491,103 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public long readv(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses) throws PosixException {
+        Channel channel = getFileChannel(fd);
+        if (!(channel instanceof ReadableByteChannel)) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        ByteBuffer[] segments = wrapSegments(buffers, offsets, lengths, addresses);
+        try {
+            if (channel instanceof ScatteringByteChannel) {
+                return Math.max(((ScatteringByteChannel) channel).read(segments), 0);
+            }
+            // Fill the segments one by one, stopping at the first short read so that we do not
+            // block once some data has been read
+            long total = 0;
+            for (ByteBuffer segment : segments) {
+                int n = ((ReadableByteChannel) channel).read(segment);
+                if (n <= 0) {
+                    break;
+                }
+                total += n;
+                if (segment.hasRemaining()) {
+                    break;
+                }
+            }
+            return total;
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public long writev(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses) throws PosixException {
+        Channel channel = getFileChannel(fd);
+        if (!(channel instanceof WritableByteChannel)) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        ByteBuffer[] segments = wrapSegments(buffers, offsets, lengths, addresses);
+        try {
+            if (channel instanceof GatheringByteChannel) {
+                return ((GatheringByteChannel) channel).write(segments);
+            }
+            long total = 0;
+            for (ByteBuffer segment : segments) {
+                total += ((WritableByteChannel) channel).write(segment);
+                if (segment.hasRemaining()) {
+                    break;
+                }
+            }
+            return total;
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public long sendfile(int outFd, int inFd, long offset, long count) throws PosixException {
+        Channel in = getFileChannel(inFd);
+        Channel out = getFileChannel(outFd);
+        if (in == null || !(out instanceof WritableByteChannel)) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(in instanceof FileChannel) || count < 0) {
+            // like sendfile(2), we need an input that supports positional reads
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        FileChannel source = (FileChannel) in;
+        // hand the socket channel itself to transferTo, the JDK can only avoid copying for those
+        WritableByteChannel target = out instanceof EmulatedStreamSocket ? ((EmulatedStreamSocket) out).getClientChannel() : (WritableByteChannel) out;
+        try {
+            long position = offset < 0 ? source.position() : offset;
+            long n = source.transferTo(position, count, target);
+            if (n == 0 && count > 0 && position < source.size()) {
+                // nothing could be written to a non-blocking target
+                throw posixException(OSErrorEnum.EAGAIN);
+            }
+            if (offset < 0) {
+                source.position(position + n);
+            }
+            return n;
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    private static ByteBuffer[] wrapSegments(byte[][] buffers, int[] offsets, int[] lengths, long[] addresses) {
+        // native segments are only passed to the native backend
+        assert addresses == null;
+        ByteBuffer[] segments = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            segments[i] = ByteBuffer.wrap(buffers[i], offsets[i], lengths[i]);
+        }
+        return segments;
+    }
+
     @Override
     @ExportMessage
     public int dup(int fd) {
@@ -642,6 +758,428 @@ public final class EmulatedPosixSupport extends PosixResources {
         return channels;
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public int[] poll(int[] fds, int[] events, int timeoutMs) throws PosixException {
+        int[] revents = new int[fds.length];
+        boolean immediate = false;
+        EmulatedPoller poller = null;
+        try {
+            poller = takeIdlePoller();
+            Map<Integer, Integer> fdIndex = new HashMap<>(fds.length * 2);
+            synchronized (poller) {
+                for (int i = 0; i < fds.length; i++) {
+                    Channel channel = getChannel(fds[i]);
+                    if (channel == null) {
+                        revents[i] = POLLNVAL.value;
+                        immediate = true;
+                    } else if (!isSelectable(channel)) {
+                        // like regular files in poll(2), channels that cannot be selected are
+                        // always considered to be ready
+                        revents[i] = events[i] & (POLLIN.value | POLLOUT.value);
+                        immediate |= revents[i] != 0;
+                    } else {
+                        fdIndex.put(fds[i], i);
+                    }
+                }
+                for (Map.Entry<Integer, Integer> e : fdIndex.entrySet()) {
+                    int fd = e.getKey();
+                    poller.set(fd, getChannel(fd), events[e.getValue()]);
+                }
+            }
+            int[] readyFds = new int[fdIndex.size()];
+            int[] readyEvents = new int[fdIndex.size()];
+            int n = poller.await(readyFds, readyEvents, immediate ? 0 : timeoutMs);
+            for (int i = 0; i < n; i++) {
+                revents[fdIndex.get(readyFds[i])] |= readyEvents[i];
+            }
+            return revents;
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        } finally {
+            if (poller != null) {
+                releaseIdlePoller(poller);
+            }
+        }
+    }
+
+    private EmulatedPoller takeIdlePoller() throws IOException {
+        EmulatedPoller poller = idlePoller.getAndSet(null);
+        if (poller == null) {
+            poller = new EmulatedPoller(POLLIN.value, POLLOUT.value, 0);
+        }
+        return poller;
+    }
+
+    private void releaseIdlePoller(EmulatedPoller poller) {
+        try {
+            // a channel registered with a selector cannot be put back into blocking mode
+            poller.clear();
+            if (idlePoller.compareAndSet(null, poller)) {
+                return;
+            }
+        } catch (IOException e) {
+            // fall through and discard the poller
+        }
+        try {
+            poller.close();
+        } catch (IOException e) {
+            // ignore, the poller was never visible to the user
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int epollCreate() throws PosixException {
+        if (!EPOLLIN.defined) {
+            throw posixException(OSErrorEnum.ENOSYS);
+        }
+        try {
+            return assignFileDescriptor(new EmulatedPoller(EPOLLIN.getValueIfDefined(), EPOLLOUT.getValueIfDefined(), EPOLLONESHOT.getValueIfDefined()));
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public void epollCtl(int epfd, int op, int fd, int events) throws PosixException {
+        EmulatedPoller poller = getEmulatedPoller(epfd);
+        Channel channel = getChannel(fd);
+        if (channel == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (channel == poller) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        if (!isSelectable(channel)) {
+            // epoll does not support regular files either
+            throw posixException(OSErrorEnum.EPERM);
+        }
+        synchronized (poller) {
+            boolean registered = poller.isRegistered(fd);
+            try {
+                if (op == EPOLL_CTL_ADD.getValueIfDefined()) {
+                    if (registered) {
+                        throw posixException(OSErrorEnum.EEXIST);
+                    }
+                    poller.set(fd, channel, events);
+                } else if (op == EPOLL_CTL_MOD.getValueIfDefined()) {
+                    if (!registered) {
+                        throw posixException(OSErrorEnum.ENOENT);
+                    }
+                    poller.set(fd, channel, events);
+                } else if (op == EPOLL_CTL_DEL.getValueIfDefined()) {
+                    if (!registered) {
+                        throw posixException(OSErrorEnum.ENOENT);
+                    }
+                    poller.remove(fd);
+                } else {
+                    throw posixException(OSErrorEnum.EINVAL);
+                }
+            } catch (IOException e) {
+                throw posixException(OSErrorEnum.fromException(e));
+            }
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int epollWait(int epfd, int[] fds, int[] events, int timeoutMs) throws PosixException {
+        if (fds.length <= 0) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        EmulatedPoller poller = getEmulatedPoller(epfd);
+        try {
+            return poller.await(fds, events, timeoutMs);
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    private EmulatedPoller getEmulatedPoller(int epfd) throws PosixException {
+        Channel channel = getChannel(epfd);
+        if (channel == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(channel instanceof EmulatedPoller)) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        return (EmulatedPoller) channel;
+    }
+
+    private static boolean isSelectable(Channel channel) {
+        return channel instanceof SelectableChannel || channel instanceof EmulatedSocket;
+    }
+
+    /**
+     * Returns the selectable channel backing the given channel, or {@code null} if there is none
+     * (yet), e.g. for a stream socket that is neither connected nor listening.
+     */
+    private static SelectableChannel toSelectableChannel(Channel channel) {
+        if (channel instanceof SelectableChannel) {
+            return (SelectableChannel) channel;
+        }
+        if (channel instanceof EmulatedSocket) {
+            return ((EmulatedSocket) channel).getSelectableChannel();
+        }
+        return null;
+    }
+
+    /**
+     * A persistent set of registrations on top of a {@link Selector}, which backs the emulated
+     * epoll instances and (through a cached idle instance that is emptied after each call)
+     * {@code poll}. Non-blocking channels stay registered with the selector across waits, so a wait
+     * costs time proportional to the number of ready channels rather than to the number of
+     * registered ones. Channels in blocking mode cannot stay registered with a selector, those are
+     * registered only for the duration of a single wait. For the same reason, the keys of removed
+     * registrations are deregistered right away, so that the channels can be put into blocking
+     * mode again.
+     * <p>
+     * Changing the interest set of a key or registering a channel may block while another thread
+     * is selecting, therefore changes of the registration set are only recorded by {@link #set} and
+     * {@link #remove} and applied by the waiting thread. Methods are expected to be called behind a
+     * {@code TruffleBoundary}.
+     */
+    private static final class EmulatedPoller implements Channel {
+        private final Selector selector;
+        private final Map<Integer, Registration> registrations = new HashMap<>();
+        private final int inEvent;
+        private final int outEvent;
+        private final int oneShotEvent;
+        // a thread is waiting in 'await'
+        private boolean waiting;
+        // the registrations changed while a thread was waiting
+        private boolean changed;
+        // the selector may have a pending wakeup that would end the next select prematurely
+        private boolean wakeupPending;
+        // keys were cancelled since the last select, their channels cannot be registered again
+        // until the selector deregisters them
+        private boolean keysCancelled;
+
+        private static final class Registration {
+            private final int fd;
+            private final Channel channel;
+            private int events;
+            private SelectionKey key;
+
+            private Registration(int fd, Channel channel, int events) {
+                this.fd = fd;
+                this.channel = channel;
+                this.events = events;
+            }
+        }
+
+        EmulatedPoller(int inEvent, int outEvent, int oneShotEvent) throws IOException {
+            this.selector = Selector.open();
+            this.inEvent = inEvent;
+            this.outEvent = outEvent;
+            this.oneShotEvent = oneShotEvent;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return selector.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            selector.close();
+        }
+
+        synchronized boolean isRegistered(int fd) {
+            return registrations.containsKey(fd);
+        }
+
+        synchronized void set(int fd, Channel channel, int events) throws IOException {
+            Registration r = registrations.get(fd);
+            if (r != null && r.channel == channel) {
+                r.events = events;
+            } else {
+                if (r != null) {
+                    cancel(r);
+                }
+                registrations.put(fd, new Registration(fd, channel, events));
+            }
+            wakeupWaiter();
+            deregisterCancelledKeys();
+        }
+
+        synchronized void remove(int fd) throws IOException {
+            Registration r = registrations.remove(fd);
+            if (r != null) {
+                cancel(r);
+                wakeupWaiter();
+                deregisterCancelledKeys();
+            }
+        }
+
+        synchronized void clear() throws IOException {
+            for (Registration r : registrations.values()) {
+                cancel(r);
+            }
+            registrations.clear();
+            deregisterCancelledKeys();
+        }
+
+        /**
+         * Deregisters the cancelled keys unless a thread is waiting, whose select deregisters them
+         * anyway.
+         */
+        private void deregisterCancelledKeys() throws IOException {
+            if (keysCancelled && !waiting) {
+                selector.selectNow();
+                selector.selectedKeys().clear();
+                wakeupPending = false;
+                keysCancelled = false;
+            }
+        }
+
+        private void wakeupWaiter() {
+            if (waiting) {
+                changed = true;
+                wakeupPending = true;
+                selector.wakeup();
+            }
+        }
+
+        private void cancel(Registration r) {
+            if (r.key != null) {
+                // unlike registering, cancelling a key never blocks
+                r.key.cancel();
+                r.key = null;
+                keysCancelled = true;
+            }
+        }
+
+        private int interestOps(int events, SelectableChannel channel) {
+            int ops = 0;
+            if ((events & inEvent) != 0) {
+                ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
+            }
+            if ((events & outEvent) != 0) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            return ops & channel.validOps();
+        }
+
+        private int readyEvents(int readyOps, int events) {
+            int ready = 0;
+            if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+                ready |= inEvent;
+            }
+            if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+                ready |= outEvent;
+            }
+            return ready & events;
+        }
+
+        /**
+         * Registers the channels with the selector. Returns the keys of channels in blocking mode,
+         * which have to be deregistered again once the wait is over.
+         */
+        private synchronized List<SelectionKey> prepare() throws IOException {
+            waiting = true;
+            changed = false;
+            if (wakeupPending || keysCancelled) {
+                // clears the effect of the wakeup and deregisters the cancelled keys
+                selector.selectNow();
+                wakeupPending = false;
+                keysCancelled = false;
+            }
+            selector.selectedKeys().clear();
+            List<SelectionKey> temporary = null;
+            for (Registration r : registrations.values()) {
+                SelectableChannel channel = toSelectableChannel(r.channel);
+                if (channel == null || !channel.isOpen()) {
+                    continue;
+                }
+                int ops = interestOps(r.events, channel);
+                if (r.key != null && r.key.isValid() && r.key.channel() == channel) {
+                    if (r.key.interestOps() != ops) {
+                        r.key.interestOps(ops);
+                    }
+                } else if (channel.isBlocking()) {
+                    channel.configureBlocking(false);
+                    if (temporary == null) {
+                        temporary = new ArrayList<>();
+                    }
+                    temporary.add(channel.register(selector, ops, r));
+                } else {
+                    r.key = channel.register(selector, ops, r);
+                }
+            }
+            return temporary;
+        }
+
+        private synchronized int collect(int[] fds, int[] events) {
+            int n = 0;
+            for (SelectionKey key : selector.selectedKeys()) {
+                Registration r = (Registration) key.attachment();
+                if (n == fds.length || !key.isValid() || registrations.get(r.fd) != r) {
+                    continue;
+                }
+                int ready = readyEvents(key.readyOps(), r.events);
+                if (ready != 0) {
+                    fds[n] = r.fd;
+                    events[n] = ready;
+                    n++;
+                    if ((r.events & oneShotEvent) != 0) {
+                        // disabled until re-armed using EPOLL_CTL_MOD
+                        r.events = 0;
+                    }
+                }
+            }
+            selector.selectedKeys().clear();
+            return n;
+        }
+
+        int await(int[] fds, int[] events, int timeoutMs) throws IOException {
+            long deadline = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+            while (true) {
+                List<SelectionKey> temporary = prepare();
+                try {
+                    if (timeoutMs == 0) {
+                        selector.selectNow();
+                    } else if (timeoutMs < 0) {
+                        selector.select();
+                    } else {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        selector.select(Math.max(remaining, 1));
+                    }
+                    int n = collect(fds, events);
+                    boolean retry;
+                    synchronized (this) {
+                        // woken up only because the registrations changed
+                        retry = n == 0 && changed && timeoutMs != 0 && (timeoutMs < 0 || System.nanoTime() < deadline) && !Thread.currentThread().isInterrupted();
+                    }
+                    if (!retry) {
+                        return n;
+                    }
+                } finally {
+                    synchronized (this) {
+                        waiting = false;
+                    }
+                    if (temporary != null) {
+                        restoreBlocking(temporary);
+                    }
+                }
+            }
+        }
+
+        private void restoreBlocking(List<SelectionKey> keys) throws IOException {
+            for (SelectionKey key : keys) {
+                key.cancel();
+            }
+            // deregisters the cancelled keys
+            selector.selectNow();
+            selector.selectedKeys().clear();
+            for (SelectionKey key : keys) {
+                key.channel().configureBlocking(true);
+            }
+        }
+    }
+
     @ExportMessage
     public long lseek(int fd, long offset, int how,
                     @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
@@ -2070,81 +2608,136 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     public static final class MMapHandle {
         private static final MMapHandle NONE = new MMapHandle(null, 0);
+
+        /**
+         * A {@link ByteBuffer} is indexed by {@code int}, so mappings larger than that are split
+         * into chunks of this size.
+         */
+        private static final int CHUNK_SHIFT = 30;
+        private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+        // the channel, if the memory is not mapped, e.g., with a virtual file system
         private SeekableByteChannel channel;
         private final long offset;
+        // the mapped or (for anonymous and copy-on-write fallback mappings) allocated memory
+        private ByteBuffer[] chunks;
+        private final long length;
 
         public MMapHandle(SeekableByteChannel channel, long offset) {
             this.channel = channel;
             this.offset = offset;
+            this.length = -1;
         }
 
-        @Override
-        public String toString() {
-            neverPartOfCompilation();
-            return String.format("Emulated mmap [channel=%s, offset=%d]", channel, offset);
+        MMapHandle(ByteBuffer[] chunks, long length) {
+            this.offset = 0;
+            this.chunks = chunks;
+            this.length = length;
         }
-    }
-
-    private static final class AnonymousMap implements SeekableByteChannel {
-        private final byte[] data;
-
-        private boolean open = true;
-        private int cur;
 
-        public AnonymousMap(int cap) {
-            this.data = new byte[cap];
+        boolean isMapped() {
+            return chunks != null;
         }
 
-        @Override
-        public boolean isOpen() {
-            return open;
+        @TruffleBoundary(allowInlining = true)
+        byte get(long index) {
+            return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & (CHUNK_SIZE - 1)));
         }
 
-        @Override
-        public void close() throws IOException {
-            open = false;
+        @TruffleBoundary(allowInlining = true)
+        void put(long index, byte value) {
+            chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & (CHUNK_SIZE - 1)), value);
         }
 
-        @Override
-        public int read(ByteBuffer dst) throws IOException {
-            int nread = Math.min(dst.remaining(), data.length - cur);
-            dst.put(data, cur, nread);
-            return nread;
+        @TruffleBoundary
+        int get(long index, byte[] dst, int dstOffset, int len) {
+            int n = (int) Math.max(0, Math.min(len, length - index));
+            int done = 0;
+            while (done < n) {
+                long i = index + done;
+                ByteBuffer chunk = chunks[(int) (i >>> CHUNK_SHIFT)].duplicate();
+                int pos = (int) (i & (CHUNK_SIZE - 1));
+                int count = Math.min(n - done, chunk.capacity() - pos);
+                ((java.nio.Buffer) chunk).position(pos);
+                chunk.get(dst, dstOffset + done, count);
+                done += count;
+            }
+            return n;
         }
 
-        @Override
-        public int write(ByteBuffer src) throws IOException {
-            int nwrite = Math.min(src.remaining(), data.length - cur);
-            src.get(data, cur, nwrite);
-            return nwrite;
+        @TruffleBoundary
+        int put(long index, byte[] src, int srcOffset, int len) {
+            int n = (int) Math.max(0, Math.min(len, length - index));
+            int done = 0;
+            while (done < n) {
+                long i = index + done;
+                ByteBuffer chunk = chunks[(int) (i >>> CHUNK_SHIFT)].duplicate();
+                int pos = (int) (i & (CHUNK_SIZE - 1));
+                int count = Math.min(n - done, chunk.capacity() - pos);
+                ((java.nio.Buffer) chunk).position(pos);
+                chunk.put(src, srcOffset + done, count);
+                done += count;
+            }
+            return n;
         }
 
-        @Override
-        public long position() throws IOException {
-            return cur;
+        @TruffleBoundary
+        void force(long from, long len) {
+            long end = Math.min(length, from + len);
+            for (long i = from & ~(CHUNK_SIZE - 1L); i < end; i += CHUNK_SIZE) {
+                ByteBuffer chunk = chunks[(int) (i >>> CHUNK_SHIFT)];
+                if (chunk instanceof MappedByteBuffer) {
+                    ((MappedByteBuffer) chunk).force();
+                }
+            }
         }
 
         @Override
-        public SeekableByteChannel position(long newPosition) throws IOException {
-            if (newPosition < 0 || newPosition >= data.length) {
-                throw new IllegalArgumentException();
+        public String toString() {
+            neverPartOfCompilation();
+            if (chunks != null) {
+                return String.format("Emulated mmap [length=%d, chunks=%d]", length, chunks.length);
             }
-            cur = (int) newPosition;
-            return this;
+            return String.format("Emulated mmap [channel=%s, offset=%d]", channel, offset);
         }
+    }
 
-        @Override
-        public long size() throws IOException {
-            return data.length;
+    @TruffleBoundary
+    private static ByteBuffer[] allocateChunks(long length) {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(length)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocate(chunkSize(length, i));
         }
+        return chunks;
+    }
 
-        @Override
-        public SeekableByteChannel truncate(long size) throws IOException {
-            for (int i = 0; i < size; i++) {
-                data[i] = 0;
+    @TruffleBoundary
+    private static ByteBuffer[] mapChunks(FileChannel channel, MapMode mode, long offset, long length) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(length)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = channel.map(mode, offset + ((long) i << MMapHandle.CHUNK_SHIFT), chunkSize(length, i));
+        }
+        return chunks;
+    }
+
+    @TruffleBoundary
+    private static ByteBuffer[] readChunks(SeekableByteChannel channel, long offset, long length) throws IOException {
+        ByteBuffer[] chunks = allocateChunks(length);
+        channel.position(offset);
+        for (ByteBuffer chunk : chunks) {
+            while (chunk.hasRemaining() && channel.read(chunk) > 0) {
+                // keep reading, the rest of the chunk stays zeroed past the end of the file
             }
-            return this;
         }
+        return chunks;
+    }
+
+    private static int chunkCount(long length) {
+        return (int) ((length + MMapHandle.CHUNK_SIZE - 1) >>> MMapHandle.CHUNK_SHIFT);
+    }
+
+    private static int chunkSize(long length, int chunkIndex) {
+        return (int) Math.min(MMapHandle.CHUNK_SIZE, length - ((long) chunkIndex << MMapHandle.CHUNK_SHIFT));
     }
 
     @ExportMessage
@@ -2157,36 +2750,51 @@ public final class EmulatedPosixSupport extends PosixResources {
 
         // Note: the profile is not really defaultDirProfile, but it's good to share...
         if (isAnonymousProfile.profile((flags & MAP_ANONYMOUS.value) != 0)) {
-            try {
-                return new MMapHandle(new AnonymousMap(PythonUtils.toIntExact(length)), 0);
-            } catch (OverflowException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new UnsupportedPosixFeatureException(String.format("Anonymous mapping in mmap for memory larger than %d", Integer.MAX_VALUE));
-            }
+            return new MMapHandle(allocateChunks(length), length);
         }
 
         String path = getFilePath(fd);
         TruffleFile file = getTruffleFile(path);
-        Set<StandardOpenOption> options = mmapProtToOptions(prot);
+        boolean copyOnWrite = (flags & MAP_PRIVATE.value) != 0;
+        Set<StandardOpenOption> options = mmapProtToOptions(prot, copyOnWrite);
 
         // we create a new channel, the file may be closed but the mmap object should still work
-        SeekableByteChannel fileChannel;
+        SeekableByteChannel fileChannel = null;
         try {
             fileChannel = newByteChannel(file, options);
+            if (copyOnWrite) {
+                // changes must not be written back, so a private copy is the correct semantics;
+                // MapMode.PRIVATE would need a writable channel, which a read-only file cannot give
+                MMapHandle handle = new MMapHandle(readChunks(fileChannel, offset, length), length);
+                closeChannel(fileChannel);
+                return handle;
+            } else if (fileChannel instanceof FileChannel) {
+                // map the file into memory, the mapping stays valid after the channel is closed
+                MapMode mode = (prot & PROT_WRITE.value) != 0 ? MapMode.READ_WRITE : MapMode.READ_ONLY;
+                MMapHandle handle = new MMapHandle(mapChunks((FileChannel) fileChannel, mode, offset, length), length);
+                closeChannel(fileChannel);
+                return handle;
+            }
             position(fileChannel, offset);
             return new MMapHandle(fileChannel, offset);
         } catch (IOException e) {
+            if (fileChannel != null) {
+                try {
+                    closeChannel(fileChannel);
+                } catch (IOException ignored) {
+                }
+            }
             throw posixException(OSErrorEnum.fromException(e));
         }
     }
 
     @TruffleBoundary
-    private static Set<StandardOpenOption> mmapProtToOptions(int prot) {
+    private static Set<StandardOpenOption> mmapProtToOptions(int prot, boolean copyOnWrite) {
         HashSet<StandardOpenOption> options = new HashSet<>();
-        if ((prot & PROT_READ.value) != 0) {
+        if ((prot & PROT_READ.value) != 0 || copyOnWrite) {
             options.add(StandardOpenOption.READ);
         }
-        if ((prot & PROT_WRITE.value) != 0) {
+        if ((prot & PROT_WRITE.value) != 0 && !copyOnWrite) {
             options.add(StandardOpenOption.WRITE);
         }
         if ((prot & PROT_EXEC.value) != 0) {
@@ -2209,6 +2817,13 @@ public final class EmulatedPosixSupport extends PosixResources {
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
+        if (handle.isMapped()) {
+            if (index < 0 || index >= handle.length) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.ENODATA);
+            }
+            return handle.get(index);
+        }
         ByteBuffer readingBuffer = allocateByteBuffer(1);
         int readSize = readBytes(handle, index, readingBuffer, errBranch);
         if (readSize == 0) {
@@ -2219,13 +2834,16 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int length,
+    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
         if (mmap == MMapHandle.NONE) {
             errBranch.enter();
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
+        if (handle.isMapped()) {
+            return handle.get(index, bytes, bytesOffset, length);
+        }
         int sz;
         try {
             sz = PythonUtils.toIntExact(length);
@@ -2236,7 +2854,7 @@ public final class EmulatedPosixSupport extends PosixResources {
         ByteBuffer readingBuffer = allocateByteBuffer(sz);
         int readSize = readBytes(handle, index, readingBuffer, errBranch);
         if (readSize > 0) {
-            getByteBufferArray(readingBuffer, bytes, readSize);
+            getByteBufferArray(readingBuffer, bytes, bytesOffset, readSize);
         }
         return readSize;
     }
@@ -2253,17 +2871,56 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length,
+    public void mmapWriteByte(Object mmap, long index, byte value,
+                    @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
+        if (mmap == MMapHandle.NONE) {
+            errBranch.enter();
+            throw posixException(OSErrorEnum.EACCES);
+        }
+        MMapHandle handle = (MMapHandle) mmap;
+        if (handle.isMapped()) {
+            if (index < 0 || index >= handle.length) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EIO);
+            }
+            try {
+                handle.put(index, value);
+            } catch (ReadOnlyBufferException e) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EACCES);
+            }
+            return;
+        }
+        mmapWriteBytes(mmap, index, new byte[]{value}, 0, 1, errBranch);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
         if (mmap == MMapHandle.NONE) {
             errBranch.enter();
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
+        if (handle.isMapped()) {
+            int written;
+            try {
+                written = handle.put(index, bytes, bytesOffset, length);
+            } catch (ReadOnlyBufferException e) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EACCES);
+            }
+            if (written != length) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EIO);
+            }
+            return;
+        }
         try {
             SeekableByteChannel channel = handle.channel;
             position(channel, handle.offset + index);
-            int written = writeChannel(channel, bytes, length);
+            int written = writeChannel(channel, bytes, bytesOffset, length);
             if (written != length) {
                 throw posixException(OSErrorEnum.EIO);
             }
@@ -2275,18 +2932,21 @@ public final class EmulatedPosixSupport extends PosixResources {
     }
 
     @TruffleBoundary
-    private static int writeChannel(SeekableByteChannel channel, byte[] bytes, int length) throws IOException {
-        return channel.write(ByteBuffer.wrap(bytes, 0, length));
+    private static int writeChannel(SeekableByteChannel channel, byte[] bytes, int offset, int length) throws IOException {
+        return channel.write(ByteBuffer.wrap(bytes, offset, length));
     }
 
     @ExportMessage
-    @SuppressWarnings({"static-method", "unused"})
+    @SuppressWarnings("static-method")
     public void mmapFlush(Object mmap, long offset, long length) {
-        // Intentionally noop
-        // If we had access to the underlying NIO FileChannel, we could explicitly set force(true)
-        // when creating the channel. Another possibility would be exposing JDK's memory mapped
-        // files support via Truffle API, which would allow for more compatible (and completely
-        // different implementation of mmap in emulated posix)
+        if (mmap == MMapHandle.NONE) {
+            return;
+        }
+        MMapHandle handle = (MMapHandle) mmap;
+        if (handle.isMapped()) {
+            handle.force(offset, length);
+        }
+        // Unmapped channels write through, so there is nothing to flush
     }
 
     @ExportMessage
@@ -2296,6 +2956,8 @@ public final class EmulatedPosixSupport extends PosixResources {
             return;
         }
         MMapHandle handle = (MMapHandle) mmap;
+        // Java has no explicit unmap, the mapping is released when the buffers are collected
+        handle.chunks = null;
         if (handle.channel != null) {
             try {
                 closeChannel(handle.channel);
@@ -2306,6 +2968,13 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public long mmapGetPointer(@SuppressWarnings("unused") Object mmap) {
+        // the mapped chunks are Java buffers, which have no stable native address
+        return 0;
+    }
+
     @TruffleBoundary
     private static void closeChannel(Channel ch) throws IOException {
         ch.close();
@@ -2322,9 +2991,9 @@ public final class EmulatedPosixSupport extends PosixResources {
     }
 
     @TruffleBoundary(allowInlining = true)
-    protected static void getByteBufferArray(ByteBuffer src, byte[] dst, int readSize) {
+    protected static void getByteBufferArray(ByteBuffer src, byte[] dst, int dstOffset, int readSize) {
         src.flip();
-        src.get(dst, 0, readSize);
+        src.get(dst, dstOffset, readSize);
     }
 
     @TruffleBoundary(allowInlining = true)
@@ -2558,6 +3227,60 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public int sendmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags, UniversalSockAddr destAddr) throws PosixException {
+        assert addresses == null;
+        EmulatedSocket socket = getEmulatedSocket(sockfd);
+        EmulatedUniversalSockAddrImpl usa = (EmulatedUniversalSockAddrImpl) destAddr;
+        if (usa != null && socket.family == AF_INET.value && usa.getFamily() == AF_INET6.value) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        // The emulated sockets take a single buffer, so the message is assembled first to keep
+        // datagram boundaries intact
+        int total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        ByteBuffer bb = ByteBuffer.allocate(total);
+        for (int i = 0; i < buffers.length; i++) {
+            bb.put(buffers[i], offsets[i], lengths[i]);
+        }
+        ((java.nio.Buffer) bb).flip();
+        try {
+            if (usa == null) {
+                return socket.send(bb, flags);
+            }
+            return socket.sendto(bb, flags, usa.socketAddress);
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public RecvmsgResult recvmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags) throws PosixException {
+        assert addresses == null;
+        EmulatedSocket socket = getEmulatedSocket(sockfd);
+        int total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        ByteBuffer bb = ByteBuffer.allocate(total);
+        try {
+            SocketAddress sa = socket.recvfrom(bb, flags);
+            int readBytes = bb.position();
+            ((java.nio.Buffer) bb).flip();
+            for (int i = 0; i < buffers.length && bb.hasRemaining(); i++) {
+                bb.get(buffers[i], offsets[i], Math.min(lengths[i], bb.remaining()));
+            }
+            // Java channels do not report truncated datagrams, so msg_flags are always empty
+            return new RecvmsgResult(readBytes, 0, EmulatedUniversalSockAddrImpl.fromSocketAddress(socket.family, sa));
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
     @ExportMessage
     @TruffleBoundary
     public void shutdown(int sockfd, int how) throws PosixException {
@@ -3074,6 +3797,12 @@ public final class EmulatedPosixSupport extends PosixResources {
         abstract void configureBlocking(boolean block) throws IOException;
 
         abstract boolean isBlocking();
+
+        /**
+         * Returns the channel that can be registered with a selector, or {@code null} if there is
+         * no such channel yet.
+         */
+        abstract SelectableChannel getSelectableChannel();
     }
 
     private static final class EmulatedDatagramSocket extends EmulatedSocket {
@@ -3091,6 +3820,11 @@ public final class EmulatedPosixSupport extends PosixResources {
             return channel.isOpen();
         }
 
+        @Override
+        SelectableChannel getSelectableChannel() {
+            return channel;
+        }
+
         @Override
         public void close() throws IOException {
             neverPartOfCompilation();
@@ -3259,6 +3993,11 @@ public final class EmulatedPosixSupport extends PosixResources {
             // which case listen() may actually be performed after close().
         }
 
+        @Override
+        synchronized SelectableChannel getSelectableChannel() {
+            return clientChannel != null ? clientChannel : serverChannel;
+        }
+
         private synchronized SocketChannel getClientChannel() {
             if (clientChannel == null) {
                 throw new NotYetConnectedException();
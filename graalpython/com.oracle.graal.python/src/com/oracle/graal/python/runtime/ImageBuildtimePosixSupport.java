@@ -56,6 +56,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -203,6 +204,27 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.write(nativePosixSupport, fd, data);
     }
 
+    @ExportMessage
+    final long readv(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.readv(nativePosixSupport, fd, buffers, offsets, lengths, addresses);
+    }
+
+    @ExportMessage
+    final long writev(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.writev(nativePosixSupport, fd, buffers, offsets, lengths, addresses);
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.sendfile(nativePosixSupport, outFd, inFd, offset, count);
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -247,6 +269,33 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.select(nativePosixSupport, readfds, writefds, errorfds, timeout);
     }
 
+    @ExportMessage
+    final int[] poll(int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.poll(nativePosixSupport, fds, events, timeoutMs);
+    }
+
+    @ExportMessage
+    final int epollCreate(@CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.epollCreate(nativePosixSupport);
+    }
+
+    @ExportMessage
+    final void epollCtl(int epfd, int op, int fd, int events,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        nativeLib.epollCtl(nativePosixSupport, epfd, op, fd, events);
+    }
+
+    @ExportMessage
+    final int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.epollWait(nativePosixSupport, epfd, fds, events, timeoutMs);
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -654,17 +703,24 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
     }
 
     @ExportMessage
-    final int mmapReadBytes(Object mmap, long index, byte[] bytes, int length,
+    final int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
         checkNotInImageBuildtime();
-        return nativeLib.mmapReadBytes(nativePosixSupport, mmap, index, bytes, length);
+        return nativeLib.mmapReadBytes(nativePosixSupport, mmap, index, bytes, bytesOffset, length);
     }
 
     @ExportMessage
-    final void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length,
+    final void mmapWriteByte(Object mmap, long index, byte value,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
         checkNotInImageBuildtime();
-        nativeLib.mmapWriteBytes(nativePosixSupport, mmap, index, bytes, length);
+        nativeLib.mmapWriteByte(nativePosixSupport, mmap, index, value);
+    }
+
+    @ExportMessage
+    final void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        nativeLib.mmapWriteBytes(nativePosixSupport, mmap, index, bytes, bytesOffset, length);
     }
 
     @ExportMessage
@@ -681,6 +737,13 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         nativeLib.mmapUnmap(nativePosixSupport, mmap, length);
     }
 
+    @ExportMessage
+    final long mmapGetPointer(Object mmap,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) {
+        checkNotInImageBuildtime();
+        return nativeLib.mmapGetPointer(nativePosixSupport, mmap);
+    }
+
     @ExportMessage
     public PwdResult getpwuid(long uid,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -769,6 +832,13 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.sendto(nativePosixSupport, sockfd, buf, offset, len, flags, destAddr);
     }
 
+    @ExportMessage
+    final int sendmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags, UniversalSockAddr destAddr,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.sendmsg(nativePosixSupport, sockfd, buffers, offsets, lengths, addresses, flags, destAddr);
+    }
+
     @ExportMessage
     final int recv(int sockfd, byte[] buf, int offset, int len, int flags,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -783,6 +853,13 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.recvfrom(nativePosixSupport, sockfd, buf, offset, len, flags);
     }
 
+    @ExportMessage
+    final RecvmsgResult recvmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.recvmsg(nativePosixSupport, sockfd, buffers, offsets, lengths, addresses, flags);
+    }
+
     @ExportMessage
     final void shutdown(int sockfd, int how,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -55,6 +55,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -190,6 +191,39 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final long readv(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readv", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("readv", "%d", lib.readv(delegate, fd, buffers, offsets, lengths, addresses));
+        } catch (PosixException e) {
+            throw logException("readv", e);
+        }
+    }
+
+    @ExportMessage
+    final long writev(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("writev", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("writev", "%d", lib.writev(delegate, fd, buffers, offsets, lengths, addresses));
+        } catch (PosixException e) {
+            throw logException("writev", e);
+        }
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendfile", "%d, %d, %d, %d", outFd, inFd, offset, count);
+        try {
+            return logExit("sendfile", "%d", lib.sendfile(delegate, outFd, inFd, offset, count));
+        } catch (PosixException e) {
+            throw logException("sendfile", e);
+        }
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -257,6 +291,49 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final int[] poll(int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("poll", "%s, %s, %d", fds, events, timeoutMs);
+        try {
+            return logExit("poll", "%s", lib.poll(delegate, fds, events, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("poll", e);
+        }
+    }
+
+    @ExportMessage
+    final int epollCreate(@CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollCreate", "");
+        try {
+            return logExit("epollCreate", "%d", lib.epollCreate(delegate));
+        } catch (PosixException e) {
+            throw logException("epollCreate", e);
+        }
+    }
+
+    @ExportMessage
+    final void epollCtl(int epfd, int op, int fd, int events,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollCtl", "%d, %d, %d, %d", epfd, op, fd, events);
+        try {
+            lib.epollCtl(delegate, epfd, op, fd, events);
+        } catch (PosixException e) {
+            throw logException("epollCtl", e);
+        }
+    }
+
+    @ExportMessage
+    final int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollWait", "%d, %d, %d", epfd, fds.length, timeoutMs);
+        try {
+            return logExit("epollWait", "%d", lib.epollWait(delegate, epfd, fds, events, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("epollWait", e);
+        }
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -763,11 +840,11 @@ public class LoggingPosixSupport extends PosixSupport {
     }
 
     @ExportMessage
-    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int length,
+    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
-        logEnter("mmapReadBytes", "%s, %d, %d", mmap, index, length);
+        logEnter("mmapReadBytes", "%s, %d, %d, %d", mmap, index, bytesOffset, length);
         try {
-            return logExit("mmapReadBytes", "%s", lib.mmapReadBytes(delegate, mmap, index, bytes, length));
+            return logExit("mmapReadBytes", "%s", lib.mmapReadBytes(delegate, mmap, index, bytes, bytesOffset, length));
         } catch (PosixException e) {
             throw logException("mmapReadBytes", e);
         }
@@ -795,11 +872,22 @@ public class LoggingPosixSupport extends PosixSupport {
     }
 
     @ExportMessage
-    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length,
+    public void mmapWriteByte(Object mmap, long index, byte value,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("mmapWriteByte", "%s, %d, %d", mmap, index, value);
+        try {
+            lib.mmapWriteByte(delegate, mmap, index, value);
+        } catch (PosixException e) {
+            throw logException("mmapWriteByte", e);
+        }
+    }
+
+    @ExportMessage
+    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
-        logEnter("mmapWriteBytes", "%s, %d, %d", mmap, index, length);
+        logEnter("mmapWriteBytes", "%s, %d, %d, %d", mmap, index, bytesOffset, length);
         try {
-            lib.mmapWriteBytes(delegate, mmap, index, bytes, length);
+            lib.mmapWriteBytes(delegate, mmap, index, bytes, bytesOffset, length);
         } catch (PosixException e) {
             throw logException("mmapWriteBytes", e);
         }
@@ -852,6 +940,13 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final long mmapGetPointer(Object mmap,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) {
+        logEnter("mmapGetPointer", "%s", mmap);
+        return logExit("mmapGetPointer", "%d", lib.mmapGetPointer(delegate, mmap));
+    }
+
     @ExportMessage
     public PwdResult getpwuid(long uid,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -997,6 +1092,17 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final int sendmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags, UniversalSockAddr destAddr,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendmsg", "%d, %d, %d, %s", sockfd, buffers.length, flags, destAddr);
+        try {
+            return logExit("sendmsg", "%d", lib.sendmsg(delegate, sockfd, buffers, offsets, lengths, addresses, flags, destAddr));
+        } catch (PosixException e) {
+            throw logException("sendmsg", e);
+        }
+    }
+
     @ExportMessage
     final int recv(int sockfd, byte[] buf, int offset, int len, int flags,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -1019,6 +1125,17 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final RecvmsgResult recvmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("recvmsg", "%d, %d, %d", sockfd, buffers.length, flags);
+        try {
+            return logExit("recvmsg", "%s", lib.recvmsg(delegate, sockfd, buffers, offsets, lengths, addresses, flags));
+        } catch (PosixException e) {
+            throw logException("recvmsg", e);
+        }
+    }
+
     @ExportMessage
     final void shutdown(int sockfd, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -82,6 +82,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -159,10 +160,17 @@ public final class NFIPosixSupport extends PosixSupport {
         call_close("(sint32):sint32"),
         call_read("(sint32, [sint8], uint64):sint64"),
         call_write("(sint32, [sint8], uint64):sint64"),
+        call_readv("(sint32, [sint8], [sint32], [sint32], [sint64], sint32):sint64"),
+        call_writev("(sint32, [sint8], [sint32], [sint32], [sint64], sint32):sint64"),
+        call_sendfile("(sint32, sint32, sint64, sint64):sint64"),
         call_dup("(sint32):sint32"),
         call_dup2("(sint32, sint32, sint32):sint32"),
         call_pipe2("([sint32]):sint32"),
         call_select("(sint32, [sint32], sint32, [sint32], sint32, [sint32], sint32, sint64, sint64, [sint8]):sint32"),
+        call_poll("([sint32], [sint32], [sint32], sint32, sint32):sint32"),
+        call_epoll_create("():sint32"),
+        call_epoll_ctl("(sint32, sint32, sint32, sint32):sint32"),
+        call_epoll_wait("(sint32, [sint32], [sint32], sint32, sint32):sint32"),
         call_lseek("(sint32, sint64, sint32):sint64"),
         call_ftruncate("(sint32, sint64):sint32"),
         call_fsync("(sint32):sint32"),
@@ -235,6 +243,8 @@ public final class NFIPosixSupport extends PosixSupport {
         call_sendto("(sint32, [sint8], sint32, sint32, sint32, [sint8], sint32):sint32"),
         call_recv("(sint32, [sint8], sint32, sint32, sint32):sint32"),
         call_recvfrom("(sint32, [sint8], sint32, sint32, sint32, [sint8], [sint32]):sint32"),
+        call_sendmsg("(sint32, [sint8], [sint32], [sint32], [sint64], sint32, sint32, [sint8], sint32):sint32"),
+        call_recvmsg("(sint32, [sint8], [sint32], [sint32], [sint64], sint32, sint32, [sint8], [sint32], [sint32]):sint32"),
         call_shutdown("(sint32, sint32): sint32"),
         call_getsockopt("(sint32, sint32, sint32, [sint8], [sint32]):sint32"),
         call_setsockopt("(sint32, sint32, sint32, [sint8], sint32):sint32"),
@@ -498,6 +508,39 @@ public final class NFIPosixSupport extends PosixSupport {
         return n;
     }
 
+    @ExportMessage
+    public long readv(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        IoVec iov = IoVec.create(buffers, offsets, lengths, addresses, false);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_readv, fd, wrap(iov.data), wrap(iov.offsets), wrap(iov.lengths), wrap(addresses), buffers.length);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        iov.scatter(buffers, offsets, lengths, addresses, n);
+        return n;
+    }
+
+    @ExportMessage
+    public long writev(int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        IoVec iov = IoVec.create(buffers, offsets, lengths, addresses, true);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_writev, fd, wrap(iov.data), wrap(iov.offsets), wrap(iov.lengths), wrap(addresses), buffers.length);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_sendfile, outFd, inFd, offset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
     @ExportMessage
     public int dup(int fd,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
@@ -576,6 +619,45 @@ public final class NFIPosixSupport extends PosixSupport {
 
     }
 
+    @ExportMessage
+    public int[] poll(int[] fds, int[] events, int timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int[] revents = new int[fds.length];
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_poll, wrap(fds), wrap(events), wrap(revents), fds.length, timeoutMs);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return revents;
+    }
+
+    @ExportMessage
+    public int epollCreate(
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int epfd = invokeNode.callInt(this, PosixNativeFunction.call_epoll_create);
+        if (epfd < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return epfd;
+    }
+
+    @ExportMessage
+    public void epollCtl(int epfd, int op, int fd, int events,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        if (invokeNode.callInt(this, PosixNativeFunction.call_epoll_ctl, epfd, op, fd, events) < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+    }
+
+    @ExportMessage
+    public int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_epoll_wait, epfd, wrap(fds), wrap(events), fds.length, timeoutMs);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return result;
+    }
+
     private static boolean[] selectFillInResult(int[] fds, byte[] selected, int selectedOffset) {
         boolean[] res = new boolean[fds.length];
         for (int i = 0; i < fds.length; i++) {
@@ -1309,19 +1391,32 @@ public final class NFIPosixSupport extends PosixSupport {
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int length) {
+    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length) {
         MMapHandle handle = (MMapHandle) mmap;
         checkIndexAndLen(handle, index, length);
-        UNSAFE.copyMemory(null, handle.pointer + index, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, length);
+        checkBytesRange(bytes, bytesOffset, length);
+        UNSAFE.copyMemory(null, handle.pointer + index, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + bytesOffset, length);
         return length;
     }
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length) {
+    public void mmapWriteByte(Object mmap, long index, byte value) {
+        MMapHandle handle = (MMapHandle) mmap;
+        if (index < 0 || index >= handle.length) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw new IndexOutOfBoundsException();
+        }
+        UNSAFE.putByte(handle.pointer + index, value);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length) {
         MMapHandle handle = (MMapHandle) mmap;
         checkIndexAndLen(handle, index, length);
-        UNSAFE.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, handle.pointer + index, length);
+        checkBytesRange(bytes, bytesOffset, length);
+        UNSAFE.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + bytesOffset, null, handle.pointer + index, length);
     }
 
     @ExportMessage
@@ -1346,6 +1441,19 @@ public final class NFIPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public long mmapGetPointer(Object mmap) {
+        return ((MMapHandle) mmap).pointer;
+    }
+
+    private static void checkBytesRange(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length > bytes.length - offset) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
     private static void checkIndexAndLen(MMapHandle handle, long index, long length) {
         if (length < 0) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -1479,6 +1587,36 @@ public final class NFIPosixSupport extends PosixSupport {
         return new RecvfromResult(result, srcAddr);
     }
 
+    @ExportMessage
+    public int sendmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags, UniversalSockAddr usa,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        IoVec iov = IoVec.create(buffers, offsets, lengths, addresses, true);
+        UniversalSockAddrImpl destAddr = (UniversalSockAddrImpl) usa;
+        byte[] addrData = destAddr == null ? PythonUtils.EMPTY_BYTE_ARRAY : destAddr.data;
+        int addrLen = destAddr == null ? 0 : destAddr.getLen();
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_sendmsg, sockfd, wrap(iov.data), wrap(iov.offsets), wrap(iov.lengths), wrap(addresses), buffers.length, flags, wrap(addrData), addrLen);
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return result;
+    }
+
+    @ExportMessage
+    public RecvmsgResult recvmsg(int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        IoVec iov = IoVec.create(buffers, offsets, lengths, addresses, false);
+        UniversalSockAddrImpl srcAddr = new UniversalSockAddrImpl(this);
+        int[] msgFlags = new int[1];
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_recvmsg, sockfd, wrap(iov.data), wrap(iov.offsets), wrap(iov.lengths), wrap(addresses), buffers.length, flags, wrap(srcAddr.data),
+                        wrap(srcAddr.lenAndFamily), wrap(msgFlags));
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        assert srcAddr.getLen() <= UniversalSockAddrImpl.MAX_SIZE;
+        iov.scatter(buffers, offsets, lengths, addresses, result);
+        return new RecvmsgResult(result, msgFlags[0], srcAddr);
+    }
+
     @ExportMessage
     public void shutdown(int sockfd, int how,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
@@ -2173,6 +2311,84 @@ public final class NFIPosixSupport extends PosixSupport {
         }
     }
 
+    /**
+     * Scatter-gather segments in the form expected by the native functions, which take a single
+     * array and the offsets and lengths of the segments in it, and the addresses of the segments
+     * that are native memory. When all other segments live in the same array (e.g. both halves of a
+     * wrapped-around ring buffer), that array is passed to the native code directly. Otherwise
+     * those segments are laid out one after another in a temporary array.
+     */
+    private static final class IoVec {
+        final byte[] data;
+        final int[] offsets;
+        final int[] lengths;
+        final boolean direct;
+
+        private IoVec(byte[] data, int[] offsets, int[] lengths, boolean direct) {
+            this.data = data;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.direct = direct;
+        }
+
+        static IoVec create(byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, boolean copyIn) throws PosixException {
+            assert buffers.length == offsets.length && buffers.length == lengths.length;
+            assert addresses == null || addresses.length == buffers.length;
+            byte[] first = null;
+            boolean direct = true;
+            long total = 0;
+            for (int i = 0; i < buffers.length; i++) {
+                if (isNative(addresses, i)) {
+                    continue;
+                }
+                checkBounds(buffers[i], offsets[i], lengths[i]);
+                if (first == null) {
+                    first = buffers[i];
+                }
+                direct &= buffers[i] == first;
+                total += lengths[i];
+            }
+            if (direct) {
+                return new IoVec(first == null ? PythonUtils.EMPTY_BYTE_ARRAY : first, offsets, lengths, true);
+            }
+            if (total > Integer.MAX_VALUE) {
+                throw new PosixException(OSErrorEnum.EINVAL.getNumber(), OSErrorEnum.EINVAL.getMessage());
+            }
+            byte[] data = new byte[(int) total];
+            int[] dataOffsets = new int[buffers.length];
+            int pos = 0;
+            for (int i = 0; i < buffers.length; i++) {
+                if (isNative(addresses, i)) {
+                    continue;
+                }
+                dataOffsets[i] = pos;
+                if (copyIn) {
+                    PythonUtils.arraycopy(buffers[i], offsets[i], data, pos, lengths[i]);
+                }
+                pos += lengths[i];
+            }
+            return new IoVec(data, dataOffsets, lengths, false);
+        }
+
+        void scatter(byte[][] buffers, int[] bufferOffsets, int[] bufferLengths, long[] addresses, long count) {
+            if (direct) {
+                return;
+            }
+            long remaining = count;
+            for (int i = 0; i < buffers.length && remaining > 0; i++) {
+                int n = (int) Math.min(remaining, bufferLengths[i]);
+                if (!isNative(addresses, i)) {
+                    PythonUtils.arraycopy(data, offsets[i], buffers[i], bufferOffsets[i], n);
+                }
+                remaining -= n;
+            }
+        }
+
+        private static boolean isNative(long[] addresses, int i) {
+            return addresses != null && addresses[i] != 0;
+        }
+    }
+
     @TruffleBoundary(allowInlining = true)
     private static <T> void add(List<T> list, T value) {
         list.add(value);
@@ -199,6 +199,36 @@ public final class PosixConstants {
     public static final MandatoryIntConstant SHUT_RD;
     public static final MandatoryIntConstant SHUT_WR;
     public static final MandatoryIntConstant SHUT_RDWR;
+    public static final MandatoryIntConstant POLLIN;
+    public static final MandatoryIntConstant POLLPRI;
+    public static final MandatoryIntConstant POLLOUT;
+    public static final MandatoryIntConstant POLLERR;
+    public static final MandatoryIntConstant POLLHUP;
+    public static final MandatoryIntConstant POLLNVAL;
+    public static final OptionalIntConstant POLLRDNORM;
+    public static final OptionalIntConstant POLLRDBAND;
+    public static final OptionalIntConstant POLLWRNORM;
+    public static final OptionalIntConstant POLLWRBAND;
+    public static final OptionalIntConstant POLLMSG;
+    public static final OptionalIntConstant POLLRDHUP;
+    public static final OptionalIntConstant EPOLLIN;
+    public static final OptionalIntConstant EPOLLPRI;
+    public static final OptionalIntConstant EPOLLOUT;
+    public static final OptionalIntConstant EPOLLERR;
+    public static final OptionalIntConstant EPOLLHUP;
+    public static final OptionalIntConstant EPOLLRDHUP;
+    public static final OptionalIntConstant EPOLLRDNORM;
+    public static final OptionalIntConstant EPOLLRDBAND;
+    public static final OptionalIntConstant EPOLLWRNORM;
+    public static final OptionalIntConstant EPOLLWRBAND;
+    public static final OptionalIntConstant EPOLLMSG;
+    public static final OptionalIntConstant EPOLLEXCLUSIVE;
+    public static final OptionalIntConstant EPOLLONESHOT;
+    public static final OptionalIntConstant EPOLLET;
+    public static final OptionalIntConstant EPOLL_CLOEXEC;
+    public static final OptionalIntConstant EPOLL_CTL_ADD;
+    public static final OptionalIntConstant EPOLL_CTL_MOD;
+    public static final OptionalIntConstant EPOLL_CTL_DEL;
     public static final MandatoryIntConstant SO_DEBUG;
     public static final MandatoryIntConstant SO_ACCEPTCONN;
     public static final MandatoryIntConstant SO_REUSEADDR;
@@ -271,6 +301,8 @@ public final class PosixConstants {
     public static final IntConstant[] niFlags;
     public static final IntConstant[] ipProto;
     public static final IntConstant[] shutdownHow;
+    public static final IntConstant[] pollEvents;
+    public static final IntConstant[] epollEvents;
     public static final IntConstant[] socketOptions;
     public static final IntConstant[] tcpOptions;
 
@@ -424,6 +456,36 @@ public final class PosixConstants {
         SHUT_RD = reg.createMandatoryInt("SHUT_RD");
         SHUT_WR = reg.createMandatoryInt("SHUT_WR");
         SHUT_RDWR = reg.createMandatoryInt("SHUT_RDWR");
+        POLLIN = reg.createMandatoryInt("POLLIN");
+        POLLPRI = reg.createMandatoryInt("POLLPRI");
+        POLLOUT = reg.createMandatoryInt("POLLOUT");
+        POLLERR = reg.createMandatoryInt("POLLERR");
+        POLLHUP = reg.createMandatoryInt("POLLHUP");
+        POLLNVAL = reg.createMandatoryInt("POLLNVAL");
+        POLLRDNORM = reg.createOptionalInt("POLLRDNORM");
+        POLLRDBAND = reg.createOptionalInt("POLLRDBAND");
+        POLLWRNORM = reg.createOptionalInt("POLLWRNORM");
+        POLLWRBAND = reg.createOptionalInt("POLLWRBAND");
+        POLLMSG = reg.createOptionalInt("POLLMSG");
+        POLLRDHUP = reg.createOptionalInt("POLLRDHUP");
+        EPOLLIN = reg.createOptionalInt("EPOLLIN");
+        EPOLLPRI = reg.createOptionalInt("EPOLLPRI");
+        EPOLLOUT = reg.createOptionalInt("EPOLLOUT");
+        EPOLLERR = reg.createOptionalInt("EPOLLERR");
+        EPOLLHUP = reg.createOptionalInt("EPOLLHUP");
+        EPOLLRDHUP = reg.createOptionalInt("EPOLLRDHUP");
+        EPOLLRDNORM = reg.createOptionalInt("EPOLLRDNORM");
+        EPOLLRDBAND = reg.createOptionalInt("EPOLLRDBAND");
+        EPOLLWRNORM = reg.createOptionalInt("EPOLLWRNORM");
+        EPOLLWRBAND = reg.createOptionalInt("EPOLLWRBAND");
+        EPOLLMSG = reg.createOptionalInt("EPOLLMSG");
+        EPOLLEXCLUSIVE = reg.createOptionalInt("EPOLLEXCLUSIVE");
+        EPOLLONESHOT = reg.createOptionalInt("EPOLLONESHOT");
+        EPOLLET = reg.createOptionalInt("EPOLLET");
+        EPOLL_CLOEXEC = reg.createOptionalInt("EPOLL_CLOEXEC");
+        EPOLL_CTL_ADD = reg.createOptionalInt("EPOLL_CTL_ADD");
+        EPOLL_CTL_MOD = reg.createOptionalInt("EPOLL_CTL_MOD");
+        EPOLL_CTL_DEL = reg.createOptionalInt("EPOLL_CTL_DEL");
         SO_DEBUG = reg.createMandatoryInt("SO_DEBUG");
         SO_ACCEPTCONN = reg.createMandatoryInt("SO_ACCEPTCONN");
         SO_REUSEADDR = reg.createMandatoryInt("SO_REUSEADDR");
@@ -498,6 +560,9 @@ public final class PosixConstants {
         ipProto = new IntConstant[]{IPPROTO_IP, IPPROTO_ICMP, IPPROTO_IGMP, IPPROTO_IPIP, IPPROTO_TCP, IPPROTO_EGP, IPPROTO_PUP, IPPROTO_UDP, IPPROTO_IDP, IPPROTO_TP, IPPROTO_IPV6, IPPROTO_RSVP,
                         IPPROTO_GRE, IPPROTO_ESP, IPPROTO_AH, IPPROTO_MTP, IPPROTO_ENCAP, IPPROTO_PIM, IPPROTO_SCTP, IPPROTO_RAW};
         shutdownHow = new IntConstant[]{SHUT_RD, SHUT_WR, SHUT_RDWR};
+        pollEvents = new IntConstant[]{POLLIN, POLLPRI, POLLOUT, POLLERR, POLLHUP, POLLNVAL, POLLRDNORM, POLLRDBAND, POLLWRNORM, POLLWRBAND, POLLMSG, POLLRDHUP};
+        epollEvents = new IntConstant[]{EPOLLIN, EPOLLPRI, EPOLLOUT, EPOLLERR, EPOLLHUP, EPOLLRDHUP, EPOLLRDNORM, EPOLLRDBAND, EPOLLWRNORM, EPOLLWRBAND, EPOLLMSG, EPOLLEXCLUSIVE, EPOLLONESHOT,
+                        EPOLLET};
         socketOptions = new IntConstant[]{SO_DEBUG, SO_ACCEPTCONN, SO_REUSEADDR, SO_EXCLUSIVEADDRUSE, SO_KEEPALIVE, SO_DONTROUTE, SO_BROADCAST, SO_USELOOPBACK, SO_LINGER, SO_OOBINLINE, SO_REUSEPORT,
                         SO_SNDBUF, SO_RCVBUF, SO_SNDLOWAT, SO_RCVLOWAT, SO_SNDTIMEO, SO_RCVTIMEO, SO_ERROR, SO_TYPE, SO_SETFIB, SO_PASSCRED, SO_PEERCRED, SO_PASSSEC, SO_PEERSEC, SO_BINDTODEVICE,
                         SO_PRIORITY, SO_MARK, SO_DOMAIN, SO_PROTOCOL};
@@ -179,6 +179,16 @@ class PosixConstantsDarwin {
         constants.put("SHUT_RD", 0);
         constants.put("SHUT_WR", 1);
         constants.put("SHUT_RDWR", 2);
+        constants.put("POLLIN", 1);
+        constants.put("POLLPRI", 2);
+        constants.put("POLLOUT", 4);
+        constants.put("POLLERR", 8);
+        constants.put("POLLHUP", 16);
+        constants.put("POLLNVAL", 32);
+        constants.put("POLLRDNORM", 64);
+        constants.put("POLLRDBAND", 128);
+        constants.put("POLLWRNORM", 4);
+        constants.put("POLLWRBAND", 256);
         constants.put("SO_DEBUG", 1);
         constants.put("SO_ACCEPTCONN", 2);
         constants.put("SO_REUSEADDR", 4);
@@ -192,6 +192,36 @@ class PosixConstantsLinux {
         constants.put("SHUT_RD", 0);
         constants.put("SHUT_WR", 1);
         constants.put("SHUT_RDWR", 2);
+        constants.put("POLLIN", 1);
+        constants.put("POLLPRI", 2);
+        constants.put("POLLOUT", 4);
+        constants.put("POLLERR", 8);
+        constants.put("POLLHUP", 16);
+        constants.put("POLLNVAL", 32);
+        constants.put("POLLRDNORM", 64);
+        constants.put("POLLRDBAND", 128);
+        constants.put("POLLWRNORM", 256);
+        constants.put("POLLWRBAND", 512);
+        constants.put("POLLMSG", 1024);
+        constants.put("POLLRDHUP", 8192);
+        constants.put("EPOLLIN", 1);
+        constants.put("EPOLLPRI", 2);
+        constants.put("EPOLLOUT", 4);
+        constants.put("EPOLLERR", 8);
+        constants.put("EPOLLHUP", 16);
+        constants.put("EPOLLRDHUP", 8192);
+        constants.put("EPOLLRDNORM", 64);
+        constants.put("EPOLLRDBAND", 128);
+        constants.put("EPOLLWRNORM", 256);
+        constants.put("EPOLLWRBAND", 512);
+        constants.put("EPOLLMSG", 1024);
+        constants.put("EPOLLEXCLUSIVE", 268435456);
+        constants.put("EPOLLONESHOT", 1073741824);
+        constants.put("EPOLLET", -2147483648);
+        constants.put("EPOLL_CLOEXEC", 524288);
+        constants.put("EPOLL_CTL_ADD", 1);
+        constants.put("EPOLL_CTL_MOD", 3);
+        constants.put("EPOLL_CTL_DEL", 2);
         constants.put("SO_DEBUG", 1);
         constants.put("SO_ACCEPTCONN", 30);
         constants.put("SO_REUSEADDR", 2);
@@ -93,6 +93,39 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract long write(Object receiver, int fd, Buffer data) throws PosixException;
 
+    /**
+     * Reads into the segments {@code buffers[i][offsets[i]] .. buffers[i][offsets[i] + lengths[i]]}
+     * in order, filling each segment before proceeding to the next one. If {@code addresses} is
+     * not {@code null}, a segment with a non-zero {@code addresses[i]} is the native memory at that
+     * address instead, and {@code buffers[i]} is ignored. Only the {@code native} backend is given
+     * such segments.
+     *
+     * @return the total number of bytes read
+     * @see "readv(2) man pages"
+     */
+    public abstract long readv(Object receiver, int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses) throws PosixException;
+
+    /**
+     * Writes the segments {@code buffers[i][offsets[i]] .. buffers[i][offsets[i] + lengths[i]]} in
+     * order. Native segments are described by {@code addresses} like in
+     * {@link #readv(Object, int, byte[][], int[], int[], long[])}.
+     *
+     * @return the total number of bytes written
+     * @see "writev(2) man pages"
+     */
+    public abstract long writev(Object receiver, int fd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses) throws PosixException;
+
+    /**
+     * Copies up to {@code count} bytes from {@code inFd} to {@code outFd} without passing them
+     * through the caller.
+     *
+     * @param offset the position in {@code inFd} to start reading from, or a negative value to
+     *            read from (and advance) the current file position
+     * @return the number of bytes transferred, 0 at the end of the input file
+     * @see "sendfile(2) man pages"
+     */
+    public abstract long sendfile(Object receiver, int outFd, int inFd, long offset, long count) throws PosixException;
+
     public abstract int dup(Object receiver, int fd) throws PosixException;
 
     public abstract int dup2(Object receiver, int fd, int fd2, boolean inheritable) throws PosixException;
@@ -105,6 +138,44 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract SelectResult select(Object receiver, int[] readfds, int[] writefds, int[] errorfds, Timeval timeout) throws PosixException;
 
+    /**
+     * Performs operation of poll(fds, nfds, timeout).
+     *
+     * @param fds the file descriptors to wait for
+     * @param events the requested events ({@code POLLIN}, {@code POLLOUT}, ...) for the file
+     *            descriptor at the same index in {@code fds}
+     * @param timeoutMs timeout in milliseconds, a negative value means an infinite timeout
+     * @return the returned events for the file descriptor at the same index in {@code fds}
+     */
+    public abstract int[] poll(Object receiver, int[] fds, int[] events, int timeoutMs) throws PosixException;
+
+    /**
+     * Creates a new epoll instance with the close-on-exec flag set. Unlike {@link #poll}, the set
+     * of file descriptors of interest is kept by the epoll instance and is manipulated using
+     * {@link #epollCtl}.
+     *
+     * @return the file descriptor of the epoll instance, to be closed using {@link #close}
+     */
+    public abstract int epollCreate(Object receiver) throws PosixException;
+
+    /**
+     * Performs operation of epoll_ctl(epfd, op, fd, {events, fd}).
+     *
+     * @param op one of {@code EPOLL_CTL_ADD}, {@code EPOLL_CTL_MOD} or {@code EPOLL_CTL_DEL}
+     */
+    public abstract void epollCtl(Object receiver, int epfd, int op, int fd, int events) throws PosixException;
+
+    /**
+     * Performs operation of epoll_wait(epfd, events, maxevents, timeout).
+     *
+     * @param fds output parameter, its length is used as {@code maxevents}
+     * @param events output parameter that receives the returned events for the file descriptor at
+     *            the same index in {@code fds}
+     * @param timeoutMs timeout in milliseconds, a negative value means an infinite timeout
+     * @return the number of ready file descriptors stored in {@code fds} and {@code events}
+     */
+    public abstract int epollWait(Object receiver, int epfd, int[] fds, int[] events, int timeoutMs) throws PosixException;
+
     public abstract long lseek(Object receiver, int fd, long offset, int how) throws PosixException;
 
     public abstract void ftruncate(Object receiver, int fd, long length) throws PosixException;
@@ -283,14 +354,21 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract byte mmapReadByte(Object receiver, Object mmap, long index) throws PosixException;
 
-    public abstract int mmapReadBytes(Object receiver, Object mmap, long index, byte[] bytes, int length) throws PosixException;
+    public abstract int mmapReadBytes(Object receiver, Object mmap, long index, byte[] bytes, int bytesOffset, int length) throws PosixException;
 
-    public abstract void mmapWriteBytes(Object receiver, Object mmap, long index, byte[] bytes, int length) throws PosixException;
+    public abstract void mmapWriteByte(Object receiver, Object mmap, long index, byte value) throws PosixException;
+
+    public abstract void mmapWriteBytes(Object receiver, Object mmap, long index, byte[] bytes, int bytesOffset, int length) throws PosixException;
 
     public abstract void mmapFlush(Object receiver, Object mmap, long offset, long length) throws PosixException;
 
     public abstract void mmapUnmap(Object receiver, Object mmap, long length) throws PosixException;
 
+    /**
+     * Returns the address of the mapped memory, or 0 if the mapping does not live in native memory.
+     */
+    public abstract long mmapGetPointer(Object receiver, Object mmap);
+
     public static final class PwdResult {
         public final String name;
         /**
@@ -537,6 +615,21 @@ public abstract class PosixSupportLibrary extends Library {
     // For STREAM sockets, the returned address will be AF_UNSPEC
     public abstract RecvfromResult recvfrom(Object receiver, int sockfd, byte[] buf, int offset, int len, int flags) throws PosixException;
 
+    /**
+     * Sends the data from the segments described the same way as in
+     * {@link #writev(Object, int, byte[][], int[], int[], long[])} as a single message. Ancillary
+     * data is not supported.
+     *
+     * @param destAddr the destination address or {@code null} for connected sockets
+     */
+    public abstract int sendmsg(Object receiver, int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags, UniversalSockAddr destAddr) throws PosixException;
+
+    /**
+     * Receives a single message into the segments described the same way as in
+     * {@link #readv(Object, int, byte[][], int[], int[], long[])}. Ancillary data is not supported.
+     */
+    public abstract RecvmsgResult recvmsg(Object receiver, int sockfd, byte[][] buffers, int[] offsets, int[] lengths, long[] addresses, int flags) throws PosixException;
+
     public static final class AcceptResult {
         public final int socketFd;
         public final UniversalSockAddr sockAddr;
@@ -569,6 +662,24 @@ public abstract class PosixSupportLibrary extends Library {
         }
     }
 
+    public static final class RecvmsgResult {
+        public final int readBytes;
+        public final int msgFlags;
+        public final UniversalSockAddr sockAddr;
+
+        public RecvmsgResult(int readBytes, int msgFlags, UniversalSockAddr sockAddr) {
+            this.readBytes = readBytes;
+            this.msgFlags = msgFlags;
+            this.sockAddr = sockAddr;
+        }
+
+        @Override
+        public String toString() {
+            CompilerAsserts.neverPartOfCompilation();
+            return "RecvmsgResult{" + "readBytes=" + readBytes + ", msgFlags=" + msgFlags + ", sockAddr=" + sockAddr + '}';
+        }
+    }
+
     public abstract void shutdown(Object receiver, int sockfd, int how) throws PosixException;
 
     /**
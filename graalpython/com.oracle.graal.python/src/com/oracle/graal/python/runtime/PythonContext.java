@@ -55,6 +55,8 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
@@ -63,7 +65,10 @@ import org.graalvm.options.OptionKey;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.modules.TracemallocModuleBuiltins.TracemallocState;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.AsyncioModuleState;
 import com.oracle.graal.python.builtins.modules.ctypes.CtypesModuleBuiltins.CtypesThreadState;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContext;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObjectFactory.PInteropGetAttributeNodeGen;
@@ -95,6 +100,7 @@ import com.oracle.graal.python.nodes.SpecialAttributeNames;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.instrumentation.PythonTraceInstrument;
 import com.oracle.graal.python.nodes.object.SetDictNode;
 import com.oracle.graal.python.nodes.util.CastToJavaIntLossyNode;
 import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
@@ -180,6 +186,19 @@ public final class PythonContext extends Python3Core {
 
         CtypesThreadState ctypes;
 
+        /* the current context of the 'decimal' module */
+        PDecimalContext decimalContext;
+
+        /* corresponds to 'PyThreadState.c_traceobj' and 'PyThreadState.c_profileobj' */
+        Object traceFunction;
+        Object profileFunction;
+
+        /* corresponds to 'PyThreadState.tracing' */
+        boolean tracing;
+
+        /* the event loop set by '_asyncio._set_running_loop' */
+        Object runningLoop;
+
         /*
          * This is the native wrapper object if we need to expose the thread state as PyThreadState
          * object. We need to store it here because the wrapper may receive 'toNative' in which case
@@ -263,6 +282,46 @@ public final class PythonContext extends Python3Core {
             this.ctypes = ctypes;
         }
 
+        public PDecimalContext getDecimalContext() {
+            return decimalContext;
+        }
+
+        public void setDecimalContext(PDecimalContext decimalContext) {
+            this.decimalContext = decimalContext;
+        }
+
+        public Object getTraceFunction() {
+            return traceFunction;
+        }
+
+        public void setTraceFunction(Object traceFunction) {
+            this.traceFunction = traceFunction;
+        }
+
+        public Object getProfileFunction() {
+            return profileFunction;
+        }
+
+        public void setProfileFunction(Object profileFunction) {
+            this.profileFunction = profileFunction;
+        }
+
+        public boolean isTracing() {
+            return tracing;
+        }
+
+        public void setTracing(boolean tracing) {
+            this.tracing = tracing;
+        }
+
+        public Object getRunningLoop() {
+            return runningLoop;
+        }
+
+        public void setRunningLoop(Object runningLoop) {
+            this.runningLoop = runningLoop;
+        }
+
         public PThreadState getNativeWrapper() {
             return nativeWrapper;
         }
@@ -458,6 +517,22 @@ public final class PythonContext extends Python3Core {
 
     private final GlobalInterpreterLock globalInterpreterLock = new GlobalInterpreterLock();
 
+    /** The default GIL switch interval, 5ms like in CPython. */
+    private static final long DEFAULT_SWITCH_INTERVAL_NANOS = 5_000_000L;
+    private static final long GIL_HANDOFF_PARK_NANOS = 10_000L;
+    /** Upper bound for the time a releasing thread waits for a GIL handoff, 1ms. */
+    private static final long MAX_GIL_HANDOFF_WAIT_NANOS = 1_000_000L;
+
+    /** The interval after which a thread holding the GIL is asked to drop it for a waiter. */
+    private volatile long switchIntervalNanos = DEFAULT_SWITCH_INTERVAL_NANOS;
+
+    /* GIL contention bookkeeping, used by the AsyncHandler ticker and for statistics */
+    private final AtomicInteger gilWaiters = new AtomicInteger();
+    private final AtomicLong gilContendedAcquires = new AtomicLong();
+    private final LongAdder gilWaitTimeNanos = new LongAdder();
+    private final LongAdder gilSwitchRequests = new LongAdder();
+    private final LongAdder gilHandoffs = new LongAdder();
+
     /** Native wrappers for context-insensitive singletons like {@link PNone#NONE}. */
     @CompilationFinal(dimensions = 1) private final PythonNativeWrapper[] singletonNativePtrs = new PythonNativeWrapper[PythonLanguage.getNumberOfSpecialSingletons()];
 
@@ -468,6 +543,12 @@ public final class PythonContext extends Python3Core {
     // decides if we run the async weakref callbacks and destructors
     private boolean gcEnabled = true;
 
+    /* the state of the '_tracemalloc' module, only non-null while tracing */
+    private volatile TracemallocState tracemallocState;
+
+    /* the state of the '_asyncio' module, set when it is first imported */
+    @CompilationFinal private AsyncioModuleState asyncioState;
+
     // A thread-local to store the full path to the currently active import statement, for Jython
     // compat
     private final ThreadLocal<ArrayDeque<String>> currentImport = new ThreadLocal<>();
@@ -1510,6 +1591,10 @@ public final class PythonContext extends Python3Core {
             }
             // destroy thread state data, if anything is still running, it will crash now
             disposeThreadStates();
+            if (tracemallocState != null) {
+                tracemallocState = null;
+                PythonTraceInstrument.stopAllocationTracing(this);
+            }
         }
         cleanupHPyResources();
         for (int fd : getChildContextFDs()) {
@@ -1562,11 +1647,25 @@ public final class PythonContext extends Python3Core {
     @TruffleBoundary
     private void disposeThreadStates() {
         for (PythonThreadState ts : threadStateMapping.values()) {
+            removeTraceHooks(ts);
             ts.dispose();
         }
         threadStateMapping.clear();
     }
 
+    /**
+     * Uninstalls the trace and profile functions of a thread such that the instrumentation is
+     * detached once no thread uses it any more.
+     */
+    private void removeTraceHooks(PythonThreadState ts) {
+        if (ts.getTraceFunction() != null) {
+            PythonTraceInstrument.setTraceFunction(this, ts, null);
+        }
+        if (ts.getProfileFunction() != null) {
+            PythonTraceInstrument.setProfileFunction(this, ts, null);
+        }
+    }
+
     /**
      * Release all native wrappers of singletons. This function needs to run as long as the context
      * is still valid because it may call into LLVM to release handles.
@@ -1794,12 +1893,95 @@ public final class PythonContext extends Python3Core {
     void acquireGil() throws InterruptedException {
         assert !ownsGil() : dumpStackOnAssertionHelper("trying to acquire the GIL more than once");
         boolean wasInterrupted = Thread.interrupted();
-        globalInterpreterLock.lockInterruptibly();
+        if (!globalInterpreterLock.tryLock()) {
+            acquireGilContended();
+        }
         if (wasInterrupted) {
             Thread.currentThread().interrupt();
         }
     }
 
+    private void acquireGilContended() throws InterruptedException {
+        // register as waiter before waking the ticker, so that it cannot miss us (see
+        // AsyncHandler#gilTick)
+        gilWaiters.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            handler.notifyGilContended();
+            globalInterpreterLock.lockInterruptibly();
+            gilContendedAcquires.incrementAndGet();
+        } finally {
+            gilWaiters.decrementAndGet();
+            gilWaitTimeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Should not be used outside of {@link AsyncHandler}
+     */
+    boolean hasGilWaiters() {
+        return gilWaiters.get() > 0;
+    }
+
+    /**
+     * Called by a thread that just dropped the GIL on a switch request. If forced handoff is
+     * enabled, this waits until some other thread took the GIL, so that the releasing thread cannot
+     * immediately barge in and re-acquire it. The wait is bounded by the switch interval and by
+     * {@link #MAX_GIL_HANDOFF_WAIT_NANOS}.
+     * Should not be used outside of {@link AsyncHandler}
+     */
+    @TruffleBoundary
+    void awaitGilHandoff(long contendedAcquiresBeforeRelease) {
+        gilSwitchRequests.increment();
+        if (!getOption(PythonOptions.GilForcedHandoff)) {
+            Thread.yield();
+            return;
+        }
+        long deadline = System.nanoTime() + Math.min(switchIntervalNanos, MAX_GIL_HANDOFF_WAIT_NANOS);
+        while (hasGilWaiters()) {
+            if (gilContendedAcquires.get() != contendedAcquiresBeforeRelease) {
+                gilHandoffs.increment();
+                return;
+            }
+            if (globalInterpreterLock.isLocked()) {
+                // another thread took the GIL without queueing, we cannot barge in anymore
+                return;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return;
+            }
+            LockSupport.parkNanos(GIL_HANDOFF_PARK_NANOS);
+        }
+        if (gilContendedAcquires.get() != contendedAcquiresBeforeRelease) {
+            gilHandoffs.increment();
+        }
+    }
+
+    /**
+     * Should not be used outside of {@link AsyncHandler}
+     */
+    long getGilContendedAcquires() {
+        return gilContendedAcquires.get();
+    }
+
+    public long getSwitchIntervalNanos() {
+        return switchIntervalNanos;
+    }
+
+    public void setSwitchIntervalNanos(long nanos) {
+        assert nanos > 0;
+        switchIntervalNanos = nanos;
+    }
+
+    /**
+     * Returns the GIL statistics as {@code [switch requests, handoffs, contended acquires, total
+     * wait time in ns]}.
+     */
+    @TruffleBoundary
+    public long[] getGilStatistics() {
+        return new long[]{gilSwitchRequests.sum(), gilHandoffs.sum(), gilContendedAcquires.get(), gilWaitTimeNanos.sum()};
+    }
+
     static final String dumpStackOnAssertionHelper(String msg) {
         Thread.dumpStack();
         return msg;
@@ -1951,6 +2133,7 @@ public final class PythonContext extends Python3Core {
         }
         ts.shutdown();
         threadStateMapping.remove(thread);
+        removeTraceHooks(ts);
         ts.dispose();
         releaseSentinelLock(ts.sentinelLock);
         getSharedMultiprocessingData().removeChildContextThread(thread.getId());
@@ -2027,6 +2210,23 @@ public final class PythonContext extends Python3Core {
         gcEnabled = flag;
     }
 
+    public TracemallocState getTracemallocState() {
+        return tracemallocState;
+    }
+
+    public void setTracemallocState(TracemallocState tracemallocState) {
+        this.tracemallocState = tracemallocState;
+    }
+
+    public AsyncioModuleState getAsyncioState() {
+        return asyncioState;
+    }
+
+    public void setAsyncioState(AsyncioModuleState asyncioState) {
+        assert this.asyncioState == null : "the _asyncio module was initialized twice";
+        this.asyncioState = asyncioState;
+    }
+
     public AsyncHandler.SharedFinalizer getSharedFinalizer() {
         return sharedFinalizer;
     }
@@ -254,6 +254,9 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, help = "Disable weakref callback processing, signal handling, and other periodic async actions.") //
     public static final OptionKey<Boolean> NoAsyncActions = new OptionKey<>(false);
 
+    @Option(category = OptionCategory.EXPERT, help = "When a thread is asked to drop the GIL after the switch interval, make it wait until a waiting thread has actually taken the GIL before trying to re-acquire it.") //
+    public static final OptionKey<Boolean> GilForcedHandoff = new OptionKey<>(true);
+
     @Option(category = OptionCategory.EXPERT, help = "Propagate append operations to lists created as literals back to where they were created, to inform overallocation to avoid having to grow them later.") //
     public static final OptionKey<Boolean> OverallocateLiteralLists = new OptionKey<>(true);
 
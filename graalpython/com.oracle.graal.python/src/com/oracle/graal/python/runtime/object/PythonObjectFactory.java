@@ -27,6 +27,7 @@ package com.oracle.graal.python.runtime.object;
 
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
+import java.security.MessageDigest;
 import java.util.LinkedHashMap;
 import java.util.concurrent.Semaphore;
 
@@ -37,7 +38,14 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.PosixFileHandle;
+import com.oracle.graal.python.builtins.modules.asyncio.PFuture;
+import com.oracle.graal.python.builtins.modules.asyncio.PFutureIter;
+import com.oracle.graal.python.builtins.modules.asyncio.PTask;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2Object;
+import com.oracle.graal.python.builtins.modules.csv.CSVDialect;
+import com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.CSVModuleState;
+import com.oracle.graal.python.builtins.modules.csv.CSVReader;
+import com.oracle.graal.python.builtins.modules.csv.CSVWriter;
 import com.oracle.graal.python.builtins.modules.ctypes.CDataObject;
 import com.oracle.graal.python.builtins.modules.ctypes.CFieldObject;
 import com.oracle.graal.python.builtins.modules.ctypes.CThunkObject;
@@ -45,6 +53,15 @@ import com.oracle.graal.python.builtins.modules.ctypes.PyCArgObject;
 import com.oracle.graal.python.builtins.modules.ctypes.PyCFuncPtrObject;
 import com.oracle.graal.python.builtins.modules.ctypes.StgDictObject;
 import com.oracle.graal.python.builtins.modules.ctypes.StructParamObject;
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeDelta;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeZone;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalValue;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimal;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContext;
+import com.oracle.graal.python.builtins.modules.hashlib.DigestObject;
 import com.oracle.graal.python.builtins.modules.io.PBuffered;
 import com.oracle.graal.python.builtins.modules.io.PBytesIO;
 import com.oracle.graal.python.builtins.modules.io.PBytesIOBuffer;
@@ -57,6 +74,11 @@ import com.oracle.graal.python.builtins.modules.json.PJSONEncoder;
 import com.oracle.graal.python.builtins.modules.json.PJSONEncoder.FastEncode;
 import com.oracle.graal.python.builtins.modules.json.PJSONScanner;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAObject;
+import com.oracle.graal.python.builtins.modules.pickle.PPickleBuffer;
+import com.oracle.graal.python.builtins.modules.pickle.PPickler;
+import com.oracle.graal.python.builtins.modules.pickle.PPicklerMemoProxy;
+import com.oracle.graal.python.builtins.modules.pickle.PUnpickler;
+import com.oracle.graal.python.builtins.modules.pickle.PUnpicklerMemoProxy;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibCompObject;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.array.PArray;
@@ -118,6 +140,7 @@ import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
 import com.oracle.graal.python.builtins.objects.itertools.PTee;
 import com.oracle.graal.python.builtins.objects.itertools.PTeeDataObject;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.lrucache.PLruCacheWrapper;
 import com.oracle.graal.python.builtins.objects.map.PMap;
 import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
 import com.oracle.graal.python.builtins.objects.memoryview.BufferLifecycleManager;
@@ -141,6 +164,8 @@ import com.oracle.graal.python.builtins.objects.range.PIntRange;
 import com.oracle.graal.python.builtins.objects.referencetype.PReferenceType;
 import com.oracle.graal.python.builtins.objects.reversed.PSequenceReverseIterator;
 import com.oracle.graal.python.builtins.objects.reversed.PStringReverseIterator;
+import com.oracle.graal.python.builtins.objects.select.PEpoll;
+import com.oracle.graal.python.builtins.objects.select.PPoll;
 import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
@@ -152,6 +177,9 @@ import com.oracle.graal.python.builtins.objects.ssl.PSSLContext;
 import com.oracle.graal.python.builtins.objects.ssl.PSSLSocket;
 import com.oracle.graal.python.builtins.objects.ssl.SSLMethod;
 import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat;
 import com.oracle.graal.python.builtins.objects.superobject.SuperObject;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.thread.PRLock;
@@ -764,6 +792,10 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PPartial(cls, getShape(cls), function, args, kwDict));
     }
 
+    public final PLruCacheWrapper createLruCacheWrapper(Object cls, Object function, int maxSize, Object maxSizeObj, boolean typed, Object cacheInfoType) {
+        return trace(new PLruCacheWrapper(cls, getShape(cls), function, maxSize, maxSizeObj, typed, cacheInfoType, createPythonObject(PythonBuiltinClassType.PythonObject)));
+    }
+
     public final PDefaultDict createDefaultDict(Object cls) {
         return createDefaultDict(cls, PNone.NONE);
     }
@@ -1061,6 +1093,31 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PSocket(cls, getShape(cls)));
     }
 
+    /*
+     * Select
+     */
+
+    public final PPoll createPoll() {
+        return trace(new PPoll(PythonBuiltinClassType.PPoll, PythonBuiltinClassType.PPoll.getInstanceShape(getLanguage())));
+    }
+
+    public final PEpoll createEpoll(Object cls, PythonContext context, int epfd) {
+        return trace(new PEpoll(cls, getShape(cls), context, epfd));
+    }
+
+    public final CSVDialect createCSVDialect(Object cls, int delimiter, boolean doubleQuote, int escapeChar, String lineTerminator, int quoteChar, int quoting, boolean skipInitialSpace,
+                    boolean strict) {
+        return trace(new CSVDialect(cls, getShape(cls), delimiter, doubleQuote, escapeChar, lineTerminator, quoteChar, quoting, skipInitialSpace, strict));
+    }
+
+    public final CSVReader createCSVReader(Object inputIter, CSVDialect dialect, CSVModuleState moduleState) {
+        return trace(new CSVReader(PythonBuiltinClassType.CSVReader, PythonBuiltinClassType.CSVReader.getInstanceShape(getLanguage()), inputIter, dialect, moduleState));
+    }
+
+    public final CSVWriter createCSVWriter(Object write, CSVDialect dialect) {
+        return trace(new CSVWriter(PythonBuiltinClassType.CSVWriter, PythonBuiltinClassType.CSVWriter.getInstanceShape(getLanguage()), write, dialect));
+    }
+
     /*
      * Threading
      */
@@ -1267,6 +1324,20 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PJSONEncoder(clazz, getShape(clazz), markers, defaultFn, encoder, indent, keySeparator, itemSeparator, sortKeys, skipKeys, allowNan, fastEncode));
     }
 
+    // asyncio
+
+    public final PFuture createFuture(Object cls) {
+        return trace(new PFuture(cls, getShape(cls)));
+    }
+
+    public final PTask createTask(Object cls) {
+        return trace(new PTask(cls, getShape(cls)));
+    }
+
+    public final PFutureIter createFutureIter(PFuture future) {
+        return trace(new PFutureIter(PythonBuiltinClassType.PAsyncioFutureIter, getShape(PythonBuiltinClassType.PAsyncioFutureIter), future));
+    }
+
     public final PDeque createDeque() {
         return trace(new PDeque(PythonBuiltinClassType.PDeque, getShape(PythonBuiltinClassType.PDeque)));
     }
@@ -1287,6 +1358,70 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PSimpleQueue(cls, getShape(cls)));
     }
 
+    public final PStruct createStruct(Object cls, StructFormat format) {
+        return trace(new PStruct(cls, getShape(cls), format));
+    }
+
+    public final PStructUnpackIterator createStructUnpackIterator(PStruct struct, Object buffer, int bufferLength) {
+        return trace(new PStructUnpackIterator(PythonBuiltinClassType.PStructUnpackIterator, getShape(PythonBuiltinClassType.PStructUnpackIterator), struct, buffer, bufferLength));
+    }
+
+    public final PPickler createPickler(Object cls) {
+        return trace(new PPickler(cls, getShape(cls)));
+    }
+
+    public final PPicklerMemoProxy createPicklerMemoProxy(PPickler pickler) {
+        return trace(new PPicklerMemoProxy(PythonBuiltinClassType.PicklerMemoProxy, getShape(PythonBuiltinClassType.PicklerMemoProxy), pickler));
+    }
+
+    public final PUnpickler createUnpickler(Object cls) {
+        return trace(new PUnpickler(cls, getShape(cls)));
+    }
+
+    public final PUnpicklerMemoProxy createUnpicklerMemoProxy(PUnpickler unpickler) {
+        return trace(new PUnpicklerMemoProxy(PythonBuiltinClassType.UnpicklerMemoProxy, getShape(PythonBuiltinClassType.UnpicklerMemoProxy), unpickler));
+    }
+
+    public final PPickleBuffer createPickleBuffer(Object cls, PMemoryView view) {
+        return trace(new PPickleBuffer(cls, getShape(cls), view));
+    }
+
+    public final PTimeDelta createTimeDelta(Object cls, int days, int seconds, int microseconds) {
+        return trace(new PTimeDelta(cls, getShape(cls), days, seconds, microseconds));
+    }
+
+    public final PDate createDate(Object cls, int year, int month, int day) {
+        return trace(new PDate(cls, getShape(cls), year, month, day));
+    }
+
+    public final PDateTime createDateTime(Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PDateTime(cls, getShape(cls), year, month, day, hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public final PTime createTime(Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PTime(cls, getShape(cls), hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public final PTimeZone createTimeZone(Object cls, PTimeDelta offset, String name) {
+        return trace(new PTimeZone(cls, getShape(cls), offset, name));
+    }
+
+    public final PDecimal createDecimal(Object cls, DecimalValue value) {
+        return trace(new PDecimal(cls, getShape(cls), value));
+    }
+
+    public final PDecimal createDecimal(DecimalValue value) {
+        return createDecimal(PythonBuiltinClassType.PDecimal, value);
+    }
+
+    public final PDecimalContext createDecimalContext(Object cls, long prec, int rounding, long emin, long emax, int capitals, int clamp, int flags, int traps) {
+        return trace(new PDecimalContext(cls, getShape(cls), prec, rounding, emin, emax, capitals, clamp, flags, traps));
+    }
+
+    public final DigestObject createDigestObject(Object cls, String name, int blockSize, MessageDigest digest) {
+        return trace(new DigestObject(cls, getShape(cls), name, blockSize, digest));
+    }
+
     public final PDebugHandle createDebugHandle(GraalHPyHandle handle) {
         return trace(new PDebugHandle(PythonBuiltinClassType.DebugHandle, getShape(PythonBuiltinClassType.DebugHandle), handle));
     }
@@ -43,7 +43,6 @@ class SysState:
     def __init__(self):
         self.recursionlimit = 8000 if __graalpython__.is_native else 1000
         self.checkinterval = 100
-        self.switchinterval = 0.005
 
 sys_state = SysState()
 del SysState
@@ -38,7 +38,8 @@
 # SOFTWARE.
 
 class Context:
-    pass
+    def run(self, callable, *args, **kwargs):
+        return callable(*args, **kwargs)
 
 
 _NO_DEFAULT = object()
@@ -73,4 +74,4 @@ class Token:
 
 
 def copy_context():
-    raise NotImplementedError
+    return Context()
@@ -0,0 +1,347 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# The types of this module are implemented in Java. This file only adds the class constants and
+# the methods that depend on the local time zone or are rarely performance critical.
+
+timedelta.min = timedelta(-999999999)
+timedelta.max = timedelta(days=999999999, hours=23, minutes=59, seconds=59, microseconds=999999)
+timedelta.resolution = timedelta(microseconds=1)
+
+date.min = date(1, 1, 1)
+date.max = date(9999, 12, 31)
+date.resolution = timedelta(days=1)
+
+time.min = time(0, 0, 0)
+time.max = time(23, 59, 59, 999999)
+time.resolution = timedelta(microseconds=1)
+
+datetime.min = datetime(1, 1, 1)
+datetime.max = datetime(9999, 12, 31, 23, 59, 59, 999999)
+datetime.resolution = timedelta(microseconds=1)
+
+timezone.utc = timezone(timedelta(0))
+timezone.min = timezone(-timedelta(hours=23, minutes=59))
+timezone.max = timezone(timedelta(hours=23, minutes=59))
+
+_EPOCH = datetime(1970, 1, 1, tzinfo=timezone.utc)
+
+
+def _date_fromtimestamp(cls, t):
+    "Construct a date from a POSIX timestamp (like time.time())."
+    import time as _time
+    y, m, d, hh, mm, ss, weekday, jday, dst = _time.localtime(t)
+    return cls(y, m, d)
+
+
+def _date_today(cls):
+    "Current date or datetime:  same as self.__class__.fromtimestamp(time.time())."
+    import time as _time
+    return cls.fromtimestamp(_time.time())
+
+
+def _date_fromisocalendar(cls, year, week, day):
+    """int, int, int -> Construct a date from the ISO year, week number and weekday.
+
+This is the inverse of the date.isocalendar() function"""
+    # Year is bounded this way because 9999-12-31 is (9999, 52, 5)
+    if not MINYEAR <= year <= MAXYEAR:
+        raise ValueError(f"Year is out of range: {year}")
+
+    if not 0 < week < 53:
+        out_of_range = True
+        if week == 53:
+            # ISO years have 53 weeks in them on years starting with a
+            # Thursday and leap years starting on a Wednesday
+            first_weekday = date(year, 1, 1).toordinal() % 7
+            is_leap = year % 4 == 0 and (year % 100 != 0 or year % 400 == 0)
+            if first_weekday == 4 or (first_weekday == 3 and is_leap):
+                out_of_range = False
+        if out_of_range:
+            raise ValueError(f"Invalid week: {week}")
+
+    if not 0 < day < 8:
+        raise ValueError(f"Invalid weekday: {day} (range is [1, 7])")
+
+    # the Monday of week 1 is the Monday on or before January 4th
+    jan4 = date(year, 1, 4).toordinal()
+    week1_monday = jan4 - (jan4 + 6) % 7
+    return cls.fromordinal(week1_monday + (week - 1) * 7 + (day - 1))
+
+
+date.fromtimestamp = classmethod(_date_fromtimestamp)
+date.today = classmethod(_date_today)
+date.fromisocalendar = classmethod(_date_fromisocalendar)
+
+
+def _datetime_fromtimestamp_impl(cls, t, utc, tz):
+    import math as _math
+    import time as _time
+    frac, t = _math.modf(t)
+    us = round(frac * 1e6)
+    if us >= 1000000:
+        t += 1
+        us -= 1000000
+    elif us < 0:
+        t -= 1
+        us += 1000000
+
+    converter = _time.gmtime if utc else _time.localtime
+    y, m, d, hh, mm, ss, weekday, jday, dst = converter(t)
+    ss = min(ss, 59)    # clamp out leap seconds if the platform has them
+    result = cls(y, m, d, hh, mm, ss, us, tz)
+    if tz is None and not utc:
+        # probe 24 hours in the past to detect a transition, like CPython
+        max_fold_seconds = 24 * 3600
+        y, m, d, hh, mm, ss = converter(t - max_fold_seconds)[:6]
+        probe1 = cls(y, m, d, hh, mm, ss, us, tz)
+        trans = result - probe1 - timedelta(0, max_fold_seconds)
+        if trans.days < 0:
+            y, m, d, hh, mm, ss = converter(t + trans // timedelta(0, 1))[:6]
+            probe2 = cls(y, m, d, hh, mm, ss, us, tz)
+            if probe2 == result:
+                result = result.replace(fold=1)
+    elif tz is not None:
+        result = tz.fromutc(result)
+    return result
+
+
+def _datetime_fromtimestamp(cls, t, tz=None):
+    "timestamp[, tz] -> tz's local time from POSIX timestamp."
+    if tz is not None and not isinstance(tz, tzinfo):
+        raise TypeError("tzinfo argument must be None or of a tzinfo subclass, not type '%s'" % type(tz).__name__)
+    return _datetime_fromtimestamp_impl(cls, t, tz is not None, tz)
+
+
+def _datetime_utcfromtimestamp(cls, t):
+    "Construct a naive UTC datetime from a POSIX timestamp."
+    return _datetime_fromtimestamp_impl(cls, t, True, None)
+
+
+def _datetime_now(cls, tz=None):
+    "Returns new datetime object representing current time local to tz."
+    import time as _time
+    return cls.fromtimestamp(_time.time(), tz)
+
+
+def _datetime_utcnow(cls):
+    "Return a new datetime representing UTC day and time."
+    import time as _time
+    return cls.utcfromtimestamp(_time.time())
+
+
+def _datetime_strptime(cls, date_string, format):
+    "string, format -> new datetime parsed from a string (like time.strptime())."
+    import _strptime
+    return _strptime._strptime_datetime(cls, date_string, format)
+
+
+def _datetime_mktime(self):
+    """Return integer POSIX timestamp."""
+    import time as _time
+    epoch = datetime(1970, 1, 1)
+    max_fold_seconds = 24 * 3600
+    t = (self - epoch) // timedelta(0, 1)
+
+    def local(u):
+        y, m, d, hh, mm, ss = _time.localtime(u)[:6]
+        return (datetime(y, m, d, hh, mm, ss) - epoch) // timedelta(0, 1)
+
+    # Our goal is to solve t = local(u) for u.
+    a = local(t) - t
+    u1 = t - a
+    t1 = local(u1)
+    if t1 == t:
+        # We found one solution, but it may not be the one we need.
+        # Look for an earlier solution (if `fold` is 0), or a
+        # later one (if `fold` is 1).
+        u2 = u1 + (-max_fold_seconds, max_fold_seconds)[self.fold]
+        b = local(u2) - u2
+        if a == b:
+            return u1
+    else:
+        b = t1 - u1
+        assert a != b
+    u2 = t - b
+    t2 = local(u2)
+    if t2 == t:
+        return u2
+    if t1 == t:
+        return u1
+    # We have found both offsets a and b, but neither t - a nor t - b is
+    # a solution.  This means t is in the gap.
+    return (max, min)[self.fold](u1, u2)
+
+
+def _datetime_timestamp(self):
+    "Return POSIX timestamp as float."
+    if self.tzinfo is None:
+        return _datetime_mktime(self) + self.microsecond / 1e6
+    return (self - _EPOCH).total_seconds()
+
+
+def _datetime_local_timezone(self):
+    import time as _time
+    if self.tzinfo is None:
+        ts = _datetime_mktime(self)
+    else:
+        ts = (self - _EPOCH) // timedelta(seconds=1)
+    localtm = _time.localtime(ts)
+    return timezone(timedelta(seconds=localtm.tm_gmtoff), localtm.tm_zone)
+
+
+def _datetime_astimezone(self, tz=None):
+    "tz -> convert to local time in new timezone tz\n"
+    if tz is None:
+        tz = _datetime_local_timezone(self)
+    elif not isinstance(tz, tzinfo):
+        raise TypeError("tz argument must be an instance of tzinfo")
+
+    mytz = self.tzinfo
+    if mytz is None:
+        mytz = _datetime_local_timezone(self)
+        myoffset = mytz.utcoffset(self)
+    else:
+        myoffset = mytz.utcoffset(self)
+        if myoffset is None:
+            mytz = _datetime_local_timezone(self.replace(tzinfo=None))
+            myoffset = mytz.utcoffset(self)
+
+    if tz is mytz:
+        return self
+
+    # Convert self to UTC, and attach the new time zone object.
+    utc = (self - myoffset).replace(tzinfo=tz)
+
+    # Convert from UTC to tz's local time.
+    return tz.fromutc(utc)
+
+
+def _datetime_utctimetuple(self):
+    "Return UTC time tuple, compatible with time.localtime()."
+    import time as _time
+    offset = self.utcoffset()
+    if offset:
+        self -= offset
+    tm = self.replace(tzinfo=None).timetuple()
+    return _time.struct_time((tm.tm_year, tm.tm_mon, tm.tm_mday, tm.tm_hour, tm.tm_min, tm.tm_sec, tm.tm_wday, tm.tm_yday, 0))
+
+
+datetime.fromtimestamp = classmethod(_datetime_fromtimestamp)
+datetime.utcfromtimestamp = classmethod(_datetime_utcfromtimestamp)
+datetime.now = classmethod(_datetime_now)
+datetime.utcnow = classmethod(_datetime_utcnow)
+datetime.strptime = classmethod(_datetime_strptime)
+datetime.timestamp = __graalpython__.builtin_method(_datetime_timestamp)
+datetime.astimezone = __graalpython__.builtin_method(_datetime_astimezone)
+datetime.utctimetuple = __graalpython__.builtin_method(_datetime_utctimetuple)
+
+
+def _tzinfo_tzname(self, dt):
+    "datetime -> string name of time zone."
+    raise NotImplementedError("a tzinfo subclass must implement tzname()")
+
+
+def _tzinfo_utcoffset(self, dt):
+    "datetime -> timedelta showing offset from UTC, negative values indicating West of UTC"
+    raise NotImplementedError("a tzinfo subclass must implement utcoffset()")
+
+
+def _tzinfo_dst(self, dt):
+    "datetime -> DST offset as timedelta positive east of UTC."
+    raise NotImplementedError("a tzinfo subclass must implement dst()")
+
+
+def _tzinfo_fromutc(self, dt):
+    "datetime in UTC -> datetime in local time."
+    if not isinstance(dt, datetime):
+        raise TypeError("fromutc: argument must be a datetime")
+    if dt.tzinfo is not self:
+        raise ValueError("fromutc: dt.tzinfo is not self")
+
+    dtoff = dt.utcoffset()
+    if dtoff is None:
+        raise ValueError("fromutc: non-None utcoffset() result required")
+    dtdst = dt.dst()
+    if dtdst is None:
+        raise ValueError("fromutc: non-None dst() result required")
+    delta = dtoff - dtdst
+    if delta:
+        dt += delta
+        dtdst = dt.dst()
+        if dtdst is None:
+            raise ValueError("fromutc: tz.dst() gave inconsistent results; cannot convert")
+    return dt + dtdst
+
+
+def _tzinfo_reduce(self):
+    "-> (cls, state)"
+    getinitargs = getattr(self, "__getinitargs__", None)
+    if getinitargs:
+        args = getinitargs()
+    else:
+        args = ()
+    getstate = getattr(self, "__getstate__", None)
+    if getstate:
+        state = getstate()
+    else:
+        state = getattr(self, "__dict__", None) or None
+    if state is None:
+        return (self.__class__, args)
+    else:
+        return (self.__class__, args, state)
+
+
+tzinfo.tzname = __graalpython__.builtin_method(_tzinfo_tzname)
+tzinfo.utcoffset = __graalpython__.builtin_method(_tzinfo_utcoffset)
+tzinfo.dst = __graalpython__.builtin_method(_tzinfo_dst)
+tzinfo.fromutc = __graalpython__.builtin_method(_tzinfo_fromutc)
+tzinfo.__reduce__ = __graalpython__.builtin_method(_tzinfo_reduce)
+
+
+def _timezone_fromutc(self, dt):
+    "datetime in UTC -> datetime in local time."
+    if not isinstance(dt, datetime):
+        raise TypeError("fromutc: argument must be a datetime")
+    if dt.tzinfo is not self:
+        raise ValueError("fromutc: dt.tzinfo is not self")
+    return dt + self.utcoffset(None)
+
+
+timezone.fromutc = __graalpython__.builtin_method(_timezone_fromutc)
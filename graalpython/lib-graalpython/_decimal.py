@@ -0,0 +1,557 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# The Decimal and Context types and the arithmetic hot paths are implemented in Java. This file adds
+# the signal classes, the module-level contexts and the functions that are rarely performance
+# critical. The transcendental and the remaining long-tail operations delegate to _pydecimal.
+
+
+class DecimalException(ArithmeticError):
+    __module__ = 'decimal'
+
+
+class Clamped(DecimalException):
+    __module__ = 'decimal'
+
+
+class InvalidOperation(DecimalException):
+    __module__ = 'decimal'
+
+
+class ConversionSyntax(InvalidOperation):
+    __module__ = 'decimal'
+
+
+class DivisionByZero(DecimalException, ZeroDivisionError):
+    __module__ = 'decimal'
+
+
+class DivisionImpossible(InvalidOperation):
+    __module__ = 'decimal'
+
+
+class DivisionUndefined(InvalidOperation, ZeroDivisionError):
+    __module__ = 'decimal'
+
+
+class Inexact(DecimalException):
+    __module__ = 'decimal'
+
+
+class InvalidContext(InvalidOperation):
+    __module__ = 'decimal'
+
+
+class Rounded(DecimalException):
+    __module__ = 'decimal'
+
+
+class Subnormal(DecimalException):
+    __module__ = 'decimal'
+
+
+class Overflow(Inexact, Rounded):
+    __module__ = 'decimal'
+
+
+class Underflow(Inexact, Rounded, Subnormal):
+    __module__ = 'decimal'
+
+
+class FloatOperation(DecimalException, TypeError):
+    __module__ = 'decimal'
+
+
+# The signals and their condition masks, in the order used by repr() and by the Java code.
+_SIGNALS = {
+    InvalidOperation: 0x3BA,
+    FloatOperation: 0x400,
+    DivisionByZero: 0x4,
+    Overflow: 0x800,
+    Underflow: 0x4000,
+    Subnormal: 0x2000,
+    Inexact: 0x40,
+    Rounded: 0x1000,
+    Clamped: 0x1,
+}
+
+# The status bits that _pydecimal's flags are reported as.
+_STATUS = {
+    'InvalidOperation': 0x100,
+    'FloatOperation': 0x400,
+    'DivisionByZero': 0x4,
+    'Overflow': 0x800,
+    'Underflow': 0x4000,
+    'Subnormal': 0x2000,
+    'Inexact': 0x40,
+    'Rounded': 0x1000,
+    'Clamped': 0x1,
+}
+
+_INVALID_SIGNALS = ("valid values for signals are:\n"
+                    "  [InvalidOperation, FloatOperation, DivisionByZero,\n"
+                    "   Overflow, Underflow, Subnormal, Inexact, Rounded,\n"
+                    "   Clamped]")
+
+
+def _signal_mask(signal):
+    try:
+        return _SIGNALS[signal]
+    except (KeyError, TypeError):
+        raise KeyError(_INVALID_SIGNALS) from None
+
+
+def _signals_to_mask(value):
+    mask = 0
+    if isinstance(value, list):
+        for signal in value:
+            mask |= _signal_mask(signal)
+    elif isinstance(value, (dict, _SignalDict)):
+        if len(value) != len(_SIGNALS):
+            raise KeyError(_INVALID_SIGNALS)
+        for signal, enabled in value.items():
+            m = _signal_mask(signal)
+            if enabled:
+                mask |= m
+    else:
+        raise TypeError("argument must be a signal dict")
+    return mask
+
+
+class _SignalDict:
+    """A live view of the flags or traps of a context, mapping each signal to a bool."""
+
+    __slots__ = ('_context', '_traps')
+
+    def __init__(self, context, traps):
+        self._context = context
+        self._traps = traps
+
+    def _get(self):
+        return self._context._traps if self._traps else self._context._flags
+
+    def _set(self, mask):
+        if self._traps:
+            self._context._traps = mask
+        else:
+            self._context._flags = mask
+
+    def __getitem__(self, key):
+        return bool(self._get() & _signal_mask(key))
+
+    def __setitem__(self, key, value):
+        mask = _signal_mask(key)
+        if value:
+            self._set(self._get() | mask)
+        else:
+            self._set(self._get() & ~mask)
+
+    def __delitem__(self, key):
+        raise ValueError("signal keys cannot be deleted")
+
+    def __contains__(self, key):
+        return key in _SIGNALS
+
+    def __iter__(self):
+        return iter(_SIGNALS)
+
+    def __len__(self):
+        return len(_SIGNALS)
+
+    def get(self, key, default=None):
+        if key in _SIGNALS:
+            return self[key]
+        return default
+
+    def keys(self):
+        return list(_SIGNALS)
+
+    def values(self):
+        mask = self._get()
+        return [bool(mask & m) for m in _SIGNALS.values()]
+
+    def items(self):
+        mask = self._get()
+        return [(s, bool(mask & m)) for s, m in _SIGNALS.items()]
+
+    def copy(self):
+        return dict(self.items())
+
+    def __eq__(self, other):
+        if isinstance(other, (dict, _SignalDict)):
+            return self.copy() == dict(other.items())
+        return NotImplemented
+
+    __hash__ = None
+
+    def __repr__(self):
+        return '{' + ', '.join('<class \'decimal.%s\'>:%s' % (s.__name__, v) for s, v in self.items()) + '}'
+
+
+def _signal_names(mask):
+    return '[' + ', '.join(s.__name__ for s, m in _SIGNALS.items() if mask & m) + ']'
+
+
+def _signal_list(mask):
+    return [s for s, m in _SIGNALS.items() if mask & m]
+
+
+def _context_flags(self):
+    return _SignalDict(self, False)
+
+
+def _context_set_flags(self, value):
+    if isinstance(value, list):
+        raise TypeError("argument must be a signal dict")
+    self._flags = _signals_to_mask(value)
+
+
+def _context_traps(self):
+    return _SignalDict(self, True)
+
+
+def _context_set_traps(self, value):
+    if isinstance(value, list):
+        raise TypeError("argument must be a signal dict")
+    self._traps = _signals_to_mask(value)
+
+
+def _context_repr(self):
+    return ("Context(prec=%d, rounding=%s, Emin=%d, Emax=%d, capitals=%d, clamp=%d, flags=%s, traps=%s)" %
+            (self.prec, self.rounding, self.Emin, self.Emax, self.capitals, self.clamp,
+             _signal_names(self._flags), _signal_names(self._traps)))
+
+
+def _context_reduce(self):
+    return (type(self), (self.prec, self.rounding, self.Emin, self.Emax, self.capitals, self.clamp,
+                         _signal_list(self._flags), _signal_list(self._traps)))
+
+
+Context.flags = property(_context_flags, _context_set_flags)
+Context.traps = property(_context_traps, _context_set_traps)
+Context.__repr__ = _context_repr
+Context.__reduce__ = _context_reduce
+
+DefaultContext = Context(prec=28, rounding=ROUND_HALF_EVEN, Emin=-999999, Emax=999999, capitals=1, clamp=0,
+                         flags=[], traps=[InvalidOperation, DivisionByZero, Overflow])
+
+BasicContext = Context(prec=9, rounding=ROUND_HALF_UP, flags=[],
+                       traps=[Clamped, InvalidOperation, DivisionByZero, Overflow, Underflow])
+
+ExtendedContext = Context(prec=9, rounding=ROUND_HALF_EVEN, flags=[], traps=[])
+
+
+class _ContextManager(object):
+    """Context manager class to support localcontext()."""
+
+    def __init__(self, new_context):
+        self.new_context = new_context.copy()
+
+    def __enter__(self):
+        self.saved_context = getcontext()
+        setcontext(self.new_context)
+        return self.new_context
+
+    def __exit__(self, t, v, tb):
+        setcontext(self.saved_context)
+
+
+def localcontext(ctx=None):
+    """Return a context manager that will set the default context to a copy of ctx
+    on entry to the with-statement and restore the previous default context when
+    exiting the with-statement. If no context is specified, a copy of the current
+    default context is used.
+    """
+    if ctx is None:
+        ctx = getcontext()
+    elif not isinstance(ctx, Context):
+        raise TypeError("optional argument must be a context")
+    return _ContextManager(ctx)
+
+
+class DecimalTuple(tuple):
+    """DecimalTuple(sign, digits, exponent)"""
+
+    __module__ = 'decimal'
+    __slots__ = ()
+    _fields = ('sign', 'digits', 'exponent')
+
+    def __new__(cls, sign, digits, exponent):
+        return tuple.__new__(cls, (sign, digits, exponent))
+
+    sign = property(lambda self: self[0], doc='Alias for field number 0')
+    digits = property(lambda self: self[1], doc='Alias for field number 1')
+    exponent = property(lambda self: self[2], doc='Alias for field number 2')
+
+    def __repr__(self):
+        return 'DecimalTuple(sign=%r, digits=%r, exponent=%r)' % self
+
+    def __getnewargs__(self):
+        return tuple(self)
+
+    def _asdict(self):
+        return {'sign': self[0], 'digits': self[1], 'exponent': self[2]}
+
+    def _replace(self, **kwargs):
+        result = DecimalTuple(*map(kwargs.pop, self._fields, self))
+        if kwargs:
+            raise ValueError('Got unexpected field names: %r' % list(kwargs))
+        return result
+
+
+_CMP_OPS = (
+    lambda a, b: a < b,
+    lambda a, b: a <= b,
+    lambda a, b: a == b,
+    lambda a, b: a != b,
+    lambda a, b: a > b,
+    lambda a, b: a >= b,
+)
+
+
+def _compare_other(self, other, op):
+    """Rich comparison with the numeric types that are not handled in Java."""
+    import numbers
+    if isinstance(other, numbers.Rational):
+        if not self.is_finite():
+            return _CMP_OPS[op](self, Decimal(other.numerator))
+        from fractions import Fraction
+        return _CMP_OPS[op](Fraction(*self.as_integer_ratio()), other)
+    if (op == 2 or op == 3) and isinstance(other, numbers.Complex) and other.imag == 0:
+        return _CMP_OPS[op](self, other.real)
+    return NotImplemented
+
+
+def _convert(value):
+    if isinstance(value, Decimal):
+        return value
+    if isinstance(value, int):
+        return Decimal(value)
+    raise TypeError("conversion from %s to Decimal is not supported" % type(value).__name__)
+
+
+def _get_context(context):
+    if context is None:
+        return getcontext()
+    if not isinstance(context, Context):
+        raise TypeError("optional argument must be a context")
+    return context
+
+
+# ----------------------------------------------------------------------------------------------
+# Delegation to _pydecimal
+
+def _pd_call(context, name, *args):
+    """Calls the _pydecimal method 'name' on the converted arguments under an untrapped copy of
+    'context', then reports the resulting flags to 'context', which raises a trapped signal."""
+    import _pydecimal as pd
+    ctx = _get_context(context)
+    pd_ctx = pd.Context(prec=ctx.prec, rounding=ctx.rounding, Emin=ctx.Emin, Emax=ctx.Emax,
+                        capitals=ctx.capitals, clamp=ctx.clamp, flags=[], traps=[])
+    pd_args = [pd.Decimal(str(a)) if isinstance(a, Decimal) else a for a in args]
+    result = getattr(pd_args[0], name)(*pd_args[1:], context=pd_ctx)
+    status = 0
+    for signal, raised in pd_ctx.flags.items():
+        if raised:
+            status |= _STATUS[signal.__name__]
+    if status:
+        ctx._add_status(status)
+    if isinstance(result, pd.Decimal):
+        return Decimal(str(result))
+    return result
+
+
+def _delegate_unary(name):
+    def method(self, context=None):
+        return _pd_call(context, name, self)
+    method.__name__ = name
+    method.__qualname__ = 'Decimal.' + name
+    return method
+
+
+def _delegate_binary(name):
+    def method(self, other, context=None):
+        return _pd_call(context, name, self, _convert(other))
+    method.__name__ = name
+    method.__qualname__ = 'Decimal.' + name
+    return method
+
+
+for _name in ('exp', 'ln', 'log10', 'logb', 'logical_invert', 'next_minus', 'next_plus', 'number_class', 'sqrt'):
+    setattr(Decimal, _name, _delegate_unary(_name))
+
+for _name in ('compare_signal', 'compare_total', 'compare_total_mag', 'logical_and', 'logical_or', 'logical_xor',
+              'max_mag', 'min_mag', 'next_toward', 'remainder_near', 'rotate', 'scaleb', 'shift'):
+    setattr(Decimal, _name, _delegate_binary(_name))
+
+
+def _decimal_fma(self, other, third, context=None):
+    """Fused multiply-add. Return self*other+third with no rounding of the intermediate product."""
+    return _pd_call(context, 'fma', self, _convert(other), _convert(third))
+
+
+def _decimal_pow(self, other, modulo=None):
+    if not isinstance(other, (Decimal, int)) or not (modulo is None or isinstance(modulo, (Decimal, int))):
+        return NotImplemented
+    return _pd_call(None, '__pow__', self, _convert(other), None if modulo is None else _convert(modulo))
+
+
+def _decimal_rpow(self, other):
+    if not isinstance(other, (Decimal, int)):
+        return NotImplemented
+    return _decimal_pow(_convert(other), self)
+
+
+def _format_with_locale(self, specifier, override=None):
+    """Formats with the locale-specific separators of the 'n' type or of the 'override' dict, which
+    the native __format__ leaves to _pydecimal."""
+    import _pydecimal as pd
+    ctx = getcontext()
+    pd_ctx = pd.Context(prec=ctx.prec, rounding=ctx.rounding, Emin=ctx.Emin, Emax=ctx.Emax,
+                        capitals=ctx.capitals, clamp=ctx.clamp, flags=[], traps=[])
+    return pd.Decimal(str(self)).__format__(specifier, pd_ctx, override)
+
+
+def _decimal_as_integer_ratio(self):
+    """Return a pair of integers, whose ratio is exactly equal to the original Decimal
+    and with a positive denominator. The ratio is in lowest terms.
+    """
+    if self.is_nan():
+        raise ValueError("cannot convert NaN to integer ratio")
+    if self.is_infinite():
+        raise OverflowError("cannot convert Infinity to integer ratio")
+    if not self:
+        return 0, 1
+    sign, digits, exp = self.as_tuple()
+    n = int(''.join(map(str, digits)))
+    if exp >= 0:
+        n, d = n * 10 ** exp, 1
+    else:
+        d5 = -exp
+        while d5 > 0 and n % 5 == 0:
+            n //= 5
+            d5 -= 1
+        d2 = -exp
+        shift2 = min((n & -n).bit_length() - 1, d2)
+        if shift2:
+            n >>= shift2
+            d2 -= shift2
+        d = 5 ** d5 << d2
+    if sign:
+        n = -n
+    return n, d
+
+
+def _decimal_complex(self):
+    return complex(float(self))
+
+
+Decimal.fma = _decimal_fma
+Decimal.__pow__ = _decimal_pow
+Decimal.__rpow__ = _decimal_rpow
+Decimal.as_integer_ratio = _decimal_as_integer_ratio
+Decimal.__complex__ = _decimal_complex
+
+
+# ----------------------------------------------------------------------------------------------
+# The Context methods that are not implemented in Java
+
+def _context_unary(name, with_context):
+    if with_context:
+        def method(self, a):
+            return getattr(_convert(a), name)(context=self)
+    else:
+        def method(self, a):
+            return getattr(_convert(a), name)()
+    method.__name__ = name
+    method.__qualname__ = 'Context.' + name
+    return method
+
+
+def _context_binary(name):
+    def method(self, a, b):
+        return getattr(_convert(a), name)(b, context=self)
+    method.__name__ = name
+    method.__qualname__ = 'Context.' + name
+    return method
+
+
+for _name in ('exp', 'ln', 'log10', 'logb', 'logical_invert', 'next_minus', 'next_plus', 'number_class', 'sqrt',
+              'is_normal', 'is_subnormal'):
+    setattr(Context, _name, _context_unary(_name, True))
+
+for _name in ('copy_abs', 'copy_negate', 'is_canonical', 'is_finite', 'is_infinite', 'is_nan', 'is_qnan', 'is_signed',
+              'is_snan', 'is_zero'):
+    setattr(Context, _name, _context_unary(_name, False))
+
+for _name in ('compare_signal', 'compare_total', 'compare_total_mag', 'copy_sign', 'logical_and', 'logical_or',
+              'logical_xor', 'max_mag', 'min_mag', 'next_toward', 'remainder_near', 'rotate', 'same_quantum', 'scaleb',
+              'shift'):
+    setattr(Context, _name, _context_binary(_name))
+
+del _name
+
+
+def _context_canonical(self, a):
+    if not isinstance(a, Decimal):
+        raise TypeError("argument must be a Decimal")
+    return a
+
+
+def _context_copy_decimal(self, a):
+    return _convert(a)
+
+
+def _context_fma(self, a, b, c):
+    return _convert(a).fma(b, c, context=self)
+
+
+def _context_power(self, a, b, modulo=None):
+    return _pd_call(self, '__pow__', _convert(a), _convert(b), None if modulo is None else _convert(modulo))
+
+
+def _context_radix(self):
+    return Decimal(10)
+
+
+Context.canonical = _context_canonical
+Context.copy_decimal = _context_copy_decimal
+Context.fma = _context_fma
+Context.power = _context_power
+Context.radix = _context_radix
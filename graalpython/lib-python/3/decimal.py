@@ -4,6 +4,12 @@ try:
     from _decimal import __doc__
     from _decimal import __version__
     from _decimal import __libmpdec_version__
+    # Begin Truffle change
+    # the Java _decimal module is initialized before 'numbers' can be imported
+    import numbers as _numbers
+    _numbers.Number.register(Decimal)
+    del _numbers
+    # End Truffle change
 except ImportError:
     from _pydecimal import *
     from _pydecimal import __doc__
@@ -106,6 +106,12 @@ __author__ = 'Bob Ippolito <bob@redivi.com>'
 from .decoder import JSONDecoder, JSONDecodeError
 from .encoder import JSONEncoder
 import codecs
+# Begin Truffle change
+try:
+    from _json import decode_utf8 as c_decode_utf8
+except ImportError:
+    c_decode_utf8 = None
+# End Truffle change
 
 _default_encoder = JSONEncoder(
     skipkeys=False,
@@ -341,6 +347,17 @@ def loads(s, *, cls=None, object_hook=None, parse_float=None,
         if not isinstance(s, (bytes, bytearray)):
             raise TypeError(f'the JSON object must be str, bytes or bytearray, '
                             f'not {s.__class__.__name__}')
+        # Begin Truffle change
+        if (c_decode_utf8 is not None and cls is None and object_hook is None and
+                parse_int is None and parse_float is None and
+                parse_constant is None and object_pairs_hook is None and not kw and
+                detect_encoding(s) == 'utf-8'):
+            try:
+                return c_decode_utf8(_default_decoder.scan_once, s)
+            except ValueError:
+                # not supported by the fast path, decode and report errors below
+                pass
+        # End Truffle change
         s = s.decode(detect_encoding(s), 'surrogatepass')
 
     if "encoding" in kw:
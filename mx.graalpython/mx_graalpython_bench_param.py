@@ -98,6 +98,8 @@ MICRO_BENCHMARKS = {
     'call-classmethod-sized': ITER_10 + ['500_000_000'],
     'mmap-anonymous-sized': ITER_10 + ['20_000'],
     'mmap-file': ITER_10 + ['1000'],
+    'mmap-file-sized': ITER_10 + ['10', '64'],
+    'gzip-threads': ITER_10 + ['20', '4'],
     'generate-functions-sized': ITER_15 + ['500_000_000'],
     'try-except-simple': ITER_10 + ['500_000_000'],
     'try-except-store-simple': ITER_10 + ['500_000_000'],
@@ -146,6 +148,8 @@ MICRO_BENCHMARKS_SMALL = {
     'call-classmethod-sized': ITER_6 + WARMUP_2 + ['1_000_000'],
     'mmap-anonymous-sized': ITER_6 + WARMUP_2 + ['1_000'],
     'mmap-file': ITER_6 + WARMUP_2 + ['100'],
+    'mmap-file-sized': ITER_6 + WARMUP_2 + ['2', '16'],
+    'gzip-threads': ITER_6 + WARMUP_2 + ['2', '4'],
     'generate-functions-sized': ITER_6 + WARMUP_2 + ['1_000_000'],
     'try-except-simple': ITER_6 + WARMUP_2 + ['2_500_000'],
     'try-except-store-simple': ITER_6 + WARMUP_2 + ['2_000_000'],
@@ -182,6 +186,7 @@ MICRO_NATIVE_BENCHMARKS = {
     'c-issubtype-monorphic': ITER_10 + ['50000000'],
     'c-call-method': ITER_15 + ['5000000'],
     'c-instantiate-large': ITER_15 + ['1000'],
+    'hpy-handle-churn': ITER_10 + ['20', '100000'],
 }
 
 
@@ -196,6 +201,7 @@ MESO_BENCHMARKS = {
     'pads-integerpartitions': ITER_10 + ['700'],
     'pads-bipartite-sized': ITER_10 + ['100_000'],
     'pads-lyndon': ITER_15 + ['10000000'],
+    'asyncio-echo': ITER_10 + ['1000'],
     # -------------------------------------------------------
     # object benchmarks
     # -------------------------------------------------------
@@ -248,6 +254,7 @@ MESO_BENCHMARKS_SMALL = {
     'chaos': ITER_10 + WARMUP_2 + ['2'],
     'image-magix': ITER_10 + WARMUP_2 + ['100'],
     'raytrace-simple': ITER_10 + WARMUP_2 + ['110', '110'],
+    'asyncio-echo': ITER_10 + WARMUP_2 + ['20'],
 }
 
 
@@ -286,6 +293,12 @@ JAVA_EMBEDDING_MESO_BENCHMARKS = {
     'raytrace-simple': ITER_6 + WARMUP_2 + [],
 }
 
+# each iteration runs in a new context and measures the time to its first result, so the iteration
+# number is the number of contexts that were created before on the same (shared) engine
+JAVA_EMBEDDING_STARTUP_BENCHMARKS = {
+    'context-startup': ITER_10 + WARMUP_2 + ['-startup', '--', '100'],
+}
+
 JAVA_EMBEDDING_MESO_BENCHMARKS_SMALL = {
     'chaos': ITER_6 + WARMUP_2 + ['--', '1'],
     'richards3': ITER_6 + WARMUP_2 + ['--', '2'],
@@ -315,6 +328,7 @@ PARSER_JAVA_BENCHMARKS = {
     'sst-translating-lib-files': [_PARSER_JAVA_PACKAGE + 'SSTTranslating'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
     'serializing-lib-files': [_PARSER_JAVA_PACKAGE + 'Serializing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
     'deserializing-lib-files': [_PARSER_JAVA_PACKAGE + 'Deserializing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
+    'importing-from-cache-lib-files': [_PARSER_JAVA_PACKAGE + 'ImportingFromCache'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
 }
 
 # ----------------------------------------------------------------------------------------------------------------------
@@ -335,6 +349,7 @@ BENCHMARKS = {
 JAVA_DRIVER_BENCHMARKS = {
     "java-embedding-meso": [PATH_MESO, JAVA_EMBEDDING_MESO_BENCHMARKS],
     "java-embedding-meso-small": [PATH_MESO, JAVA_EMBEDDING_MESO_BENCHMARKS_SMALL],
+    "java-embedding-startup": [PATH_JAVA_EMBEDDING, JAVA_EMBEDDING_STARTUP_BENCHMARKS],
 }
 
 WARMUP_BENCHMARKS = {